@@ -17,7 +17,9 @@
 package com.alibaba.cloud.ai.autoconfigure.dashscope;
 
 import com.alibaba.cloud.ai.dashscope.api.DashScopeApi;
+import com.alibaba.cloud.ai.dashscope.embedding.CachingDashScopeEmbeddingModel;
 import com.alibaba.cloud.ai.dashscope.embedding.DashScopeEmbeddingModel;
+import com.alibaba.cloud.ai.embedding.MappedFileEmbeddingStore;
 import io.micrometer.observation.ObservationRegistry;
 import org.springframework.ai.embedding.observation.EmbeddingModelObservationConvention;
 import org.springframework.ai.retry.autoconfigure.SpringAiRetryAutoConfiguration;
@@ -33,10 +35,13 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Primary;
 import org.springframework.retry.support.RetryTemplate;
+import org.springframework.util.StringUtils;
 import org.springframework.web.client.ResponseErrorHandler;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import java.nio.file.Path;
+
 import static com.alibaba.cloud.ai.autoconfigure.dashscope.DashScopeConnectionUtils.resolveConnectionProperties;
 
 /**
@@ -69,8 +74,7 @@ public class DashScopeEmbeddingAutoConfiguration {
 				restClientBuilderProvider.getIfAvailable(RestClient::builder),
 				webClientBuilderProvider.getIfAvailable(WebClient::builder), responseErrorHandler);
 
-		var embeddingModel = new DashScopeEmbeddingModel(dashScopeApi, embeddingProperties.getMetadataMode(),
-				embeddingProperties.getOptions(), retryTemplate,
+		var embeddingModel = createEmbeddingModel(dashScopeApi, embeddingProperties, retryTemplate,
 				observationRegistry.getIfUnique(() -> ObservationRegistry.NOOP));
 
 		observationConvention.ifAvailable(embeddingModel::setObservationConvention);
@@ -78,6 +82,28 @@ public class DashScopeEmbeddingAutoConfiguration {
 		return embeddingModel;
 	}
 
+	/**
+	 * Only the model created here is cached, with a key derived from its own options and
+	 * the persistent file of {@code spring.ai.dashscope.embedding.cache}. Models declared
+	 * elsewhere are left as they are.
+	 */
+	private DashScopeEmbeddingModel createEmbeddingModel(DashScopeApi dashScopeApi,
+			DashScopeEmbeddingProperties embeddingProperties, RetryTemplate retryTemplate,
+			ObservationRegistry observationRegistry) {
+		DashScopeEmbeddingProperties.Cache cache = embeddingProperties.getCache();
+		if (!cache.isEnabled()) {
+			return new DashScopeEmbeddingModel(dashScopeApi, embeddingProperties.getMetadataMode(),
+					embeddingProperties.getOptions(), retryTemplate, observationRegistry);
+		}
+
+		MappedFileEmbeddingStore persistentStore = StringUtils.hasText(cache.getPersistentPath())
+				? new MappedFileEmbeddingStore(Path.of(cache.getPersistentPath()), cache.getPersistentCapacity())
+				: null;
+		return new CachingDashScopeEmbeddingModel(dashScopeApi, embeddingProperties.getMetadataMode(),
+				embeddingProperties.getOptions(), retryTemplate, observationRegistry, cache.getMaxEntries(),
+				persistentStore);
+	}
+
 	private DashScopeApi dashscopeEmbeddingApi(DashScopeConnectionProperties commonProperties,
 			DashScopeEmbeddingProperties embeddingProperties, RestClient.Builder restClientBuilder,
 			WebClient.Builder webClientBuilder, ResponseErrorHandler responseErrorHandler) {
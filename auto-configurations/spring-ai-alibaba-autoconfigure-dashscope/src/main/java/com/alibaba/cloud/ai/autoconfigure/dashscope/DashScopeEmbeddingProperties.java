@@ -40,6 +40,11 @@ public class DashScopeEmbeddingProperties extends DashScopeParentProperties {
 		.withModel(DEFAULT_EMBEDDING_MODEL)
 		.build();
 
+	/**
+	 * Query-embedding cache in front of the embedding model.
+	 */
+	private Cache cache = new Cache();
+
 	public DashScopeEmbeddingOptions getOptions() {
 		return this.options;
 	}
@@ -64,4 +69,72 @@ public class DashScopeEmbeddingProperties extends DashScopeParentProperties {
 		this.enabled = enabled;
 	}
 
+	public Cache getCache() {
+		return this.cache;
+	}
+
+	public void setCache(Cache cache) {
+		this.cache = cache;
+	}
+
+	public static class Cache {
+
+		/**
+		 * Cache the embeddings of the auto-configured DashScope embedding model. The bean
+		 * is then a
+		 * {@link com.alibaba.cloud.ai.dashscope.embedding.CachingDashScopeEmbeddingModel}.
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * Maximum number of embeddings held in memory.
+		 */
+		private int maxEntries = 10_000;
+
+		/**
+		 * File of the optional memory-mapped persistent tier, disabled when empty. The
+		 * file belongs to the auto-configured model only and must not be shared with
+		 * another application.
+		 */
+		private String persistentPath;
+
+		/**
+		 * Capacity of the persistent tier in bytes.
+		 */
+		private int persistentCapacity = 256 * 1024 * 1024;
+
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public int getMaxEntries() {
+			return this.maxEntries;
+		}
+
+		public void setMaxEntries(int maxEntries) {
+			this.maxEntries = maxEntries;
+		}
+
+		public String getPersistentPath() {
+			return this.persistentPath;
+		}
+
+		public void setPersistentPath(String persistentPath) {
+			this.persistentPath = persistentPath;
+		}
+
+		public int getPersistentCapacity() {
+			return this.persistentCapacity;
+		}
+
+		public void setPersistentCapacity(int persistentCapacity) {
+			this.persistentCapacity = persistentCapacity;
+		}
+
+	}
+
 }
@@ -71,7 +71,8 @@ public class DashScopeRerankAutoConfiguration {
 			.responseErrorHandler(responseErrorHandler)
 			.build();
 
-		return new DashScopeRerankModel(dashScopeApi, rerankProperties.getOptions(), retryTemplate);
+		return new DashScopeRerankModel(dashScopeApi, rerankProperties.getOptions(), retryTemplate,
+				rerankProperties.getBatch());
 	}
 
 }
@@ -16,6 +16,7 @@
 
 package com.alibaba.cloud.ai.autoconfigure.dashscope;
 
+import com.alibaba.cloud.ai.dashscope.rerank.DashScopeRerankBatchOptions;
 import com.alibaba.cloud.ai.dashscope.rerank.DashScopeRerankOptions;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
@@ -54,6 +55,12 @@ public class DashScopeRerankProperties extends DashScopeParentProperties {
 	@NestedConfigurationProperty
 	private DashScopeRerankOptions options = DashScopeRerankOptions.builder().withModel(DEFAULT_RERANK_MODEL).build();
 
+	/**
+	 * Client-side batching, truncation and score caching.
+	 */
+	@NestedConfigurationProperty
+	private DashScopeRerankBatchOptions batch = DashScopeRerankBatchOptions.builder().build();
+
 	public DashScopeRerankOptions getOptions() {
 		return this.options;
 	}
@@ -62,6 +69,14 @@ public class DashScopeRerankProperties extends DashScopeParentProperties {
 		this.options = options;
 	}
 
+	public DashScopeRerankBatchOptions getBatch() {
+		return batch;
+	}
+
+	public void setBatch(DashScopeRerankBatchOptions batch) {
+		this.batch = batch;
+	}
+
 	public Integer getTopN() {
 		return topN;
 	}
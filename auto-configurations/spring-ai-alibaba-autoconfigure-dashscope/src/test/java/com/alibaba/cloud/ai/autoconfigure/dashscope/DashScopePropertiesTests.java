@@ -23,12 +23,14 @@ import com.alibaba.cloud.ai.dashscope.audio.DashScopeAudioTranscriptionModel;
 import com.alibaba.cloud.ai.dashscope.audio.DashScopeAudioTranscriptionOptions;
 import com.alibaba.cloud.ai.dashscope.audio.DashScopeSpeechSynthesisModel;
 import com.alibaba.cloud.ai.dashscope.chat.DashScopeChatModel;
+import com.alibaba.cloud.ai.dashscope.embedding.CachingDashScopeEmbeddingModel;
 import com.alibaba.cloud.ai.dashscope.embedding.DashScopeEmbeddingModel;
 import com.alibaba.cloud.ai.dashscope.image.DashScopeImageModel;
 import org.junit.jupiter.api.Test;
 import org.skyscreamer.jsonassert.JSONAssert;
 import org.skyscreamer.jsonassert.JSONCompareMode;
 
+import org.springframework.ai.embedding.EmbeddingModel;
 import org.springframework.ai.model.ModelOptionsUtils;
 import org.springframework.boot.autoconfigure.AutoConfigurations;
 import org.springframework.boot.test.context.runner.ApplicationContextRunner;
@@ -261,6 +263,45 @@ public class DashScopePropertiesTests {
 			});
 	}
 
+	@Test
+	public void embeddingCacheProperties() {
+
+		new ApplicationContextRunner().withPropertyValues(
+		// @formatter:off
+						"spring.ai.dashscope.api-key=abc123_test",
+						"spring.ai.dashscope.embedding.cache.enabled=true",
+						"spring.ai.dashscope.embedding.cache.max-entries=128")
+				// @formatter:on
+			.withConfiguration(AutoConfigurations.of(DashScopeEmbeddingAutoConfiguration.class))
+			.run(context -> {
+				var embeddingProperties = context.getBean(DashScopeEmbeddingProperties.class);
+
+				assertThat(embeddingProperties.getCache().isEnabled()).isTrue();
+				assertThat(embeddingProperties.getCache().getMaxEntries()).isEqualTo(128);
+				assertThat(context.getBean(EmbeddingModel.class)).isInstanceOf(CachingDashScopeEmbeddingModel.class);
+				assertThat(context.getBean(DashScopeEmbeddingModel.class))
+					.isSameAs(context.getBean(EmbeddingModel.class));
+			});
+	}
+
+	@Test
+	public void embeddingCacheDoesNotWrapUserEmbeddingModel() {
+
+		new ApplicationContextRunner().withPropertyValues(
+		// @formatter:off
+						"spring.ai.dashscope.api-key=abc123_test",
+						"spring.ai.dashscope.embedding.cache.enabled=true")
+				// @formatter:on
+			.withConfiguration(AutoConfigurations.of(DashScopeEmbeddingAutoConfiguration.class))
+			.withBean("otherEmbeddingModel", DashScopeEmbeddingModel.class,
+					() -> new DashScopeEmbeddingModel(DashScopeApi.builder().apiKey("abc123_test").build()))
+			.run(context -> {
+				assertThat(context.getBean(DashScopeEmbeddingModel.class))
+					.isNotInstanceOf(CachingDashScopeEmbeddingModel.class);
+				assertThat(context.containsBean("dashscopeEmbeddingModel")).isFalse();
+			});
+	}
+
 	@Test
 	public void imageProperties() {
 		new ApplicationContextRunner().withPropertyValues(
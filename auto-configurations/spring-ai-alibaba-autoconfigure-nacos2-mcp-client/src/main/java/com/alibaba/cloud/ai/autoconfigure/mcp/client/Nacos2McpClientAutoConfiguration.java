@@ -16,6 +16,8 @@
 
 package com.alibaba.cloud.ai.autoconfigure.mcp.client;
 
+import com.alibaba.cloud.ai.mcp.nacos2.client.loadbalancer.LoadBalanceStrategy;
+import com.alibaba.cloud.ai.mcp.nacos2.client.loadbalancer.McpLoadBalancer;
 import com.alibaba.cloud.ai.mcp.nacos2.client.transport.LoadbalancedMcpAsyncClient;
 import com.alibaba.cloud.ai.mcp.nacos2.client.transport.LoadbalancedMcpSyncClient;
 import com.alibaba.nacos.api.naming.NamingService;
@@ -96,6 +98,10 @@ public class Nacos2McpClientAutoConfiguration {
 				.namingService(namingService)
 				.nacosConfigService(nacosConfigService)
 				.applicationContext(applicationContext)
+				.loadBalancer(new McpLoadBalancer(
+						LoadBalanceStrategy.of(nacos2McpSseClientProperties.getLoadBalanceStrategy()),
+						nacos2McpSseClientProperties.getFailureThreshold(),
+						nacos2McpSseClientProperties.getEjectionTime()))
 				.build();
 			loadbalancedMcpAsyncClient.init();
 			loadbalancedMcpAsyncClient.subscribe();
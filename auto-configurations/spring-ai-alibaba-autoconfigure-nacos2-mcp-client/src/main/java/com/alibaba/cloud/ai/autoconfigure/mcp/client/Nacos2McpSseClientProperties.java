@@ -16,8 +16,11 @@
 
 package com.alibaba.cloud.ai.autoconfigure.mcp.client;
 
+import com.alibaba.cloud.ai.mcp.nacos2.client.loadbalancer.LoadBalanceStrategy;
+import com.alibaba.cloud.ai.mcp.nacos2.client.loadbalancer.McpLoadBalancer;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -32,10 +35,49 @@ public class Nacos2McpSseClientProperties {
 
 	private final Map<String, NacosSseParameters> connections = new HashMap<>();
 
+	/**
+	 * How ASYNC clients choose the instance that serves a tool call.
+	 */
+	private LoadBalanceStrategy.Type loadBalanceStrategy = LoadBalanceStrategy.Type.ROUND_ROBIN;
+
+	/**
+	 * Consecutive failed requests after which an instance is ejected.
+	 */
+	private int failureThreshold = McpLoadBalancer.DEFAULT_FAILURE_THRESHOLD;
+
+	/**
+	 * How long an instance is ejected the first time, repeated ejections last longer.
+	 */
+	private Duration ejectionTime = McpLoadBalancer.DEFAULT_EJECTION_TIME;
+
 	public Map<String, NacosSseParameters> getConnections() {
 		return connections;
 	}
 
+	public LoadBalanceStrategy.Type getLoadBalanceStrategy() {
+		return loadBalanceStrategy;
+	}
+
+	public void setLoadBalanceStrategy(LoadBalanceStrategy.Type loadBalanceStrategy) {
+		this.loadBalanceStrategy = loadBalanceStrategy;
+	}
+
+	public int getFailureThreshold() {
+		return failureThreshold;
+	}
+
+	public void setFailureThreshold(int failureThreshold) {
+		this.failureThreshold = failureThreshold;
+	}
+
+	public Duration getEjectionTime() {
+		return ejectionTime;
+	}
+
+	public void setEjectionTime(Duration ejectionTime) {
+		this.ejectionTime = ejectionTime;
+	}
+
 	public static record NacosSseParameters(String serviceGroup, String serviceName) {
 	}
 
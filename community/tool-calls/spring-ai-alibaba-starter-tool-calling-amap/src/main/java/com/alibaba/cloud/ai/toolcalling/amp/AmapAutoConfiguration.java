@@ -15,7 +15,10 @@
  */
 package com.alibaba.cloud.ai.toolcalling.amp;
 
+import com.alibaba.cloud.ai.toolcalling.common.AsyncToolCallback;
+import com.alibaba.cloud.ai.toolcalling.common.CommonToolCallConstants;
 import com.alibaba.cloud.ai.toolcalling.common.JsonParseTool;
+import com.alibaba.cloud.ai.toolcalling.common.ToolCallConnectionPool;
 import com.alibaba.cloud.ai.toolcalling.common.WebClientTool;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -24,6 +27,8 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Description;
 
+import java.time.Duration;
+
 /**
  * @author YunLong
  */
@@ -33,12 +38,26 @@ import org.springframework.context.annotation.Description;
 		matchIfMissing = true)
 public class AmapAutoConfiguration {
 
+	private static final String DESCRIPTION = "Get weather information according to address from Amap.";
+
 	@Bean(name = AmapConstants.TOOL_NAME)
 	@ConditionalOnMissingBean
-	@Description("Get weather information according to address from Amap.")
-	public WeatherSearchService gaoDeGetAddressWeather(JsonParseTool jsonParseTool, AmapProperties amapProperties) {
+	@Description(DESCRIPTION)
+	public WeatherSearchService gaoDeGetAddressWeather(JsonParseTool jsonParseTool, AmapProperties amapProperties,
+			ToolCallConnectionPool connectionPool) {
 		return new WeatherSearchService(jsonParseTool, amapProperties,
-				WebClientTool.builder(jsonParseTool, amapProperties).build());
+				WebClientTool.builder(jsonParseTool, amapProperties).connectionPool(connectionPool).build());
+	}
+
+	@Bean(name = AmapConstants.TOOL_NAME + CommonToolCallConstants.TOOL_CALLBACK_BEAN_SUFFIX)
+	@ConditionalOnMissingBean(name = AmapConstants.TOOL_NAME + CommonToolCallConstants.TOOL_CALLBACK_BEAN_SUFFIX)
+	public AsyncToolCallback<WeatherSearchService.Request, WeatherSearchService.Response> amapToolCallback(
+			WeatherSearchService service, AmapProperties amapProperties) {
+		return AsyncToolCallback.builder(AmapConstants.TOOL_NAME, service)
+			.description(DESCRIPTION)
+			.inputType(WeatherSearchService.Request.class)
+			.timeout(Duration.ofMinutes(amapProperties.getNetworkTimeout()))
+			.build();
 	}
 
 }
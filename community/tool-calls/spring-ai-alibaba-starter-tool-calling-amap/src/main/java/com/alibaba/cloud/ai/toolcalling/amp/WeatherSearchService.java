@@ -15,20 +15,22 @@
  */
 package com.alibaba.cloud.ai.toolcalling.amp;
 
+import com.alibaba.cloud.ai.toolcalling.common.AsyncToolFunction;
 import com.alibaba.cloud.ai.toolcalling.common.JsonParseTool;
 import com.alibaba.cloud.ai.toolcalling.common.WebClientTool;
 import com.fasterxml.jackson.annotation.JsonClassDescription;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyDescription;
 import org.springframework.util.MultiValueMap;
+import reactor.core.publisher.Mono;
 
 import java.util.Map;
-import java.util.function.Function;
 
 /**
  * @author YunLong
  */
-public class WeatherSearchService implements Function<WeatherSearchService.Request, WeatherSearchService.Response> {
+public class WeatherSearchService
+		implements AsyncToolFunction<WeatherSearchService.Request, WeatherSearchService.Response> {
 
 	private final WebClientTool webClientTool;
 
@@ -48,16 +50,11 @@ public class WeatherSearchService implements Function<WeatherSearchService.Reque
 	 * @param address
 	 * @return https://lbs.amap.com/api/webservice/guide/api/georegeo#s2
 	 */
-	private String getAddressCityCode(String address) {
-		try {
-			return webClientTool
-				.get("/geocode/geo",
-						MultiValueMap.fromSingleValue(Map.of("key", amapProperties.getApiKey(), "address", address)))
-				.block();
-		}
-		catch (Exception e) {
-			throw new RuntimeException("Failed to get address city code", e);
-		}
+	private Mono<String> getAddressCityCode(String address) {
+		return webClientTool
+			.get("/geocode/geo",
+					MultiValueMap.fromSingleValue(Map.of("key", amapProperties.getApiKey(), "address", address)))
+			.onErrorMap(e -> new RuntimeException("Failed to get address city code", e));
 	}
 
 	/**
@@ -65,31 +62,33 @@ public class WeatherSearchService implements Function<WeatherSearchService.Reque
 	 * @param cityCode
 	 * @return https://lbs.amap.com/api/webservice/guide/api/weatherinfo#s0
 	 */
-	private String getWeather(String cityCode) {
-		try {
-			return webClientTool
-				.get("/weather/weatherInfo",
-						MultiValueMap.fromSingleValue(
-								Map.of("key", amapProperties.getApiKey(), "city", cityCode, "extensions", "all")))
-				.block();
-		}
-		catch (Exception e) {
-			throw new RuntimeException("Failed to get weather information", e);
-		}
+	private Mono<String> getWeather(String cityCode) {
+		return webClientTool
+			.get("/weather/weatherInfo",
+					MultiValueMap.fromSingleValue(
+							Map.of("key", amapProperties.getApiKey(), "city", cityCode, "extensions", "all")))
+			.onErrorMap(e -> new RuntimeException("Failed to get weather information", e));
+	}
 
+	/**
+	 * Weather of the first geocode in the geocoding response. A response without a usable
+	 * geocode or a failed weather request yields an error message; a failed geocoding
+	 * request is propagated to the caller.
+	 */
+	private Mono<Response> getWeatherOfFirstGeocode(String geocodeResponse) {
+		return Mono.fromCallable(() -> {
+			String arrayString = jsonParseTool.getFieldValueAsString(geocodeResponse, "geocodes");
+			String firstElement = jsonParseTool.getFirstElementFromJsonArrayString(arrayString);
+			return jsonParseTool.getFieldValue(firstElement, String.class, "adcode");
+		})
+			.flatMap(this::getWeather)
+			.map(Response::new)
+			.onErrorResume(e -> Mono.just(new Response("Error occurred while processing the request.")));
 	}
 
 	@Override
-	public Response apply(Request request) {
-		String responseBody = this.getAddressCityCode(request.address);
-		try {
-			String arrayString = jsonParseTool.getFieldValueAsString(responseBody, "geocodes");
-			String firstElement = jsonParseTool.getFirstElementFromJsonArrayString(arrayString);
-			return new Response(this.getWeather(jsonParseTool.getFieldValue(firstElement, String.class, "adcode")));
-		}
-		catch (Exception e) {
-			return new Response("Error occurred while processing the request.");
-		}
+	public Mono<Response> applyAsync(Request request) {
+		return this.getAddressCityCode(request.address).flatMap(this::getWeatherOfFirstGeocode);
 	}
 
 	@JsonClassDescription("Get the weather conditions for a specified address.")
@@ -17,6 +17,9 @@ package com.alibaba.cloud.ai.toolcalling.amp;
 
 import com.alibaba.cloud.ai.toolcalling.common.CommonToolCallAutoConfiguration;
 import com.alibaba.cloud.ai.toolcalling.common.CommonToolCallConstants;
+import com.alibaba.cloud.ai.toolcalling.common.JsonParseTool;
+import com.alibaba.cloud.ai.toolcalling.common.WebClientTool;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
@@ -25,8 +28,14 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.util.StringUtils;
+import reactor.core.publisher.Mono;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 /**
  * @author vlsmb
@@ -50,4 +59,34 @@ public class WeatherSearchServiceTest {
 		assertThat(resp.message()).doesNotContain("Error");
 	}
 
+	@Test
+	@DisplayName("Geocoding failures propagate")
+	public void testGeocodeFailureIsPropagated() {
+		WebClientTool webClientTool = mock(WebClientTool.class);
+		when(webClientTool.get(eq("/geocode/geo"), any())).thenReturn(Mono.error(new IllegalStateException("down")));
+
+		assertThatThrownBy(() -> newService(webClientTool).apply(new WeatherSearchService.Request("Beijing")))
+			.hasMessageContaining("Failed to get address city code");
+	}
+
+	@Test
+	@DisplayName("Weather failures yield an error message")
+	public void testWeatherFailureIsReportedAsMessage() {
+		WebClientTool webClientTool = mock(WebClientTool.class);
+		when(webClientTool.get(eq("/geocode/geo"), any()))
+			.thenReturn(Mono.just("{\"geocodes\":[{\"adcode\":\"110000\"}]}"));
+		when(webClientTool.get(eq("/weather/weatherInfo"), any()))
+			.thenReturn(Mono.error(new IllegalStateException("down")));
+
+		WeatherSearchService.Response resp = newService(webClientTool)
+			.apply(new WeatherSearchService.Request("Beijing"));
+		assertThat(resp.message()).isEqualTo("Error occurred while processing the request.");
+	}
+
+	private static WeatherSearchService newService(WebClientTool webClientTool) {
+		AmapProperties properties = new AmapProperties();
+		properties.setApiKey("test");
+		return new WeatherSearchService(new JsonParseTool(new ObjectMapper()), properties, webClientTool);
+	}
+
 }
@@ -15,7 +15,10 @@
  */
 package com.alibaba.cloud.ai.toolcalling.baidusearch;
 
+import com.alibaba.cloud.ai.toolcalling.common.AsyncToolCallback;
+import com.alibaba.cloud.ai.toolcalling.common.CommonToolCallConstants;
 import com.alibaba.cloud.ai.toolcalling.common.JsonParseTool;
+import com.alibaba.cloud.ai.toolcalling.common.ToolCallConnectionPool;
 import com.alibaba.cloud.ai.toolcalling.common.WebClientTool;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -26,6 +29,7 @@ import org.springframework.context.annotation.Description;
 
 import org.springframework.http.HttpHeaders;
 
+import java.time.Duration;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Consumer;
 import static com.alibaba.cloud.ai.toolcalling.common.CommonToolCallConstants.DEFAULT_USER_AGENTS;
@@ -39,10 +43,13 @@ import static com.alibaba.cloud.ai.toolcalling.common.CommonToolCallConstants.DE
 		matchIfMissing = true)
 public class BaiduSearchAutoConfiguration {
 
+	private static final String DESCRIPTION = "Use baidu search engine to query for the latest news.";
+
 	@Bean(name = BaiduSearchConstants.TOOL_NAME)
 	@ConditionalOnMissingBean
-	@Description("Use baidu search engine to query for the latest news.")
-	public BaiduSearchService baiduSearch(JsonParseTool jsonParseTool, BaiduSearchProperties properties) {
+	@Description(DESCRIPTION)
+	public BaiduSearchService baiduSearch(JsonParseTool jsonParseTool, BaiduSearchProperties properties,
+			ToolCallConnectionPool connectionPool) {
 		Consumer<HttpHeaders> consumer = headers -> {
 			headers.add(HttpHeaders.USER_AGENT,
 					DEFAULT_USER_AGENTS[ThreadLocalRandom.current().nextInt(DEFAULT_USER_AGENTS.length)]);
@@ -51,7 +58,21 @@ public class BaiduSearchAutoConfiguration {
 			headers.add(HttpHeaders.ACCEPT_LANGUAGE, "zh-CN,zh;q=0.9");
 		};
 		return new BaiduSearchService(jsonParseTool, properties,
-				WebClientTool.builder(jsonParseTool, properties).httpHeadersConsumer(consumer).build());
+				WebClientTool.builder(jsonParseTool, properties)
+					.httpHeadersConsumer(consumer)
+					.connectionPool(connectionPool)
+					.build());
+	}
+
+	@Bean(name = BaiduSearchConstants.TOOL_NAME + CommonToolCallConstants.TOOL_CALLBACK_BEAN_SUFFIX)
+	@ConditionalOnMissingBean(name = BaiduSearchConstants.TOOL_NAME + CommonToolCallConstants.TOOL_CALLBACK_BEAN_SUFFIX)
+	public AsyncToolCallback<BaiduSearchService.Request, BaiduSearchService.Response> baiduSearchToolCallback(
+			BaiduSearchService service, BaiduSearchProperties properties) {
+		return AsyncToolCallback.builder(BaiduSearchConstants.TOOL_NAME, service)
+			.description(DESCRIPTION)
+			.inputType(BaiduSearchService.Request.class)
+			.timeout(Duration.ofMinutes(properties.getNetworkTimeout()))
+			.build();
 	}
 
 }
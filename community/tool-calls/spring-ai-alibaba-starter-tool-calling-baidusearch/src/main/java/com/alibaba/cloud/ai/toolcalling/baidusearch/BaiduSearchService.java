@@ -18,8 +18,8 @@ package com.alibaba.cloud.ai.toolcalling.baidusearch;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.function.Function;
 
+import com.alibaba.cloud.ai.toolcalling.common.AsyncToolFunction;
 import com.alibaba.cloud.ai.toolcalling.common.CommonToolCallUtils;
 import com.alibaba.cloud.ai.toolcalling.common.JsonParseTool;
 import com.alibaba.cloud.ai.toolcalling.common.WebClientTool;
@@ -35,11 +35,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.util.CollectionUtils;
+import reactor.core.publisher.Mono;
 
 /**
  * @author KrakenZJC
  **/
-public class BaiduSearchService implements Function<BaiduSearchService.Request, BaiduSearchService.Response> {
+public class BaiduSearchService implements AsyncToolFunction<BaiduSearchService.Request, BaiduSearchService.Response> {
 
 	private static final Logger logger = LoggerFactory.getLogger(BaiduSearchService.class);
 
@@ -54,35 +55,36 @@ public class BaiduSearchService implements Function<BaiduSearchService.Request,
 	}
 
 	@Override
-	public BaiduSearchService.Response apply(BaiduSearchService.Request request) {
+	public Mono<BaiduSearchService.Response> applyAsync(BaiduSearchService.Request request) {
 		if (CommonToolCallUtils.isInvalidateRequestParams(request, request.query)) {
-			return null;
+			return Mono.empty();
 		}
 
-		return CommonToolCallUtils.handleServiceError("BaiduSearch", () -> {
-			int limit = request.limit == null ? properties.getMaxResults() : request.limit;
-			String url = properties.getBaseUrl() + request.query;
-
-			String html = webClientTool.getWebClient()
-				.get()
-				.uri(url)
-				.acceptCharset(StandardCharsets.UTF_8)
-				.retrieve()
-				.bodyToMono(String.class)
-				.block();
+		int limit = request.limit == null ? properties.getMaxResults() : request.limit;
+		String url = properties.getBaseUrl() + request.query;
+
+		Mono<Response> response = webClientTool.getWebClient()
+			.get()
+			.uri(url)
+			.acceptCharset(StandardCharsets.UTF_8)
+			.retrieve()
+			.bodyToMono(String.class)
+			.mapNotNull(html -> toResponse(request, limit, html));
+		return CommonToolCallUtils.handleServiceErrorAsync("BaiduSearch", response, logger);
+	}
 
-			List<SearchResult> results = CommonToolCallUtils.handleResponse(html, this::parseHtml, logger);
+	private Response toResponse(Request request, int limit, String html) {
+		List<SearchResult> results = CommonToolCallUtils.handleResponse(html, this::parseHtml, logger);
 
-			if (CollectionUtils.isEmpty(results)) {
-				return null;
-			}
+		if (CollectionUtils.isEmpty(results)) {
+			return null;
+		}
 
-			logger.info("baidu search: {},result number:{}", request.query, results.size());
-			for (SearchResult d : results) {
-				logger.info("{}\n{}\n{}", d.title(), d.abstractText(), d.sourceUrl());
-			}
-			return new Response(results.subList(0, Math.min(results.size(), limit)));
-		}, logger);
+		logger.info("baidu search: {},result number:{}", request.query, results.size());
+		for (SearchResult d : results) {
+			logger.info("{}\n{}\n{}", d.title(), d.abstractText(), d.sourceUrl());
+		}
+		return new Response(results.subList(0, Math.min(results.size(), limit)));
 	}
 
 	private List<SearchResult> parseHtml(String htmlContent) {
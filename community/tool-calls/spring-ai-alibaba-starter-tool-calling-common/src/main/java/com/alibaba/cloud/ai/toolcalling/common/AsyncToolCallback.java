@@ -0,0 +1,174 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.toolcalling.common;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.execution.DefaultToolCallResultConverter;
+import org.springframework.ai.tool.execution.ToolCallResultConverter;
+import org.springframework.ai.tool.support.ToolUtils;
+import org.springframework.ai.util.json.JsonParser;
+import org.springframework.ai.util.json.schema.JsonSchemaGenerator;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Type;
+import java.time.Duration;
+
+/**
+ * {@link ToolCallback} over an {@link AsyncToolFunction}. {@link #callAsync(String)}
+ * serves reactive callers without blocking, {@link #call(String)} keeps the synchronous
+ * contract of the model and waits at most the configured timeout.
+ * <p>
+ * The tool starters register one next to each migrated function bean, named after the
+ * bean with {@link CommonToolCallConstants#TOOL_CALLBACK_BEAN_SUFFIX}. Tool names are
+ * resolved against {@link ToolCallback} beans before function beans, so a chat request
+ * naming the tool calls the function through {@link AsyncToolFunction#applyAsync} rather
+ * than its blocking {@code apply}.
+ */
+public final class AsyncToolCallback<I, O> implements ToolCallback {
+
+	private static final Logger log = LoggerFactory.getLogger(AsyncToolCallback.class);
+
+	private final ToolDefinition toolDefinition;
+
+	private final Type inputType;
+
+	private final AsyncToolFunction<I, O> function;
+
+	private final ToolCallResultConverter toolCallResultConverter;
+
+	private final Duration timeout;
+
+	private AsyncToolCallback(ToolDefinition toolDefinition, Type inputType, AsyncToolFunction<I, O> function,
+			ToolCallResultConverter toolCallResultConverter, Duration timeout) {
+		this.toolDefinition = toolDefinition;
+		this.inputType = inputType;
+		this.function = function;
+		this.toolCallResultConverter = toolCallResultConverter;
+		this.timeout = timeout;
+	}
+
+	@Override
+	public ToolDefinition getToolDefinition() {
+		return toolDefinition;
+	}
+
+	@Override
+	public String call(String toolInput) {
+		return call(toolInput, null);
+	}
+
+	@Override
+	public String call(String toolInput, ToolContext toolContext) {
+		return callAsync(toolInput).block(timeout);
+	}
+
+	/**
+	 * Parses the tool input, runs the function and converts its result, the returned
+	 * {@link Mono} never completes empty.
+	 */
+	public Mono<String> callAsync(String toolInput) {
+		Assert.hasText(toolInput, "toolInput cannot be null or empty");
+		return Mono.fromCallable(() -> JsonParser.<I>fromJson(toolInput, inputType))
+			.doOnNext(request -> log.debug("Starting execution of tool: {}", toolDefinition.name()))
+			.flatMap(function::applyAsync)
+			.map(result -> toolCallResultConverter.convert(result, null))
+			.switchIfEmpty(Mono.fromSupplier(() -> toolCallResultConverter.convert(null, null)))
+			.doOnSuccess(result -> log.debug("Successful execution of tool: {}", toolDefinition.name()));
+	}
+
+	@Override
+	public String toString() {
+		return "AsyncToolCallback{toolDefinition=" + toolDefinition + "}";
+	}
+
+	public static class Builder<I, O> {
+
+		private final String name;
+
+		private final AsyncToolFunction<I, O> function;
+
+		private String description;
+
+		private String inputSchema;
+
+		private Type inputType;
+
+		private ToolCallResultConverter toolCallResultConverter = new DefaultToolCallResultConverter();
+
+		private Duration timeout = Duration.ofMinutes(CommonToolCallConstants.DEFAULT_NETWORK_TIMEOUT);
+
+		private Builder(String name, AsyncToolFunction<I, O> function) {
+			this.name = name;
+			this.function = function;
+		}
+
+		public Builder<I, O> description(String description) {
+			this.description = description;
+			return this;
+		}
+
+		public Builder<I, O> inputSchema(String inputSchema) {
+			this.inputSchema = inputSchema;
+			return this;
+		}
+
+		public Builder<I, O> inputType(Type inputType) {
+			this.inputType = inputType;
+			return this;
+		}
+
+		public Builder<I, O> toolCallResultConverter(ToolCallResultConverter toolCallResultConverter) {
+			this.toolCallResultConverter = toolCallResultConverter;
+			return this;
+		}
+
+		/**
+		 * Upper bound of the blocking {@link AsyncToolCallback#call(String)}.
+		 */
+		public Builder<I, O> timeout(Duration timeout) {
+			this.timeout = timeout;
+			return this;
+		}
+
+		public AsyncToolCallback<I, O> build() {
+			Assert.hasText(name, "name cannot be null or empty");
+			Assert.notNull(function, "function cannot be null");
+			Assert.notNull(inputType, "inputType cannot be null");
+			Assert.notNull(toolCallResultConverter, "toolCallResultConverter cannot be null");
+			Assert.notNull(timeout, "timeout cannot be null");
+			ToolDefinition toolDefinition = ToolDefinition.builder()
+				.name(name)
+				.description(
+						StringUtils.hasText(description) ? description : ToolUtils.getToolDescriptionFromName(name))
+				.inputSchema(
+						StringUtils.hasText(inputSchema) ? inputSchema : JsonSchemaGenerator.generateForType(inputType))
+				.build();
+			return new AsyncToolCallback<>(toolDefinition, inputType, function, toolCallResultConverter, timeout);
+		}
+
+	}
+
+	public static <I, O> Builder<I, O> builder(String name, AsyncToolFunction<I, O> function) {
+		return new Builder<>(name, function);
+	}
+
+}
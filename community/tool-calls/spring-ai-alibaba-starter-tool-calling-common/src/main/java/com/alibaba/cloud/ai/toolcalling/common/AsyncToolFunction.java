@@ -0,0 +1,40 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.toolcalling.common;
+
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+
+/**
+ * Tool function that does its work without holding the calling thread. Implementations
+ * complete the {@link Mono} empty where the blocking contract returned {@code null}, so
+ * the same bean still serves callers that use it as a plain {@link Function}.
+ */
+public interface AsyncToolFunction<I, O> extends Function<I, O> {
+
+	Mono<O> applyAsync(I request);
+
+	/**
+	 * Blocking bridge for callers of the {@link Function} contract, prefer
+	 * {@link #applyAsync(Object)} or {@link AsyncToolCallback} on reactive paths.
+	 */
+	@Override
+	default O apply(I request) {
+		return applyAsync(request).block();
+	}
+
+}
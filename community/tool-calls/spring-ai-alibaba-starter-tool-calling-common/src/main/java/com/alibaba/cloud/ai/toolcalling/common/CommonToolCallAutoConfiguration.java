@@ -16,6 +16,7 @@
 package com.alibaba.cloud.ai.toolcalling.common;
 
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -23,6 +24,7 @@ import org.springframework.context.annotation.Configuration;
  * @author vlsmb
  */
 @Configuration
+@EnableConfigurationProperties(CommonToolCallHttpProperties.class)
 public class CommonToolCallAutoConfiguration {
 
 	@Bean
@@ -31,4 +33,10 @@ public class CommonToolCallAutoConfiguration {
 		return new JsonParseTool();
 	}
 
+	@Bean
+	@ConditionalOnMissingBean
+	public ToolCallConnectionPool toolCallConnectionPool(CommonToolCallHttpProperties properties) {
+		return new ToolCallConnectionPool(properties);
+	}
+
 }
@@ -55,6 +55,9 @@ public final class CommonToolCallConstants {
 
 	public static final String NOT_BLANK_REGEX = "\\S+";
 
+	// Suffix of the AsyncToolCallback bean registered next to a tool function bean
+	public static final String TOOL_CALLBACK_BEAN_SUFFIX = "ToolCallback";
+
 	// Default Agents
 	public static final String[] DEFAULT_USER_AGENTS = {
 			"Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36",
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.toolcalling.common;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Connection pool shared by the web clients of all tool calls
+ */
+@ConfigurationProperties(prefix = CommonToolCallHttpProperties.CONFIG_PREFIX)
+public class CommonToolCallHttpProperties {
+
+	public static final String CONFIG_PREFIX = CommonToolCallConstants.TOOL_CALLING_CONFIG_PREFIX + ".http";
+
+	/**
+	 * Maximum number of connections per remote host
+	 */
+	private int maxConnections = 200;
+
+	/**
+	 * Maximum number of requests waiting for a connection, -1 for no limit
+	 */
+	private int pendingAcquireMaxCount = 1000;
+
+	/**
+	 * Maximum time to wait for a connection from the pool
+	 */
+	private Duration pendingAcquireTimeout = Duration.ofSeconds(30);
+
+	/**
+	 * Idle connections are closed after this time, before the remote servers drop them
+	 */
+	private Duration maxIdleTime = Duration.ofSeconds(20);
+
+	/**
+	 * Connections are closed after this time, so DNS changes of the APIs are picked up
+	 */
+	private Duration maxLifeTime = Duration.ofMinutes(5);
+
+	/**
+	 * Interval of the background eviction of idle and expired connections
+	 */
+	private Duration evictionInterval = Duration.ofSeconds(30);
+
+	private Duration connectTimeout = Duration.ofMillis(CommonToolCallConstants.DEFAULT_CONNECT_TIMEOUT_MILLIS);
+
+	public int getMaxConnections() {
+		return maxConnections;
+	}
+
+	public void setMaxConnections(int maxConnections) {
+		this.maxConnections = maxConnections;
+	}
+
+	public int getPendingAcquireMaxCount() {
+		return pendingAcquireMaxCount;
+	}
+
+	public void setPendingAcquireMaxCount(int pendingAcquireMaxCount) {
+		this.pendingAcquireMaxCount = pendingAcquireMaxCount;
+	}
+
+	public Duration getPendingAcquireTimeout() {
+		return pendingAcquireTimeout;
+	}
+
+	public void setPendingAcquireTimeout(Duration pendingAcquireTimeout) {
+		this.pendingAcquireTimeout = pendingAcquireTimeout;
+	}
+
+	public Duration getMaxIdleTime() {
+		return maxIdleTime;
+	}
+
+	public void setMaxIdleTime(Duration maxIdleTime) {
+		this.maxIdleTime = maxIdleTime;
+	}
+
+	public Duration getMaxLifeTime() {
+		return maxLifeTime;
+	}
+
+	public void setMaxLifeTime(Duration maxLifeTime) {
+		this.maxLifeTime = maxLifeTime;
+	}
+
+	public Duration getEvictionInterval() {
+		return evictionInterval;
+	}
+
+	public void setEvictionInterval(Duration evictionInterval) {
+		this.evictionInterval = evictionInterval;
+	}
+
+	public Duration getConnectTimeout() {
+		return connectTimeout;
+	}
+
+	public void setConnectTimeout(Duration connectTimeout) {
+		this.connectTimeout = connectTimeout;
+	}
+
+}
@@ -40,6 +40,11 @@ public class CommonToolCallProperties {
 
 	private boolean enabled = true;
 
+	/**
+	 * Maximum requests per second sent to the API, 0 for no limit
+	 */
+	private double rateLimit;
+
 	public CommonToolCallProperties() {
 		this.baseUrl = CommonToolCallConstants.DEFAULT_BASE_URL;
 		this.networkTimeout = CommonToolCallConstants.DEFAULT_NETWORK_TIMEOUT;
@@ -119,6 +124,14 @@ public class CommonToolCallProperties {
 		this.enabled = enabled;
 	}
 
+	public double getRateLimit() {
+		return rateLimit;
+	}
+
+	public void setRateLimit(double rateLimit) {
+		this.rateLimit = rateLimit;
+	}
+
 	// Invoked after PropertiesBean instantiation to load default values from system
 	// environment variables using keys associated with derived Properties class
 	// attributes.
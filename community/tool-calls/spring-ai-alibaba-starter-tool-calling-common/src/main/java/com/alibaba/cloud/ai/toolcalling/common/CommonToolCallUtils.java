@@ -24,6 +24,7 @@ import org.slf4j.Logger;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.util.StringUtils;
+import reactor.core.publisher.Mono;
 
 /**
  * @author vlsmb
@@ -81,6 +82,21 @@ public final class CommonToolCallUtils {
 		}
 	}
 
+	/**
+	 * Non-blocking counterpart of {@link #handleServiceError(String, Supplier, Logger)},
+	 * an error completes the result empty.
+	 * @param serviceName Service name
+	 * @param operation Operation to execute
+	 * @param logger Logger instance
+	 * @return Operation result
+	 */
+	public static <T> Mono<T> handleServiceErrorAsync(String serviceName, Mono<T> operation, Logger logger) {
+		return operation.onErrorResume(e -> {
+			logger.error("Failed to invoke {} service due to: {}", serviceName, e.getMessage());
+			return Mono.empty();
+		});
+	}
+
 	/**
 	 * Common parameter validation method.
 	 * @author inlines10
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.toolcalling.common;
+
+import io.netty.channel.ChannelOption;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Keep-alive connection pool shared by the tool calls, so concurrent calls to the same
+ * API reuse connections instead of each web client opening its own.
+ */
+public class ToolCallConnectionPool implements AutoCloseable {
+
+	private static final String POOL_NAME = "tool-calling";
+
+	private final ConnectionProvider connectionProvider;
+
+	private final int connectTimeoutMillis;
+
+	public ToolCallConnectionPool(CommonToolCallHttpProperties properties) {
+		this.connectionProvider = ConnectionProvider.builder(POOL_NAME)
+			.maxConnections(properties.getMaxConnections())
+			.pendingAcquireMaxCount(properties.getPendingAcquireMaxCount())
+			.pendingAcquireTimeout(properties.getPendingAcquireTimeout())
+			.maxIdleTime(properties.getMaxIdleTime())
+			.maxLifeTime(properties.getMaxLifeTime())
+			.evictInBackground(properties.getEvictionInterval())
+			.lifo()
+			.build();
+		this.connectTimeoutMillis = (int) properties.getConnectTimeout().toMillis();
+	}
+
+	/**
+	 * Http client on the shared connections, the response timeout is per tool.
+	 */
+	public HttpClient createHttpClient(Duration responseTimeout) {
+		return HttpClient.create(connectionProvider)
+			.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMillis)
+			.responseTimeout(responseTimeout)
+			.compress(true);
+	}
+
+	public ConnectionProvider getConnectionProvider() {
+		return connectionProvider;
+	}
+
+	@Override
+	public void close() {
+		connectionProvider.dispose();
+	}
+
+}
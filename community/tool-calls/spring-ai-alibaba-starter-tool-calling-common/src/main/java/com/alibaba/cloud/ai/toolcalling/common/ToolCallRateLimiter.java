@@ -0,0 +1,105 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.toolcalling.common;
+
+import org.springframework.util.Assert;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket that spaces the requests of one tool service, refilled at a fixed rate and
+ * holding up to one second of requests. A request over the rate is delayed on a timer
+ * instead of a thread, and fails right away if it would have to wait longer than the
+ * maximum wait.
+ */
+public class ToolCallRateLimiter {
+
+	private static final long NANOS_PER_SECOND = Duration.ofSeconds(1).toNanos();
+
+	private final long intervalNanos;
+
+	private final long burstNanos;
+
+	private final long maxWaitNanos;
+
+	private final LongSupplier clock;
+
+	/**
+	 * Time at which the bucket is full again, in {@link System#nanoTime()} units
+	 */
+	private final AtomicLong fullAt;
+
+	public ToolCallRateLimiter(double permitsPerSecond, Duration maxWait) {
+		this(permitsPerSecond, maxWait, System::nanoTime);
+	}
+
+	ToolCallRateLimiter(double permitsPerSecond, Duration maxWait, LongSupplier clock) {
+		Assert.isTrue(permitsPerSecond > 0, "permitsPerSecond must be greater than 0");
+		Assert.notNull(maxWait, "maxWait cannot be null");
+		this.intervalNanos = Math.max(1L, (long) (NANOS_PER_SECOND / permitsPerSecond));
+		this.burstNanos = intervalNanos * Math.max(1L, (long) Math.ceil(permitsPerSecond));
+		this.maxWaitNanos = maxWait.toNanos();
+		this.clock = clock;
+		this.fullAt = new AtomicLong(clock.getAsLong());
+	}
+
+	/**
+	 * Takes a token, waiting for the next one if the bucket is empty.
+	 * @return completes when the request may be sent, or with an error if the wait
+	 * exceeds the maximum wait
+	 */
+	public Mono<Void> acquire() {
+		return Mono.defer(() -> {
+			long waitNanos = reserve();
+			if (waitNanos < 0) {
+				return Mono.error(new RuntimeException("Rate limit exceeded, no permit available within "
+						+ Duration.ofNanos(maxWaitNanos).toMillis() + " ms"));
+			}
+			return waitNanos == 0 ? Mono.empty() : Mono.delay(Duration.ofNanos(waitNanos)).then();
+		});
+	}
+
+	/**
+	 * Filter that takes a token before every request of the web client.
+	 */
+	public ExchangeFilterFunction filter() {
+		return (request, next) -> acquire().then(Mono.defer(() -> next.exchange(request)));
+	}
+
+	/**
+	 * @return nanoseconds to wait for the reserved token, -1 if nothing was reserved
+	 */
+	long reserve() {
+		while (true) {
+			long now = clock.getAsLong();
+			long current = fullAt.get();
+			// The bucket never holds more than burstNanos worth of tokens
+			long base = Math.max(current, now);
+			long waitNanos = Math.max(0L, base + intervalNanos - burstNanos - now);
+			if (waitNanos > maxWaitNanos) {
+				return -1;
+			}
+			if (fullAt.compareAndSet(current, base + intervalNanos)) {
+				return waitNanos;
+			}
+		}
+	}
+
+}
@@ -32,6 +32,7 @@ import reactor.netty.http.client.HttpClient;
 
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -49,9 +50,20 @@ public class WebClientTool {
 
 	private final CommonToolCallProperties properties;
 
-	private ReactorClientHttpConnector createHttpConnector() {
-		return new ReactorClientHttpConnector(
-				HttpClient.create().responseTimeout(Duration.ofMinutes(properties.getNetworkTimeout())));
+	private ReactorClientHttpConnector createHttpConnector(ToolCallConnectionPool connectionPool) {
+		Duration responseTimeout = Duration.ofMinutes(properties.getNetworkTimeout());
+		if (connectionPool != null) {
+			return new ReactorClientHttpConnector(connectionPool.createHttpClient(responseTimeout));
+		}
+		return new ReactorClientHttpConnector(HttpClient.create().responseTimeout(responseTimeout));
+	}
+
+	private void rateLimit(List<ExchangeFilterFunction> filters) {
+		if (properties.getRateLimit() > 0) {
+			filters.add(0, new ToolCallRateLimiter(properties.getRateLimit(),
+					Duration.ofMinutes(properties.getNetworkTimeout()))
+				.filter());
+		}
 	}
 
 	private ExchangeFilterFunction logRequest() {
@@ -82,16 +94,17 @@ public class WebClientTool {
 	}
 
 	/**
-	 * Creates webClient with customized HeaderConsumer and ExceptionFunction
+	 * Creates webClient with customized HeaderConsumer and ExceptionFunction, on the
+	 * shared connection pool if one is given
 	 */
 	private WebClientTool(Consumer<HttpHeaders> httpHeadersConsumer,
 			Function<ClientResponse, Mono<? extends Throwable>> is4xxException,
 			Function<ClientResponse, Mono<? extends Throwable>> is5xxException, CommonToolCallProperties properties,
-			JsonParseTool jsonParseTool) {
+			JsonParseTool jsonParseTool, ToolCallConnectionPool connectionPool) {
 		this.jsonParseTool = jsonParseTool;
 		this.properties = properties;
 		this.webClient = WebClient.builder()
-			.clientConnector(createHttpConnector())
+			.clientConnector(createHttpConnector(connectionPool))
 			.baseUrl(properties.getBaseUrl())
 			.defaultHeaders(httpHeadersConsumer)
 			.defaultStatusHandler(HttpStatusCode::is4xxClientError, is4xxException)
@@ -99,6 +112,7 @@ public class WebClientTool {
 			.codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(CommonToolCallConstants.MAX_MEMORY_SIZE))
 			.filter(logRequest())
 			.filter(logResponse())
+			.filters(this::rateLimit)
 			.build();
 	}
 
@@ -207,6 +221,8 @@ public class WebClientTool {
 
 		private Function<ClientResponse, Mono<? extends Throwable>> is5xxException;
 
+		private ToolCallConnectionPool connectionPool;
+
 		private Builder(JsonParseTool jsonParseTool, CommonToolCallProperties properties) {
 			this.jsonParseTool = jsonParseTool;
 			this.properties = properties;
@@ -231,8 +247,18 @@ public class WebClientTool {
 			return this;
 		}
 
+		/**
+		 * Sends the requests over the shared connection pool instead of a pool of this
+		 * web client.
+		 */
+		public Builder connectionPool(ToolCallConnectionPool connectionPool) {
+			this.connectionPool = connectionPool;
+			return this;
+		}
+
 		public WebClientTool build() {
-			return new WebClientTool(httpHeadersConsumer, is4xxException, is5xxException, properties, jsonParseTool);
+			return new WebClientTool(httpHeadersConsumer, is4xxException, is5xxException, properties, jsonParseTool,
+					connectionPool);
 		}
 
 	}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.toolcalling.common;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.DefaultToolCallingManager;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.ai.model.tool.ToolExecutionResult;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.resolution.DelegatingToolCallbackResolver;
+import org.springframework.ai.tool.resolution.SpringBeanToolCallbackResolver;
+import org.springframework.ai.tool.resolution.StaticToolCallbackResolver;
+import org.springframework.context.support.GenericApplicationContext;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * AsyncToolCallback unit tests
+ */
+@DisplayName("Async tool callback test")
+class AsyncToolCallbackTest {
+
+	private static final AsyncToolFunction<Request, Response> GREETING = request -> Mono.justOrEmpty(request.name())
+		.map(name -> new Response("Hello, " + name));
+
+	@Test
+	@DisplayName("Test the tool definition is derived from the input type")
+	void testToolDefinition() {
+		AsyncToolCallback<Request, Response> callback = AsyncToolCallback.builder("greeting", GREETING)
+			.description("Greets a person")
+			.inputType(Request.class)
+			.build();
+
+		assertThat(callback.getToolDefinition().name()).isEqualTo("greeting");
+		assertThat(callback.getToolDefinition().description()).isEqualTo("Greets a person");
+		assertThat(callback.getToolDefinition().inputSchema()).contains("\"name\"");
+	}
+
+	@Test
+	@DisplayName("Test the reactive and the blocking call convert the result to json")
+	void testCall() {
+		AsyncToolCallback<Request, Response> callback = AsyncToolCallback.builder("greeting", GREETING)
+			.inputType(Request.class)
+			.build();
+
+		StepVerifier.create(callback.callAsync("{\"name\":\"Alice\"}"))
+			.expectNext("{\"message\":\"Hello, Alice\"}")
+			.verifyComplete();
+		assertThat(callback.call("{\"name\":\"Bob\"}")).isEqualTo("{\"message\":\"Hello, Bob\"}");
+		assertThat(callback.call("{}")).isEqualTo("null");
+		assertThat(GREETING.apply(new Request("Carol"))).isEqualTo(new Response("Hello, Carol"));
+		assertThat(GREETING.apply(new Request(null))).isNull();
+	}
+
+	@Test
+	@DisplayName("Test the blocking call gives up after the timeout")
+	void testTimeout() {
+		AsyncToolFunction<Request, Response> slow = request -> Mono.delay(Duration.ofSeconds(10))
+			.thenReturn(new Response("late"));
+		AsyncToolCallback<Request, Response> callback = AsyncToolCallback.builder("slow", slow)
+			.inputType(Request.class)
+			.timeout(Duration.ofMillis(100))
+			.build();
+
+		assertThatThrownBy(() -> callback.call("{\"name\":\"Alice\"}")).isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	@DisplayName("Test a tool resolved by name runs through the callback, not the blocking function")
+	void testToolCallingManagerUsesCallback() {
+		AtomicInteger blockingCalls = new AtomicInteger();
+		AtomicInteger asyncCalls = new AtomicInteger();
+		AsyncToolFunction<Request, Response> greeting = new AsyncToolFunction<>() {
+
+			@Override
+			public Mono<Response> applyAsync(Request request) {
+				asyncCalls.incrementAndGet();
+				return GREETING.applyAsync(request);
+			}
+
+			@Override
+			public Response apply(Request request) {
+				blockingCalls.incrementAndGet();
+				return AsyncToolFunction.super.apply(request);
+			}
+
+		};
+		try (GenericApplicationContext context = new GenericApplicationContext()) {
+			// Same beans as a tool starter: the function and its callback
+			context.registerBean("greeting", AsyncToolFunction.class, () -> greeting);
+			context.registerBean("greeting" + CommonToolCallConstants.TOOL_CALLBACK_BEAN_SUFFIX, ToolCallback.class,
+					() -> AsyncToolCallback.builder("greeting", greeting).inputType(Request.class).build());
+			context.refresh();
+			// Resolver chain of the Spring AI tool calling auto-configuration
+			DelegatingToolCallbackResolver resolver = new DelegatingToolCallbackResolver(List.of(
+					new StaticToolCallbackResolver(
+							new ArrayList<>(context.getBeansOfType(ToolCallback.class).values())),
+					SpringBeanToolCallbackResolver.builder().applicationContext(context).build()));
+			DefaultToolCallingManager manager = DefaultToolCallingManager.builder()
+				.toolCallbackResolver(resolver)
+				.build();
+
+			Prompt prompt = new Prompt(new UserMessage("greet Alice"),
+					ToolCallingChatOptions.builder().toolNames("greeting").build());
+			AssistantMessage assistantMessage = new AssistantMessage("", Map.of(),
+					List.of(new AssistantMessage.ToolCall("1", "function", "greeting", "{\"name\":\"Alice\"}")));
+			ToolExecutionResult result = manager.executeToolCalls(prompt,
+					new ChatResponse(List.of(new Generation(assistantMessage))));
+
+			List<Message> history = result.conversationHistory();
+			ToolResponseMessage response = (ToolResponseMessage) history.get(history.size() - 1);
+			assertThat(response.getResponses()).extracting(ToolResponseMessage.ToolResponse::responseData)
+				.containsExactly("{\"message\":\"Hello, Alice\"}");
+			assertThat(asyncCalls).hasValue(1);
+			assertThat(blockingCalls).hasValue(0);
+		}
+	}
+
+	record Request(String name) {
+	}
+
+	record Response(String message) {
+	}
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.toolcalling.common;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ToolCallRateLimiter unit tests
+ */
+@DisplayName("Tool call rate limiter test")
+class ToolCallRateLimiterTest {
+
+	private static final long MILLIS = Duration.ofMillis(1).toNanos();
+
+	@Test
+	@DisplayName("Test a full bucket lets a burst of one second through")
+	void testBurst() {
+		AtomicLong clock = new AtomicLong();
+		ToolCallRateLimiter limiter = new ToolCallRateLimiter(5, Duration.ofSeconds(10), clock::get);
+
+		for (int i = 0; i < 5; i++) {
+			assertThat(limiter.reserve()).isZero();
+		}
+		assertThat(limiter.reserve()).isEqualTo(200 * MILLIS);
+		assertThat(limiter.reserve()).isEqualTo(400 * MILLIS);
+	}
+
+	@Test
+	@DisplayName("Test tokens are refilled at the configured rate")
+	void testRefill() {
+		AtomicLong clock = new AtomicLong();
+		ToolCallRateLimiter limiter = new ToolCallRateLimiter(2, Duration.ofSeconds(10), clock::get);
+
+		assertThat(limiter.reserve()).isZero();
+		assertThat(limiter.reserve()).isZero();
+		assertThat(limiter.reserve()).isEqualTo(500 * MILLIS);
+
+		clock.set(2000 * MILLIS);
+		assertThat(limiter.reserve()).isZero();
+		assertThat(limiter.reserve()).isZero();
+		assertThat(limiter.reserve()).isEqualTo(500 * MILLIS);
+	}
+
+	@Test
+	@DisplayName("Test a request is rejected without a reservation if the wait is too long")
+	void testMaxWait() {
+		AtomicLong clock = new AtomicLong();
+		ToolCallRateLimiter limiter = new ToolCallRateLimiter(1, Duration.ofMillis(1500), clock::get);
+
+		assertThat(limiter.reserve()).isZero();
+		assertThat(limiter.reserve()).isEqualTo(1000 * MILLIS);
+		assertThat(limiter.reserve()).isEqualTo(-1);
+
+		clock.set(1000 * MILLIS);
+		assertThat(limiter.reserve()).isEqualTo(1000 * MILLIS);
+	}
+
+	@Test
+	@DisplayName("Test acquire waits on a timer and fails fast over the maximum wait")
+	void testAcquire() {
+		ToolCallRateLimiter limiter = new ToolCallRateLimiter(1, Duration.ofMillis(1500));
+
+		StepVerifier.create(limiter.acquire()).verifyComplete();
+		StepVerifier.withVirtualTime(limiter::acquire)
+			.expectSubscription()
+			.expectNoEvent(Duration.ofMillis(500))
+			.thenAwait(Duration.ofSeconds(1))
+			.verifyComplete();
+		StepVerifier.create(limiter.acquire())
+			.verifyErrorMessage("Rate limit exceeded, no permit available within 1500 ms");
+	}
+
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.toolcalling.common;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * WebClientTool tests against a local http server, on the shared connection pool
+ */
+@DisplayName("WebClientTool on the shared connection pool test")
+class WebClientToolTest {
+
+	private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+
+	private HttpServer server;
+
+	private ExecutorService executor;
+
+	private ToolCallConnectionPool connectionPool;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/echo", exchange -> {
+			clientPorts.add(exchange.getRemoteAddress().getPort());
+			respond(exchange, 200, "{\"query\":\"" + exchange.getRequestURI().getQuery() + "\"}");
+		});
+		server.createContext("/error", exchange -> respond(exchange, 500, "{}"));
+		executor = Executors.newFixedThreadPool(8);
+		server.setExecutor(executor);
+		server.start();
+		connectionPool = new ToolCallConnectionPool(new CommonToolCallHttpProperties());
+	}
+
+	@AfterEach
+	void tearDown() {
+		server.stop(0);
+		executor.shutdownNow();
+		connectionPool.close();
+	}
+
+	@Test
+	@DisplayName("Test requests are sent over the shared connection pool")
+	void testGet() {
+		WebClientTool webClientTool = webClientTool(properties());
+
+		StepVerifier
+			.create(webClientTool.get("/echo",
+					CommonToolCallUtils.<String, String>multiValueMapBuilder().add("q", "weather").build()))
+			.expectNext("{\"query\":\"q=weather\"}")
+			.verifyComplete();
+	}
+
+	@Test
+	@DisplayName("Test keep-alive connections are reused by later requests")
+	void testConnectionReuse() {
+		WebClientTool webClientTool = webClientTool(properties());
+
+		for (int i = 0; i < 10; i++) {
+			webClientTool.get("/echo").block(Duration.ofSeconds(5));
+		}
+		assertThat(clientPorts).hasSizeLessThanOrEqualTo(2);
+	}
+
+	@Test
+	@DisplayName("Test concurrent requests complete without a thread per request")
+	void testConcurrentRequests() {
+		WebClientTool webClientTool = webClientTool(properties());
+
+		List<String> responses = Flux.range(0, 50)
+			.flatMap(i -> webClientTool.get("/echo",
+					CommonToolCallUtils.<String, String>multiValueMapBuilder().add("i", String.valueOf(i)).build()))
+			.collectList()
+			.block(Duration.ofSeconds(10));
+
+		assertThat(responses).hasSize(50).contains("{\"query\":\"i=0\"}", "{\"query\":\"i=49\"}");
+	}
+
+	@Test
+	@DisplayName("Test server errors go through the default status handler")
+	void testServerError() {
+		WebClientTool webClientTool = webClientTool(properties());
+
+		StepVerifier.create(webClientTool.get("/error")).verifyErrorMessage("Server error, code: 500");
+	}
+
+	@Test
+	@DisplayName("Test requests over the rate limit are delayed")
+	void testRateLimit() {
+		CommonToolCallProperties properties = properties();
+		properties.setRateLimit(5);
+		WebClientTool webClientTool = webClientTool(properties);
+
+		long start = System.nanoTime();
+		List<String> responses = Flux.range(0, 7)
+			.flatMap(i -> webClientTool.get("/echo"))
+			.collectList()
+			.block(Duration.ofSeconds(10));
+
+		assertThat(responses).hasSize(7);
+		// The burst of 5 goes through at once, the last 2 wait 200 and 400 ms
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(350));
+	}
+
+	private CommonToolCallProperties properties() {
+		return new CommonToolCallProperties("http://127.0.0.1:" + server.getAddress().getPort());
+	}
+
+	private WebClientTool webClientTool(CommonToolCallProperties properties) {
+		return WebClientTool.builder(new JsonParseTool(), properties).connectionPool(connectionPool).build();
+	}
+
+	private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream output = exchange.getResponseBody()) {
+			output.write(bytes);
+		}
+	}
+
+}
@@ -15,7 +15,10 @@
  */
 package com.alibaba.cloud.ai.toolcalling.microsofttranslate;
 
+import com.alibaba.cloud.ai.toolcalling.common.AsyncToolCallback;
+import com.alibaba.cloud.ai.toolcalling.common.CommonToolCallConstants;
 import com.alibaba.cloud.ai.toolcalling.common.JsonParseTool;
+import com.alibaba.cloud.ai.toolcalling.common.ToolCallConnectionPool;
 import com.alibaba.cloud.ai.toolcalling.common.WebClientTool;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -26,6 +29,8 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Description;
 import org.springframework.http.HttpHeaders;
 
+import java.time.Duration;
+
 /**
  * @author 31445
  */
@@ -36,19 +41,34 @@ import org.springframework.http.HttpHeaders;
 		matchIfMissing = true)
 public class MicroSoftTranslateAutoConfiguration {
 
+	private static final String DESCRIPTION = "Implement natural language translation capabilities.";
+
 	@Bean(name = MicroSoftTranslateConstants.TOOL_NAME)
 	@ConditionalOnMissingBean
-	@Description("Implement natural language translation capabilities.")
+	@Description(DESCRIPTION)
 	public MicroSoftTranslateService microSoftTranslateFunction(MicroSoftTranslateProperties properties,
-			JsonParseTool jsonParseTool) {
+			JsonParseTool jsonParseTool, ToolCallConnectionPool connectionPool) {
 		WebClientTool webClientTool = WebClientTool.builder(jsonParseTool, properties)
 			.httpHeadersConsumer((headers) -> {
 				headers.add("Ocp-Apim-Subscription-Key", properties.getApiKey());
 				headers.set("Ocp-Apim-Subscription-Region", properties.getRegion());
 				headers.set(HttpHeaders.CONTENT_TYPE, "application/json");
 			})
+			.connectionPool(connectionPool)
 			.build();
 		return new MicroSoftTranslateService(webClientTool, jsonParseTool);
 	}
 
+	@Bean(name = MicroSoftTranslateConstants.TOOL_NAME + CommonToolCallConstants.TOOL_CALLBACK_BEAN_SUFFIX)
+	@ConditionalOnMissingBean(
+			name = MicroSoftTranslateConstants.TOOL_NAME + CommonToolCallConstants.TOOL_CALLBACK_BEAN_SUFFIX)
+	public AsyncToolCallback<MicroSoftTranslateService.Request, MicroSoftTranslateService.Response> microSoftTranslateToolCallback(
+			MicroSoftTranslateService service, MicroSoftTranslateProperties properties) {
+		return AsyncToolCallback.builder(MicroSoftTranslateConstants.TOOL_NAME, service)
+			.description(DESCRIPTION)
+			.inputType(MicroSoftTranslateService.Request.class)
+			.timeout(Duration.ofMinutes(properties.getNetworkTimeout()))
+			.build();
+	}
+
 }
@@ -15,6 +15,7 @@
  */
 package com.alibaba.cloud.ai.toolcalling.microsofttranslate;
 
+import com.alibaba.cloud.ai.toolcalling.common.AsyncToolFunction;
 import com.alibaba.cloud.ai.toolcalling.common.JsonParseTool;
 import com.alibaba.cloud.ai.toolcalling.common.WebClientTool;
 import com.fasterxml.jackson.annotation.JsonClassDescription;
@@ -26,14 +27,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.StringUtils;
 import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
 
 public class MicroSoftTranslateService
-		implements Function<MicroSoftTranslateService.Request, MicroSoftTranslateService.Response> {
+		implements AsyncToolFunction<MicroSoftTranslateService.Request, MicroSoftTranslateService.Response> {
 
 	private static final Logger logger = LoggerFactory.getLogger(MicroSoftTranslateService.class);
 
@@ -49,33 +50,31 @@ public class MicroSoftTranslateService
 	}
 
 	@Override
-	public Response apply(Request request) {
+	public Mono<Response> applyAsync(Request request) {
 		if (request == null || !StringUtils.hasText(request.text) || !StringUtils.hasText(request.targetLanguage)) {
-			return null;
+			return Mono.empty();
 		}
 		String uri = UriComponentsBuilder.fromHttpUrl(TRANSLATE_PATH)
 			.queryParam("to", request.targetLanguage)
 			.toUriString();
 		logger.info("Request uri: {}", uri);
-		try {
-			String body = constructRequestBody(request);
-			logger.info("Request body: {}", body);
-
-			String responseData = webClientTool.getWebClient()
-				.post()
-				.uri(uri)
-				.bodyValue(body)
-				.retrieve()
-				.bodyToMono(String.class)
-				.block();
-
-			logger.info("Translation request: {}, response: {}", request.text, responseData);
-			return parseResponse(responseData);
-		}
-		catch (Exception e) {
-			logger.error("Failed to invoke microsofttranslate API due to: {}", e.getMessage());
-			return null;
-		}
+		String body = constructRequestBody(request);
+		logger.info("Request body: {}", body);
+
+		return webClientTool.getWebClient()
+			.post()
+			.uri(uri)
+			.bodyValue(body)
+			.retrieve()
+			.bodyToMono(String.class)
+			.map(responseData -> {
+				logger.info("Translation request: {}, response: {}", request.text, responseData);
+				return parseResponse(responseData);
+			})
+			.onErrorResume(e -> {
+				logger.error("Failed to invoke microsofttranslate API due to: {}", e.getMessage());
+				return Mono.empty();
+			});
 	}
 
 	private String constructRequestBody(Request request) {
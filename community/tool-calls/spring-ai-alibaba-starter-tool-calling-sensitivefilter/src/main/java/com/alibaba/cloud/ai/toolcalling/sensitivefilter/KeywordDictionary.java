@@ -0,0 +1,177 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.toolcalling.sensitivefilter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Aho–Corasick automaton over the configured keywords, finds every keyword ending at a
+ * position in one step per character regardless of the dictionary size
+ */
+final class KeywordDictionary {
+
+	static final int ROOT = 0;
+
+	/**
+	 * Sorted edge labels and targets of every node
+	 */
+	private final char[][] labels;
+
+	private final int[][] targets;
+
+	private final int[] failure;
+
+	private final int[] depth;
+
+	/**
+	 * Length of the longest keyword that is a suffix of the node's path, 0 if none
+	 */
+	private final int[] matchLength;
+
+	private KeywordDictionary(List<Map<Character, Integer>> edges, int[] keywordLength) {
+		int size = edges.size();
+		this.labels = new char[size][];
+		this.targets = new int[size][];
+		for (int node = 0; node < size; node++) {
+			Map<Character, Integer> nodeEdges = edges.get(node);
+			labels[node] = new char[nodeEdges.size()];
+			targets[node] = new int[nodeEdges.size()];
+			int i = 0;
+			for (Map.Entry<Character, Integer> edge : nodeEdges.entrySet()) {
+				labels[node][i] = edge.getKey();
+				targets[node][i] = edge.getValue();
+				i++;
+			}
+		}
+		this.failure = new int[size];
+		this.depth = new int[size];
+		this.matchLength = new int[size];
+
+		// Breadth first, so the failure target of a node is always done before the node
+		Deque<Integer> queue = new ArrayDeque<>();
+		queue.add(ROOT);
+		while (!queue.isEmpty()) {
+			int node = queue.poll();
+			for (int i = 0; i < labels[node].length; i++) {
+				char label = labels[node][i];
+				int child = targets[node][i];
+				depth[child] = depth[node] + 1;
+				if (node != ROOT) {
+					int fallback = failure[node];
+					while (fallback != ROOT && child(fallback, label) < 0) {
+						fallback = failure[fallback];
+					}
+					int target = child(fallback, label);
+					failure[child] = Math.max(target, ROOT);
+				}
+				matchLength[child] = keywordLength[child] > 0 ? keywordLength[child] : matchLength[failure[child]];
+				queue.add(child);
+			}
+		}
+	}
+
+	/**
+	 * Builds the automaton, null and empty keywords are ignored.
+	 * @return null if there is no keyword
+	 */
+	static KeywordDictionary of(Collection<String> keywords) {
+		if (keywords == null) {
+			return null;
+		}
+		List<Map<Character, Integer>> edges = new ArrayList<>();
+		edges.add(new TreeMap<>());
+		List<Integer> lengths = new ArrayList<>();
+		lengths.add(0);
+		for (String keyword : keywords) {
+			if (keyword == null || keyword.isEmpty()) {
+				continue;
+			}
+			int node = ROOT;
+			for (int i = 0; i < keyword.length(); i++) {
+				Integer next = edges.get(node).get(keyword.charAt(i));
+				if (next == null) {
+					next = edges.size();
+					edges.get(node).put(keyword.charAt(i), next);
+					edges.add(new TreeMap<>());
+					lengths.add(0);
+				}
+				node = next;
+			}
+			lengths.set(node, keyword.length());
+		}
+		if (edges.size() == 1) {
+			return null;
+		}
+		return new KeywordDictionary(edges, lengths.stream().mapToInt(Integer::intValue).toArray());
+	}
+
+	/**
+	 * The state after reading the character.
+	 */
+	int next(int state, char c) {
+		while (true) {
+			int child = child(state, c);
+			if (child >= 0) {
+				return child;
+			}
+			if (state == ROOT) {
+				return ROOT;
+			}
+			state = failure[state];
+		}
+	}
+
+	/**
+	 * Length of the longest keyword ending at the last character read, 0 if none.
+	 */
+	int matchLength(int state) {
+		return matchLength[state];
+	}
+
+	/**
+	 * Number of the last characters read that may still be the start of a keyword.
+	 */
+	int depth(int state) {
+		return depth[state];
+	}
+
+	private int child(int node, char c) {
+		char[] nodeLabels = labels[node];
+		int low = 0;
+		int high = nodeLabels.length - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			if (nodeLabels[mid] < c) {
+				low = mid + 1;
+			}
+			else if (nodeLabels[mid] > c) {
+				high = mid - 1;
+			}
+			else {
+				return targets[node][mid];
+			}
+		}
+		return -1;
+	}
+
+}
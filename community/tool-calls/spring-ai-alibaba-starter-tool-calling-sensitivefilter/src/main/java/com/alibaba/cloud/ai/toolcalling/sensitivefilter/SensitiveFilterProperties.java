@@ -45,6 +45,12 @@ public class SensitiveFilterProperties extends CommonToolCallProperties {
 	 */
 	private List<CustomPattern> customPatterns = new ArrayList<>();
 
+	/**
+	 * Keywords replaced wherever they occur, matched together with the built-in rules in
+	 * one pass over the text
+	 */
+	private List<String> keywords = new ArrayList<>();
+
 	/**
 	 * Custom desensitization mode configuration
 	 */
@@ -140,4 +146,12 @@ public class SensitiveFilterProperties extends CommonToolCallProperties {
 		this.customPatterns = customPatterns;
 	}
 
+	public List<String> getKeywords() {
+		return keywords;
+	}
+
+	public void setKeywords(List<String> keywords) {
+		this.keywords = keywords;
+	}
+
 }
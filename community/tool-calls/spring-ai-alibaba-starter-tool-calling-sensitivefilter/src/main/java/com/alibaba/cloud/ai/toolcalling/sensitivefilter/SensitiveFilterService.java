@@ -19,6 +19,9 @@ package com.alibaba.cloud.ai.toolcalling.sensitivefilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Function;
@@ -33,16 +36,11 @@ public class SensitiveFilterService implements Function<String, String> {
 
 	private static final Logger logger = LoggerFactory.getLogger(SensitiveFilterService.class);
 
-	private final SensitiveFilterProperties properties;
-
-	private static final Pattern PHONE_PATTERN = Pattern.compile("(?<!\\d)1[3-9]\\d{9}(?!\\d)");
-
-	private static final Pattern ID_CARD_PATTERN = Pattern
-		.compile("(?<!\\d)[1-9]\\d{5}(18|19|20)\\d{2}((0[1-9])|(1[0-2]))(([0-2]\\d)|30|31)\\d{3}[0-9Xx](?!\\d)");
+	private static final int READ_BUFFER_SIZE = 8192;
 
-	private static final Pattern BANK_CARD_PATTERN = Pattern.compile("(?<!\\d)[4-6]\\d{15,18}(?!\\d)");
+	private final SensitiveFilterProperties properties;
 
-	private static final Pattern EMAIL_PATTERN = Pattern.compile("[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}");
+	private final SensitiveTextScanner scanner;
 
 	/**
 	 * Custom mode caching
@@ -52,6 +50,7 @@ public class SensitiveFilterService implements Function<String, String> {
 	public SensitiveFilterService(SensitiveFilterProperties properties) {
 		this.properties = properties;
 		this.customPatterns = new HashMap<>();
+		this.scanner = new SensitiveTextScanner(properties);
 		initializeCustomPatterns();
 	}
 
@@ -79,31 +78,35 @@ public class SensitiveFilterService implements Function<String, String> {
 			return text;
 		}
 
-		String result = text;
-
-		// Apply basic de-sensitization rules in order of specificity (most specific
-		// first)
-		// 1. Id number - the longest and most specific, priority processing
-		if (properties.isFilterIdCard()) {
-			result = ID_CARD_PATTERN.matcher(result).replaceAll(properties.getReplacement());
-		}
+		// Basic de-sensitization rules and keywords in one pass over the text
+		String result = scanner.scan(text);
 
-		// 2. Bank card number - longer in length, second priority
-		if (properties.isFilterBankCard()) {
-			result = BANK_CARD_PATTERN.matcher(result).replaceAll(properties.getReplacement());
-		}
+		// Apply custom de-sensitization rules
+		return applyCustomPatterns(result);
+	}
 
-		// 3. Phone number - shorter in length, possibly included in other numbers
-		if (properties.isFilterPhoneNumber()) {
-			result = PHONE_PATTERN.matcher(result).replaceAll(properties.getReplacement());
+	/**
+	 * Filters the text read from the reader in chunks and writes it to the writer,
+	 * without holding the whole text in memory. The writer is neither flushed nor closed.
+	 * <p>
+	 * Custom patterns are applied line by line, so they do not match across line breaks.
+	 */
+	public void filter(Reader reader, Writer writer) throws IOException {
+		Appendable out = customPatterns.isEmpty() ? writer : new CustomPatternLineWriter(writer);
+		SensitiveTextScanner.Session session = scanner.open(out);
+		char[] buffer = new char[READ_BUFFER_SIZE];
+		int read;
+		while ((read = reader.read(buffer)) != -1) {
+			session.write(buffer, 0, read);
 		}
-
-		// 4. Email - format special, last processing
-		if (properties.isFilterEmail()) {
-			result = EMAIL_PATTERN.matcher(result).replaceAll(properties.getReplacement());
+		session.finish();
+		if (out instanceof CustomPatternLineWriter lineWriter) {
+			lineWriter.flushLine();
 		}
+	}
 
-		// Apply custom de-sensitization rules
+	private String applyCustomPatterns(String text) {
+		String result = text;
 		for (SensitiveFilterProperties.CustomPattern customPattern : properties.getCustomPatterns()) {
 			if (customPattern.isEnabled()) {
 				Pattern pattern = customPatterns.get(customPattern.getName());
@@ -114,8 +117,53 @@ public class SensitiveFilterService implements Function<String, String> {
 				}
 			}
 		}
-
 		return result;
 	}
 
+	/**
+	 * Collects the scanned text up to a line break, then writes the line with the custom
+	 * patterns applied.
+	 */
+	private class CustomPatternLineWriter implements Appendable {
+
+		private final Writer writer;
+
+		private final StringBuilder line = new StringBuilder();
+
+		CustomPatternLineWriter(Writer writer) {
+			this.writer = writer;
+		}
+
+		@Override
+		public Appendable append(CharSequence text) throws IOException {
+			return append(text, 0, text.length());
+		}
+
+		@Override
+		public Appendable append(CharSequence text, int start, int end) throws IOException {
+			for (int i = start; i < end; i++) {
+				append(text.charAt(i));
+			}
+			return this;
+		}
+
+		@Override
+		public Appendable append(char c) throws IOException {
+			if (c == '\n') {
+				flushLine();
+				writer.write(c);
+			}
+			else {
+				line.append(c);
+			}
+			return this;
+		}
+
+		void flushLine() throws IOException {
+			writer.write(applyCustomPatterns(line.toString()));
+			line.setLength(0);
+		}
+
+	}
+
 }
@@ -0,0 +1,501 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.toolcalling.sensitivefilter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/**
+ * Masks ID card numbers, bank card numbers, phone numbers, emails and dictionary keywords
+ * in one traversal of the text. The characters flow through one small state machine per
+ * category, each only buffering the run it may still have to replace, so the text can be
+ * fed in chunks of any size.
+ * <p>
+ * The result is the same as replacing the patterns one after the other in the order ID
+ * card, bank card, phone number, email, keywords: a number is only masked as a whole
+ * digit run, emails are matched in the text with the numbers already masked, and keywords
+ * in the text with emails masked. Replacements are inserted literally.
+ */
+final class SensitiveTextScanner {
+
+	/**
+	 * Longest digit run that may be a number to mask
+	 */
+	private static final int MAX_NUMBER_LENGTH = 19;
+
+	private final String replacement;
+
+	private final boolean filterIdCard;
+
+	private final boolean filterBankCard;
+
+	private final boolean filterPhoneNumber;
+
+	private final boolean filterEmail;
+
+	private final KeywordDictionary keywords;
+
+	SensitiveTextScanner(SensitiveFilterProperties properties) {
+		this.replacement = properties.getReplacement();
+		this.filterIdCard = properties.isFilterIdCard();
+		this.filterBankCard = properties.isFilterBankCard();
+		this.filterPhoneNumber = properties.isFilterPhoneNumber();
+		this.filterEmail = properties.isFilterEmail();
+		this.keywords = KeywordDictionary.of(properties.getKeywords());
+	}
+
+	String scan(String text) {
+		StringBuilder result = new StringBuilder(text.length());
+		Session session = open(result);
+		try {
+			session.write(text);
+			session.finish();
+		}
+		catch (IOException e) {
+			// StringBuilder does not throw
+			throw new UncheckedIOException(e);
+		}
+		return result.toString();
+	}
+
+	/**
+	 * Starts scanning a text written in chunks, the masked text is appended to the output
+	 * as soon as no rule can match it any more.
+	 */
+	Session open(Appendable out) {
+		Stage head = new Output(out);
+		if (keywords != null) {
+			head = new KeywordStage(head);
+		}
+		if (filterEmail) {
+			head = new EmailStage(head);
+		}
+		if (filterIdCard || filterBankCard || filterPhoneNumber) {
+			head = new NumberStage(head);
+		}
+		return new Session(head);
+	}
+
+	/**
+	 * One scan of a text written in chunks. Not thread safe.
+	 */
+	static final class Session {
+
+		private final Stage head;
+
+		private Session(Stage head) {
+			this.head = head;
+		}
+
+		void write(CharSequence text) throws IOException {
+			for (int i = 0; i < text.length(); i++) {
+				head.accept(text.charAt(i));
+			}
+		}
+
+		void write(char[] chars, int offset, int length) throws IOException {
+			for (int i = offset; i < offset + length; i++) {
+				head.accept(chars[i]);
+			}
+		}
+
+		/**
+		 * Resolves the runs still buffered at the end of the text.
+		 */
+		void finish() throws IOException {
+			head.finish();
+		}
+
+	}
+
+	private abstract static class Stage {
+
+		abstract void accept(char c) throws IOException;
+
+		void accept(CharSequence text, int start, int end) throws IOException {
+			for (int i = start; i < end; i++) {
+				accept(text.charAt(i));
+			}
+		}
+
+		abstract void finish() throws IOException;
+
+	}
+
+	private static final class Output extends Stage {
+
+		private final Appendable out;
+
+		Output(Appendable out) {
+			this.out = out;
+		}
+
+		@Override
+		void accept(char c) throws IOException {
+			out.append(c);
+		}
+
+		@Override
+		void accept(CharSequence text, int start, int end) throws IOException {
+			if (out instanceof Writer writer && text instanceof String string) {
+				writer.write(string, start, end - start);
+			}
+			else {
+				out.append(text, start, end);
+			}
+		}
+
+		@Override
+		void finish() {
+		}
+
+	}
+
+	/**
+	 * Buffers a digit run until it ends and replaces it if it is a whole ID card, bank
+	 * card or phone number, the same as the patterns guarded by {@code (?<!\d)} and
+	 * {@code (?!\d)}.
+	 */
+	private final class NumberStage extends Stage {
+
+		private final Stage next;
+
+		private final StringBuilder digits = new StringBuilder(MAX_NUMBER_LENGTH);
+
+		// Length of the current run, longer runs than MAX_NUMBER_LENGTH pass through
+		private int runLength;
+
+		// 17 digits followed by X, an ID card if no digit comes next
+		private char idCardSuffix;
+
+		NumberStage(Stage next) {
+			this.next = next;
+		}
+
+		@Override
+		void accept(char c) throws IOException {
+			if (idCardSuffix != 0) {
+				char suffix = idCardSuffix;
+				idCardSuffix = 0;
+				if (!isDigit(c) && isIdCard(digits, suffix)) {
+					resetRun();
+					next.accept(replacement, 0, replacement.length());
+				}
+				else {
+					endRun();
+					next.accept(suffix);
+				}
+			}
+			if (isDigit(c)) {
+				if (runLength < MAX_NUMBER_LENGTH) {
+					digits.append(c);
+				}
+				else {
+					if (runLength == MAX_NUMBER_LENGTH) {
+						next.accept(digits, 0, digits.length());
+					}
+					next.accept(c);
+				}
+				runLength++;
+				return;
+			}
+			if (filterIdCard && runLength == 17 && (c == 'X' || c == 'x')) {
+				idCardSuffix = c;
+				return;
+			}
+			endRun();
+			next.accept(c);
+		}
+
+		@Override
+		void finish() throws IOException {
+			if (idCardSuffix != 0) {
+				char suffix = idCardSuffix;
+				idCardSuffix = 0;
+				if (isIdCard(digits, suffix)) {
+					resetRun();
+					next.accept(replacement, 0, replacement.length());
+				}
+				else {
+					endRun();
+					next.accept(suffix);
+				}
+			}
+			endRun();
+			next.finish();
+		}
+
+		private void endRun() throws IOException {
+			if (runLength == 0) {
+				return;
+			}
+			if (runLength <= MAX_NUMBER_LENGTH) {
+				if (isMasked()) {
+					next.accept(replacement, 0, replacement.length());
+				}
+				else {
+					next.accept(digits, 0, digits.length());
+				}
+			}
+			resetRun();
+		}
+
+		private boolean isMasked() {
+			if (filterIdCard && runLength == 18 && isIdCard(digits, digits.charAt(17))) {
+				return true;
+			}
+			if (filterBankCard && runLength >= 16 && digits.charAt(0) >= '4' && digits.charAt(0) <= '6') {
+				return true;
+			}
+			return filterPhoneNumber && runLength == 11 && digits.charAt(0) == '1' && digits.charAt(1) >= '3';
+		}
+
+		private void resetRun() {
+			digits.setLength(0);
+			runLength = 0;
+		}
+
+	}
+
+	/**
+	 * Matches {@code [a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\.[a-zA-Z]{2,}} the way
+	 * {@link java.util.regex.Matcher#find()} does: buffers the run of local part
+	 * characters, and after an {@code @} the run of domain characters, then masks from
+	 * the start of the local run to the end of the last label of at least two letters.
+	 */
+	private final class EmailStage extends Stage {
+
+		private final Stage next;
+
+		private final StringBuilder local = new StringBuilder();
+
+		private final StringBuilder domain = new StringBuilder();
+
+		private boolean inDomain;
+
+		EmailStage(Stage next) {
+			this.next = next;
+		}
+
+		@Override
+		void accept(char c) throws IOException {
+			if (inDomain) {
+				if (isDomainChar(c)) {
+					domain.append(c);
+					return;
+				}
+				endDomain();
+			}
+			if (isLocalChar(c)) {
+				local.append(c);
+				return;
+			}
+			if (c == '@' && !local.isEmpty()) {
+				inDomain = true;
+				return;
+			}
+			flushLocal();
+			next.accept(c);
+		}
+
+		@Override
+		void finish() throws IOException {
+			if (inDomain) {
+				endDomain();
+			}
+			flushLocal();
+			next.finish();
+		}
+
+		private void endDomain() throws IOException {
+			inDomain = false;
+			int end = emailEnd(domain);
+			if (end > 0) {
+				local.setLength(0);
+				next.accept(replacement, 0, replacement.length());
+			}
+			else {
+				flushLocal();
+				next.accept('@');
+				end = 0;
+			}
+			// What follows the match may be the local part of the next email
+			local.append(domain, end, domain.length());
+			domain.setLength(0);
+		}
+
+		private void flushLocal() throws IOException {
+			if (!local.isEmpty()) {
+				next.accept(local, 0, local.length());
+				local.setLength(0);
+			}
+		}
+
+	}
+
+	/**
+	 * Masks the leftmost longest keyword, then continues after it. Only the characters
+	 * that may still start a keyword stay buffered.
+	 */
+	private final class KeywordStage extends Stage {
+
+		private final Stage next;
+
+		private final StringBuilder pending = new StringBuilder();
+
+		// Characters of pending already read by the automaton
+		private int scanned;
+
+		private int state = KeywordDictionary.ROOT;
+
+		private int matchStart = -1;
+
+		private int matchEnd;
+
+		KeywordStage(Stage next) {
+			this.next = next;
+		}
+
+		@Override
+		void accept(char c) throws IOException {
+			if (pending.isEmpty() && keywords.next(KeywordDictionary.ROOT, c) == KeywordDictionary.ROOT) {
+				// Nothing buffered and no keyword starts with the character
+				next.accept(c);
+				return;
+			}
+			pending.append(c);
+			scan();
+		}
+
+		@Override
+		void finish() throws IOException {
+			scan();
+			while (matchStart >= 0) {
+				// No later keyword can start before the match any more
+				replaceMatch();
+				scan();
+			}
+			next.accept(pending, 0, pending.length());
+			pending.setLength(0);
+			scanned = 0;
+			state = KeywordDictionary.ROOT;
+			next.finish();
+		}
+
+		private void scan() throws IOException {
+			while (scanned < pending.length()) {
+				state = keywords.next(state, pending.charAt(scanned++));
+				int length = keywords.matchLength(state);
+				if (length > 0) {
+					int start = scanned - length;
+					// The same start again is a longer keyword
+					if (matchStart < 0 || start <= matchStart) {
+						matchStart = start;
+						matchEnd = scanned;
+					}
+				}
+				int earliestStart = scanned - keywords.depth(state);
+				if (matchStart >= 0) {
+					if (earliestStart > matchStart) {
+						replaceMatch();
+					}
+				}
+				else if (earliestStart > 0) {
+					next.accept(pending, 0, earliestStart);
+					pending.delete(0, earliestStart);
+					scanned -= earliestStart;
+				}
+			}
+		}
+
+		/**
+		 * Replaces the match and rewinds to read the characters after it again, matches
+		 * overlapping it are dropped.
+		 */
+		private void replaceMatch() throws IOException {
+			next.accept(pending, 0, matchStart);
+			next.accept(replacement, 0, replacement.length());
+			pending.delete(0, matchEnd);
+			scanned = 0;
+			state = KeywordDictionary.ROOT;
+			matchStart = -1;
+		}
+
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static boolean isLetter(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+	}
+
+	private static boolean isDomainChar(char c) {
+		return isLetter(c) || isDigit(c) || c == '.' || c == '-';
+	}
+
+	private static boolean isLocalChar(char c) {
+		return isDomainChar(c) || c == '_' || c == '%' || c == '+';
+	}
+
+	/**
+	 * Checks 17 digits and the last character against
+	 * {@code [1-9]\d{5}(18|19|20)\d{2}((0[1-9])|(1[0-2]))(([0-2]\d)|30|31)\d{3}[0-9Xx]}.
+	 */
+	static boolean isIdCard(CharSequence digits, char last) {
+		if (digits.length() < 17 || digits.charAt(0) == '0') {
+			return false;
+		}
+		char century1 = digits.charAt(6);
+		char century2 = digits.charAt(7);
+		if (!(century1 == '1' && (century2 == '8' || century2 == '9')) && !(century1 == '2' && century2 == '0')) {
+			return false;
+		}
+		char month1 = digits.charAt(10);
+		char month2 = digits.charAt(11);
+		if (!(month1 == '0' && month2 != '0') && !(month1 == '1' && month2 <= '2')) {
+			return false;
+		}
+		char day1 = digits.charAt(12);
+		char day2 = digits.charAt(13);
+		if (day1 > '3' || (day1 == '3' && day2 > '1')) {
+			return false;
+		}
+		return isDigit(last) || last == 'X' || last == 'x';
+	}
+
+	/**
+	 * End of {@code [a-zA-Z0-9.-]+\.[a-zA-Z]{2,}} matched greedily at the start of the
+	 * domain run, -1 if it does not match.
+	 */
+	static int emailEnd(CharSequence domain) {
+		// The greedy domain part backs off to the last dot followed by two letters
+		for (int dot = domain.length() - 3; dot >= 1; dot--) {
+			if (domain.charAt(dot) == '.' && isLetter(domain.charAt(dot + 1)) && isLetter(domain.charAt(dot + 2))) {
+				int end = dot + 3;
+				while (end < domain.length() && isLetter(domain.charAt(end))) {
+					end++;
+				}
+				return end;
+			}
+		}
+		return -1;
+	}
+
+}
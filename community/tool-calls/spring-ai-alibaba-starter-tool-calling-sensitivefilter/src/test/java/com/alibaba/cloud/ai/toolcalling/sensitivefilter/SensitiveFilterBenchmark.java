@@ -0,0 +1,112 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.toolcalling.sensitivefilter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of {@link SensitiveFilterService} on MB sized texts: the single pass
+ * against the regular expression passes it replaced, and the streaming filter. Run
+ * {@link #main(String[])} from the IDE or with {@code mvn test-compile exec:java}; it is
+ * not part of the unit test suite.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class SensitiveFilterBenchmark {
+
+	@Param({ "1", "8" })
+	public int megabytes;
+
+	private String text;
+
+	private SensitiveFilterProperties properties;
+
+	private SensitiveFilterService service;
+
+	private SensitiveFilterService keywordService;
+
+	@Setup
+	public void setUp() {
+		StringBuilder builder = new StringBuilder(megabytes << 20);
+		int line = 0;
+		while (builder.length() < (megabytes << 20)) {
+			builder.append("第")
+				.append(line++)
+				.append("条记录：客户张三于2025年6月提交订单12345678，联系电话13912345678，邮箱zhangsan")
+				.append(line)
+				.append("@example.com，身份证110101199001011234，银行卡6222021234567890123。")
+				.append("The customer asked to update the shipping address and confirmed the payment.\n");
+		}
+		this.text = builder.toString();
+		this.properties = new SensitiveFilterProperties();
+		this.service = new SensitiveFilterService(properties);
+
+		SensitiveFilterProperties keywordProperties = new SensitiveFilterProperties();
+		keywordProperties.setKeywords(List.of("张三", "李四", "王五", "shipping address", "payment", "内部项目"));
+		this.keywordService = new SensitiveFilterService(keywordProperties);
+	}
+
+	@Benchmark
+	public String regexPasses() {
+		return SensitiveTextScannerTest.legacyFilter(properties, text);
+	}
+
+	@Benchmark
+	public String singlePass() {
+		return service.apply(text);
+	}
+
+	@Benchmark
+	public String singlePassWithKeywords() {
+		return keywordService.apply(text);
+	}
+
+	@Benchmark
+	public int streaming() throws IOException {
+		StringWriter writer = new StringWriter(text.length());
+		service.filter(new StringReader(text), writer);
+		return writer.getBuffer().length();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(SensitiveFilterBenchmark.class.getSimpleName()).build()).run();
+	}
+
+}
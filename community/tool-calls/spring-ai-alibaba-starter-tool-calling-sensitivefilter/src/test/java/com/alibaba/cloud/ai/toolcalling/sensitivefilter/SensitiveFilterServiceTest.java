@@ -20,6 +20,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -248,4 +251,41 @@ class SensitiveFilterServiceTest {
 		assertThat(result).isEqualTo(text);
 	}
 
+	@Test
+	@DisplayName("Test keyword dictionary de-identification")
+	void testKeywordFiltering() {
+		properties.setKeywords(List.of("张三", "内部项目"));
+		service = new SensitiveFilterService(properties);
+
+		String text = "张三负责内部项目，手机13912345678";
+		String result = service.apply(text);
+		assertThat(result).isEqualTo("***负责***，手机***");
+	}
+
+	@Test
+	@DisplayName("Test streaming input gives the same result as the whole text")
+	void testStreamingFilter() throws IOException {
+		SensitiveFilterProperties.CustomPattern qqPattern = new SensitiveFilterProperties.CustomPattern();
+		qqPattern.setName("qq");
+		qqPattern.setPattern("QQ[：:]?\\d{5,11}");
+		qqPattern.setReplacement("[QQ号]");
+		properties.setCustomPatterns(List.of(qqPattern));
+		properties.setKeywords(List.of("机密"));
+		service = new SensitiveFilterService(properties);
+
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < 2000; i++) {
+			text.append("第")
+				.append(i)
+				.append("行：手机13912345678，邮箱user")
+				.append(i)
+				.append("@example.com，QQ：123456789，机密，身份证11010119900101123X\n");
+		}
+		StringWriter writer = new StringWriter();
+		service.filter(new StringReader(text.toString()), writer);
+
+		assertThat(writer.toString()).isEqualTo(service.apply(text.toString()))
+			.startsWith("第0行：手机***，邮箱***，[QQ号]，***，身份证***\n");
+	}
+
 }
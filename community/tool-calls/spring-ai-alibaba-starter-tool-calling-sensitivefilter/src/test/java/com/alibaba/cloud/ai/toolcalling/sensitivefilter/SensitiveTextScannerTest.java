@@ -0,0 +1,213 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.toolcalling.sensitivefilter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * SensitiveTextScanner unit tests, the single pass is compared with the regular
+ * expressions it replaces
+ */
+@DisplayName("Single pass sensitive text scanner test")
+class SensitiveTextScannerTest {
+
+	private static final Pattern PHONE_PATTERN = Pattern.compile("(?<!\\d)1[3-9]\\d{9}(?!\\d)");
+
+	private static final Pattern ID_CARD_PATTERN = Pattern
+		.compile("(?<!\\d)[1-9]\\d{5}(18|19|20)\\d{2}((0[1-9])|(1[0-2]))(([0-2]\\d)|30|31)\\d{3}[0-9Xx](?!\\d)");
+
+	private static final Pattern BANK_CARD_PATTERN = Pattern.compile("(?<!\\d)[4-6]\\d{15,18}(?!\\d)");
+
+	private static final Pattern EMAIL_PATTERN = Pattern.compile("[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}");
+
+	private static final String[] FRAGMENTS = { "13912345678", "110101199001011234", "11010119900101123X",
+			"11010119900101123x", "4123456789012345", "6222021234567890123", "user@example.com", "a.b-c@mail.co", "@",
+			".", "..", "-", "_", "%", "+", "X", "x", "com", "cn", " ", "，", "手机", "邮箱", "\n", "0", "1", "5", "9" };
+
+	@Test
+	@DisplayName("Test same result as the sequential regular expressions on random text")
+	void testMatchesSequentialPatterns() throws IOException {
+		Random random = new Random(42);
+		for (int round = 0; round < 20_000; round++) {
+			SensitiveFilterProperties properties = randomProperties(random);
+			SensitiveTextScanner scanner = new SensitiveTextScanner(properties);
+			String text = randomText(random);
+
+			String expected = legacyFilter(properties, text);
+			assertThat(scanner.scan(text)).as("text: %s", text).isEqualTo(expected);
+			assertThat(scanChunked(scanner, text, random)).as("chunked text: %s", text).isEqualTo(expected);
+		}
+	}
+
+	@ParameterizedTest
+	@DisplayName("Test boundary cases of the single pass")
+	@CsvSource(delimiter = '|',
+			value = { "身份证11010119900101123X。|身份证***。", "身份证11010119900101123X5|身份证11010119900101123X5",
+					"11010119900101123X|***", "41234567890123456X|***X", "11010119901301123X|11010119901301123X",
+					"13912345678@qq.com|***@qq.com", "x@y@b.com|x@***", "a@b.com5@c.org|******",
+					"a@b.cc.dd@e.ff|***@e.ff", "mail@host|mail@host", "@user@example.com.|@***.",
+					"139123456781|139123456781", "12345678901234567890123|12345678901234567890123",
+					"4123456789012345678|***", "41234567890123456789|41234567890123456789" })
+	void testBoundaryCases(String text, String expected) {
+		SensitiveTextScanner scanner = new SensitiveTextScanner(new SensitiveFilterProperties());
+		assertThat(scanner.scan(text)).isEqualTo(expected);
+		assertThat(legacyFilter(new SensitiveFilterProperties(), text)).isEqualTo(expected);
+	}
+
+	@Test
+	@DisplayName("Test keyword dictionary masks the leftmost longest keyword")
+	void testKeywords() throws IOException {
+		SensitiveFilterProperties properties = new SensitiveFilterProperties();
+		properties.setKeywords(List.of("he", "she", "hers", "his", "机密", "绝密文件"));
+		SensitiveTextScanner scanner = new SensitiveTextScanner(properties);
+
+		assertThat(scanner.scan("ushers")).isEqualTo("u***rs");
+		assertThat(scanner.scan("hishers")).isEqualTo("******");
+		assertThat(scanner.scan("这是绝密文件和机密资料")).isEqualTo("这是***和***资料");
+		assertThat(scanner.scan("hx sh h")).isEqualTo("hx sh h");
+		assertThat(scanChunked(scanner, "他说：机密文件放在hers的桌上", new Random(7))).isEqualTo("他说：***文件放在***的桌上");
+	}
+
+	@Test
+	@DisplayName("Test same keyword matches as an alternation of the keywords, longest first")
+	void testKeywordsMatchAlternation() throws IOException {
+		Random random = new Random(42);
+		for (int round = 0; round < 5_000; round++) {
+			List<String> keywords = new ArrayList<>();
+			for (int i = 0; i < 1 + random.nextInt(6); i++) {
+				keywords.add(randomWord(random, 1 + random.nextInt(4)));
+			}
+			SensitiveFilterProperties properties = new SensitiveFilterProperties();
+			properties.setFilterIdCard(false);
+			properties.setFilterBankCard(false);
+			properties.setFilterPhoneNumber(false);
+			properties.setFilterEmail(false);
+			properties.setKeywords(keywords);
+			SensitiveTextScanner scanner = new SensitiveTextScanner(properties);
+			String text = randomWord(random, random.nextInt(30));
+
+			Pattern alternation = Pattern.compile(keywords.stream()
+				.sorted(Comparator.comparingInt(String::length).reversed())
+				.map(Pattern::quote)
+				.collect(Collectors.joining("|")));
+			String expected = alternation.matcher(text).replaceAll(properties.getReplacement());
+			assertThat(scanner.scan(text)).as("keywords: %s, text: %s", keywords, text).isEqualTo(expected);
+			assertThat(scanChunked(scanner, text, random)).as("keywords: %s, text: %s", keywords, text)
+				.isEqualTo(expected);
+		}
+	}
+
+	@Test
+	@DisplayName("Test keywords are matched after the built-in rules")
+	void testKeywordsAfterBuiltInRules() {
+		SensitiveFilterProperties properties = new SensitiveFilterProperties();
+		properties.setKeywords(List.of("example", "1391234"));
+		SensitiveTextScanner scanner = new SensitiveTextScanner(properties);
+
+		assertThat(scanner.scan("user@example.com, example, 13912345678, 1391234")).isEqualTo("***, ***, ***, ***");
+	}
+
+	@Test
+	@DisplayName("Test ID card validation")
+	void testIsIdCard() {
+		assertThat(SensitiveTextScanner.isIdCard("11010119900101123", 'X')).isTrue();
+		assertThat(SensitiveTextScanner.isIdCard("11010120001231123", '4')).isTrue();
+		assertThat(SensitiveTextScanner.isIdCard("01010119900101123", '4')).isFalse();
+		assertThat(SensitiveTextScanner.isIdCard("11010117900101123", '4')).isFalse();
+		assertThat(SensitiveTextScanner.isIdCard("11010119900001123", '4')).isFalse();
+		assertThat(SensitiveTextScanner.isIdCard("11010119901301123", '4')).isFalse();
+		assertThat(SensitiveTextScanner.isIdCard("11010119900132123", '4')).isFalse();
+		assertThat(SensitiveTextScanner.isIdCard("11010119900101123", 'Y')).isFalse();
+	}
+
+	private static SensitiveFilterProperties randomProperties(Random random) {
+		SensitiveFilterProperties properties = new SensitiveFilterProperties();
+		properties.setFilterIdCard(random.nextInt(4) != 0);
+		properties.setFilterBankCard(random.nextInt(4) != 0);
+		properties.setFilterPhoneNumber(random.nextInt(4) != 0);
+		properties.setFilterEmail(random.nextInt(4) != 0);
+		// Replacements that are part of an email change what the email rule matches
+		properties.setReplacement(random.nextBoolean() ? "***" : "mask");
+		return properties;
+	}
+
+	private static String randomText(Random random) {
+		StringBuilder text = new StringBuilder();
+		int fragments = random.nextInt(12);
+		for (int i = 0; i < fragments; i++) {
+			text.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+		}
+		return text.toString();
+	}
+
+	private static String randomWord(Random random, int length) {
+		StringBuilder word = new StringBuilder();
+		for (int i = 0; i < length; i++) {
+			word.append((char) ('a' + random.nextInt(3)));
+		}
+		return word.toString();
+	}
+
+	private static String scanChunked(SensitiveTextScanner scanner, String text, Random random) throws IOException {
+		StringBuilder result = new StringBuilder();
+		SensitiveTextScanner.Session session = scanner.open(result);
+		char[] chars = text.toCharArray();
+		int offset = 0;
+		while (offset < chars.length) {
+			int length = Math.min(chars.length - offset, 1 + random.nextInt(5));
+			session.write(chars, offset, length);
+			offset += length;
+		}
+		session.finish();
+		return result.toString();
+	}
+
+	/**
+	 * The regular expression passes SensitiveFilterService applied before the single
+	 * pass.
+	 */
+	static String legacyFilter(SensitiveFilterProperties properties, String text) {
+		String result = text;
+		if (properties.isFilterIdCard()) {
+			result = ID_CARD_PATTERN.matcher(result).replaceAll(properties.getReplacement());
+		}
+		if (properties.isFilterBankCard()) {
+			result = BANK_CARD_PATTERN.matcher(result).replaceAll(properties.getReplacement());
+		}
+		if (properties.isFilterPhoneNumber()) {
+			result = PHONE_PATTERN.matcher(result).replaceAll(properties.getReplacement());
+		}
+		if (properties.isFilterEmail()) {
+			result = EMAIL_PATTERN.matcher(result).replaceAll(properties.getReplacement());
+		}
+		return result;
+	}
+
+}
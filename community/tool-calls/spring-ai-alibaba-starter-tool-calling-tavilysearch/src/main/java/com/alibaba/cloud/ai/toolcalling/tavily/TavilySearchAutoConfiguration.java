@@ -15,7 +15,10 @@
  */
 package com.alibaba.cloud.ai.toolcalling.tavily;
 
+import com.alibaba.cloud.ai.toolcalling.common.AsyncToolCallback;
+import com.alibaba.cloud.ai.toolcalling.common.CommonToolCallConstants;
 import com.alibaba.cloud.ai.toolcalling.common.JsonParseTool;
+import com.alibaba.cloud.ai.toolcalling.common.ToolCallConnectionPool;
 import com.alibaba.cloud.ai.toolcalling.common.WebClientTool;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -27,6 +30,8 @@ import org.springframework.context.annotation.Description;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 
+import java.time.Duration;
+
 @Configuration
 @EnableConfigurationProperties(TavilySearchProperties.class)
 @ConditionalOnClass(TavilySearchService.class)
@@ -34,17 +39,33 @@ import org.springframework.http.MediaType;
 		matchIfMissing = true)
 public class TavilySearchAutoConfiguration {
 
+	private static final String DESCRIPTION = "Provides a TavilySearchService bean for performing searches using the Tavily search engine.";
+
 	@Bean(name = TavilySearchConstants.TOOL_NAME)
 	@ConditionalOnMissingBean
-	@Description("Provides a TavilySearchService bean for performing searches using the Tavily search engine.")
-	public TavilySearchService tavilySearch(TavilySearchProperties properties, JsonParseTool jsonParseTool) {
+	@Description(DESCRIPTION)
+	public TavilySearchService tavilySearch(TavilySearchProperties properties, JsonParseTool jsonParseTool,
+			ToolCallConnectionPool connectionPool) {
 		WebClientTool webClientTool = WebClientTool.builder(jsonParseTool, properties)
 			.httpHeadersConsumer(httpHeaders -> {
 				httpHeaders.add(HttpHeaders.AUTHORIZATION, "Bearer " + properties.getApiKey());
 				httpHeaders.add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
 			})
+			.connectionPool(connectionPool)
 			.build();
 		return new TavilySearchService(jsonParseTool, webClientTool);
 	}
 
+	@Bean(name = TavilySearchConstants.TOOL_NAME + CommonToolCallConstants.TOOL_CALLBACK_BEAN_SUFFIX)
+	@ConditionalOnMissingBean(
+			name = TavilySearchConstants.TOOL_NAME + CommonToolCallConstants.TOOL_CALLBACK_BEAN_SUFFIX)
+	public AsyncToolCallback<TavilySearchService.Request, TavilySearchService.Response> tavilySearchToolCallback(
+			TavilySearchService service, TavilySearchProperties properties) {
+		return AsyncToolCallback.builder(TavilySearchConstants.TOOL_NAME, service)
+			.description(DESCRIPTION)
+			.inputType(TavilySearchService.Request.class)
+			.timeout(Duration.ofMinutes(properties.getNetworkTimeout()))
+			.build();
+	}
+
 }
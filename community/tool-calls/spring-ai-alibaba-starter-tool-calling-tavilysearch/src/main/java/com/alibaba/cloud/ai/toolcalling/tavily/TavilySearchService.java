@@ -15,6 +15,7 @@
  */
 package com.alibaba.cloud.ai.toolcalling.tavily;
 
+import com.alibaba.cloud.ai.toolcalling.common.AsyncToolFunction;
 import com.alibaba.cloud.ai.toolcalling.common.JsonParseTool;
 import com.alibaba.cloud.ai.toolcalling.common.WebClientTool;
 import com.fasterxml.jackson.annotation.JsonClassDescription;
@@ -32,18 +33,19 @@ import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.StringUtils;
+import reactor.core.publisher.Mono;
 
 import java.io.IOException;
 import java.io.Serializable;
 import java.util.List;
-import java.util.function.Function;
 
 /**
  * TavilySearch Service
  *
  * @author Allen Hu
  */
-public class TavilySearchService implements Function<TavilySearchService.Request, TavilySearchService.Response> {
+public class TavilySearchService
+		implements AsyncToolFunction<TavilySearchService.Request, TavilySearchService.Response> {
 
 	private static final Logger logger = LoggerFactory.getLogger(TavilySearchService.class);
 
@@ -57,20 +59,23 @@ public class TavilySearchService implements Function<TavilySearchService.Request
 	}
 
 	@Override
-	public TavilySearchService.Response apply(TavilySearchService.Request request) {
+	public Mono<TavilySearchService.Response> applyAsync(TavilySearchService.Request request) {
 		if (request == null || !StringUtils.hasText(request.query())) {
-			return Response.errorResponse(request != null ? request.query : "", "query is empty");
+			return Mono.just(Response.errorResponse(request != null ? request.query : "", "query is empty"));
 		}
 
-		try {
-			String responseData = webClientTool.post("search", request).block();
-			return jsonParseTool.jsonToObject(responseData, new TypeReference<Response>() {
-			});
-		}
-		catch (Exception ex) {
+		return webClientTool.post("search", request).<Response>handle((responseData, sink) -> {
+			try {
+				sink.next(jsonParseTool.jsonToObject(responseData, new TypeReference<Response>() {
+				}));
+			}
+			catch (JsonProcessingException e) {
+				sink.error(e);
+			}
+		}).onErrorResume(ex -> {
 			logger.error("tavily search error: {}", ex.getMessage());
-			return Response.errorResponse(request.query, ex.getMessage());
-		}
+			return Mono.just(Response.errorResponse(request.query, ex.getMessage()));
+		});
 	}
 
 	@JsonInclude(JsonInclude.Include.NON_NULL)
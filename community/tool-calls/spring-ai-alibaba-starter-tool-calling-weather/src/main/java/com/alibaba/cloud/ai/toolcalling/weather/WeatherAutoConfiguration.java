@@ -15,7 +15,10 @@
  */
 package com.alibaba.cloud.ai.toolcalling.weather;
 
+import com.alibaba.cloud.ai.toolcalling.common.AsyncToolCallback;
+import com.alibaba.cloud.ai.toolcalling.common.CommonToolCallConstants;
 import com.alibaba.cloud.ai.toolcalling.common.JsonParseTool;
+import com.alibaba.cloud.ai.toolcalling.common.ToolCallConnectionPool;
 import com.alibaba.cloud.ai.toolcalling.common.WebClientTool;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -25,6 +28,8 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Description;
 
+import java.time.Duration;
+
 /**
  * @author 北极星
  */
@@ -35,14 +40,29 @@ import org.springframework.context.annotation.Description;
 		matchIfMissing = true)
 public class WeatherAutoConfiguration {
 
+	private static final String DESCRIPTION = "Use api.weather to get weather information.";
+
 	@Bean(name = WeatherConstants.TOOL_NAME)
 	@ConditionalOnMissingBean
-	@Description("Use api.weather to get weather information.")
-	public WeatherService getWeatherService(WeatherProperties properties, JsonParseTool jsonParseTool) {
+	@Description(DESCRIPTION)
+	public WeatherService getWeatherService(WeatherProperties properties, JsonParseTool jsonParseTool,
+			ToolCallConnectionPool connectionPool) {
 
 		return new WeatherService(WebClientTool.builder(jsonParseTool, properties)
 			.httpHeadersConsumer(headers -> headers.add("key", properties.getApiKey()))
+			.connectionPool(connectionPool)
 			.build(), jsonParseTool);
 	}
 
+	@Bean(name = WeatherConstants.TOOL_NAME + CommonToolCallConstants.TOOL_CALLBACK_BEAN_SUFFIX)
+	@ConditionalOnMissingBean(name = WeatherConstants.TOOL_NAME + CommonToolCallConstants.TOOL_CALLBACK_BEAN_SUFFIX)
+	public AsyncToolCallback<WeatherService.Request, WeatherService.Response> weatherToolCallback(
+			WeatherService service, WeatherProperties properties) {
+		return AsyncToolCallback.builder(WeatherConstants.TOOL_NAME, service)
+			.description(DESCRIPTION)
+			.inputType(WeatherService.Request.class)
+			.timeout(Duration.ofMinutes(properties.getNetworkTimeout()))
+			.build();
+	}
+
 }
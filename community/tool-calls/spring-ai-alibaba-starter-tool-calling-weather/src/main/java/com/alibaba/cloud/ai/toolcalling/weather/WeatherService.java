@@ -16,6 +16,7 @@
 package com.alibaba.cloud.ai.toolcalling.weather;
 
 import cn.hutool.extra.pinyin.PinyinUtil;
+import com.alibaba.cloud.ai.toolcalling.common.AsyncToolFunction;
 import com.alibaba.cloud.ai.toolcalling.common.CommonToolCallUtils;
 import com.alibaba.cloud.ai.toolcalling.common.JsonParseTool;
 import com.alibaba.cloud.ai.toolcalling.common.WebClientTool;
@@ -23,20 +24,21 @@ import com.fasterxml.jackson.annotation.JsonClassDescription;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyDescription;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.MultiValueMap;
 import org.springframework.util.StringUtils;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
 
 /**
  * @author 31445
  */
-public class WeatherService implements Function<WeatherService.Request, WeatherService.Response> {
+public class WeatherService implements AsyncToolFunction<WeatherService.Request, WeatherService.Response> {
 
 	private static final Logger logger = LoggerFactory.getLogger(WeatherService.class);
 
@@ -59,29 +61,31 @@ public class WeatherService implements Function<WeatherService.Request, WeatherS
 	}
 
 	@Override
-	public Response apply(Request request) {
+	public Mono<Response> applyAsync(Request request) {
 		if (request == null || !StringUtils.hasText(request.city())) {
 			logger.error("Invalid request: city is required.");
-			return null;
+			return Mono.empty();
 		}
 		String location = preprocessLocation(request.city());
-		try {
-
-			String path = "v1/forecast.json";
-			MultiValueMap<String, String> params = CommonToolCallUtils.<String, String>multiValueMapBuilder()
-				.add("q", location)
-				.add("days", String.valueOf(request.days()))
-				.build();
-			String jsonResponse = webClientTool.get(path, params).block();
-			Response response = fromJson(jsonParseTool.jsonToObject(jsonResponse, new TypeReference<>() {
-			}));
-			logger.info("Weather data fetched successfully for city: {}", response.city());
-			return response;
-		}
-		catch (Exception e) {
-			logger.error("Failed to fetch weather data: {}", e.getMessage());
-			return null;
-		}
+		String path = "v1/forecast.json";
+		MultiValueMap<String, String> params = CommonToolCallUtils.<String, String>multiValueMapBuilder()
+			.add("q", location)
+			.add("days", String.valueOf(request.days()))
+			.build();
+		return webClientTool.get(path, params).<Response>handle((jsonResponse, sink) -> {
+			try {
+				sink.next(fromJson(jsonParseTool.jsonToObject(jsonResponse, new TypeReference<>() {
+				})));
+			}
+			catch (JsonProcessingException e) {
+				sink.error(e);
+			}
+		})
+			.doOnNext(response -> logger.info("Weather data fetched successfully for city: {}", response.city()))
+			.onErrorResume(e -> {
+				logger.error("Failed to fetch weather data: {}", e.getMessage());
+				return Mono.empty();
+			});
 	}
 
 	// Use the tools in hutool to convert Chinese place names into pinyin
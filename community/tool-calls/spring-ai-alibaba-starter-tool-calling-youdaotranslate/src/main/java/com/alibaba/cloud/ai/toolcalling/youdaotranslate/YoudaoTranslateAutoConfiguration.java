@@ -15,7 +15,10 @@
  */
 package com.alibaba.cloud.ai.toolcalling.youdaotranslate;
 
+import com.alibaba.cloud.ai.toolcalling.common.AsyncToolCallback;
+import com.alibaba.cloud.ai.toolcalling.common.CommonToolCallConstants;
 import com.alibaba.cloud.ai.toolcalling.common.JsonParseTool;
+import com.alibaba.cloud.ai.toolcalling.common.ToolCallConnectionPool;
 import com.alibaba.cloud.ai.toolcalling.common.WebClientTool;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -25,6 +28,8 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Description;
 
+import java.time.Duration;
+
 /**
  * @author Yeaury
  */
@@ -35,12 +40,29 @@ import org.springframework.context.annotation.Description;
 		matchIfMissing = true)
 public class YoudaoTranslateAutoConfiguration {
 
+	private static final String DESCRIPTION = "use youdao translation to achieve translation";
+
 	@Bean(name = YoudaoTranslateConstants.TOOL_NAME)
 	@ConditionalOnMissingBean
-	@Description("use youdao translation to achieve translation")
-	public YoudaoTranslateService youdaoTranslate(YoudaoTranslateProperties properties, JsonParseTool jsonParseTool) {
-		WebClientTool webClientTool = WebClientTool.builder(jsonParseTool, properties).build();
+	@Description(DESCRIPTION)
+	public YoudaoTranslateService youdaoTranslate(YoudaoTranslateProperties properties, JsonParseTool jsonParseTool,
+			ToolCallConnectionPool connectionPool) {
+		WebClientTool webClientTool = WebClientTool.builder(jsonParseTool, properties)
+			.connectionPool(connectionPool)
+			.build();
 		return new YoudaoTranslateService(properties, jsonParseTool, webClientTool);
 	}
 
+	@Bean(name = YoudaoTranslateConstants.TOOL_NAME + CommonToolCallConstants.TOOL_CALLBACK_BEAN_SUFFIX)
+	@ConditionalOnMissingBean(
+			name = YoudaoTranslateConstants.TOOL_NAME + CommonToolCallConstants.TOOL_CALLBACK_BEAN_SUFFIX)
+	public AsyncToolCallback<YoudaoTranslateService.Request, YoudaoTranslateService.Response> youdaoTranslateToolCallback(
+			YoudaoTranslateService service, YoudaoTranslateProperties properties) {
+		return AsyncToolCallback.builder(YoudaoTranslateConstants.TOOL_NAME, service)
+			.description(DESCRIPTION)
+			.inputType(YoudaoTranslateService.Request.class)
+			.timeout(Duration.ofMinutes(properties.getNetworkTimeout()))
+			.build();
+	}
+
 }
@@ -15,6 +15,7 @@
  */
 package com.alibaba.cloud.ai.toolcalling.youdaotranslate;
 
+import com.alibaba.cloud.ai.toolcalling.common.AsyncToolFunction;
 import com.alibaba.cloud.ai.toolcalling.common.CommonToolCallUtils;
 import com.alibaba.cloud.ai.toolcalling.common.JsonParseTool;
 import com.alibaba.cloud.ai.toolcalling.common.WebClientTool;
@@ -22,16 +23,17 @@ import com.fasterxml.jackson.annotation.JsonClassDescription;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyDescription;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.MediaType;
 import org.springframework.util.MultiValueMap;
 import org.springframework.util.StringUtils;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.function.Function;
 
 import static com.alibaba.cloud.ai.toolcalling.youdaotranslate.AuthTools.calculateSign;
 
@@ -40,7 +42,7 @@ import static com.alibaba.cloud.ai.toolcalling.youdaotranslate.AuthTools.calcula
  * @author Allen Hu
  */
 public class YoudaoTranslateService
-		implements Function<YoudaoTranslateService.Request, YoudaoTranslateService.Response> {
+		implements AsyncToolFunction<YoudaoTranslateService.Request, YoudaoTranslateService.Response> {
 
 	private static final Logger logger = LoggerFactory.getLogger(YoudaoTranslateService.class);
 
@@ -61,14 +63,14 @@ public class YoudaoTranslateService
 	}
 
 	@Override
-	public Response apply(Request request) {
+	public Mono<Response> applyAsync(Request request) {
 		if (request == null || !StringUtils.hasText(request.text) || !StringUtils.hasText(request.targetLanguage)) {
-			return null;
+			return Mono.empty();
 		}
 		String curtime = String.valueOf(System.currentTimeMillis() / 1000);
 		String salt = UUID.randomUUID().toString();
-		try {
-			MultiValueMap<String, String> params = CommonToolCallUtils.<String, String>multiValueMapBuilder()
+		return Mono
+			.fromCallable(() -> CommonToolCallUtils.<String, String>multiValueMapBuilder()
 				.add("q", request.text)
 				.add("from", request.sourceLanguage)
 				.add("to", request.targetLanguage)
@@ -77,22 +79,23 @@ public class YoudaoTranslateService
 				.add("sign", calculateSign(appKey, appSecret, request.text, salt, curtime))
 				.add("signType", "v3")
 				.add("curtime", curtime)
-				.build();
-
-			String responseData = webClientTool
-				.post("api", CommonToolCallUtils.<String, String>multiValueMapBuilder().build(), Map.of(), params,
-						MediaType.APPLICATION_FORM_URLENCODED)
-				.block();
-
-			assert responseData != null;
-			logger.debug("Translation request: {}, response: {}", request.text, responseData);
-
-			return jsonParseTool.jsonToObject(responseData, Response.class);
-		}
-		catch (Exception e) {
-			logger.error("Failed to invoke Youdao translate API due to: {}", e.getMessage());
-			return null;
-		}
+				.build())
+			.flatMap(params -> webClientTool.post("api",
+					CommonToolCallUtils.<String, String>multiValueMapBuilder().build(), Map.of(), params,
+					MediaType.APPLICATION_FORM_URLENCODED))
+			.<Response>handle((responseData, sink) -> {
+				logger.debug("Translation request: {}, response: {}", request.text, responseData);
+				try {
+					sink.next(jsonParseTool.jsonToObject(responseData, Response.class));
+				}
+				catch (JsonProcessingException e) {
+					sink.error(e);
+				}
+			})
+			.onErrorResume(e -> {
+				logger.error("Failed to invoke Youdao translate API due to: {}", e.getMessage());
+				return Mono.empty();
+			});
 	}
 
 	@JsonClassDescription("Request to translate text to a target language")
@@ -17,6 +17,7 @@
 package com.alibaba.cloud.ai.advisor;
 
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -25,6 +26,8 @@ import com.alibaba.cloud.ai.document.DocumentWithScore;
 import com.alibaba.cloud.ai.model.RerankModel;
 import com.alibaba.cloud.ai.model.RerankRequest;
 import com.alibaba.cloud.ai.model.RerankResponse;
+import com.alibaba.cloud.ai.retrieval.RetrievalRerankPipeline;
+import com.alibaba.cloud.ai.retrieval.RetrievalResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -35,6 +38,8 @@ import org.springframework.ai.chat.client.advisor.api.BaseAdvisor;
 import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.prompt.PromptTemplate;
 import org.springframework.ai.document.Document;
+import org.springframework.ai.rag.Query;
+import org.springframework.ai.rag.retrieval.search.VectorStoreDocumentRetriever;
 import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.ai.vectorstore.filter.Filter;
@@ -83,10 +88,14 @@ public class RetrievalRerankAdvisor implements BaseAdvisor {
 
 	private final int order;
 
+	private final RetrievalRerankPipeline pipeline;
+
 	public static final String RETRIEVED_DOCUMENTS = "qa_retrieved_documents";
 
 	public static final String FILTER_EXPRESSION = "qa_filter_expression";
 
+	public static final String RETRIEVAL_RESULT = "qa_retrieval_result";
+
 	public RetrievalRerankAdvisor(VectorStore vectorStore, RerankModel rerankModel) {
 		this(vectorStore, rerankModel, SearchRequest.builder().build(), DEFAULT_PROMPT_TEMPLATE, DEFAULT_MIN_SCORE);
 	}
@@ -106,6 +115,17 @@ public class RetrievalRerankAdvisor implements BaseAdvisor {
 
 	public RetrievalRerankAdvisor(VectorStore vectorStore, RerankModel rerankModel, SearchRequest searchRequest,
 			PromptTemplate promptTemplate, Double minScore, int order) {
+		this(vectorStore, rerankModel, searchRequest, promptTemplate, minScore, order, null);
+	}
+
+	/**
+	 * Create an advisor that delegates retrieval and reranking to a
+	 * {@link RetrievalRerankPipeline}. The pipeline's retrievers receive the user text
+	 * and the filter expression of the request, the vector store and rerank model are
+	 * only used when no pipeline is set.
+	 */
+	public RetrievalRerankAdvisor(VectorStore vectorStore, RerankModel rerankModel, SearchRequest searchRequest,
+			PromptTemplate promptTemplate, Double minScore, int order, RetrievalRerankPipeline pipeline) {
 		Assert.notNull(vectorStore, "The vectorStore must not be null!");
 		Assert.notNull(rerankModel, "The rerankModel must not be null!");
 		Assert.notNull(searchRequest, "The searchRequest must not be null!");
@@ -117,6 +137,7 @@ public class RetrievalRerankAdvisor implements BaseAdvisor {
 		this.searchRequest = searchRequest;
 		this.minScore = minScore;
 		this.order = order;
+		this.pipeline = pipeline;
 	}
 
 	@Override
@@ -161,6 +182,10 @@ public class RetrievalRerankAdvisor implements BaseAdvisor {
 		var context = request.context();
 		var userMessage = request.prompt().getUserMessage();
 
+		if (this.pipeline != null) {
+			return augmentWithPipeline(request);
+		}
+
 		var searchRequestToUse = SearchRequest.from(this.searchRequest)
 			.query(userMessage.getText())
 			.filterExpression(doGetFilterExpression(context))
@@ -171,15 +196,41 @@ public class RetrievalRerankAdvisor implements BaseAdvisor {
 
 		documents = doRerank(request, documents);
 
+		return augment(request, documents);
+	}
+
+	private ChatClientRequest augmentWithPipeline(ChatClientRequest request) {
+		var context = request.context();
+		Map<String, Object> queryContext = new HashMap<>();
+		Filter.Expression filterExpression = doGetFilterExpression(context);
+		if (filterExpression != null) {
+			queryContext.put(VectorStoreDocumentRetriever.FILTER_EXPRESSION, filterExpression);
+		}
+		Query query = Query.builder().text(request.prompt().getUserMessage().getText()).context(queryContext).build();
+
+		RetrievalResult result = this.pipeline.retrieve(query);
+		logger.debug("retrieval pipeline: {} candidates, {} reranked, retrieve {} ms, rerank {} ms",
+				result.candidates().size(), result.rerankedCount(), result.retrieveLatency().toMillis(),
+				result.rerankLatency().toMillis());
+		context.put(RETRIEVED_DOCUMENTS, result.candidates());
+		context.put(RETRIEVAL_RESULT, result);
+
+		return augment(request, result.documents());
+	}
+
+	private ChatClientRequest augment(ChatClientRequest request, List<Document> documents) {
 		String documentContext = documents.stream()
 			.map(Document::getText)
 			.collect(Collectors.joining(System.lineSeparator()));
 
-		String augmentedUserText = this.promptTemplate
-			.render(Map.of("query", userMessage.getText(), "question_answer_context", documentContext));
+		String augmentedUserText = this.promptTemplate.render(Map.of("query",
+				request.prompt().getUserMessage().getText(), "question_answer_context", documentContext));
 
 		// Update ChatClientRequest with augmented prompt.
-		return request.mutate().prompt(request.prompt().augmentUserMessage(augmentedUserText)).context(context).build();
+		return request.mutate()
+			.prompt(request.prompt().augmentUserMessage(augmentedUserText))
+			.context(request.context())
+			.build();
 	}
 
 	@Override
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dashscope.embedding;
+
+import com.alibaba.cloud.ai.dashscope.api.DashScopeApi;
+import com.alibaba.cloud.ai.embedding.CachingEmbeddingModel;
+import com.alibaba.cloud.ai.embedding.EmbeddingCacheStats;
+import com.alibaba.cloud.ai.embedding.MappedFileEmbeddingStore;
+import io.micrometer.observation.ObservationRegistry;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.MetadataMode;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.util.StringUtils;
+
+/**
+ * {@link DashScopeEmbeddingModel} that serves repeated inputs from a
+ * {@link CachingEmbeddingModel}. The cache is keyed on the options of this model, so
+ * every instance caches the vectors of its own model, dimensions and text type, and it
+ * stays injectable as {@link DashScopeEmbeddingModel}. A request that sets its own text
+ * type ({@code query} or {@code document}) gets a separate entry.
+ *
+ * @since 1.0.0.2
+ */
+public class CachingDashScopeEmbeddingModel extends DashScopeEmbeddingModel implements DisposableBean {
+
+	private final CachingEmbeddingModel cache;
+
+	/**
+	 * @param persistentStore persistent tier owned by this model, null for memory only
+	 */
+	public CachingDashScopeEmbeddingModel(DashScopeApi dashScopeApi, MetadataMode metadataMode,
+			DashScopeEmbeddingOptions options, RetryTemplate retryTemplate, ObservationRegistry observationRegistry,
+			int maxEntries, MappedFileEmbeddingStore persistentStore) {
+		super(dashScopeApi, metadataMode, options, retryTemplate, observationRegistry);
+		this.cache = CachingEmbeddingModel.builder()
+			.delegate(new Uncached())
+			.defaultOptions(options)
+			.variantResolver(requestOptions -> textType(requestOptions, options))
+			.metadataMode(metadataMode)
+			.maxEntries(maxEntries)
+			.persistentStore(persistentStore)
+			.build();
+	}
+
+	@Override
+	public EmbeddingResponse call(EmbeddingRequest request) {
+		return this.cache.call(request);
+	}
+
+	private static String textType(EmbeddingOptions requestOptions, DashScopeEmbeddingOptions defaultOptions) {
+		if (requestOptions instanceof DashScopeEmbeddingOptions dashScopeOptions
+				&& StringUtils.hasText(dashScopeOptions.getTextType())) {
+			return dashScopeOptions.getTextType();
+		}
+		return defaultOptions != null ? defaultOptions.getTextType() : null;
+	}
+
+	public EmbeddingCacheStats getStats() {
+		return this.cache.getStats();
+	}
+
+	/**
+	 * Drop every entry of the in-memory tier. The persistent tier is left untouched.
+	 */
+	public void invalidateAll() {
+		this.cache.invalidateAll();
+	}
+
+	@Override
+	public void destroy() {
+		this.cache.destroy();
+	}
+
+	/**
+	 * The DashScope calls of this model, without the cache.
+	 */
+	private final class Uncached implements EmbeddingModel {
+
+		@Override
+		public EmbeddingResponse call(EmbeddingRequest request) {
+			return CachingDashScopeEmbeddingModel.super.call(request);
+		}
+
+		@Override
+		public float[] embed(Document document) {
+			return CachingDashScopeEmbeddingModel.super.embed(document);
+		}
+
+	}
+
+}
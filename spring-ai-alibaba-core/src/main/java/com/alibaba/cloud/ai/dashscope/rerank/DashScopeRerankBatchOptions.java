@@ -0,0 +1,129 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.dashscope.rerank;
+
+/**
+ * Client-side batching settings of {@link DashScopeRerankModel}. These are not sent to
+ * the API, they control how a large rerank request is split, executed and truncated.
+ *
+ * @since 1.0.0.2
+ */
+public class DashScopeRerankBatchOptions {
+
+	/**
+	 * Maximum number of documents the rerank API accepts in one request.
+	 */
+	public static final int DEFAULT_MAX_DOCUMENTS_PER_REQUEST = 500;
+
+	/**
+	 * Maximum tokens of a single document, longer documents are truncated.
+	 */
+	public static final int DEFAULT_MAX_TOKENS_PER_DOCUMENT = 4000;
+
+	public static final int DEFAULT_MAX_CONCURRENCY = 4;
+
+	/**
+	 * Documents sent in one API request.
+	 */
+	private int maxDocumentsPerRequest = DEFAULT_MAX_DOCUMENTS_PER_REQUEST;
+
+	/**
+	 * Token budget of each document, {@code 0} disables truncation.
+	 */
+	private int maxTokensPerDocument = DEFAULT_MAX_TOKENS_PER_DOCUMENT;
+
+	/**
+	 * Maximum number of batches in flight for one call.
+	 */
+	private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+
+	/**
+	 * Size of the (model, query, document id) score cache, {@code 0} disables it.
+	 */
+	private int scoreCacheSize = 0;
+
+	public int getMaxDocumentsPerRequest() {
+		return maxDocumentsPerRequest;
+	}
+
+	public void setMaxDocumentsPerRequest(int maxDocumentsPerRequest) {
+		this.maxDocumentsPerRequest = maxDocumentsPerRequest;
+	}
+
+	public int getMaxTokensPerDocument() {
+		return maxTokensPerDocument;
+	}
+
+	public void setMaxTokensPerDocument(int maxTokensPerDocument) {
+		this.maxTokensPerDocument = maxTokensPerDocument;
+	}
+
+	public int getMaxConcurrency() {
+		return maxConcurrency;
+	}
+
+	public void setMaxConcurrency(int maxConcurrency) {
+		this.maxConcurrency = maxConcurrency;
+	}
+
+	public int getScoreCacheSize() {
+		return scoreCacheSize;
+	}
+
+	public void setScoreCacheSize(int scoreCacheSize) {
+		this.scoreCacheSize = scoreCacheSize;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	public static class Builder {
+
+		private final DashScopeRerankBatchOptions options;
+
+		public Builder() {
+			this.options = new DashScopeRerankBatchOptions();
+		}
+
+		public Builder withMaxDocumentsPerRequest(int maxDocumentsPerRequest) {
+			this.options.setMaxDocumentsPerRequest(maxDocumentsPerRequest);
+			return this;
+		}
+
+		public Builder withMaxTokensPerDocument(int maxTokensPerDocument) {
+			this.options.setMaxTokensPerDocument(maxTokensPerDocument);
+			return this;
+		}
+
+		public Builder withMaxConcurrency(int maxConcurrency) {
+			this.options.setMaxConcurrency(maxConcurrency);
+			return this;
+		}
+
+		public Builder withScoreCacheSize(int scoreCacheSize) {
+			this.options.setScoreCacheSize(scoreCacheSize);
+			return this;
+		}
+
+		public DashScopeRerankBatchOptions build() {
+			return this.options;
+		}
+
+	}
+
+}
@@ -16,8 +16,23 @@
 
 package com.alibaba.cloud.ai.dashscope.rerank;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.alibaba.cloud.ai.dashscope.api.DashScopeApi;
 import com.alibaba.cloud.ai.dashscope.metadata.DashScopeAiUsage;
@@ -27,12 +42,17 @@ import com.alibaba.cloud.ai.model.RerankOptions;
 import com.alibaba.cloud.ai.model.RerankRequest;
 import com.alibaba.cloud.ai.model.RerankResponse;
 import com.alibaba.cloud.ai.model.RerankResponseMetadata;
+import com.knuddels.jtokkit.Encodings;
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.EncodingResult;
+import com.knuddels.jtokkit.api.EncodingType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.ai.document.Document;
 import org.springframework.ai.model.ModelOptionsUtils;
 import org.springframework.ai.retry.RetryUtils;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
 import org.springframework.retry.support.RetryTemplate;
@@ -41,12 +61,17 @@ import org.springframework.util.Assert;
 /**
  * Title Dashscope rerank model.<br>
  * Description Dashscope rerank model.<br>
+ * Large requests are split into API-sized batches that run concurrently, documents are
+ * truncated to a token budget and the scores of every batch are merged into a global top
+ * n. See {@link DashScopeRerankBatchOptions}. Concurrent batches run on the executor
+ * passed to the constructor, or on a pool owned by the model and shut down by
+ * {@link #destroy()}.
  *
  * @author yuanci.ytb
  * @since 1.0.0-M2
  */
 
-public class DashScopeRerankModel implements RerankModel {
+public class DashScopeRerankModel implements RerankModel, DisposableBean {
 
 	private static final Logger logger = LoggerFactory.getLogger(DashScopeRerankModel.class);
 
@@ -59,6 +84,22 @@ public class DashScopeRerankModel implements RerankModel {
 	/** rerank options */
 	private final DashScopeRerankOptions defaultOptions;
 
+	/** client-side batching options */
+	private final DashScopeRerankBatchOptions batchOptions;
+
+	/** (model, query, document text hash) to relevance score, null when disabled */
+	private final Map<String, Double> scoreCache;
+
+	private final Encoding tokenEncoding = Encodings.newLazyEncodingRegistry().getEncoding(EncodingType.CL100K_BASE);
+
+	/** executor passed by the caller, null when the model owns its pool */
+	@Nullable
+	private final Executor executor;
+
+	private volatile ExecutorService ownedExecutor;
+
+	private volatile boolean destroyed;
+
 	public DashScopeRerankModel(DashScopeApi dashscopeApi) {
 		this(dashscopeApi, DashScopeRerankOptions.builder().build());
 	}
@@ -69,13 +110,33 @@ public class DashScopeRerankModel implements RerankModel {
 
 	public DashScopeRerankModel(DashScopeApi dashscopeApi, DashScopeRerankOptions defaultOptions,
 			RetryTemplate retryTemplate) {
+		this(dashscopeApi, defaultOptions, retryTemplate, DashScopeRerankBatchOptions.builder().build());
+	}
+
+	public DashScopeRerankModel(DashScopeApi dashscopeApi, DashScopeRerankOptions defaultOptions,
+			RetryTemplate retryTemplate, DashScopeRerankBatchOptions batchOptions) {
+		this(dashscopeApi, defaultOptions, retryTemplate, batchOptions, null);
+	}
+
+	/**
+	 * @param executor runs concurrent batches, left to the caller to shut down; when
+	 * {@code null} the model creates its own pool on first use
+	 */
+	public DashScopeRerankModel(DashScopeApi dashscopeApi, DashScopeRerankOptions defaultOptions,
+			RetryTemplate retryTemplate, DashScopeRerankBatchOptions batchOptions, @Nullable Executor executor) {
 		Assert.notNull(dashscopeApi, "DashScopeApi must not be null");
 		Assert.notNull(defaultOptions, "Options must not be null");
 		Assert.notNull(retryTemplate, "RetryTemplate must not be null");
+		Assert.notNull(batchOptions, "BatchOptions must not be null");
+		Assert.isTrue(batchOptions.getMaxDocumentsPerRequest() > 0, "maxDocumentsPerRequest must be greater than 0");
+		Assert.isTrue(batchOptions.getMaxConcurrency() > 0, "maxConcurrency must be greater than 0");
 
 		this.dashscopeApi = dashscopeApi;
 		this.defaultOptions = defaultOptions;
 		this.retryTemplate = retryTemplate;
+		this.batchOptions = batchOptions;
+		this.scoreCache = batchOptions.getScoreCacheSize() > 0 ? lruCache(batchOptions.getScoreCacheSize()) : null;
+		this.executor = executor;
 	}
 
 	@Override
@@ -84,38 +145,209 @@ public class DashScopeRerankModel implements RerankModel {
 		Assert.notNull(request.getInstructions(), "documents must not be null");
 
 		DashScopeRerankOptions requestOptions = mergeOptions(request.getOptions(), this.defaultOptions);
-		DashScopeApi.RerankRequest rerankRequest = createRequest(request, requestOptions);
+		List<Document> documents = request.getInstructions();
+		Double[] scores = new Double[documents.size()];
 
-		ResponseEntity<DashScopeApi.RerankResponse> responseEntity = this.retryTemplate
-			.execute(ctx -> this.dashscopeApi.rerankEntity(rerankRequest));
+		List<Integer> pending = new ArrayList<>();
+		for (int i = 0; i < documents.size(); i++) {
+			Double cached = this.scoreCache != null ? cachedScore(requestOptions, request.getQuery(), documents.get(i))
+					: null;
+			if (cached != null) {
+				scores[i] = cached;
+			}
+			else {
+				pending.add(i);
+			}
+		}
 
-		var response = responseEntity.getBody();
+		List<List<Integer>> batches = new ArrayList<>();
+		for (int i = 0; i < pending.size(); i += this.batchOptions.getMaxDocumentsPerRequest()) {
+			batches
+				.add(pending.subList(i, Math.min(i + this.batchOptions.getMaxDocumentsPerRequest(), pending.size())));
+		}
 
-		if (response == null) {
+		List<BatchResult> batchResults = executeBatches(request, requestOptions, batches);
+		if (!batches.isEmpty() && batchResults.stream().allMatch(Objects::isNull)) {
 			logger.warn("No rerank returned for query: {}", request.getQuery());
 			return new RerankResponse(Collections.emptyList());
 		}
 
-		List<DocumentWithScore> documentWithScores = response.output()
-			.results()
-			.stream()
-			.map(data -> DocumentWithScore.builder()
-				.withScore(data.relevanceScore())
-				.withDocument(request.getInstructions().get(data.index()))
-				.build())
-			.toList();
+		int outputTokens = 0;
+		int inputTokens = 0;
+		int totalTokens = 0;
+		for (int b = 0; b < batches.size(); b++) {
+			BatchResult batchResult = batchResults.get(b);
+			if (batchResult == null) {
+				continue;
+			}
+			List<Integer> batch = batches.get(b);
+			for (DashScopeApi.RerankResponseOutputResult data : batchResult.response().output().results()) {
+				int index = batch.get(data.index());
+				scores[index] = data.relevanceScore();
+				if (this.scoreCache != null) {
+					synchronized (this.scoreCache) {
+						this.scoreCache.put(cacheKey(requestOptions, request.getQuery(), documents.get(index)),
+								data.relevanceScore());
+					}
+				}
+			}
+			DashScopeApi.TokenUsage usage = batchResult.response().usage();
+			if (usage != null) {
+				outputTokens += usage.outputTokens() != null ? usage.outputTokens() : 0;
+				inputTokens += usage.inputTokens() != null ? usage.inputTokens() : 0;
+				totalTokens += usage.totalTokens() != null ? usage.totalTokens() : 0;
+			}
+		}
 
-		var metadata = new RerankResponseMetadata(DashScopeAiUsage.from(response.usage()));
+		List<DocumentWithScore> documentWithScores = new ArrayList<>();
+		for (int i = 0; i < scores.length; i++) {
+			if (scores[i] != null) {
+				documentWithScores
+					.add(DocumentWithScore.builder().withScore(scores[i]).withDocument(documents.get(i)).build());
+			}
+		}
+		documentWithScores.sort(Comparator.comparingDouble(DocumentWithScore::getScore).reversed());
+		Integer topN = requestOptions.getTopN();
+		if (topN != null && topN >= 0 && documentWithScores.size() > topN) {
+			documentWithScores = new ArrayList<>(documentWithScores.subList(0, topN));
+		}
+
+		var metadata = new RerankResponseMetadata(
+				DashScopeAiUsage.from(new DashScopeApi.TokenUsage(outputTokens, inputTokens, totalTokens)));
 		return new RerankResponse(documentWithScores, metadata);
 	}
 
-	private DashScopeApi.RerankRequest createRequest(RerankRequest request, DashScopeRerankOptions requestOptions) {
-		List<String> docs = request.getInstructions().stream().map(Document::getText).toList();
+	private List<BatchResult> executeBatches(RerankRequest request, DashScopeRerankOptions requestOptions,
+			List<List<Integer>> batches) {
+		if (batches.size() <= 1 || this.batchOptions.getMaxConcurrency() == 1) {
+			return batches.stream().map(batch -> executeBatch(request, requestOptions, batch)).toList();
+		}
 
-		DashScopeApi.RerankRequestParameter parameter = new DashScopeApi.RerankRequestParameter(
-				requestOptions.getTopN(), requestOptions.getReturnDocuments());
+		Executor executorToUse = executor();
+		List<CompletableFuture<BatchResult>> futures = batches.stream()
+			.map(batch -> CompletableFuture.supplyAsync(() -> executeBatch(request, requestOptions, batch),
+					executorToUse))
+			.toList();
+		try {
+			return futures.stream().map(CompletableFuture::join).toList();
+		}
+		catch (CompletionException e) {
+			futures.forEach(future -> future.cancel(true));
+			if (e.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw e;
+		}
+	}
+
+	private BatchResult executeBatch(RerankRequest request, DashScopeRerankOptions requestOptions,
+			List<Integer> batch) {
+		List<String> docs = batch.stream().map(i -> truncate(request.getInstructions().get(i).getText())).toList();
+
+		// every document of a batch is scored so batches can be merged into a global top
+		// n
+		DashScopeApi.RerankRequestParameter parameter = new DashScopeApi.RerankRequestParameter(docs.size(),
+				requestOptions.getReturnDocuments());
 		var input = new DashScopeApi.RerankRequestInput(request.getQuery(), docs);
-		return new DashScopeApi.RerankRequest(requestOptions.getModel(), input, parameter);
+		var rerankRequest = new DashScopeApi.RerankRequest(requestOptions.getModel(), input, parameter);
+
+		ResponseEntity<DashScopeApi.RerankResponse> responseEntity = this.retryTemplate
+			.execute(ctx -> this.dashscopeApi.rerankEntity(rerankRequest));
+
+		var response = responseEntity.getBody();
+		if (response == null || response.output() == null || response.output().results() == null) {
+			return null;
+		}
+		return new BatchResult(response);
+	}
+
+	/**
+	 * Truncate a document to the configured token budget. Token counts are estimated with
+	 * the cl100k encoding, which is close to but not exactly the rerank model tokenizer.
+	 */
+	String truncate(String text) {
+		int maxTokens = this.batchOptions.getMaxTokensPerDocument();
+		// a character never encodes to more than 3 tokens, so short texts skip encoding
+		if (text == null || maxTokens <= 0 || text.length() * 3L <= maxTokens) {
+			return text;
+		}
+		EncodingResult encoded = this.tokenEncoding.encode(text, maxTokens);
+		if (!encoded.isTruncated()) {
+			return text;
+		}
+		return this.tokenEncoding.decode(encoded.getTokens());
+	}
+
+	private Double cachedScore(DashScopeRerankOptions options, String query, Document document) {
+		synchronized (this.scoreCache) {
+			return this.scoreCache.get(cacheKey(options, query, document));
+		}
+	}
+
+	/**
+	 * Documents are keyed on their text rather than their id, which is usually a random
+	 * UUID assigned when the document is loaded.
+	 */
+	private static String cacheKey(DashScopeRerankOptions options, String query, Document document) {
+		return options.getModel() + '\u0000' + query + '\u0000' + contentHash(document.getText());
+	}
+
+	private static String contentHash(@Nullable String text) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			byte[] hash = digest.digest((text != null ? text : "").getBytes(StandardCharsets.UTF_8));
+			return HexFormat.of().formatHex(hash);
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+
+	private static Map<String, Double> lruCache(int maxSize) {
+		return new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Double> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+
+	private Executor executor() {
+		if (this.executor != null) {
+			return this.executor;
+		}
+		if (this.ownedExecutor == null) {
+			synchronized (this) {
+				Assert.state(!this.destroyed, "DashScopeRerankModel has been destroyed");
+				if (this.ownedExecutor == null) {
+					AtomicInteger counter = new AtomicInteger();
+					this.ownedExecutor = Executors.newFixedThreadPool(this.batchOptions.getMaxConcurrency(),
+							runnable -> {
+								Thread thread = new Thread(runnable, "dashscope-rerank-" + counter.incrementAndGet());
+								thread.setDaemon(true);
+								return thread;
+							});
+				}
+			}
+		}
+		return this.ownedExecutor;
+	}
+
+	/**
+	 * Shut down the pool created by this model, if any. An executor passed to the
+	 * constructor is left to its owner.
+	 */
+	@Override
+	public void destroy() {
+		synchronized (this) {
+			this.destroyed = true;
+			if (this.ownedExecutor != null) {
+				this.ownedExecutor.shutdown();
+			}
+		}
+	}
+
+	private record BatchResult(DashScopeApi.RerankResponse response) {
 	}
 
 	/**
@@ -0,0 +1,329 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.embedding;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.MetadataMode;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.embedding.EmbeddingResponseMetadata;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * {@link EmbeddingModel} decorator that caches embeddings of repeated inputs.
+ * <p>
+ * Entries are keyed by {@link EmbeddingCacheKey} (model, dimensions, model specific
+ * options and the exact text) and kept as primitive {@code float[]} in a size-bounded LRU
+ * map. An optional {@link MappedFileEmbeddingStore} acts as a second, persistent tier
+ * that survives restarts. Only the inputs that miss both tiers are sent to the delegate,
+ * in a single request, so batched calls such as vector store ingestion also benefit.
+ *
+ * @since 1.0.0.2
+ */
+public class CachingEmbeddingModel implements EmbeddingModel, DisposableBean {
+
+	private static final Logger logger = LoggerFactory.getLogger(CachingEmbeddingModel.class);
+
+	public static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+	private final EmbeddingModel delegate;
+
+	private final String defaultModel;
+
+	private final Integer defaultDimensions;
+
+	private final Function<EmbeddingOptions, String> variantResolver;
+
+	private final MetadataMode metadataMode;
+
+	private final int maxEntries;
+
+	private final LinkedHashMap<EmbeddingCacheKey, float[]> memory;
+
+	private final MappedFileEmbeddingStore persistentStore;
+
+	private final LongAdder memoryHits = new LongAdder();
+
+	private final LongAdder persistentHits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder evictions = new LongAdder();
+
+	private CachingEmbeddingModel(Builder builder) {
+		Assert.notNull(builder.delegate, "delegate must not be null");
+		Assert.notNull(builder.variantResolver, "variantResolver must not be null");
+		Assert.notNull(builder.metadataMode, "metadataMode must not be null");
+		Assert.isTrue(builder.maxEntries > 0, "maxEntries must be greater than 0");
+		this.delegate = builder.delegate;
+		this.defaultModel = builder.defaultModel;
+		this.defaultDimensions = builder.defaultDimensions;
+		this.variantResolver = builder.variantResolver;
+		this.metadataMode = builder.metadataMode;
+		this.maxEntries = builder.maxEntries;
+		this.persistentStore = builder.persistentStore;
+		this.memory = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<EmbeddingCacheKey, float[]> eldest) {
+				if (size() > CachingEmbeddingModel.this.maxEntries) {
+					CachingEmbeddingModel.this.evictions.increment();
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	@Override
+	public EmbeddingResponse call(EmbeddingRequest request) {
+		Assert.notNull(request, "request must not be null");
+		List<String> instructions = request.getInstructions();
+		String model = resolveModel(request.getOptions());
+		Integer dimensions = resolveDimensions(request.getOptions());
+		String variant = this.variantResolver.apply(request.getOptions());
+
+		float[][] results = new float[instructions.size()][];
+		List<EmbeddingCacheKey> keys = new ArrayList<>(instructions.size());
+		Map<EmbeddingCacheKey, Integer> pending = new LinkedHashMap<>();
+		List<String> pendingTexts = new ArrayList<>();
+
+		for (int i = 0; i < instructions.size(); i++) {
+			EmbeddingCacheKey key = EmbeddingCacheKey.of(model, dimensions, variant, instructions.get(i));
+			keys.add(key);
+			float[] cached = lookup(key);
+			if (cached != null) {
+				results[i] = cached;
+			}
+			else if (!pending.containsKey(key)) {
+				this.misses.increment();
+				pending.put(key, pendingTexts.size());
+				pendingTexts.add(instructions.get(i));
+			}
+		}
+
+		EmbeddingResponseMetadata metadata = new EmbeddingResponseMetadata();
+		if (!pendingTexts.isEmpty()) {
+			EmbeddingResponse response = this.delegate.call(new EmbeddingRequest(pendingTexts, request.getOptions()));
+			float[][] computed = toArray(response, pendingTexts.size());
+			for (Map.Entry<EmbeddingCacheKey, Integer> entry : pending.entrySet()) {
+				float[] embedding = computed[entry.getValue()];
+				if (embedding != null) {
+					store(entry.getKey(), embedding);
+				}
+			}
+			for (int i = 0; i < results.length; i++) {
+				if (results[i] == null) {
+					results[i] = computed[pending.get(keys.get(i))];
+				}
+			}
+			metadata = response.getMetadata();
+		}
+
+		List<Embedding> embeddings = new ArrayList<>(results.length);
+		for (int i = 0; i < results.length; i++) {
+			if (results[i] != null) {
+				embeddings.add(new Embedding(results[i].clone(), i));
+			}
+		}
+		return new EmbeddingResponse(embeddings, metadata);
+	}
+
+	@Override
+	public float[] embed(Document document) {
+		Assert.notNull(document, "Document must not be null");
+		return embed(document.getFormattedContent(this.metadataMode));
+	}
+
+	@Override
+	public int dimensions() {
+		return this.delegate.dimensions();
+	}
+
+	private float[] lookup(EmbeddingCacheKey key) {
+		float[] embedding;
+		synchronized (this.memory) {
+			embedding = this.memory.get(key);
+		}
+		if (embedding != null) {
+			this.memoryHits.increment();
+			return embedding;
+		}
+		if (this.persistentStore != null) {
+			embedding = this.persistentStore.get(key);
+			if (embedding != null) {
+				this.persistentHits.increment();
+				synchronized (this.memory) {
+					this.memory.put(key, embedding);
+				}
+			}
+		}
+		return embedding;
+	}
+
+	private void store(EmbeddingCacheKey key, float[] embedding) {
+		float[] copy = embedding.clone();
+		synchronized (this.memory) {
+			this.memory.put(key, copy);
+		}
+		if (this.persistentStore != null) {
+			this.persistentStore.put(key, copy);
+		}
+	}
+
+	private static float[][] toArray(EmbeddingResponse response, int expected) {
+		float[][] computed = new float[expected][];
+		List<Embedding> results = response.getResults();
+		for (int i = 0; i < results.size(); i++) {
+			Embedding embedding = results.get(i);
+			Integer index = embedding.getIndex();
+			int position = index != null && index >= 0 && index < expected ? index : i;
+			if (position < expected) {
+				computed[position] = embedding.getOutput();
+			}
+		}
+		if (results.size() != expected) {
+			logger.warn("Delegate returned {} embeddings for {} inputs", results.size(), expected);
+		}
+		return computed;
+	}
+
+	private String resolveModel(EmbeddingOptions options) {
+		if (options != null && StringUtils.hasText(options.getModel())) {
+			return options.getModel();
+		}
+		return this.defaultModel;
+	}
+
+	private Integer resolveDimensions(EmbeddingOptions options) {
+		if (options != null && options.getDimensions() != null) {
+			return options.getDimensions();
+		}
+		return this.defaultDimensions;
+	}
+
+	public EmbeddingCacheStats getStats() {
+		int size;
+		synchronized (this.memory) {
+			size = this.memory.size();
+		}
+		return new EmbeddingCacheStats(this.memoryHits.sum(), this.persistentHits.sum(), this.misses.sum(),
+				this.evictions.sum(), size);
+	}
+
+	/**
+	 * Drop every entry of the in-memory tier. The persistent tier is left untouched.
+	 */
+	public void invalidateAll() {
+		synchronized (this.memory) {
+			this.memory.clear();
+		}
+	}
+
+	public EmbeddingModel getDelegate() {
+		return this.delegate;
+	}
+
+	@Override
+	public void destroy() {
+		if (this.persistentStore != null) {
+			this.persistentStore.close();
+		}
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	public static class Builder {
+
+		private EmbeddingModel delegate;
+
+		private String defaultModel;
+
+		private Integer defaultDimensions;
+
+		private Function<EmbeddingOptions, String> variantResolver = options -> "";
+
+		private MetadataMode metadataMode = MetadataMode.EMBED;
+
+		private int maxEntries = DEFAULT_MAX_ENTRIES;
+
+		private MappedFileEmbeddingStore persistentStore;
+
+		public Builder delegate(EmbeddingModel delegate) {
+			this.delegate = delegate;
+			return this;
+		}
+
+		/**
+		 * Options used for the cache key when a request does not carry them, usually the
+		 * default options of the delegate.
+		 */
+		public Builder defaultOptions(EmbeddingOptions defaultOptions) {
+			if (defaultOptions != null) {
+				this.defaultModel = defaultOptions.getModel();
+				this.defaultDimensions = defaultOptions.getDimensions();
+			}
+			return this;
+		}
+
+		/**
+		 * Resolve the options besides model and dimensions that change the vector, such
+		 * as the text type of DashScope, from the request options (which may be null).
+		 * The result becomes part of the cache key.
+		 */
+		public Builder variantResolver(Function<EmbeddingOptions, String> variantResolver) {
+			this.variantResolver = variantResolver;
+			return this;
+		}
+
+		public Builder metadataMode(MetadataMode metadataMode) {
+			this.metadataMode = metadataMode;
+			return this;
+		}
+
+		public Builder maxEntries(int maxEntries) {
+			this.maxEntries = maxEntries;
+			return this;
+		}
+
+		public Builder persistentStore(MappedFileEmbeddingStore persistentStore) {
+			this.persistentStore = persistentStore;
+			return this;
+		}
+
+		public CachingEmbeddingModel build() {
+			return new CachingEmbeddingModel(this);
+		}
+
+	}
+
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.embedding;
+
+import org.springframework.util.Assert;
+
+/**
+ * Cache key of a single embedding: the model name, the requested dimensions, any other
+ * option that changes the vector and the exact input text. Texts are not normalized,
+ * since the model embeds {@code "a  b"} and {@code "a b"} differently.
+ *
+ * @param model embedding model name, empty when unknown
+ * @param dimensions requested dimensions, {@code 0} when the model default is used
+ * @param variant other options the vector depends on, such as the DashScope text type,
+ * empty when none
+ * @param text input text
+ * @since 1.0.0.2
+ */
+public record EmbeddingCacheKey(String model, int dimensions, String variant, String text) {
+
+	public EmbeddingCacheKey {
+		Assert.notNull(model, "model must not be null");
+		Assert.notNull(variant, "variant must not be null");
+		Assert.notNull(text, "text must not be null");
+	}
+
+	public static EmbeddingCacheKey of(String model, Integer dimensions, String text) {
+		return of(model, dimensions, null, text);
+	}
+
+	public static EmbeddingCacheKey of(String model, Integer dimensions, String variant, String text) {
+		return new EmbeddingCacheKey(model == null ? "" : model, dimensions == null ? 0 : dimensions,
+				variant == null ? "" : variant, text == null ? "" : text);
+	}
+
+	/**
+	 * Stable string form used by the persistent tier.
+	 */
+	String asString() {
+		return this.model + '\u0000' + this.dimensions + '\u0000' + this.variant + '\u0000' + this.text;
+	}
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.embedding;
+
+/**
+ * Point-in-time statistics of a {@link CachingEmbeddingModel}.
+ *
+ * @param memoryHits lookups answered by the in-memory tier
+ * @param persistentHits lookups answered by the persistent tier
+ * @param misses lookups that had to call the delegate model
+ * @param evictions entries evicted from the in-memory tier
+ * @param size current number of entries in the in-memory tier
+ * @since 1.0.0.2
+ */
+public record EmbeddingCacheStats(long memoryHits, long persistentHits, long misses, long evictions, int size) {
+
+	public long hits() {
+		return this.memoryHits + this.persistentHits;
+	}
+
+	public long requests() {
+		return hits() + this.misses;
+	}
+
+	/**
+	 * @return ratio of lookups served from cache, {@code 0.0} when nothing was looked up
+	 */
+	public double hitRatio() {
+		long requests = requests();
+		return requests == 0 ? 0.0 : (double) hits() / requests;
+	}
+
+}
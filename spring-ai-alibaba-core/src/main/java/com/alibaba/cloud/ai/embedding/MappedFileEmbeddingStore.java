@@ -0,0 +1,199 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.embedding;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.util.Assert;
+
+/**
+ * Append-only, memory-mapped persistent tier for {@link CachingEmbeddingModel}.
+ * <p>
+ * The file is mapped once with a fixed capacity. Each record is laid out as
+ * {@code [int keyLength][key bytes][int dimensions][float * dimensions]}; a zero key
+ * length marks the end of the written region, so the store can be reopened after a
+ * restart and its index rebuilt with a single scan. Once the capacity is reached new
+ * entries are silently dropped, existing ones stay readable. A single mapping cannot
+ * exceed 2 GB, so larger files are rejected.
+ *
+ * @since 1.0.0.2
+ */
+public class MappedFileEmbeddingStore implements Closeable {
+
+	private static final Logger logger = LoggerFactory.getLogger(MappedFileEmbeddingStore.class);
+
+	private static final int MAGIC = 0x53414543;
+
+	private static final int VERSION = 2;
+
+	private static final int HEADER_SIZE = 8;
+
+	private final Path path;
+
+	private final FileChannel channel;
+
+	private final MappedByteBuffer buffer;
+
+	/**
+	 * Key to position of the dimensions field of the record.
+	 */
+	private final Map<String, Integer> index = new HashMap<>();
+
+	private int writePosition;
+
+	private boolean full;
+
+	public MappedFileEmbeddingStore(Path path, int capacityBytes) {
+		Assert.notNull(path, "path must not be null");
+		Assert.isTrue(capacityBytes > HEADER_SIZE, "capacityBytes must be greater than " + HEADER_SIZE);
+		this.path = path;
+		try {
+			if (path.getParent() != null) {
+				Files.createDirectories(path.getParent());
+			}
+			this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+					StandardOpenOption.WRITE);
+			long size = this.channel.size();
+			if (size > Integer.MAX_VALUE) {
+				this.channel.close();
+				throw new IllegalStateException(
+						"Embedding store " + path + " is larger than " + Integer.MAX_VALUE + " bytes: " + size);
+			}
+			this.buffer = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(capacityBytes, size));
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException("Failed to open embedding store " + path, e);
+		}
+		load();
+	}
+
+	private void load() {
+		int magic = this.buffer.getInt(0);
+		if (magic != MAGIC || this.buffer.getInt(4) != VERSION) {
+			if (magic != 0) {
+				logger.warn("Embedding store {} has an unknown format, it will be overwritten", this.path);
+			}
+			this.buffer.putInt(0, MAGIC);
+			this.buffer.putInt(4, VERSION);
+			this.buffer.putInt(HEADER_SIZE, 0);
+			this.writePosition = HEADER_SIZE;
+			return;
+		}
+
+		int position = HEADER_SIZE;
+		int limit = this.buffer.capacity();
+		while (position + Integer.BYTES <= limit) {
+			int keyLength = this.buffer.getInt(position);
+			if (keyLength <= 0 || position + Integer.BYTES + keyLength + Integer.BYTES > limit) {
+				break;
+			}
+			byte[] keyBytes = new byte[keyLength];
+			this.buffer.get(position + Integer.BYTES, keyBytes);
+			int dimensionsPosition = position + Integer.BYTES + keyLength;
+			int dimensions = this.buffer.getInt(dimensionsPosition);
+			int end = dimensionsPosition + Integer.BYTES + dimensions * Float.BYTES;
+			if (dimensions <= 0 || end > limit) {
+				break;
+			}
+			this.index.put(new String(keyBytes, StandardCharsets.UTF_8), dimensionsPosition);
+			position = end;
+		}
+		this.writePosition = position;
+		logger.debug("Loaded {} embeddings from {}", this.index.size(), this.path);
+	}
+
+	public synchronized float[] get(EmbeddingCacheKey key) {
+		Integer dimensionsPosition = this.index.get(key.asString());
+		if (dimensionsPosition == null) {
+			return null;
+		}
+		int dimensions = this.buffer.getInt(dimensionsPosition);
+		float[] embedding = new float[dimensions];
+		this.buffer.slice(dimensionsPosition + Integer.BYTES, dimensions * Float.BYTES).asFloatBuffer().get(embedding);
+		return embedding;
+	}
+
+	/**
+	 * Append an embedding unless the key is already present or the store is full.
+	 * @return {@code true} when the embedding was written
+	 */
+	public synchronized boolean put(EmbeddingCacheKey key, float[] embedding) {
+		Assert.notNull(embedding, "embedding must not be null");
+		String stringKey = key.asString();
+		if (this.full || embedding.length == 0 || this.index.containsKey(stringKey)) {
+			return false;
+		}
+		byte[] keyBytes = stringKey.getBytes(StandardCharsets.UTF_8);
+		int recordSize = Integer.BYTES + keyBytes.length + Integer.BYTES + embedding.length * Float.BYTES;
+		if (this.writePosition + recordSize > this.buffer.capacity()) {
+			this.full = true;
+			logger.info("Embedding store {} is full with {} entries, new entries will not be persisted", this.path,
+					this.index.size());
+			return false;
+		}
+
+		int position = this.writePosition;
+		int dimensionsPosition = position + Integer.BYTES + keyBytes.length;
+		this.buffer.put(dimensionsPosition + Integer.BYTES, toBytes(embedding));
+		this.buffer.putInt(dimensionsPosition, embedding.length);
+		this.buffer.put(position + Integer.BYTES, keyBytes);
+		// the key length is written last so a torn write is never seen as a record
+		this.buffer.putInt(position, keyBytes.length);
+
+		this.writePosition = position + recordSize;
+		if (this.writePosition + Integer.BYTES <= this.buffer.capacity()) {
+			this.buffer.putInt(this.writePosition, 0);
+		}
+		this.index.put(stringKey, dimensionsPosition);
+		return true;
+	}
+
+	private static byte[] toBytes(float[] embedding) {
+		ByteBuffer bytes = ByteBuffer.allocate(embedding.length * Float.BYTES);
+		bytes.asFloatBuffer().put(embedding);
+		return bytes.array();
+	}
+
+	public synchronized int size() {
+		return this.index.size();
+	}
+
+	@Override
+	public synchronized void close() {
+		try {
+			this.buffer.force();
+			this.channel.close();
+		}
+		catch (IOException e) {
+			logger.warn("Failed to close embedding store {}", this.path, e);
+		}
+	}
+
+}
@@ -0,0 +1,393 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.retrieval;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.alibaba.cloud.ai.document.DocumentWithScore;
+import com.alibaba.cloud.ai.model.RerankModel;
+import com.alibaba.cloud.ai.model.RerankOptions;
+import com.alibaba.cloud.ai.model.RerankRequest;
+import com.alibaba.cloud.ai.model.RerankResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.rag.Query;
+import org.springframework.ai.rag.retrieval.search.DocumentRetriever;
+import org.springframework.util.Assert;
+import org.springframework.util.CollectionUtils;
+
+/**
+ * Retrieve-then-rerank pipeline for wide candidate pools.
+ * <p>
+ * All configured {@link DocumentRetriever}s (several stores, or several filter variants
+ * of the same store) are queried concurrently and their rankings are fused with
+ * Reciprocal Rank Fusion. The fused candidates are then reranked in bounded batches,
+ * {@code maxConcurrentBatches} at a time, best fused candidates first. Scores are merged
+ * into a top-K heap; once the heap has not changed for {@code earlyStopWaves} consecutive
+ * waves the remaining (lower fused rank) candidates are skipped.
+ * <p>
+ * Without an {@link Builder#executor(Executor) executor} the pipeline owns a small daemon
+ * pool, which {@link #close()} shuts down.
+ *
+ * @since 1.0.0.2
+ */
+public class RetrievalRerankPipeline implements AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(RetrievalRerankPipeline.class);
+
+	public static final int DEFAULT_RRF_K = 60;
+
+	public static final int DEFAULT_TOP_K = 5;
+
+	public static final int DEFAULT_BATCH_SIZE = 20;
+
+	public static final int DEFAULT_MAX_CONCURRENT_BATCHES = 4;
+
+	private static final Comparator<DocumentWithScore> BY_SCORE = Comparator
+		.comparingDouble(DocumentWithScore::getScore);
+
+	private final List<DocumentRetriever> retrievers;
+
+	private final RerankModel rerankModel;
+
+	private final RerankOptions rerankOptions;
+
+	private final Executor executor;
+
+	private final ExecutorService ownedExecutor;
+
+	private final int topK;
+
+	private final double minScore;
+
+	private final int rrfK;
+
+	private final int batchSize;
+
+	private final int maxConcurrentBatches;
+
+	private final int earlyStopWaves;
+
+	private RetrievalRerankPipeline(Builder builder) {
+		Assert.notEmpty(builder.retrievers, "at least one retriever must be configured");
+		Assert.isTrue(builder.topK > 0, "topK must be greater than 0");
+		Assert.isTrue(builder.batchSize > 0, "batchSize must be greater than 0");
+		Assert.isTrue(builder.maxConcurrentBatches > 0, "maxConcurrentBatches must be greater than 0");
+		Assert.isTrue(builder.earlyStopWaves >= 0, "earlyStopWaves must not be negative");
+		this.retrievers = List.copyOf(builder.retrievers);
+		this.rerankModel = builder.rerankModel;
+		this.rerankOptions = builder.rerankOptions;
+		this.topK = builder.topK;
+		this.minScore = builder.minScore;
+		this.rrfK = builder.rrfK;
+		this.batchSize = builder.batchSize;
+		this.maxConcurrentBatches = builder.maxConcurrentBatches;
+		this.earlyStopWaves = builder.earlyStopWaves;
+		this.ownedExecutor = builder.executor == null
+				? defaultExecutor(Math.max(this.retrievers.size(), this.maxConcurrentBatches)) : null;
+		this.executor = builder.executor != null ? builder.executor : this.ownedExecutor;
+	}
+
+	public RetrievalResult retrieve(Query query) {
+		Assert.notNull(query, "query must not be null");
+		long start = System.nanoTime();
+
+		List<List<Document>> rankings = retrieveAll(query);
+		long retrieved = System.nanoTime();
+
+		List<Document> candidates = new ArrayList<>();
+		Map<String, Double> fusedScores = fuse(rankings, candidates);
+		long fused = System.nanoTime();
+
+		List<DocumentWithScore> results;
+		int reranked = 0;
+		if (this.rerankModel == null || candidates.isEmpty()) {
+			results = candidates.stream()
+				.limit(this.topK)
+				.map(doc -> DocumentWithScore.builder()
+					.withDocument(doc)
+					.withScore(fusedScores.get(doc.getId()))
+					.build())
+				.toList();
+		}
+		else {
+			RerankOutcome outcome = rerank(query.text(), candidates, fusedScores);
+			results = outcome.results();
+			reranked = outcome.reranked();
+		}
+		long end = System.nanoTime();
+
+		return new RetrievalResult(results, candidates, reranked, Duration.ofNanos(retrieved - start),
+				Duration.ofNanos(fused - retrieved), Duration.ofNanos(end - fused), Duration.ofNanos(end - start));
+	}
+
+	private List<List<Document>> retrieveAll(Query query) {
+		List<CompletableFuture<List<Document>>> futures = this.retrievers.stream()
+			.map(retriever -> CompletableFuture.supplyAsync(() -> retriever.retrieve(query), this.executor)
+				.exceptionally(e -> {
+					logger.warn("Retriever {} failed for query: {}", retriever, query.text(), e);
+					return List.of();
+				}))
+			.toList();
+		return futures.stream().map(CompletableFuture::join).toList();
+	}
+
+	/**
+	 * Reciprocal Rank Fusion: {@code score(d) = sum(1 / (k + rank))} over every ranking
+	 * that contains {@code d}. Fills {@code candidates} in descending fused order.
+	 */
+	private Map<String, Double> fuse(List<List<Document>> rankings, List<Document> candidates) {
+		Map<String, Double> scores = new HashMap<>();
+		Map<String, Document> documents = new LinkedHashMap<>();
+		for (List<Document> ranking : rankings) {
+			if (CollectionUtils.isEmpty(ranking)) {
+				continue;
+			}
+			for (int rank = 0; rank < ranking.size(); rank++) {
+				Document document = ranking.get(rank);
+				documents.putIfAbsent(document.getId(), document);
+				scores.merge(document.getId(), 1.0 / (this.rrfK + rank + 1), Double::sum);
+			}
+		}
+		documents.values()
+			.stream()
+			.sorted(Comparator.comparingDouble((Document doc) -> scores.get(doc.getId())).reversed())
+			.forEach(candidates::add);
+		return scores;
+	}
+
+	private RerankOutcome rerank(String query, List<Document> candidates, Map<String, Double> fusedScores) {
+		List<List<Document>> batches = new ArrayList<>();
+		for (int i = 0; i < candidates.size(); i += this.batchSize) {
+			batches.add(candidates.subList(i, Math.min(i + this.batchSize, candidates.size())));
+		}
+
+		PriorityQueue<DocumentWithScore> heap = new PriorityQueue<>(this.topK + 1, BY_SCORE);
+		int reranked = 0;
+		int failed = 0;
+		int stableWaves = 0;
+		int next = 0;
+		while (next < batches.size()) {
+			List<List<Document>> wave = batches.subList(next,
+					Math.min(next + this.maxConcurrentBatches, batches.size()));
+			next += wave.size();
+
+			List<CompletableFuture<RerankResponse>> futures = wave.stream()
+				.map(batch -> CompletableFuture
+					.supplyAsync(() -> this.rerankModel.call(new RerankRequest(query, batch, this.rerankOptions)),
+							this.executor)
+					.exceptionally(e -> {
+						logger.warn("Rerank batch of {} documents failed", batch.size(), e);
+						return null;
+					}))
+				.toList();
+
+			Set<String> before = ids(heap);
+			for (int i = 0; i < futures.size(); i++) {
+				RerankResponse response = futures.get(i).join();
+				if (response == null || response.getResults() == null) {
+					failed++;
+					continue;
+				}
+				reranked += wave.get(i).size();
+				for (DocumentWithScore result : response.getResults()) {
+					if (result == null || result.getScore() == null || result.getScore() < this.minScore) {
+						continue;
+					}
+					heap.offer(result);
+					if (heap.size() > this.topK) {
+						heap.poll();
+					}
+				}
+			}
+
+			stableWaves = heap.size() == this.topK && before.equals(ids(heap)) ? stableWaves + 1 : 0;
+			if (this.earlyStopWaves > 0 && stableWaves >= this.earlyStopWaves && next < batches.size()) {
+				logger.debug("Top-{} stable for {} waves, skipping {} of {} rerank batches", this.topK, stableWaves,
+						batches.size() - next, batches.size());
+				break;
+			}
+		}
+
+		if (failed > 0 && reranked == 0) {
+			logger.warn("All rerank batches failed, falling back to fused ranking");
+			return new RerankOutcome(candidates.stream()
+				.limit(this.topK)
+				.map(doc -> DocumentWithScore.builder()
+					.withDocument(doc)
+					.withScore(fusedScores.get(doc.getId()))
+					.build())
+				.toList(), 0);
+		}
+
+		List<DocumentWithScore> results = new ArrayList<>(heap);
+		results.sort(BY_SCORE.reversed());
+		return new RerankOutcome(results, reranked);
+	}
+
+	/**
+	 * Shut down the default pool, if this pipeline created one. An executor passed to the
+	 * builder is left to its owner.
+	 */
+	@Override
+	public void close() {
+		if (this.ownedExecutor != null) {
+			this.ownedExecutor.shutdown();
+		}
+	}
+
+	private static Set<String> ids(PriorityQueue<DocumentWithScore> heap) {
+		Set<String> ids = new HashSet<>();
+		for (DocumentWithScore result : heap) {
+			ids.add(result.getOutput().getId());
+		}
+		return ids;
+	}
+
+	private static ExecutorService defaultExecutor(int threads) {
+		AtomicInteger counter = new AtomicInteger();
+		return Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "retrieval-rerank-" + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	private record RerankOutcome(List<DocumentWithScore> results, int reranked) {
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	public static class Builder {
+
+		private final List<DocumentRetriever> retrievers = new ArrayList<>();
+
+		private RerankModel rerankModel;
+
+		private RerankOptions rerankOptions;
+
+		private Executor executor;
+
+		private int topK = DEFAULT_TOP_K;
+
+		private double minScore = 0.0;
+
+		private int rrfK = DEFAULT_RRF_K;
+
+		private int batchSize = DEFAULT_BATCH_SIZE;
+
+		private int maxConcurrentBatches = DEFAULT_MAX_CONCURRENT_BATCHES;
+
+		private int earlyStopWaves = 1;
+
+		public Builder retriever(DocumentRetriever retriever) {
+			Assert.notNull(retriever, "retriever must not be null");
+			this.retrievers.add(retriever);
+			return this;
+		}
+
+		public Builder retrievers(List<? extends DocumentRetriever> retrievers) {
+			Assert.notNull(retrievers, "retrievers must not be null");
+			retrievers.forEach(this::retriever);
+			return this;
+		}
+
+		/**
+		 * Rerank model, when {@code null} the fused ranking is returned as is.
+		 */
+		public Builder rerankModel(RerankModel rerankModel) {
+			this.rerankModel = rerankModel;
+			return this;
+		}
+
+		/**
+		 * Options sent with each batch. Their {@code topN}, if any, applies per batch and
+		 * should not be lower than {@link #topK(int)}.
+		 */
+		public Builder rerankOptions(RerankOptions rerankOptions) {
+			this.rerankOptions = rerankOptions;
+			return this;
+		}
+
+		/**
+		 * Executor for retrieval and rerank calls. Defaults to a dedicated daemon pool
+		 * sized for the configured parallelism, released by
+		 * {@link RetrievalRerankPipeline#close()}.
+		 */
+		public Builder executor(Executor executor) {
+			this.executor = executor;
+			return this;
+		}
+
+		public Builder topK(int topK) {
+			this.topK = topK;
+			return this;
+		}
+
+		public Builder minScore(double minScore) {
+			this.minScore = minScore;
+			return this;
+		}
+
+		public Builder rrfK(int rrfK) {
+			this.rrfK = rrfK;
+			return this;
+		}
+
+		public Builder batchSize(int batchSize) {
+			this.batchSize = batchSize;
+			return this;
+		}
+
+		public Builder maxConcurrentBatches(int maxConcurrentBatches) {
+			this.maxConcurrentBatches = maxConcurrentBatches;
+			return this;
+		}
+
+		/**
+		 * Number of consecutive waves without a top-K change after which reranking stops,
+		 * {@code 0} always reranks every candidate.
+		 */
+		public Builder earlyStopWaves(int earlyStopWaves) {
+			this.earlyStopWaves = earlyStopWaves;
+			return this;
+		}
+
+		public RetrievalRerankPipeline build() {
+			return new RetrievalRerankPipeline(this);
+		}
+
+	}
+
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.retrieval;
+
+import java.time.Duration;
+import java.util.List;
+
+import com.alibaba.cloud.ai.document.DocumentWithScore;
+
+import org.springframework.ai.document.Document;
+
+/**
+ * Outcome of a {@link RetrievalRerankPipeline} run.
+ *
+ * @param results final top-K documents, best first, with their rerank score (or fused
+ * score when no rerank model is configured)
+ * @param candidates fused candidates in fused order, before reranking
+ * @param rerankedCount number of candidates actually sent to the rerank model
+ * @param retrieveLatency wall-clock time of the concurrent retrieval stage
+ * @param fuseLatency time spent fusing the source rankings
+ * @param rerankLatency wall-clock time of the batched rerank stage
+ * @param totalLatency wall-clock time of the whole run
+ * @since 1.0.0.2
+ */
+public record RetrievalResult(List<DocumentWithScore> results, List<Document> candidates, int rerankedCount,
+		Duration retrieveLatency, Duration fuseLatency, Duration rerankLatency, Duration totalLatency) {
+
+	public List<Document> documents() {
+		return this.results.stream().map(DocumentWithScore::getOutput).toList();
+	}
+
+}
@@ -18,13 +18,17 @@ package com.alibaba.cloud.ai.tool;
 import com.alibaba.cloud.ai.tool.observation.ArmsToolCallingObservationContext;
 import com.alibaba.cloud.ai.tool.observation.ArmsToolCallingObservationConvention;
 import com.alibaba.cloud.ai.tool.observation.ArmsToolCallingObservationDocumentation;
+import io.micrometer.observation.Observation;
 import io.micrometer.observation.ObservationRegistry;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicReference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -52,6 +56,13 @@ import org.springframework.util.StringUtils;
 
 /**
  * Inspired from org.springframework.ai.model.tool.DefaultToolCallingManager.
+ * <p>
+ * With {@code parallelToolExecution} enabled, the tool calls of one assistant message run
+ * concurrently on the configured executor. Responses keep the order of the tool calls and
+ * every call is still recorded as its own observation. With a
+ * {@code toolExecutionTimeout}, each call, parallel or not, is interrupted once it runs
+ * longer than that and the timeout is reported to the model through the
+ * {@link ToolExecutionExceptionProcessor}, see {@link ToolCallExecutor}.
  *
  * @author Lumian
  */
@@ -84,16 +95,34 @@ public class ObservableToolCallingManager implements ToolCallingManager {
 	// officially supports for observation
 	private final ArmsToolCallingObservationConvention observationConvention = DEFAULT_OBSERVATION_CONVENTION;
 
+	private final ToolCallExecutor toolCallExecutor;
+
 	public ObservableToolCallingManager(ObservationRegistry observationRegistry,
 			ToolCallbackResolver toolCallbackResolver,
 			ToolExecutionExceptionProcessor toolExecutionExceptionProcessor) {
+		this(observationRegistry, toolCallbackResolver, toolExecutionExceptionProcessor, false, null, null);
+	}
+
+	/**
+	 * @param parallelToolExecution whether the tool calls of one message run concurrently
+	 * @param executor executor of parallel tool calls, a shared daemon pool when null
+	 * @param toolExecutionTimeout time limit of each tool call, unbounded when null
+	 * @since 1.0.0.2
+	 */
+	public ObservableToolCallingManager(ObservationRegistry observationRegistry,
+			ToolCallbackResolver toolCallbackResolver, ToolExecutionExceptionProcessor toolExecutionExceptionProcessor,
+			boolean parallelToolExecution, Executor executor, Duration toolExecutionTimeout) {
 		Assert.notNull(observationRegistry, "observationRegistry cannot be null");
 		Assert.notNull(toolCallbackResolver, "toolCallbackResolver cannot be null");
 		Assert.notNull(toolExecutionExceptionProcessor, "toolCallExceptionConverter cannot be null");
+		Assert.isTrue(toolExecutionTimeout == null || toolExecutionTimeout.toMillis() > 0,
+				"toolExecutionTimeout must be positive");
 
 		this.observationRegistry = observationRegistry;
 		this.toolCallbackResolver = toolCallbackResolver;
 		this.toolExecutionExceptionProcessor = toolExecutionExceptionProcessor;
+		this.toolCallExecutor = new ToolCallExecutor(parallelToolExecution, executor, toolExecutionTimeout,
+				toolExecutionExceptionProcessor);
 	}
 
 	@Override
@@ -177,26 +206,28 @@ public class ObservableToolCallingManager implements ToolCallingManager {
 	 */
 	private InternalToolExecutionResult executeToolCall(Prompt prompt, AssistantMessage assistantMessage,
 			ToolContext toolContext) {
-		List<ToolCallback> toolCallbacks = List.of();
+		Map<String, ToolCallback> toolCallbacksByName = new HashMap<>();
 		if (prompt.getOptions() instanceof ToolCallingChatOptions toolCallingChatOptions) {
-			toolCallbacks = toolCallingChatOptions.getToolCallbacks();
+			for (ToolCallback toolCallback : toolCallingChatOptions.getToolCallbacks()) {
+				toolCallbacksByName.putIfAbsent(toolCallback.getToolDefinition().name(), toolCallback);
+			}
 		}
 
-		List<ToolResponseMessage.ToolResponse> toolResponses = new ArrayList<>();
+		// Resolve every callback up front so that an unknown tool fails before any tool
+		// runs
+		List<AssistantMessage.ToolCall> toolCalls = assistantMessage.getToolCalls();
+		Map<String, ToolCallback> resolved = new LinkedHashMap<>();
+		List<ArmsToolCallingObservationContext> observationContexts = new ArrayList<>(toolCalls.size());
 
 		Boolean returnDirect = null;
 
-		for (AssistantMessage.ToolCall toolCall : assistantMessage.getToolCalls()) {
-
-			logger.debug("Executing tool call: {}", toolCall.name());
-
+		for (AssistantMessage.ToolCall toolCall : toolCalls) {
 			String toolName = toolCall.name();
-			String toolInputArguments = toolCall.arguments();
 
-			ToolCallback toolCallback = toolCallbacks.stream()
-				.filter(tool -> toolName.equals(tool.getToolDefinition().name()))
-				.findFirst()
-				.orElseGet(() -> this.toolCallbackResolver.resolve(toolName));
+			ToolCallback toolCallback = resolved.computeIfAbsent(toolName, name -> {
+				ToolCallback callback = toolCallbacksByName.get(name);
+				return callback != null ? callback : this.toolCallbackResolver.resolve(name);
+			});
 
 			if (toolCallback == null) {
 				throw new IllegalStateException("No ToolCallback found for tool name: " + toolName);
@@ -209,35 +240,61 @@ public class ObservableToolCallingManager implements ToolCallingManager {
 				returnDirect = returnDirect && toolCallback.getToolMetadata().returnDirect();
 			}
 
-			ArmsToolCallingObservationContext observationContext = ArmsToolCallingObservationContext.builder()
+			observationContexts.add(ArmsToolCallingObservationContext.builder()
 				.toolCall(toolCall)
 				.description(toolCallback.getToolDefinition().description())
 				.returnDirect(returnDirect)
-				.build();
-
-			String toolResult = ArmsToolCallingObservationDocumentation.EXECUTE_TOOL_OPERATION
-				.observation(this.observationConvention, DEFAULT_OBSERVATION_CONVENTION, () -> observationContext,
-						this.observationRegistry)
-				.observe(() -> {
-					String result;
-					try {
-						result = toolCallback.call(toolInputArguments, toolContext);
-					}
-					catch (ToolExecutionException ex) {
-						observationContext.setError(ex);
-						result = toolExecutionExceptionProcessor.process(ex);
-					}
-
-					observationContext.setToolResult(result);
-					return result;
-				});
-
-			toolResponses.add(new ToolResponseMessage.ToolResponse(toolCall.id(), toolName, toolResult));
+				.build());
+		}
+
+		// Worker threads do not see the caller's current observation
+		Observation parentObservation = this.observationRegistry.getCurrentObservation();
+		List<ToolCallExecutor.ToolCallTask> tasks = new ArrayList<>(toolCalls.size());
+		for (int i = 0; i < toolCalls.size(); i++) {
+			AssistantMessage.ToolCall toolCall = toolCalls.get(i);
+			ToolCallback toolCallback = resolved.get(toolCall.name());
+			ArmsToolCallingObservationContext observationContext = observationContexts.get(i);
+			tasks.add(new ToolCallExecutor.ToolCallTask(toolCallback.getToolDefinition(),
+					() -> observeToolCall(toolCall, toolCallback, observationContext, toolContext, parentObservation)));
+		}
+		List<String> toolResults = this.toolCallExecutor.execute(tasks);
+
+		List<ToolResponseMessage.ToolResponse> toolResponses = new ArrayList<>(toolCalls.size());
+		for (int i = 0; i < toolCalls.size(); i++) {
+			AssistantMessage.ToolCall toolCall = toolCalls.get(i);
+			toolResponses.add(new ToolResponseMessage.ToolResponse(toolCall.id(), toolCall.name(), toolResults.get(i)));
 		}
 
 		return new InternalToolExecutionResult(new ToolResponseMessage(toolResponses, Map.of()), returnDirect);
 	}
 
+	private String observeToolCall(AssistantMessage.ToolCall toolCall, ToolCallback toolCallback,
+			ArmsToolCallingObservationContext observationContext, ToolContext toolContext,
+			Observation parentObservation) {
+		logger.debug("Executing tool call: {}", toolCall.name());
+
+		Observation observation = ArmsToolCallingObservationDocumentation.EXECUTE_TOOL_OPERATION.observation(
+				this.observationConvention, DEFAULT_OBSERVATION_CONVENTION, () -> observationContext,
+				this.observationRegistry);
+		if (parentObservation != null) {
+			observation.parentObservation(parentObservation);
+		}
+
+		return observation.observe(() -> {
+			String result;
+			try {
+				result = toolCallback.call(toolCall.arguments(), toolContext);
+			}
+			catch (ToolExecutionException ex) {
+				observationContext.setError(ex);
+				result = toolExecutionExceptionProcessor.process(ex);
+			}
+
+			observationContext.setToolResult(result);
+			return result;
+		});
+	}
+
 	/**
 	 * We have to assume that tool calls is ordered in streaming mode.
 	 */
@@ -297,6 +354,12 @@ public class ObservableToolCallingManager implements ToolCallingManager {
 
 		private ToolExecutionExceptionProcessor toolExecutionExceptionProcessor = DEFAULT_TOOL_EXECUTION_EXCEPTION_PROCESSOR;
 
+		private boolean parallelToolExecution;
+
+		private Executor executor;
+
+		private Duration toolExecutionTimeout;
+
 		private Builder() {
 		}
 
@@ -316,9 +379,24 @@ public class ObservableToolCallingManager implements ToolCallingManager {
 			return this;
 		}
 
+		public ObservableToolCallingManager.Builder parallelToolExecution(boolean parallelToolExecution) {
+			this.parallelToolExecution = parallelToolExecution;
+			return this;
+		}
+
+		public ObservableToolCallingManager.Builder executor(Executor executor) {
+			this.executor = executor;
+			return this;
+		}
+
+		public ObservableToolCallingManager.Builder toolExecutionTimeout(Duration toolExecutionTimeout) {
+			this.toolExecutionTimeout = toolExecutionTimeout;
+			return this;
+		}
+
 		public ObservableToolCallingManager build() {
 			return new ObservableToolCallingManager(observationRegistry, toolCallbackResolver,
-					toolExecutionExceptionProcessor);
+					toolExecutionExceptionProcessor, parallelToolExecution, executor, toolExecutionTimeout);
 		}
 
 	}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.tool;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.execution.DefaultToolExecutionExceptionProcessor;
+import org.springframework.ai.tool.execution.ToolExecutionException;
+import org.springframework.ai.tool.execution.ToolExecutionExceptionProcessor;
+import org.springframework.util.Assert;
+
+/**
+ * Runs the tool calls of one assistant message and returns their results in call order.
+ * <p>
+ * Calls run one after another, or concurrently when {@code parallel} is set. With a
+ * {@code timeout}, every call may run for at most that long from the moment it starts; a
+ * call still running then is interrupted and its result is the
+ * {@link ToolExecutionExceptionProcessor}'s answer to a {@link TimeoutException}, so the
+ * other calls are unaffected. Bounded calls run on the executor even when sequential,
+ * since the caller thread cannot be interrupted on their behalf. Any other failure
+ * cancels the calls still running and is rethrown.
+ *
+ * @since 1.0.0.2
+ */
+public class ToolCallExecutor {
+
+	private static final Logger logger = LoggerFactory.getLogger(ToolCallExecutor.class);
+
+	private final boolean parallel;
+
+	private final Executor executor;
+
+	private final Duration timeout;
+
+	private final ToolExecutionExceptionProcessor exceptionProcessor;
+
+	/**
+	 * @param parallel whether the calls run concurrently
+	 * @param executor executor of the calls, a shared daemon pool when null
+	 * @param timeout time limit of each call, unbounded when null
+	 * @param exceptionProcessor turns a timed out call into its result, the default
+	 * processor when null
+	 */
+	public ToolCallExecutor(boolean parallel, Executor executor, Duration timeout,
+			ToolExecutionExceptionProcessor exceptionProcessor) {
+		Assert.isTrue(timeout == null || timeout.toMillis() > 0, "timeout must be positive");
+		this.parallel = parallel;
+		this.executor = executor;
+		this.timeout = timeout;
+		this.exceptionProcessor = exceptionProcessor != null ? exceptionProcessor
+				: DefaultToolExecutionExceptionProcessor.builder().build();
+	}
+
+	public List<String> execute(List<ToolCallTask> tasks) {
+		List<String> results = new ArrayList<>(tasks.size());
+		if (this.timeout == null && (!this.parallel || tasks.size() < 2)) {
+			for (ToolCallTask task : tasks) {
+				results.add(task.call().get());
+			}
+			return results;
+		}
+
+		if (!this.parallel) {
+			for (ToolCallTask task : tasks) {
+				CompletableFuture<String> future = submit(task);
+				try {
+					results.add(await(future, task.toolDefinition()));
+				}
+				catch (RuntimeException ex) {
+					future.cancel(true);
+					throw ex;
+				}
+			}
+			return results;
+		}
+
+		List<CompletableFuture<String>> futures = new ArrayList<>(tasks.size());
+		for (ToolCallTask task : tasks) {
+			futures.add(submit(task));
+		}
+		try {
+			for (int i = 0; i < futures.size(); i++) {
+				results.add(await(futures.get(i), tasks.get(i).toolDefinition()));
+			}
+		}
+		catch (RuntimeException ex) {
+			futures.forEach(future -> future.cancel(true));
+			throw ex;
+		}
+		return results;
+	}
+
+	/**
+	 * Run the call as a {@link FutureTask} so that a timed out or cancelled result
+	 * interrupts the worker instead of leaving it busy. The timeout starts with the task,
+	 * not while it waits in the executor queue.
+	 */
+	private CompletableFuture<String> submit(ToolCallTask task) {
+		CompletableFuture<String> result = new CompletableFuture<>();
+		FutureTask<String> futureTask = new FutureTask<>(() -> task.call().get()) {
+			@Override
+			public void run() {
+				if (ToolCallExecutor.this.timeout != null) {
+					result.orTimeout(ToolCallExecutor.this.timeout.toNanos(), TimeUnit.NANOSECONDS);
+				}
+				super.run();
+			}
+
+			@Override
+			protected void done() {
+				if (isCancelled()) {
+					result.cancel(false);
+					return;
+				}
+				try {
+					result.complete(get());
+				}
+				catch (ExecutionException ex) {
+					result.completeExceptionally(ex.getCause());
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					result.completeExceptionally(ex);
+				}
+			}
+		};
+		result.whenComplete((value, ex) -> futureTask.cancel(true));
+		(this.executor != null ? this.executor : DefaultExecutorHolder.EXECUTOR).execute(futureTask);
+		return result;
+	}
+
+	private String await(CompletableFuture<String> future, ToolDefinition toolDefinition) {
+		try {
+			return future.get();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for tool call " + toolDefinition.name(), ex);
+		}
+		catch (CancellationException ex) {
+			throw new IllegalStateException("Tool call " + toolDefinition.name() + " was cancelled", ex);
+		}
+		catch (ExecutionException ex) {
+			Throwable cause = ex.getCause() instanceof CompletionException ? ex.getCause().getCause() : ex.getCause();
+			if (cause instanceof TimeoutException) {
+				logger.warn("Tool call {} timed out after {}", toolDefinition.name(), this.timeout);
+				return this.exceptionProcessor.process(new ToolExecutionException(toolDefinition, new TimeoutException(
+						"Tool call " + toolDefinition.name() + " timed out after " + this.timeout.toMillis() + "ms")));
+			}
+			if (cause instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			if (cause instanceof Error error) {
+				throw error;
+			}
+			throw new IllegalStateException("Tool call " + toolDefinition.name() + " failed", cause);
+		}
+	}
+
+	/**
+	 * One tool call: the definition of the called tool and the call itself.
+	 *
+	 * @param toolDefinition definition of the called tool, used in timeout results
+	 * @param call runs the tool and returns its result
+	 */
+	public record ToolCallTask(ToolDefinition toolDefinition, Supplier<String> call) {
+
+		public ToolCallTask {
+			Assert.notNull(toolDefinition, "toolDefinition cannot be null");
+			Assert.notNull(call, "call cannot be null");
+		}
+
+	}
+
+	/**
+	 * Lazily created pool used when no executor is configured.
+	 */
+	private static final class DefaultExecutorHolder {
+
+		private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+		private static final ExecutorService EXECUTOR = Executors
+			.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors() * 2), r -> {
+				Thread thread = new Thread(r, "tool-call-" + THREAD_COUNTER.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+
+	}
+
+}
@@ -1,10 +1,14 @@
 package com.alibaba.cloud.ai.transformer.splitter;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
+import org.springframework.ai.document.Document;
 import org.springframework.ai.transformer.splitter.TextSplitter;
 
 import io.micrometer.common.util.StringUtils;
@@ -16,6 +20,12 @@ public class MarkdownHeaderTextSplitter extends TextSplitter {
 	// 标题匹配正则：匹配 # 开头的标题
 	private static final Pattern HEADER_PATTERN = Pattern.compile("^(#{1,6})\\s+(.+)$", Pattern.MULTILINE);
 
+	// 流式模式下的单行标题匹配
+	private static final Pattern HEADER_LINE_PATTERN = Pattern.compile("^(#{1,6})\\s+(.+)$");
+
+	// 流式读取的缓冲区大小
+	private static final int READ_BUFFER_SIZE = 8192;
+
 	private final SplitConfig config;
 
 	public MarkdownHeaderTextSplitter() {
@@ -554,6 +564,174 @@ public class MarkdownHeaderTextSplitter extends TextSplitter {
 			.collect(Collectors.toList());
 	}
 
+	/**
+	 * 流式分割：逐行读取Reader，增量维护标题路径，章节结束或达到maxChunkSize时立即输出chunk。
+	 * <p>
+	 * 与 {@link #splitToChunks} 不同，整篇文档不会被加载到内存中，开启autoSubdivide时内存占用只与maxChunkSize相关，
+	 * 适合处理几十MB的Markdown导出文件。过长的章节优先在空行或子标题处切分，后续部分的标题带"(第N部分)"后缀；
+	 * 第一个分割标题之前的内容作为"文档内容"输出。超过maxChunkSize的单行按maxChunkSize截断处理。
+	 * @param reader Markdown输入，由调用方负责关闭
+	 * @param originalMetadata 原始metadata，可以为null
+	 * @param consumer 每个chunk生成后立即回调
+	 */
+	public void streamChunks(Reader reader, Map<String, Object> originalMetadata, Consumer<DocumentChunk> consumer)
+			throws IOException {
+		StreamingSplit split = new StreamingSplit(originalMetadata, consumer);
+		// 超长行按maxChunkSize截断，保证单行也不会无限占用内存
+		int maxLineLength = Math.max(config.getMaxChunkSize(), 1);
+		char[] buffer = new char[READ_BUFFER_SIZE];
+		StringBuilder line = new StringBuilder();
+		boolean continuation = false;
+		int read;
+		while ((read = reader.read(buffer)) != -1) {
+			for (int i = 0; i < read; i++) {
+				char c = buffer[i];
+				if (c == '\n') {
+					split.onLine(line, continuation);
+					line.setLength(0);
+					continuation = false;
+				}
+				else if (c != '\r') {
+					line.append(c);
+					if (line.length() >= maxLineLength) {
+						split.onFragment(line);
+						line.setLength(0);
+						continuation = true;
+					}
+				}
+			}
+		}
+		if (!line.isEmpty()) {
+			split.onLine(line, continuation);
+		}
+		split.flush();
+	}
+
+	/**
+	 * 流式分割并直接输出Document，内容格式与 {@link #splitText(String, Map)} 一致
+	 */
+	public void streamDocuments(Reader reader, Map<String, Object> originalMetadata, Consumer<Document> consumer)
+			throws IOException {
+		streamChunks(reader, originalMetadata,
+				chunk -> consumer.accept(new Document(formatChunkContent(chunk), chunk.getMetadata())));
+	}
+
+	/**
+	 * 流式分割的状态：标题栈、当前章节和未输出的内容
+	 */
+	private class StreamingSplit {
+
+		private final Map<String, Object> originalMetadata;
+
+		private final Consumer<DocumentChunk> consumer;
+
+		// 按级别索引的标题栈，下标1-6
+		private final String[] headerStack = new String[7];
+
+		private final StringBuilder content = new StringBuilder();
+
+		// 当前内容中最后一个可切分位置（空行或子标题之前），-1表示没有
+		private int lastBreak = -1;
+
+		private HeaderInfo currentHeader;
+
+		private int partIndex = 1;
+
+		StreamingSplit(Map<String, Object> originalMetadata, Consumer<DocumentChunk> consumer) {
+			this.originalMetadata = originalMetadata;
+			this.consumer = consumer;
+		}
+
+		void onLine(CharSequence line, boolean continuation) {
+			Matcher matcher = continuation ? null : HEADER_LINE_PATTERN.matcher(line);
+			if (matcher != null && matcher.matches()) {
+				int level = matcher.group(1).length();
+				String title = matcher.group(2).trim();
+				headerStack[level] = title;
+				Arrays.fill(headerStack, level + 1, headerStack.length, null);
+				if (level <= config.getHeaderLevel()) {
+					// 新章节开始，输出上一个章节
+					flush();
+					startSection(level, title);
+				}
+				else {
+					markBreak();
+				}
+			}
+			else if (!continuation && StringUtils.isBlank(line.toString())) {
+				markBreak();
+			}
+			append(line);
+			content.append('\n');
+		}
+
+		void onFragment(CharSequence fragment) {
+			append(fragment);
+		}
+
+		void flush() {
+			emit(content);
+			content.setLength(0);
+			lastBreak = -1;
+		}
+
+		private void startSection(int level, String title) {
+			StringJoiner parentPath = new StringJoiner(" > ");
+			for (int i = 1; i < level; i++) {
+				if (headerStack[i] != null) {
+					parentPath.add(headerStack[i]);
+				}
+			}
+			String parent = parentPath.toString();
+			currentHeader = HeaderInfo.builder()
+				.level(level)
+				.title(title)
+				.parentPath(parent)
+				.fullPath(parent.isEmpty() ? title : parent + " > " + title)
+				.build();
+			partIndex = 1;
+		}
+
+		private void markBreak() {
+			if (!content.isEmpty()) {
+				lastBreak = content.length();
+			}
+		}
+
+		private void append(CharSequence text) {
+			if (config.isAutoSubdivide()) {
+				// 加入新内容会超长时，先在最后一个可切分位置输出，否则整体输出
+				while (!content.isEmpty() && content.length() + text.length() + 1 > config.getMaxChunkSize()) {
+					int cut = lastBreak > 0 ? lastBreak : content.length();
+					emit(content.subSequence(0, cut));
+					content.delete(0, cut);
+					lastBreak = -1;
+					partIndex++;
+				}
+			}
+			content.append(text);
+		}
+
+		private void emit(CharSequence text) {
+			String chunkContent = text.toString().trim();
+			if (chunkContent.isEmpty() || chunkContent.length() < config.getMinChunkSize()) {
+				return;
+			}
+			String title = currentHeader != null ? currentHeader.getTitle() : "文档内容";
+			if (partIndex > 1) {
+				title = title + " (第" + partIndex + "部分)";
+			}
+			consumer.accept(DocumentChunk.builder()
+				.title(title)
+				.headerPath(config.isIncludeHeaderPath() && currentHeader != null ? currentHeader.getFullPath() : null)
+				.content(chunkContent)
+				.level(currentHeader != null ? currentHeader.getLevel() : 0)
+				.metadata(inheritMetadata(originalMetadata, currentHeader))
+				.build());
+		}
+
+	}
+
 	/**
 	 * 根据配置格式化chunk内容
 	 */
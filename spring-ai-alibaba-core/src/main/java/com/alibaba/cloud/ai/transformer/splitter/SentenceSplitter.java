@@ -29,6 +29,7 @@ import com.knuddels.jtokkit.api.EncodingType;
 import opennlp.tools.sentdetect.SentenceDetectorME;
 import opennlp.tools.sentdetect.SentenceModel;
 
+import org.springframework.ai.document.Document;
 import org.springframework.ai.transformer.splitter.TextSplitter;
 import org.springframework.util.Assert;
 
@@ -50,30 +51,68 @@ public class SentenceSplitter extends TextSplitter {
 
 	private final SentenceModel sentenceModel;
 
+	/**
+	 * {@link SentenceDetectorME} is not thread-safe, each thread reuses its own detector.
+	 */
+	private final ThreadLocal<SentenceDetectorME> sentenceDetector;
+
 	private final int chunkSize;
 
+	private final TokenCountMode tokenCountMode;
+
+	private final boolean parallel;
+
 	public SentenceSplitter() {
 		this(DEFAULT_CHUNK_SIZE);
 	}
 
 	public SentenceSplitter(int chunkSize) {
+		this(chunkSize, TokenCountMode.EXACT, false);
+	}
+
+	/**
+	 * @param chunkSize maximum tokens per chunk
+	 * @param tokenCountMode how the size of the chunk being built is tracked
+	 * @param parallel split the documents of {@link #apply(List)} in parallel
+	 */
+	public SentenceSplitter(int chunkSize, TokenCountMode tokenCountMode, boolean parallel) {
+		Assert.notNull(tokenCountMode, "tokenCountMode must not be null");
 		this.chunkSize = chunkSize;
+		this.tokenCountMode = tokenCountMode;
+		this.parallel = parallel;
 		this.sentenceModel = getSentenceModel();
+		this.sentenceDetector = ThreadLocal.withInitial(() -> new SentenceDetectorME(this.sentenceModel));
+	}
+
+	@Override
+	public List<Document> apply(List<Document> documents) {
+		if (!this.parallel || documents == null || documents.size() < 2) {
+			return super.apply(documents);
+		}
+		// split(Document) is self-contained, the encounter order of the input is kept
+		return documents.parallelStream().map(this::split).flatMap(List::stream).toList();
 	}
 
 	@Override
 	protected List<String> splitText(String text) {
-		SentenceDetectorME sentenceDetector = new SentenceDetectorME(sentenceModel);
-		String[] texts = sentenceDetector.sentDetect(text);
+		String[] texts = this.sentenceDetector.get().sentDetect(text);
 		if (texts == null || texts.length == 0) {
 			return Collections.emptyList();
 		}
 
+		return this.tokenCountMode == TokenCountMode.INCREMENTAL ? splitIncrementally(texts) : splitExactly(texts);
+	}
+
+	/**
+	 * Re-count the whole chunk for every sentence. The count is exact, including merges
+	 * across sentence boundaries, but the cost is quadratic in the chunk size.
+	 */
+	private List<String> splitExactly(String[] texts) {
 		List<String> chunks = new ArrayList<>();
 		StringBuilder chunk = new StringBuilder();
 		for (int i = 0; i < texts.length; i++) {
-			int currentChunkSize = getEncodedTokens(chunk.toString()).size();
-			int textTokenSize = getEncodedTokens(texts[i]).size();
+			int currentChunkSize = countTokens(chunk.toString());
+			int textTokenSize = countTokens(texts[i]);
 			if (currentChunkSize + textTokenSize > chunkSize) {
 				chunks.add(chunk.toString());
 				chunk = new StringBuilder(texts[i]);
@@ -90,6 +129,32 @@ public class SentenceSplitter extends TextSplitter {
 		return chunks;
 	}
 
+	/**
+	 * Keep a running token count: every sentence is encoded exactly once, so splitting is
+	 * linear in the text length. The chunk size is the sum of its sentence sizes, which
+	 * may differ by a token or so per boundary from encoding the joined chunk.
+	 */
+	private List<String> splitIncrementally(String[] texts) {
+		List<String> chunks = new ArrayList<>();
+		StringBuilder chunk = new StringBuilder();
+		int currentChunkSize = 0;
+		for (String text : texts) {
+			int textTokenSize = countTokens(text);
+			if (chunk.length() > 0 && currentChunkSize + textTokenSize > chunkSize) {
+				chunks.add(chunk.toString());
+				chunk.setLength(0);
+				currentChunkSize = 0;
+			}
+			chunk.append(text);
+			currentChunkSize += textTokenSize;
+		}
+		if (chunk.length() > 0) {
+			chunks.add(chunk.toString());
+		}
+
+		return chunks;
+	}
+
 	private SentenceModel getSentenceModel() {
 		try (InputStream is = getClass().getResourceAsStream("/opennlp/opennlp-en-ud-ewt-sentence-1.2-2.5.0.bin")) {
 			if (is == null) {
@@ -103,9 +168,26 @@ public class SentenceSplitter extends TextSplitter {
 		}
 	}
 
-	private List<Integer> getEncodedTokens(String text) {
+	private int countTokens(String text) {
 		Assert.notNull(text, "Text must not be null");
-		return this.encoding.encode(text).boxed();
+		return this.encoding.countTokens(text);
+	}
+
+	/**
+	 * How the token size of the chunk being built is tracked.
+	 */
+	public enum TokenCountMode {
+
+		/**
+		 * Encode the accumulated chunk again for every sentence.
+		 */
+		EXACT,
+
+		/**
+		 * Keep a running sum of the sentence token counts.
+		 */
+		INCREMENTAL
+
 	}
 
 }
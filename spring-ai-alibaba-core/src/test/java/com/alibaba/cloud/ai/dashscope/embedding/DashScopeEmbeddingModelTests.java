@@ -20,6 +20,7 @@ import com.alibaba.cloud.ai.dashscope.api.DashScopeApi.EmbeddingList;
 import com.alibaba.cloud.ai.dashscope.api.DashScopeApi.EmbeddingUsage;
 import com.alibaba.cloud.ai.dashscope.api.DashScopeApi.Embeddings;
 import com.alibaba.cloud.ai.dashscope.api.DashScopeApi.Embedding;
+import io.micrometer.observation.ObservationRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -27,6 +28,7 @@ import org.springframework.ai.document.Document;
 import org.springframework.ai.document.MetadataMode;
 import org.springframework.ai.embedding.EmbeddingRequest;
 import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.retry.RetryUtils;
 import org.springframework.http.ResponseEntity;
 
 import java.util.Arrays;
@@ -98,6 +100,46 @@ class DashScopeEmbeddingModelTests {
 		assertThat(response.getResults().get(0).getIndex()).isEqualTo(0);
 	}
 
+	@Test
+	void testCachingModelCallsApiOncePerText() {
+		// Repeated texts are served from the cache of the caching subclass
+		float[] embeddingVector = { 0.1f, 0.2f, 0.3f };
+		EmbeddingList embeddingList = new EmbeddingList(TEST_REQUEST_ID, null, null,
+				new Embeddings(List.of(new Embedding(0, embeddingVector))), new EmbeddingUsage(10L));
+		when(dashScopeApi.embeddings(any())).thenReturn(ResponseEntity.ok(embeddingList));
+
+		CachingDashScopeEmbeddingModel cachingModel = new CachingDashScopeEmbeddingModel(dashScopeApi,
+				MetadataMode.EMBED, defaultOptions, RetryUtils.DEFAULT_RETRY_TEMPLATE, ObservationRegistry.NOOP, 16,
+				null);
+
+		assertThat(cachingModel.embed(TEST_TEXT)).containsExactly(embeddingVector);
+		assertThat(cachingModel.embed(TEST_TEXT)).containsExactly(embeddingVector);
+
+		Mockito.verify(dashScopeApi, Mockito.times(1)).embeddings(any());
+		assertThat(cachingModel.getStats().hits()).isEqualTo(1);
+	}
+
+	@Test
+	void testCachingModelKeysOnTextType() {
+		// A query and a document embedding of the same text are different vectors
+		float[] embeddingVector = { 0.1f, 0.2f, 0.3f };
+		EmbeddingList embeddingList = new EmbeddingList(TEST_REQUEST_ID, null, null,
+				new Embeddings(List.of(new Embedding(0, embeddingVector))), new EmbeddingUsage(10L));
+		when(dashScopeApi.embeddings(any())).thenReturn(ResponseEntity.ok(embeddingList));
+
+		CachingDashScopeEmbeddingModel cachingModel = new CachingDashScopeEmbeddingModel(dashScopeApi,
+				MetadataMode.EMBED, defaultOptions, RetryUtils.DEFAULT_RETRY_TEMPLATE, ObservationRegistry.NOOP, 16,
+				null);
+		DashScopeEmbeddingOptions queryOptions = DashScopeEmbeddingOptions.builder().withTextType("query").build();
+
+		cachingModel.embed(TEST_TEXT);
+		cachingModel.call(new EmbeddingRequest(List.of(TEST_TEXT), queryOptions));
+		cachingModel.call(new EmbeddingRequest(List.of(TEST_TEXT), queryOptions));
+
+		Mockito.verify(dashScopeApi, Mockito.times(2)).embeddings(any());
+		assertThat(cachingModel.getStats().hits()).isEqualTo(1);
+	}
+
 	@Test
 	void testMultipleEmbeddings() {
 		// Test embedding multiple texts
@@ -28,12 +28,18 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.ai.document.Document;
+import org.springframework.ai.retry.RetryUtils;
 import org.springframework.http.ResponseEntity;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -214,4 +220,135 @@ class DashScopeRerankModelTests {
 		assertThat(response.getResults().get(0).getScore()).isEqualTo(TEST_SCORE);
 	}
 
+	/**
+	 * Test that large requests are split into API-sized batches executed concurrently and
+	 * merged into a global top n.
+	 */
+	@Test
+	void testBatchedRerankMergesGlobalTopN() {
+		List<Document> documents = new ArrayList<>();
+		for (int i = 0; i < 25; i++) {
+			documents.add(new Document("doc-" + i, TEST_DOC_TEXT + i, new HashMap<>()));
+		}
+		List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+		when(dashScopeApi.rerankEntity(any())).thenAnswer(invocation -> {
+			DashScopeApi.RerankRequest apiRequest = invocation.getArgument(0);
+			batchSizes.add(apiRequest.input().documents().size());
+			return ResponseEntity.ok(scoreByNumber(apiRequest));
+		});
+
+		DashScopeRerankModel batchingModel = new DashScopeRerankModel(dashScopeApi, defaultOptions,
+				RetryUtils.DEFAULT_RETRY_TEMPLATE,
+				DashScopeRerankBatchOptions.builder().withMaxDocumentsPerRequest(10).withMaxConcurrency(3).build());
+
+		com.alibaba.cloud.ai.model.RerankResponse response = batchingModel
+			.call(new RerankRequest(TEST_QUERY, documents));
+
+		assertThat(batchSizes).containsExactlyInAnyOrder(10, 10, 5);
+		assertThat(response.getResults()).extracting(result -> result.getOutput().getId())
+			.containsExactly("doc-24", "doc-23", "doc-22");
+		assertThat(response.getMetadata().getUsage().getTotalTokens()).isEqualTo(90);
+	}
+
+	/**
+	 * Test that cached (query, document) scores skip the network.
+	 */
+	@Test
+	void testScoreCacheSkipsNetwork() {
+		List<Document> documents = List.of(new Document("doc-1", TEST_DOC_TEXT + 1, new HashMap<>()),
+				new Document("doc-2", TEST_DOC_TEXT + 2, new HashMap<>()));
+		AtomicInteger calls = new AtomicInteger();
+		when(dashScopeApi.rerankEntity(any())).thenAnswer(invocation -> {
+			calls.incrementAndGet();
+			return ResponseEntity.ok(scoreByNumber(invocation.getArgument(0)));
+		});
+
+		DashScopeRerankModel cachingModel = new DashScopeRerankModel(dashScopeApi, defaultOptions,
+				RetryUtils.DEFAULT_RETRY_TEMPLATE,
+				DashScopeRerankBatchOptions.builder().withScoreCacheSize(100).build());
+
+		cachingModel.call(new RerankRequest(TEST_QUERY, documents));
+		com.alibaba.cloud.ai.model.RerankResponse response = cachingModel
+			.call(new RerankRequest(TEST_QUERY, documents));
+
+		assertThat(calls.get()).isEqualTo(1);
+		assertThat(response.getResults()).extracting(result -> result.getOutput().getId())
+			.containsExactly("doc-2", "doc-1");
+	}
+
+	/**
+	 * Test that cached scores follow the document text, not its generated id.
+	 */
+	@Test
+	void testScoreCacheKeysOnDocumentText() {
+		AtomicInteger calls = new AtomicInteger();
+		when(dashScopeApi.rerankEntity(any())).thenAnswer(invocation -> {
+			calls.incrementAndGet();
+			return ResponseEntity.ok(scoreByNumber(invocation.getArgument(0)));
+		});
+
+		DashScopeRerankModel cachingModel = new DashScopeRerankModel(dashScopeApi, defaultOptions,
+				RetryUtils.DEFAULT_RETRY_TEMPLATE,
+				DashScopeRerankBatchOptions.builder().withScoreCacheSize(100).build());
+
+		cachingModel.call(new RerankRequest(TEST_QUERY, List.of(new Document(TEST_DOC_TEXT + 1))));
+		cachingModel.call(new RerankRequest(TEST_QUERY, List.of(new Document(TEST_DOC_TEXT + 1))));
+		assertThat(calls.get()).isEqualTo(1);
+
+		cachingModel.call(new RerankRequest(TEST_QUERY, List.of(new Document("doc-1", TEST_DOC_TEXT + 2, Map.of()))));
+		assertThat(calls.get()).isEqualTo(2);
+	}
+
+	/**
+	 * Test that destroy leaves a caller provided executor running.
+	 */
+	@Test
+	void testDestroyKeepsCallerExecutor() {
+		List<Document> documents = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			documents.add(new Document("doc-" + i, TEST_DOC_TEXT + i, new HashMap<>()));
+		}
+		when(dashScopeApi.rerankEntity(any()))
+			.thenAnswer(invocation -> ResponseEntity.ok(scoreByNumber(invocation.getArgument(0))));
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			DashScopeRerankModel model = new DashScopeRerankModel(dashScopeApi, defaultOptions,
+					RetryUtils.DEFAULT_RETRY_TEMPLATE,
+					DashScopeRerankBatchOptions.builder().withMaxDocumentsPerRequest(2).withMaxConcurrency(2).build(),
+					executor);
+
+			assertThat(model.call(new RerankRequest(TEST_QUERY, documents)).getResults()).hasSize(3);
+			model.destroy();
+			assertThat(executor.isShutdown()).isFalse();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Test that documents are truncated to the token budget.
+	 */
+	@Test
+	void testTruncatesLongDocuments() {
+		DashScopeRerankModel truncatingModel = new DashScopeRerankModel(dashScopeApi, defaultOptions,
+				RetryUtils.DEFAULT_RETRY_TEMPLATE,
+				DashScopeRerankBatchOptions.builder().withMaxTokensPerDocument(10).build());
+
+		String longText = "word ".repeat(100);
+
+		assertThat(truncatingModel.truncate("short")).isEqualTo("short");
+		assertThat(truncatingModel.truncate(longText)).hasSizeLessThan(longText.length()).startsWith("word word");
+	}
+
+	private static RerankResponse scoreByNumber(DashScopeApi.RerankRequest apiRequest) {
+		List<String> texts = apiRequest.input().documents();
+		List<RerankResponseOutputResult> results = new ArrayList<>();
+		for (int i = 0; i < texts.size(); i++) {
+			double score = Integer.parseInt(texts.get(i).substring(TEST_DOC_TEXT.length())) / 100.0;
+			results.add(new RerankResponseOutputResult(i, score, new HashMap<>()));
+		}
+		return new RerankResponse(new RerankResponseOutput(results), new TokenUsage(10, 20, 30), "test-request-id");
+	}
+
 }
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.embedding;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptionsBuilder;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link CachingEmbeddingModel}.
+ */
+class CachingEmbeddingModelTests {
+
+	@Test
+	void repeatedQueriesHitTheCache() {
+		CountingEmbeddingModel delegate = new CountingEmbeddingModel();
+		CachingEmbeddingModel model = CachingEmbeddingModel.builder().delegate(delegate).build();
+
+		float[] first = model.embed("what is spring ai");
+		float[] second = model.embed("what is spring ai");
+
+		assertThat(second).containsExactly(first);
+		assertThat(delegate.texts).containsExactly("what is spring ai");
+		assertThat(model.getStats().hits()).isEqualTo(1);
+		assertThat(model.getStats().misses()).isEqualTo(1);
+		assertThat(model.getStats().hitRatio()).isEqualTo(0.5);
+	}
+
+	@Test
+	void textIsKeyedExactly() {
+		CountingEmbeddingModel delegate = new CountingEmbeddingModel();
+		CachingEmbeddingModel model = CachingEmbeddingModel.builder().delegate(delegate).build();
+
+		model.embed("a b");
+		model.embed("a  b");
+		model.embed(" a b");
+
+		assertThat(delegate.texts).containsExactly("a b", "a  b", " a b");
+	}
+
+	@Test
+	void onlyMissesAreSentToTheDelegate() {
+		CountingEmbeddingModel delegate = new CountingEmbeddingModel();
+		CachingEmbeddingModel model = CachingEmbeddingModel.builder().delegate(delegate).build();
+		model.embed("a");
+
+		List<float[]> embeddings = model.embed(List.of("b", "a", "c", "b"));
+
+		assertThat(delegate.calls).isEqualTo(2);
+		assertThat(delegate.texts).containsExactly("a", "b", "c");
+		assertThat(embeddings).hasSize(4);
+		assertThat(embeddings.get(0)).containsExactly(CountingEmbeddingModel.vector("b"));
+		assertThat(embeddings.get(1)).containsExactly(CountingEmbeddingModel.vector("a"));
+		assertThat(embeddings.get(2)).containsExactly(CountingEmbeddingModel.vector("c"));
+		assertThat(embeddings.get(3)).containsExactly(CountingEmbeddingModel.vector("b"));
+	}
+
+	@Test
+	void modelAndDimensionsArePartOfTheKey() {
+		CountingEmbeddingModel delegate = new CountingEmbeddingModel();
+		CachingEmbeddingModel model = CachingEmbeddingModel.builder().delegate(delegate).build();
+
+		model.call(new EmbeddingRequest(List.of("a"), EmbeddingOptionsBuilder.builder().withModel("m1").build()));
+		model.call(new EmbeddingRequest(List.of("a"), EmbeddingOptionsBuilder.builder().withModel("m2").build()));
+		model.call(new EmbeddingRequest(List.of("a"),
+				EmbeddingOptionsBuilder.builder().withModel("m2").withDimensions(512).build()));
+		model.call(new EmbeddingRequest(List.of("a"), EmbeddingOptionsBuilder.builder().withModel("m1").build()));
+
+		assertThat(delegate.calls).isEqualTo(3);
+	}
+
+	@Test
+	void resolvedVariantIsPartOfTheKey(@TempDir Path dir) {
+		CountingEmbeddingModel delegate = new CountingEmbeddingModel();
+		Path file = dir.resolve("embeddings.bin");
+		CachingEmbeddingModel model = CachingEmbeddingModel.builder()
+			.delegate(delegate)
+			.variantResolver(options -> options != null ? options.getModel() : "default")
+			.persistentStore(new MappedFileEmbeddingStore(file, 1 << 16))
+			.build();
+
+		model.embed("a");
+		model.call(new EmbeddingRequest(List.of("a"), EmbeddingOptionsBuilder.builder().withModel("query").build()));
+		model.call(new EmbeddingRequest(List.of("a"), EmbeddingOptionsBuilder.builder().withModel("query").build()));
+		model.destroy();
+
+		assertThat(delegate.calls).isEqualTo(2);
+		MappedFileEmbeddingStore store = new MappedFileEmbeddingStore(file, 1 << 16);
+		assertThat(store.size()).isEqualTo(2);
+		assertThat(store.get(EmbeddingCacheKey.of("query", null, "query", "a"))).isNotNull();
+		assertThat(store.get(EmbeddingCacheKey.of("query", null, "a"))).isNull();
+		store.close();
+	}
+
+	@Test
+	void leastRecentlyUsedEntriesAreEvicted() {
+		CountingEmbeddingModel delegate = new CountingEmbeddingModel();
+		CachingEmbeddingModel model = CachingEmbeddingModel.builder().delegate(delegate).maxEntries(2).build();
+
+		model.embed("a");
+		model.embed("b");
+		model.embed("a");
+		model.embed("c");
+		model.embed("a");
+		model.embed("b");
+
+		assertThat(delegate.texts).containsExactly("a", "b", "c", "b");
+		assertThat(model.getStats().evictions()).isEqualTo(2);
+		assertThat(model.getStats().size()).isEqualTo(2);
+	}
+
+	@Test
+	void cachedArraysAreNotExposed() {
+		CachingEmbeddingModel model = CachingEmbeddingModel.builder().delegate(new CountingEmbeddingModel()).build();
+
+		float[] first = model.embed("a");
+		first[0] = -1;
+
+		assertThat(model.embed("a")[0]).isNotEqualTo(-1);
+	}
+
+	@Test
+	void persistentTierSurvivesRestart(@TempDir Path dir) {
+		Path file = dir.resolve("embeddings.bin");
+		CountingEmbeddingModel delegate = new CountingEmbeddingModel();
+
+		CachingEmbeddingModel model = CachingEmbeddingModel.builder()
+			.delegate(delegate)
+			.persistentStore(new MappedFileEmbeddingStore(file, 1 << 16))
+			.build();
+		model.embed(List.of("a", "b"));
+		model.destroy();
+
+		CachingEmbeddingModel reopened = CachingEmbeddingModel.builder()
+			.delegate(delegate)
+			.persistentStore(new MappedFileEmbeddingStore(file, 1 << 16))
+			.build();
+		assertThat(reopened.embed("b")).containsExactly(CountingEmbeddingModel.vector("b"));
+		assertThat(reopened.getStats().persistentHits()).isEqualTo(1);
+		assertThat(delegate.calls).isEqualTo(1);
+		reopened.destroy();
+	}
+
+	@Test
+	void fullPersistentStoreKeepsExistingEntries(@TempDir Path dir) {
+		MappedFileEmbeddingStore store = new MappedFileEmbeddingStore(dir.resolve("small.bin"), 64);
+
+		assertThat(store.put(EmbeddingCacheKey.of("m", null, "a"), new float[] { 1f, 2f })).isTrue();
+		assertThat(store.put(EmbeddingCacheKey.of("m", null, "b"), new float[16])).isFalse();
+		assertThat(store.get(EmbeddingCacheKey.of("m", null, "a"))).containsExactly(1f, 2f);
+		assertThat(store.get(EmbeddingCacheKey.of("m", null, "b"))).isNull();
+		store.close();
+	}
+
+	@Test
+	void storeLargerThanTwoGigabytesIsRejected(@TempDir Path dir) throws IOException {
+		Path file = dir.resolve("large.bin");
+		try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+			raf.setLength(Integer.MAX_VALUE + 1L);
+		}
+
+		assertThatThrownBy(() -> new MappedFileEmbeddingStore(file, 1 << 16)).isInstanceOf(IllegalStateException.class)
+			.hasMessageContaining("larger than");
+	}
+
+	static class CountingEmbeddingModel implements EmbeddingModel {
+
+		int calls;
+
+		final List<String> texts = new ArrayList<>();
+
+		static float[] vector(String text) {
+			return new float[] { text.hashCode(), text.length(), 1f };
+		}
+
+		@Override
+		public EmbeddingResponse call(EmbeddingRequest request) {
+			this.calls++;
+			List<Embedding> embeddings = new ArrayList<>();
+			for (int i = 0; i < request.getInstructions().size(); i++) {
+				String text = request.getInstructions().get(i);
+				this.texts.add(text);
+				embeddings.add(new Embedding(vector(text), i));
+			}
+			return new EmbeddingResponse(embeddings);
+		}
+
+		@Override
+		public float[] embed(Document document) {
+			return embed(document.getText());
+		}
+
+	}
+
+}
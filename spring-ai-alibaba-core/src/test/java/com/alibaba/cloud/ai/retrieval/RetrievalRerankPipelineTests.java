@@ -0,0 +1,227 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.retrieval;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import com.alibaba.cloud.ai.document.DocumentWithScore;
+import com.alibaba.cloud.ai.model.RerankModel;
+import com.alibaba.cloud.ai.model.RerankRequest;
+import com.alibaba.cloud.ai.model.RerankResponse;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.rag.Query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link RetrievalRerankPipeline}.
+ */
+class RetrievalRerankPipelineTests {
+
+	private static final Query QUERY = new Query("spring ai");
+
+	@Test
+	void fusesRankingsOfAllRetrievers() {
+		RetrievalRerankPipeline pipeline = RetrievalRerankPipeline.builder()
+			.retriever(query -> docs("a", "b", "c"))
+			.retriever(query -> docs("c", "d"))
+			.topK(4)
+			.build();
+
+		RetrievalResult result = pipeline.retrieve(QUERY);
+
+		assertThat(ids(result.documents())).containsExactly("c", "a", "b", "d");
+		assertThat(result.rerankedCount()).isZero();
+	}
+
+	@Test
+	void failingRetrieverDoesNotFailThePipeline() {
+		RetrievalRerankPipeline pipeline = RetrievalRerankPipeline.builder().retriever(query -> {
+			throw new IllegalStateException("store down");
+		}).retriever(query -> docs("a", "b")).build();
+
+		assertThat(ids(pipeline.retrieve(QUERY).documents())).containsExactly("a", "b");
+	}
+
+	@Test
+	void retrieversRunConcurrently() {
+		CountDownLatch latch = new CountDownLatch(2);
+		RetrievalRerankPipeline pipeline = RetrievalRerankPipeline.builder().retriever(query -> {
+			awaitOther(latch);
+			return docs("a");
+		}).retriever(query -> {
+			awaitOther(latch);
+			return docs("b");
+		}).build();
+
+		RetrievalResult result = pipeline.retrieve(QUERY);
+
+		assertThat(ids(result.documents())).containsExactlyInAnyOrder("a", "b");
+		assertThat(result.retrieveLatency()).isLessThan(Duration.ofSeconds(5));
+	}
+
+	@Test
+	void reranksInBoundedBatchesAndKeepsGlobalTopK() {
+		ScoringRerankModel rerankModel = new ScoringRerankModel();
+		List<String> ids = IntStream.range(0, 50).mapToObj(i -> "d" + i).toList();
+		RetrievalRerankPipeline pipeline = RetrievalRerankPipeline.builder()
+			.retriever(query -> docs(ids.toArray(String[]::new)))
+			.rerankModel(rerankModel)
+			.topK(3)
+			.batchSize(10)
+			.maxConcurrentBatches(2)
+			.earlyStopWaves(0)
+			.minScore(0.1)
+			.build();
+
+		RetrievalResult result = pipeline.retrieve(QUERY);
+
+		assertThat(rerankModel.calls.get()).isEqualTo(5);
+		assertThat(rerankModel.maxBatchSize.get()).isEqualTo(10);
+		assertThat(result.rerankedCount()).isEqualTo(50);
+		assertThat(ids(result.documents())).containsExactly("d49", "d48", "d47");
+		assertThat(result.results().get(0).getScore()).isGreaterThan(result.results().get(2).getScore());
+	}
+
+	@Test
+	void stopsOnceTopKIsStable() {
+		ScoringRerankModel rerankModel = new ScoringRerankModel(true);
+		List<String> ids = IntStream.range(0, 100).mapToObj(i -> "d" + i).toList();
+		RetrievalRerankPipeline pipeline = RetrievalRerankPipeline.builder()
+			.retriever(query -> docs(ids.toArray(String[]::new)))
+			.rerankModel(rerankModel)
+			.topK(3)
+			.batchSize(10)
+			.maxConcurrentBatches(1)
+			.earlyStopWaves(2)
+			.build();
+
+		RetrievalResult result = pipeline.retrieve(QUERY);
+
+		assertThat(rerankModel.calls.get()).isEqualTo(3);
+		assertThat(result.rerankedCount()).isEqualTo(30);
+		assertThat(ids(result.documents())).containsExactly("d0", "d1", "d2");
+	}
+
+	@Test
+	void fallsBackToFusedRankingWhenRerankFails() {
+		RetrievalRerankPipeline pipeline = RetrievalRerankPipeline.builder()
+			.retriever(query -> docs("a", "b", "c"))
+			.rerankModel(request -> {
+				throw new IllegalStateException("rerank down");
+			})
+			.topK(2)
+			.build();
+
+		assertThat(ids(pipeline.retrieve(QUERY).documents())).containsExactly("a", "b");
+	}
+
+	@Test
+	void closeReleasesOnlyTheDefaultExecutor() throws Exception {
+		ExecutorService callerExecutor = Executors.newSingleThreadExecutor();
+		try {
+			RetrievalRerankPipeline shared = RetrievalRerankPipeline.builder()
+				.retriever(query -> docs("a"))
+				.executor(callerExecutor)
+				.build();
+			shared.close();
+			assertThat(callerExecutor.isShutdown()).isFalse();
+			assertThat(ids(shared.retrieve(QUERY).documents())).containsExactly("a");
+		}
+		finally {
+			callerExecutor.shutdownNow();
+		}
+
+		Set<Thread> poolThreads = ConcurrentHashMap.newKeySet();
+		RetrievalRerankPipeline owned = RetrievalRerankPipeline.builder().retriever(query -> {
+			poolThreads.add(Thread.currentThread());
+			return docs("a");
+		}).build();
+		owned.retrieve(QUERY);
+		owned.close();
+		for (Thread thread : poolThreads) {
+			thread.join(5000);
+			assertThat(thread.isAlive()).isFalse();
+		}
+	}
+
+	private static void awaitOther(CountDownLatch latch) {
+		latch.countDown();
+		try {
+			assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static List<Document> docs(String... ids) {
+		List<Document> documents = new ArrayList<>();
+		for (String id : ids) {
+			documents.add(Document.builder().id(id).text("text of " + id).build());
+		}
+		return documents;
+	}
+
+	private static List<String> ids(List<Document> documents) {
+		return documents.stream().map(Document::getId).toList();
+	}
+
+	/**
+	 * Scores documents by the number in their id, either ascending or descending.
+	 */
+	static class ScoringRerankModel implements RerankModel {
+
+		final AtomicInteger calls = new AtomicInteger();
+
+		final AtomicInteger maxBatchSize = new AtomicInteger();
+
+		private final boolean descending;
+
+		ScoringRerankModel() {
+			this(false);
+		}
+
+		ScoringRerankModel(boolean descending) {
+			this.descending = descending;
+		}
+
+		@Override
+		public RerankResponse call(RerankRequest request) {
+			this.calls.incrementAndGet();
+			this.maxBatchSize.accumulateAndGet(request.getInstructions().size(), Math::max);
+			return new RerankResponse(request.getInstructions().stream().map(doc -> {
+				int n = Integer.parseInt(doc.getId().substring(1));
+				double score = this.descending ? 1.0 - n / 1000.0 : n / 100.0;
+				return DocumentWithScore.builder().withDocument(doc).withScore(score).build();
+			}).toList());
+		}
+
+	}
+
+}
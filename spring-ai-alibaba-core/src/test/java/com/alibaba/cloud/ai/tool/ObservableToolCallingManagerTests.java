@@ -0,0 +1,235 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.tool;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import io.micrometer.observation.tck.TestObservationRegistry;
+import io.micrometer.observation.tck.TestObservationRegistryAssert;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.ai.model.tool.ToolExecutionResult;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ObservableToolCallingManager}.
+ */
+class ObservableToolCallingManagerTests {
+
+	private final TestObservationRegistry observationRegistry = TestObservationRegistry.create();
+
+	@Test
+	void executesToolCallsSequentiallyByDefault() {
+		ObservableToolCallingManager manager = ObservableToolCallingManager.builder()
+			.observationRegistry(observationRegistry)
+			.build();
+
+		ToolResponseMessage response = execute(manager, tool("upper", String::toUpperCase),
+				tool("reverse", args -> new StringBuilder(args).reverse().toString()));
+
+		assertThat(response.getResponses()).extracting(ToolResponseMessage.ToolResponse::responseData)
+			.containsExactly("A", "b", "C");
+		TestObservationRegistryAssert.assertThat(observationRegistry).hasNumberOfObservationsEqualTo(3);
+	}
+
+	@Test
+	void parallelToolCallsRunConcurrentlyAndKeepCallOrder() {
+		CountDownLatch latch = new CountDownLatch(3);
+		Function<String, String> awaitAll = args -> {
+			latch.countDown();
+			try {
+				return latch.await(5, TimeUnit.SECONDS) ? args : "timeout";
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return "interrupted";
+			}
+		};
+		ObservableToolCallingManager manager = ObservableToolCallingManager.builder()
+			.observationRegistry(observationRegistry)
+			.parallelToolExecution(true)
+			.build();
+
+		ToolResponseMessage response = execute(manager, tool("upper", awaitAll), tool("reverse", awaitAll));
+
+		assertThat(response.getResponses()).extracting(ToolResponseMessage.ToolResponse::id)
+			.containsExactly("1", "2", "3");
+		assertThat(response.getResponses()).extracting(ToolResponseMessage.ToolResponse::responseData)
+			.containsExactly("a", "b", "c");
+		TestObservationRegistryAssert.assertThat(observationRegistry).hasNumberOfObservationsEqualTo(3);
+	}
+
+	@Test
+	void slowToolCallTimesOutWithoutFailingTheOthers() {
+		ObservableToolCallingManager manager = ObservableToolCallingManager.builder()
+			.parallelToolExecution(true)
+			.toolExecutionTimeout(Duration.ofMillis(200))
+			.build();
+
+		ToolResponseMessage response = execute(manager, tool("upper", String::toUpperCase), tool("reverse", args -> {
+			try {
+				Thread.sleep(5000);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return args;
+		}));
+
+		assertThat(response.getResponses().get(0).responseData()).isEqualTo("A");
+		assertThat(response.getResponses().get(1).responseData()).contains("timed out");
+		assertThat(response.getResponses().get(2).responseData()).isEqualTo("C");
+	}
+
+	@Test
+	void sequentialToolCallTimesOut() throws Exception {
+		CountDownLatch interrupted = new CountDownLatch(1);
+		ObservableToolCallingManager manager = ObservableToolCallingManager.builder()
+			.observationRegistry(observationRegistry)
+			.toolExecutionTimeout(Duration.ofMillis(200))
+			.build();
+
+		ToolResponseMessage response = execute(manager, tool("upper", String::toUpperCase), tool("reverse", args -> {
+			try {
+				Thread.sleep(5000);
+			}
+			catch (InterruptedException e) {
+				interrupted.countDown();
+			}
+			return args;
+		}));
+
+		assertThat(response.getResponses()).extracting(ToolResponseMessage.ToolResponse::responseData)
+			.containsExactly("A", "Tool call reverse timed out after 200ms", "C");
+		assertThat(interrupted.await(2, TimeUnit.SECONDS)).isTrue();
+		TestObservationRegistryAssert.assertThat(observationRegistry).hasNumberOfObservationsEqualTo(3);
+	}
+
+	@Test
+	void eachToolCallGetsItsOwnTimeout() {
+		// One worker: the second call waits for the first and still gets its full timeout
+		ExecutorService singleWorker = Executors.newSingleThreadExecutor();
+		Function<String, String> slow = args -> {
+			try {
+				Thread.sleep(150);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return args;
+		};
+		ObservableToolCallingManager manager = ObservableToolCallingManager.builder()
+			.parallelToolExecution(true)
+			.executor(singleWorker)
+			.toolExecutionTimeout(Duration.ofMillis(400))
+			.build();
+
+		try {
+			ToolResponseMessage response = execute(manager, tool("upper", slow), tool("reverse", slow));
+
+			assertThat(response.getResponses()).extracting(ToolResponseMessage.ToolResponse::responseData)
+				.containsExactly("a", "b", "c");
+		}
+		finally {
+			singleWorker.shutdownNow();
+		}
+	}
+
+	@Test
+	void timedOutToolCallsAreInterrupted() throws Exception {
+		CountDownLatch interrupted = new CountDownLatch(3);
+		Function<String, String> slow = args -> {
+			try {
+				Thread.sleep(5000);
+			}
+			catch (InterruptedException e) {
+				interrupted.countDown();
+			}
+			return args;
+		};
+		ObservableToolCallingManager manager = ObservableToolCallingManager.builder()
+			.parallelToolExecution(true)
+			.toolExecutionTimeout(Duration.ofMillis(300))
+			.build();
+
+		long start = System.nanoTime();
+		ToolResponseMessage response = execute(manager, tool("upper", slow), tool("reverse", slow));
+		long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		assertThat(response.getResponses()).extracting(ToolResponseMessage.ToolResponse::responseData)
+			.allMatch(data -> data.contains("timed out"));
+		assertThat(elapsedMillis).isLessThan(800);
+		assertThat(interrupted.await(2, TimeUnit.SECONDS)).isTrue();
+	}
+
+	private static ToolResponseMessage execute(ObservableToolCallingManager manager, ToolCallback upper,
+			ToolCallback reverse) {
+		Prompt prompt = new Prompt(new UserMessage("go"),
+				ToolCallingChatOptions.builder().toolCallbacks(upper, reverse).build());
+		AssistantMessage assistantMessage = new AssistantMessage("", Map.of(),
+				List.of(new AssistantMessage.ToolCall("1", "function", "upper", "a"),
+						new AssistantMessage.ToolCall("2", "function", "reverse", "b"),
+						new AssistantMessage.ToolCall("3", "function", "upper", "c")));
+
+		ToolExecutionResult result = manager.executeToolCalls(prompt,
+				new ChatResponse(List.of(new Generation(assistantMessage))));
+
+		List<Message> history = result.conversationHistory();
+		return (ToolResponseMessage) history.get(history.size() - 1);
+	}
+
+	private static ToolCallback tool(String name, Function<String, String> function) {
+		ToolDefinition definition = ToolDefinition.builder().name(name).description(name).inputSchema("{}").build();
+		return new ToolCallback() {
+
+			@Override
+			public ToolDefinition getToolDefinition() {
+				return definition;
+			}
+
+			@Override
+			public String call(String toolInput) {
+				return function.apply(toolInput);
+			}
+
+			@Override
+			public String call(String toolInput, ToolContext toolContext) {
+				return call(toolInput);
+			}
+
+		};
+	}
+
+}
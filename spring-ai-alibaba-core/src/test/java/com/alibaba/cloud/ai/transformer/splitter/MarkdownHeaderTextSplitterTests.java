@@ -0,0 +1,121 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.transformer.splitter;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the streaming mode of {@link MarkdownHeaderTextSplitter}.
+ *
+ * @since 1.0.0.2
+ */
+class MarkdownHeaderTextSplitterTests {
+
+	private static final String MARKDOWN = """
+			# Guide
+
+			Introduction paragraph of the guide.
+
+			## Install
+
+			Download the archive and unpack it.
+
+			### Linux
+
+			Use the tarball on Linux systems.
+
+			## Usage
+
+			Run the binary with the config file.
+			""";
+
+	@Test
+	void streamingMatchesInMemorySplitForSmallSections() throws IOException {
+		MarkdownHeaderTextSplitter splitter = new MarkdownHeaderTextSplitter(
+				MarkdownHeaderTextSplitter.SplitConfig.builder().minChunkSize(0).build());
+
+		List<String> streamed = new ArrayList<>();
+		splitter.streamChunks(new StringReader(MARKDOWN), null, chunk -> streamed.add(chunk.getContent()));
+
+		assertThat(streamed).containsExactlyElementsOf(splitter.splitToPureContent(MARKDOWN, null));
+	}
+
+	@Test
+	void tracksHeaderPathIncrementally() throws IOException {
+		MarkdownHeaderTextSplitter splitter = new MarkdownHeaderTextSplitter(
+				MarkdownHeaderTextSplitter.SplitConfig.builder()
+					.headerLevel(3)
+					.minChunkSize(0)
+					.headerPathMode(MarkdownHeaderTextSplitter.HeaderPathMode.METADATA)
+					.build());
+
+		List<Document> documents = new ArrayList<>();
+		splitter.streamDocuments(new StringReader(MARKDOWN), Map.of("source", "guide.md"), documents::add);
+
+		assertThat(documents).extracting(document -> document.getMetadata().get("header_path"))
+			.containsExactly("Guide", "Guide > Install", "Guide > Install > Linux", "Guide > Usage");
+		assertThat(documents)
+			.allSatisfy(document -> assertThat(document.getMetadata()).containsEntry("source", "guide.md"));
+		assertThat(documents.get(2).getText()).startsWith("### Linux");
+	}
+
+	@Test
+	void oversizedSectionIsSplitAtParagraphBoundaries() throws IOException {
+		StringBuilder markdown = new StringBuilder("## Big\n\n");
+		for (int i = 0; i < 200; i++) {
+			markdown.append("Paragraph ").append(i).append(" has some text in it.\n\n");
+		}
+		MarkdownHeaderTextSplitter splitter = new MarkdownHeaderTextSplitter(
+				MarkdownHeaderTextSplitter.SplitConfig.builder().maxChunkSize(200).minChunkSize(0).build());
+
+		List<MarkdownHeaderTextSplitter.DocumentChunk> chunks = new ArrayList<>();
+		splitter.streamChunks(new StringReader(markdown.toString()), null, chunks::add);
+
+		assertThat(chunks).hasSizeGreaterThan(10);
+		assertThat(chunks).allSatisfy(chunk -> {
+			assertThat(chunk.getContent().length()).isLessThanOrEqualTo(200);
+			assertThat(chunk.getContent()).endsWith("in it.");
+		});
+		assertThat(chunks.get(0).getTitle()).isEqualTo("Big");
+		assertThat(chunks.get(1).getTitle()).isEqualTo("Big (第2部分)");
+		assertThat(
+				String.join("\n\n", chunks.stream().map(MarkdownHeaderTextSplitter.DocumentChunk::getContent).toList()))
+			.isEqualTo(markdown.toString().trim());
+	}
+
+	@Test
+	void veryLongLineStaysBoundedByMaxChunkSize() throws IOException {
+		String markdown = "# Title\n" + "x".repeat(10_000);
+		MarkdownHeaderTextSplitter splitter = new MarkdownHeaderTextSplitter(
+				MarkdownHeaderTextSplitter.SplitConfig.builder().maxChunkSize(500).minChunkSize(0).build());
+
+		List<String> contents = new ArrayList<>();
+		splitter.streamChunks(new StringReader(markdown), null, chunk -> contents.add(chunk.getContent()));
+
+		assertThat(contents).allSatisfy(content -> assertThat(content.length()).isLessThanOrEqualTo(500));
+		assertThat(String.join("", contents)).isEqualTo("# Title" + "x".repeat(10_000));
+	}
+
+}
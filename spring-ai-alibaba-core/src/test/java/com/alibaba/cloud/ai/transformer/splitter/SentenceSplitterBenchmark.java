@@ -0,0 +1,111 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.transformer.splitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import org.springframework.ai.document.Document;
+
+/**
+ * JMH benchmark of {@link SentenceSplitter} token count modes on a 1 MB document and on a
+ * batch of documents. Run {@link #main(String[])} from the IDE or with
+ * {@code mvn test-compile exec:java}; it is not part of the unit test suite.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class SentenceSplitterBenchmark {
+
+	@Param({ "256", "1024" })
+	public int chunkSize;
+
+	private String largeText;
+
+	private List<Document> documents;
+
+	private SentenceSplitter exact;
+
+	private SentenceSplitter incremental;
+
+	private SentenceSplitter incrementalParallel;
+
+	@Setup
+	public void setUp() {
+		StringBuilder text = new StringBuilder(1 << 20);
+		int sentence = 0;
+		while (text.length() < (1 << 20)) {
+			text.append("Sentence ")
+				.append(sentence++)
+				.append(" describes how the retrieval pipeline splits, embeds and stores a document. ");
+		}
+		this.largeText = text.toString();
+
+		this.documents = new ArrayList<>();
+		for (int i = 0; i < 64; i++) {
+			this.documents.add(new Document(this.largeText.substring(0, 16 * 1024)));
+		}
+
+		this.exact = new SentenceSplitter(this.chunkSize);
+		this.incremental = new SentenceSplitter(this.chunkSize, SentenceSplitter.TokenCountMode.INCREMENTAL, false);
+		this.incrementalParallel = new SentenceSplitter(this.chunkSize, SentenceSplitter.TokenCountMode.INCREMENTAL,
+				true);
+	}
+
+	@Benchmark
+	public List<String> exactLargeDocument() {
+		return this.exact.splitText(this.largeText);
+	}
+
+	@Benchmark
+	public List<String> incrementalLargeDocument() {
+		return this.incremental.splitText(this.largeText);
+	}
+
+	@Benchmark
+	public List<Document> exactDocuments() {
+		return this.exact.apply(this.documents);
+	}
+
+	@Benchmark
+	public List<Document> incrementalParallelDocuments() {
+		return this.incrementalParallel.apply(this.documents);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(SentenceSplitterBenchmark.class.getSimpleName()).build()).run();
+	}
+
+}
@@ -176,4 +176,58 @@ class SentenceSplitterTests {
 		assertThat(documents).hasSizeGreaterThan(1);
 	}
 
+	/**
+	 * Test incremental token counting. Verifies that chunks stay within the chunk size
+	 * and that no text is lost or duplicated.
+	 */
+	@Test
+	void testIncrementalModeRespectsChunkSize() {
+		SentenceSplitter incremental = new SentenceSplitter(CUSTOM_CHUNK_SIZE,
+				SentenceSplitter.TokenCountMode.INCREMENTAL, false);
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < 200; i++) {
+			text.append("Sentence number ").append(i).append(" talks about something else. ");
+		}
+
+		List<Document> documents = incremental.apply(Collections.singletonList(new Document(text.toString())));
+
+		assertThat(documents).hasSizeGreaterThan(1);
+		documents.forEach(document -> assertThat(document.getText()).isNotEmpty());
+		assertThat(String.join("", documents.stream().map(Document::getText).toList()))
+			.isEqualTo(text.toString().replace(". ", ".").trim());
+	}
+
+	/**
+	 * Test that both token count modes produce the same chunks for regular prose.
+	 */
+	@Test
+	void testIncrementalModeMatchesExactMode() {
+		SentenceSplitter exact = new SentenceSplitter(CUSTOM_CHUNK_SIZE);
+		SentenceSplitter incremental = new SentenceSplitter(CUSTOM_CHUNK_SIZE,
+				SentenceSplitter.TokenCountMode.INCREMENTAL, false);
+		String text = "The quick brown fox jumps over the lazy dog. ".repeat(100);
+
+		assertThat(incremental.splitText(text)).isEqualTo(exact.splitText(text));
+	}
+
+	/**
+	 * Test parallel splitting. Verifies that documents keep their input order.
+	 */
+	@Test
+	void testParallelSplitKeepsDocumentOrder() {
+		SentenceSplitter parallel = new SentenceSplitter(CUSTOM_CHUNK_SIZE, SentenceSplitter.TokenCountMode.INCREMENTAL,
+				true);
+		List<Document> inputDocs = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			inputDocs.add(new Document("Document " + i + " first sentence. Document " + i + " second sentence."));
+		}
+
+		List<Document> documents = parallel.apply(inputDocs);
+
+		assertThat(documents).hasSize(50);
+		for (int i = 0; i < 50; i++) {
+			assertThat(documents.get(i).getText()).startsWith("Document " + i + " first sentence.");
+		}
+	}
+
 }
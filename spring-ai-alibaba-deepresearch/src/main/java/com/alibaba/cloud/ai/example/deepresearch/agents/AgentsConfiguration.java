@@ -16,7 +16,6 @@
 
 package com.alibaba.cloud.ai.example.deepresearch.agents;
 
-import com.alibaba.cloud.ai.example.deepresearch.config.PythonCoderProperties;
 import com.alibaba.cloud.ai.example.deepresearch.tool.PlannerTool;
 import com.alibaba.cloud.ai.example.deepresearch.tool.PythonReplTool;
 import com.alibaba.cloud.ai.example.deepresearch.util.ResourceUtil;
@@ -108,11 +107,11 @@ public class AgentsConfiguration {
 	 * @return ChatClient
 	 */
 	@Bean
-	public ChatClient coderAgent(ChatClient.Builder coderChatClientBuilder, PythonCoderProperties coderProperties) {
+	public ChatClient coderAgent(ChatClient.Builder coderChatClientBuilder, PythonReplTool pythonReplTool) {
 		ToolCallback[] mcpCallbacks = getMcpToolCallbacks("coderAgent");
 
 		return coderChatClientBuilder.defaultSystem(ResourceUtil.loadResourceAsString(coderPrompt))
-			.defaultTools(new PythonReplTool(coderProperties))
+			.defaultTools(pythonReplTool)
 			.defaultToolCallbacks(mcpCallbacks)
 			.build();
 	}
@@ -22,6 +22,7 @@ import com.alibaba.cloud.ai.example.deepresearch.dispatcher.HumanFeedbackDispatc
 import com.alibaba.cloud.ai.example.deepresearch.dispatcher.InformationDispatcher;
 import com.alibaba.cloud.ai.example.deepresearch.dispatcher.ResearchTeamDispatcher;
 import com.alibaba.cloud.ai.example.deepresearch.model.ParallelEnum;
+import com.alibaba.cloud.ai.example.deepresearch.model.dto.Plan;
 import com.alibaba.cloud.ai.example.deepresearch.node.BackgroundInvestigationNode;
 import com.alibaba.cloud.ai.example.deepresearch.node.CoderNode;
 import com.alibaba.cloud.ai.example.deepresearch.node.CoordinatorNode;
@@ -33,6 +34,7 @@ import com.alibaba.cloud.ai.example.deepresearch.node.RagNode;
 import com.alibaba.cloud.ai.example.deepresearch.node.ReporterNode;
 import com.alibaba.cloud.ai.example.deepresearch.node.ResearchTeamNode;
 import com.alibaba.cloud.ai.example.deepresearch.node.ResearcherNode;
+import com.alibaba.cloud.ai.example.deepresearch.node.StepScheduler;
 import com.alibaba.cloud.ai.example.deepresearch.service.ReportService;
 
 import com.alibaba.cloud.ai.example.deepresearch.serializer.DeepResearchStateSerializer;
@@ -68,7 +70,7 @@ import static com.alibaba.cloud.ai.graph.action.AsyncNodeAction.node_async;
  */
 @Configuration
 @EnableConfigurationProperties({ DeepResearchProperties.class, PythonCoderProperties.class,
-		McpAssignNodeProperties.class, RagProperties.class })
+		McpAssignNodeProperties.class, RagProperties.class, GraphStreamProperties.class })
 public class DeepResearchConfiguration {
 
 	private static final Logger logger = LoggerFactory.getLogger(DeepResearchConfiguration.class);
@@ -103,6 +105,23 @@ public class DeepResearchConfiguration {
 	@Autowired
 	private ReportService reportService;
 
+	/**
+	 * 研究者和编码者节点共享的步骤队列
+	 */
+	@Bean
+	public StepScheduler stepScheduler() {
+		Map<Plan.StepType, Integer> concurrencyLimits = new HashMap<>();
+		Map<String, Integer> stepConcurrencyLimit = deepResearchProperties.getStepConcurrencyLimit();
+		if (stepConcurrencyLimit.containsKey(ParallelEnum.RESEARCHER.getValue())) {
+			concurrencyLimits.put(Plan.StepType.RESEARCH, stepConcurrencyLimit.get(ParallelEnum.RESEARCHER.getValue()));
+		}
+		if (stepConcurrencyLimit.containsKey(ParallelEnum.CODER.getValue())) {
+			concurrencyLimits.put(Plan.StepType.PROCESSING, stepConcurrencyLimit.get(ParallelEnum.CODER.getValue()));
+		}
+		return new StepScheduler(concurrencyLimits, deepResearchProperties.getStepTimeout(),
+				deepResearchProperties.getStepMaxRetries());
+	}
+
 	@Bean
 	public StateGraph deepResearch(ChatClient researchAgent) throws GraphStateException {
 
@@ -155,7 +174,7 @@ public class DeepResearchConfiguration {
 			.addNode("information", node_async((new InformationNode())))
 			.addNode("human_feedback", node_async(new HumanFeedbackNode()))
 			.addNode("research_team", node_async(new ResearchTeamNode()))
-			.addNode("parallel_executor", node_async(new ParallelExecutorNode(deepResearchProperties)))
+			.addNode("parallel_executor", node_async(new ParallelExecutorNode(stepScheduler())))
 			.addNode("reporter", node_async((new ReporterNode(reporterAgent, reportService))))
 			.addNode("rag_node", node_async(new RagNode(retrievalAugmentationAdvisor, researchAgent)));
 
@@ -196,7 +215,8 @@ public class DeepResearchConfiguration {
 		for (int i = 0; i < deepResearchProperties.getParallelNodeCount()
 			.get(ParallelEnum.RESEARCHER.getValue()); i++) {
 			String nodeId = "researcher_" + i;
-			stateGraph.addNode(nodeId, node_async(new ResearcherNode(researchAgent, String.valueOf(i))));
+			stateGraph.addNode(nodeId,
+					node_async(new ResearcherNode(researchAgent, String.valueOf(i), stepScheduler())));
 			stateGraph.addEdge("parallel_executor", nodeId).addEdge(nodeId, "research_team");
 		}
 	}
@@ -204,7 +224,7 @@ public class DeepResearchConfiguration {
 	private void addCoderNodes(StateGraph stateGraph) throws GraphStateException {
 		for (int i = 0; i < deepResearchProperties.getParallelNodeCount().get(ParallelEnum.CODER.getValue()); i++) {
 			String nodeId = "coder_" + i;
-			stateGraph.addNode(nodeId, node_async(new CoderNode(coderAgent, String.valueOf(i))));
+			stateGraph.addNode(nodeId, node_async(new CoderNode(coderAgent, String.valueOf(i), stepScheduler())));
 			stateGraph.addEdge("parallel_executor", nodeId).addEdge(nodeId, "research_team");
 		}
 	}
@@ -16,9 +16,11 @@
 
 package com.alibaba.cloud.ai.example.deepresearch.config;
 
+import com.alibaba.cloud.ai.example.deepresearch.node.StepScheduler;
 import com.google.common.collect.Maps;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -42,6 +44,22 @@ public class DeepResearchProperties {
 	 */
 	private Map<String, Set<String>> mcpClientMapping = Maps.newHashMap();
 
+	/**
+	 * Max steps running at the same time, key=node name, value=step count. Defaults to
+	 * the parallel node count
+	 */
+	private Map<String, Integer> stepConcurrencyLimit = new HashMap<>();
+
+	/**
+	 * Time a step may run before it is failed and retried
+	 */
+	private Duration stepTimeout = StepScheduler.DEFAULT_STEP_TIMEOUT;
+
+	/**
+	 * Times a failed step is retried before its failure is reported
+	 */
+	private int stepMaxRetries = StepScheduler.DEFAULT_MAX_RETRIES;
+
 	public Map<String, Integer> getParallelNodeCount() {
 		return parallelNodeCount;
 	}
@@ -58,4 +76,28 @@ public class DeepResearchProperties {
 		this.mcpClientMapping = mcpClientMapping;
 	}
 
+	public Map<String, Integer> getStepConcurrencyLimit() {
+		return stepConcurrencyLimit;
+	}
+
+	public void setStepConcurrencyLimit(Map<String, Integer> stepConcurrencyLimit) {
+		this.stepConcurrencyLimit = stepConcurrencyLimit;
+	}
+
+	public Duration getStepTimeout() {
+		return stepTimeout;
+	}
+
+	public void setStepTimeout(Duration stepTimeout) {
+		this.stepTimeout = stepTimeout;
+	}
+
+	public int getStepMaxRetries() {
+		return stepMaxRetries;
+	}
+
+	public void setStepMaxRetries(int stepMaxRetries) {
+		this.stepMaxRetries = stepMaxRetries;
+	}
+
 }
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.example.deepresearch.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * SSE streaming of graph outputs
+ *
+ * @since 2025/6/25
+ */
+@ConfigurationProperties(prefix = GraphStreamProperties.PREFIX)
+public class GraphStreamProperties {
+
+	public static final String PREFIX = DeepResearchProperties.PREFIX + ".stream";
+
+	/**
+	 * Default stream mode: full sends the whole state on every node output, delta only
+	 * the changed keys. Can be overridden per request
+	 */
+	private StreamMode mode = StreamMode.FULL;
+
+	/**
+	 * Graph runs streamed at the same time, every run occupies one thread until it ends
+	 */
+	private int maxConcurrentRuns = 10;
+
+	/**
+	 * Graph runs waiting for a thread, further requests are rejected
+	 */
+	private int queueCapacity = 100;
+
+	/**
+	 * Threads streaming the most recent runs whose delta state is kept for resync
+	 */
+	private int resyncCacheSize = 100;
+
+	public enum StreamMode {
+
+		FULL, DELTA
+
+	}
+
+	public StreamMode getMode() {
+		return mode;
+	}
+
+	public void setMode(StreamMode mode) {
+		this.mode = mode;
+	}
+
+	public int getMaxConcurrentRuns() {
+		return maxConcurrentRuns;
+	}
+
+	public void setMaxConcurrentRuns(int maxConcurrentRuns) {
+		this.maxConcurrentRuns = maxConcurrentRuns;
+	}
+
+	public int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+	public void setQueueCapacity(int queueCapacity) {
+		this.queueCapacity = queueCapacity;
+	}
+
+	public int getResyncCacheSize() {
+		return resyncCacheSize;
+	}
+
+	public void setResyncCacheSize(int resyncCacheSize) {
+		this.resyncCacheSize = resyncCacheSize;
+	}
+
+}
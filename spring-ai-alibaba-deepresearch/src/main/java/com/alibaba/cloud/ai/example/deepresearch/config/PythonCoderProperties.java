@@ -69,6 +69,29 @@ public class PythonCoderProperties {
 	 */
 	String imageName = "python:3-slim";
 
+	/**
+	 * Where the code runs: docker, or local for a python subprocess without isolation,
+	 * only meant for development and tests
+	 */
+	SandboxType sandboxType = SandboxType.DOCKER;
+
+	/**
+	 * Sandboxes started in advance and reused between executions, also the max number of
+	 * codes running at the same time
+	 */
+	int poolSize = 2;
+
+	/**
+	 * Python executable of the local sandbox
+	 */
+	String pythonCommand = "python3";
+
+	public enum SandboxType {
+
+		DOCKER, LOCAL
+
+	}
+
 	public String getDockerHost() {
 		return dockerHost;
 	}
@@ -133,4 +156,28 @@ public class PythonCoderProperties {
 		this.imageName = imageName;
 	}
 
+	public SandboxType getSandboxType() {
+		return sandboxType;
+	}
+
+	public void setSandboxType(SandboxType sandboxType) {
+		this.sandboxType = sandboxType;
+	}
+
+	public int getPoolSize() {
+		return poolSize;
+	}
+
+	public void setPoolSize(int poolSize) {
+		this.poolSize = poolSize;
+	}
+
+	public String getPythonCommand() {
+		return pythonCommand;
+	}
+
+	public void setPythonCommand(String pythonCommand) {
+		this.pythonCommand = pythonCommand;
+	}
+
 }
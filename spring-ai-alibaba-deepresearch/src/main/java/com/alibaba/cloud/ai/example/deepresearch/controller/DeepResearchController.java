@@ -16,7 +16,9 @@
 
 package com.alibaba.cloud.ai.example.deepresearch.controller;
 
+import com.alibaba.cloud.ai.example.deepresearch.config.GraphStreamProperties;
 import com.alibaba.cloud.ai.example.deepresearch.controller.graph.GraphProcess;
+import com.alibaba.cloud.ai.example.deepresearch.controller.graph.StateDeltaEncoder;
 import com.alibaba.cloud.ai.example.deepresearch.controller.request.ChatRequestProcess;
 import com.alibaba.cloud.ai.example.deepresearch.model.req.ChatRequest;
 import com.alibaba.cloud.ai.example.deepresearch.model.req.FeedbackRequest;
@@ -28,19 +30,30 @@ import com.alibaba.cloud.ai.graph.checkpoint.savers.MemorySaver;
 import com.alibaba.cloud.ai.graph.exception.GraphRunnerException;
 import com.alibaba.cloud.ai.graph.exception.GraphStateException;
 import com.alibaba.cloud.ai.graph.state.StateSnapshot;
+import com.alibaba.fastjson.JSONObject;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Sinks;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author yingzi
@@ -54,11 +67,32 @@ public class DeepResearchController {
 
 	private final CompiledGraph compiledGraph;
 
+	private final ExecutorService graphStreamExecutor;
+
+	private final GraphStreamProperties graphStreamProperties;
+
+	// 最近的增量流，key=线程 ID，用于客户端重新同步
+	private final Map<String, StateDeltaEncoder> deltaEncoders;
+
 	@Autowired
-	public DeepResearchController(@Qualifier("deepResearch") StateGraph stateGraph) throws GraphStateException {
+	public DeepResearchController(@Qualifier("deepResearch") StateGraph stateGraph,
+			GraphStreamProperties graphStreamProperties) throws GraphStateException {
 		SaverConfig saverConfig = SaverConfig.builder().register(SaverConstant.MEMORY, new MemorySaver()).build();
 		this.compiledGraph = stateGraph
 			.compile(CompileConfig.builder().saverConfig(saverConfig).interruptBefore("human_feedback").build());
+		// 每次运行占用一个线程直到结束，线程数和等待队列有界，超出时拒绝新的请求
+		this.graphStreamExecutor = new ThreadPoolExecutor(graphStreamProperties.getMaxConcurrentRuns(),
+				graphStreamProperties.getMaxConcurrentRuns(), 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(graphStreamProperties.getQueueCapacity()),
+				new CustomizableThreadFactory("graph-stream-"), new ThreadPoolExecutor.AbortPolicy());
+		this.graphStreamProperties = graphStreamProperties;
+		int resyncCacheSize = graphStreamProperties.getResyncCacheSize();
+		this.deltaEncoders = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, StateDeltaEncoder> eldest) {
+				return size() > resyncCacheSize;
+			}
+		});
 	}
 
 	/**
@@ -66,11 +100,12 @@ public class DeepResearchController {
 	 *
 	 * Accepts a ChatRequest and returns a Flux that streams chat responses as
 	 * ServerSentEvent<String>. Supports both initial questions and human feedback
-	 * handling.
+	 * handling. With {@code stream_mode=delta} every node output only carries the changed
+	 * keys, see {@link StateDeltaEncoder}.
 	 */
 	@RequestMapping(value = "/chat/stream", method = RequestMethod.POST, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-	public Flux<ServerSentEvent<String>> chatStream(@RequestBody(required = false) ChatRequest chatRequest)
-			throws GraphRunnerException {
+	public Flux<ServerSentEvent<String>> chatStream(@RequestBody(required = false) ChatRequest chatRequest,
+			@RequestParam(value = "stream_mode", required = false) String streamMode) throws GraphRunnerException {
 		chatRequest = ChatRequestProcess.getDefaultChatRequest(chatRequest);
 		RunnableConfig runnableConfig = RunnableConfig.builder().threadId(chatRequest.threadId()).build();
 
@@ -78,7 +113,7 @@ public class DeepResearchController {
 		// Create a unicast sink to emit ServerSentEvents
 		Sinks.Many<ServerSentEvent<String>> sink = Sinks.many().unicast().onBackpressureBuffer();
 
-		GraphProcess graphProcess = new GraphProcess(this.compiledGraph);
+		GraphProcess graphProcess = createGraphProcess(chatRequest.threadId(), streamMode);
 		// Handle human feedback if auto-accept is disabled and feedback is provided
 		if (!chatRequest.autoAcceptPlan() && StringUtils.hasText(chatRequest.interruptFeedback())) {
 			graphProcess.handleHumanFeedback(chatRequest, objectMap, runnableConfig, sink);
@@ -97,8 +132,8 @@ public class DeepResearchController {
 	}
 
 	@RequestMapping(value = "/chat/resume", method = RequestMethod.POST, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-	public Flux<ServerSentEvent<String>> resume(@RequestBody(required = false) FeedbackRequest humanFeedback)
-			throws GraphRunnerException {
+	public Flux<ServerSentEvent<String>> resume(@RequestBody(required = false) FeedbackRequest humanFeedback,
+			@RequestParam(value = "stream_mode", required = false) String streamMode) throws GraphRunnerException {
 		RunnableConfig runnableConfig = RunnableConfig.builder().threadId(humanFeedback.threadId()).build();
 		Map<String, Object> objectMap = new HashMap<>();
 		objectMap.put("feed_back", humanFeedback.feedBack());
@@ -106,7 +141,7 @@ public class DeepResearchController {
 
 		// Create a unicast sink to emit ServerSentEvents
 		Sinks.Many<ServerSentEvent<String>> sink = Sinks.many().unicast().onBackpressureBuffer();
-		GraphProcess graphProcess = new GraphProcess(this.compiledGraph);
+		GraphProcess graphProcess = createGraphProcess(humanFeedback.threadId(), streamMode);
 
 		StateSnapshot stateSnapshot = compiledGraph.getState(runnableConfig);
 		OverAllState state = stateSnapshot.state();
@@ -121,4 +156,47 @@ public class DeepResearchController {
 			.doOnError(e -> logger.error("Error occurred during streaming", e));
 	}
 
+	@PreDestroy
+	public void shutdown() {
+		graphStreamExecutor.shutdownNow();
+	}
+
+	/**
+	 * Full state of a delta stream as of its last sent event, for clients that missed
+	 * events to resync from. Falls back to the latest checkpoint of the thread.
+	 */
+	@GetMapping(value = "/chat/resync", produces = MediaType.APPLICATION_JSON_VALUE)
+	public String resync(@RequestParam(value = "thread_id", defaultValue = "__default__") String threadId) {
+		StateDeltaEncoder deltaEncoder = deltaEncoders.get(threadId);
+		if (deltaEncoder != null) {
+			return deltaEncoder.snapshot();
+		}
+		RunnableConfig runnableConfig = RunnableConfig.builder().threadId(threadId).build();
+		StateSnapshot stateSnapshot = compiledGraph.stateOf(runnableConfig)
+			.orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No state of thread " + threadId));
+		JSONObject snapshot = new JSONObject(true);
+		snapshot.put("seq", 0);
+		snapshot.put("data", stateSnapshot.state().data());
+		return snapshot.toJSONString();
+	}
+
+	private GraphProcess createGraphProcess(String threadId, String streamMode) {
+		GraphStreamProperties.StreamMode mode = graphStreamProperties.getMode();
+		if (StringUtils.hasText(streamMode)) {
+			try {
+				mode = GraphStreamProperties.StreamMode.valueOf(streamMode.toUpperCase());
+			}
+			catch (IllegalArgumentException e) {
+				throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown stream_mode: " + streamMode);
+			}
+		}
+		if (mode != GraphStreamProperties.StreamMode.DELTA) {
+			return new GraphProcess(this.compiledGraph, graphStreamExecutor);
+		}
+		// 每次请求从空状态开始编码，第一个事件包含完整状态
+		StateDeltaEncoder deltaEncoder = new StateDeltaEncoder();
+		deltaEncoders.put(threadId, deltaEncoder);
+		return new GraphProcess(this.compiledGraph, graphStreamExecutor, deltaEncoder);
+	}
+
 }
@@ -29,13 +29,15 @@ import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Sinks;
 
 import java.util.Map;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * @author yingzi
@@ -46,12 +48,25 @@ public class GraphProcess {
 
 	private static final Logger logger = LoggerFactory.getLogger(GraphProcess.class);
 
-	private final ExecutorService executor = Executors.newFixedThreadPool(10);
+	private final ExecutorService executor;
 
-	private CompiledGraph compiledGraph;
+	private final CompiledGraph compiledGraph;
 
-	public GraphProcess(CompiledGraph compiledGraph) {
+	// 为 null 时每个节点输出都发送完整状态
+	private final StateDeltaEncoder deltaEncoder;
+
+	public GraphProcess(CompiledGraph compiledGraph, ExecutorService executor) {
+		this(compiledGraph, executor, null);
+	}
+
+	/**
+	 * @param deltaEncoder encodes node outputs as changed keys only, null to send the
+	 * whole state
+	 */
+	public GraphProcess(CompiledGraph compiledGraph, ExecutorService executor, StateDeltaEncoder deltaEncoder) {
 		this.compiledGraph = compiledGraph;
+		this.executor = executor;
+		this.deltaEncoder = deltaEncoder;
 	}
 
 	public void handleHumanFeedback(ChatRequest chatRequest, Map<String, Object> objectMap,
@@ -66,37 +81,55 @@ public class GraphProcess {
 	}
 
 	public void processStream(AsyncGenerator<NodeOutput> generator, Sinks.Many<ServerSentEvent<String>> sink) {
-		executor.submit(() -> {
-			generator.forEachAsync(output -> {
-				try {
-					// logger.info("output = {}", output);
-					String nodeName = output.node();
-					String content;
-					if (output instanceof StreamingOutput streamingOutput) {
-						content = JSON.toJSONString(Map.of(nodeName, streamingOutput.chunk()));
-						logger.info("Streaming output from node {}: {}", nodeName, streamingOutput.chunk());
+		try {
+			executor.submit(() -> {
+				generator.forEachAsync(output -> {
+					try {
+						sink.tryEmitNext(deltaEncoder != null ? encodeDelta(output) : encodeFull(output));
 					}
-					else {
-						JSONObject nodeOutput = new JSONObject();
-						nodeOutput.put("data", output.state().data());
-						nodeOutput.put("node", nodeName);
-						content = JSON.toJSONString(nodeOutput);
+					catch (Exception e) {
+						logger.error("Error processing output", e);
+						throw new CompletionException(e);
 					}
-					sink.tryEmitNext(ServerSentEvent.builder(content).build());
-				}
-				catch (Exception e) {
-					logger.error("Error processing output", e);
-					throw new CompletionException(e);
-				}
-			}).thenAccept(v -> {
-				// 正常完成
-				sink.tryEmitComplete();
-			}).exceptionally(e -> {
-				logger.error("Error in stream processing", e);
-				sink.tryEmitError(e);
-				return null;
+				}).thenAccept(v -> {
+					// 正常完成
+					sink.tryEmitComplete();
+				}).exceptionally(e -> {
+					logger.error("Error in stream processing", e);
+					sink.tryEmitError(e);
+					return null;
+				});
 			});
-		});
+		}
+		catch (RejectedExecutionException e) {
+			// 线程和等待队列都已满，直接拒绝而不是无限排队
+			logger.warn("Rejected graph stream, too many runs in progress");
+			sink.tryEmitError(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+					"Too many research tasks in progress, please retry later", e));
+		}
+	}
+
+	private ServerSentEvent<String> encodeFull(NodeOutput output) {
+		// logger.info("output = {}", output);
+		String nodeName = output.node();
+		String content;
+		if (output instanceof StreamingOutput streamingOutput) {
+			content = JSON.toJSONString(Map.of(nodeName, streamingOutput.chunk()));
+			logger.info("Streaming output from node {}: {}", nodeName, streamingOutput.chunk());
+		}
+		else {
+			JSONObject nodeOutput = new JSONObject();
+			nodeOutput.put("data", output.state().data());
+			nodeOutput.put("node", nodeName);
+			content = JSON.toJSONString(nodeOutput);
+		}
+		return ServerSentEvent.builder(content).build();
+	}
+
+	private ServerSentEvent<String> encodeDelta(NodeOutput output) {
+		// 同一个流只有一个线程写入，序号即为刚编码的事件序号
+		String content = deltaEncoder.encode(output);
+		return ServerSentEvent.builder(content).id(String.valueOf(deltaEncoder.getSequence())).build();
 	}
 
 }
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.example.deepresearch.controller.graph;
+
+import com.alibaba.cloud.ai.graph.NodeOutput;
+import com.alibaba.cloud.ai.graph.streaming.StreamingOutput;
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 将节点输出编码为增量事件：只发送与上一次相比变化的 key，文本和列表只追加时只发送新增部分。每个事件带有递增的序号， 客户端发现序号不连续时通过
+ * {@link #snapshot()} 获取完整状态重新同步。
+ * <p>
+ * 每个 key 记录已发送的文本和列表元素，文本变长时只比较已发送的前缀，列表只序列化新增的元素，编码的开销与新增内容成正比而不是与整个状态成正比。
+ * 列表变短或者已发送的元素被替换时才重新发送整个列表。
+ *
+ * <pre>
+ * {"seq": 3, "node": "planner", "changed": {...}, "appended": {"text": "...", "list": [...]}, "removed": [...]}
+ * {"seq": 4, "node": "researcher_llm_stream_0", "chunk": "..."}
+ * </pre>
+ *
+ * @since 2025/6/25
+ */
+
+public class StateDeltaEncoder {
+
+	private long sequence;
+
+	// 已发送的文本值
+	private final Map<String, String> sentTexts = new HashMap<>();
+
+	// 已发送的列表
+	private final Map<String, SentList> sentLists = new HashMap<>();
+
+	// 已发送的其他值的 JSON，值对象可能被原地修改，只能按序列化结果比较
+	private final Map<String, String> sentJsons = new HashMap<>();
+
+	public synchronized long getSequence() {
+		return sequence;
+	}
+
+	/**
+	 * Encodes the output as the next event: a streamed chunk as is, a node output as the
+	 * keys changed since the previous node output.
+	 */
+	public synchronized String encode(NodeOutput output) {
+		JSONObject event = new JSONObject(true);
+		event.put("seq", ++sequence);
+		event.put("node", output.node());
+		if (output instanceof StreamingOutput streamingOutput) {
+			event.put("chunk", streamingOutput.chunk());
+			return event.toJSONString();
+		}
+
+		Map<String, Object> data = output.state().data();
+		JSONObject changed = new JSONObject(true);
+		JSONObject appended = new JSONObject(true);
+		for (Map.Entry<String, Object> entry : data.entrySet()) {
+			String key = entry.getKey();
+			Object value = entry.getValue();
+			if (value instanceof CharSequence) {
+				String text = value.toString();
+				String sentText = sentTexts.get(key);
+				if (text.equals(sentText)) {
+					continue;
+				}
+				if (sentText != null && text.length() > sentText.length() && text.startsWith(sentText)) {
+					appended.put(key, text.substring(sentText.length()));
+				}
+				else {
+					changed.put(key, text);
+				}
+				forget(key);
+				sentTexts.put(key, text);
+			}
+			else if (value instanceof List<?> list) {
+				SentList sentList = sentLists.get(key);
+				int sentSize = sentList != null ? sentList.size() : 0;
+				if (sentList != null && sentList.isPrefixOf(list)) {
+					if (list.size() == sentSize) {
+						continue;
+					}
+					appended.put(key, new ArrayList<>(list.subList(sentSize, list.size())));
+					sentList.append(list);
+					continue;
+				}
+				// 列表变短或元素被替换，序列化整个列表比较
+				SentList newList = new SentList();
+				newList.append(list);
+				if (sentList != null && list.size() >= sentSize
+						&& newList.jsons.subList(0, sentSize).equals(sentList.jsons)) {
+					if (list.size() > sentSize) {
+						appended.put(key, new ArrayList<>(list.subList(sentSize, list.size())));
+					}
+				}
+				else {
+					changed.put(key, value);
+				}
+				forget(key);
+				sentLists.put(key, newList);
+			}
+			else {
+				String json = JSON.toJSONString(value);
+				if (json.equals(sentJsons.get(key))) {
+					continue;
+				}
+				changed.put(key, value);
+				forget(key);
+				sentJsons.put(key, json);
+			}
+		}
+		JSONArray removed = new JSONArray();
+		for (String key : sentKeys()) {
+			if (!data.containsKey(key)) {
+				forget(key);
+				removed.add(key);
+			}
+		}
+
+		if (!changed.isEmpty()) {
+			event.put("changed", changed);
+		}
+		if (!appended.isEmpty()) {
+			event.put("appended", appended);
+		}
+		if (!removed.isEmpty()) {
+			event.put("removed", removed);
+		}
+		return event.toJSONString();
+	}
+
+	/**
+	 * The state as the client has it after applying every event sent so far, with the
+	 * sequence number of the last event.
+	 */
+	public synchronized String snapshot() {
+		JSONObject data = new JSONObject(true);
+		data.putAll(sentTexts);
+		sentLists.forEach((key, sentList) -> {
+			JSONArray list = new JSONArray();
+			sentList.jsons.forEach(element -> list.add(JSON.parse(element)));
+			data.put(key, list);
+		});
+		sentJsons.forEach((key, json) -> data.put(key, JSON.parse(json)));
+		JSONObject snapshot = new JSONObject(true);
+		snapshot.put("seq", sequence);
+		snapshot.put("data", data);
+		return snapshot.toJSONString();
+	}
+
+	private List<String> sentKeys() {
+		List<String> keys = new ArrayList<>(sentTexts.keySet());
+		keys.addAll(sentLists.keySet());
+		keys.addAll(sentJsons.keySet());
+		return keys;
+	}
+
+	private void forget(String key) {
+		sentTexts.remove(key);
+		sentLists.remove(key);
+		sentJsons.remove(key);
+	}
+
+	/**
+	 * 已发送的列表：最近一次的列表对象、已发送的元素和它们的 JSON
+	 */
+	private static final class SentList {
+
+		private List<?> source;
+
+		private final List<Object> elements = new ArrayList<>();
+
+		private final List<String> jsons = new ArrayList<>();
+
+		int size() {
+			return elements.size();
+		}
+
+		/**
+		 * 已发送的元素仍是列表的前缀。同一个列表对象只追加时不需要比较，换了列表对象时按引用比较已发送的元素，不做序列化
+		 */
+		boolean isPrefixOf(List<?> list) {
+			if (list.size() < elements.size()) {
+				return false;
+			}
+			if (list == source) {
+				return true;
+			}
+			for (int i = 0; i < elements.size(); i++) {
+				if (list.get(i) != elements.get(i)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * 记录列表中还没有发送的元素
+		 */
+		void append(List<?> list) {
+			for (int i = elements.size(); i < list.size(); i++) {
+				Object element = list.get(i);
+				elements.add(element);
+				jsons.add(JSON.toJSONString(element));
+			}
+			source = list;
+		}
+
+	}
+
+}
@@ -26,13 +26,14 @@ import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.messages.Message;
 import org.springframework.ai.chat.messages.UserMessage;
-import org.springframework.util.StringUtils;
+import org.springframework.ai.chat.model.ChatResponse;
+import reactor.core.publisher.Flux;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.Optional;
 
 /**
  * @author sixiyida
@@ -49,14 +50,21 @@ public class CoderNode implements NodeAction {
 
 	private final String nodeName;
 
+	private final StepScheduler stepScheduler;
+
 	public CoderNode(ChatClient coderAgent) {
 		this(coderAgent, "0");
 	}
 
 	public CoderNode(ChatClient coderAgent, String executorNodeId) {
+		this(coderAgent, executorNodeId, new StepScheduler());
+	}
+
+	public CoderNode(ChatClient coderAgent, String executorNodeId, StepScheduler stepScheduler) {
 		this.coderAgent = coderAgent;
 		this.executorNodeId = executorNodeId;
 		this.nodeName = "coder_" + executorNodeId;
+		this.stepScheduler = stepScheduler;
 	}
 
 	@Override
@@ -65,45 +73,23 @@ public class CoderNode implements NodeAction {
 		Plan currentPlan = StateUtil.getPlan(state);
 		Map<String, Object> updated = new HashMap<>();
 
-		Plan.Step assignedStep = null;
-		for (Plan.Step step : currentPlan.getSteps()) {
-			if (step.getStepType().equals(Plan.StepType.PROCESSING) && !StringUtils.hasText(step.getExecutionRes())
-					&& StringUtils.hasText(step.getExecutionStatus())
-					&& step.getExecutionStatus().equals(StateUtil.EXECUTION_STATUS_ASSIGNED_PREFIX + nodeName)) {
-				assignedStep = step;
-				break;
-			}
-		}
+		// 研究步骤全部结束后，处理步骤才会就绪
+		Optional<Plan.Step> firstStep = stepScheduler.claim(currentPlan, Plan.StepType.PROCESSING, nodeName);
 
-		if (assignedStep == null) {
+		if (firstStep.isEmpty()) {
 			logger.info("No remaining steps to be executed by {}", nodeName);
 			return updated;
 		}
 
-		// 标记步骤为正在执行
-		assignedStep.setExecutionStatus(StateUtil.EXECUTION_STATUS_PROCESSING_PREFIX + nodeName);
-
-		List<Message> messages = new ArrayList<>();
-		// 添加任务消息
-		Message taskMessage = new UserMessage(
-				String.format("#Task\n\n##title\n\n%s\n\n##description\n\n%s\n\n##locale\n\n%s",
-						assignedStep.getTitle(), assignedStep.getDescription(), state.value("locale", "en-US")));
-		messages.add(taskMessage);
-		logger.debug("{} Node message: {}", nodeName, messages);
-
-		// 调用agent
-		var streamResult = coderAgent.prompt().messages(messages).stream().chatResponse();
-
-		Plan.Step finalAssignedStep = assignedStep;
+		String locale = state.value("locale", "en-US");
+		var streamResult = stepScheduler.execute(currentPlan, firstStep.get(), nodeName, step -> process(step, locale));
 		logger.info("CoderNode {} starting streaming with key: {}", executorNodeId,
 				"coder_llm_stream_" + executorNodeId);
 		var generator = StreamingChatGenerator.builder()
 			.startingNode("coder_llm_stream_" + executorNodeId)
 			.startingState(state)
 			.mapResult(response -> {
-				finalAssignedStep.setExecutionStatus(StateUtil.EXECUTION_STATUS_COMPLETED_PREFIX + executorNodeId);
-				String coderContent = response.getResult().getOutput().getText();
-				finalAssignedStep.setExecutionRes(Objects.requireNonNull(coderContent));
+				String coderContent = String.join("\n\n", stepScheduler.completedResults(currentPlan, nodeName));
 
 				logger.info("{} completed, content: {}", nodeName, coderContent);
 
@@ -116,4 +102,17 @@ public class CoderNode implements NodeAction {
 		return updated;
 	}
 
+	private Flux<ChatResponse> process(Plan.Step step, String locale) {
+		List<Message> messages = new ArrayList<>();
+		// 添加任务消息
+		Message taskMessage = new UserMessage(
+				String.format("#Task\n\n##title\n\n%s\n\n##description\n\n%s\n\n##locale\n\n%s", step.getTitle(),
+						step.getDescription(), locale));
+		messages.add(taskMessage);
+		logger.debug("{} Node message: {}", nodeName, messages);
+
+		// 调用agent
+		return coderAgent.prompt().messages(messages).stream().chatResponse();
+	}
+
 }
@@ -16,10 +16,8 @@
 
 package com.alibaba.cloud.ai.example.deepresearch.node;
 
-import com.alibaba.cloud.ai.example.deepresearch.model.ParallelEnum;
 import com.alibaba.cloud.ai.example.deepresearch.model.dto.Plan;
 import com.alibaba.cloud.ai.example.deepresearch.util.StateUtil;
-import com.alibaba.cloud.ai.example.deepresearch.config.DeepResearchProperties;
 import com.alibaba.cloud.ai.graph.OverAllState;
 import com.alibaba.cloud.ai.graph.action.NodeAction;
 import org.slf4j.Logger;
@@ -38,63 +36,29 @@ public class ParallelExecutorNode implements NodeAction {
 
 	private static final Logger logger = LoggerFactory.getLogger(ParallelExecutorNode.class);
 
-	private final Map<String, Integer> parallelNodeCount;
+	private final StepScheduler stepScheduler;
 
-	public ParallelExecutorNode(DeepResearchProperties properties) {
-		this.parallelNodeCount = properties.getParallelNodeCount();
+	public ParallelExecutorNode(StepScheduler stepScheduler) {
+		this.stepScheduler = stepScheduler;
 	}
 
 	@Override
 	public Map<String, Object> apply(OverAllState state) throws Exception {
-		long currResearcher = 0;
-		long currCoder = 0;
-
 		Plan curPlan = StateUtil.getPlan(state);
-		for (Plan.Step step : curPlan.getSteps()) {
-			// 跳过不需要处理的步骤
-			if (StringUtils.hasText(step.getExecutionRes()) || StringUtils.hasText(step.getExecutionStatus())) {
-				continue;
-			}
-
-			Plan.StepType stepType = step.getStepType();
-
-			switch (stepType) {
-				case PROCESSING:
-					if (areAllResearchStepsCompleted(curPlan)) {
-						step.setExecutionStatus(assignRole(stepType, currCoder));
-						currCoder = (currCoder + 1) % parallelNodeCount.get(ParallelEnum.RESEARCHER.getValue());
-					}
-					logger.info("Waiting for remaining research steps executed");
-					break;
-
-				case RESEARCH:
-					step.setExecutionStatus(assignRole(stepType, currResearcher));
-					currResearcher = (currResearcher + 1) % parallelNodeCount.get(ParallelEnum.CODER.getValue());
-					break;
-
-				// 处理其他可能的StepType
-				default:
-					logger.debug("Unhandled step type: {}", stepType);
-			}
+		// 步骤不再预先分配，执行节点运行时从 StepScheduler 领取；上一轮未完成的步骤重新入队
+		int released = stepScheduler.releaseAbandonedSteps(curPlan);
+		if (released > 0) {
+			logger.info("Released {} unfinished steps back to the queue", released);
 		}
-		return Map.of();
-	}
-
-	private String assignRole(Plan.StepType type, long executorId) {
-		String role = type == Plan.StepType.PROCESSING ? ParallelEnum.CODER.getValue()
-				: ParallelEnum.RESEARCHER.getValue();
-		return StateUtil.EXECUTION_STATUS_ASSIGNED_PREFIX + role + "_" + executorId;
-	}
 
-	private boolean areAllResearchStepsCompleted(Plan plan) {
-		if (CollectionUtils.isEmpty(plan.getSteps())) {
-			return true;
+		if (!CollectionUtils.isEmpty(curPlan.getSteps())) {
+			long pending = curPlan.getSteps()
+				.stream()
+				.filter(step -> !StringUtils.hasText(step.getExecutionRes()))
+				.count();
+			logger.info("{} steps waiting to be executed", pending);
 		}
-
-		return plan.getSteps()
-			.stream()
-			.filter(step -> step.getStepType() == Plan.StepType.RESEARCH)
-			.allMatch(step -> step.getExecutionStatus().startsWith(StateUtil.EXECUTION_STATUS_COMPLETED_PREFIX));
+		return Map.of();
 	}
 
 }
@@ -26,13 +26,14 @@ import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.messages.Message;
 import org.springframework.ai.chat.messages.UserMessage;
-import org.springframework.util.StringUtils;
+import org.springframework.ai.chat.model.ChatResponse;
+import reactor.core.publisher.Flux;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.Optional;
 
 /**
  * @author sixiyida
@@ -49,14 +50,21 @@ public class ResearcherNode implements NodeAction {
 
 	private final String nodeName;
 
+	private final StepScheduler stepScheduler;
+
 	public ResearcherNode(ChatClient researchAgent) {
 		this(researchAgent, "0");
 	}
 
 	public ResearcherNode(ChatClient researchAgent, String executorNodeId) {
+		this(researchAgent, executorNodeId, new StepScheduler());
+	}
+
+	public ResearcherNode(ChatClient researchAgent, String executorNodeId, StepScheduler stepScheduler) {
 		this.researchAgent = researchAgent;
 		this.executorNodeId = executorNodeId;
 		this.nodeName = "researcher_" + executorNodeId;
+		this.stepScheduler = stepScheduler;
 	}
 
 	@Override
@@ -65,49 +73,25 @@ public class ResearcherNode implements NodeAction {
 		Plan currentPlan = StateUtil.getPlan(state);
 		Map<String, Object> updated = new HashMap<>();
 
-		Plan.Step assignedStep = null;
-		for (Plan.Step step : currentPlan.getSteps()) {
-			if (Plan.StepType.RESEARCH.equals(step.getStepType()) && !StringUtils.hasText(step.getExecutionRes())
-					&& StringUtils.hasText(step.getExecutionStatus())
-					&& step.getExecutionStatus().equals(StateUtil.EXECUTION_STATUS_ASSIGNED_PREFIX + nodeName)) {
-				assignedStep = step;
-				break;
-			}
-		}
+		// 从共享队列领取第一个就绪的研究步骤
+		Optional<Plan.Step> firstStep = stepScheduler.claim(currentPlan, Plan.StepType.RESEARCH, nodeName);
 
-		// 如果没有找到分配的步骤，直接返回
-		if (assignedStep == null) {
+		// 如果没有可领取的步骤，直接返回
+		if (firstStep.isEmpty()) {
 			logger.info("No remaining steps to be executed by {}", nodeName);
 			return updated;
 		}
 
-		// 标记步骤为正在执行
-		assignedStep.setExecutionStatus(StateUtil.EXECUTION_STATUS_PROCESSING_PREFIX + nodeName);
-
-		// 添加任务消息
-		List<Message> messages = new ArrayList<>();
-		Message taskMessage = new UserMessage(String.format("# Current Task\n\n##title\n\n%s\n\n##description\n\n%s",
-				assignedStep.getTitle(), assignedStep.getDescription()));
-		messages.add(taskMessage);
-
-		// 添加研究者特有的引用提醒
-		Message citationMessage = new UserMessage(
-				"IMPORTANT: DO NOT include inline citations in the text. Instead, track all sources and include a References section at the end using link reference format. Include an empty line between each citation for better readability. Use this format for each reference:\n- [Source Title](URL)\n\n- [Another Source](URL)");
-		messages.add(citationMessage);
-
-		logger.debug("{} Node messages: {}", nodeName, messages);
-		// 调用agent
-		var streamResult = researchAgent.prompt().messages(messages).stream().chatResponse();
-		Plan.Step finalAssignedStep = assignedStep;
+		// 当前步骤完成后继续领取下一个步骤，直到队列中没有就绪的研究步骤
+		var streamResult = stepScheduler.execute(currentPlan, firstStep.get(), nodeName, this::research);
 		logger.info("ResearcherNode {} starting streaming with key: {}", executorNodeId,
 				"researcher_llm_stream_" + executorNodeId);
 		var generator = StreamingChatGenerator.builder()
 			.startingNode("researcher_llm_stream_" + executorNodeId)
 			.startingState(state)
 			.mapResult(response -> {
-				finalAssignedStep.setExecutionStatus(StateUtil.EXECUTION_STATUS_COMPLETED_PREFIX + executorNodeId);
-				String researchContent = response.getResult().getOutput().getText();
-				finalAssignedStep.setExecutionRes(Objects.requireNonNull(researchContent));
+				// 步骤结果已由 StepScheduler 写入计划，这里汇总本节点完成的所有步骤
+				String researchContent = String.join("\n\n", stepScheduler.completedResults(currentPlan, nodeName));
 				logger.info("{} completed, content: {}", nodeName, researchContent);
 
 				updated.put("researcher_content_" + executorNodeId, researchContent);
@@ -119,4 +103,21 @@ public class ResearcherNode implements NodeAction {
 		return updated;
 	}
 
+	private Flux<ChatResponse> research(Plan.Step step) {
+		// 添加任务消息
+		List<Message> messages = new ArrayList<>();
+		Message taskMessage = new UserMessage(String.format("# Current Task\n\n##title\n\n%s\n\n##description\n\n%s",
+				step.getTitle(), step.getDescription()));
+		messages.add(taskMessage);
+
+		// 添加研究者特有的引用提醒
+		Message citationMessage = new UserMessage(
+				"IMPORTANT: DO NOT include inline citations in the text. Instead, track all sources and include a References section at the end using link reference format. Include an empty line between each citation for better readability. Use this format for each reference:\n- [Source Title](URL)\n\n- [Another Source](URL)");
+		messages.add(citationMessage);
+
+		logger.debug("{} Node messages: {}", nodeName, messages);
+		// 调用agent
+		return researchAgent.prompt().messages(messages).stream().chatResponse();
+	}
+
 }
@@ -0,0 +1,252 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.example.deepresearch.node;
+
+import com.alibaba.cloud.ai.example.deepresearch.model.dto.Plan;
+import com.alibaba.cloud.ai.example.deepresearch.util.StateUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * 计划步骤的共享工作队列：执行节点不再按轮询预先分配步骤，而是执行完一个步骤后从计划中领取下一个就绪的步骤，
+ * 耗时长的步骤只占用一个执行节点。领取时限制每种步骤的并发数，步骤超时或失败后重新入队，重试次数用完后标记为失败。
+ *
+ * @since 2025/6/24
+ */
+
+public class StepScheduler {
+
+	private static final Logger logger = LoggerFactory.getLogger(StepScheduler.class);
+
+	public static final Duration DEFAULT_STEP_TIMEOUT = Duration.ofMinutes(10);
+
+	public static final int DEFAULT_MAX_RETRIES = 1;
+
+	private final Map<Plan.StepType, Integer> concurrencyLimits;
+
+	private final Duration stepTimeout;
+
+	private final int maxRetries;
+
+	// 步骤失败次数，Step 未重写 equals，按对象识别
+	private final Map<Plan.Step, Integer> failures = Collections.synchronizedMap(new WeakHashMap<>());
+
+	public StepScheduler() {
+		this(Map.of(), DEFAULT_STEP_TIMEOUT, DEFAULT_MAX_RETRIES);
+	}
+
+	/**
+	 * @param concurrencyLimits max running steps per step type, types without a limit are
+	 * only bounded by the number of executor nodes
+	 * @param stepTimeout time a step may run before it is failed
+	 * @param maxRetries times a failed or timed out step is put back into the queue
+	 */
+	public StepScheduler(Map<Plan.StepType, Integer> concurrencyLimits, Duration stepTimeout, int maxRetries) {
+		this.concurrencyLimits = concurrencyLimits.isEmpty() ? Map.of() : new EnumMap<>(concurrencyLimits);
+		this.stepTimeout = stepTimeout;
+		this.maxRetries = maxRetries;
+	}
+
+	/**
+	 * Claims the next ready step of the type for the executor. Research steps are always
+	 * ready, processing steps once every research step has finished.
+	 * @return the claimed step, empty if no step is ready or the type is at its
+	 * concurrency limit
+	 */
+	public Optional<Plan.Step> claim(Plan plan, Plan.StepType type, String executorName) {
+		if (CollectionUtils.isEmpty(plan.getSteps())) {
+			return Optional.empty();
+		}
+		// 所有执行节点共享同一个 Plan 对象，领取时加锁
+		synchronized (plan) {
+			if (type == Plan.StepType.PROCESSING && !areAllResearchStepsFinished(plan)) {
+				return Optional.empty();
+			}
+			int running = 0;
+			Plan.Step next = null;
+			for (Plan.Step step : plan.getSteps()) {
+				if (step.getStepType() != type) {
+					continue;
+				}
+				if (isRunning(step)) {
+					running++;
+				}
+				else if (next == null && isPending(step)) {
+					next = step;
+				}
+			}
+			if (next == null || running >= concurrencyLimits.getOrDefault(type, Integer.MAX_VALUE)) {
+				return Optional.empty();
+			}
+			next.setExecutionStatus(StateUtil.EXECUTION_STATUS_PROCESSING_PREFIX + executorName);
+			logger.debug("{} claimed step: {}", executorName, next.getTitle());
+			return Optional.of(next);
+		}
+	}
+
+	/**
+	 * Runs the claimed step, then keeps claiming and running ready steps of the type
+	 * until the queue has none left for the executor. Every step gets its own timeout,
+	 * the chat responses of all steps are streamed in order.
+	 * @param stepExecutor streams the chat responses of one step
+	 */
+	public Flux<ChatResponse> execute(Plan plan, Plan.Step firstStep, String executorName,
+			Function<Plan.Step, Flux<ChatResponse>> stepExecutor) {
+		return executeStep(plan, firstStep, executorName, stepExecutor)
+			.concatWith(Flux.defer(() -> claim(plan, firstStep.getStepType(), executorName)
+				.map(next -> execute(plan, next, executorName, stepExecutor))
+				.orElseGet(Flux::empty)));
+	}
+
+	/**
+	 * Puts steps that were claimed but never finished back into the queue, e.g. when the
+	 * graph was interrupted while they were running. Must only be called while no
+	 * executor node is running.
+	 * @return the number of released steps
+	 */
+	public int releaseAbandonedSteps(Plan plan) {
+		if (CollectionUtils.isEmpty(plan.getSteps())) {
+			return 0;
+		}
+		int released = 0;
+		synchronized (plan) {
+			for (Plan.Step step : plan.getSteps()) {
+				if (!StringUtils.hasText(step.getExecutionRes()) && StringUtils.hasText(step.getExecutionStatus())) {
+					step.setExecutionStatus(null);
+					released++;
+				}
+			}
+		}
+		return released;
+	}
+
+	/**
+	 * Results of the steps the executor has completed.
+	 */
+	public List<String> completedResults(Plan plan, String executorName) {
+		List<String> results = new ArrayList<>();
+		if (CollectionUtils.isEmpty(plan.getSteps())) {
+			return results;
+		}
+		synchronized (plan) {
+			for (Plan.Step step : plan.getSteps()) {
+				if ((StateUtil.EXECUTION_STATUS_COMPLETED_PREFIX + executorName).equals(step.getExecutionStatus())) {
+					results.add(step.getExecutionRes());
+				}
+			}
+		}
+		return results;
+	}
+
+	private Flux<ChatResponse> executeStep(Plan plan, Plan.Step step, String executorName,
+			Function<Plan.Step, Flux<ChatResponse>> stepExecutor) {
+		return Flux.defer(() -> {
+			StringBuilder content = new StringBuilder();
+			// 超时从步骤开始计算，而不是两次输出之间的间隔
+			Scheduler timer = Schedulers.parallel();
+			long deadline = timer.now(TimeUnit.NANOSECONDS) + stepTimeout.toNanos();
+			return Flux.defer(() -> stepExecutor.apply(step))
+				.timeout(Mono.delay(stepTimeout, timer),
+						response -> Mono
+							.delay(Duration.ofNanos(Math.max(0, deadline - timer.now(TimeUnit.NANOSECONDS))), timer))
+				.doOnNext(response -> {
+					if (response.getResult() != null && response.getResult().getOutput().getText() != null) {
+						content.append(response.getResult().getOutput().getText());
+					}
+				})
+				.doOnComplete(() -> complete(plan, step, executorName, content.toString()))
+				.onErrorResume(e -> {
+					fail(plan, step, executorName, e);
+					return Flux.empty();
+				});
+		});
+	}
+
+	private void complete(Plan plan, Plan.Step step, String executorName, String result) {
+		if (!StringUtils.hasText(result)) {
+			// 没有结果的步骤会一直被当作待执行，按失败处理
+			fail(plan, step, executorName, new IllegalStateException("Step produced no content"));
+			return;
+		}
+		synchronized (plan) {
+			step.setExecutionRes(result);
+			step.setExecutionStatus(StateUtil.EXECUTION_STATUS_COMPLETED_PREFIX + executorName);
+			failures.remove(step);
+		}
+		logger.info("{} completed step: {}", executorName, step.getTitle());
+	}
+
+	private void fail(Plan plan, Plan.Step step, String executorName, Throwable error) {
+		String reason = error instanceof TimeoutException ? "timed out after " + stepTimeout : error.getMessage();
+		synchronized (plan) {
+			int failed = failures.merge(step, 1, Integer::sum);
+			if (failed <= maxRetries) {
+				// 重新入队，由空闲的执行节点领取
+				step.setExecutionStatus(null);
+				logger.warn("{} failed step: {}, retry {}/{}, reason: {}", executorName, step.getTitle(), failed,
+						maxRetries, reason);
+				return;
+			}
+			failures.remove(step);
+			step.setExecutionRes(String.format("Step failed after %d attempts: %s", failed, reason));
+			step.setExecutionStatus(StateUtil.EXECUTION_STATUS_FAILED_PREFIX + executorName);
+		}
+		logger.error("{} gave up step: {}, reason: {}", executorName, step.getTitle(), reason, error);
+	}
+
+	private static boolean areAllResearchStepsFinished(Plan plan) {
+		return plan.getSteps()
+			.stream()
+			.filter(step -> step.getStepType() == Plan.StepType.RESEARCH)
+			.allMatch(StepScheduler::isFinished);
+	}
+
+	private static boolean isPending(Plan.Step step) {
+		return !StringUtils.hasText(step.getExecutionRes()) && !isRunning(step);
+	}
+
+	private static boolean isRunning(Plan.Step step) {
+		return step.getExecutionStatus() != null
+				&& step.getExecutionStatus().startsWith(StateUtil.EXECUTION_STATUS_PROCESSING_PREFIX);
+	}
+
+	private static boolean isFinished(Plan.Step step) {
+		return step.getExecutionStatus() != null
+				&& (step.getExecutionStatus().startsWith(StateUtil.EXECUTION_STATUS_COMPLETED_PREFIX)
+						|| step.getExecutionStatus().startsWith(StateUtil.EXECUTION_STATUS_FAILED_PREFIX));
+	}
+
+}
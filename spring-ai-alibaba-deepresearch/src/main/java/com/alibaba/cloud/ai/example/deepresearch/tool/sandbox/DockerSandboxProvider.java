@@ -0,0 +1,342 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.example.deepresearch.tool.sandbox;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.command.CreateContainerResponse;
+import com.github.dockerjava.api.command.ExecCreateCmdResponse;
+import com.github.dockerjava.api.model.Bind;
+import com.github.dockerjava.api.model.Capability;
+import com.github.dockerjava.api.model.Frame;
+import com.github.dockerjava.api.model.HostConfig;
+import com.github.dockerjava.api.model.StreamType;
+import com.github.dockerjava.api.model.Volume;
+import com.github.dockerjava.core.DefaultDockerClientConfig;
+import com.github.dockerjava.core.DockerClientConfig;
+import com.github.dockerjava.core.DockerClientImpl;
+import com.github.dockerjava.zerodep.ZerodepDockerHttpClient;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.StringUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.dockerjava.api.model.HostConfig.newHostConfig;
+
+/**
+ * 在 Docker 容器中执行代码的沙箱。每个沙箱是一个常驻的容器，代码通过 docker exec 执行，不再为每次执行创建和启动容器。
+ * 依赖安装在沙箱独占的数据卷中，重置时连同工作目录中的文件一起清空，并杀死残留的进程。
+ *
+ * @since 2025/6/26
+ */
+public class DockerSandboxProvider implements SandboxProvider {
+
+	private static final String WORK_DIR = "/app";
+
+	// 镜像可以在 /app/dependency 中预装第三方库，requirements 安装到单独的目录，重置时只清空后者
+	private static final String IMAGE_DEPENDENCY_DIR = WORK_DIR + "/dependency";
+
+	private static final String DEPENDENCY_DIR = "/sandbox/dependency";
+
+	// timeout -s SIGKILL 或 OOM 杀死进程时的退出码
+	private static final int KILLED_EXIT_CODE = 137;
+
+	private static final long CPU_PERIOD = 100_000L;
+
+	// 杀死除容器主进程和自身以外的进程，清空安装的依赖、工作目录（保留镜像预装的依赖）和 /tmp
+	private static final String RESET_SCRIPT = "for p in /proc/[0-9]*; do p=${p#/proc/}; "
+			+ "if [ \"$p\" != 1 ] && [ \"$p\" != $$ ]; then kill -9 \"$p\" 2>/dev/null; fi; done; " + "rm -rf "
+			+ DEPENDENCY_DIR + "/* " + DEPENDENCY_DIR + "/.[!.]* /tmp/* /tmp/.[!.]* && find " + WORK_DIR
+			+ " -mindepth 1 -maxdepth 1 ! -name dependency -exec rm -rf {} +";
+
+	private final DockerClient dockerClient;
+
+	private final String imageName;
+
+	private final String namePrefix;
+
+	private final boolean enableNetwork;
+
+	private final SandboxLimits initialLimits;
+
+	private final Duration dockerTimeout;
+
+	/**
+	 * @param initialLimits limits the containers are started with, executions with other
+	 * limits update the container first
+	 * @param dockerTimeout time a docker command, including installing the requirements,
+	 * may take
+	 */
+	public DockerSandboxProvider(String dockerHost, String imageName, String namePrefix, boolean enableNetwork,
+			SandboxLimits initialLimits, Duration dockerTimeout) {
+		DockerClientConfig config = DefaultDockerClientConfig.createDefaultConfigBuilder()
+			.withDockerHost(dockerHost)
+			.withDockerTlsVerify(false)
+			.build();
+		this.dockerClient = DockerClientImpl.getInstance(config,
+				new ZerodepDockerHttpClient.Builder().dockerHost(config.getDockerHost()).build());
+		this.imageName = imageName;
+		this.namePrefix = namePrefix;
+		this.enableNetwork = enableNetwork;
+		this.initialLimits = initialLimits;
+		this.dockerTimeout = dockerTimeout;
+	}
+
+	@Override
+	public Sandbox create() {
+		String containerName = namePrefix + "-" + UUID.randomUUID().toString().substring(0, 8);
+		// create a volume to save third-party dependencies
+		String volumeName = containerName + "-volume";
+		dockerClient.createVolumeCmd().withName(volumeName).withDriver("local").exec();
+		String containerId = null;
+		try {
+			HostConfig hostConfig = withLimits(createHostConfig(volumeName), initialLimits)
+				.withNetworkMode(enableNetwork ? "bridge" : "none");
+			containerId = dockerClient.createContainerCmd(imageName)
+				.withName(containerName)
+				.withWorkingDir(WORK_DIR)
+				.withHostConfig(hostConfig)
+				.withCmd("sleep", "infinity")
+				.exec()
+				.getId();
+			dockerClient.startContainerCmd(containerId).exec();
+			return new DockerSandbox(containerId, volumeName);
+		}
+		catch (RuntimeException e) {
+			remove(containerId, volumeName);
+			throw e;
+		}
+	}
+
+	@Override
+	public String getName() {
+		return "docker";
+	}
+
+	@Override
+	public void close() {
+		try {
+			dockerClient.close();
+		}
+		catch (IOException ignore) {
+		}
+	}
+
+	private HostConfig createHostConfig(String volumeName) {
+		return newHostConfig().withCapDrop(Capability.ALL)
+			.withAutoRemove(false)
+			.withBinds(new Bind(volumeName, new Volume(DEPENDENCY_DIR)))
+			.withTmpFs(Map.of("/tmp", ""));
+	}
+
+	private static HostConfig withLimits(HostConfig hostConfig, SandboxLimits limits) {
+		long memory = limits.memoryMb() * 1024L * 1024L;
+		// 不使用 swap，否则内存限制形同虚设
+		return hostConfig.withMemory(memory)
+			.withMemorySwap(memory)
+			.withCpuPeriod(CPU_PERIOD)
+			.withCpuQuota(limits.cpuCores() * CPU_PERIOD);
+	}
+
+	private void remove(String containerId, String volumeName) {
+		if (containerId != null) {
+			try {
+				dockerClient.removeContainerCmd(containerId).withForce(true).exec();
+			}
+			catch (Exception ignore) {
+			}
+		}
+		try {
+			dockerClient.removeVolumeCmd(volumeName).exec();
+		}
+		catch (Exception ignore) {
+		}
+	}
+
+	/**
+	 * Copies the files in the directory into the working directory of the container.
+	 */
+	private void copy(String containerId, Path dir) {
+		dockerClient.copyArchiveToContainerCmd(containerId)
+			.withHostResource(dir.toString())
+			.withDirChildrenOnly(true)
+			.withRemotePath(WORK_DIR)
+			.exec();
+	}
+
+	private static String seconds(Duration duration) {
+		return BigDecimal.valueOf(duration.toMillis(), 3).stripTrailingZeros().toPlainString() + "s";
+	}
+
+	/**
+	 * Runs the command in the running container.
+	 */
+	private SandboxResult exec(String containerId, Duration timeout, String... command) throws InterruptedException {
+		ExecCreateCmdResponse exec = dockerClient.execCreateCmd(containerId)
+			.withAttachStdout(true)
+			.withAttachStderr(true)
+			.withWorkingDir(WORK_DIR)
+			.withCmd(command)
+			.exec();
+		// catch stdout and stderr
+		ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+		ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+		ResultCallback.Adapter<Frame> callback = dockerClient.execStartCmd(exec.getId())
+			.exec(new ResultCallback.Adapter<>() {
+				@Override
+				public void onNext(Frame frame) {
+					if (frame.getStreamType() == StreamType.STDOUT) {
+						stdout.writeBytes(frame.getPayload());
+					}
+					else if (frame.getStreamType() == StreamType.STDERR) {
+						stderr.writeBytes(frame.getPayload());
+					}
+				}
+			});
+		boolean completed = callback.awaitCompletion(timeout.toMillis(), TimeUnit.MILLISECONDS);
+		if (!completed) {
+			try {
+				callback.close();
+			}
+			catch (IOException ignore) {
+			}
+			return new SandboxResult(-1, stdout.toString(Charset.defaultCharset()),
+					stderr.toString(Charset.defaultCharset()), true);
+		}
+		Long exitCode = dockerClient.inspectExecCmd(exec.getId()).exec().getExitCodeLong();
+		return new SandboxResult(exitCode == null ? -1 : exitCode.intValue(), stdout.toString(Charset.defaultCharset()),
+				stderr.toString(Charset.defaultCharset()), false);
+	}
+
+	private class DockerSandbox implements Sandbox {
+
+		private final String containerId;
+
+		private final String volumeName;
+
+		private SandboxLimits appliedLimits = initialLimits;
+
+		private DockerSandbox(String containerId, String volumeName) {
+			this.containerId = containerId;
+			this.volumeName = volumeName;
+		}
+
+		@Override
+		public SandboxResult execute(String code, String requirements, SandboxLimits limits) throws Exception {
+			updateLimits(limits);
+			Path tempDir = Files.createTempDirectory(namePrefix);
+			try {
+				Files.writeString(tempDir.resolve("script.py"), code);
+				if (StringUtils.hasText(requirements)) {
+					Files.writeString(tempDir.resolve("requirements.txt"), requirements);
+				}
+				copy(containerId, tempDir);
+				if (StringUtils.hasText(requirements)) {
+					installRequirements(tempDir);
+				}
+			}
+			finally {
+				FileSystemUtils.deleteRecursively(tempDir);
+			}
+			SandboxResult result = exec(containerId, dockerTimeout, "sh", "-c",
+					"export PYTHONPATH=\"" + DEPENDENCY_DIR + ":" + IMAGE_DEPENDENCY_DIR
+							+ ":$PYTHONPATH\" && timeout -s SIGKILL " + seconds(limits.timeout())
+							+ " python3 script.py");
+			return result.exitCode() == KILLED_EXIT_CODE
+					? new SandboxResult(result.exitCode(), result.stdout(), result.stderr(), true) : result;
+		}
+
+		@Override
+		public boolean reset() {
+			try {
+				return exec(containerId, dockerTimeout, "sh", "-c", RESET_SCRIPT).isSuccess();
+			}
+			catch (Exception e) {
+				return false;
+			}
+		}
+
+		@Override
+		public void close() {
+			remove(containerId, volumeName);
+		}
+
+		private void updateLimits(SandboxLimits limits) {
+			if (limits.memoryMb() == appliedLimits.memoryMb() && limits.cpuCores() == appliedLimits.cpuCores()) {
+				return;
+			}
+			long memory = limits.memoryMb() * 1024L * 1024L;
+			dockerClient.updateContainerCmd(containerId)
+				.withMemory(memory)
+				.withMemorySwap(memory)
+				.withCpuPeriod((int) CPU_PERIOD)
+				.withCpuQuota((int) (limits.cpuCores() * CPU_PERIOD))
+				.exec();
+			appliedLimits = limits;
+		}
+
+		private void installRequirements(Path tempDir) throws Exception {
+			String install = "pip3 install --target=" + DEPENDENCY_DIR
+					+ " --no-cache-dir --disable-pip-version-check -r requirements.txt";
+			SandboxResult result;
+			if (enableNetwork) {
+				result = exec(containerId, dockerTimeout, "sh", "-c", install);
+			}
+			else {
+				// If Python code is restricted from network access but requires
+				// third-party dependencies, we need to provision a docker for pip to
+				// install the dependencies into the volume of the sandbox.
+				result = installWithNetwork(tempDir, install);
+			}
+			if (!result.isSuccess()) {
+				throw new RequirementsInstallException(
+						result.killed() ? "timed out after " + dockerTimeout : result.stderr());
+			}
+		}
+
+		private SandboxResult installWithNetwork(Path tempDir, String install) throws InterruptedException {
+			CreateContainerResponse installer = dockerClient.createContainerCmd(imageName)
+				.withWorkingDir(WORK_DIR)
+				.withHostConfig(withLimits(createHostConfig(volumeName), appliedLimits).withNetworkMode("bridge"))
+				.withCmd("sleep", "infinity")
+				.exec();
+			try {
+				dockerClient.startContainerCmd(installer.getId()).exec();
+				copy(installer.getId(), tempDir);
+				return exec(installer.getId(), dockerTimeout, "sh", "-c", install);
+			}
+			finally {
+				try {
+					dockerClient.removeContainerCmd(installer.getId()).withForce(true).exec();
+				}
+				catch (Exception ignore) {
+				}
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.example.deepresearch.tool.sandbox;
+
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.StringUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 在本机子进程中执行代码的沙箱，每个沙箱有独立的临时工作目录，不依赖 Docker。 内存通过 ulimit 限制进程的地址空间（非
+ * Windows），超时后连同子进程一起杀死； 无法限制 CPU 核数，也不隔离网络和文件系统，只适合开发和测试。
+ *
+ * @since 2025/6/26
+ */
+public class LocalSandboxProvider implements SandboxProvider {
+
+	private static final boolean WINDOWS = System.getProperty("os.name", "").toLowerCase().startsWith("windows");
+
+	private final String pythonCommand;
+
+	private final String namePrefix;
+
+	private final Duration installTimeout;
+
+	/**
+	 * @param pythonCommand python executable, e.g. python3
+	 * @param namePrefix prefix of the temp directories
+	 * @param installTimeout time the requirements may take to install
+	 */
+	public LocalSandboxProvider(String pythonCommand, String namePrefix, Duration installTimeout) {
+		this.pythonCommand = pythonCommand;
+		this.namePrefix = namePrefix;
+		this.installTimeout = installTimeout;
+	}
+
+	@Override
+	public Sandbox create() throws IOException {
+		Path root = Files.createTempDirectory(namePrefix);
+		Files.createDirectory(root.resolve("app"));
+		return new LocalSandbox(root);
+	}
+
+	@Override
+	public String getName() {
+		return "local";
+	}
+
+	private class LocalSandbox implements Sandbox {
+
+		private final Path root;
+
+		// 代码的工作目录，输出文件放在其外面
+		private final Path workDir;
+
+		private LocalSandbox(Path root) {
+			this.root = root;
+			this.workDir = root.resolve("app");
+		}
+
+		@Override
+		public SandboxResult execute(String code, String requirements, SandboxLimits limits) throws Exception {
+			Files.writeString(workDir.resolve("script.py"), code);
+			if (StringUtils.hasText(requirements)) {
+				Files.writeString(workDir.resolve("requirements.txt"), requirements);
+				SandboxResult install = run(List.of(pythonCommand, "-m", "pip", "install", "--target=dependency",
+						"--no-cache-dir", "--disable-pip-version-check", "-r", "requirements.txt"), installTimeout);
+				if (!install.isSuccess()) {
+					throw new RequirementsInstallException(
+							install.killed() ? "timed out after " + installTimeout : install.stderr());
+				}
+			}
+			List<String> command = new ArrayList<>();
+			if (!WINDOWS && limits.memoryMb() > 0) {
+				// $0 为 python 命令，避免拼接到 shell 脚本中
+				command.addAll(List.of("sh", "-c",
+						"ulimit -v " + limits.memoryMb() * 1024 + " && exec \"$0\" script.py", pythonCommand));
+			}
+			else {
+				command.addAll(List.of(pythonCommand, "script.py"));
+			}
+			return run(command, limits.timeout());
+		}
+
+		@Override
+		public boolean reset() {
+			try (Stream<Path> files = Files.list(workDir)) {
+				for (Path file : files.toList()) {
+					FileSystemUtils.deleteRecursively(file);
+				}
+				return true;
+			}
+			catch (IOException e) {
+				return false;
+			}
+		}
+
+		@Override
+		public void close() {
+			try {
+				FileSystemUtils.deleteRecursively(root);
+			}
+			catch (IOException ignore) {
+			}
+		}
+
+		private SandboxResult run(List<String> command, Duration timeout) throws IOException, InterruptedException {
+			Path stdout = root.resolve("stdout");
+			Path stderr = root.resolve("stderr");
+			ProcessBuilder builder = new ProcessBuilder(command).directory(workDir.toFile())
+				.redirectOutput(stdout.toFile())
+				.redirectError(stderr.toFile());
+			String pythonPath = builder.environment().get("PYTHONPATH");
+			builder.environment()
+				.put("PYTHONPATH", workDir.resolve("dependency")
+						+ (StringUtils.hasText(pythonPath) ? File.pathSeparator + pythonPath : ""));
+			Process process = builder.start();
+			boolean finished = process.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS);
+			if (!finished) {
+				process.descendants().forEach(ProcessHandle::destroyForcibly);
+				process.destroyForcibly();
+				process.waitFor();
+			}
+			return new SandboxResult(process.exitValue(), read(stdout), read(stderr), !finished);
+		}
+
+		private static String read(Path file) throws IOException {
+			return new String(Files.readAllBytes(file), Charset.defaultCharset());
+		}
+
+	}
+
+}
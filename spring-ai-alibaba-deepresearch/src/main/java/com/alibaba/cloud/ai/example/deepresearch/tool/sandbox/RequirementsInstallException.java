@@ -0,0 +1,34 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.example.deepresearch.tool.sandbox;
+
+/**
+ * 安装 requirements.txt 中的依赖失败
+ *
+ * @since 2025/6/26
+ */
+public class RequirementsInstallException extends Exception {
+
+	public RequirementsInstallException(String message) {
+		super(message);
+	}
+
+	public RequirementsInstallException(String message, Throwable cause) {
+		super(message, cause);
+	}
+
+}
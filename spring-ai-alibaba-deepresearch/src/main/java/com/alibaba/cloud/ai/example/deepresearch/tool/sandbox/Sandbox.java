@@ -0,0 +1,42 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.example.deepresearch.tool.sandbox;
+
+/**
+ * 执行 Python 代码的沙箱。一个沙箱同一时间只执行一段代码，执行之后重置以便复用。
+ *
+ * @since 2025/6/26
+ */
+public interface Sandbox extends AutoCloseable {
+
+	/**
+	 * Installs the requirements and runs the code within the limits.
+	 * @param requirements content of requirements.txt, may be empty
+	 * @throws RequirementsInstallException if the requirements could not be installed
+	 */
+	SandboxResult execute(String code, String requirements, SandboxLimits limits) throws Exception;
+
+	/**
+	 * Removes the files, dependencies and processes left by the last execution.
+	 * @return false if the sandbox cannot be reused and has to be closed
+	 */
+	boolean reset();
+
+	@Override
+	void close();
+
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.example.deepresearch.tool.sandbox;
+
+import java.time.Duration;
+
+/**
+ * 单次执行的资源限制
+ *
+ * @param cpuCores CPU cores the code may use
+ * @param memoryMb memory the code may use (MB)
+ * @param timeout time after which the code is killed
+ * @since 2025/6/26
+ */
+public record SandboxLimits(long cpuCores, long memoryMb, Duration timeout) {
+
+}
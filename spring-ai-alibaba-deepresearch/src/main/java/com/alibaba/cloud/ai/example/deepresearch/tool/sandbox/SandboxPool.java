@@ -0,0 +1,210 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.example.deepresearch.tool.sandbox;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 预先启动的沙箱池：执行代码时借用空闲的沙箱，执行之后在后台重置并放回，不再为每次执行启动新的容器。
+ * 超出限制被杀死、执行出错或重置失败的沙箱会被关闭，并在后台启动新的沙箱补充。同时执行的代码数不超过池的大小。
+ *
+ * @since 2025/6/26
+ */
+public class SandboxPool implements AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(SandboxPool.class);
+
+	private final SandboxProvider provider;
+
+	private final int size;
+
+	private final Duration acquireTimeout;
+
+	private final BlockingQueue<Sandbox> idle = new LinkedBlockingQueue<>();
+
+	// 执行中和重置中的沙箱各占用一个许可
+	private final Semaphore permits;
+
+	// 已启动和正在启动的沙箱数
+	private final AtomicInteger total = new AtomicInteger();
+
+	private final ExecutorService maintainer;
+
+	private volatile boolean closed;
+
+	/**
+	 * Starts filling the pool in the background.
+	 * @param size sandboxes kept started, also the max number of concurrent executions
+	 * @param acquireTimeout time an execution waits for a sandbox when all are busy
+	 */
+	public SandboxPool(SandboxProvider provider, int size, Duration acquireTimeout) {
+		Assert.isTrue(size > 0, "size must be positive");
+		this.provider = provider;
+		this.size = size;
+		this.acquireTimeout = acquireTimeout;
+		this.permits = new Semaphore(size, true);
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("sandbox-pool-");
+		threadFactory.setDaemon(true);
+		this.maintainer = Executors.newCachedThreadPool(threadFactory);
+		for (int i = 0; i < size; i++) {
+			maintainer.execute(this::replenish);
+		}
+	}
+
+	/**
+	 * Runs the code in a pooled sandbox. Returns as soon as the code finished, the
+	 * sandbox is reset in the background.
+	 * @throws TimeoutException if no sandbox became free within the acquire timeout
+	 */
+	public SandboxResult execute(String code, String requirements, SandboxLimits limits) throws Exception {
+		if (closed) {
+			throw new IllegalStateException("Sandbox pool is closed");
+		}
+		if (!permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+			throw new TimeoutException("No sandbox available within " + acquireTimeout);
+		}
+		Sandbox sandbox = null;
+		boolean reusable = false;
+		try {
+			sandbox = idle.poll();
+			if (sandbox == null) {
+				// 预热的沙箱还未启动完成，现场启动一个
+				total.incrementAndGet();
+				try {
+					sandbox = provider.create();
+				}
+				catch (Exception e) {
+					total.decrementAndGet();
+					throw e;
+				}
+			}
+			SandboxResult result = sandbox.execute(code, requirements, limits);
+			reusable = !result.killed();
+			return result;
+		}
+		finally {
+			if (sandbox == null) {
+				permits.release();
+			}
+			else {
+				Sandbox used = sandbox;
+				boolean recyclable = reusable;
+				try {
+					maintainer.execute(() -> recycle(used, recyclable));
+				}
+				catch (RejectedExecutionException e) {
+					// 池已关闭
+					discard(used);
+					permits.release();
+				}
+			}
+		}
+	}
+
+	public String getProviderName() {
+		return provider.getName();
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Sandboxes started and waiting for an execution.
+	 */
+	public int getIdleCount() {
+		return idle.size();
+	}
+
+	@Override
+	public void close() {
+		closed = true;
+		maintainer.shutdownNow();
+		Sandbox sandbox;
+		while ((sandbox = idle.poll()) != null) {
+			discard(sandbox);
+		}
+		provider.close();
+	}
+
+	private void recycle(Sandbox sandbox, boolean reusable) {
+		try {
+			if (reusable && !closed && total.get() <= size && sandbox.reset()) {
+				idle.offer(sandbox);
+				if (closed && idle.remove(sandbox)) {
+					discard(sandbox);
+				}
+				return;
+			}
+			discard(sandbox);
+			replenish();
+		}
+		catch (Exception e) {
+			// 重置失败的沙箱状态未知，关闭后补充新的
+			logger.warn("Failed to recycle sandbox of {}: {}", provider.getName(), e.getMessage());
+			discard(sandbox);
+			replenish();
+		}
+		finally {
+			permits.release();
+		}
+	}
+
+	private void replenish() {
+		if (closed || total.incrementAndGet() > size) {
+			total.decrementAndGet();
+			return;
+		}
+		try {
+			Sandbox sandbox = provider.create();
+			idle.offer(sandbox);
+			if (closed && idle.remove(sandbox)) {
+				discard(sandbox);
+			}
+		}
+		catch (Exception e) {
+			// 下次执行时会现场启动
+			total.decrementAndGet();
+			logger.warn("Failed to start sandbox of {}: {}", provider.getName(), e.getMessage());
+		}
+	}
+
+	private void discard(Sandbox sandbox) {
+		total.decrementAndGet();
+		try {
+			sandbox.close();
+		}
+		catch (Exception e) {
+			logger.warn("Failed to close sandbox of {}: {}", provider.getName(), e.getMessage());
+		}
+	}
+
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.example.deepresearch.tool.sandbox;
+
+/**
+ * 沙箱的提供者，负责启动新的沙箱。启动较慢，由 {@link SandboxPool} 预先启动并在执行之间复用。
+ *
+ * @since 2025/6/26
+ */
+public interface SandboxProvider extends AutoCloseable {
+
+	/**
+	 * Starts a new sandbox, ready to execute code.
+	 */
+	Sandbox create() throws Exception;
+
+	String getName();
+
+	/**
+	 * Releases resources shared by the sandboxes, after all of them are closed.
+	 */
+	@Override
+	default void close() {
+	}
+
+}
@@ -20,6 +20,7 @@ import com.alibaba.cloud.ai.example.deepresearch.model.dto.Plan;
 import com.alibaba.cloud.ai.graph.OverAllState;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.util.StringUtils;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -44,6 +45,8 @@ public class StateUtil {
 
 	public static final String EXECUTION_STATUS_COMPLETED_PREFIX = "completed_";
 
+	public static final String EXECUTION_STATUS_FAILED_PREFIX = "failed_";
+
 	public static List<String> getMessagesByType(OverAllState state, String name) {
 		return state.value(name, List.class).map(obj -> new ArrayList<>((List<String>) obj)).orElseGet(ArrayList::new);
 	}
@@ -55,12 +58,10 @@ public class StateUtil {
 			for (int i = 0; i < count; i++) {
 				String nodeName = item + "_content_" + i;
 				Optional<String> value = state.value(nodeName, String.class);
-				if (value.isPresent()) {
+				// 执行节点按需领取步骤，没有领到步骤的节点内容为空
+				if (value.isPresent() && StringUtils.hasText(value.get())) {
 					resList.add(value.get());
 				}
-				else {
-					break;
-				}
 			}
 		}
 		return resList;
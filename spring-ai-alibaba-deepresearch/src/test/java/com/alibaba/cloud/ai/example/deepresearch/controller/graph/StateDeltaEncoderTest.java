@@ -0,0 +1,237 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.example.deepresearch.controller.graph;
+
+import com.alibaba.cloud.ai.graph.NodeOutput;
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.streaming.StreamingOutput;
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 增量事件依次应用后与完整状态一致，且远小于每次发送完整状态
+ *
+ * @since 2025/6/25
+ */
+class StateDeltaEncoderTest {
+
+	@Test
+	void firstEventCarriesWholeStateThenOnlyChanges() {
+		StateDeltaEncoder encoder = new StateDeltaEncoder();
+		Map<String, Object> data = new HashMap<>(Map.of("query", "q", "max_step_num", 3));
+
+		JSONObject first = JSON.parseObject(encoder.encode(output("coordinator", data)));
+		assertThat(first.getLongValue("seq")).isEqualTo(1);
+		assertThat(first.getJSONObject("changed").keySet()).containsExactlyInAnyOrder("query", "max_step_num");
+
+		JSONObject unchanged = JSON.parseObject(encoder.encode(output("planner", data)));
+		assertThat(unchanged.getLongValue("seq")).isEqualTo(2);
+		assertThat(unchanged.keySet()).containsExactlyInAnyOrder("seq", "node");
+	}
+
+	@Test
+	void growingTextIsSentAsAppendedChunk() {
+		StateDeltaEncoder encoder = new StateDeltaEncoder();
+		Map<String, Object> data = new HashMap<>(Map.of("final_report", "# Report"));
+		encoder.encode(output("reporter", data));
+
+		data.put("final_report", "# Report\n\nmore");
+		JSONObject event = JSON.parseObject(encoder.encode(output("reporter", data)));
+		assertThat(event.getJSONObject("appended").getString("final_report")).isEqualTo("\n\nmore");
+		assertThat(event.containsKey("changed")).isFalse();
+
+		data.put("final_report", "rewritten");
+		event = JSON.parseObject(encoder.encode(output("reporter", data)));
+		assertThat(event.getJSONObject("changed").getString("final_report")).isEqualTo("rewritten");
+	}
+
+	@Test
+	void growingListIsSentAsAppendedElements() {
+		StateDeltaEncoder encoder = new StateDeltaEncoder();
+		Map<String, Object> data = new HashMap<>(Map.of("observations", List.of("a")));
+		encoder.encode(output("researcher_0", data));
+
+		data.put("observations", List.of("a", "b", "c"));
+		JSONObject event = JSON.parseObject(encoder.encode(output("researcher_1", data)));
+		assertThat(event.getJSONObject("appended").getJSONArray("observations")).containsExactly("b", "c");
+
+		data.put("observations", List.of("c"));
+		event = JSON.parseObject(encoder.encode(output("researcher_1", data)));
+		assertThat(event.getJSONObject("changed").getJSONArray("observations")).containsExactly("c");
+	}
+
+	@Test
+	void serializesOnlyNewListElements() {
+		StateDeltaEncoder encoder = new StateDeltaEncoder();
+		AtomicInteger serialized = new AtomicInteger();
+		List<Object> observations = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			observations.add(new Observation("result " + i, serialized));
+		}
+		Map<String, Object> data = new HashMap<>(Map.of("observations", new ArrayList<>(observations)));
+		encoder.encode(output("researcher_0", data));
+		serialized.set(0);
+
+		observations.add(new Observation("result 100", serialized));
+		data.put("observations", new ArrayList<>(observations));
+		JSONObject event = JSON.parseObject(encoder.encode(output("researcher_1", data)));
+		assertThat(event.getJSONObject("appended").getJSONArray("observations")).hasSize(1);
+
+		JSONObject unchanged = JSON.parseObject(encoder.encode(output("researcher_1", data)));
+		assertThat(unchanged.containsKey("appended")).isFalse();
+		// 新增的元素在记录和事件中各序列化一次，没有变化时不再序列化
+		assertThat(serialized.get()).isEqualTo(2);
+	}
+
+	@Test
+	void replacedListElementsFallBackToFullComparison() {
+		StateDeltaEncoder encoder = new StateDeltaEncoder();
+		AtomicInteger serialized = new AtomicInteger();
+		Map<String, Object> data = new HashMap<>(
+				Map.of("observations", List.of(new Observation("a", serialized), new Observation("b", serialized))));
+		encoder.encode(output("researcher_0", data));
+
+		// 内容相同的新对象不产生事件
+		data.put("observations", List.of(new Observation("a", serialized), new Observation("b", serialized),
+				new Observation("c", serialized)));
+		JSONObject event = JSON.parseObject(encoder.encode(output("researcher_1", data)));
+		assertThat(event.getJSONObject("appended").getJSONArray("observations")).hasSize(1);
+		assertThat(event.containsKey("changed")).isFalse();
+
+		data.put("observations", List.of(new Observation("x", serialized), new Observation("b", serialized),
+				new Observation("c", serialized)));
+		event = JSON.parseObject(encoder.encode(output("researcher_1", data)));
+		assertThat(event.getJSONObject("changed").getJSONArray("observations")).hasSize(3);
+	}
+
+	@Test
+	void detectsInPlaceMutationsAndRemovedKeys() {
+		StateDeltaEncoder encoder = new StateDeltaEncoder();
+		Map<String, Object> plan = new LinkedHashMap<>(Map.of("title", "plan"));
+		Map<String, Object> data = new HashMap<>(Map.of("current_plan", plan, "feed_back", true));
+		encoder.encode(output("planner", data));
+
+		// 计划对象在原地被修改
+		plan.put("executionRes", "done");
+		data.remove("feed_back");
+		JSONObject event = JSON.parseObject(encoder.encode(output("research_team", data)));
+		assertThat(event.getJSONObject("changed").getJSONObject("current_plan").getString("executionRes"))
+			.isEqualTo("done");
+		assertThat(event.getJSONArray("removed")).containsExactly("feed_back");
+	}
+
+	@Test
+	void streamedChunksAreSequenced() {
+		StateDeltaEncoder encoder = new StateDeltaEncoder();
+		JSONObject event = JSON
+			.parseObject(encoder.encode(new StreamingOutput("hello", "researcher_llm_stream_0", new OverAllState())));
+
+		assertThat(event.getLongValue("seq")).isEqualTo(1);
+		assertThat(event.getString("chunk")).isEqualTo("hello");
+	}
+
+	/**
+	 * Simulates a run whose research results pile up: applying the events gives the
+	 * snapshot, the events are a fraction of sending the state every time.
+	 */
+	@Test
+	void appliedDeltasMatchSnapshotAndAreSmallerThanFullState() {
+		StateDeltaEncoder encoder = new StateDeltaEncoder();
+		Map<String, Object> data = new HashMap<>(Map.of("query", "why"));
+		List<String> observations = new ArrayList<>();
+		Map<String, Object> client = new HashMap<>();
+		long deltaBytes = 0;
+		long fullBytes = 0;
+		for (int i = 0; i < 50; i++) {
+			observations.add("result " + i + " " + "x".repeat(2000));
+			data.put("observations", new ArrayList<>(observations));
+			data.put("researcher_content_" + (i % 5), "content " + i);
+			NodeOutput output = output("researcher_" + (i % 5), data);
+
+			String event = encoder.encode(output);
+			deltaBytes += event.length();
+			fullBytes += JSON.toJSONString(Map.of("node", output.node(), "data", data)).length();
+			apply(client, JSON.parseObject(event));
+		}
+
+		JSONObject snapshot = JSON.parseObject(encoder.snapshot());
+		assertThat(snapshot.getLongValue("seq")).isEqualTo(50);
+		assertThat(JSON.parseObject(JSON.toJSONString(client))).isEqualTo(snapshot.getJSONObject("data"))
+			.isEqualTo(JSON.parseObject(JSON.toJSONString(data)));
+		// 完整状态随结果累积二次增长，增量事件只带新增的结果
+		assertThat(deltaBytes * 10).isLessThan(fullBytes);
+	}
+
+	private static void apply(Map<String, Object> client, JSONObject event) {
+		JSONObject changed = event.getJSONObject("changed");
+		if (changed != null) {
+			client.putAll(changed);
+		}
+		JSONObject appended = event.getJSONObject("appended");
+		if (appended != null) {
+			appended.forEach((key, chunk) -> {
+				if (chunk instanceof List<?> elements) {
+					List<Object> list = new ArrayList<>((List<?>) client.get(key));
+					list.addAll(elements);
+					client.put(key, list);
+				}
+				else {
+					client.put(key, client.get(key) + (String) chunk);
+				}
+			});
+		}
+		if (event.getJSONArray("removed") != null) {
+			event.getJSONArray("removed").forEach(client::remove);
+		}
+	}
+
+	/**
+	 * 序列化时计数的列表元素
+	 */
+	public static final class Observation {
+
+		private final String content;
+
+		private final AtomicInteger serialized;
+
+		Observation(String content, AtomicInteger serialized) {
+			this.content = content;
+			this.serialized = serialized;
+		}
+
+		public String getContent() {
+			serialized.incrementAndGet();
+			return content;
+		}
+
+	}
+
+	private static NodeOutput output(String node, Map<String, Object> data) {
+		return NodeOutput.of(node, new OverAllState(new HashMap<>(data)));
+	}
+
+}
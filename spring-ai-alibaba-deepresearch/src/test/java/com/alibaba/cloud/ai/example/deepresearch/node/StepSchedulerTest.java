@@ -0,0 +1,241 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.example.deepresearch.node;
+
+import com.alibaba.cloud.ai.example.deepresearch.model.dto.Plan;
+import com.alibaba.cloud.ai.example.deepresearch.util.StateUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 用耗时不均的假执行节点验证共享队列的调度，时间由 VirtualTimeScheduler 推进
+ *
+ * @since 2025/6/24
+ */
+class StepSchedulerTest {
+
+	private VirtualTimeScheduler virtualTime;
+
+	@BeforeEach
+	void setUp() {
+		virtualTime = VirtualTimeScheduler.getOrSet();
+	}
+
+	@AfterEach
+	void tearDown() {
+		VirtualTimeScheduler.reset();
+	}
+
+	@Test
+	void sharedQueueShortensMakespanOfUnevenSteps() {
+		// 一个长步骤和八个短步骤，三个执行节点
+		long[] durations = { 600, 100, 100, 100, 100, 100, 100, 100, 100 };
+		int executors = 3;
+
+		long roundRobinMakespan = runRoundRobin(durations, executors);
+		long sharedQueueMakespan = runSharedQueue(plan(durations), new StepScheduler(), executors, this::sleep);
+
+		// 轮询分配时长步骤所在的节点还要执行两个短步骤，共享队列时短步骤由其他节点领取
+		assertThat(roundRobinMakespan).isEqualTo(800);
+		assertThat(sharedQueueMakespan).isEqualTo(600);
+	}
+
+	@Test
+	void failedStepIsRetried() {
+		Plan plan = plan(100, 100);
+		AtomicInteger attempts = new AtomicInteger();
+		Function<Plan.Step, Flux<ChatResponse>> flaky = step -> {
+			if (step == plan.getSteps().get(0) && attempts.getAndIncrement() == 0) {
+				return Flux.error(new IllegalStateException("connection reset"));
+			}
+			return sleep(step);
+		};
+
+		runSharedQueue(plan, new StepScheduler(Map.of(), Duration.ofSeconds(10), 1), 2, flaky);
+
+		assertThat(attempts.get()).isEqualTo(2);
+		assertThat(plan.getSteps()).allSatisfy(step -> {
+			assertThat(step.getExecutionStatus()).startsWith(StateUtil.EXECUTION_STATUS_COMPLETED_PREFIX);
+			assertThat(step.getExecutionRes()).isEqualTo("done " + step.getTitle());
+		});
+	}
+
+	@Test
+	void stepTimingOutAfterRetriesIsFailed() {
+		Plan plan = plan(100, 100);
+		Plan.Step hanging = plan.getSteps().get(0);
+		AtomicInteger attempts = new AtomicInteger();
+		Function<Plan.Step, Flux<ChatResponse>> executor = step -> {
+			if (step == hanging) {
+				attempts.incrementAndGet();
+				// 先输出一部分内容，然后不再响应
+				return Flux.concat(Flux.just(response("partial")), Flux.never());
+			}
+			return sleep(step);
+		};
+
+		long makespan = runSharedQueue(plan, new StepScheduler(Map.of(), Duration.ofMillis(300), 1), 2, executor);
+
+		// 超时从步骤开始计算，两次尝试共 600ms
+		assertThat(makespan).isEqualTo(600);
+		assertThat(attempts.get()).isEqualTo(2);
+		assertThat(hanging.getExecutionStatus()).startsWith(StateUtil.EXECUTION_STATUS_FAILED_PREFIX);
+		assertThat(hanging.getExecutionRes()).contains("2 attempts").contains("timed out");
+		assertThat(plan.getSteps().get(1).getExecutionStatus())
+			.startsWith(StateUtil.EXECUTION_STATUS_COMPLETED_PREFIX);
+	}
+
+	@Test
+	void concurrencyLimitBoundsRunningStepsOfAType() {
+		Plan plan = plan(100, 100, 100, 100);
+		StepScheduler scheduler = new StepScheduler(Map.of(Plan.StepType.RESEARCH, 2), Duration.ofSeconds(10), 0);
+
+		assertThat(scheduler.claim(plan, Plan.StepType.RESEARCH, "researcher_0")).isPresent();
+		assertThat(scheduler.claim(plan, Plan.StepType.RESEARCH, "researcher_1")).isPresent();
+		assertThat(scheduler.claim(plan, Plan.StepType.RESEARCH, "researcher_2")).isEmpty();
+
+		assertThat(runSharedQueue(plan(100, 100, 100, 100), scheduler, 4, this::sleep)).isEqualTo(200);
+	}
+
+	@Test
+	void processingStepsWaitForResearchSteps() {
+		Plan plan = plan(100, 100);
+		Plan.Step processing = step("process", Plan.StepType.PROCESSING);
+		plan.getSteps().add(processing);
+		StepScheduler scheduler = new StepScheduler();
+
+		assertThat(scheduler.claim(plan, Plan.StepType.PROCESSING, "coder_0")).isEmpty();
+
+		runSharedQueue(plan, scheduler, 2, this::sleep);
+
+		assertThat(scheduler.claim(plan, Plan.StepType.PROCESSING, "coder_0")).containsSame(processing);
+	}
+
+	@Test
+	void abandonedStepsAreReleased() {
+		Plan plan = plan(100, 100);
+		StepScheduler scheduler = new StepScheduler();
+		Plan.Step claimed = scheduler.claim(plan, Plan.StepType.RESEARCH, "researcher_0").orElseThrow();
+
+		assertThat(scheduler.releaseAbandonedSteps(plan)).isEqualTo(1);
+		assertThat(scheduler.claim(plan, Plan.StepType.RESEARCH, "researcher_1")).containsSame(claimed);
+	}
+
+	/**
+	 * Runs the executors like the graph does: every executor claims its first step when
+	 * the node is applied, then keeps pulling from the queue.
+	 * @return the virtual time at which the last executor finished
+	 */
+	private long runSharedQueue(Plan plan, StepScheduler scheduler, int executors,
+			Function<Plan.Step, Flux<ChatResponse>> stepExecutor) {
+		long start = now();
+		List<Flux<ChatResponse>> streams = new ArrayList<>();
+		for (int i = 0; i < executors; i++) {
+			String executorName = "researcher_" + i;
+			Optional<Plan.Step> firstStep = scheduler.claim(plan, Plan.StepType.RESEARCH, executorName);
+			firstStep.ifPresent(step -> streams.add(scheduler.execute(plan, step, executorName, stepExecutor)));
+		}
+		return awaitAll(streams) - start;
+	}
+
+	/**
+	 * Runs the executors with steps assigned by round-robin index before they start, as
+	 * ParallelExecutorNode did.
+	 */
+	private long runRoundRobin(long[] durations, int executors) {
+		long start = now();
+		Plan plan = plan(durations);
+		Map<Integer, List<Plan.Step>> assigned = new HashMap<>();
+		for (int i = 0; i < plan.getSteps().size(); i++) {
+			assigned.computeIfAbsent(i % executors, k -> new ArrayList<>()).add(plan.getSteps().get(i));
+		}
+		List<Flux<ChatResponse>> streams = new ArrayList<>();
+		assigned.values().forEach(steps -> streams.add(Flux.fromIterable(steps).concatMap(this::sleep)));
+		return awaitAll(streams) - start;
+	}
+
+	private long awaitAll(List<Flux<ChatResponse>> streams) {
+		AtomicInteger running = new AtomicInteger(streams.size());
+		long[] finished = new long[1];
+		for (Flux<ChatResponse> stream : streams) {
+			stream.doOnTerminate(() -> {
+				finished[0] = Math.max(finished[0], now());
+				running.decrementAndGet();
+			}).subscribe();
+		}
+		virtualTime.advanceTimeBy(Duration.ofMinutes(1));
+		assertThat(running.get()).isZero();
+		return finished[0];
+	}
+
+	/**
+	 * A fake executor that streams one chunk after the duration in the step description.
+	 */
+	private Flux<ChatResponse> sleep(Plan.Step step) {
+		return Mono.delay(Duration.ofMillis(Long.parseLong(step.getDescription())))
+			.map(tick -> response("done " + step.getTitle()))
+			.flux();
+	}
+
+	private long now() {
+		return virtualTime.now(TimeUnit.MILLISECONDS);
+	}
+
+	private static Plan plan(long... durations) {
+		List<Plan.Step> steps = new ArrayList<>();
+		for (int i = 0; i < durations.length; i++) {
+			Plan.Step step = step("step " + i, Plan.StepType.RESEARCH);
+			step.setDescription(String.valueOf(durations[i]));
+			steps.add(step);
+		}
+		Plan plan = new Plan();
+		plan.setSteps(steps);
+		return plan;
+	}
+
+	private static Plan.Step step(String title, Plan.StepType type) {
+		Plan.Step step = new Plan.Step();
+		step.setTitle(title);
+		step.setStepType(type);
+		step.setDescription("100");
+		return step;
+	}
+
+	private static ChatResponse response(String text) {
+		return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+	}
+
+}
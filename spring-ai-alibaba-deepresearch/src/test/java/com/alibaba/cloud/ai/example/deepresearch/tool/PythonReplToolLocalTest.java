@@ -0,0 +1,77 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.example.deepresearch.tool;
+
+import com.alibaba.cloud.ai.example.deepresearch.config.PythonCoderProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Run Python Code in the local sandbox, without Docker
+ *
+ * @since 2025/6/26
+ */
+class PythonReplToolLocalTest {
+
+	private PythonReplTool pythonReplTool;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		Process process = new ProcessBuilder("python3", "--version").start();
+		assumeTrue(process.waitFor(10, TimeUnit.SECONDS) && process.exitValue() == 0, "python3 is not installed");
+
+		PythonCoderProperties properties = new PythonCoderProperties();
+		properties.setSandboxType(PythonCoderProperties.SandboxType.LOCAL);
+		properties.setPoolSize(1);
+		properties.setCodeTimeout("1s");
+		pythonReplTool = new PythonReplTool(properties);
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (pythonReplTool != null) {
+			pythonReplTool.close();
+		}
+	}
+
+	@Test
+	void executesCodeInThePooledSandbox() {
+		String first = pythonReplTool.executePythonCode(PythonReplToolBasisTest.NORMAL_CODE, null);
+		String second = pythonReplTool.executePythonCode(PythonReplToolBasisTest.NORMAL_CODE, null);
+
+		assertThat(first).contains("Successfully executed").contains("3628800");
+		assertThat(second).isEqualTo(first);
+	}
+
+	@Test
+	void reportsErrorsAndTimeouts() {
+		assertThat(pythonReplTool.executePythonCode(PythonReplToolBasisTest.ERROR_CODE, null))
+			.contains("Error executing code")
+			.contains("SyntaxError");
+		assertThat(pythonReplTool.executePythonCode(PythonReplToolBasisTest.TIMEOUT_CODE, null))
+			.contains("Error executing code")
+			.contains("Killed");
+		assertThat(pythonReplTool.executePythonCode(" ", null)).isEqualTo("Error: Code must be a non-empty string.");
+	}
+
+}
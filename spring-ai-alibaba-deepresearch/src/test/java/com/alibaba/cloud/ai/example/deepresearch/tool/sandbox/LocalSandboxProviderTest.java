@@ -0,0 +1,115 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.example.deepresearch.tool.sandbox;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 本机子进程沙箱的执行、重置和资源限制，需要本机安装 python3
+ *
+ * @since 2025/6/26
+ */
+class LocalSandboxProviderTest {
+
+	private static final SandboxLimits LIMITS = new SandboxLimits(1, 200, Duration.ofSeconds(10));
+
+	private final LocalSandboxProvider provider = new LocalSandboxProvider("python3", "python-coder",
+			Duration.ofSeconds(60));
+
+	private Sandbox sandbox;
+
+	@BeforeAll
+	static void assumePythonInstalled() {
+		boolean installed;
+		try {
+			Process process = new ProcessBuilder("python3", "--version").start();
+			installed = process.waitFor(10, TimeUnit.SECONDS) && process.exitValue() == 0;
+		}
+		catch (Exception e) {
+			installed = false;
+		}
+		assumeTrue(installed, "python3 is not installed");
+	}
+
+	@BeforeEach
+	void setUp() throws Exception {
+		sandbox = provider.create();
+	}
+
+	@AfterEach
+	void tearDown() {
+		sandbox.close();
+	}
+
+	@Test
+	void runsCodeAndResetsTheWorkspace() throws Exception {
+		SandboxResult result = sandbox.execute("""
+				import os
+				open("left.txt", "w").write("x")
+				print(sorted(os.listdir(".")))
+				""", "", LIMITS);
+		assertThat(result.isSuccess()).isTrue();
+		assertThat(result.stdout()).contains("left.txt").contains("script.py");
+
+		assertThat(sandbox.reset()).isTrue();
+
+		result = sandbox.execute("import os\nprint(sorted(os.listdir('.')))", "", LIMITS);
+		assertThat(result.stdout().trim()).isEqualTo("['script.py']");
+	}
+
+	@Test
+	void reportsErrorsOfTheCode() throws Exception {
+		SandboxResult result = sandbox.execute("void main() {}", "", LIMITS);
+
+		assertThat(result.isSuccess()).isFalse();
+		assertThat(result.killed()).isFalse();
+		assertThat(result.stderr()).contains("SyntaxError");
+	}
+
+	@Test
+	void codeExceedingTheTimeoutIsKilled() throws Exception {
+		long start = System.nanoTime();
+		SandboxResult result = sandbox.execute("while True:\n    pass", "",
+				new SandboxLimits(1, 200, Duration.ofMillis(500)));
+
+		assertThat(result.killed()).isTrue();
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+	}
+
+	@Test
+	void memoryIsLimitedPerExecution() throws Exception {
+		assumeTrue(!System.getProperty("os.name", "").toLowerCase().startsWith("windows"));
+		String allocate = "data = bytearray(300 * 1024 * 1024)\nprint(len(data))";
+
+		SandboxResult limited = sandbox.execute(allocate, "", new SandboxLimits(1, 100, Duration.ofSeconds(10)));
+		assertThat(limited.isSuccess()).isFalse();
+		assertThat(limited.stderr()).contains("MemoryError");
+
+		SandboxResult enough = sandbox.execute(allocate, "", new SandboxLimits(1, 1024, Duration.ofSeconds(10)));
+		assertThat(enough.stdout().trim()).isEqualTo(String.valueOf(300 * 1024 * 1024));
+	}
+
+}
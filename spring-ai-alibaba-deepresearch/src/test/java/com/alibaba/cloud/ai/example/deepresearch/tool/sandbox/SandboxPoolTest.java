@@ -0,0 +1,273 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.example.deepresearch.tool.sandbox;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 用假的沙箱验证沙箱池的预热、复用、替换和并发限制，不需要 Docker
+ *
+ * @since 2025/6/26
+ */
+class SandboxPoolTest {
+
+	private static final SandboxLimits LIMITS = new SandboxLimits(1, 100, Duration.ofSeconds(1));
+
+	private final FakeProvider provider = new FakeProvider();
+
+	private SandboxPool pool;
+
+	@AfterEach
+	void tearDown() {
+		if (pool != null) {
+			pool.close();
+		}
+	}
+
+	@Test
+	void sandboxesAreStartedInAdvance() {
+		pool = new SandboxPool(provider, 2, Duration.ofSeconds(5));
+
+		await(() -> pool.getIdleCount() == 2);
+		assertThat(provider.sandboxes).hasSize(2);
+	}
+
+	@Test
+	void sandboxIsResetAndReusedBetweenExecutions() throws Exception {
+		pool = new SandboxPool(provider, 1, Duration.ofSeconds(5));
+		await(() -> pool.getIdleCount() == 1);
+
+		assertThat(pool.execute("print(1)", "", LIMITS).stdout()).isEqualTo("print(1)");
+		assertThat(pool.execute("print(2)", "", LIMITS).stdout()).isEqualTo("print(2)");
+
+		assertThat(provider.sandboxes).hasSize(1);
+		FakeSandbox sandbox = provider.sandboxes.get(0);
+		await(() -> sandbox.resets.get() == 2);
+		assertThat(sandbox.executions.get()).isEqualTo(2);
+		assertThat(sandbox.closed).isFalse();
+	}
+
+	@Test
+	void killedSandboxIsReplaced() throws Exception {
+		pool = new SandboxPool(provider, 1, Duration.ofSeconds(5));
+		await(() -> pool.getIdleCount() == 1);
+
+		assertThat(pool.execute(FakeSandbox.KILL, "", LIMITS).killed()).isTrue();
+
+		await(() -> provider.sandboxes.size() == 2 && pool.getIdleCount() == 1);
+		assertThat(provider.sandboxes.get(0).closed).isTrue();
+		assertThat(provider.sandboxes.get(0).resets.get()).isZero();
+	}
+
+	@Test
+	void sandboxFailingToResetIsReplaced() throws Exception {
+		pool = new SandboxPool(provider, 1, Duration.ofSeconds(5));
+		await(() -> pool.getIdleCount() == 1);
+		provider.sandboxes.get(0).resettable = false;
+
+		pool.execute("print(1)", "", LIMITS);
+
+		await(() -> provider.sandboxes.size() == 2 && pool.getIdleCount() == 1);
+		assertThat(provider.sandboxes.get(0).closed).isTrue();
+	}
+
+	@Test
+	void sandboxThrowingOnResetIsReplaced() throws Exception {
+		pool = new SandboxPool(provider, 1, Duration.ofSeconds(5));
+		await(() -> pool.getIdleCount() == 1);
+		provider.sandboxes.get(0).resetFailure = new IllegalStateException("container gone");
+
+		pool.execute("print(1)", "", LIMITS);
+
+		await(() -> provider.sandboxes.size() == 2 && pool.getIdleCount() == 1);
+		assertThat(provider.sandboxes.get(0).closed).isTrue();
+		assertThat(pool.execute("print(2)", "", LIMITS).stdout()).isEqualTo("print(2)");
+		assertThat(provider.sandboxes.get(1).executions.get()).isEqualTo(1);
+	}
+
+	@Test
+	void sandboxIsStartedOnDemandWhenNoneIsIdle() throws Exception {
+		provider.failing = true;
+		pool = new SandboxPool(provider, 1, Duration.ofSeconds(5));
+		await(() -> provider.attempts.get() == 1);
+		provider.failing = false;
+
+		assertThat(pool.execute("print(1)", "", LIMITS).isSuccess()).isTrue();
+		assertThat(provider.sandboxes).hasSize(1);
+	}
+
+	@Test
+	void concurrentExecutionsAreBoundedByPoolSize() throws Exception {
+		pool = new SandboxPool(provider, 2, Duration.ofMillis(200));
+		await(() -> pool.getIdleCount() == 2);
+		CountDownLatch release = new CountDownLatch(1);
+		provider.sandboxes.forEach(sandbox -> sandbox.blocker = release);
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			List<Future<SandboxResult>> running = List.of(executor.submit(() -> pool.execute("print(1)", "", LIMITS)),
+					executor.submit(() -> pool.execute("print(2)", "", LIMITS)));
+			await(() -> provider.running.get() == 2);
+
+			assertThatThrownBy(() -> pool.execute("print(3)", "", LIMITS)).isInstanceOf(TimeoutException.class);
+
+			release.countDown();
+			for (Future<SandboxResult> future : running) {
+				assertThat(future.get(5, TimeUnit.SECONDS).isSuccess()).isTrue();
+			}
+			assertThat(pool.execute("print(3)", "", LIMITS).isSuccess()).isTrue();
+			assertThat(provider.sandboxes).hasSize(2);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void closingThePoolClosesIdleSandboxes() {
+		pool = new SandboxPool(provider, 2, Duration.ofSeconds(5));
+		await(() -> pool.getIdleCount() == 2);
+
+		pool.close();
+
+		assertThat(provider.sandboxes).allSatisfy(sandbox -> assertThat(sandbox.closed).isTrue());
+		assertThat(provider.closed).isTrue();
+		assertThatThrownBy(() -> pool.execute("print(1)", "", LIMITS)).isInstanceOf(IllegalStateException.class);
+	}
+
+	private static void await(BooleanSupplier condition) {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean()) {
+			assertThat(System.nanoTime()).as("condition not met within 5s").isLessThan(deadline);
+			try {
+				Thread.sleep(10);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+
+	private static class FakeProvider implements SandboxProvider {
+
+		final List<FakeSandbox> sandboxes = new CopyOnWriteArrayList<>();
+
+		final AtomicInteger attempts = new AtomicInteger();
+
+		final AtomicInteger running = new AtomicInteger();
+
+		volatile boolean failing;
+
+		volatile boolean closed;
+
+		@Override
+		public Sandbox create() {
+			attempts.incrementAndGet();
+			if (failing) {
+				throw new IllegalStateException("docker daemon not reachable");
+			}
+			FakeSandbox sandbox = new FakeSandbox(running);
+			sandboxes.add(sandbox);
+			return sandbox;
+		}
+
+		@Override
+		public String getName() {
+			return "fake";
+		}
+
+		@Override
+		public void close() {
+			closed = true;
+		}
+
+	}
+
+	/**
+	 * Echoes the code as stdout, kills itself on {@link #KILL}.
+	 */
+	private static class FakeSandbox implements Sandbox {
+
+		static final String KILL = "while True: pass";
+
+		final AtomicInteger executions = new AtomicInteger();
+
+		final AtomicInteger resets = new AtomicInteger();
+
+		final AtomicInteger running;
+
+		volatile CountDownLatch blocker;
+
+		volatile boolean resettable = true;
+
+		volatile RuntimeException resetFailure;
+
+		volatile boolean closed;
+
+		FakeSandbox(AtomicInteger running) {
+			this.running = running;
+		}
+
+		@Override
+		public SandboxResult execute(String code, String requirements, SandboxLimits limits) throws Exception {
+			executions.incrementAndGet();
+			running.incrementAndGet();
+			try {
+				if (blocker != null) {
+					blocker.await();
+				}
+				return KILL.equals(code) ? new SandboxResult(137, "", "", true) : new SandboxResult(0, code, "", false);
+			}
+			finally {
+				running.decrementAndGet();
+			}
+		}
+
+		@Override
+		public boolean reset() {
+			resets.incrementAndGet();
+			if (resetFailure != null) {
+				throw resetFailure;
+			}
+			return resettable;
+		}
+
+		@Override
+		public void close() {
+			closed = true;
+		}
+
+	}
+
+}
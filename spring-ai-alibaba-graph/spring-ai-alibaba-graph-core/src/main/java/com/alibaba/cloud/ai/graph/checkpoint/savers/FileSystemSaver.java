@@ -20,6 +20,8 @@ import com.alibaba.cloud.ai.graph.checkpoint.BaseCheckpointSaver;
 import com.alibaba.cloud.ai.graph.checkpoint.Checkpoint;
 import com.alibaba.cloud.ai.graph.serializer.Serializer;
 import com.alibaba.cloud.ai.graph.serializer.StateSerializer;
+import com.alibaba.cloud.ai.graph.serializer.binary.BinaryCheckpointSerializer;
+import com.alibaba.cloud.ai.graph.serializer.binary.BinaryStateSerializer;
 import com.alibaba.cloud.ai.graph.serializer.check_point.CheckPointSerializer;
 
 import java.io.File;
@@ -65,7 +67,8 @@ public class FileSystemSaver implements BaseCheckpointSaver {
 	public FileSystemSaver(Path targetFolder, StateSerializer stateSerializer) {
 		Objects.requireNonNull(stateSerializer, "stateSerializer cannot be null");
 		this.targetFolder = Objects.requireNonNull(targetFolder, "targetFolder cannot be null");
-		this.serializer = new CheckPointSerializer(stateSerializer);
+		this.serializer = stateSerializer instanceof BinaryStateSerializer binaryStateSerializer
+				? new BinaryCheckpointSerializer(binaryStateSerializer) : new CheckPointSerializer(stateSerializer);
 
 		File targetFolderAsFile = targetFolder.toFile();
 
@@ -18,6 +18,8 @@ package com.alibaba.cloud.ai.graph.checkpoint.savers;
 import com.alibaba.cloud.ai.graph.RunnableConfig;
 import com.alibaba.cloud.ai.graph.checkpoint.BaseCheckpointSaver;
 import com.alibaba.cloud.ai.graph.checkpoint.Checkpoint;
+import com.alibaba.cloud.ai.graph.serializer.binary.BinaryCheckpointSerializer;
+import com.alibaba.cloud.ai.graph.serializer.binary.BinaryStateSerializer;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mongodb.BasicDBObject;
@@ -32,9 +34,11 @@ import com.mongodb.client.model.Filters;
 import com.mongodb.client.model.ReplaceOptions;
 import com.mongodb.client.result.InsertOneResult;
 import org.bson.Document;
+import org.bson.types.Binary;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedList;
@@ -58,6 +62,8 @@ public class MongoSaver implements BaseCheckpointSaver {
 
 	private final ObjectMapper objectMapper;
 
+	private final BinaryCheckpointSerializer checkpointSerializer;
+
 	private static final String DB_NAME = "check_point_db";
 
 	private static final String COLLECTION_NAME = "checkpoint_collection";
@@ -71,7 +77,19 @@ public class MongoSaver implements BaseCheckpointSaver {
 	 * @param client the client
 	 */
 	public MongoSaver(MongoClient client) {
+		this(client, null);
+	}
+
+	/**
+	 * Instantiates a new Mongo saver.
+	 * @param client the client
+	 * @param stateSerializer binary state serializer, checkpoints are stored as a binary
+	 * field instead of JSON when not null
+	 * @since 1.0.0.2
+	 */
+	public MongoSaver(MongoClient client, BinaryStateSerializer stateSerializer) {
 		this.client = client;
+		this.checkpointSerializer = stateSerializer != null ? new BinaryCheckpointSerializer(stateSerializer) : null;
 		this.database = client.getDatabase(DB_NAME);
 		this.txnOptions = TransactionOptions.builder().writeConcern(WriteConcern.MAJORITY).build();
 		this.objectMapper = new ObjectMapper();
@@ -93,9 +111,7 @@ public class MongoSaver implements BaseCheckpointSaver {
 				Document document = collection.find(dbObject).first();
 				if (document == null)
 					return Collections.emptyList();
-				String checkpointsStr = document.getString(DOCUMENT_CONTENT_KEY);
-				checkpoints = objectMapper.readValue(checkpointsStr, new TypeReference<>() {
-				});
+				checkpoints = readCheckpoints(document);
 				clientSession.commitTransaction();
 			}
 			catch (Exception e) {
@@ -127,9 +143,7 @@ public class MongoSaver implements BaseCheckpointSaver {
 				Document document = collection.find(dbObject).first();
 				if (document == null)
 					return Optional.empty();
-				String checkpointsStr = document.getString(DOCUMENT_CONTENT_KEY);
-				checkpoints = objectMapper.readValue(checkpointsStr, new TypeReference<>() {
-				});
+				checkpoints = readCheckpoints(document);
 				clientSession.commitTransaction();
 				if (config.checkPointId().isPresent()) {
 					List<Checkpoint> finalCheckpoints = checkpoints;
@@ -167,9 +181,7 @@ public class MongoSaver implements BaseCheckpointSaver {
 				Document document = collection.find(dbObject).first();
 				LinkedList<Checkpoint> checkpointLinkedList = null;
 				if (Objects.nonNull(document)) {
-					String checkpointsStr = document.getString(DOCUMENT_CONTENT_KEY);
-					List<Checkpoint> checkpoints = objectMapper.readValue(checkpointsStr, new TypeReference<>() {
-					});
+					List<Checkpoint> checkpoints = readCheckpoints(document);
 					checkpointLinkedList = getLinkedList(checkpoints);
 					if (config.checkPointId().isPresent()) { // Replace Checkpoint
 						String checkPointId = config.checkPointId().get();
@@ -180,7 +192,7 @@ public class MongoSaver implements BaseCheckpointSaver {
 									format("Checkpoint with id %s not found!", checkPointId))));
 						checkpointLinkedList.set(index, checkpoint);
 						Document tempDocument = new Document().append("_id", DOCUMENT_PREFIX + configOption.get())
-							.append(DOCUMENT_CONTENT_KEY, objectMapper.writeValueAsString(checkpointLinkedList));
+							.append(DOCUMENT_CONTENT_KEY, writeCheckpoints(checkpointLinkedList));
 						collection.replaceOne(Filters.eq("_id", DOCUMENT_PREFIX + configOption.get()), tempDocument);
 						clientSession.commitTransaction();
 						clientSession.close();
@@ -191,14 +203,14 @@ public class MongoSaver implements BaseCheckpointSaver {
 					checkpointLinkedList = new LinkedList<>();
 					checkpointLinkedList.push(checkpoint); // Add Checkpoint
 					Document tempDocument = new Document().append("_id", DOCUMENT_PREFIX + configOption.get())
-						.append(DOCUMENT_CONTENT_KEY, objectMapper.writeValueAsString(checkpointLinkedList));
+						.append(DOCUMENT_CONTENT_KEY, writeCheckpoints(checkpointLinkedList));
 					InsertOneResult insertOneResult = collection.insertOne(tempDocument);
 					insertOneResult.wasAcknowledged();
 				}
 				else {
 					checkpointLinkedList.push(checkpoint); // Add Checkpoint
 					Document tempDocument = new Document().append("_id", DOCUMENT_PREFIX + configOption.get())
-						.append(DOCUMENT_CONTENT_KEY, objectMapper.writeValueAsString(checkpointLinkedList));
+						.append(DOCUMENT_CONTENT_KEY, writeCheckpoints(checkpointLinkedList));
 					ReplaceOptions opts = new ReplaceOptions().upsert(true);
 					collection.replaceOne(Filters.eq("_id", DOCUMENT_PREFIX + configOption.get()), tempDocument, opts);
 				}
@@ -245,4 +257,19 @@ public class MongoSaver implements BaseCheckpointSaver {
 		}
 	}
 
+	private List<Checkpoint> readCheckpoints(Document document) throws IOException, ClassNotFoundException {
+		if (checkpointSerializer != null) {
+			return checkpointSerializer.readCheckpoints(document.get(DOCUMENT_CONTENT_KEY, Binary.class).getData());
+		}
+		return objectMapper.readValue(document.getString(DOCUMENT_CONTENT_KEY), new TypeReference<>() {
+		});
+	}
+
+	private Object writeCheckpoints(List<Checkpoint> checkpoints) throws IOException {
+		if (checkpointSerializer != null) {
+			return new Binary(checkpointSerializer.writeCheckpoints(checkpoints));
+		}
+		return objectMapper.writeValueAsString(checkpoints);
+	}
+
 }
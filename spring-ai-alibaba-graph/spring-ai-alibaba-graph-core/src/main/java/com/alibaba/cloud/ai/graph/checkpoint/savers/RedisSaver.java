@@ -18,6 +18,8 @@ package com.alibaba.cloud.ai.graph.checkpoint.savers;
 import com.alibaba.cloud.ai.graph.RunnableConfig;
 import com.alibaba.cloud.ai.graph.checkpoint.BaseCheckpointSaver;
 import com.alibaba.cloud.ai.graph.checkpoint.Checkpoint;
+import com.alibaba.cloud.ai.graph.serializer.binary.BinaryCheckpointSerializer;
+import com.alibaba.cloud.ai.graph.serializer.binary.BinaryStateSerializer;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonMappingException;
@@ -25,7 +27,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.redisson.api.RBucket;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.ByteArrayCodec;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
@@ -48,6 +52,8 @@ public class RedisSaver implements BaseCheckpointSaver {
 
 	private final ObjectMapper objectMapper;
 
+	private final BinaryCheckpointSerializer checkpointSerializer;
+
 	private static final String PREFIX = "graph:checkpoint:content:";
 
 	private static final String LOCK_PREFIX = "graph:checkpoint:lock:";
@@ -59,6 +65,20 @@ public class RedisSaver implements BaseCheckpointSaver {
 	public RedisSaver(RedissonClient redisson) {
 		this.redisson = redisson;
 		this.objectMapper = new ObjectMapper();
+		this.checkpointSerializer = null;
+	}
+
+	/**
+	 * Instantiates a new Redis saver that stores checkpoints in the binary format instead
+	 * of JSON.
+	 * @param redisson the redisson
+	 * @param stateSerializer the binary state serializer
+	 * @since 1.0.0.2
+	 */
+	public RedisSaver(RedissonClient redisson, BinaryStateSerializer stateSerializer) {
+		this.redisson = redisson;
+		this.objectMapper = new ObjectMapper();
+		this.checkpointSerializer = new BinaryCheckpointSerializer(stateSerializer);
 	}
 
 	@Override
@@ -70,13 +90,7 @@ public class RedisSaver implements BaseCheckpointSaver {
 			try {
 				tryLock = lock.tryLock(2, TimeUnit.MILLISECONDS);
 				if (tryLock) {
-					RBucket<String> bucket = redisson.getBucket(PREFIX + configOption.get());
-					String content = bucket.get();
-					if (content == null) {
-						return new LinkedList<>();
-					}
-					return objectMapper.readValue(content, new TypeReference<>() {
-					});
+					return readCheckpoints(configOption.get());
 				}
 				else {
 					return List.of();
@@ -111,16 +125,7 @@ public class RedisSaver implements BaseCheckpointSaver {
 			try {
 				tryLock = lock.tryLock(2, TimeUnit.MILLISECONDS);
 				if (tryLock) {
-					RBucket<String> bucket = redisson.getBucket(PREFIX + configOption.get());
-					String content = bucket.get();
-					List<Checkpoint> checkpoints;
-					if (content == null) {
-						checkpoints = new LinkedList<>();
-					}
-					else {
-						checkpoints = objectMapper.readValue(content, new TypeReference<>() {
-						});
-					}
+					List<Checkpoint> checkpoints = readCheckpoints(configOption.get());
 					if (config.checkPointId().isPresent()) {
 						return config.checkPointId()
 							.flatMap(id -> checkpoints.stream()
@@ -162,16 +167,7 @@ public class RedisSaver implements BaseCheckpointSaver {
 			try {
 				tryLock = lock.tryLock(2, TimeUnit.MILLISECONDS);
 				if (tryLock) {
-					RBucket<String> bucket = redisson.getBucket(PREFIX + configOption.get());
-					String content = bucket.get();
-					List<Checkpoint> checkpoints;
-					if (content == null) {
-						checkpoints = new LinkedList<>();
-					}
-					else {
-						checkpoints = objectMapper.readValue(content, new TypeReference<>() {
-						});
-					}
+					List<Checkpoint> checkpoints = readCheckpoints(configOption.get());
 					LinkedList<Checkpoint> linkedList = getLinkedList(checkpoints);
 					if (config.checkPointId().isPresent()) { // Replace Checkpoint
 						String checkPointId = config.checkPointId().get();
@@ -181,11 +177,11 @@ public class RedisSaver implements BaseCheckpointSaver {
 							.orElseThrow(() -> (new NoSuchElementException(
 									format("Checkpoint with id %s not found!", checkPointId))));
 						linkedList.set(index, checkpoint);
-						bucket.set(objectMapper.writeValueAsString(linkedList));
+						writeCheckpoints(configOption.get(), linkedList);
 						return config;
 					}
 					linkedList.push(checkpoint); // Add Checkpoint
-					bucket.set(objectMapper.writeValueAsString(linkedList));
+					writeCheckpoints(configOption.get(), linkedList);
 				}
 				return RunnableConfig.builder(config).checkPointId(checkpoint.getId()).build();
 			}
@@ -212,8 +208,7 @@ public class RedisSaver implements BaseCheckpointSaver {
 			try {
 				tryLock = lock.tryLock(2, TimeUnit.MILLISECONDS);
 				if (tryLock) {
-					RBucket<String> bucket = redisson.getBucket(PREFIX + configOption.get());
-					bucket.getAndSet(objectMapper.writeValueAsString(List.of()));
+					writeCheckpoints(configOption.get(), List.of());
 					return tryLock;
 				}
 				return false;
@@ -235,4 +230,42 @@ public class RedisSaver implements BaseCheckpointSaver {
 		}
 	}
 
+	private List<Checkpoint> readCheckpoints(String threadId) throws JsonProcessingException {
+		if (checkpointSerializer != null) {
+			RBucket<byte[]> bucket = redisson.getBucket(PREFIX + threadId, ByteArrayCodec.INSTANCE);
+			byte[] content = bucket.get();
+			if (content == null) {
+				return new LinkedList<>();
+			}
+			try {
+				return checkpointSerializer.readCheckpoints(content);
+			}
+			catch (IOException | ClassNotFoundException e) {
+				throw new RuntimeException("Failed to decode checkpoints", e);
+			}
+		}
+		RBucket<String> bucket = redisson.getBucket(PREFIX + threadId);
+		String content = bucket.get();
+		if (content == null) {
+			return new LinkedList<>();
+		}
+		return objectMapper.readValue(content, new TypeReference<>() {
+		});
+	}
+
+	private void writeCheckpoints(String threadId, List<Checkpoint> checkpoints) throws JsonProcessingException {
+		if (checkpointSerializer != null) {
+			RBucket<byte[]> bucket = redisson.getBucket(PREFIX + threadId, ByteArrayCodec.INSTANCE);
+			try {
+				bucket.set(checkpointSerializer.writeCheckpoints(checkpoints));
+			}
+			catch (IOException e) {
+				throw new RuntimeException("Failed to encode checkpoints", e);
+			}
+			return;
+		}
+		RBucket<String> bucket = redisson.getBucket(PREFIX + threadId);
+		bucket.set(objectMapper.writeValueAsString(checkpoints));
+	}
+
 }
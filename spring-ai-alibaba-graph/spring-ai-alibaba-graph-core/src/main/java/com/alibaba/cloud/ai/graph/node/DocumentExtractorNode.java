@@ -15,6 +15,7 @@
  */
 package com.alibaba.cloud.ai.graph.node;
 
+import com.alibaba.cloud.ai.document.DocumentParser;
 import com.alibaba.cloud.ai.document.JsonDocumentParser;
 import com.alibaba.cloud.ai.document.TextDocumentParser;
 import com.alibaba.cloud.ai.graph.OverAllState;
@@ -24,52 +25,99 @@ import com.alibaba.cloud.ai.parser.markdown.MarkdownDocumentParser;
 import com.alibaba.cloud.ai.parser.tika.TikaDocumentParser;
 import com.alibaba.cloud.ai.parser.yaml.YamlDocumentParser;
 import org.springframework.ai.document.Document;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
 import org.springframework.util.StringUtils;
 
 import java.io.InputStream;
+import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
 
 /**
+ * Extracts the text of the configured files into the state, one entry per file: the text
+ * of the first document the parser returns for it.
+ * <p>
+ * File names usually come from the graph state, so by default they only resolve to
+ * classpath resources and, when a {@code baseDirectory} is configured, to files inside
+ * that directory. {@code file:}, {@code http:} and other URL locations are rejected
+ * unless a {@link ResourceLoader} is configured explicitly. With
+ * {@code parallelExtraction} enabled files are parsed concurrently on the configured
+ * executor and the results keep the file order. When {@code maxCharacters} is set, the
+ * text of all files together is capped at that many characters: the file crossing the
+ * limit is cut with a truncation marker and later files are replaced by a skip marker.
+ * Sequentially those files are never parsed; in parallel mode the ones not started yet
+ * are cancelled, while a file already being parsed runs to completion and its text is
+ * discarded.
+ *
  * @author HeYQ
  * @since 2025-05-02 17:03
  */
 public class DocumentExtractorNode implements NodeAction {
 
+	static final String TRUNCATED_MARKER = "\n[truncated: extracted text exceeded %d characters]";
+
+	static final String SKIPPED_MARKER = "[skipped: extracted text exceeded %d characters]";
+
+	private static final Map<String, String> PARSER_BY_EXTENSION = new HashMap<>();
+
+	private static final Map<String, Supplier<DocumentParser>> PARSER_FACTORIES = Map.of("text",
+			TextDocumentParser::new, "markdown", MarkdownDocumentParser::new, "html", BsHtmlDocumentParser::new, "json",
+			JsonDocumentParser::new, "yaml", YamlDocumentParser::new, "tika", TikaDocumentParser::new);
+
+	/**
+	 * Parsers are reused across files, but not shared between threads as some of them
+	 * keep parsing state.
+	 */
+	private static final ThreadLocal<Map<String, DocumentParser>> PARSERS = ThreadLocal.withInitial(HashMap::new);
+
+	static {
+		PARSER_BY_EXTENSION.put("txt", "text");
+		PARSER_BY_EXTENSION.put("markdown", "markdown");
+		PARSER_BY_EXTENSION.put("md", "markdown");
+		PARSER_BY_EXTENSION.put("html", "html");
+		PARSER_BY_EXTENSION.put("htm", "html");
+		PARSER_BY_EXTENSION.put("xml", "html");
+		PARSER_BY_EXTENSION.put("json", "json");
+		PARSER_BY_EXTENSION.put("yaml", "yaml");
+		PARSER_BY_EXTENSION.put("yml", "yaml");
+		for (String extension : List.of("pdf", "doc", "docx", "csv", "xls", "xlsx", "ppt", "pptx")) {
+			PARSER_BY_EXTENSION.put(extension, "tika");
+		}
+	}
+
 	private final String paramsKey;
 
 	private final String outputKey;
 
 	private final List<String> fileList;
 
-	private final Map<String, Function<InputStream, List<Document>>> extractors = new HashMap<>();
+	private ResourceLoader resourceLoader = new RestrictedResourceLoader(null);
+
+	private boolean parallelExtraction;
+
+	private Executor executor;
+
+	private int maxCharacters = Integer.MAX_VALUE;
 
 	public DocumentExtractorNode(String paramsKey, String outputKey, List<String> fileList) {
 		this.paramsKey = paramsKey;
 		this.outputKey = outputKey;
 		this.fileList = fileList;
-		extractors.put("txt", inputStream -> new TextDocumentParser().parse(inputStream));
-		extractors.put("markdown", inputStream -> new MarkdownDocumentParser().parse(inputStream));
-		extractors.put("md", inputStream -> new MarkdownDocumentParser().parse(inputStream));
-		extractors.put("html", inputStream -> new BsHtmlDocumentParser().parse(inputStream));
-		extractors.put("htm", inputStream -> new BsHtmlDocumentParser().parse(inputStream));
-		extractors.put("xml", inputStream -> new BsHtmlDocumentParser().parse(inputStream));
-		extractors.put("json", inputStream -> new JsonDocumentParser().parse(inputStream));
-		extractors.put("yaml", inputStream -> new YamlDocumentParser().parse(inputStream));
-		extractors.put("yml", inputStream -> new YamlDocumentParser().parse(inputStream));
-		extractors.put("pdf", inputStream -> new TikaDocumentParser().parse(inputStream));
-		extractors.put("doc", inputStream -> new TikaDocumentParser().parse(inputStream));
-		extractors.put("docx", inputStream -> new TikaDocumentParser().parse(inputStream));
-		extractors.put("csv", inputStream -> new TikaDocumentParser().parse(inputStream));
-		extractors.put("xls", inputStream -> new TikaDocumentParser().parse(inputStream));
-		extractors.put("xlsx", inputStream -> new TikaDocumentParser().parse(inputStream));
-		extractors.put("ppt", inputStream -> new TikaDocumentParser().parse(inputStream));
-		extractors.put("pptx", inputStream -> new TikaDocumentParser().parse(inputStream));
 	}
 
 	@Override
@@ -81,19 +129,8 @@ public class DocumentExtractorNode implements NodeAction {
 		if (fileList == null || fileList.isEmpty()) {
 			throw new RuntimeException("Variable fileList is not an ArrayFileSegment");
 		}
-		List<String> documentContents = new ArrayList<>(10);
-		for (String file : fileList) {
-			try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream(file)) {
-				if (inputStream == null) {
-					throw new IllegalArgumentException("File not found in resources: " + file);
-				}
-				String content = extractTextByFileExtension(inputStream, getFileExtension(file));
-				documentContents.add(content);
-			}
-			catch (Exception e) {
-				throw new RuntimeException("Failed to parse test file: " + file, e);
-			}
-		}
+		List<String> documentContents = this.parallelExtraction && fileList.size() > 1 ? extractInParallel(fileList)
+				: extractSequentially(fileList);
 
 		Map<String, Object> updatedState = new HashMap<>();
 		updatedState.put("text", documentContents);
@@ -103,28 +140,179 @@ public class DocumentExtractorNode implements NodeAction {
 		return updatedState;
 	}
 
-	private String extractTextByFileExtension(InputStream fileContent, String fileExtension) {
+	private List<String> extractSequentially(List<String> fileList) {
+		List<String> documentContents = new ArrayList<>(fileList.size());
+		int remaining = this.maxCharacters;
+		for (String file : fileList) {
+			if (remaining <= 0) {
+				documentContents.add(SKIPPED_MARKER.formatted(this.maxCharacters));
+				continue;
+			}
+			String content = cap(extract(file, remaining), remaining);
+			remaining -= content.length();
+			documentContents.add(content);
+		}
+		return documentContents;
+	}
+
+	private List<String> extractInParallel(List<String> fileList) {
+		Executor extractExecutor = this.executor != null ? this.executor : DefaultExecutorHolder.EXECUTOR;
+		List<CompletableFuture<String>> futures = new ArrayList<>(fileList.size());
+		for (String file : fileList) {
+			futures.add(CompletableFuture.supplyAsync(() -> extract(file, this.maxCharacters), extractExecutor));
+		}
+
+		List<String> documentContents = new ArrayList<>(fileList.size());
+		int remaining = this.maxCharacters;
+		try {
+			for (CompletableFuture<String> future : futures) {
+				if (remaining <= 0) {
+					future.cancel(false);
+					documentContents.add(SKIPPED_MARKER.formatted(this.maxCharacters));
+					continue;
+				}
+				String content = cap(await(future), remaining);
+				remaining -= content.length();
+				documentContents.add(content);
+			}
+		}
+		catch (RuntimeException e) {
+			futures.forEach(future -> future.cancel(false));
+			throw e;
+		}
+		return documentContents;
+	}
+
+	private String await(CompletableFuture<String> future) {
+		try {
+			return future.get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while extracting documents", e);
+		}
+		catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw new IllegalStateException("Failed to extract documents", e.getCause());
+		}
+	}
 
-		Function<InputStream, List<Document>> extractor = this.extractors.get(fileExtension);
-		if (extractor == null) {
-			throw new RuntimeException("Unsupported Extension Type: " + fileExtension);
+	/**
+	 * Parse one file and return the text of its first document, keeping at most
+	 * {@code limit + 1} characters so that a cut can be detected.
+	 */
+	private String extract(String file, int limit) {
+		Resource resource = this.resourceLoader.getResource(file);
+		String extension = getFileExtension(resource.getFilename() != null ? resource.getFilename() : file);
+		String parserName = PARSER_BY_EXTENSION.get(extension);
+		if (parserName == null) {
+			throw new RuntimeException("Unsupported Extension Type: " + extension);
+		}
+		if (!resource.exists()) {
+			throw new IllegalArgumentException("File not found: " + file);
+		}
+		List<Document> documents;
+		try (InputStream inputStream = resource.getInputStream()) {
+			documents = PARSERS.get()
+				.computeIfAbsent(parserName, name -> PARSER_FACTORIES.get(name).get())
+				.parse(inputStream);
+		}
+		catch (Exception e) {
+			throw new RuntimeException("Failed to parse file: " + file, e);
 		}
 
-		return extractor.apply(fileContent).get(0).getText();
+		String text = documents.isEmpty() ? null : documents.get(0).getText();
+		if (text == null) {
+			return "";
+		}
+		return text.length() > limit ? text.substring(0, limit + 1) : text;
 	}
 
-	private String getFileExtension(String filePath) {
-		Path path = Paths.get(filePath);
-		String fileName = path.getFileName().toString();
-		int dotIndex = fileName.lastIndexOf('.');
+	private String cap(String content, int remaining) {
+		if (content.length() <= remaining) {
+			return content;
+		}
+		return content.substring(0, remaining) + TRUNCATED_MARKER.formatted(this.maxCharacters);
+	}
 
-		return (dotIndex == -1) ? "" : fileName.substring(dotIndex + 1);
+	private static String getFileExtension(String fileName) {
+		String extension = StringUtils.getFilenameExtension(fileName);
+		return extension == null ? "" : extension.toLowerCase(Locale.ROOT);
 	}
 
 	public static Builder builder() {
 		return new Builder();
 	}
 
+	/**
+	 * Resolves {@code classpath:} locations and bare paths from the classpath, falling
+	 * back to the base directory when one is set. Paths escaping the base directory and
+	 * every other URL scheme are rejected.
+	 */
+	static class RestrictedResourceLoader implements ResourceLoader {
+
+		private static final Pattern URL_SCHEME = Pattern.compile("^[a-zA-Z][a-zA-Z0-9+.-]+:");
+
+		private final ClassLoader classLoader = DocumentExtractorNode.class.getClassLoader();
+
+		private final Path baseDirectory;
+
+		RestrictedResourceLoader(Path baseDirectory) {
+			this.baseDirectory = baseDirectory != null ? baseDirectory.toAbsolutePath().normalize() : null;
+		}
+
+		@Override
+		public Resource getResource(String location) {
+			if (location.startsWith(CLASSPATH_URL_PREFIX)) {
+				return new ClassPathResource(location.substring(CLASSPATH_URL_PREFIX.length()), this.classLoader);
+			}
+			if (URL_SCHEME.matcher(location).find()) {
+				throw new IllegalArgumentException("Unsupported file location: " + location
+						+ ", configure a resourceLoader to read files or URLs");
+			}
+			Resource resource = new ClassPathResource(location, this.classLoader);
+			if (resource.exists() || this.baseDirectory == null) {
+				return resource;
+			}
+			Path path;
+			try {
+				path = this.baseDirectory.resolve(location).normalize();
+			}
+			catch (InvalidPathException e) {
+				throw new IllegalArgumentException("Invalid file path: " + location, e);
+			}
+			if (!path.startsWith(this.baseDirectory)) {
+				throw new IllegalArgumentException("File is outside the base directory: " + location);
+			}
+			return new FileSystemResource(path);
+		}
+
+		@Override
+		public ClassLoader getClassLoader() {
+			return this.classLoader;
+		}
+
+	}
+
+	/**
+	 * Lazily created pool used for parallel extraction when no executor is configured,
+	 * parsing is CPU bound so it is sized to the available processors.
+	 */
+	private static final class DefaultExecutorHolder {
+
+		private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+		private static final ExecutorService EXECUTOR = Executors
+			.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), r -> {
+				Thread thread = new Thread(r, "document-extractor-" + THREAD_COUNTER.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+
+	}
+
 	public static class Builder {
 
 		private String paramsKey;
@@ -133,6 +321,16 @@ public class DocumentExtractorNode implements NodeAction {
 
 		private List<String> fileList;
 
+		private ResourceLoader resourceLoader;
+
+		private Path baseDirectory;
+
+		private boolean parallelExtraction;
+
+		private Executor executor;
+
+		private int maxCharacters = Integer.MAX_VALUE;
+
 		public Builder paramsKey(String paramsKey) {
 			this.paramsKey = paramsKey;
 			return this;
@@ -148,8 +346,58 @@ public class DocumentExtractorNode implements NodeAction {
 			return this;
 		}
 
+		/**
+		 * Directory that bare paths not found on the classpath resolve against. Paths
+		 * escaping it are rejected.
+		 */
+		public Builder baseDirectory(Path baseDirectory) {
+			this.baseDirectory = baseDirectory;
+			return this;
+		}
+
+		/**
+		 * Loader of the files, replacing the default classpath and base directory
+		 * resolution. Only set a loader that accepts {@code file:} or URL locations when
+		 * the file list is trusted.
+		 */
+		public Builder resourceLoader(ResourceLoader resourceLoader) {
+			this.resourceLoader = resourceLoader;
+			return this;
+		}
+
+		public Builder parallelExtraction(boolean parallelExtraction) {
+			this.parallelExtraction = parallelExtraction;
+			return this;
+		}
+
+		/**
+		 * Executor of parallel extraction, a shared daemon pool when not set.
+		 */
+		public Builder executor(Executor executor) {
+			this.executor = executor;
+			return this;
+		}
+
+		/**
+		 * Cap on the characters extracted from all files together, unlimited when not
+		 * set.
+		 */
+		public Builder maxCharacters(int maxCharacters) {
+			if (maxCharacters <= 0) {
+				throw new IllegalArgumentException("maxCharacters must be positive");
+			}
+			this.maxCharacters = maxCharacters;
+			return this;
+		}
+
 		public DocumentExtractorNode build() {
-			return new DocumentExtractorNode(paramsKey, outputKey, fileList);
+			DocumentExtractorNode node = new DocumentExtractorNode(paramsKey, outputKey, fileList);
+			node.resourceLoader = this.resourceLoader != null ? this.resourceLoader
+					: new RestrictedResourceLoader(this.baseDirectory);
+			node.parallelExtraction = this.parallelExtraction;
+			node.executor = this.executor;
+			node.maxCharacters = this.maxCharacters;
+			return node;
 		}
 
 	}
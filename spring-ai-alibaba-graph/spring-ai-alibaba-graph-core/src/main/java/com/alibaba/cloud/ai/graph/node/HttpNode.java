@@ -16,6 +16,7 @@
 package com.alibaba.cloud.ai.graph.node;
 
 import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.action.AsyncNodeAction;
 import com.alibaba.cloud.ai.graph.action.NodeAction;
 import com.alibaba.cloud.ai.graph.exception.GraphRunnerException;
 import com.alibaba.cloud.ai.graph.exception.RunnableErrors;
@@ -23,25 +24,36 @@ import com.alibaba.cloud.ai.graph.utils.InMemoryFileStorage;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.JdkClientHttpConnector;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.util.StringUtils;
-import org.springframework.web.client.RestClientException;
 import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.ClientRequest;
 import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
 import reactor.core.publisher.Mono;
 import reactor.util.retry.Retry;
 
 import java.net.URI;
+import java.net.http.HttpClient;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -49,7 +61,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -63,6 +80,8 @@ public class HttpNode implements NodeAction {
 
 	private static final long DEFAULT_MAX_RETRY_INTERVAL = 1000;
 
+	private static final int DEFAULT_MAX_RESPONSE_SIZE = 10 * 1024 * 1024;
+
 	private final WebClient webClient;
 
 	private final HttpMethod method;
@@ -81,8 +100,12 @@ public class HttpNode implements NodeAction {
 
 	private final String outputKey;
 
+	private final int maxResponseSize;
+
+	private final Duration responseTimeout;
+
 	private HttpNode(Builder builder) {
-		this.webClient = builder.webClient;
+		this.webClient = builder.webClient != null ? builder.webClient : sharedWebClient();
 		this.method = builder.method;
 		this.url = builder.url;
 		this.headers = builder.headers;
@@ -91,47 +114,145 @@ public class HttpNode implements NodeAction {
 		this.authConfig = builder.authConfig;
 		this.retryConfig = builder.retryConfig;
 		this.outputKey = builder.outputKey;
+		this.maxResponseSize = builder.maxResponseSize;
+		this.responseTimeout = builder.timeoutConfig != null && builder.timeoutConfig.read() > 0
+				? Duration.ofSeconds(builder.timeoutConfig.read()) : null;
+	}
+
+	/**
+	 * The {@link WebClient} of nodes built without one. All of them share its
+	 * connections, so keep-alive connections are reused across nodes and graph runs.
+	 */
+	public static WebClient sharedWebClient() {
+		return SharedWebClientHolder.WEB_CLIENT;
+	}
+
+	/**
+	 * Creates a {@link WebClient} over one JDK {@link HttpClient}, which keeps idle
+	 * connections alive for reuse, limited to {@code maxConnections} requests in flight.
+	 */
+	public static WebClient createWebClient(ClientConfig config) {
+		HttpClient httpClient = HttpClient.newBuilder()
+			.connectTimeout(config.connectTimeout())
+			.followRedirects(HttpClient.Redirect.NORMAL)
+			.build();
+		JdkClientHttpConnector connector = new JdkClientHttpConnector(httpClient);
+		connector.setReadTimeout(config.readTimeout());
+		return WebClient.builder()
+			.clientConnector(connector)
+			.filter(new ConcurrencyLimiter(config.maxConnections()))
+			.build();
 	}
 
 	@Override
 	public Map<String, Object> apply(OverAllState state) throws Exception {
 		try {
-			String finalUrl = replaceVariables(url, state);
-			Map<String, String> finalHeaders = replaceVariables(headers, state);
-			Map<String, String> finalQueryParams = replaceVariables(queryParams, state);
-
-			UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(finalUrl);
-			finalQueryParams.forEach(uriBuilder::queryParam);
-			URI finalUri = uriBuilder.build().toUri();
-
-			WebClient.RequestBodySpec requestSpec = webClient.method(method)
-				.uri(finalUri)
-				.headers(headers -> headers.setAll(finalHeaders));
-
-			applyAuth(requestSpec);
-			initBody(body, requestSpec, state);
-
-			Mono<ResponseEntity<byte[]>> responseMono = requestSpec
-				.exchangeToMono((ClientResponse resp) -> resp.toEntity(byte[].class))
-				.retryWhen(Retry.backoff(retryConfig.maxRetries, Duration.ofMillis(retryConfig.maxRetryInterval)));
-			ResponseEntity<byte[]> responseEntity = responseMono.block();
-			Map<String, Object> httpResponse = processResponse(responseEntity, state);
-
-			Map<String, Object> updatedState = new HashMap<>();
-			updatedState.put("messages", httpResponse);
-			if (StringUtils.hasLength(this.outputKey)) {
-				updatedState.put(this.outputKey, httpResponse);
+			return execute(state).block();
+		}
+		catch (RuntimeException e) {
+			Throwable cause = Exceptions.unwrap(e);
+			throw cause instanceof Exception exception ? exception : e;
+		}
+	}
+
+	/**
+	 * Performs the request without blocking the calling thread.
+	 * @param state the current state
+	 * @return the state update, completed when the response has been read
+	 */
+	public CompletableFuture<Map<String, Object>> applyAsync(OverAllState state) {
+		return execute(state).toFuture();
+	}
+
+	/**
+	 * Adapts this node for {@code StateGraph.addNode}, so that the graph does not block a
+	 * thread while waiting for the response.
+	 */
+	public AsyncNodeAction asAsyncNodeAction() {
+		return this::applyAsync;
+	}
+
+	private Mono<Map<String, Object>> execute(OverAllState state) {
+		return Mono.defer(() -> {
+			WebClient.RequestBodySpec requestSpec;
+			try {
+				requestSpec = buildRequest(state);
 			}
-			return updatedState;
+			catch (GraphRunnerException e) {
+				return Mono.error(e);
+			}
+
+			Mono<ResponseEntity<byte[]>> responseMono = requestSpec.exchangeToMono(this::readResponse);
+			if (this.responseTimeout != null) {
+				responseMono = responseMono.timeout(this.responseTimeout);
+			}
+			if (retryConfig.enable) {
+				responseMono = responseMono
+					.retryWhen(Retry.backoff(retryConfig.maxRetries, Duration.ofMillis(retryConfig.maxRetryInterval))
+						.filter(e -> !(e instanceof DataBufferLimitException)));
+			}
+			return responseMono.map(responseEntity -> {
+				Map<String, Object> httpResponse = processResponse(responseEntity, state);
+
+				Map<String, Object> updatedState = new HashMap<>();
+				updatedState.put("messages", httpResponse);
+				if (StringUtils.hasLength(this.outputKey)) {
+					updatedState.put(this.outputKey, httpResponse);
+				}
+				return updatedState;
+			});
+		}).onErrorMap(this::toNodeException);
+	}
+
+	private WebClient.RequestBodySpec buildRequest(OverAllState state) throws GraphRunnerException {
+		String finalUrl = replaceVariables(url, state);
+		Map<String, String> finalHeaders = replaceVariables(headers, state);
+		Map<String, String> finalQueryParams = replaceVariables(queryParams, state);
+
+		UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(finalUrl);
+		finalQueryParams.forEach(uriBuilder::queryParam);
+		URI finalUri = uriBuilder.build().toUri();
+
+		WebClient.RequestBodySpec requestSpec = webClient.method(method)
+			.uri(finalUri)
+			.headers(headers -> headers.setAll(finalHeaders));
+
+		applyAuth(requestSpec);
+		initBody(body, requestSpec, state);
+		return requestSpec;
+	}
+
+	/**
+	 * Reads the body as it arrives, failing once it grows past {@code maxResponseSize}
+	 * instead of buffering it whole.
+	 */
+	private Mono<ResponseEntity<byte[]>> readResponse(ClientResponse response) {
+		HttpHeaders responseHeaders = response.headers().asHttpHeaders();
+		return DataBufferUtils.join(response.bodyToFlux(DataBuffer.class), this.maxResponseSize).map(buffer -> {
+			byte[] bytes = new byte[buffer.readableByteCount()];
+			buffer.read(bytes);
+			DataBufferUtils.release(buffer);
+			return ResponseEntity.status(response.statusCode()).headers(responseHeaders).body(bytes);
+		}).defaultIfEmpty(ResponseEntity.status(response.statusCode()).headers(responseHeaders).build());
+	}
+
+	private Throwable toNodeException(Throwable e) {
+		if (Exceptions.isRetryExhausted(e) && e.getCause() != null) {
+			e = e.getCause();
 		}
-		catch (WebClientResponseException e) {
-			throw RunnableErrors.nodeInterrupt
-				.exception(format("%s HTTP request failed: %s", this.outputKey, e.getStatusText()));
+		if (e instanceof WebClientResponseException responseException) {
+			return RunnableErrors.nodeInterrupt
+				.exception(format("%s HTTP request failed: %s", this.outputKey, responseException.getStatusText()));
 		}
-		catch (RestClientException e) {
-			throw RunnableErrors.nodeInterrupt
+		if (e instanceof WebClientRequestException) {
+			return RunnableErrors.nodeInterrupt
 				.exception(format("%s HTTP request failed: %s", this.outputKey, e.getMessage()));
 		}
+		if (e instanceof DataBufferLimitException) {
+			return RunnableErrors.nodeInterrupt
+				.exception(format("%s HTTP response body exceeds %d bytes", this.outputKey, this.maxResponseSize));
+		}
+		return e;
 	}
 
 	private String replaceVariables(String template, OverAllState state) {
@@ -323,7 +444,7 @@ public class HttpNode implements NodeAction {
 
 	public static class Builder {
 
-		private WebClient webClient = WebClient.create();
+		private WebClient webClient;
 
 		private HttpMethod method = HttpMethod.GET;
 
@@ -341,6 +462,13 @@ public class HttpNode implements NodeAction {
 
 		private String outputKey;
 
+		private int maxResponseSize = DEFAULT_MAX_RESPONSE_SIZE;
+
+		private TimeoutConfig timeoutConfig;
+
+		/**
+		 * Client of this node, {@link HttpNode#sharedWebClient()} when not set.
+		 */
 		public Builder webClient(WebClient webClient) {
 			this.webClient = webClient;
 			return this;
@@ -386,6 +514,22 @@ public class HttpNode implements NodeAction {
 			return this;
 		}
 
+		/**
+		 * Largest response body accepted, in bytes. Larger responses fail the node.
+		 */
+		public Builder maxResponseSize(int maxResponseSize) {
+			this.maxResponseSize = maxResponseSize;
+			return this;
+		}
+
+		/**
+		 * Timeouts of this node, the read timeout in seconds bounds each attempt.
+		 */
+		public Builder timeoutConfig(TimeoutConfig timeoutConfig) {
+			this.timeoutConfig = timeoutConfig;
+			return this;
+		}
+
 		public HttpNode build() {
 			return new HttpNode(this);
 		}
@@ -673,6 +817,152 @@ public class HttpNode implements NodeAction {
 
 	}
 
+	/**
+	 * Settings of a {@link WebClient} created by {@link HttpNode#createWebClient}.
+	 *
+	 * @param maxConnections requests in flight at the same time, further requests wait
+	 * without blocking a thread
+	 * @param connectTimeout timeout of establishing a connection
+	 * @param readTimeout timeout of receiving the response
+	 */
+	public record ClientConfig(int maxConnections, Duration connectTimeout, Duration readTimeout) {
+
+		public ClientConfig {
+			if (maxConnections <= 0) {
+				throw new IllegalArgumentException("maxConnections must be positive");
+			}
+			Objects.requireNonNull(connectTimeout, "connectTimeout cannot be null");
+			Objects.requireNonNull(readTimeout, "readTimeout cannot be null");
+		}
+
+		public static ClientConfig defaults() {
+			return new ClientConfig(200, Duration.ofSeconds(10), Duration.ofSeconds(60));
+		}
+
+	}
+
+	private static final class SharedWebClientHolder {
+
+		private static final WebClient WEB_CLIENT = createWebClient(ClientConfig.defaults());
+
+	}
+
+	/**
+	 * Caps the exchanges in flight, queued exchanges start as earlier ones complete. An
+	 * exchange holds its permit until the response body has been consumed or released, or
+	 * until it is cancelled or fails.
+	 */
+	static final class ConcurrencyLimiter implements ExchangeFilterFunction {
+
+		private final int maxConcurrency;
+
+		private final Queue<Runnable> waiting = new ArrayDeque<>();
+
+		private final AtomicInteger drainRequests = new AtomicInteger();
+
+		private int active;
+
+		ConcurrencyLimiter(int maxConcurrency) {
+			this.maxConcurrency = maxConcurrency;
+		}
+
+		@Override
+		public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+			return Mono.create(sink -> {
+				AtomicBoolean started = new AtomicBoolean();
+				AtomicBoolean cancelled = new AtomicBoolean();
+				AtomicBoolean released = new AtomicBoolean();
+				AtomicReference<Disposable> exchange = new AtomicReference<>();
+				Runnable releaseOnce = () -> {
+					if (released.compareAndSet(false, true)) {
+						release();
+					}
+				};
+				sink.onCancel(() -> {
+					cancelled.set(true);
+					Disposable disposable = exchange.get();
+					if (disposable != null) {
+						disposable.dispose();
+					}
+					if (started.get()) {
+						releaseOnce.run();
+					}
+				});
+				submit(() -> {
+					started.set(true);
+					if (cancelled.get()) {
+						releaseOnce.run();
+						return;
+					}
+					AtomicBoolean responded = new AtomicBoolean();
+					exchange.set(next.exchange(request).subscribe(response -> {
+						responded.set(true);
+						sink.success(
+								response.mutate().body(body -> body.doFinally(signal -> releaseOnce.run())).build());
+					}, error -> {
+						releaseOnce.run();
+						sink.error(error);
+					}, () -> {
+						if (!responded.get()) {
+							releaseOnce.run();
+							sink.success();
+						}
+					}));
+					if (cancelled.get()) {
+						exchange.get().dispose();
+						releaseOnce.run();
+					}
+				});
+			});
+		}
+
+		synchronized int active() {
+			return this.active;
+		}
+
+		private void submit(Runnable task) {
+			synchronized (this) {
+				this.waiting.add(task);
+			}
+			drain();
+		}
+
+		private void release() {
+			synchronized (this) {
+				this.active--;
+			}
+			drain();
+		}
+
+		/**
+		 * Starts queued exchanges while permits are available. A release from within a
+		 * started exchange only records a new drain request, so the queue is drained in
+		 * this loop rather than recursively.
+		 */
+		private void drain() {
+			if (this.drainRequests.getAndIncrement() != 0) {
+				return;
+			}
+			int requests = 1;
+			do {
+				while (true) {
+					Runnable task;
+					synchronized (this) {
+						if (this.active >= this.maxConcurrency || this.waiting.isEmpty()) {
+							break;
+						}
+						task = this.waiting.poll();
+						this.active++;
+					}
+					task.run();
+				}
+				requests = this.drainRequests.addAndGet(-requests);
+			}
+			while (requests != 0);
+		}
+
+	}
+
 	public record TimeoutConfig(int connect, int read, int write, int maxConnectTimeout, int maxReadTimeout,
 			int maxWriteTimeout) {
 
@@ -21,6 +21,8 @@ import com.alibaba.cloud.ai.graph.action.NodeAction;
 import com.alibaba.cloud.ai.model.RerankModel;
 import com.alibaba.cloud.ai.model.RerankRequest;
 import com.alibaba.cloud.ai.model.RerankResponse;
+import com.alibaba.cloud.ai.retrieval.RetrievalRerankPipeline;
+import com.alibaba.cloud.ai.retrieval.RetrievalResult;
 import jakarta.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -75,6 +77,8 @@ public class KnowledgeRetrievalNode implements NodeAction {
 
 	private VectorStore vectorStore;
 
+	private RetrievalRerankPipeline retrievalPipeline;
+
 	List<Document> documents;
 
 	private static final Logger logger = LoggerFactory.getLogger(KnowledgeRetrievalNode.class);
@@ -98,17 +102,12 @@ public class KnowledgeRetrievalNode implements NodeAction {
 	@Override
 	public Map<String, Object> apply(OverAllState state) throws Exception {
 		initNodeWithState(state);
-		DocumentRetriever documentRetriever = VectorStoreDocumentRetriever.builder()
-			.similarityThreshold(similarityThreshold)
-			.topK(topK)
-			.filterExpression(filterExpression)
-			.vectorStore(vectorStore)
-			.build();
-		Query query = new Query(userPrompt);
-		documents = documentRetriever.retrieve(query);
-		documents = enableRanker
-				? ranking(query, documents, new KnowledgeRetrievalDocumentRanker(rerankModel, rerankOptions))
-				: documents;
+		if (retrievalPipeline != null) {
+			documents = retrieveWithPipeline();
+		}
+		else {
+			documents = retrieveAndRank();
+		}
 		StringBuilder newUserPrompt = new StringBuilder(userPrompt);
 		for (Document document : documents) {
 			newUserPrompt.append("Document: ").append(document.getFormattedContent()).append("\n");
@@ -124,6 +123,32 @@ public class KnowledgeRetrievalNode implements NodeAction {
 		return updatedState;
 	}
 
+	private List<Document> retrieveAndRank() {
+		DocumentRetriever documentRetriever = VectorStoreDocumentRetriever.builder()
+			.similarityThreshold(similarityThreshold)
+			.topK(topK)
+			.filterExpression(filterExpression)
+			.vectorStore(vectorStore)
+			.build();
+		Query query = new Query(userPrompt);
+		List<Document> retrieved = documentRetriever.retrieve(query);
+		return enableRanker
+				? ranking(query, retrieved, new KnowledgeRetrievalDocumentRanker(rerankModel, rerankOptions))
+				: retrieved;
+	}
+
+	private List<Document> retrieveWithPipeline() {
+		Map<String, Object> queryContext = new HashMap<>();
+		if (filterExpression != null) {
+			queryContext.put(VectorStoreDocumentRetriever.FILTER_EXPRESSION, filterExpression);
+		}
+		RetrievalResult result = retrievalPipeline
+			.retrieve(Query.builder().text(userPrompt).context(queryContext).build());
+		logger.debug("retrieval pipeline: {} candidates, {} reranked, total {} ms", result.candidates().size(),
+				result.rerankedCount(), result.totalLatency().toMillis());
+		return result.documents();
+	}
+
 	private void initNodeWithState(OverAllState state) {
 		if (StringUtils.hasLength(userPromptKey)) {
 			this.userPrompt = (String) state.value(userPromptKey).orElse(this.userPrompt);
@@ -252,6 +277,8 @@ public class KnowledgeRetrievalNode implements NodeAction {
 
 		private VectorStore vectorStore;
 
+		private RetrievalRerankPipeline retrievalPipeline;
+
 		public Builder userPromptKey(String userPromptKey) {
 			this.userPromptKey = userPromptKey;
 			return this;
@@ -332,6 +359,15 @@ public class KnowledgeRetrievalNode implements NodeAction {
 			return this;
 		}
 
+		/**
+		 * Use a concurrent retrieve-then-rerank pipeline instead of the single vector
+		 * store search and rerank call.
+		 */
+		public Builder retrievalPipeline(RetrievalRerankPipeline retrievalPipeline) {
+			this.retrievalPipeline = retrievalPipeline;
+			return this;
+		}
+
 		public KnowledgeRetrievalNode build() {
 			KnowledgeRetrievalNode knowledgeRetrievalNode = new KnowledgeRetrievalNode();
 			knowledgeRetrievalNode.userPromptKey = this.userPromptKey;
@@ -350,6 +386,7 @@ public class KnowledgeRetrievalNode implements NodeAction {
 			knowledgeRetrievalNode.rerankOptions = this.rerankOptions;
 			knowledgeRetrievalNode.vectorStoreKey = this.vectorStoreKey;
 			knowledgeRetrievalNode.vectorStore = this.vectorStore;
+			knowledgeRetrievalNode.retrievalPipeline = this.retrievalPipeline;
 			return knowledgeRetrievalNode;
 		}
 
@@ -0,0 +1,397 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.graph.node;
+
+import io.modelcontextprotocol.client.McpClient;
+import io.modelcontextprotocol.client.McpSyncClient;
+import io.modelcontextprotocol.client.transport.HttpClientSseClientTransport;
+import io.modelcontextprotocol.spec.McpError;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Bounded pool of initialized {@link McpSyncClient}s, keyed by server URL and request
+ * headers, so that repeated MCP calls to the same server reuse one connection and one
+ * handshake.
+ * <p>
+ * Each server gets at most {@code maxClientsPerServer} clients, callers beyond that wait
+ * up to {@code borrowTimeout}. Idle clients are pinged before reuse once they have been
+ * idle longer than {@code healthCheckInterval} and closed once idle longer than
+ * {@code idleTimeout}. The per-server state is dropped once a server has no callers and
+ * no open clients left, so servers that are no longer called do not accumulate. A client
+ * that fails with anything but an MCP protocol error is discarded, so the next call
+ * reconnects. Failed calls are not retried because a tool call may not be idempotent.
+ *
+ * @since 1.0.0.2
+ */
+public class McpClientPool implements AutoCloseable {
+
+	private static final Logger log = LoggerFactory.getLogger(McpClientPool.class);
+
+	public static final int DEFAULT_MAX_CLIENTS_PER_SERVER = 4;
+
+	public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(5);
+
+	public static final Duration DEFAULT_HEALTH_CHECK_INTERVAL = Duration.ofSeconds(30);
+
+	public static final Duration DEFAULT_BORROW_TIMEOUT = Duration.ofSeconds(30);
+
+	private final Function<ServerKey, McpSyncClient> clientFactory;
+
+	private final int maxClientsPerServer;
+
+	private final long idleTimeoutNanos;
+
+	private final long healthCheckIntervalNanos;
+
+	private final Duration borrowTimeout;
+
+	private final Map<ServerKey, ServerPool> pools = new ConcurrentHashMap<>();
+
+	private final ScheduledExecutorService evictor;
+
+	private volatile boolean closed;
+
+	private McpClientPool(Builder builder) {
+		Assert.isTrue(builder.maxClientsPerServer > 0, "maxClientsPerServer must be positive");
+		this.clientFactory = builder.clientFactory;
+		this.maxClientsPerServer = builder.maxClientsPerServer;
+		this.idleTimeoutNanos = builder.idleTimeout.toNanos();
+		this.healthCheckIntervalNanos = builder.healthCheckInterval.toNanos();
+		this.borrowTimeout = builder.borrowTimeout;
+		this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "mcp-client-pool-evictor");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long period = Math.max(builder.idleTimeout.toMillis() / 2, 1000);
+		this.evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Pool shared by every {@link McpNode} that is not given its own pool.
+	 */
+	public static McpClientPool shared() {
+		return SharedHolder.INSTANCE;
+	}
+
+	/**
+	 * Borrow a client of the given server, run the action with it and give it back.
+	 */
+	public <T> T execute(String url, Map<String, String> headers, Function<McpSyncClient, T> action) {
+		Assert.hasText(url, "url must not be empty");
+		Assert.state(!this.closed, "McpClientPool is closed");
+		ServerKey key = ServerKey.of(url, headers);
+		// Registered under the map lock so removeIfUnused never drops a pool in use
+		ServerPool pool = this.pools.compute(key, (k, existing) -> {
+			ServerPool p = existing != null ? existing : new ServerPool();
+			p.users.incrementAndGet();
+			return p;
+		});
+		try {
+			PooledClient pooled = borrow(key, pool);
+			boolean broken = false;
+			try {
+				return action.apply(pooled.client);
+			}
+			catch (McpError e) {
+				// The server answered, the connection is fine
+				throw e;
+			}
+			catch (RuntimeException e) {
+				broken = true;
+				throw e;
+			}
+			finally {
+				release(pool, pooled, broken);
+			}
+		}
+		finally {
+			if (pool.users.decrementAndGet() == 0) {
+				removeIfUnused(key);
+			}
+		}
+	}
+
+	/**
+	 * Close every client idle for longer than the idle timeout.
+	 */
+	public void evictIdle() {
+		long now = System.nanoTime();
+		this.pools.forEach((key, pool) -> {
+			Iterator<PooledClient> it = pool.idle.iterator();
+			while (it.hasNext()) {
+				PooledClient pooled = it.next();
+				if (now - pooled.lastUsed > this.idleTimeoutNanos && pool.idle.remove(pooled)) {
+					log.debug("Evicting idle MCP client of {}", key.url());
+					discard(pool, pooled);
+				}
+			}
+			removeIfUnused(key);
+		});
+	}
+
+	private void removeIfUnused(ServerKey key) {
+		this.pools.computeIfPresent(key, (k, pool) -> pool.users.get() == 0 && pool.open.get() == 0 ? null : pool);
+	}
+
+	/**
+	 * Number of servers with per-server state, for tests.
+	 */
+	int serverCount() {
+		return this.pools.size();
+	}
+
+	/**
+	 * Number of open clients, borrowed or idle.
+	 */
+	public int size() {
+		return this.pools.values().stream().mapToInt(pool -> pool.open.get()).sum();
+	}
+
+	public int idleCount() {
+		return this.pools.values().stream().mapToInt(pool -> pool.idle.size()).sum();
+	}
+
+	@Override
+	public void close() {
+		this.closed = true;
+		this.evictor.shutdownNow();
+		this.pools.values().forEach(pool -> {
+			PooledClient pooled;
+			while ((pooled = pool.idle.pollFirst()) != null) {
+				discard(pool, pooled);
+			}
+		});
+	}
+
+	private PooledClient borrow(ServerKey key, ServerPool pool) {
+		try {
+			if (!pool.permits.tryAcquire(this.borrowTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+				throw new IllegalStateException("Timed out waiting for an MCP client of " + key.url());
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for an MCP client of " + key.url(), e);
+		}
+		try {
+			PooledClient pooled;
+			while ((pooled = pool.idle.pollFirst()) != null) {
+				if (isHealthy(key, pooled)) {
+					return pooled;
+				}
+				discard(pool, pooled);
+			}
+			return connect(key, pool);
+		}
+		catch (RuntimeException e) {
+			pool.permits.release();
+			throw e;
+		}
+	}
+
+	private boolean isHealthy(ServerKey key, PooledClient pooled) {
+		if (System.nanoTime() - pooled.lastUsed < this.healthCheckIntervalNanos) {
+			return true;
+		}
+		try {
+			pooled.client.ping();
+			return true;
+		}
+		catch (Exception e) {
+			log.warn("MCP client of {} failed its health check, reconnecting: {}", key.url(), e.getMessage());
+			return false;
+		}
+	}
+
+	private PooledClient connect(ServerKey key, ServerPool pool) {
+		McpSyncClient client = this.clientFactory.apply(key);
+		try {
+			client.initialize();
+		}
+		catch (RuntimeException e) {
+			closeQuietly(client);
+			throw e;
+		}
+		pool.open.incrementAndGet();
+		log.debug("Opened MCP client of {}", key.url());
+		return new PooledClient(client);
+	}
+
+	private void release(ServerPool pool, PooledClient pooled, boolean broken) {
+		try {
+			if (broken || this.closed) {
+				discard(pool, pooled);
+			}
+			else {
+				pooled.lastUsed = System.nanoTime();
+				pool.idle.offerFirst(pooled);
+			}
+		}
+		finally {
+			pool.permits.release();
+		}
+	}
+
+	private void discard(ServerPool pool, PooledClient pooled) {
+		pool.open.decrementAndGet();
+		closeQuietly(pooled.client);
+	}
+
+	private static void closeQuietly(McpSyncClient client) {
+		try {
+			client.close();
+		}
+		catch (Exception e) {
+			log.debug("Failed to close MCP client", e);
+		}
+	}
+
+	/**
+	 * Default factory: an HTTP SSE client that sends the key's headers on every request.
+	 */
+	static McpSyncClient sseClient(ServerKey key) {
+		HttpClientSseClientTransport.Builder transportBuilder = HttpClientSseClientTransport.builder(key.url());
+		if (!key.headers().isEmpty()) {
+			transportBuilder.customizeRequest(req -> key.headers().forEach(req::header));
+		}
+		return McpClient.sync(transportBuilder.build()).build();
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Identity of a pooled server connection.
+	 *
+	 * @param url server URL
+	 * @param headers request headers sent on the connection
+	 */
+	public record ServerKey(String url, Map<String, String> headers) {
+
+		static ServerKey of(String url, Map<String, String> headers) {
+			return new ServerKey(url, headers == null ? Map.of() : Map.copyOf(headers));
+		}
+
+		@Override
+		public String toString() {
+			// Headers usually carry credentials
+			return "ServerKey[url=" + this.url + ", headers=" + this.headers.keySet() + "]";
+		}
+
+	}
+
+	private final class ServerPool {
+
+		private final Semaphore permits = new Semaphore(McpClientPool.this.maxClientsPerServer);
+
+		private final Deque<PooledClient> idle = new ConcurrentLinkedDeque<>();
+
+		private final AtomicInteger open = new AtomicInteger();
+
+		/**
+		 * Callers inside {@link #execute}, waiting for or holding a client.
+		 */
+		private final AtomicInteger users = new AtomicInteger();
+
+	}
+
+	private static final class PooledClient {
+
+		private final McpSyncClient client;
+
+		private volatile long lastUsed = System.nanoTime();
+
+		private PooledClient(McpSyncClient client) {
+			this.client = client;
+		}
+
+	}
+
+	private static final class SharedHolder {
+
+		private static final McpClientPool INSTANCE = builder().build();
+
+	}
+
+	public static class Builder {
+
+		private Function<ServerKey, McpSyncClient> clientFactory = McpClientPool::sseClient;
+
+		private int maxClientsPerServer = DEFAULT_MAX_CLIENTS_PER_SERVER;
+
+		private Duration idleTimeout = DEFAULT_IDLE_TIMEOUT;
+
+		private Duration healthCheckInterval = DEFAULT_HEALTH_CHECK_INTERVAL;
+
+		private Duration borrowTimeout = DEFAULT_BORROW_TIMEOUT;
+
+		/**
+		 * Creates a not yet initialized client for a server, the pool runs the handshake.
+		 */
+		public Builder clientFactory(Function<ServerKey, McpSyncClient> clientFactory) {
+			this.clientFactory = clientFactory;
+			return this;
+		}
+
+		public Builder maxClientsPerServer(int maxClientsPerServer) {
+			this.maxClientsPerServer = maxClientsPerServer;
+			return this;
+		}
+
+		public Builder idleTimeout(Duration idleTimeout) {
+			this.idleTimeout = idleTimeout;
+			return this;
+		}
+
+		public Builder healthCheckInterval(Duration healthCheckInterval) {
+			this.healthCheckInterval = healthCheckInterval;
+			return this;
+		}
+
+		public Builder borrowTimeout(Duration borrowTimeout) {
+			this.borrowTimeout = borrowTimeout;
+			return this;
+		}
+
+		public McpClientPool build() {
+			Assert.notNull(this.clientFactory, "clientFactory must not be null");
+			Assert.notNull(this.idleTimeout, "idleTimeout must not be null");
+			Assert.notNull(this.healthCheckInterval, "healthCheckInterval must not be null");
+			Assert.notNull(this.borrowTimeout, "borrowTimeout must not be null");
+			return new McpClientPool(this);
+		}
+
+	}
+
+}
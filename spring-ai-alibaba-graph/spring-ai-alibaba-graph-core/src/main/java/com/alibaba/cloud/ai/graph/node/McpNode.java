@@ -18,9 +18,6 @@ package com.alibaba.cloud.ai.graph.node;
 
 import com.alibaba.cloud.ai.graph.OverAllState;
 import com.alibaba.cloud.ai.graph.action.NodeAction;
-import io.modelcontextprotocol.client.McpClient;
-import io.modelcontextprotocol.client.McpSyncClient;
-import io.modelcontextprotocol.client.transport.HttpClientSseClientTransport;
 import io.modelcontextprotocol.spec.McpSchema;
 import io.modelcontextprotocol.spec.McpSchema.CallToolResult;
 import io.modelcontextprotocol.spec.McpSchema.TextContent;
@@ -36,7 +33,9 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
- * MCP Node: Node for calling MCP Server
+ * MCP Node: Node for calling MCP Server. Clients are borrowed from a
+ * {@link McpClientPool}, so repeated executions reuse one initialized connection per
+ * server.
  */
 public class McpNode implements NodeAction {
 
@@ -56,9 +55,7 @@ public class McpNode implements NodeAction {
 
 	private final List<String> inputParamKeys;
 
-	private HttpClientSseClientTransport transport;
-
-	private McpSyncClient client;
+	private final McpClientPool clientPool;
 
 	private McpNode(Builder builder) {
 		this.url = builder.url;
@@ -67,6 +64,7 @@ public class McpNode implements NodeAction {
 		this.params = builder.params;
 		this.outputKey = builder.outputKey;
 		this.inputParamKeys = builder.inputParamKeys;
+		this.clientPool = builder.clientPool != null ? builder.clientPool : McpClientPool.shared();
 	}
 
 	@Override
@@ -75,14 +73,6 @@ public class McpNode implements NodeAction {
 				"[McpNode] Start executing apply, original configuration: url={}, tool={}, headers={}, inputParamKeys={}",
 				url, tool, headers, inputParamKeys);
 
-		// Build transport and client
-		HttpClientSseClientTransport.Builder transportBuilder = HttpClientSseClientTransport.builder(this.url);
-		if (this.headers != null && !this.headers.isEmpty()) {
-			transportBuilder.customizeRequest(req -> this.headers.forEach(req::header));
-		}
-		this.transport = transportBuilder.build();
-		this.client = McpClient.sync(this.transport).build();
-		this.client.initialize();
 		// Variable replacement
 		String finalTool = replaceVariables(tool, state);
 		Map<String, Object> finalParams = new HashMap<>();
@@ -103,12 +93,12 @@ public class McpNode implements NodeAction {
 		log.info("[McpNode] after replace params: url={}, tool={}, headers={}, params={}", url, finalTool, headers,
 				finalParams);
 
-		// Directly use the already initialized client
+		// Borrow an initialized client of this server from the pool
 		CallToolResult result;
 		try {
 			McpSchema.CallToolRequest request = new McpSchema.CallToolRequest(finalTool, finalParams);
 			log.info("[McpNode] CallToolRequest: {}", request);
-			result = client.callTool(request);
+			result = clientPool.execute(this.url, this.headers, client -> client.callTool(request));
 			log.info("[McpNode] tool call result: {}", result);
 		}
 		catch (Exception e) {
@@ -191,6 +181,8 @@ public class McpNode implements NodeAction {
 
 		private List<String> inputParamKeys;
 
+		private McpClientPool clientPool;
+
 		public Builder url(String url) {
 			this.url = url;
 			return this;
@@ -221,6 +213,14 @@ public class McpNode implements NodeAction {
 			return this;
 		}
 
+		/**
+		 * Pool to borrow clients from, defaults to {@link McpClientPool#shared()}.
+		 */
+		public Builder clientPool(McpClientPool clientPool) {
+			this.clientPool = clientPool;
+			return this;
+		}
+
 		public McpNode build() {
 			return new McpNode(this);
 		}
@@ -15,22 +15,34 @@
  */
 package com.alibaba.cloud.ai.graph.node;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 import com.alibaba.cloud.ai.graph.OverAllState;
 import com.alibaba.cloud.ai.graph.action.NodeAction;
+import com.alibaba.cloud.ai.tool.ToolCallExecutor;
 
 import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.messages.Message;
 import org.springframework.ai.chat.messages.ToolResponseMessage;
 import org.springframework.ai.chat.model.ToolContext;
 import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.execution.ToolExecutionExceptionProcessor;
 import org.springframework.ai.tool.resolution.ToolCallbackResolver;
 import org.springframework.util.StringUtils;
 
+/**
+ * Executes the tool calls of the last assistant message. With
+ * {@code parallelToolExecution} enabled the calls run concurrently on the configured
+ * executor and the responses keep the order of the calls. With a
+ * {@code toolExecutionTimeout} each call is interrupted once it runs longer than that,
+ * and its response is the {@link ToolExecutionExceptionProcessor}'s result for the
+ * timeout, see {@link ToolCallExecutor}.
+ */
 public class ToolNode implements NodeAction {
 
 	private String llmResponseKey;
@@ -39,6 +51,10 @@ public class ToolNode implements NodeAction {
 
 	private List<ToolCallback> toolCallbacks = new ArrayList<>();
 
+	private Map<String, ToolCallback> toolCallbacksByName = Map.of();
+
+	private ToolCallExecutor toolCallExecutor = new ToolCallExecutor(false, null, null, null);
+
 	private AssistantMessage assistantMessage;
 
 	private ToolCallbackResolver toolCallbackResolver;
@@ -48,12 +64,19 @@ public class ToolNode implements NodeAction {
 	}
 
 	public ToolNode(List<ToolCallback> toolCallbacks, ToolCallbackResolver resolver) {
-		this.toolCallbacks = toolCallbacks;
+		setToolCallbacks(toolCallbacks);
 		this.toolCallbackResolver = resolver;
 	}
 
 	void setToolCallbacks(List<ToolCallback> toolCallbacks) {
 		this.toolCallbacks = toolCallbacks;
+		Map<String, ToolCallback> byName = new HashMap<>();
+		if (toolCallbacks != null) {
+			for (ToolCallback toolCallback : toolCallbacks) {
+				byName.putIfAbsent(toolCallback.getToolDefinition().name(), toolCallback);
+			}
+		}
+		this.toolCallbacksByName = byName;
 	}
 
 	void setToolCallbackResolver(ToolCallbackResolver toolCallbackResolver) {
@@ -83,27 +106,29 @@ public class ToolNode implements NodeAction {
 	}
 
 	private ToolResponseMessage executeFunction(AssistantMessage assistantMessage, OverAllState state) {
-		// execute the tool function
-		List<ToolResponseMessage.ToolResponse> toolResponses = new ArrayList<>();
-
-		for (AssistantMessage.ToolCall toolCall : assistantMessage.getToolCalls()) {
-			String toolName = toolCall.name();
-			String toolArgs = toolCall.arguments();
+		List<AssistantMessage.ToolCall> toolCalls = assistantMessage.getToolCalls();
+		ToolContext toolContext = new ToolContext(Map.of("state", state));
 
-			ToolCallback toolCallback = this.resolve(toolName);
+		// execute the tool function
+		List<ToolCallExecutor.ToolCallTask> tasks = new ArrayList<>(toolCalls.size());
+		for (AssistantMessage.ToolCall toolCall : toolCalls) {
+			ToolCallback toolCallback = this.resolve(toolCall.name());
+			tasks.add(new ToolCallExecutor.ToolCallTask(toolCallback.getToolDefinition(),
+					() -> toolCallback.call(toolCall.arguments(), toolContext)));
+		}
+		List<String> toolResults = this.toolCallExecutor.execute(tasks);
 
-			String toolResult = toolCallback.call(toolArgs, new ToolContext(Map.of("state", state)));
-			toolResponses.add(new ToolResponseMessage.ToolResponse(toolCall.id(), toolName, toolResult));
+		List<ToolResponseMessage.ToolResponse> toolResponses = new ArrayList<>(toolCalls.size());
+		for (int i = 0; i < toolCalls.size(); i++) {
+			AssistantMessage.ToolCall toolCall = toolCalls.get(i);
+			toolResponses.add(new ToolResponseMessage.ToolResponse(toolCall.id(), toolCall.name(), toolResults.get(i)));
 		}
 		return new ToolResponseMessage(toolResponses, Map.of());
 	}
 
 	private ToolCallback resolve(String toolName) {
-		return toolCallbacks.stream()
-			.filter(callback -> callback.getToolDefinition().name().equals(toolName))
-			.findFirst()
-			.orElseGet(() -> toolCallbackResolver.resolve(toolName));
-
+		ToolCallback toolCallback = this.toolCallbacksByName.get(toolName);
+		return toolCallback != null ? toolCallback : toolCallbackResolver.resolve(toolName);
 	}
 
 	public static Builder builder() {
@@ -122,6 +147,14 @@ public class ToolNode implements NodeAction {
 
 		private ToolCallbackResolver toolCallbackResolver;
 
+		private boolean parallelToolExecution;
+
+		private Executor executor;
+
+		private Duration toolExecutionTimeout;
+
+		private ToolExecutionExceptionProcessor toolExecutionExceptionProcessor;
+
 		private Builder() {
 		}
 
@@ -150,12 +183,46 @@ public class ToolNode implements NodeAction {
 			return this;
 		}
 
+		public Builder parallelToolExecution(boolean parallelToolExecution) {
+			this.parallelToolExecution = parallelToolExecution;
+			return this;
+		}
+
+		/**
+		 * Executor of parallel or time limited tool calls, a shared daemon pool when not
+		 * set.
+		 */
+		public Builder executor(Executor executor) {
+			this.executor = executor;
+			return this;
+		}
+
+		/**
+		 * Time limit of each tool call, unbounded when not set.
+		 */
+		public Builder toolExecutionTimeout(Duration toolExecutionTimeout) {
+			this.toolExecutionTimeout = toolExecutionTimeout;
+			return this;
+		}
+
+		/**
+		 * Turns a timed out tool call into its response, the Spring AI default processor
+		 * when not set.
+		 */
+		public Builder toolExecutionExceptionProcessor(
+				ToolExecutionExceptionProcessor toolExecutionExceptionProcessor) {
+			this.toolExecutionExceptionProcessor = toolExecutionExceptionProcessor;
+			return this;
+		}
+
 		public ToolNode build() {
 			ToolNode toolNode = new ToolNode(toolCallbackResolver);
 			toolNode.llmResponseKey = this.llmResponseKey;
 			toolNode.outputKey = this.outputKey;
 			toolNode.setToolCallbacks(this.toolCallbacks);
 			toolNode.setToolCallbackResolver(this.toolCallbackResolver);
+			toolNode.toolCallExecutor = new ToolCallExecutor(this.parallelToolExecution, this.executor,
+					this.toolExecutionTimeout, this.toolExecutionExceptionProcessor);
 			return toolNode;
 		}
 
@@ -35,7 +35,9 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -46,6 +48,12 @@ public class LocalCommandlineCodeExecutor implements CodeExecutor {
 
 	private static final Logger logger = LoggerFactory.getLogger(LocalCommandlineCodeExecutor.class);
 
+	/**
+	 * Java class path per work directory and configured class path, the JAR files in a
+	 * work directory are scanned once until {@link #restart()}.
+	 */
+	private final Map<String, String> javaClassPaths = new ConcurrentHashMap<>();
+
 	@Override
 	public CodeExecutionResult executeCodeBlocks(List<CodeBlock> codeBlockList, CodeExecutionConfig codeExecutionConfig)
 			throws Exception {
@@ -68,8 +76,8 @@ public class LocalCommandlineCodeExecutor implements CodeExecutor {
 
 	@Override
 	public void restart() {
-
-		logger.warn("Restarting local command line code executor is not supported. No action is taken.");
+		this.javaClassPaths.clear();
+		logger.info("Cleared the cached class paths of the local command line code executor.");
 	}
 
 	public CodeExecutionResult executeCode(String language, String code, CodeExecutionConfig config) throws Exception {
@@ -84,30 +92,19 @@ public class LocalCommandlineCodeExecutor implements CodeExecutor {
 		// write the code string to a file specified by the filename.
 		FileUtils.writeCodeToFile(workDir, filename, code);
 
-		// Copy required JAR files to workDir if language is Java
-		if ("java".equals(language)) {
-			FileUtils.copyResourceJarToWorkDir(workDir);
-		}
-
 		CodeExecutionResult executionResult = executeCodeLocally(language, workDir, filename, config);
 
 		FileUtils.deleteFile(workDir, filename);
-
-		// Delete JAR files if language is Java
-		if ("java".equals(language)) {
-			FileUtils.deleteResourceJarFromWorkDir(workDir);
-		}
 		return executionResult;
 	}
 
-	private CodeExecutionResult executeCodeLocally(String language, String workDir, String filename,
-			CodeExecutionConfig config) throws Exception {
-		// Set up command line based on language
-		String executable = CodeUtils.getExecutableForLanguage(language);
-		CommandLine commandLine = new CommandLine(executable);
-
-		if ("java".equals(language)) {
-			commandLine.addArgument("-cp");
+	/**
+	 * Class path of Java code blocks: the work directory, the JAR files inside it, the
+	 * bundled resource JARs and the configured class path.
+	 */
+	protected String javaClassPath(String workDir, CodeExecutionConfig config) {
+		String configClassPath = config.getClassPath() != null ? config.getClassPath() : "";
+		return this.javaClassPaths.computeIfAbsent(workDir + File.pathSeparator + configClassPath, key -> {
 			StringBuilder classPathBuilder = new StringBuilder();
 			classPathBuilder.append(".").append(File.pathSeparator).append(workDir);
 
@@ -126,11 +123,26 @@ public class LocalCommandlineCodeExecutor implements CodeExecutor {
 				logger.warn("Failed to scan JAR files in work directory", e);
 			}
 
-			if (config.getClassPath() != null && !config.getClassPath().isEmpty()) {
-				classPathBuilder.append(File.pathSeparator).append(config.getClassPath());
+			for (Path jarPath : ResourceJarsHolder.JARS) {
+				classPathBuilder.append(File.pathSeparator).append(jarPath);
 			}
 
-			String classPath = classPathBuilder.toString();
+			if (!configClassPath.isEmpty()) {
+				classPathBuilder.append(File.pathSeparator).append(configClassPath);
+			}
+			return classPathBuilder.toString();
+		});
+	}
+
+	private CodeExecutionResult executeCodeLocally(String language, String workDir, String filename,
+			CodeExecutionConfig config) throws Exception {
+		// Set up command line based on language
+		String executable = CodeUtils.getExecutableForLanguage(language);
+		CommandLine commandLine = new CommandLine(executable);
+
+		if ("java".equals(language)) {
+			commandLine.addArgument("-cp");
+			String classPath = javaClassPath(workDir, config);
 			commandLine.addArgument(classPath).addArgument(filename);
 		}
 		else {
@@ -171,4 +183,14 @@ public class LocalCommandlineCodeExecutor implements CodeExecutor {
 		}
 	}
 
+	/**
+	 * JAR files bundled in resources/lib, resolved once instead of being copied to the
+	 * work directory for every execution.
+	 */
+	private static final class ResourceJarsHolder {
+
+		private static final List<Path> JARS = FileUtils.resolveResourceJars();
+
+	}
+
 }
@@ -0,0 +1,488 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.node.code;
+
+import com.alibaba.cloud.ai.graph.node.code.entity.CodeExecutionConfig;
+import com.alibaba.cloud.ai.graph.node.code.entity.CodeExecutionResult;
+import com.alibaba.cloud.ai.graph.node.code.java.JavaCodeWorker;
+import com.alibaba.cloud.ai.graph.utils.CodeUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link LocalCommandlineCodeExecutor} that runs Java and Python code in long-lived
+ * worker processes instead of starting an interpreter for every code block.
+ * <p>
+ * The Java worker compiles each source in memory with {@code javax.tools.JavaCompiler}
+ * and runs it in a fresh class loader, so the JVM, the compiler and the libraries of the
+ * class path stay warm. The Python worker executes each script with fresh globals and
+ * restores {@code sys.modules}, {@code sys.path} and the builtins afterwards, so a script
+ * does not see the imports or patches of the previous one. Other languages fall back to
+ * the command line.
+ * <p>
+ * Workers are pooled per work directory, language and class path, each worker runs one
+ * code block at a time. The default constructor starts one worker per pool on demand,
+ * {@link #LocalWorkerCodeExecutor(CodeExecutionConfig, int, String...)} starts the
+ * configured number of workers up front.
+ * <p>
+ * A code block that exceeds the configured timeout gets its worker killed and exit code
+ * {@value #TIMEOUT_EXIT_CODE}, the next block starts a new worker. As in a separate
+ * process, code that calls {@code System.exit} or {@code os._exit} ends its worker, which
+ * is restarted for the next block.
+ *
+ * @since 1.0.0.2
+ */
+public class LocalWorkerCodeExecutor extends LocalCommandlineCodeExecutor implements AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(LocalWorkerCodeExecutor.class);
+
+	public static final int TIMEOUT_EXIT_CODE = 124;
+
+	private static final String[] JAVA_WORKER_CLASSES = { "JavaCodeWorker", "JavaCodeWorker$SourceFile",
+			"JavaCodeWorker$ClassFile", "JavaCodeWorker$MemoryFileManager", "JavaCodeWorker$MemoryClassLoader" };
+
+	/**
+	 * Requests and responses use duplicates of the original stdin and stdout taken at
+	 * startup. Scripts get {@code /dev/null} as stdin, and their stdout and stderr file
+	 * descriptors point to temporary files while they run, so output of subprocesses and
+	 * native code is captured with the script output instead of corrupting the protocol.
+	 */
+	private static final String PYTHON_WORKER_SCRIPT = """
+			import base64, builtins, os, sys, tempfile, traceback
+			requests = os.fdopen(os.dup(0), 'r', encoding='utf-8')
+			channel = os.fdopen(os.dup(1), 'w', encoding='utf-8')
+			stderr_fd = os.dup(2)
+			devnull = os.open(os.devnull, os.O_RDWR)
+			os.dup2(devnull, 0)
+			os.dup2(devnull, 1)
+			def run(source):
+			    code = 0
+			    modules, path, names = dict(sys.modules), list(sys.path), dict(vars(builtins))
+			    streams = sys.stdin, sys.stdout, sys.stderr
+			    with tempfile.TemporaryFile() as out, tempfile.TemporaryFile() as err:
+			        os.dup2(out.fileno(), 1)
+			        os.dup2(err.fileno(), 2)
+			        try:
+			            exec(compile(source, 'main.py', 'exec'), {'__name__': '__main__', '__builtins__': builtins})
+			        except SystemExit as e:
+			            if isinstance(e.code, int):
+			                code = e.code
+			            elif e.code is not None:
+			                print(e.code, file=sys.stderr)
+			                code = 1
+			        except BaseException:
+			            traceback.print_exc()
+			            code = 1
+			        finally:
+			            sys.stdin, sys.stdout, sys.stderr = streams
+			            for stream in (sys.stdout, sys.stderr):
+			                try:
+			                    stream.flush()
+			                except Exception:
+			                    pass
+			            os.dup2(devnull, 1)
+			            os.dup2(stderr_fd, 2)
+			        restore(modules, path, names)
+			        return '%d %s %s' % (code, encode(out), encode(err))
+			def encode(file):
+			    file.seek(0)
+			    return base64.b64encode(file.read()).decode('ascii')
+			def restore(modules, path, names):
+			    for name in [name for name in sys.modules if name not in modules]:
+			        del sys.modules[name]
+			    sys.modules.update(modules)
+			    sys.path[:] = path
+			    namespace = vars(builtins)
+			    for name in [name for name in namespace if name not in names]:
+			        del namespace[name]
+			    namespace.update(names)
+			channel.write('READY\\n')
+			channel.flush()
+			for line in requests:
+			    channel.write(run(base64.b64decode(line.strip()).decode('utf-8')) + '\\n')
+			    channel.flush()
+			""";
+
+	private final Map<String, WorkerPool> pools = new ConcurrentHashMap<>();
+
+	private final int workersPerPool;
+
+	/**
+	 * Executor starting one worker per pool on the first code block.
+	 */
+	public LocalWorkerCodeExecutor() {
+		this.workersPerPool = 1;
+	}
+
+	/**
+	 * Executor running up to {@code workers} code blocks of each language at the same
+	 * time. The workers of the given languages are started right away with the work
+	 * directory and class path of {@code config}, a worker failing to start is retried on
+	 * its first code block.
+	 * @param config configuration the code blocks will be executed with
+	 * @param workers number of workers per language
+	 * @param languages languages to start workers for, {@code java} or {@code python3}
+	 */
+	public LocalWorkerCodeExecutor(CodeExecutionConfig config, int workers, String... languages) {
+		if (workers <= 0) {
+			throw new IllegalArgumentException("workers must be positive");
+		}
+		this.workersPerPool = workers;
+		List<CompletableFuture<Void>> starts = new ArrayList<>();
+		for (String language : languages) {
+			WorkerPool pool;
+			try {
+				pool = pool(language, config);
+			}
+			catch (Exception e) {
+				throw new IllegalArgumentException("No code worker for language: " + language, e);
+			}
+			if (pool == null) {
+				throw new IllegalArgumentException("No code worker for language: " + language);
+			}
+			starts.addAll(pool.warmUp(config));
+		}
+		CompletableFuture.allOf(starts.toArray(CompletableFuture[]::new)).join();
+	}
+
+	@Override
+	public CodeExecutionResult executeCode(String language, String code, CodeExecutionConfig config) throws Exception {
+		if (Objects.isNull(language) || Objects.isNull(code)) {
+			throw new Exception("Either language or code must be provided.");
+		}
+		WorkerPool pool = pool(language, config);
+		if (pool == null) {
+			return super.executeCode(language, code, config);
+		}
+		return pool.execute(code, config);
+	}
+
+	/**
+	 * The worker pool of the language, or {@code null} when the language has no worker.
+	 */
+	private WorkerPool pool(String language, CodeExecutionConfig config) throws Exception {
+		List<String> command;
+		if ("java".equals(language)) {
+			String classPath = javaClassPath(config.getWorkDir(), config);
+			command = List.of(Path.of(System.getProperty("java.home"), "bin", "java").toString(), "-XX:+UseSerialGC",
+					"-cp", JavaWorkerHolder.CLASS_PATH.toString(), JavaCodeWorker.class.getName(), classPath);
+		}
+		else if ("python3".equals(language) || "python".equals(language)) {
+			command = List.of(CodeUtils.getExecutableForLanguage(language), "-u", "-c", PYTHON_WORKER_SCRIPT);
+		}
+		else {
+			return null;
+		}
+
+		String key = config.getWorkDir() + "\u0000" + String.join("\u0000", command);
+		return this.pools.computeIfAbsent(key, k -> new WorkerPool(language, command, this.workersPerPool));
+	}
+
+	/**
+	 * Stops all workers, they are started again on demand.
+	 */
+	@Override
+	public void restart() {
+		super.restart();
+		close();
+	}
+
+	@Override
+	public void close() {
+		for (WorkerPool pool : this.pools.values()) {
+			pool.destroy();
+		}
+		this.pools.clear();
+	}
+
+	/**
+	 * Workers sharing one command, a code block waits for an idle worker.
+	 */
+	private static final class WorkerPool {
+
+		private final List<CodeWorker> workers;
+
+		private final BlockingQueue<CodeWorker> idle;
+
+		WorkerPool(String language, List<String> command, int size) {
+			List<CodeWorker> workers = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				workers.add(new CodeWorker(language, command));
+			}
+			this.workers = List.copyOf(workers);
+			this.idle = new ArrayBlockingQueue<>(size, false, workers);
+		}
+
+		CodeExecutionResult execute(String code, CodeExecutionConfig config) throws Exception {
+			CodeWorker worker = this.idle.take();
+			try {
+				return worker.execute(code, config);
+			}
+			finally {
+				this.idle.add(worker);
+			}
+		}
+
+		List<CompletableFuture<Void>> warmUp(CodeExecutionConfig config) {
+			return this.workers.stream()
+				.map(worker -> CompletableFuture.runAsync(() -> worker.warmUp(config), ReaderHolder.EXECUTOR))
+				.toList();
+		}
+
+		void destroy() {
+			this.workers.forEach(CodeWorker::destroy);
+		}
+
+	}
+
+	/**
+	 * A worker process answering one request line with one response line, started on the
+	 * first request.
+	 */
+	private static final class CodeWorker {
+
+		private final String language;
+
+		private final List<String> command;
+
+		private final ReentrantLock lock = new ReentrantLock();
+
+		private Process process;
+
+		private BufferedWriter requests;
+
+		private BufferedReader responses;
+
+		CodeWorker(String language, List<String> command) {
+			this.language = language;
+			this.command = command;
+		}
+
+		CodeExecutionResult execute(String code, CodeExecutionConfig config) throws Exception {
+			this.lock.lock();
+			try {
+				long timeoutMillis = TimeUnit.SECONDS.toMillis(config.getTimeout());
+				long deadline = System.currentTimeMillis() + timeoutMillis;
+				if (!isAlive()) {
+					start(config, timeoutMillis);
+				}
+				this.requests.write(Base64.getEncoder().encodeToString(code.getBytes(StandardCharsets.UTF_8)));
+				this.requests.newLine();
+				this.requests.flush();
+
+				String response = readLine(Math.max(1, deadline - System.currentTimeMillis()));
+				if (response == null) {
+					int exitCode = this.process.waitFor();
+					destroy();
+					return new CodeExecutionResult(exitCode == 0 ? 1 : exitCode,
+							"The " + this.language + " worker exited with code " + exitCode);
+				}
+				return toResult(response, config.getWorkDir());
+			}
+			catch (TimeoutException e) {
+				destroy();
+				return new CodeExecutionResult(TIMEOUT_EXIT_CODE,
+						"Code execution timed out after " + config.getTimeout() + " seconds");
+			}
+			catch (IOException e) {
+				destroy();
+				throw new Exception("Failed to execute code", e);
+			}
+			catch (InterruptedException e) {
+				// the response is still pending, the worker cannot be reused
+				destroy();
+				Thread.currentThread().interrupt();
+				throw e;
+			}
+			catch (ExecutionException | CancellationException | IllegalArgumentException e) {
+				// a response the worker cannot be trusted to follow up on correctly
+				logger.warn("Discarding {} code worker after an invalid response", this.language, e);
+				destroy();
+				return new CodeExecutionResult(1, "The " + this.language + " worker sent an invalid response");
+			}
+			finally {
+				this.lock.unlock();
+			}
+		}
+
+		void warmUp(CodeExecutionConfig config) {
+			this.lock.lock();
+			try {
+				if (!isAlive()) {
+					start(config, TimeUnit.SECONDS.toMillis(config.getTimeout()));
+				}
+			}
+			catch (Exception e) {
+				destroy();
+				logger.warn("Failed to start {} code worker, it is started on first use", this.language, e);
+			}
+			finally {
+				this.lock.unlock();
+			}
+		}
+
+		boolean isAlive() {
+			return this.process != null && this.process.isAlive();
+		}
+
+		void destroy() {
+			if (this.process != null) {
+				this.process.destroyForcibly();
+				this.process = null;
+			}
+		}
+
+		private void start(CodeExecutionConfig config, long timeoutMillis) throws Exception {
+			File workDir = new File(config.getWorkDir());
+			Files.createDirectories(workDir.toPath());
+			this.process = new ProcessBuilder(this.command).directory(workDir)
+				.redirectError(ProcessBuilder.Redirect.INHERIT)
+				.start();
+			this.requests = new BufferedWriter(
+					new OutputStreamWriter(this.process.getOutputStream(), StandardCharsets.UTF_8));
+			this.responses = new BufferedReader(
+					new InputStreamReader(this.process.getInputStream(), StandardCharsets.UTF_8));
+			String ready = readLine(timeoutMillis);
+			if (!JavaCodeWorker.READY.equals(ready)) {
+				destroy();
+				throw new Exception("Failed to start the " + this.language + " worker");
+			}
+			logger.info("Started {} code worker, pid {}", this.language, this.process.pid());
+		}
+
+		private String readLine(long timeoutMillis) throws Exception {
+			Future<String> line = ReaderHolder.EXECUTOR.submit(this.responses::readLine);
+			try {
+				return line.get(timeoutMillis, TimeUnit.MILLISECONDS);
+			}
+			catch (TimeoutException e) {
+				line.cancel(true);
+				throw e;
+			}
+			catch (ExecutionException e) {
+				if (e.getCause() instanceof IOException ioException) {
+					throw ioException;
+				}
+				throw e;
+			}
+		}
+
+		/**
+		 * Parse a {@code <exit code> <base64 stdout> <base64 stderr>} response.
+		 * @throws IllegalArgumentException if the response is malformed
+		 */
+		private static CodeExecutionResult toResult(String response, String workDir) {
+			String[] parts = response.split(" ", -1);
+			if (parts.length != 3) {
+				throw new IllegalArgumentException("Malformed worker response with " + parts.length + " fields");
+			}
+			int exitCode = Integer.parseInt(parts[0]);
+			Base64.Decoder decoder = Base64.getDecoder();
+			if (exitCode == 0) {
+				return new CodeExecutionResult(0, new String(decoder.decode(parts[1]), StandardCharsets.UTF_8).trim());
+			}
+			String errorOutput = new String(decoder.decode(parts[2]), StandardCharsets.UTF_8)
+				.replace(Path.of(workDir).toAbsolutePath() + File.separator, "")
+				.trim();
+			return new CodeExecutionResult(exitCode, errorOutput);
+		}
+
+	}
+
+	/**
+	 * Class path of the Java worker, its classes are copied out once so that the worker
+	 * starts the same way whether this module is a directory, a JAR or nested in another
+	 * archive.
+	 */
+	private static final class JavaWorkerHolder {
+
+		private static final Path CLASS_PATH = extractWorkerClasses();
+
+		private static Path extractWorkerClasses() {
+			try {
+				Path dir = Files.createTempDirectory("spring-ai-alibaba-java-worker");
+				String packagePath = JavaCodeWorker.class.getPackageName().replace('.', '/');
+				Path packageDir = Files.createDirectories(dir.resolve(packagePath));
+				List<File> files = new ArrayList<>(List.of(dir.toFile(), packageDir.toFile()));
+				for (String className : JAVA_WORKER_CLASSES) {
+					try (InputStream in = JavaCodeWorker.class.getResourceAsStream(className + ".class")) {
+						if (in == null) {
+							throw new IllegalStateException("Missing worker class " + className);
+						}
+						Path target = packageDir.resolve(className + ".class");
+						Files.copy(in, target);
+						files.add(target.toFile());
+					}
+				}
+				// parents are registered first and deleted last
+				for (File file : files) {
+					file.deleteOnExit();
+				}
+				return dir;
+			}
+			catch (IOException e) {
+				throw new IllegalStateException("Failed to prepare the Java code worker", e);
+			}
+		}
+
+	}
+
+	/**
+	 * Threads blocking on worker responses, so that a response can be awaited with a
+	 * timeout.
+	 */
+	private static final class ReaderHolder {
+
+		private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+		private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(r -> {
+			Thread thread = new Thread(r, "code-worker-reader-" + THREAD_COUNTER.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+
+	}
+
+}
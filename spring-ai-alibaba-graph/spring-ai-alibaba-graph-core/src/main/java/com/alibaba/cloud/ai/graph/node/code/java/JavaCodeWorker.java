@@ -0,0 +1,297 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.node.code.java;
+
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.util.JavacTask;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Main class of the long-lived worker JVM of
+ * {@link com.alibaba.cloud.ai.graph.node.code.LocalWorkerCodeExecutor}. Reads one Base64
+ * encoded Java source per line from stdin, compiles it in memory, runs the {@code main}
+ * method of its first top-level class in a fresh class loader and answers with a line of
+ * {@code <exitCode> <Base64 stdout> <Base64 stderr>}.
+ * <p>
+ * The compiler, its file manager and the class loader of the class path stay warm across
+ * executions. Only JDK classes are used here, the worker runs without the classpath of
+ * the application.
+ *
+ * @since 1.0.0.2
+ */
+public final class JavaCodeWorker {
+
+	public static final String READY = "READY";
+
+	private static final String WARM_UP_SOURCE = """
+			class Main {
+			    public static void main(String[] args) {
+			        System.out.println(new StringBuilder("warm").append(args.length));
+			    }
+			}""";
+
+	private final JavaCompiler compiler;
+
+	private final StandardJavaFileManager standardFileManager;
+
+	private final String classPath;
+
+	private final ClassLoader classPathLoader;
+
+	private static final PrintStream DISCARD = new PrintStream(OutputStream.nullOutputStream());
+
+	private final PrintStream stdout = System.out;
+
+	private JavaCodeWorker(String classPath) throws MalformedURLException {
+		this.compiler = ToolProvider.getSystemJavaCompiler();
+		this.standardFileManager = this.compiler != null
+				? this.compiler.getStandardFileManager(null, Locale.ROOT, StandardCharsets.UTF_8) : null;
+		this.classPath = classPath;
+		List<URL> urls = new ArrayList<>();
+		for (String entry : classPath.split(File.pathSeparator)) {
+			if (!entry.isEmpty()) {
+				urls.add(Path.of(entry).toUri().toURL());
+			}
+		}
+		this.classPathLoader = new URLClassLoader(urls.toArray(new URL[0]), ClassLoader.getPlatformClassLoader());
+	}
+
+	public static void main(String[] args) throws Exception {
+		JavaCodeWorker worker = new JavaCodeWorker(args.length > 0 ? args[0] : "");
+		worker.execute(WARM_UP_SOURCE);
+		worker.stdout.println(READY);
+		worker.stdout.flush();
+
+		BufferedReader reader = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+		String line;
+		while ((line = reader.readLine()) != null) {
+			String source = new String(Base64.getDecoder().decode(line.trim()), StandardCharsets.UTF_8);
+			worker.stdout.println(worker.execute(source));
+			worker.stdout.flush();
+		}
+	}
+
+	/**
+	 * Compile and run one source, returning the response line.
+	 */
+	private String execute(String source) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ByteArrayOutputStream err = new ByteArrayOutputStream();
+		int exitCode;
+		PrintStream outStream = new PrintStream(out, true, StandardCharsets.UTF_8);
+		PrintStream errStream = new PrintStream(err, true, StandardCharsets.UTF_8);
+		System.setOut(outStream);
+		System.setErr(errStream);
+		try {
+			exitCode = compileAndRun(source, errStream);
+		}
+		catch (Throwable e) {
+			errStream.print("Exception in thread \"main\" ");
+			e.printStackTrace(errStream);
+			exitCode = 1;
+		}
+		finally {
+			// threads left behind by the code must not write into the response channel
+			System.setOut(DISCARD);
+			System.setErr(DISCARD);
+		}
+		outStream.flush();
+		errStream.flush();
+		Base64.Encoder encoder = Base64.getEncoder();
+		return exitCode + " " + encoder.encodeToString(out.toByteArray()) + " "
+				+ encoder.encodeToString(err.toByteArray());
+	}
+
+	private int compileAndRun(String source, PrintStream err) throws Exception {
+		if (this.compiler == null) {
+			err.println("No Java compiler available in " + System.getProperty("java.home"));
+			return 1;
+		}
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		MemoryFileManager fileManager = new MemoryFileManager(this.standardFileManager);
+		List<String> options = List.of("-classpath", this.classPath, "-proc:none", "-encoding", "UTF-8");
+
+		// parse first to name the file after its first top-level type, like the source
+		// launcher of the java command does
+		JavacTask parseTask = (JavacTask) this.compiler.getTask(null, fileManager, diagnostics, options, null,
+				List.of(new SourceFile("Main", source)));
+		String mainClass = null;
+		for (CompilationUnitTree unit : parseTask.parse()) {
+			for (Tree type : unit.getTypeDecls()) {
+				if (type instanceof ClassTree classTree) {
+					String packageName = unit.getPackageName() != null ? unit.getPackageName().toString() + "." : "";
+					mainClass = packageName + classTree.getSimpleName();
+					break;
+				}
+			}
+		}
+		if (mainClass == null) {
+			printDiagnostics(diagnostics, err);
+			err.println("error: no class declared in source");
+			return 1;
+		}
+
+		diagnostics = new DiagnosticCollector<>();
+		String simpleName = mainClass.substring(mainClass.lastIndexOf('.') + 1);
+		JavacTask compileTask = (JavacTask) this.compiler.getTask(null, fileManager, diagnostics, options, null,
+				List.of(new SourceFile(simpleName, source)));
+		if (!compileTask.call()) {
+			printDiagnostics(diagnostics, err);
+			return 1;
+		}
+
+		MemoryClassLoader classLoader = new MemoryClassLoader(fileManager.classes, this.classPathLoader);
+		Thread thread = Thread.currentThread();
+		ClassLoader previous = thread.getContextClassLoader();
+		thread.setContextClassLoader(classLoader);
+		try {
+			Method main = classLoader.loadClass(mainClass).getDeclaredMethod("main", String[].class);
+			main.setAccessible(true);
+			main.invoke(null, (Object) new String[0]);
+			return 0;
+		}
+		catch (InvocationTargetException e) {
+			err.print("Exception in thread \"main\" ");
+			e.getCause().printStackTrace(err);
+			return 1;
+		}
+		finally {
+			thread.setContextClassLoader(previous);
+		}
+	}
+
+	private static void printDiagnostics(DiagnosticCollector<JavaFileObject> diagnostics, PrintStream err) {
+		int errors = 0;
+		for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+			boolean error = diagnostic.getKind() == Diagnostic.Kind.ERROR;
+			errors += error ? 1 : 0;
+			String file = diagnostic.getSource() != null ? diagnostic.getSource().getName().substring(1) : "";
+			err.printf("%s:%d: %s: %s%n", file, diagnostic.getLineNumber(), error ? "error" : "warning",
+					diagnostic.getMessage(Locale.ROOT));
+		}
+		if (errors > 0) {
+			err.printf("%d error%s%n", errors, errors == 1 ? "" : "s");
+		}
+	}
+
+	static final class SourceFile extends SimpleJavaFileObject {
+
+		private final String source;
+
+		SourceFile(String simpleName, String source) {
+			super(URI.create("string:///" + simpleName + Kind.SOURCE.extension), Kind.SOURCE);
+			this.source = source;
+		}
+
+		@Override
+		public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+			return this.source;
+		}
+
+	}
+
+	static final class ClassFile extends SimpleJavaFileObject {
+
+		private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		ClassFile(String className) {
+			super(URI.create("bytes:///" + className.replace('.', '/') + Kind.CLASS.extension), Kind.CLASS);
+		}
+
+		@Override
+		public OutputStream openOutputStream() {
+			return this.bytes;
+		}
+
+	}
+
+	static final class MemoryFileManager extends ForwardingJavaFileManager<JavaFileManager> {
+
+		private final Map<String, ClassFile> classes = new HashMap<>();
+
+		MemoryFileManager(JavaFileManager fileManager) {
+			super(fileManager);
+		}
+
+		@Override
+		public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind,
+				FileObject sibling) {
+			ClassFile classFile = new ClassFile(className);
+			this.classes.put(className, classFile);
+			return classFile;
+		}
+
+		@Override
+		public void close() {
+			// the standard file manager is shared across executions
+		}
+
+	}
+
+	static final class MemoryClassLoader extends ClassLoader {
+
+		private final Map<String, ClassFile> classes;
+
+		MemoryClassLoader(Map<String, ClassFile> classes, ClassLoader parent) {
+			super(parent);
+			this.classes = classes;
+		}
+
+		@Override
+		protected Class<?> findClass(String name) throws ClassNotFoundException {
+			ClassFile classFile = this.classes.get(name);
+			if (classFile == null) {
+				throw new ClassNotFoundException(name);
+			}
+			byte[] bytes = classFile.bytes.toByteArray();
+			return defineClass(name, bytes, 0, bytes.length);
+		}
+
+	}
+
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.serializer.binary;
+
+import com.alibaba.cloud.ai.graph.checkpoint.Checkpoint;
+import com.alibaba.cloud.ai.graph.serializer.Serializer;
+import org.springframework.util.FastByteArrayOutputStream;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.StreamCorruptedException;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Objects;
+
+import static com.alibaba.cloud.ai.graph.serializer.binary.BinaryStateSerializer.readNullableString;
+import static com.alibaba.cloud.ai.graph.serializer.binary.BinaryStateSerializer.readString;
+import static com.alibaba.cloud.ai.graph.serializer.binary.BinaryStateSerializer.readVarLong;
+import static com.alibaba.cloud.ai.graph.serializer.binary.BinaryStateSerializer.writeNullableString;
+import static com.alibaba.cloud.ai.graph.serializer.binary.BinaryStateSerializer.writeString;
+import static com.alibaba.cloud.ai.graph.serializer.binary.BinaryStateSerializer.writeVarLong;
+
+/**
+ * Binary {@link Serializer} of {@link Checkpoint}s, the state is encoded by a
+ * {@link BinaryStateSerializer}. Also reads and writes whole checkpoint lists for savers
+ * that store all checkpoints of a thread as one value.
+ *
+ * @since 1.0.0.2
+ */
+public class BinaryCheckpointSerializer implements Serializer<Checkpoint> {
+
+	private final BinaryStateSerializer stateSerializer;
+
+	public BinaryCheckpointSerializer(BinaryStateSerializer stateSerializer) {
+		this.stateSerializer = Objects.requireNonNull(stateSerializer, "stateSerializer cannot be null");
+	}
+
+	@Override
+	public void write(Checkpoint object, ObjectOutput out) throws IOException {
+		stateSerializer.writeHeader(out);
+		writeCheckpoint(object, out);
+	}
+
+	@Override
+	public Checkpoint read(ObjectInput in) throws IOException, ClassNotFoundException {
+		stateSerializer.readHeader(in);
+		return readCheckpoint(in);
+	}
+
+	@Override
+	public byte[] writeObject(Checkpoint object) throws IOException {
+		Objects.requireNonNull(object, "object cannot be null");
+		FastByteArrayOutputStream bytes = new FastByteArrayOutputStream();
+		try (ObjectOutput out = stateSerializer.new DataObjectOutput(bytes)) {
+			write(object, out);
+		}
+		return bytes.toByteArrayUnsafe();
+	}
+
+	@Override
+	public Checkpoint readObject(byte[] bytes) throws IOException, ClassNotFoundException {
+		Objects.requireNonNull(bytes, "bytes cannot be null");
+		try (ObjectInput in = stateSerializer.new DataObjectInput(new BinaryStateSerializer.BytesInput(bytes))) {
+			return read(in);
+		}
+	}
+
+	/**
+	 * Encode the checkpoints of one thread, in iteration order.
+	 */
+	public byte[] writeCheckpoints(Collection<Checkpoint> checkpoints) throws IOException {
+		Objects.requireNonNull(checkpoints, "checkpoints cannot be null");
+		FastByteArrayOutputStream bytes = new FastByteArrayOutputStream();
+		try (ObjectOutput out = stateSerializer.new DataObjectOutput(bytes)) {
+			stateSerializer.writeHeader(out);
+			writeVarLong(checkpoints.size(), out);
+			for (Checkpoint checkpoint : checkpoints) {
+				writeCheckpoint(checkpoint, out);
+			}
+		}
+		return bytes.toByteArrayUnsafe();
+	}
+
+	public LinkedList<Checkpoint> readCheckpoints(byte[] bytes) throws IOException, ClassNotFoundException {
+		Objects.requireNonNull(bytes, "bytes cannot be null");
+		LinkedList<Checkpoint> checkpoints = new LinkedList<>();
+		try (ObjectInput in = stateSerializer.new DataObjectInput(new BinaryStateSerializer.BytesInput(bytes))) {
+			stateSerializer.readHeader(in);
+			long size = readVarLong(in);
+			for (long i = 0; i < size; i++) {
+				checkpoints.add(readCheckpoint(in));
+			}
+		}
+		return checkpoints;
+	}
+
+	private void writeCheckpoint(Checkpoint checkpoint, DataOutput out) throws IOException {
+		writeString(checkpoint.getId(), out);
+		writeNullableString(checkpoint.getNodeId(), out);
+		writeNullableString(checkpoint.getNextNodeId(), out);
+		stateSerializer.writeValue(checkpoint.getState(), out);
+	}
+
+	@SuppressWarnings("unchecked")
+	private Checkpoint readCheckpoint(DataInput in) throws IOException, ClassNotFoundException {
+		String id = readString(in);
+		String nodeId = readNullableString(in);
+		String nextNodeId = readNullableString(in);
+		Object state = stateSerializer.readValue(in);
+		if (!(state instanceof Map<?, ?> map)) {
+			throw new StreamCorruptedException("Expected checkpoint state map but found " + state);
+		}
+		return Checkpoint.builder()
+			.id(id)
+			.nodeId(nodeId)
+			.nextNodeId(nextNodeId)
+			.state((Map<String, Object>) map)
+			.build();
+	}
+
+}
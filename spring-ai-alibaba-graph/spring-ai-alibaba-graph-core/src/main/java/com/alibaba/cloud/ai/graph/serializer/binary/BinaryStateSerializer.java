@@ -0,0 +1,657 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.serializer.binary;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.serializer.StateSerializer;
+import com.alibaba.cloud.ai.graph.state.AgentStateFactory;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.content.Media;
+import org.springframework.ai.document.Document;
+import org.springframework.util.Assert;
+import org.springframework.util.FastByteArrayOutputStream;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.NotSerializableException;
+import java.io.ObjectInput;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutput;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+/**
+ * Compact binary {@link StateSerializer} for {@link OverAllState}.
+ * <p>
+ * The state data is written as a tree of tagged values: every value starts with a one
+ * byte type tag, integers and lengths are var-ints and strings are length-prefixed UTF-8.
+ * Primitives, strings, byte arrays, lists, sets, maps, enums and the Spring AI
+ * {@link UserMessage}, {@link SystemMessage}, {@link AssistantMessage},
+ * {@link ToolResponseMessage} and {@link Document} types are encoded natively. Other
+ * types can be registered with {@link #registerType}, they are stored under their
+ * registered name so the payload does not depend on registration order. Remaining
+ * {@link Serializable} values fall back to Java serialization.
+ * <p>
+ * Every payload starts with a magic byte and a format version, a reader rejects versions
+ * it does not know.
+ *
+ * @since 1.0.0.2
+ */
+public class BinaryStateSerializer extends StateSerializer<OverAllState> {
+
+	static final int MAGIC = 0xB5;
+
+	static final int VERSION = 1;
+
+	// @formatter:off
+	static final int T_NULL = 0, T_TRUE = 1, T_FALSE = 2, T_INT = 3, T_LONG = 4, T_DOUBLE = 5, T_FLOAT = 6,
+			T_STRING = 7, T_BYTES = 8, T_LIST = 9, T_MAP = 10, T_SET = 11, T_SHORT = 12, T_BYTE = 13, T_CHAR = 14,
+			T_ENUM = 15;
+
+	static final int T_USER_MESSAGE = 20, T_SYSTEM_MESSAGE = 21, T_ASSISTANT_MESSAGE = 22,
+			T_TOOL_RESPONSE_MESSAGE = 23, T_DOCUMENT = 24;
+
+	static final int T_CUSTOM = 30, T_JAVA_SERIALIZED = 31;
+	// @formatter:on
+
+	private final Map<String, CustomType<?>> typesByName = new ConcurrentHashMap<>();
+
+	private final List<CustomType<?>> types = new CopyOnWriteArrayList<>();
+
+	private final Map<Class<?>, CustomType<?>> typesByClass = new ConcurrentHashMap<>();
+
+	public BinaryStateSerializer() {
+		this(OverAllState::new);
+	}
+
+	public BinaryStateSerializer(AgentStateFactory<OverAllState> stateFactory) {
+		super(stateFactory);
+	}
+
+	/**
+	 * Register a custom value type. The encoder maps a value to something this serializer
+	 * handles natively (typically a map or a list), the decoder maps it back.
+	 * @param name stable name written with every value, must not change between versions
+	 * @param type the value type, subclasses are matched too
+	 * @param encoder maps a value to a natively supported value
+	 * @param decoder maps the decoded native value back
+	 * @return this serializer
+	 */
+	public <T> BinaryStateSerializer registerType(String name, Class<T> type, Function<? super T, ?> encoder,
+			Function<Object, ? extends T> decoder) {
+		Assert.hasText(name, "name must not be empty");
+		Assert.notNull(type, "type must not be null");
+		Assert.notNull(encoder, "encoder must not be null");
+		Assert.notNull(decoder, "decoder must not be null");
+		CustomType<T> customType = new CustomType<>(name, type, encoder, decoder);
+		Assert.isNull(this.typesByName.putIfAbsent(name, customType), () -> "Type " + name + " already registered");
+		this.types.add(customType);
+		this.typesByClass.clear();
+		return this;
+	}
+
+	@Override
+	public void write(OverAllState object, ObjectOutput out) throws IOException {
+		writeHeader(out);
+		writeValue(object.data(), out);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public OverAllState read(ObjectInput in) throws IOException, ClassNotFoundException {
+		readHeader(in);
+		Object data = readValue(in);
+		if (!(data instanceof Map<?, ?> map)) {
+			throw new StreamCorruptedException("Expected state map but found " + data);
+		}
+		return stateOf((Map<String, Object>) map);
+	}
+
+	/**
+	 * Writes without the {@link ObjectOutputStream} framing used by the default
+	 * implementation.
+	 */
+	@Override
+	public byte[] writeObject(OverAllState object) throws IOException {
+		Objects.requireNonNull(object, "object cannot be null");
+		FastByteArrayOutputStream bytes = new FastByteArrayOutputStream();
+		try (DataObjectOutput out = new DataObjectOutput(bytes)) {
+			write(object, out);
+		}
+		return bytes.toByteArrayUnsafe();
+	}
+
+	@Override
+	public OverAllState readObject(byte[] bytes) throws IOException, ClassNotFoundException {
+		Objects.requireNonNull(bytes, "bytes cannot be null");
+		if (bytes.length == 0) {
+			throw new IllegalArgumentException("bytes cannot be empty");
+		}
+		try (DataObjectInput in = new DataObjectInput(new BytesInput(bytes))) {
+			return read(in);
+		}
+	}
+
+	void writeHeader(DataOutput out) throws IOException {
+		out.writeByte(MAGIC);
+		out.writeByte(VERSION);
+	}
+
+	void readHeader(DataInput in) throws IOException {
+		int magic = in.readUnsignedByte();
+		if (magic != MAGIC) {
+			throw new StreamCorruptedException("Not a binary state payload, magic byte " + magic);
+		}
+		int version = in.readUnsignedByte();
+		if (version != VERSION) {
+			throw new StreamCorruptedException("Unsupported binary state format version " + version);
+		}
+	}
+
+	void writeValue(Object value, DataOutput out) throws IOException {
+		if (value == null) {
+			out.writeByte(T_NULL);
+			return;
+		}
+		if (!this.types.isEmpty()) {
+			CustomType<?> customType = customTypeOf(value.getClass());
+			if (customType != null) {
+				out.writeByte(T_CUSTOM);
+				writeString(customType.name(), out);
+				writeValue(customType.encode(value), out);
+				return;
+			}
+		}
+		if (value instanceof String s) {
+			out.writeByte(T_STRING);
+			writeString(s, out);
+		}
+		else if (value instanceof Integer i) {
+			out.writeByte(T_INT);
+			writeVarLong(zigZag(i), out);
+		}
+		else if (value instanceof Long l) {
+			out.writeByte(T_LONG);
+			writeVarLong(zigZag(l), out);
+		}
+		else if (value instanceof Boolean b) {
+			out.writeByte(b ? T_TRUE : T_FALSE);
+		}
+		else if (value instanceof Double d) {
+			out.writeByte(T_DOUBLE);
+			out.writeDouble(d);
+		}
+		else if (value instanceof Float f) {
+			out.writeByte(T_FLOAT);
+			out.writeFloat(f);
+		}
+		else if (value instanceof Short s) {
+			out.writeByte(T_SHORT);
+			out.writeShort(s);
+		}
+		else if (value instanceof Byte b) {
+			out.writeByte(T_BYTE);
+			out.writeByte(b);
+		}
+		else if (value instanceof Character c) {
+			out.writeByte(T_CHAR);
+			out.writeChar(c);
+		}
+		else if (value instanceof byte[] bytes) {
+			out.writeByte(T_BYTES);
+			writeVarLong(bytes.length, out);
+			out.write(bytes);
+		}
+		else if (value instanceof Enum<?> e) {
+			out.writeByte(T_ENUM);
+			writeString(e.getDeclaringClass().getName(), out);
+			writeString(e.name(), out);
+		}
+		else if (value instanceof UserMessage message) {
+			out.writeByte(T_USER_MESSAGE);
+			writeNullableString(message.getText(), out);
+			writeMedia(message.getMedia(), out);
+			writeValue(message.getMetadata(), out);
+		}
+		else if (value instanceof SystemMessage message) {
+			out.writeByte(T_SYSTEM_MESSAGE);
+			writeNullableString(message.getText(), out);
+			writeValue(message.getMetadata(), out);
+		}
+		else if (value instanceof AssistantMessage message) {
+			out.writeByte(T_ASSISTANT_MESSAGE);
+			writeNullableString(message.getText(), out);
+			List<AssistantMessage.ToolCall> toolCalls = message.getToolCalls();
+			writeVarLong(toolCalls.size(), out);
+			for (AssistantMessage.ToolCall toolCall : toolCalls) {
+				writeNullableString(toolCall.id(), out);
+				writeNullableString(toolCall.type(), out);
+				writeNullableString(toolCall.name(), out);
+				writeNullableString(toolCall.arguments(), out);
+			}
+			writeMedia(message.getMedia(), out);
+			writeValue(message.getMetadata(), out);
+		}
+		else if (value instanceof ToolResponseMessage message) {
+			out.writeByte(T_TOOL_RESPONSE_MESSAGE);
+			List<ToolResponseMessage.ToolResponse> responses = message.getResponses();
+			writeVarLong(responses.size(), out);
+			for (ToolResponseMessage.ToolResponse response : responses) {
+				writeNullableString(response.id(), out);
+				writeNullableString(response.name(), out);
+				writeNullableString(response.responseData(), out);
+			}
+			writeValue(message.getMetadata(), out);
+		}
+		else if (value instanceof Document document) {
+			out.writeByte(T_DOCUMENT);
+			writeString(document.getId(), out);
+			writeNullableString(document.getText(), out);
+			writeMedia(document.getMedia() == null ? List.of() : List.of(document.getMedia()), out);
+			writeValue(document.getScore(), out);
+			writeValue(document.getMetadata(), out);
+		}
+		else if (value instanceof List<?> list) {
+			out.writeByte(T_LIST);
+			writeVarLong(list.size(), out);
+			for (Object element : list) {
+				writeValue(element, out);
+			}
+		}
+		else if (value instanceof Set<?> set) {
+			out.writeByte(T_SET);
+			writeVarLong(set.size(), out);
+			for (Object element : set) {
+				writeValue(element, out);
+			}
+		}
+		else if (value instanceof Map<?, ?> map) {
+			out.writeByte(T_MAP);
+			writeVarLong(map.size(), out);
+			for (Map.Entry<?, ?> entry : map.entrySet()) {
+				writeValue(entry.getKey(), out);
+				writeValue(entry.getValue(), out);
+			}
+		}
+		else if (value instanceof Serializable) {
+			out.writeByte(T_JAVA_SERIALIZED);
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+				oos.writeObject(value);
+			}
+			writeVarLong(bytes.size(), out);
+			out.write(bytes.toByteArray());
+		}
+		else {
+			throw new NotSerializableException(value.getClass().getName());
+		}
+	}
+
+	Object readValue(DataInput in) throws IOException, ClassNotFoundException {
+		int tag = in.readUnsignedByte();
+		switch (tag) {
+			case T_NULL:
+				return null;
+			case T_TRUE:
+				return Boolean.TRUE;
+			case T_FALSE:
+				return Boolean.FALSE;
+			case T_INT:
+				return (int) unZigZag(readVarLong(in));
+			case T_LONG:
+				return unZigZag(readVarLong(in));
+			case T_DOUBLE:
+				return in.readDouble();
+			case T_FLOAT:
+				return in.readFloat();
+			case T_SHORT:
+				return in.readShort();
+			case T_BYTE:
+				return in.readByte();
+			case T_CHAR:
+				return in.readChar();
+			case T_STRING:
+				return readString(in);
+			case T_BYTES: {
+				byte[] bytes = new byte[readLength(in)];
+				in.readFully(bytes);
+				return bytes;
+			}
+			case T_ENUM:
+				return readEnum(in);
+			case T_USER_MESSAGE: {
+				String text = readNullableString(in);
+				List<Media> media = readMedia(in);
+				return UserMessage.builder().text(text).media(media).metadata(readMetadata(in)).build();
+			}
+			case T_SYSTEM_MESSAGE: {
+				String text = readNullableString(in);
+				return SystemMessage.builder().text(text).metadata(readMetadata(in)).build();
+			}
+			case T_ASSISTANT_MESSAGE: {
+				String text = readNullableString(in);
+				int size = readLength(in);
+				List<AssistantMessage.ToolCall> toolCalls = new ArrayList<>(size);
+				for (int i = 0; i < size; i++) {
+					toolCalls.add(new AssistantMessage.ToolCall(readNullableString(in), readNullableString(in),
+							readNullableString(in), readNullableString(in)));
+				}
+				List<Media> media = readMedia(in);
+				return new AssistantMessage(text, readMetadata(in), toolCalls, media);
+			}
+			case T_TOOL_RESPONSE_MESSAGE: {
+				int size = readLength(in);
+				List<ToolResponseMessage.ToolResponse> responses = new ArrayList<>(size);
+				for (int i = 0; i < size; i++) {
+					responses.add(new ToolResponseMessage.ToolResponse(readNullableString(in), readNullableString(in),
+							readNullableString(in)));
+				}
+				return new ToolResponseMessage(responses, readMetadata(in));
+			}
+			case T_DOCUMENT: {
+				Document.Builder builder = Document.builder().id(readString(in));
+				String text = readNullableString(in);
+				List<Media> media = readMedia(in);
+				if (media.isEmpty()) {
+					builder.text(text);
+				}
+				else {
+					builder.media(media.get(0));
+				}
+				return builder.score((Double) readValue(in)).metadata(readMetadata(in)).build();
+			}
+			case T_LIST: {
+				int size = readLength(in);
+				List<Object> list = new ArrayList<>(size);
+				for (int i = 0; i < size; i++) {
+					list.add(readValue(in));
+				}
+				return list;
+			}
+			case T_SET: {
+				int size = readLength(in);
+				Set<Object> set = new LinkedHashSet<>(capacityOf(size));
+				for (int i = 0; i < size; i++) {
+					set.add(readValue(in));
+				}
+				return set;
+			}
+			case T_MAP: {
+				int size = readLength(in);
+				Map<Object, Object> map = new LinkedHashMap<>(capacityOf(size));
+				for (int i = 0; i < size; i++) {
+					map.put(readValue(in), readValue(in));
+				}
+				return map;
+			}
+			case T_CUSTOM: {
+				String name = readString(in);
+				CustomType<?> customType = this.typesByName.get(name);
+				if (customType == null) {
+					throw new ClassNotFoundException("No binary type registered under name " + name);
+				}
+				return customType.decoder().apply(readValue(in));
+			}
+			case T_JAVA_SERIALIZED: {
+				byte[] bytes = new byte[readLength(in)];
+				in.readFully(bytes);
+				try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+					return ois.readObject();
+				}
+			}
+			default:
+				throw new StreamCorruptedException("Unknown value tag " + tag);
+		}
+	}
+
+	private CustomType<?> customTypeOf(Class<?> type) {
+		CustomType<?> customType = this.typesByClass.get(type);
+		if (customType != null) {
+			return customType == CustomType.NONE ? null : customType;
+		}
+		customType = CustomType.NONE;
+		for (CustomType<?> candidate : this.types) {
+			if (candidate.type().isAssignableFrom(type)) {
+				customType = candidate;
+				break;
+			}
+		}
+		this.typesByClass.put(type, customType);
+		return customType == CustomType.NONE ? null : customType;
+	}
+
+	private void writeMedia(Collection<Media> media, DataOutput out) throws IOException {
+		writeVarLong(media.size(), out);
+		for (Media item : media) {
+			writeString(item.getMimeType().toString(), out);
+			writeNullableString(item.getId(), out);
+			writeNullableString(item.getName(), out);
+			writeValue(item.getData(), out);
+		}
+	}
+
+	private List<Media> readMedia(DataInput in) throws IOException, ClassNotFoundException {
+		int size = readLength(in);
+		List<Media> media = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			Media.Builder builder = Media.builder().mimeType(MimeTypeUtils.parseMimeType(readString(in)));
+			String id = readNullableString(in);
+			String name = readNullableString(in);
+			media.add(builder.id(id).name(name).data(readValue(in)).build());
+		}
+		return media;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, Object> readMetadata(DataInput in) throws IOException, ClassNotFoundException {
+		Object metadata = readValue(in);
+		return metadata == null ? Map.of() : (Map<String, Object>) metadata;
+	}
+
+	private Enum<?> readEnum(DataInput in) throws IOException, ClassNotFoundException {
+		String className = readString(in);
+		String constant = readString(in);
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		Class<?> type = Class.forName(className, false,
+				classLoader != null ? classLoader : BinaryStateSerializer.class.getClassLoader());
+		if (!type.isEnum()) {
+			throw new StreamCorruptedException(className + " is not an enum");
+		}
+		for (Object value : type.getEnumConstants()) {
+			if (((Enum<?>) value).name().equals(constant)) {
+				return (Enum<?>) value;
+			}
+		}
+		throw new StreamCorruptedException("Unknown constant " + constant + " of " + className);
+	}
+
+	static void writeString(String value, DataOutput out) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeVarLong(bytes.length, out);
+		out.write(bytes);
+	}
+
+	static String readString(DataInput in) throws IOException {
+		byte[] bytes = new byte[readLength(in)];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	static void writeNullableString(String value, DataOutput out) throws IOException {
+		if (value == null) {
+			out.writeByte(0);
+		}
+		else {
+			out.writeByte(1);
+			writeString(value, out);
+		}
+	}
+
+	static String readNullableString(DataInput in) throws IOException {
+		return in.readByte() == 0 ? null : readString(in);
+	}
+
+	static void writeVarLong(long value, DataOutput out) throws IOException {
+		while ((value & ~0x7FL) != 0) {
+			out.writeByte((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		out.writeByte((int) value);
+	}
+
+	static long readVarLong(DataInput in) throws IOException {
+		long result = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			int b = in.readUnsignedByte();
+			result |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return result;
+			}
+		}
+		throw new StreamCorruptedException("Malformed var-int");
+	}
+
+	private static int readLength(DataInput in) throws IOException {
+		long length = readVarLong(in);
+		if (length < 0 || length > Integer.MAX_VALUE) {
+			throw new StreamCorruptedException("Invalid length " + length);
+		}
+		return (int) length;
+	}
+
+	private static int capacityOf(int size) {
+		return (int) Math.min((long) size * 4 / 3 + 1, 1 << 16);
+	}
+
+	private static long zigZag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	private static long unZigZag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	private record CustomType<T>(String name, Class<T> type, Function<? super T, ?> encoder,
+			Function<Object, ? extends T> decoder) {
+
+		static final CustomType<Object> NONE = new CustomType<>("", Object.class, v -> v, v -> v);
+
+		Object encode(Object value) {
+			return this.encoder.apply(this.type.cast(value));
+		}
+
+	}
+
+	/**
+	 * {@link ObjectOutput} over a plain {@link DataOutputStream}, without the block
+	 * framing of {@link ObjectOutputStream}.
+	 */
+	final class DataObjectOutput extends DataOutputStream implements ObjectOutput {
+
+		DataObjectOutput(OutputStream out) {
+			super(out);
+		}
+
+		@Override
+		public void writeObject(Object obj) throws IOException {
+			writeValue(obj, this);
+		}
+
+	}
+
+	/**
+	 * {@link ObjectInput} over a plain {@link DataInputStream}.
+	 */
+	final class DataObjectInput extends DataInputStream implements ObjectInput {
+
+		DataObjectInput(InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public Object readObject() throws IOException, ClassNotFoundException {
+			return readValue(this);
+		}
+
+	}
+
+	/**
+	 * Unsynchronized replacement of {@link ByteArrayInputStream}, the decoder reads most
+	 * values a byte at a time.
+	 */
+	static final class BytesInput extends InputStream {
+
+		private final byte[] bytes;
+
+		private int position;
+
+		BytesInput(byte[] bytes) {
+			this.bytes = bytes;
+		}
+
+		@Override
+		public int read() {
+			return this.position < this.bytes.length ? this.bytes[this.position++] & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			Objects.checkFromIndexSize(off, len, b.length);
+			if (len == 0) {
+				return 0;
+			}
+			int available = this.bytes.length - this.position;
+			if (available <= 0) {
+				return -1;
+			}
+			int count = Math.min(len, available);
+			System.arraycopy(this.bytes, this.position, b, off, count);
+			this.position += count;
+			return count;
+		}
+
+		@Override
+		public int available() {
+			return this.bytes.length - this.position;
+		}
+
+	}
+
+}
@@ -17,9 +17,16 @@
 package com.alibaba.cloud.ai.graph.utils;
 
 import java.io.IOException;
+import java.net.URI;
 import java.net.URL;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 /**
  * @author HeYQ
@@ -104,6 +111,46 @@ public class FileUtils {
 		}
 	}
 
+	/**
+	 * Resolves the JAR files of the resources/lib directory to paths usable on a class
+	 * path. Exploded resources are used in place, resources packaged in a JAR are
+	 * extracted to a temporary directory.
+	 * @return The absolute paths of the JAR files.
+	 */
+	public static List<Path> resolveResourceJars() {
+		try {
+			URL libUrl = FileUtils.class.getClassLoader().getResource("lib");
+			if (libUrl == null) {
+				throw new RuntimeException("Could not find lib directory in resources");
+			}
+			URI libUri = libUrl.toURI();
+			if ("file".equals(libUri.getScheme())) {
+				return listJars(Path.of(libUri));
+			}
+			Path targetDir = Files.createTempDirectory("spring-ai-alibaba-code-lib");
+			targetDir.toFile().deleteOnExit();
+			try (FileSystem fileSystem = FileSystems.newFileSystem(libUri, Map.of())) {
+				List<Path> jars = new ArrayList<>();
+				for (Path jarPath : listJars(fileSystem.provider().getPath(libUri))) {
+					Path targetPath = targetDir.resolve(jarPath.getFileName().toString());
+					Files.copy(jarPath, targetPath, StandardCopyOption.REPLACE_EXISTING);
+					targetPath.toFile().deleteOnExit();
+					jars.add(targetPath.toAbsolutePath());
+				}
+				return jars;
+			}
+		}
+		catch (Exception e) {
+			throw new RuntimeException("Failed to resolve JAR files from resources", e);
+		}
+	}
+
+	private static List<Path> listJars(Path dir) throws IOException {
+		try (var stream = Files.walk(dir)) {
+			return stream.filter(path -> path.toString().endsWith(".jar")).map(Path::toAbsolutePath).sorted().toList();
+		}
+	}
+
 	/**
 	 * Deletes all JAR files from the specified working directory.
 	 * @param workDir The working directory from which the JAR files will be deleted.
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.node;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.parser.markdown.MarkdownDocumentParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.document.Document;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DocumentExtractorNodeTest {
+
+	@TempDir
+	Path folder;
+
+	private OverAllState state;
+
+	@BeforeEach
+	public void setUp() {
+		state = mock(OverAllState.class);
+		when(state.value("files")).thenReturn(Optional.empty());
+	}
+
+	@Test
+	public void resolvesPathsInsideBaseDirectory() throws Exception {
+		Path text = Files.writeString(folder.resolve("notes.txt"), "plain text");
+		Files.createDirectories(folder.resolve("nested"));
+		Files.writeString(folder.resolve("nested/data.JSON"), "{\"name\":\"graph\"}");
+		DocumentExtractorNode node = DocumentExtractorNode.builder()
+			.paramsKey("files")
+			.baseDirectory(folder)
+			.fileList(List.of(text.toString(), "nested/data.JSON"))
+			.build();
+
+		List<String> contents = (List<String>) node.apply(state).get("text");
+
+		assertThat(contents).hasSize(2);
+		assertThat(contents.get(0)).isEqualTo("plain text");
+		assertThat(contents.get(1)).contains("graph");
+	}
+
+	@Test
+	public void resolvesFileUrlsWithExplicitResourceLoader() throws Exception {
+		Path text = Files.writeString(folder.resolve("notes.txt"), "plain text");
+		DocumentExtractorNode node = DocumentExtractorNode.builder()
+			.paramsKey("files")
+			.resourceLoader(new DefaultResourceLoader())
+			.fileList(List.of(text.toUri().toString()))
+			.build();
+
+		assertThat((List<String>) node.apply(state).get("text")).containsExactly("plain text");
+	}
+
+	@Test
+	public void rejectsFileUrlsRemoteUrlsAndPathsOutsideBaseDirectory() {
+		for (String location : List.of("file:/etc/passwd", "http://169.254.169.254/latest/meta-data.json",
+				"https://example.com/data.txt", "/etc/passwd.txt", "../outside.txt")) {
+			DocumentExtractorNode node = DocumentExtractorNode.builder()
+				.paramsKey("files")
+				.baseDirectory(folder)
+				.fileList(List.of(location))
+				.build();
+
+			assertThatThrownBy(() -> node.apply(state)).as(location).isInstanceOf(IllegalArgumentException.class);
+		}
+		assertThatThrownBy(() -> DocumentExtractorNode.builder()
+			.paramsKey("files")
+			.fileList(List.of(folder.resolve("notes.txt").toString()))
+			.build()
+			.apply(state)).hasMessageContaining("File not found");
+	}
+
+	@Test
+	public void parallelExtractionKeepsFileOrder() throws Exception {
+		List<String> files = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			files.add(Files.writeString(folder.resolve("file-" + i + ".txt"), "content " + i).toString());
+		}
+		DocumentExtractorNode node = DocumentExtractorNode.builder()
+			.paramsKey("files")
+			.baseDirectory(folder)
+			.outputKey("out")
+			.fileList(files)
+			.parallelExtraction(true)
+			.build();
+
+		List<String> contents = (List<String>) node.apply(state).get("out");
+
+		assertThat(contents).hasSize(20).startsWith("content 0", "content 1").endsWith("content 19");
+	}
+
+	@Test
+	public void capsExtractedCharactersWithMarkers() throws Exception {
+		List<String> files = List.of(Files.writeString(folder.resolve("a.txt"), "0123456789").toString(),
+				Files.writeString(folder.resolve("b.txt"), "abcdefghij").toString(),
+				Files.writeString(folder.resolve("c.txt"), "klmnopqrst").toString());
+
+		for (boolean parallel : List.of(false, true)) {
+			DocumentExtractorNode node = DocumentExtractorNode.builder()
+				.paramsKey("files")
+				.baseDirectory(folder)
+				.fileList(files)
+				.parallelExtraction(parallel)
+				.maxCharacters(15)
+				.build();
+
+			List<String> contents = (List<String>) node.apply(state).get("text");
+
+			assertThat(contents).containsExactly("0123456789",
+					"abcde" + DocumentExtractorNode.TRUNCATED_MARKER.formatted(15),
+					DocumentExtractorNode.SKIPPED_MARKER.formatted(15));
+		}
+	}
+
+	@Test
+	public void extractsTheFirstDocumentOfAFile() throws Exception {
+		String markdown = "# First\n\nfirst section\n\n# Second\n\nsecond section\n";
+		Path file = Files.writeString(folder.resolve("sections.md"), markdown);
+		List<Document> documents = new MarkdownDocumentParser()
+			.parse(new ByteArrayInputStream(markdown.getBytes(StandardCharsets.UTF_8)));
+		assertThat(documents).hasSizeGreaterThan(1);
+
+		List<String> contents = (List<String>) DocumentExtractorNode.builder()
+			.paramsKey("files")
+			.baseDirectory(folder)
+			.fileList(List.of(file.toString()))
+			.build()
+			.apply(state)
+			.get("text");
+
+		assertThat(contents).containsExactly(documents.get(0).getText());
+	}
+
+	@Test
+	public void rejectsMissingAndUnsupportedFiles() throws Exception {
+		Path unsupported = Files.writeString(folder.resolve("image.bin"), "x");
+
+		assertThatThrownBy(() -> DocumentExtractorNode.builder()
+			.paramsKey("files")
+			.baseDirectory(folder)
+			.fileList(List.of(folder.resolve("missing.txt").toString()))
+			.build()
+			.apply(state)).hasMessageContaining("File not found");
+		assertThatThrownBy(() -> DocumentExtractorNode.builder()
+			.paramsKey("files")
+			.baseDirectory(folder)
+			.fileList(List.of(unsupported.toString()))
+			.build()
+			.apply(state)).hasMessageContaining("Unsupported Extension Type: bin");
+	}
+
+}
@@ -17,13 +17,20 @@ package com.alibaba.cloud.ai.graph.node;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.alibaba.cloud.ai.graph.OverAllState;
 import com.alibaba.cloud.ai.graph.node.HttpNode.AuthConfig;
 import com.alibaba.cloud.ai.graph.node.HttpNode.BodyData;
 import com.alibaba.cloud.ai.graph.node.HttpNode.BodyType;
+import com.alibaba.cloud.ai.graph.node.HttpNode.ClientConfig;
 import com.alibaba.cloud.ai.graph.node.HttpNode.HttpRequestNodeBody;
 import com.alibaba.cloud.ai.graph.node.HttpNode.RetryConfig;
 import com.alibaba.cloud.ai.graph.utils.InMemoryFileStorage;
@@ -40,12 +47,19 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class HttpNodeTest {
@@ -279,4 +293,144 @@ public class HttpNodeTest {
 		assertEquals(3, mockWebServer.getRequestCount());
 	}
 
+	@Test
+	void testRetryDisabled() {
+		mockWebServer.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AT_START));
+		mockWebServer.enqueue(new MockResponse().setBody("OK"));
+
+		// POST, the JDK client itself retries idempotent requests once
+		HttpNode node = HttpNode.builder()
+			.webClient(webClient)
+			.method(HttpMethod.POST)
+			.url(mockWebServer.url("/no-retry").toString())
+			.retryConfig(new RetryConfig(3, 10, false))
+			.build();
+
+		assertThrows(Exception.class, () -> node.apply(new OverAllState()));
+		assertEquals(1, mockWebServer.getRequestCount());
+	}
+
+	@Test
+	void testConnectionFailureIsReportedAsNodeError() throws Exception {
+		int port;
+		try (ServerSocket socket = new ServerSocket(0)) {
+			port = socket.getLocalPort();
+		}
+
+		for (boolean retry : List.of(false, true)) {
+			HttpNode node = HttpNode.builder()
+				.webClient(webClient)
+				.method(HttpMethod.GET)
+				.url("http://localhost:" + port + "/closed")
+				.retryConfig(new RetryConfig(1, 10, retry))
+				.build();
+
+			Exception exception = assertThrows(Exception.class, () -> node.apply(new OverAllState()));
+			assertTrue(exception.getMessage().contains("HTTP request failed"), exception.getMessage());
+		}
+	}
+
+	@Test
+	void testApplyAsyncWithSharedWebClient() throws Exception {
+		mockWebServer.enqueue(new MockResponse().setBody("{\"message\":\"async\"}")
+			.setHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+			.setHeadersDelay(300, TimeUnit.MILLISECONDS));
+
+		HttpNode node = HttpNode.builder().method(HttpMethod.GET).url(mockWebServer.url("/async").toString()).build();
+
+		CompletableFuture<Map<String, Object>> future = node.asAsyncNodeAction().apply(new OverAllState());
+		assertFalse(future.isDone());
+
+		Map<String, Object> messages = (Map<String, Object>) future.get(5, TimeUnit.SECONDS).get("messages");
+		assertEquals(HttpStatus.OK.value(), messages.get("status"));
+		assertEquals("async", ((Map<String, Object>) messages.get("body")).get("message"));
+	}
+
+	@Test
+	void testResponseLargerThanMaxResponseSize() {
+		mockWebServer.enqueue(new MockResponse().setBody("x".repeat(1000)));
+
+		HttpNode node = HttpNode.builder()
+			.webClient(webClient)
+			.method(HttpMethod.GET)
+			.url(mockWebServer.url("/large").toString())
+			.maxResponseSize(100)
+			.retryConfig(new RetryConfig(3, 10, true))
+			.build();
+
+		Exception exception = assertThrows(Exception.class, () -> node.apply(new OverAllState()));
+		assertTrue(exception.getMessage().contains("exceeds 100 bytes"));
+		assertEquals(1, mockWebServer.getRequestCount());
+	}
+
+	@Test
+	void testResponseLargerThanCodecLimit() throws Exception {
+		String largeBody = "x".repeat(512 * 1024);
+		mockWebServer.enqueue(new MockResponse().setBody(largeBody).setHeader(HttpHeaders.CONTENT_TYPE, "text/plain"));
+
+		HttpNode node = HttpNode.builder()
+			.webClient(webClient)
+			.method(HttpMethod.GET)
+			.url(mockWebServer.url("/large").toString())
+			.build();
+
+		Map<String, Object> messages = (Map<String, Object>) node.apply(new OverAllState()).get("messages");
+		assertEquals(largeBody, messages.get("body"));
+	}
+
+	@Test
+	void testMaxConnectionsQueuesRequests() throws Exception {
+		for (int i = 0; i < 2; i++) {
+			mockWebServer.enqueue(new MockResponse().setBody("OK").setHeadersDelay(500, TimeUnit.MILLISECONDS));
+		}
+		WebClient limitedClient = HttpNode
+			.createWebClient(new ClientConfig(1, Duration.ofSeconds(5), Duration.ofSeconds(5)));
+		HttpNode node = HttpNode.builder()
+			.webClient(limitedClient)
+			.method(HttpMethod.GET)
+			.url(mockWebServer.url("/limited").toString())
+			.build();
+
+		CompletableFuture<Map<String, Object>> first = node.applyAsync(new OverAllState());
+		CompletableFuture<Map<String, Object>> second = node.applyAsync(new OverAllState());
+
+		assertNotNull(mockWebServer.takeRequest(5, TimeUnit.SECONDS));
+		assertNull(mockWebServer.takeRequest(200, TimeUnit.MILLISECONDS));
+		CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+		assertEquals(2, mockWebServer.getRequestCount());
+	}
+
+	@Test
+	void testConcurrencyLimiterHoldsPermitUntilBodyIsConsumed() {
+		HttpNode.ConcurrencyLimiter limiter = new HttpNode.ConcurrencyLimiter(1);
+		ClientRequest request = ClientRequest.create(HttpMethod.GET, URI.create("http://localhost/limited")).build();
+
+		ClientResponse response = limiter
+			.filter(request, r -> Mono.just(ClientResponse.create(HttpStatus.OK).body("limited").build()))
+			.block();
+
+		assertEquals(1, limiter.active());
+		assertEquals("limited", response.bodyToMono(String.class).block());
+		assertEquals(0, limiter.active());
+	}
+
+	@Test
+	void testConcurrencyLimiterDrainsQueueWithoutRecursion() {
+		HttpNode.ConcurrencyLimiter limiter = new HttpNode.ConcurrencyLimiter(1);
+		ClientRequest request = ClientRequest.create(HttpMethod.GET, URI.create("http://localhost/limited")).build();
+		Sinks.One<ClientResponse> first = Sinks.one();
+		AtomicInteger failed = new AtomicInteger();
+
+		limiter.filter(request, r -> first.asMono()).subscribe(response -> {
+		}, error -> failed.incrementAndGet());
+		for (int i = 0; i < 20_000; i++) {
+			limiter.filter(request, r -> Mono.error(new IOException("refused"))).subscribe(response -> {
+			}, error -> failed.incrementAndGet());
+		}
+		first.tryEmitError(new IOException("refused"));
+
+		assertEquals(20_001, failed.get());
+		assertEquals(0, limiter.active());
+	}
+
 }
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.node;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.client.McpClient;
+import io.modelcontextprotocol.spec.McpClientTransport;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+public class McpNodeTest {
+
+	private static final String URL = "http://localhost:8080";
+
+	private final StubServer server = new StubServer();
+
+	private final OverAllState state = mock(OverAllState.class);
+
+	private McpClientPool pool = newPool(Duration.ofMinutes(5));
+
+	@AfterEach
+	public void tearDown() {
+		pool.close();
+	}
+
+	@Test
+	public void repeatedExecutionsShareOneHandshake() throws Exception {
+		McpNode node = McpNode.builder().url(URL).tool("echo").outputKey("answer").clientPool(pool).build();
+
+		for (int i = 0; i < 10; i++) {
+			Map<String, Object> result = node.apply(state);
+			assertThat(result).containsEntry("answer", "echo:echo");
+		}
+
+		assertThat(server.handshakes).hasValue(1);
+		assertThat(server.toolCalls).hasValue(10);
+		assertThat(pool.size()).isEqualTo(1);
+	}
+
+	@Test
+	public void differentHeadersUseDifferentClients() throws Exception {
+		McpNode first = McpNode.builder().url(URL).tool("echo").header("Authorization", "a").clientPool(pool).build();
+		McpNode second = McpNode.builder().url(URL).tool("echo").header("Authorization", "b").clientPool(pool).build();
+
+		first.apply(state);
+		second.apply(state);
+		first.apply(state);
+
+		assertThat(server.handshakes).hasValue(2);
+	}
+
+	@Test
+	public void brokenClientIsReplacedOnNextCall() throws Exception {
+		McpNode node = McpNode.builder().url(URL).tool("echo").clientPool(pool).build();
+		node.apply(state);
+
+		server.failNextCall.set(true);
+		assertThatThrownBy(() -> node.apply(state)).isInstanceOf(McpNode.McpNodeException.class);
+		assertThat(pool.size()).isZero();
+
+		node.apply(state);
+		assertThat(server.handshakes).hasValue(2);
+	}
+
+	@Test
+	public void idleClientsAreEvicted() throws Exception {
+		pool.close();
+		pool = newPool(Duration.ZERO);
+		McpNode node = McpNode.builder().url(URL).tool("echo").clientPool(pool).build();
+		node.apply(state);
+		assertThat(pool.idleCount()).isEqualTo(1);
+
+		pool.evictIdle();
+
+		assertThat(pool.size()).isZero();
+		assertThat(server.closed).hasValue(1);
+		assertThat(pool.serverCount()).isZero();
+	}
+
+	@Test
+	public void serverWithoutClientsIsDropped() throws Exception {
+		McpNode node = McpNode.builder().url(URL).tool("echo").clientPool(pool).build();
+		node.apply(state);
+		assertThat(pool.serverCount()).isEqualTo(1);
+
+		server.failNextCall.set(true);
+		assertThatThrownBy(() -> node.apply(state)).isInstanceOf(McpNode.McpNodeException.class);
+
+		assertThat(pool.size()).isZero();
+		assertThat(pool.serverCount()).isZero();
+		node.apply(state);
+		assertThat(pool.serverCount()).isEqualTo(1);
+	}
+
+	private McpClientPool newPool(Duration idleTimeout) {
+		return McpClientPool.builder()
+			.clientFactory(key -> McpClient.sync(server.newTransport()).requestTimeout(Duration.ofSeconds(5)).build())
+			.idleTimeout(idleTimeout)
+			.build();
+	}
+
+	/**
+	 * In-process MCP server answering initialize, ping and tools/call requests.
+	 */
+	static class StubServer {
+
+		final AtomicInteger handshakes = new AtomicInteger();
+
+		final AtomicInteger toolCalls = new AtomicInteger();
+
+		final AtomicInteger closed = new AtomicInteger();
+
+		final AtomicBoolean failNextCall = new AtomicBoolean();
+
+		private final ObjectMapper objectMapper = new ObjectMapper();
+
+		McpClientTransport newTransport() {
+			return new StubTransport();
+		}
+
+		private Object handle(McpSchema.JSONRPCRequest request) {
+			return switch (request.method()) {
+				case McpSchema.METHOD_INITIALIZE -> {
+					handshakes.incrementAndGet();
+					yield new McpSchema.InitializeResult(McpSchema.LATEST_PROTOCOL_VERSION,
+							McpSchema.ServerCapabilities.builder().tools(false).build(),
+							new McpSchema.Implementation("stub", "1.0"), null);
+				}
+				case McpSchema.METHOD_TOOLS_CALL -> {
+					toolCalls.incrementAndGet();
+					Map<String, Object> params = objectMapper.convertValue(request.params(), new TypeReference<>() {
+					});
+					yield new McpSchema.CallToolResult(List.of(new McpSchema.TextContent("echo:" + params.get("name"))),
+							false);
+				}
+				default -> Map.of();
+			};
+		}
+
+		private class StubTransport implements McpClientTransport {
+
+			private Function<Mono<McpSchema.JSONRPCMessage>, Mono<McpSchema.JSONRPCMessage>> handler;
+
+			@Override
+			public Mono<Void> connect(
+					Function<Mono<McpSchema.JSONRPCMessage>, Mono<McpSchema.JSONRPCMessage>> handler) {
+				this.handler = handler;
+				return Mono.empty();
+			}
+
+			@Override
+			public Mono<Void> sendMessage(McpSchema.JSONRPCMessage message) {
+				if (!(message instanceof McpSchema.JSONRPCRequest request)) {
+					return Mono.empty();
+				}
+				if (McpSchema.METHOD_TOOLS_CALL.equals(request.method()) && failNextCall.compareAndSet(true, false)) {
+					return Mono.error(new IllegalStateException("connection reset"));
+				}
+				McpSchema.JSONRPCResponse response = new McpSchema.JSONRPCResponse(McpSchema.JSONRPC_VERSION,
+						request.id(), handle(request), null);
+				return handler.apply(Mono.just(response)).then();
+			}
+
+			@Override
+			public Mono<Void> closeGracefully() {
+				closed.incrementAndGet();
+				return Mono.empty();
+			}
+
+			@Override
+			public <T> T unmarshalFrom(Object data, TypeReference<T> typeRef) {
+				return objectMapper.convertValue(data, typeRef);
+			}
+
+		}
+
+	}
+
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.node;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ToolNodeTest {
+
+	private OverAllState state;
+
+	@BeforeEach
+	public void setUp() {
+		state = mock(OverAllState.class);
+		AssistantMessage assistantMessage = new AssistantMessage("", Map.of(),
+				List.of(new AssistantMessage.ToolCall("1", "function", "first", "a"),
+						new AssistantMessage.ToolCall("2", "function", "second", "b"),
+						new AssistantMessage.ToolCall("3", "function", "first", "c")));
+		when(state.value(LlmNode.LLM_RESPONSE_KEY)).thenReturn(Optional.of(assistantMessage));
+	}
+
+	@Test
+	public void parallelToolCallsKeepCallOrder() throws Exception {
+		CountDownLatch latch = new CountDownLatch(3);
+		Function<String, String> awaitAll = args -> {
+			latch.countDown();
+			try {
+				return latch.await(5, TimeUnit.SECONDS) ? args.toUpperCase() : "timeout";
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return "interrupted";
+			}
+		};
+		ToolNode node = ToolNode.builder()
+			.toolCallbacks(List.of(tool("first", awaitAll), tool("second", awaitAll)))
+			.parallelToolExecution(true)
+			.build();
+
+		ToolResponseMessage message = (ToolResponseMessage) node.apply(state).get("messages");
+
+		assertThat(message.getResponses()).extracting(ToolResponseMessage.ToolResponse::id)
+			.containsExactly("1", "2", "3");
+		assertThat(message.getResponses()).extracting(ToolResponseMessage.ToolResponse::responseData)
+			.containsExactly("A", "B", "C");
+	}
+
+	@Test
+	public void parallelToolCallTimesOut() throws Exception {
+		CountDownLatch interrupted = new CountDownLatch(1);
+		ToolNode node = ToolNode.builder().toolCallbacks(List.of(tool("first", args -> args), tool("second", args -> {
+			try {
+				Thread.sleep(5000);
+			}
+			catch (InterruptedException e) {
+				interrupted.countDown();
+			}
+			return args;
+		}))).parallelToolExecution(true).toolExecutionTimeout(Duration.ofMillis(200)).build();
+
+		ToolResponseMessage message = (ToolResponseMessage) node.apply(state).get("messages");
+
+		assertThat(message.getResponses()).extracting(ToolResponseMessage.ToolResponse::responseData)
+			.containsExactly("a", "Tool call second timed out after 200ms", "c");
+		assertThat(interrupted.await(2, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	public void sequentialToolCallTimesOut() throws Exception {
+		CountDownLatch interrupted = new CountDownLatch(1);
+		ToolNode node = ToolNode.builder().toolCallbacks(List.of(tool("first", args -> args), tool("second", args -> {
+			try {
+				Thread.sleep(5000);
+			}
+			catch (InterruptedException e) {
+				interrupted.countDown();
+			}
+			return args;
+		}))).toolExecutionTimeout(Duration.ofMillis(200)).build();
+
+		ToolResponseMessage message = (ToolResponseMessage) node.apply(state).get("messages");
+
+		assertThat(message.getResponses()).extracting(ToolResponseMessage.ToolResponse::responseData)
+			.containsExactly("a", "Tool call second timed out after 200ms", "c");
+		assertThat(interrupted.await(2, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	public void toolCallFailureIsRethrown() {
+		ToolNode node = ToolNode.builder().toolCallbacks(List.of(tool("first", args -> args), tool("second", args -> {
+			throw new IllegalArgumentException("bad " + args);
+		}))).parallelToolExecution(true).toolExecutionTimeout(Duration.ofSeconds(5)).build();
+
+		assertThatThrownBy(() -> node.apply(state)).isInstanceOf(IllegalArgumentException.class).hasMessage("bad b");
+	}
+
+	private static ToolCallback tool(String name, Function<String, String> function) {
+		ToolDefinition definition = ToolDefinition.builder().name(name).description(name).inputSchema("{}").build();
+		return new ToolCallback() {
+
+			@Override
+			public ToolDefinition getToolDefinition() {
+				return definition;
+			}
+
+			@Override
+			public String call(String toolInput) {
+				return function.apply(toolInput);
+			}
+
+			@Override
+			public String call(String toolInput, ToolContext toolContext) {
+				return call(toolInput);
+			}
+
+		};
+	}
+
+}
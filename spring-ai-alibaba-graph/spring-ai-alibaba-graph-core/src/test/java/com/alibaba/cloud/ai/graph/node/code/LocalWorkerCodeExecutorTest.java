@@ -0,0 +1,191 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.node.code;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.action.NodeAction;
+import com.alibaba.cloud.ai.graph.node.code.entity.CodeExecutionConfig;
+import com.alibaba.cloud.ai.graph.node.code.entity.CodeExecutionResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalWorkerCodeExecutorTest {
+
+	@TempDir
+	Path tempDir;
+
+	private CodeExecutionConfig config;
+
+	private LocalWorkerCodeExecutor executor;
+
+	@BeforeEach
+	void setUp() {
+		config = new CodeExecutionConfig().setWorkDir(tempDir.toString()).setTimeout(30);
+		executor = new LocalWorkerCodeExecutor();
+	}
+
+	@AfterEach
+	void tearDown() {
+		executor.close();
+	}
+
+	@Test
+	void runsJavaTemplateInWarmWorker() throws Exception {
+		String code = """
+				public static Object main(Object[] inputs) {
+					Map<String, Object> response = new HashMap<>();
+					response.put("sum", (Integer) inputs[0] + (Integer) inputs[1]);
+					return response;
+				}
+				""";
+		Map<String, String> params = new LinkedHashMap<>();
+		params.put("a", "a");
+		params.put("b", "b");
+		NodeAction node = CodeExecutorNodeAction.builder()
+			.codeExecutor(executor)
+			.code(code)
+			.codeLanguage("java")
+			.config(config)
+			.params(params)
+			.build();
+
+		for (int i = 0; i < 3; i++) {
+			Map<String, Object> result = node.apply(new OverAllState(Map.of("a", i, "b", 40)));
+			assertThat(result).containsEntry("sum", 40 + i);
+		}
+	}
+
+	@Test
+	void reportsCompileAndRuntimeErrorsLikeTheJavaCommand() throws Exception {
+		CodeExecutionResult compileError = executor.executeCode("java", "class Main { void broken( }", config);
+		CodeExecutionResult runtimeError = executor.executeCode("java", """
+				public class Failing {
+				    public static void main(String[] args) {
+				        System.out.println("before");
+				        throw new IllegalStateException("boom");
+				    }
+				}""", config);
+		CodeExecutionResult success = executor.executeCode("java", """
+				class Main {
+				    public static void main(String[] args) {
+				        System.out.println("ok");
+				    }
+				}""", config);
+
+		assertThat(compileError.exitCode()).isEqualTo(1);
+		assertThat(compileError.logs()).contains("Main.java:1: error:");
+		assertThat(runtimeError.exitCode()).isEqualTo(1);
+		assertThat(runtimeError.logs())
+			.startsWith("Exception in thread \"main\" java.lang.IllegalStateException: boom");
+		assertThat(success).isEqualTo(new CodeExecutionResult(0, "ok"));
+	}
+
+	@Test
+	void timeoutKillsWorkerAndNextBlockStartsANewOne() throws Exception {
+		config.setTimeout(2);
+
+		CodeExecutionResult timedOut = executor.executeCode("python3", "while True:\n    pass\n", config);
+		CodeExecutionResult next = executor.executeCode("python3", "print('again')\n", config);
+
+		assertThat(timedOut.exitCode()).isEqualTo(LocalWorkerCodeExecutor.TIMEOUT_EXIT_CODE);
+		assertThat(next).isEqualTo(new CodeExecutionResult(0, "again"));
+	}
+
+	@Test
+	void pythonScriptsGetFreshGlobals() throws Exception {
+		CodeExecutionResult first = executor.executeCode("python3", "x = 1\nprint(x)\n", config);
+		CodeExecutionResult second = executor.executeCode("python3", "print('x' in globals())\n", config);
+		CodeExecutionResult failure = executor.executeCode("python3", "import sys\nsys.exit(3)\n", config);
+
+		assertThat(first).isEqualTo(new CodeExecutionResult(0, "1"));
+		assertThat(second).isEqualTo(new CodeExecutionResult(0, "False"));
+		assertThat(failure.exitCode()).isEqualTo(3);
+	}
+
+	@Test
+	void pythonScriptsDoNotSeeModulesOrBuiltinsOfPreviousScripts() throws Exception {
+		CodeExecutionResult patch = executor.executeCode("python3", """
+				import sys, types, builtins, colorsys
+				sys.modules['leaked'] = types.ModuleType('leaked')
+				sys.path.append('/leaked')
+				builtins.leaked = True
+				print('patched')
+				""", config);
+		CodeExecutionResult check = executor.executeCode("python3",
+				"""
+						import sys, builtins
+						print('leaked' in sys.modules, 'colorsys' in sys.modules, '/leaked' in sys.path, hasattr(builtins, 'leaked'))
+						""",
+				config);
+
+		assertThat(patch).isEqualTo(new CodeExecutionResult(0, "patched"));
+		assertThat(check).isEqualTo(new CodeExecutionResult(0, "False False False False"));
+	}
+
+	@Test
+	void pythonFileDescriptorOutputIsCapturedAndStdinIsEmpty() throws Exception {
+		CodeExecutionResult shell = executor.executeCode("python3", """
+				import os, sys
+				print('before', flush=True)
+				os.system('echo from-shell')
+				os.write(1, b'raw\\n')
+				print('stdin', repr(sys.stdin.read()))
+				""", config);
+		CodeExecutionResult next = executor.executeCode("python3", "print('next')\n", config);
+		CodeExecutionResult error = executor.executeCode("python3",
+				"import os\nos.system('echo oops >&2')\nraise SystemExit(2)\n", config);
+
+		assertThat(shell).isEqualTo(new CodeExecutionResult(0, "before\nfrom-shell\nraw\nstdin ''"));
+		assertThat(next).isEqualTo(new CodeExecutionResult(0, "next"));
+		assertThat(error).isEqualTo(new CodeExecutionResult(2, "oops"));
+	}
+
+	@Test
+	void prewarmedWorkersRunBlocksConcurrently() throws Exception {
+		executor.close();
+		executor = new LocalWorkerCodeExecutor(config, 2, "python3");
+
+		ExecutorService callers = Executors.newFixedThreadPool(2);
+		try {
+			long start = System.nanoTime();
+			List<Future<CodeExecutionResult>> results = callers.invokeAll(
+					List.of(() -> executor.executeCode("python3", "import time\ntime.sleep(1)\nprint('a')\n", config),
+							() -> executor.executeCode("python3", "import time\ntime.sleep(1)\nprint('b')\n", config)));
+			long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+			assertThat(results.get(0).get()).isEqualTo(new CodeExecutionResult(0, "a"));
+			assertThat(results.get(1).get()).isEqualTo(new CodeExecutionResult(0, "b"));
+			assertThat(elapsedMillis).isLessThan(1900);
+		}
+		finally {
+			callers.shutdownNow();
+		}
+	}
+
+}
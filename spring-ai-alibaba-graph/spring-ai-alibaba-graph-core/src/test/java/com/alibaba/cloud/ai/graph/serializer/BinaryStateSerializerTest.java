@@ -0,0 +1,202 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.serializer;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.checkpoint.Checkpoint;
+import com.alibaba.cloud.ai.graph.checkpoint.savers.FileSystemSaver;
+import com.alibaba.cloud.ai.graph.serializer.binary.BinaryCheckpointSerializer;
+import com.alibaba.cloud.ai.graph.serializer.binary.BinaryStateSerializer;
+import com.alibaba.cloud.ai.graph.serializer.plain_text.jackson.JacksonStateSerializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.document.Document;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BinaryStateSerializerTest {
+
+	private final BinaryStateSerializer serializer = new BinaryStateSerializer();
+
+	@Test
+	public void roundTripsNativeValues() throws Exception {
+		Map<String, Object> data = new LinkedHashMap<>();
+		data.put("string", "héllo 世界");
+		data.put("int", -42);
+		data.put("long", Long.MAX_VALUE);
+		data.put("double", 3.5d);
+		data.put("float", 1.25f);
+		data.put("bool", true);
+		data.put("bytes", new byte[] { 1, 2, 3 });
+		data.put("list", List.of(1, "two", List.of(3L)));
+		data.put("set", Set.of("a"));
+		data.put("map", Map.of("nested", Map.of("key", 1)));
+		data.put("enum", RoundingMode.UP);
+		data.put("serializable", LocalDate.of(2025, 1, 2));
+		data.put("none", null);
+
+		OverAllState state = serializer.readObject(serializer.writeObject(new OverAllState(data)));
+
+		assertThat(state.data()).containsOnlyKeys(data.keySet());
+		assertThat(state.data()).containsEntry("string", "héllo 世界")
+			.containsEntry("int", -42)
+			.containsEntry("long", Long.MAX_VALUE)
+			.containsEntry("double", 3.5d)
+			.containsEntry("float", 1.25f)
+			.containsEntry("bool", true)
+			.containsEntry("list", List.of(1, "two", List.of(3L)))
+			.containsEntry("set", Set.of("a"))
+			.containsEntry("map", Map.of("nested", Map.of("key", 1)))
+			.containsEntry("enum", RoundingMode.UP)
+			.containsEntry("serializable", LocalDate.of(2025, 1, 2));
+		assertThat((byte[]) state.data().get("bytes")).containsExactly(1, 2, 3);
+	}
+
+	@Test
+	public void roundTripsMessagesAndDocuments() throws Exception {
+		List<Message> messages = List.of(new SystemMessage("be brief"), new UserMessage("weather?"),
+				new AssistantMessage("", Map.of("finishReason", "TOOL_CALLS"),
+						List.of(new AssistantMessage.ToolCall("1", "function", "weather", "{\"city\":\"Hangzhou\"}"))),
+				new ToolResponseMessage(List.of(new ToolResponseMessage.ToolResponse("1", "weather", "sunny"))));
+		Document document = Document.builder().id("doc-1").text("text").metadata("source", "a.md").score(0.5).build();
+
+		OverAllState state = serializer.readObject(
+				serializer.writeObject(new OverAllState(Map.of("messages", messages, "docs", List.of(document)))));
+
+		assertThat(state.data().get("messages")).isEqualTo(messages);
+		Document restored = (Document) ((List<?>) state.data().get("docs")).get(0);
+		assertThat(restored.getId()).isEqualTo("doc-1");
+		assertThat(restored.getText()).isEqualTo("text");
+		assertThat(restored.getScore()).isEqualTo(0.5);
+		assertThat(restored.getMetadata()).containsEntry("source", "a.md");
+	}
+
+	@Test
+	public void usesRegisteredCustomTypes() throws Exception {
+		BinaryStateSerializer custom = new BinaryStateSerializer().registerType("point", Point.class,
+				point -> List.of(point.x(), point.y()),
+				value -> new Point((Integer) ((List<?>) value).get(0), (Integer) ((List<?>) value).get(1)));
+
+		OverAllState state = custom.readObject(custom.writeObject(new OverAllState(Map.of("p", new Point(1, 2)))));
+
+		assertThat(state.data()).containsEntry("p", new Point(1, 2));
+		assertThatThrownBy(() -> serializer.writeObject(new OverAllState(Map.of("p", new Point(1, 2)))))
+			.isInstanceOf(java.io.NotSerializableException.class);
+	}
+
+	@Test
+	public void rejectsUnknownFormatVersion() throws Exception {
+		byte[] bytes = serializer.writeObject(new OverAllState(Map.of("k", "v")));
+		bytes[1] = 99;
+
+		assertThatThrownBy(() -> serializer.readObject(bytes)).isInstanceOf(StreamCorruptedException.class)
+			.hasMessageContaining("version 99");
+	}
+
+	@Test
+	public void roundTripsCheckpointLists() throws Exception {
+		BinaryCheckpointSerializer checkpointSerializer = new BinaryCheckpointSerializer(serializer);
+		Checkpoint first = Checkpoint.builder()
+			.nodeId("agent")
+			.nextNodeId("tool")
+			.state(Map.of("messages", List.of(new UserMessage("hi"))))
+			.build();
+		Checkpoint second = Checkpoint.builder().nodeId("tool").nextNodeId("__END__").state(Map.of("n", 1)).build();
+
+		List<Checkpoint> restored = checkpointSerializer
+			.readCheckpoints(checkpointSerializer.writeCheckpoints(List.of(first, second)));
+
+		assertThat(restored).extracting(Checkpoint::getId).containsExactly(first.getId(), second.getId());
+		assertThat(restored.get(0).getNodeId()).isEqualTo("agent");
+		assertThat(restored.get(0).getNextNodeId()).isEqualTo("tool");
+		assertThat(restored.get(0).getState()).isEqualTo(first.getState());
+		assertThat(checkpointSerializer.cloneObject(second).getState()).isEqualTo(Map.of("n", 1));
+	}
+
+	@Test
+	public void fileSystemSaverUsesBinaryFormat(@TempDir Path folder) throws Exception {
+		RunnableConfig config = RunnableConfig.builder().threadId("t1").build();
+		Checkpoint checkpoint = Checkpoint.builder()
+			.nodeId("agent")
+			.nextNodeId("tool")
+			.state(Map.of("messages", List.of(new UserMessage("hi"), new AssistantMessage("hello"))))
+			.build();
+		new FileSystemSaver(folder, serializer).put(config, checkpoint);
+
+		Checkpoint restored = new ReloadingSaver(folder, serializer).load(config).getFirst();
+
+		assertThat(restored.getId()).isEqualTo(checkpoint.getId());
+		assertThat(restored.getNodeId()).isEqualTo("agent");
+		assertThat(restored.getNextNodeId()).isEqualTo("tool");
+		assertThat(restored.getState()).isEqualTo(checkpoint.getState());
+	}
+
+	@Test
+	public void isSmallerThanJavaAndJacksonSerialization() throws Exception {
+		OverAllState state = new OverAllState(StateSerializerBenchmark.plainState(50));
+		JacksonStateSerializer jackson = new JacksonStateSerializer(OverAllState::new) {
+		};
+		ByteArrayOutputStream javaBytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(javaBytes)) {
+			out.writeObject(new HashMap<>(state.data()));
+		}
+
+		int binarySize = serializer.writeObject(state).length;
+
+		assertThat(binarySize).isLessThan(javaBytes.size()).isLessThan(jackson.writeObject(state).length);
+	}
+
+	enum RoundingMode {
+
+		UP, DOWN
+
+	}
+
+	record Point(int x, int y) {
+	}
+
+	static class ReloadingSaver extends FileSystemSaver {
+
+		ReloadingSaver(Path targetFolder, BinaryStateSerializer stateSerializer) {
+			super(targetFolder, stateSerializer);
+		}
+
+		LinkedList<Checkpoint> load(RunnableConfig config) {
+			return getCheckpoints(config);
+		}
+
+	}
+
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.serializer;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.serializer.binary.BinaryStateSerializer;
+import com.alibaba.cloud.ai.graph.serializer.plain_text.jackson.JacksonStateSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of {@link BinaryStateSerializer} against Java object serialization and
+ * the Jackson state serializer, writing and reading a state of {@code entries} string,
+ * number and list values. Run {@link #main(String[])} from the IDE; it is not part of the
+ * unit test suite.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class StateSerializerBenchmark {
+
+	@Param({ "10", "200" })
+	public int entries;
+
+	private OverAllState state;
+
+	private BinaryStateSerializer binary;
+
+	private JacksonStateSerializer jackson;
+
+	private byte[] binaryBytes;
+
+	private byte[] javaBytes;
+
+	private byte[] jacksonBytes;
+
+	@Setup
+	public void setUp() throws IOException {
+		this.state = new OverAllState(plainState(this.entries));
+		this.binary = new BinaryStateSerializer();
+		this.jackson = new JacksonStateSerializer(OverAllState::new) {
+		};
+		this.binaryBytes = this.binary.writeObject(this.state);
+		this.javaBytes = writeJava(this.state);
+		this.jacksonBytes = this.jackson.writeObject(this.state);
+		System.out.printf("%nstate size with %d entries: binary=%d java=%d jackson=%d bytes%n", this.entries,
+				this.binaryBytes.length, this.javaBytes.length, this.jacksonBytes.length);
+	}
+
+	@Benchmark
+	public byte[] binaryWrite() throws IOException {
+		return this.binary.writeObject(this.state);
+	}
+
+	@Benchmark
+	public OverAllState binaryRead() throws IOException, ClassNotFoundException {
+		return this.binary.readObject(this.binaryBytes);
+	}
+
+	@Benchmark
+	public byte[] javaWrite() throws IOException {
+		return writeJava(this.state);
+	}
+
+	@Benchmark
+	public Object javaRead() throws IOException, ClassNotFoundException {
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(this.javaBytes))) {
+			return in.readObject();
+		}
+	}
+
+	@Benchmark
+	public byte[] jacksonWrite() throws IOException {
+		return this.jackson.writeObject(this.state);
+	}
+
+	@Benchmark
+	public OverAllState jacksonRead() throws IOException, ClassNotFoundException {
+		return this.jackson.readObject(this.jacksonBytes);
+	}
+
+	/**
+	 * A state that all three serializers can round trip: strings, numbers and nested
+	 * lists and maps.
+	 */
+	static Map<String, Object> plainState(int entries) {
+		Map<String, Object> data = new LinkedHashMap<>();
+		for (int i = 0; i < entries; i++) {
+			switch (i % 4) {
+				case 0 -> data.put("query_" + i, "What is the weather like in Hangzhou today, step " + i + "?");
+				case 1 -> data.put("count_" + i, i);
+				case 2 -> data.put("scores_" + i, List.of(0.25d * i, 0.5d, 0.75d));
+				default -> {
+					List<Object> steps = new ArrayList<>();
+					steps.add(Map.of("node", "agent", "attempt", i));
+					steps.add(Map.of("node", "tool", "attempt", i + 1));
+					data.put("steps_" + i, steps);
+				}
+			}
+		}
+		return data;
+	}
+
+	private static byte[] writeJava(OverAllState state) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(new HashMap<>(state.data()));
+		}
+		return bytes.toByteArray();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(StateSerializerBenchmark.class.getSimpleName()).build()).run();
+	}
+
+}
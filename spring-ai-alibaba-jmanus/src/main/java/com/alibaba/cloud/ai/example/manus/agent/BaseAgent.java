@@ -65,6 +65,13 @@ public abstract class BaseAgent {
 
 	private String planId = null;
 
+	/**
+	 * 当前执行的步骤序号，同一计划的步骤可能并行执行，用它区分各自的对话记忆
+	 */
+	private Integer stepIndex;
+
+	private Long agentExecutionId;
+
 	private AgentState state = AgentState.NOT_STARTED;
 
 	protected LlmService llmService;
@@ -197,11 +204,10 @@ public abstract class BaseAgent {
 		// Create agent execution record
 		AgentExecutionRecord agentRecord = new AgentExecutionRecord(getPlanId(), getName(), getDescription());
 		agentRecord.setMaxSteps(maxSteps);
+		agentRecord.setStepIndex(stepIndex);
 		agentRecord.setStatus(state.toString());
 		// Record execution in recorder if we have a plan ID
-		if (planId != null && planExecutionRecorder != null) {
-			planExecutionRecorder.recordAgentExecution(planId, agentRecord);
-		}
+		agentExecutionId = recordAgentExecution(agentRecord);
 		List<String> results = new ArrayList<>();
 		try {
 			state = AgentState.IN_PROGRESS;
@@ -226,6 +232,7 @@ public abstract class BaseAgent {
 
 				// Update agent record after each step
 				agentRecord.setCurrentStep(currentStep);
+				recordAgentExecution(agentRecord);
 			}
 
 			if (currentStep >= maxSteps) {
@@ -258,11 +265,19 @@ public abstract class BaseAgent {
 			state = AgentState.COMPLETED; // Reset state after execution
 
 			agentRecord.setStatus(state.toString());
-			llmService.clearAgentMemory(planId);
+			recordAgentExecution(agentRecord);
+			llmService.clearAgentMemory(getMemoryId());
 		}
 		return results.isEmpty() ? "" : results.get(results.size() - 1);
 	}
 
+	private Long recordAgentExecution(AgentExecutionRecord agentRecord) {
+		if (planId != null && planExecutionRecorder != null) {
+			return planExecutionRecorder.recordAgentExecution(planId, agentRecord);
+		}
+		return agentRecord.getId();
+	}
+
 	protected abstract AgentExecResult step();
 
 	private void handleStuckState(AgentExecutionRecord agentRecord) {
@@ -291,7 +306,7 @@ public abstract class BaseAgent {
 	 */
 	protected boolean isStuck() {
 		// 目前判断是如果三次没有调用工具就认为是卡住了，就退出当前step。
-		List<Message> memoryEntries = llmService.getAgentMemory().get(getPlanId());
+		List<Message> memoryEntries = llmService.getAgentMemory().get(getMemoryId());
 		int zeroToolCallCount = 0;
 		for (Message msg : memoryEntries) {
 			if (msg instanceof AssistantMessage) {
@@ -320,6 +335,28 @@ public abstract class BaseAgent {
 		return state;
 	}
 
+	public Integer getStepIndex() {
+		return stepIndex;
+	}
+
+	public void setStepIndex(Integer stepIndex) {
+		this.stepIndex = stepIndex;
+	}
+
+	/**
+	 * 当前这次运行的智能体执行记录ID，run() 开始时生成
+	 */
+	protected Long getAgentExecutionId() {
+		return agentExecutionId;
+	}
+
+	/**
+	 * 智能体对话记忆的ID，每个步骤使用独立的记忆，并行执行的步骤互不干扰
+	 */
+	protected String getMemoryId() {
+		return stepIndex == null ? planId : planId + "-step-" + stepIndex;
+	}
+
 	/**
 	 * 获取智能体的数据上下文
 	 *
@@ -198,4 +198,149 @@ public class ManusProperties {
 		this.userInputTimeout = userInputTimeout;
 	}
 
+	@ConfigProperty(group = "manus", subGroup = "browser", key = "poolEnabled", path = "manus.browser.poolEnabled",
+			description = "复用浏览器池，每个计划使用独立的浏览器上下文", defaultValue = "true", inputType = ConfigInputType.CHECKBOX,
+			options = { @ConfigOption(value = "true", label = "是"), @ConfigOption(value = "false", label = "否") })
+	private volatile Boolean browserPoolEnabled;
+
+	public Boolean getBrowserPoolEnabled() {
+		String configPath = "manus.browser.poolEnabled";
+		String value = configService.getConfigValue(configPath);
+		if (value != null) {
+			browserPoolEnabled = Boolean.valueOf(value);
+		}
+		if (browserPoolEnabled == null) {
+			browserPoolEnabled = true;
+		}
+		return browserPoolEnabled;
+	}
+
+	public void setBrowserPoolEnabled(Boolean browserPoolEnabled) {
+		this.browserPoolEnabled = browserPoolEnabled;
+	}
+
+	@ConfigProperty(group = "manus", subGroup = "browser", key = "poolMaxSize", path = "manus.browser.poolMaxSize",
+			description = "浏览器池最多同时运行的浏览器数量", defaultValue = "4", inputType = ConfigInputType.NUMBER)
+	private volatile Integer browserPoolMaxSize;
+
+	public Integer getBrowserPoolMaxSize() {
+		String configPath = "manus.browser.poolMaxSize";
+		String value = configService.getConfigValue(configPath);
+		if (value != null) {
+			browserPoolMaxSize = Integer.valueOf(value);
+		}
+		if (browserPoolMaxSize == null) {
+			browserPoolMaxSize = 4;
+		}
+		return browserPoolMaxSize;
+	}
+
+	public void setBrowserPoolMaxSize(Integer browserPoolMaxSize) {
+		this.browserPoolMaxSize = browserPoolMaxSize;
+	}
+
+	@ConfigProperty(group = "manus", subGroup = "browser", key = "poolMaxUses", path = "manus.browser.poolMaxUses",
+			description = "浏览器创建多少个上下文后重启", defaultValue = "50", inputType = ConfigInputType.NUMBER)
+	private volatile Integer browserPoolMaxUses;
+
+	public Integer getBrowserPoolMaxUses() {
+		String configPath = "manus.browser.poolMaxUses";
+		String value = configService.getConfigValue(configPath);
+		if (value != null) {
+			browserPoolMaxUses = Integer.valueOf(value);
+		}
+		if (browserPoolMaxUses == null) {
+			browserPoolMaxUses = 50;
+		}
+		return browserPoolMaxUses;
+	}
+
+	public void setBrowserPoolMaxUses(Integer browserPoolMaxUses) {
+		this.browserPoolMaxUses = browserPoolMaxUses;
+	}
+
+	@ConfigProperty(group = "manus", subGroup = "browser", key = "poolIdleTimeout",
+			path = "manus.browser.poolIdleTimeout", description = "空闲浏览器关闭前的等待时间(秒)", defaultValue = "300",
+			inputType = ConfigInputType.NUMBER)
+	private volatile Integer browserPoolIdleTimeout;
+
+	public Integer getBrowserPoolIdleTimeout() {
+		String configPath = "manus.browser.poolIdleTimeout";
+		String value = configService.getConfigValue(configPath);
+		if (value != null) {
+			browserPoolIdleTimeout = Integer.valueOf(value);
+		}
+		if (browserPoolIdleTimeout == null) {
+			browserPoolIdleTimeout = 300;
+		}
+		return browserPoolIdleTimeout;
+	}
+
+	public void setBrowserPoolIdleTimeout(Integer browserPoolIdleTimeout) {
+		this.browserPoolIdleTimeout = browserPoolIdleTimeout;
+	}
+
+	@ConfigProperty(group = "manus", subGroup = "agent", key = "planRecordMaxRetained",
+			path = "manus.agent.planRecordMaxRetained", description = "内存中保留的计划执行记录数量上限", defaultValue = "100",
+			inputType = ConfigInputType.NUMBER)
+	private volatile Integer planRecordMaxRetained;
+
+	public Integer getPlanRecordMaxRetained() {
+		String configPath = "manus.agent.planRecordMaxRetained";
+		String value = configService.getConfigValue(configPath);
+		if (value != null) {
+			planRecordMaxRetained = Integer.valueOf(value);
+		}
+		if (planRecordMaxRetained == null) {
+			planRecordMaxRetained = 100;
+		}
+		return planRecordMaxRetained;
+	}
+
+	public void setPlanRecordMaxRetained(Integer planRecordMaxRetained) {
+		this.planRecordMaxRetained = planRecordMaxRetained;
+	}
+
+	@ConfigProperty(group = "manus", subGroup = "agent", key = "planRecordRetention",
+			path = "manus.agent.planRecordRetention", description = "已完成的计划执行记录在内存中保留的时间(分钟)", defaultValue = "30",
+			inputType = ConfigInputType.NUMBER)
+	private volatile Integer planRecordRetention;
+
+	public Integer getPlanRecordRetention() {
+		String configPath = "manus.agent.planRecordRetention";
+		String value = configService.getConfigValue(configPath);
+		if (value != null) {
+			planRecordRetention = Integer.valueOf(value);
+		}
+		if (planRecordRetention == null) {
+			planRecordRetention = 30;
+		}
+		return planRecordRetention;
+	}
+
+	public void setPlanRecordRetention(Integer planRecordRetention) {
+		this.planRecordRetention = planRecordRetention;
+	}
+
+	@ConfigProperty(group = "manus", subGroup = "agent", key = "maxParallelSteps",
+			path = "manus.agent.maxParallelSteps", description = "计划中互不依赖的步骤最多同时执行的数量", defaultValue = "3",
+			inputType = ConfigInputType.NUMBER)
+	private volatile Integer maxParallelSteps;
+
+	public Integer getMaxParallelSteps() {
+		String configPath = "manus.agent.maxParallelSteps";
+		String value = configService.getConfigValue(configPath);
+		if (value != null) {
+			maxParallelSteps = Integer.valueOf(value);
+		}
+		if (maxParallelSteps == null) {
+			maxParallelSteps = 3;
+		}
+		return maxParallelSteps;
+	}
+
+	public void setMaxParallelSteps(Integer maxParallelSteps) {
+		this.maxParallelSteps = maxParallelSteps;
+	}
+
 }
@@ -53,7 +53,6 @@ import com.alibaba.cloud.ai.example.manus.llm.LlmService;
 import com.alibaba.cloud.ai.example.manus.planning.PlanningFactory.ToolCallBackContext;
 import com.alibaba.cloud.ai.example.manus.planning.executor.PlanExecutor;
 import com.alibaba.cloud.ai.example.manus.recorder.PlanExecutionRecorder;
-import com.alibaba.cloud.ai.example.manus.recorder.entity.AgentExecutionRecord;
 import com.alibaba.cloud.ai.example.manus.recorder.entity.ThinkActRecord;
 import com.alibaba.cloud.ai.example.manus.tool.TerminateTool;
 import com.alibaba.cloud.ai.example.manus.tool.ToolCallBiFunctionDef;
@@ -118,10 +117,9 @@ public class DynamicAgent extends ReActAgent {
 	protected boolean think() {
 		collectAndSetEnvDataForTools();
 
-		AgentExecutionRecord planExecutionRecord = planExecutionRecorder.getCurrentAgentExecutionRecord(getPlanId());
-		thinkActRecord = new ThinkActRecord(planExecutionRecord.getId());
+		thinkActRecord = new ThinkActRecord(getAgentExecutionId());
 		thinkActRecord.setActStartTime(LocalDateTime.now());
-		planExecutionRecorder.recordThinkActExecution(getPlanId(), planExecutionRecord.getId(), thinkActRecord);
+		planExecutionRecorder.recordThinkActExecution(getPlanId(), getAgentExecutionId(), thinkActRecord);
 
 		try {
 			return executeWithRetry(3);
@@ -131,6 +129,11 @@ public class DynamicAgent extends ReActAgent {
 			thinkActRecord.recordError(e.getMessage());
 			return false;
 		}
+		finally {
+			// 思考结束后更新记录，推送给订阅者
+			planExecutionRecorder.recordThinkActExecution(getPlanId(), thinkActRecord.getParentExecutionId(),
+					thinkActRecord);
+		}
 	}
 
 	private boolean executeWithRetry(int maxRetries) throws Exception {
@@ -148,7 +151,7 @@ public class DynamicAgent extends ReActAgent {
 			List<Message> messages = new ArrayList<>(Collections.singletonList(systemMessage));
 			// Add history message.
 			ChatMemory chatMemory = llmService.getAgentMemory();
-			List<Message> historyMem = chatMemory.get(getPlanId());
+			List<Message> historyMem = chatMemory.get(getMemoryId());
 			messages.addAll(historyMem);
 			messages.add(currentStepEnvMessage);
 			// Call the LLM
@@ -214,6 +217,8 @@ public class DynamicAgent extends ReActAgent {
 					if (formInputTool.getInputState() == FormInputTool.InputState.AWAITING_USER_INPUT) {
 						log.info("FormInputTool is awaiting user input for planId: {}", getPlanId());
 						userInputService.storeFormInputTool(getPlanId(), formInputTool);
+						planExecutionRecorder.recordThinkActExecution(getPlanId(),
+								thinkActRecord.getParentExecutionId(), thinkActRecord);
 						// Wait for user input or timeout
 						waitForUserInputOrTimeout(formInputTool);
 
@@ -266,6 +271,10 @@ public class DynamicAgent extends ReActAgent {
 			processMemory(toolExecutionResult); // Process memory even on error
 			return new AgentExecResult(e.getMessage(), AgentState.FAILED);
 		}
+		finally {
+			planExecutionRecorder.recordThinkActExecution(getPlanId(), thinkActRecord.getParentExecutionId(),
+					thinkActRecord);
+		}
 	}
 
 	private void processUserInputToMemory(UserMessage userMessage) {
@@ -276,7 +285,7 @@ public class DynamicAgent extends ReActAgent {
 			if (!StringUtils.isBlank(userInput)) {
 				// 将用户输入添加到内存中
 
-				llmService.getAgentMemory().add(getPlanId(), userMessage);
+				llmService.getAgentMemory().add(getMemoryId(), userMessage);
 
 			}
 		}
@@ -292,7 +301,7 @@ public class DynamicAgent extends ReActAgent {
 			return;
 		}
 		// clear current plan memory
-		llmService.getAgentMemory().clear(getPlanId());
+		llmService.getAgentMemory().clear(getMemoryId());
 		for (Message message : messages) {
 			// exclude all system message
 			if (message instanceof SystemMessage) {
@@ -304,7 +313,7 @@ public class DynamicAgent extends ReActAgent {
 				continue;
 			}
 			// only keep assistant message and tool_call message
-			llmService.getAgentMemory().add(getPlanId(), message);
+			llmService.getAgentMemory().add(getMemoryId(), message);
 		}
 	}
 
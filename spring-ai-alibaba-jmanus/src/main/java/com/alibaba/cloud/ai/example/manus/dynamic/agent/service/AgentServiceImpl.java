@@ -141,22 +141,17 @@ public class AgentServiceImpl implements AgentService {
 
 		String uuid = UUID.randomUUID().toString();
 
-		try {
-			Map<String, ToolCallBackContext> toolcallContext = planningFactory.toolCallbackMap(uuid);
-			return toolcallContext.entrySet().stream().map(entry -> {
-				Tool tool = new Tool();
-				tool.setKey(entry.getKey());
-				tool.setName(entry.getKey()); // You might want to provide a more friendly
-				// name
-				tool.setDescription(entry.getValue().getFunctionInstance().getDescription());
-				tool.setEnabled(true);
-				tool.setServiceGroup(entry.getValue().getFunctionInstance().getServiceGroup());
-				return tool;
-			}).collect(Collectors.toList());
-		}
-		finally {
-			mcpService.close(uuid);
-		}
+		Map<String, ToolCallBackContext> toolcallContext = planningFactory.toolCallbackMap(uuid);
+		return toolcallContext.entrySet().stream().map(entry -> {
+			Tool tool = new Tool();
+			tool.setKey(entry.getKey());
+			tool.setName(entry.getKey()); // You might want to provide a more friendly
+			// name
+			tool.setDescription(entry.getValue().getFunctionInstance().getDescription());
+			tool.setEnabled(true);
+			tool.setServiceGroup(entry.getValue().getFunctionInstance().getServiceGroup());
+			return tool;
+		}).collect(Collectors.toList());
 	}
 
 	private AgentConfig mapToAgentConfig(DynamicAgentEntity entity) {
@@ -24,10 +24,6 @@ import com.alibaba.cloud.ai.example.manus.dynamic.mcp.model.vo.McpServiceEntity;
 import com.alibaba.cloud.ai.example.manus.dynamic.mcp.repository.McpConfigRepository;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
-import com.google.common.cache.RemovalListener;
 import io.modelcontextprotocol.client.McpAsyncClient;
 import io.modelcontextprotocol.client.McpClient;
 import io.modelcontextprotocol.client.transport.ServerParameters;
@@ -35,6 +31,8 @@ import io.modelcontextprotocol.client.transport.StdioClientTransport;
 import io.modelcontextprotocol.client.transport.WebFluxSseClientTransport;
 import io.modelcontextprotocol.spec.McpClientTransport;
 import io.modelcontextprotocol.spec.McpSchema;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.mcp.AsyncMcpToolCallbackProvider;
@@ -45,113 +43,242 @@ import org.springframework.web.reactive.function.client.WebClient;
 import java.io.IOException;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * 管理所有计划共享的MCP连接池。启动时和配置变更后并行连接所有服务器，后台定期检查健康状态并重连失败的服务器，计划只会拿到健康服务器的工具回调。
+ */
 @Component
 public class McpService {
 
 	private static final Logger logger = LoggerFactory.getLogger(McpService.class);
 
+	/**
+	 * 首次连接所有服务器时，获取工具回调最多等待的时间
+	 */
+	private static final Duration INITIAL_CONNECT_WAIT = Duration.ofSeconds(30);
+
+	/**
+	 * 单个服务器建立连接最多等待的时间，超时的服务器由下一次刷新重连，不会拖慢其他服务器
+	 */
+	private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(20);
+
+	private static final Duration HEALTH_CHECK_TIMEOUT = Duration.ofSeconds(10);
+
+	/**
+	 * 健康检查和断线重连的间隔
+	 */
+	private static final long REFRESH_INTERVAL_SECONDS = 30;
+
 	@Autowired
 	private McpConfigRepository mcpConfigRepository;
 
-	private final LoadingCache<String, Map<String, McpServiceEntity>> toolCallbackMapCache = CacheBuilder.newBuilder()
-		.expireAfterAccess(10, TimeUnit.MINUTES)
-		.removalListener((RemovalListener<String, Map<String, McpServiceEntity>>) notification -> {
-			Map<String, McpServiceEntity> mcpServiceEntityMap = notification.getValue();
-			if (mcpServiceEntityMap == null) {
-				return;
-			}
-			for (McpServiceEntity mcpServiceEntity : mcpServiceEntityMap.values()) {
-				try {
-					mcpServiceEntity.getMcpAsyncClient().close();
-				}
-				catch (Throwable t) {
-					logger.error("Failed to close MCP client", t);
-				}
-			}
-		})
-		.build(new CacheLoader<>() {
-			@Override
-			public Map<String, McpServiceEntity> load(String key) throws Exception {
-				return loadMcpServices(mcpConfigRepository.findAll());
-			}
-		});
+	/**
+	 * 所有计划共享的MCP连接，按服务名索引，连接失败的服务 entity 为 null
+	 */
+	private final Map<String, McpConnection> connections = new ConcurrentHashMap<>();
+
+	/**
+	 * 正在连接的服务器，上一次连接未结束前不会再次连接同一服务器
+	 */
+	private final Map<String, CompletableFuture<Void>> connecting = new ConcurrentHashMap<>();
 
-	private Map<String, McpServiceEntity> loadMcpServices(List<McpConfigEntity> mcpConfigEntities) throws IOException {
-		Map<String, McpServiceEntity> toolCallbackMap = new ConcurrentHashMap<>();
+	private final CompletableFuture<Void> initialConnections = new CompletableFuture<>();
 
-		if (mcpConfigEntities == null || mcpConfigEntities.isEmpty()) {
-			logger.info("No MCP server configurations found");
-			return toolCallbackMap;
+	/**
+	 * 单线程执行刷新，保证同一时间只有一次刷新在修改连接
+	 */
+	private final ScheduledExecutorService refreshExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread thread = new Thread(r, "mcp-connection-refresh");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final ExecutorService connectExecutor = Executors.newCachedThreadPool(new ThreadFactory() {
+
+		private final AtomicInteger threadCount = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, "mcp-connect-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
 		}
+	});
 
-		logger.info("Loading {} MCP server configurations", mcpConfigEntities.size());
+	private record McpConnection(String configFingerprint, McpServiceEntity entity) {
+	}
 
-		for (McpConfigEntity mcpConfigEntity : mcpConfigEntities) {
-			String serverName = mcpConfigEntity.getMcpServerName();
+	@PostConstruct
+	public void startConnectionPool() {
+		refreshExecutor.scheduleWithFixedDelay(this::refreshConnections, 0, REFRESH_INTERVAL_SECONDS, TimeUnit.SECONDS);
+	}
 
-			try {
-				// 验证基础配置
-				if (mcpConfigEntity.getConnectionType() == null) {
-					logger.error("Connection type is required for server: {}", serverName);
-					throw new IOException("Connection type is required for server: " + serverName);
-				}
+	@PreDestroy
+	public void shutdownConnectionPool() {
+		refreshExecutor.shutdownNow();
+		connectExecutor.shutdownNow();
+		for (McpConnection connection : connections.values()) {
+			closeClient(connection.entity());
+		}
+		connections.clear();
+	}
 
+	/**
+	 * 按数据库中的配置刷新连接：并行连接新增、变更和断开的服务器，检查已连接服务器的健康状态，关闭已删除的服务器。每个服务器连接成功后立即可用，不必等待其他较慢的服务器。
+	 */
+	private void refreshConnections() {
+		try {
+			Map<String, McpConfigEntity> configured = new HashMap<>();
+			for (McpConfigEntity mcpConfigEntity : mcpConfigRepository.findAll()) {
+				String serverName = mcpConfigEntity.getMcpServerName();
 				if (serverName == null || serverName.trim().isEmpty()) {
 					logger.error("Server name is required");
-					throw new IOException("Server name is required");
+					continue;
 				}
+				configured.put(serverName, mcpConfigEntity);
+			}
 
-				McpConfigType type = mcpConfigEntity.getConnectionType();
-				logger.debug("Processing MCP server: {} with type: {}", serverName, type);
-
-				McpServiceEntity mcpServiceEntity = null;
-
-				switch (type) {
-					case SSE -> {
-						mcpServiceEntity = createSseConnection(mcpConfigEntity, serverName);
-					}
-					case STUDIO -> {
-						mcpServiceEntity = createStudioConnection(mcpConfigEntity, serverName);
-					}
-					case STREAMING -> {
-						logger.warn("STREAMING connection type is not fully implemented yet for server: {}",
-								serverName);
-						throw new UnsupportedOperationException(
-								"STREAMING connection type is not supported yet for server: " + serverName);
-					}
-					default -> {
-						logger.error("Unsupported connection type: {} for server: {}", type, serverName);
-						throw new IOException("Unsupported connection type: " + type + " for server: " + serverName);
-					}
+			for (String serverName : new ArrayList<>(connections.keySet())) {
+				if (!configured.containsKey(serverName)) {
+					McpConnection removed = connections.remove(serverName);
+					closeClient(removed.entity());
+					logger.info("Closed MCP server: {}", serverName);
 				}
+			}
 
-				if (mcpServiceEntity != null) {
-					toolCallbackMap.put(serverName, mcpServiceEntity);
-					logger.info("Successfully loaded MCP server: {} with type: {}", serverName, type);
-				}
-				else {
-					logger.warn("Failed to create MCP service entity for server: {}", serverName);
+			List<CompletableFuture<Void>> refreshes = new ArrayList<>();
+			for (McpConfigEntity mcpConfigEntity : configured.values()) {
+				String serverName = mcpConfigEntity.getMcpServerName();
+				if (connecting.containsKey(serverName)) {
+					logger.debug("MCP server {} is still connecting, skipping this refresh", serverName);
+					continue;
 				}
+				McpConnection current = connections.get(serverName);
+				CompletableFuture<Void> refresh = CompletableFuture
+					.supplyAsync(() -> refreshServer(mcpConfigEntity, current), connectExecutor)
+					.thenAccept(connection -> swapConnection(serverName, connection));
+				connecting.put(serverName, refresh);
+				refresh.whenComplete((result, error) -> connecting.remove(serverName, refresh));
+				refreshes.add(refresh);
+			}
+			try {
+				// 每个服务器的连接都有超时，这里只是兜底，不会因为一个服务器阻塞整次刷新
+				CompletableFuture.allOf(refreshes.toArray(new CompletableFuture[0]))
+					.get(CONNECT_TIMEOUT.plus(HEALTH_CHECK_TIMEOUT).toMillis(), TimeUnit.MILLISECONDS);
+			}
+			catch (TimeoutException e) {
+				logger.warn("Some MCP servers are still connecting, they will be available once connected");
+			}
+
+			long healthy = connections.values().stream().filter(connection -> connection.entity() != null).count();
+			logger.debug("{} out of {} MCP servers are connected", healthy, configured.size());
+		}
+		catch (Throwable t) {
+			logger.error("Failed to refresh MCP connections", t);
+		}
+		finally {
+			initialConnections.complete(null);
+		}
+	}
+
+	/**
+	 * 先放入新连接再关闭旧连接，计划不会拿到已关闭的客户端
+	 */
+	private void swapConnection(String serverName, McpConnection connection) {
+		McpConnection previous = connections.put(serverName, connection);
+		if (previous != null && previous.entity() != connection.entity()) {
+			closeClient(previous.entity());
+		}
+	}
 
+	/**
+	 * 返回服务器的最新连接，旧连接由 {@link #swapConnection} 在替换后关闭
+	 */
+	private McpConnection refreshServer(McpConfigEntity mcpConfigEntity, McpConnection current) {
+		String serverName = mcpConfigEntity.getMcpServerName();
+		String fingerprint = mcpConfigEntity.getConnectionType() + ":" + mcpConfigEntity.getConnectionConfig();
+		if (current != null && current.entity() != null && current.configFingerprint().equals(fingerprint)) {
+			if (isHealthy(current.entity())) {
+				return current;
 			}
-			catch (Exception e) {
-				logger.error("Failed to load MCP server configuration for: {}, error: {}", serverName, e.getMessage(),
-						e);
-				// 根据需求决定是否继续处理其他服务器还是抛出异常
-				// 这里选择继续处理其他服务器，但记录错误
-				// 如果需要严格模式，可以取消注释下面的行
-				// throw new IOException("Failed to load MCP server: " + serverName, e);
+			logger.warn("MCP server {} failed the health check, reconnecting", serverName);
+		}
+
+		try {
+			McpServiceEntity mcpServiceEntity = loadMcpService(mcpConfigEntity);
+			logger.info("Successfully loaded MCP server: {} with type: {}", serverName,
+					mcpConfigEntity.getConnectionType());
+			return new McpConnection(fingerprint, mcpServiceEntity);
+		}
+		catch (Exception e) {
+			if (current == null) {
+				logger.error("Failed to load MCP server configuration for: {}, will retry in {}s, error: {}",
+						serverName, REFRESH_INTERVAL_SECONDS, e.getMessage(), e);
 			}
+			else {
+				logger.warn("Failed to reconnect MCP server: {}, error: {}", serverName, e.getMessage());
+			}
+			return new McpConnection(fingerprint, null);
+		}
+	}
+
+	private boolean isHealthy(McpServiceEntity mcpServiceEntity) {
+		try {
+			mcpServiceEntity.getMcpAsyncClient().ping().block(HEALTH_CHECK_TIMEOUT);
+			return true;
 		}
+		catch (Exception e) {
+			return false;
+		}
+	}
 
-		logger.info("Successfully loaded {} out of {} MCP servers", toolCallbackMap.size(), mcpConfigEntities.size());
-		return toolCallbackMap;
+	private void closeClient(McpServiceEntity mcpServiceEntity) {
+		if (mcpServiceEntity == null) {
+			return;
+		}
+		try {
+			mcpServiceEntity.getMcpAsyncClient().close();
+		}
+		catch (Throwable t) {
+			logger.error("Failed to close MCP client", t);
+		}
+	}
+
+	private McpServiceEntity loadMcpService(McpConfigEntity mcpConfigEntity) throws IOException {
+		String serverName = mcpConfigEntity.getMcpServerName();
+
+		// 验证基础配置
+		if (mcpConfigEntity.getConnectionType() == null) {
+			logger.error("Connection type is required for server: {}", serverName);
+			throw new IOException("Connection type is required for server: " + serverName);
+		}
+
+		McpConfigType type = mcpConfigEntity.getConnectionType();
+		logger.debug("Processing MCP server: {} with type: {}", serverName, type);
+
+		return switch (type) {
+			case SSE -> createSseConnection(mcpConfigEntity, serverName);
+			case STUDIO -> createStudioConnection(mcpConfigEntity, serverName);
+			case STREAMING -> {
+				logger.warn("STREAMING connection type is not fully implemented yet for server: {}", serverName);
+				throw new UnsupportedOperationException(
+						"STREAMING connection type is not supported yet for server: " + serverName);
+			}
+		};
 	}
 
 	private McpServiceEntity createSseConnection(McpConfigEntity mcpConfigEntity, String serverName)
@@ -276,54 +403,33 @@ public class McpService {
 
 	private McpServiceEntity configureMcpTransport(String mcpServerName, McpClientTransport transport)
 			throws IOException {
-		if (transport != null) {
-			McpAsyncClient mcpAsyncClient = McpClient.async(transport)
-				.clientInfo(new McpSchema.Implementation(mcpServerName, "1.0.0"))
-				.build();
-
-			// 重试机制：最多重试3次
-			int maxRetries = 3;
-			Exception lastException = null;
-
-			for (int attempt = 1; attempt <= maxRetries; attempt++) {
-				try {
-					logger.debug("Attempting to initialize MCP transport for: {} (attempt {}/{})", mcpServerName,
-							attempt, maxRetries);
-					mcpAsyncClient.initialize().block(Duration.ofMinutes(2));
-					logger.info("MCP transport configured successfully for: {} (attempt {})", mcpServerName, attempt);
-
-					AsyncMcpToolCallbackProvider callbackProvider = new AsyncMcpToolCallbackProvider(mcpAsyncClient);
-					return new McpServiceEntity(mcpAsyncClient, callbackProvider, mcpServerName);
-				}
-				catch (Exception e) {
-					lastException = e;
-					logger.warn("Failed to initialize MCP transport for {} on attempt {}/{}: {}", mcpServerName,
-							attempt, maxRetries, e.getMessage());
-
-					if (attempt < maxRetries) {
-						try {
-							// 重试前等待一段时间，避免立即重试
-							Thread.sleep(1000 * attempt); // 递增等待时间：1s, 2s, 3s
-						}
-						catch (InterruptedException ie) {
-							Thread.currentThread().interrupt();
-							logger.warn("Retry wait interrupted for server: {}", mcpServerName);
-							break;
-						}
-					}
-				}
-			}
+		McpAsyncClient mcpAsyncClient = McpClient.async(transport)
+			.clientInfo(new McpSchema.Implementation(mcpServerName, "1.0.0"))
+			.build();
+		try {
+			// 失败后不在这里重试，由后台刷新重新连接
+			mcpAsyncClient.initialize().block(CONNECT_TIMEOUT);
+			logger.info("MCP transport configured successfully for: {}", mcpServerName);
 
-			logger.error("Failed to initialize MCP transport for {} after {} attempts", mcpServerName, maxRetries,
-					lastException);
-			return null;
+			AsyncMcpToolCallbackProvider callbackProvider = new AsyncMcpToolCallbackProvider(mcpAsyncClient);
+			return new McpServiceEntity(mcpAsyncClient, callbackProvider, mcpServerName);
 		}
-		return null;
+		catch (Exception e) {
+			mcpAsyncClient.close();
+			throw new IOException("Failed to initialize MCP transport for " + mcpServerName, e);
+		}
+	}
+
+	/**
+	 * 在后台按最新配置刷新连接
+	 */
+	private void requestRefresh() {
+		refreshExecutor.execute(this::refreshConnections);
 	}
 
 	public void addMcpServer(McpConfigRequestVO mcpConfig) throws IOException {
 		insertOrUpdateMcpRepo(mcpConfig);
-		toolCallbackMapCache.invalidateAll();
+		requestRefresh();
 	}
 
 	public List<McpConfigEntity> insertOrUpdateMcpRepo(McpConfigRequestVO mcpConfigVO) throws IOException {
@@ -408,26 +514,36 @@ public class McpService {
 		}
 
 		mcpConfigRepository.delete(mcpConfig);
-		toolCallbackMapCache.invalidateAll();
+		requestRefresh();
 	}
 
 	public List<McpConfigEntity> getMcpServers() {
 		return mcpConfigRepository.findAll();
 	}
 
-	public List<McpServiceEntity> getFunctionCallbacks(String planId) {
+	/**
+	 * 返回当前健康的MCP服务，连接由所有计划共享，不需要按计划关闭
+	 */
+	public List<McpServiceEntity> getFunctionCallbacks() {
 		try {
-			return new ArrayList<>(
-					this.toolCallbackMapCache.get(Optional.ofNullable(planId).orElse("DEFAULT")).values());
+			initialConnections.get(INITIAL_CONNECT_WAIT.toMillis(), TimeUnit.MILLISECONDS);
 		}
-		catch (Throwable t) {
-			logger.error("Failed to get function callbacks for plan: {}", planId, t);
-			return new ArrayList<>();
+		catch (TimeoutException e) {
+			logger.warn("MCP servers are still connecting, using the servers connected so far");
 		}
-	}
-
-	public void close(String planId) {
-		toolCallbackMapCache.invalidate(Optional.ofNullable(planId).orElse("DEFAULT"));
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		catch (ExecutionException e) {
+			logger.error("Failed to connect MCP servers", e);
+		}
+		List<McpServiceEntity> mcpServiceEntities = new ArrayList<>();
+		for (McpConnection connection : connections.values()) {
+			if (connection.entity() != null) {
+				mcpServiceEntities.add(connection.entity());
+			}
+		}
+		return mcpServiceEntities;
 	}
 
 }
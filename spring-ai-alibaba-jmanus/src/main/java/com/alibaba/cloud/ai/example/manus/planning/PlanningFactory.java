@@ -118,7 +118,8 @@ public class PlanningFactory {
 		PlanningTool planningTool = new PlanningTool();
 
 		PlanCreator planCreator = new PlanCreator(agentEntities, llmService, planningTool, recorder);
-		PlanExecutor planExecutor = new PlanExecutor(agentEntities, recorder, agentService, llmService);
+		PlanExecutor planExecutor = new PlanExecutor(agentEntities, recorder, agentService, llmService,
+				manusProperties.getMaxParallelSteps());
 		PlanFinalizer planFinalizer = new PlanFinalizer(llmService, recorder);
 
 		PlanningCoordinator planningCoordinator = new PlanningCoordinator(planCreator, planExecutor, planFinalizer);
@@ -160,7 +161,7 @@ public class PlanningFactory {
 		toolDefinitions.add(new GoogleSearch());
 		toolDefinitions.add(new PythonExecute());
 		toolDefinitions.add(new FormInputTool());
-		List<McpServiceEntity> functionCallbacks = mcpService.getFunctionCallbacks(planId);
+		List<McpServiceEntity> functionCallbacks = mcpService.getFunctionCallbacks();
 		for (McpServiceEntity toolCallback : functionCallbacks) {
 			String serviceGroup = toolCallback.getServiceGroup();
 			ToolCallback[] tCallbacks = toolCallback.getAsyncMcpToolCallbackProvider().getToolCallbacks();
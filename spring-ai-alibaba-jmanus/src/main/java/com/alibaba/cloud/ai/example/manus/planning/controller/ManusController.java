@@ -21,10 +21,12 @@ import com.alibaba.cloud.ai.example.manus.planning.coordinator.PlanningCoordinat
 import com.alibaba.cloud.ai.example.manus.planning.model.vo.ExecutionContext;
 import com.alibaba.cloud.ai.example.manus.planning.model.vo.UserInputWaitState;
 import com.alibaba.cloud.ai.example.manus.planning.service.UserInputService;
+import com.alibaba.cloud.ai.example.manus.recorder.PlanExecutionEvent;
 import com.alibaba.cloud.ai.example.manus.recorder.PlanExecutionRecorder;
 import com.alibaba.cloud.ai.example.manus.recorder.entity.PlanExecutionRecord;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
 import org.slf4j.Logger;
@@ -34,10 +36,14 @@ import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/executor")
@@ -45,6 +51,8 @@ public class ManusController {
 
 	private static final Logger logger = LoggerFactory.getLogger(ManusController.class);
 
+	private static final long STREAM_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
 	private final ObjectMapper objectMapper;
 
 	@Autowired
@@ -147,6 +155,64 @@ public class ManusController {
 		}
 	}
 
+	/**
+	 * 以 SSE 推送执行记录，先发送一次完整记录(snapshot)，之后只发送变化的计划概要、智能体记录和思考-行动记录， 事件类型见
+	 * {@link PlanExecutionEvent}。等待用户输入的状态变化时发送 userInput 事件，计划完成后关闭连接
+	 * @param planId 计划ID
+	 * @return SSE 连接
+	 */
+	@GetMapping(value = "/stream/{planId}", produces = "text/event-stream")
+	public SseEmitter streamExecutionDetails(@PathVariable("planId") String planId) {
+		SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MILLIS);
+		UserInputWaitState[] lastWaitState = new UserInputWaitState[1];
+		Runnable unsubscribe = planExecutionRecorder.subscribe(planId, event -> {
+			try {
+				Object data = event.data();
+				UserInputWaitState waitState = currentWaitState(planId);
+				if (PlanExecutionEvent.SNAPSHOT.equals(event.type()) && data instanceof ObjectNode snapshot) {
+					snapshot.set("userInputWaitState", objectMapper.valueToTree(waitState));
+				}
+				else if (!sameWaitState(waitState, lastWaitState[0])) {
+					sendEvent(emitter, event.sequence(), "userInput", waitState);
+				}
+				lastWaitState[0] = waitState;
+				sendEvent(emitter, event.sequence(), event.type(), data);
+				if (PlanExecutionEvent.COMPLETE.equals(event.type())
+						|| (data instanceof ObjectNode record && record.path("completed").asBoolean())) {
+					emitter.complete();
+				}
+			}
+			catch (IOException | IllegalStateException e) {
+				// 客户端已断开，completeWithError 会触发 onError 回调取消订阅
+				logger.debug("Stopped streaming plan {}: {}", planId, e.getMessage());
+				emitter.completeWithError(e);
+			}
+		});
+		emitter.onCompletion(unsubscribe);
+		emitter.onTimeout(unsubscribe);
+		emitter.onError(e -> unsubscribe.run());
+		return emitter;
+	}
+
+	private UserInputWaitState currentWaitState(String planId) {
+		UserInputWaitState waitState = userInputService.getWaitState(planId);
+		return waitState != null && waitState.isWaiting() ? waitState : null;
+	}
+
+	private static boolean sameWaitState(UserInputWaitState current, UserInputWaitState last) {
+		if (current == null || last == null) {
+			return current == last;
+		}
+		return Objects.equals(current.getMessage(), last.getMessage())
+				&& Objects.equals(current.getFormDescription(), last.getFormDescription())
+				&& Objects.equals(current.getFormInputs(), last.getFormInputs());
+	}
+
+	private void sendEvent(SseEmitter emitter, long sequence, String type, Object data) throws IOException {
+		emitter.send(
+				SseEmitter.event().id(String.valueOf(sequence)).name(type).data(objectMapper.writeValueAsString(data)));
+	}
+
 	/**
 	 * 删除指定计划ID的执行记录
 	 * @param planId 计划ID
@@ -198,6 +198,7 @@ public class PlanCreator {
 
 				重要提示：计划中的每个步骤都必须以[AGENT]开头，代理名称必须是上述列出的可用代理之一。
 				例如："[BROWSER_AGENT] 搜索相关信息" 或 "[DEFAULT_AGENT] 处理搜索结果"
+				如果有些步骤互不依赖(例如分别查询几个无关的网站)，可以通过 dependencies 参数声明每个步骤依赖的前序步骤，互不依赖的步骤会同时执行。
 				""".formatted(agentsInfo, request);
 	}
 
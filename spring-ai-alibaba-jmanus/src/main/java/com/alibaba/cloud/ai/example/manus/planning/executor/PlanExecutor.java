@@ -30,8 +30,19 @@ import com.alibaba.cloud.ai.example.manus.recorder.entity.PlanExecutionRecord;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -45,6 +56,17 @@ public class PlanExecutor {
 
 	private static final Logger logger = LoggerFactory.getLogger(PlanExecutor.class);
 
+	private static final AtomicInteger STEP_THREAD_COUNTER = new AtomicInteger();
+
+	/**
+	 * 并行执行步骤的线程，每个计划同时执行的步骤数量由 maxParallelSteps 限制
+	 */
+	private static final ExecutorService STEP_EXECUTOR = Executors.newCachedThreadPool(r -> {
+		Thread thread = new Thread(r, "plan-step-" + STEP_THREAD_COUNTER.incrementAndGet());
+		thread.setDaemon(true);
+		return thread;
+	});
+
 	protected final PlanExecutionRecorder recorder;
 
 	// 匹配字符串开头的方括号，支持中文和其他字符
@@ -56,6 +78,8 @@ public class PlanExecutor {
 
 	private LlmService llmService;
 
+	private final int maxParallelSteps;
+
 	// Define static final strings for the keys used in executorParams
 	public static final String PLAN_STATUS_KEY = "planStatus";
 
@@ -69,10 +93,16 @@ public class PlanExecutor {
 
 	public PlanExecutor(List<DynamicAgentEntity> agents, PlanExecutionRecorder recorder, AgentService agentService,
 			LlmService llmService) {
+		this(agents, recorder, agentService, llmService, 1);
+	}
+
+	public PlanExecutor(List<DynamicAgentEntity> agents, PlanExecutionRecorder recorder, AgentService agentService,
+			LlmService llmService, int maxParallelSteps) {
 		this.agents = agents;
 		this.recorder = recorder;
 		this.agentService = agentService;
 		this.llmService = llmService;
+		this.maxParallelSteps = Math.max(1, maxParallelSteps);
 	}
 
 	/**
@@ -87,10 +117,15 @@ public class PlanExecutor {
 			List<ExecutionStep> steps = plan.getSteps();
 
 			if (CollectionUtil.isNotEmpty(steps)) {
-				for (ExecutionStep step : steps) {
-					BaseAgent executorinStep = executeStep(step, context);
-					if (executorinStep != null) {
-						executor = executorinStep;
+				if (maxParallelSteps > 1 && steps.stream().anyMatch(step -> step.getDependsOn() != null)) {
+					executor = executeStepsInParallel(steps, context);
+				}
+				else {
+					for (ExecutionStep step : steps) {
+						BaseAgent executorinStep = executeStep(step, context);
+						if (executorinStep != null) {
+							executor = executorinStep;
+						}
 					}
 				}
 			}
@@ -106,6 +141,96 @@ public class PlanExecutor {
 		}
 	}
 
+	/**
+	 * 按依赖关系并行执行步骤，依赖的步骤都结束后步骤才开始，同时最多执行 maxParallelSteps 个步骤。
+	 * <p>
+	 * 同一智能体的工具(浏览器页面、文件等)在计划内共享，所以由同一智能体执行的步骤不会同时执行。
+	 * @return 按步骤顺序最后一个有执行器的步骤的执行器
+	 */
+	private BaseAgent executeStepsInParallel(List<ExecutionStep> steps, ExecutionContext context) {
+		Map<Integer, Set<Integer>> dependencies = resolveDependencies(steps);
+		List<ExecutionStep> pending = new ArrayList<>(steps);
+		Set<Integer> finished = new HashSet<>();
+		Set<String> busyAgents = new HashSet<>();
+		TreeMap<Integer, BaseAgent> executors = new TreeMap<>();
+		List<Future<ExecutionStep>> futures = new ArrayList<>();
+		CompletionService<ExecutionStep> completionService = new ExecutorCompletionService<>(STEP_EXECUTOR);
+		int running = 0;
+		try {
+			while (!pending.isEmpty() || running > 0) {
+				Iterator<ExecutionStep> iterator = pending.iterator();
+				while (iterator.hasNext() && running < maxParallelSteps) {
+					ExecutionStep step = iterator.next();
+					String stepType = getStepFromStepReq(step.getStepRequirement());
+					if (!finished.containsAll(dependencies.get(step.getStepIndex())) || busyAgents.contains(stepType)) {
+						continue;
+					}
+					iterator.remove();
+					busyAgents.add(stepType);
+					running++;
+					futures.add(completionService.submit(() -> {
+						BaseAgent executor = executeStep(step, context);
+						if (executor != null) {
+							synchronized (executors) {
+								executors.put(step.getStepIndex(), executor);
+							}
+						}
+						return step;
+					}));
+				}
+				// 依赖只指向前面的步骤，没有步骤在执行时第一个待执行的步骤一定可以开始
+				ExecutionStep done = completionService.take().get();
+				running--;
+				finished.add(done.getStepIndex());
+				busyAgents.remove(getStepFromStepReq(done.getStepRequirement()));
+			}
+		}
+		catch (InterruptedException e) {
+			futures.forEach(future -> future.cancel(true));
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Plan execution interrupted", e);
+		}
+		catch (ExecutionException e) {
+			futures.forEach(future -> future.cancel(true));
+			throw new IllegalStateException("Step execution failed: " + e.getCause().getMessage(), e.getCause());
+		}
+		synchronized (executors) {
+			return executors.isEmpty() ? null : executors.lastEntry().getValue();
+		}
+	}
+
+	/**
+	 * 解析每个步骤依赖的步骤序号，未声明依赖的步骤依赖前一个步骤，指向自身或后面步骤的依赖被忽略
+	 */
+	private Map<Integer, Set<Integer>> resolveDependencies(List<ExecutionStep> steps) {
+		Map<Integer, Set<Integer>> dependencies = new HashMap<>();
+		Set<Integer> earlierSteps = new HashSet<>();
+		Integer previous = null;
+		for (ExecutionStep step : steps) {
+			Set<Integer> stepDependencies = new HashSet<>();
+			if (step.getDependsOn() == null) {
+				if (previous != null) {
+					stepDependencies.add(previous);
+				}
+			}
+			else {
+				for (Integer dependency : step.getDependsOn()) {
+					if (earlierSteps.contains(dependency)) {
+						stepDependencies.add(dependency);
+					}
+					else {
+						logger.warn("Ignoring dependency of step {} on step {}, only earlier steps can be depended on",
+								step.getStepIndex(), dependency);
+					}
+				}
+			}
+			dependencies.put(step.getStepIndex(), stepDependencies);
+			earlierSteps.add(step.getStepIndex());
+			previous = step.getStepIndex();
+		}
+		return dependencies;
+	}
+
 	/**
 	 * 执行单个步骤
 	 * @param executor 执行器
@@ -134,6 +259,7 @@ public class PlanExecutor {
 				return null;
 			}
 			step.setAgent(executor);
+			executor.setStepIndex(stepIndex);
 			executor.setState(AgentState.IN_PROGRESS);
 
 			recordStepStart(step, context);
@@ -213,7 +339,7 @@ public class PlanExecutor {
 		return record;
 	}
 
-	private void recordStepStart(ExecutionStep step, ExecutionContext context) {
+	private synchronized void recordStepStart(ExecutionStep step, ExecutionContext context) {
 		// 更新 PlanExecutionRecord 中的当前步骤索引
 		PlanExecutionRecord record = getOrCreatePlanExecutionRecord(context);
 		if (record != null) {
@@ -229,7 +355,7 @@ public class PlanExecutor {
 	 * @param step 执行的步骤
 	 * @param context 执行上下文
 	 */
-	private void recordStepEnd(ExecutionStep step, ExecutionContext context) {
+	private synchronized void recordStepEnd(ExecutionStep step, ExecutionContext context) {
 		// 更新 PlanExecutionRecord 中的步骤状态
 		PlanExecutionRecord record = getOrCreatePlanExecutionRecord(context);
 		if (record != null) {
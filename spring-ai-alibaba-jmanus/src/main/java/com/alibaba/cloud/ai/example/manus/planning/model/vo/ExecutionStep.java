@@ -15,6 +15,9 @@
  */
 package com.alibaba.cloud.ai.example.manus.planning.model.vo;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import com.alibaba.cloud.ai.example.manus.agent.AgentState;
 import com.alibaba.cloud.ai.example.manus.agent.BaseAgent;
 
@@ -31,6 +34,11 @@ public class ExecutionStep {
 
 	private BaseAgent agent;
 
+	/**
+	 * 依赖的前序步骤序号，为 null 时依赖前一个步骤(顺序执行)，为空列表时不依赖任何步骤
+	 */
+	private List<Integer> dependsOn;
+
 	public Integer getStepIndex() {
 		return stepIndex;
 	}
@@ -55,6 +63,14 @@ public class ExecutionStep {
 		this.agent = agent;
 	}
 
+	public List<Integer> getDependsOn() {
+		return dependsOn;
+	}
+
+	public void setDependsOn(List<Integer> dependsOn) {
+		this.dependsOn = dependsOn;
+	}
+
 	public String getStepRequirement() {
 		return stepRequirement;
 	}
@@ -90,6 +106,10 @@ public class ExecutionStep {
 		json.append("    {");
 		json.append("\"stepRequirement\": \"").append(stepRequirement.replace("\"", "\\\"")).append("\" ");
 
+		if (dependsOn != null) {
+			json.append(", \"dependsOn\": ").append(dependsOn);
+		}
+
 		if (result != null && !result.isEmpty()) {
 			json.append(", \"result\": \"").append(result.replace("\"", "\\\"").replace("\n", "\\n")).append("\"");
 		}
@@ -115,6 +135,15 @@ public class ExecutionStep {
 			step.setStepIndex(stepNode.get("stepIndex").asInt());
 		}
 
+		// 设置依赖的步骤（如果有）
+		if (stepNode.has("dependsOn") && stepNode.get("dependsOn").isArray()) {
+			List<Integer> dependsOn = new ArrayList<>();
+			for (com.fasterxml.jackson.databind.JsonNode dependency : stepNode.get("dependsOn")) {
+				dependsOn.add(dependency.asInt());
+			}
+			step.setDependsOn(dependsOn);
+		}
+
 		// 设置步骤结果（如果有）
 		if (stepNode.has("result")) {
 			step.setResult(stepNode.get("result").asText());
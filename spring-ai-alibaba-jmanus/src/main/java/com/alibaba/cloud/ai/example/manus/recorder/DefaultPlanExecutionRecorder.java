@@ -15,67 +15,274 @@
  */
 package com.alibaba.cloud.ai.example.manus.recorder;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import com.alibaba.cloud.ai.example.manus.config.ManusProperties;
 import com.alibaba.cloud.ai.example.manus.recorder.entity.AgentExecutionRecord;
 import com.alibaba.cloud.ai.example.manus.recorder.entity.PlanExecutionRecord;
+import com.alibaba.cloud.ai.example.manus.recorder.entity.PlanExecutionRecordEntity;
 import com.alibaba.cloud.ai.example.manus.recorder.entity.ThinkActRecord;
+import com.alibaba.cloud.ai.example.manus.recorder.repository.PlanExecutionRecordRepository;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
-import java.time.LocalDateTime;
-import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 
+/**
+ * 计划执行记录器的默认实现。
+ * <p>
+ * 内存中最多保留 manus.agent.planRecordMaxRetained 个计划，已完成的计划保留 manus.agent.planRecordRetention
+ * 分钟后移出内存，移出前保存到数据库，之后从数据库查询。执行中的计划不会因数量上限被移出，长时间没有更新的除外。
+ * <p>
+ * 智能体执行记录按 ID 建立索引，记录的每次变化都作为 {@link PlanExecutionEvent} 推送给订阅者，订阅者不需要反复读取整个计划。
+ * 每个订阅者有自己的事件队列，推送慢的订阅者不会拖慢其他订阅者，也不会拖慢持久化和清理。
+ */
 @Component
 public class DefaultPlanExecutionRecorder implements PlanExecutionRecorder {
 
-	private final Map<String, PlanExecutionRecord> planRecords = new ConcurrentHashMap<>();
+	private static final Logger log = LoggerFactory.getLogger(DefaultPlanExecutionRecorder.class);
+
+	/**
+	 * 超过这个时间没有任何更新的执行中计划，视为已经中断
+	 */
+	private static final long STALE_PLAN_MILLIS = TimeUnit.HOURS.toMillis(2);
+
+	private static final long EVICTION_INTERVAL_SECONDS = 60;
+
+	private final Map<String, PlanState> planRecords = new ConcurrentHashMap<>();
+
+	private final Map<String, List<Subscription>> subscribers = new ConcurrentHashMap<>();
 
 	private final AtomicLong agentExecutionIdGenerator = new AtomicLong(0);
 
+	private final AtomicLong thinkActIdGenerator = new AtomicLong(0);
+
+	private final AtomicLong eventSequence = new AtomicLong(0);
+
+	private final PlanExecutionRecordRepository recordRepository;
+
+	private final ManusProperties manusProperties;
+
+	private final ObjectMapper objectMapper;
+
+	/**
+	 * 单线程生成事件并放入订阅者的队列，同一计划的事件按发生顺序入队
+	 */
+	private ExecutorService eventExecutor;
+
+	/**
+	 * 按订阅者串行推送事件，每个订阅者同一时间最多占用一个线程
+	 */
+	private ExecutorService deliveryExecutor;
+
+	/**
+	 * 单线程执行持久化和清理
+	 */
+	private ScheduledExecutorService persistenceExecutor;
+
+	public DefaultPlanExecutionRecorder(PlanExecutionRecordRepository recordRepository,
+			ManusProperties manusProperties) {
+		this.recordRepository = recordRepository;
+		this.manusProperties = manusProperties;
+		this.objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+			.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+	}
+
+	@PostConstruct
+	public void start() {
+		eventExecutor = Executors.newSingleThreadExecutor(daemonThreads("plan-record-events"));
+		deliveryExecutor = Executors.newCachedThreadPool(daemonThreads("plan-record-delivery"));
+		persistenceExecutor = Executors.newSingleThreadScheduledExecutor(daemonThreads("plan-record-persistence"));
+		persistenceExecutor.scheduleWithFixedDelay(this::evictPlans, EVICTION_INTERVAL_SECONDS,
+				EVICTION_INTERVAL_SECONDS, TimeUnit.SECONDS);
+	}
+
+	private static ThreadFactory daemonThreads(String name) {
+		AtomicInteger counter = new AtomicInteger();
+		return r -> {
+			Thread thread = new Thread(r, name + "-" + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		eventExecutor.shutdownNow();
+		deliveryExecutor.shutdownNow();
+		persistenceExecutor.shutdownNow();
+		for (PlanState state : planRecords.values()) {
+			persist(state);
+		}
+	}
+
 	@Override
 	public String recordPlanExecution(PlanExecutionRecord stepRecord) {
 		String planId = stepRecord.getPlanId();
-		planRecords.put(planId, stepRecord);
+		PlanState state = planRecords.get(planId);
+		if (state == null || state.record != stepRecord) {
+			state = new PlanState(stepRecord);
+			planRecords.put(planId, state);
+			if (planRecords.size() > manusProperties.getPlanRecordMaxRetained()) {
+				persistenceExecutor.execute(this::evictPlans);
+			}
+		}
+		state.touch();
+		if (hasSubscribers(planId)) {
+			publish(planId, PlanExecutionEvent.PLAN, planSummary(state));
+		}
 		return planId;
 	}
 
 	@Override
 	public Long recordAgentExecution(String planId, AgentExecutionRecord agentRecord) {
-		Long agentExecutionId = agentExecutionIdGenerator.incrementAndGet();
-		agentRecord.setId(agentExecutionId);
-		PlanExecutionRecord planRecord = planRecords.get(planId);
-		if (planRecord != null) {
-			planRecord.addAgentExecutionRecord(agentRecord);
+		PlanState state = planRecords.get(planId);
+		if (state == null) {
+			if (agentRecord.getId() == null) {
+				agentRecord.setId(agentExecutionIdGenerator.incrementAndGet());
+			}
+			return agentRecord.getId();
+		}
+		synchronized (state) {
+			if (agentRecord.getId() == null || state.agents.get(agentRecord.getId()) != agentRecord) {
+				if (agentRecord.getId() == null) {
+					agentRecord.setId(agentExecutionIdGenerator.incrementAndGet());
+				}
+				addInStepOrder(state.record, agentRecord);
+				state.agents.put(agentRecord.getId(), agentRecord);
+			}
+		}
+		state.touch();
+		if (hasSubscribers(planId)) {
+			publish(planId, PlanExecutionEvent.AGENT, agentSummary(agentRecord));
+		}
+		return agentRecord.getId();
+	}
+
+	/**
+	 * 并行执行的步骤可能乱序开始，按步骤序号插入，记录顺序与计划中的步骤一致
+	 */
+	private static void addInStepOrder(PlanExecutionRecord record, AgentExecutionRecord agentRecord) {
+		List<AgentExecutionRecord> sequence = record.getAgentExecutionSequence();
+		Integer stepIndex = agentRecord.getStepIndex();
+		int position = sequence.size();
+		while (stepIndex != null && position > 0) {
+			Integer previous = sequence.get(position - 1).getStepIndex();
+			if (previous == null || previous <= stepIndex) {
+				break;
+			}
+			position--;
 		}
-		return agentExecutionId;
+		sequence.add(position, agentRecord);
 	}
 
 	@Override
 	public void recordThinkActExecution(String planId, Long agentExecutionId, ThinkActRecord thinkActRecord) {
-		PlanExecutionRecord planRecord = planRecords.get(planId);
-		if (planRecord != null) {
-			for (AgentExecutionRecord agentRecord : planRecord.getAgentExecutionSequence()) {
-				if (agentExecutionId.equals(agentRecord.getId())) {
-					agentRecord.addThinkActStep(thinkActRecord);
-					break;
-				}
+		PlanState state = planRecords.get(planId);
+		if (state == null) {
+			return;
+		}
+		synchronized (state) {
+			AgentExecutionRecord agentRecord = state.agents.get(agentExecutionId);
+			if (agentRecord == null) {
+				return;
+			}
+			if (!containsThinkAct(agentRecord, thinkActRecord)) {
+				agentRecord.addThinkActStep(thinkActRecord);
+			}
+			if (thinkActRecord.getId() == null) {
+				thinkActRecord.setId(thinkActIdGenerator.incrementAndGet());
+			}
+		}
+		state.touch();
+		if (hasSubscribers(planId)) {
+			publish(planId, PlanExecutionEvent.THINK_ACT, objectMapper.valueToTree(thinkActRecord));
+		}
+	}
+
+	/**
+	 * 更新几乎总是针对最近一次思考-行动，从后往前按引用查找
+	 */
+	private static boolean containsThinkAct(AgentExecutionRecord agentRecord, ThinkActRecord thinkActRecord) {
+		List<ThinkActRecord> steps = agentRecord.getThinkActSteps();
+		if (steps == null) {
+			return false;
+		}
+		for (int i = steps.size() - 1; i >= 0; i--) {
+			if (steps.get(i) == thinkActRecord) {
+				return true;
 			}
 		}
+		return false;
 	}
 
 	@Override
 	public void recordPlanCompletion(String planId, String summary) {
-		PlanExecutionRecord record = planRecords.get(planId);
-		if (record != null) {
-			record.complete(summary);
+		PlanState state = planRecords.get(planId);
+		if (state == null) {
+			return;
+		}
+		synchronized (state) {
+			state.record.complete(summary);
 		}
+		state.completedAt = System.currentTimeMillis();
+		state.touch();
+		if (hasSubscribers(planId)) {
+			publish(planId, PlanExecutionEvent.PLAN, planSummary(state));
+			publish(planId, PlanExecutionEvent.COMPLETE, summary);
+		}
+		persistenceExecutor.execute(() -> persist(state));
 	}
 
 	@Override
 	public PlanExecutionRecord getExecutionRecord(String planId) {
-		return planRecords.get(planId);
+		PlanState state = planRecords.get(planId);
+		if (state != null) {
+			return state.record;
+		}
+		return loadPersistedRecord(planId);
+	}
+
+	private PlanExecutionRecord loadPersistedRecord(String planId) {
+		try {
+			return recordRepository.findByPlanId(planId).map(entity -> readRecord(entity.getRecordJson())).orElse(null);
+		}
+		catch (Exception e) {
+			log.warn("Failed to load persisted execution record for plan {}: {}", planId, e.getMessage());
+			return null;
+		}
+	}
+
+	private PlanExecutionRecord readRecord(String json) {
+		try {
+			return objectMapper.readValue(json, PlanExecutionRecord.class);
+		}
+		catch (Exception e) {
+			throw new IllegalStateException("Invalid execution record JSON", e);
+		}
 	}
 
 	/**
@@ -86,14 +293,11 @@ public class DefaultPlanExecutionRecorder implements PlanExecutionRecorder {
 	 */
 	@Override
 	public boolean savePlanExecutionRecords(String planId) {
-		PlanExecutionRecord record = planRecords.get(planId);
-		if (record == null) {
+		PlanState state = planRecords.get(planId);
+		if (state == null) {
 			return false;
 		}
-
-		// 调用 PlanExecutionRecord 的 save 方法，它会递归调用所有子记录的 save 方法
-		record.save();
-		return true;
+		return persist(state);
 	}
 
 	/**
@@ -101,52 +305,297 @@ public class DefaultPlanExecutionRecorder implements PlanExecutionRecorder {
 	 */
 	@Override
 	public void saveAllExecutionRecords() {
-		for (Map.Entry<String, PlanExecutionRecord> entry : planRecords.entrySet()) {
-			entry.getValue().save();
+		for (PlanState state : planRecords.values()) {
+			persist(state);
 		}
 	}
 
 	@Override
 	public AgentExecutionRecord getCurrentAgentExecutionRecord(String planId) {
-		// 自动清理超过30分钟的计划记录
-		cleanOutdatedPlans(30);
-
-		PlanExecutionRecord planRecord = planRecords.get(planId);
-		if (planRecord != null) {
-			List<AgentExecutionRecord> agentExecutionSequence = planRecord.getAgentExecutionSequence();
-			int currentIndex = planRecord.getCurrentStepIndex();
-			if (!agentExecutionSequence.isEmpty()) {
-				return agentExecutionSequence.get(currentIndex);
+		PlanState state = planRecords.get(planId);
+		if (state != null) {
+			synchronized (state) {
+				List<AgentExecutionRecord> agentExecutionSequence = state.record.getAgentExecutionSequence();
+				int currentIndex = state.record.getCurrentStepIndex();
+				for (int i = agentExecutionSequence.size() - 1; i >= 0; i--) {
+					AgentExecutionRecord agentRecord = agentExecutionSequence.get(i);
+					if (agentRecord.getStepIndex() != null && agentRecord.getStepIndex() == currentIndex) {
+						return agentRecord;
+					}
+				}
+				if (currentIndex < agentExecutionSequence.size()) {
+					return agentExecutionSequence.get(currentIndex);
+				}
 			}
 		}
 		return null;
 	}
 
 	/**
-	 * 清理超过指定分钟数的过期计划记录
-	 * @param expirationMinutes 过期时间（分钟）
+	 * 删除指定计划ID的执行记录，包括已经保存到数据库的记录
+	 * @param planId 要删除的计划ID
 	 */
-	private void cleanOutdatedPlans(int expirationMinutes) {
-		LocalDateTime currentTime = LocalDateTime.now();
+	@Override
+	public void removeExecutionRecord(String planId) {
+		planRecords.remove(planId);
+		try {
+			recordRepository.deleteByPlanId(planId);
+		}
+		catch (Exception e) {
+			log.warn("Failed to delete persisted execution record for plan {}: {}", planId, e.getMessage());
+		}
+	}
+
+	@Override
+	public Runnable subscribe(String planId, Consumer<PlanExecutionEvent> listener) {
+		// 在事件线程上加入订阅者并生成快照，快照之后的变化都会以事件送达
+		Subscription subscription = new Subscription(listener);
+		eventExecutor.execute(() -> {
+			subscribers.computeIfAbsent(planId, k -> new CopyOnWriteArrayList<>()).add(subscription);
+			subscription.offer(new PlanExecutionEvent(planId, eventSequence.incrementAndGet(),
+					PlanExecutionEvent.SNAPSHOT, snapshot(planId)));
+		});
+		return () -> {
+			subscription.cancelled = true;
+			eventExecutor.execute(() -> {
+				List<Subscription> listeners = subscribers.get(planId);
+				if (listeners != null) {
+					listeners.remove(subscription);
+					if (listeners.isEmpty()) {
+						subscribers.remove(planId);
+					}
+				}
+			});
+		};
+	}
+
+	private Object snapshot(String planId) {
+		PlanState state = planRecords.get(planId);
+		if (state == null) {
+			PlanExecutionRecord persisted = loadPersistedRecord(planId);
+			return persisted != null ? objectMapper.valueToTree(persisted) : null;
+		}
+		synchronized (state) {
+			return objectMapper.valueToTree(state.record);
+		}
+	}
 
-		planRecords.entrySet().removeIf(entry -> {
-			PlanExecutionRecord record = entry.getValue();
-			// 检查记录创建时间是否超过了指定的过期时间
-			if (record != null && record.getStartTime() != null) {
-				LocalDateTime expirationTime = record.getStartTime().plusMinutes(expirationMinutes);
-				return currentTime.isAfter(expirationTime);
+	private boolean hasSubscribers(String planId) {
+		return subscribers.containsKey(planId);
+	}
+
+	private void publish(String planId, String type, Object data) {
+		eventExecutor.execute(() -> {
+			List<Subscription> listeners = subscribers.get(planId);
+			if (listeners == null) {
+				return;
+			}
+			PlanExecutionEvent event = new PlanExecutionEvent(planId, eventSequence.incrementAndGet(), type, data);
+			for (Subscription subscription : listeners) {
+				subscription.offer(event);
 			}
-			return false;
 		});
 	}
 
+	private Map<String, Object> planSummary(PlanState state) {
+		Map<String, Object> summary = new LinkedHashMap<>();
+		synchronized (state) {
+			PlanExecutionRecord record = state.record;
+			summary.put("planId", record.getPlanId());
+			summary.put("title", record.getTitle());
+			summary.put("userRequest", record.getUserRequest());
+			summary.put("startTime", record.getStartTime());
+			summary.put("endTime", record.getEndTime());
+			summary.put("currentStepIndex", record.getCurrentStepIndex());
+			summary.put("completed", record.isCompleted());
+			summary.put("summary", record.getSummary());
+			List<String> steps = record.getSteps();
+			if (steps != null && !steps.equals(state.publishedSteps)) {
+				state.publishedSteps = new ArrayList<>(steps);
+				summary.put("steps", state.publishedSteps);
+			}
+		}
+		return summary;
+	}
+
+	private static Map<String, Object> agentSummary(AgentExecutionRecord agentRecord) {
+		Map<String, Object> summary = new LinkedHashMap<>();
+		summary.put("id", agentRecord.getId());
+		summary.put("agentName", agentRecord.getAgentName());
+		summary.put("agentDescription", agentRecord.getAgentDescription());
+		summary.put("stepIndex", agentRecord.getStepIndex());
+		summary.put("startTime", agentRecord.getStartTime());
+		summary.put("endTime", agentRecord.getEndTime());
+		summary.put("maxSteps", agentRecord.getMaxSteps());
+		summary.put("currentStep", agentRecord.getCurrentStep());
+		summary.put("status", agentRecord.getStatus());
+		summary.put("completed", agentRecord.isCompleted());
+		summary.put("stuck", agentRecord.isStuck());
+		summary.put("agentRequest", agentRecord.getAgentRequest());
+		summary.put("result", agentRecord.getResult());
+		summary.put("errorMessage", agentRecord.getErrorMessage());
+		return summary;
+	}
+
 	/**
-	 * 删除指定计划ID的执行记录
-	 * @param planId 要删除的计划ID
+	 * 保存计划记录，已保存且之后没有变化的记录不会重复写入
 	 */
-	@Override
-	public void removeExecutionRecord(String planId) {
-		planRecords.remove(planId);
+	private boolean persist(PlanState state) {
+		String planId = state.record.getPlanId();
+		try {
+			String json;
+			boolean completed;
+			long version;
+			synchronized (state) {
+				version = state.version;
+				if (state.persistedVersion == version) {
+					return true;
+				}
+				state.record.save();
+				json = objectMapper.writeValueAsString(state.record);
+				completed = state.record.isCompleted();
+			}
+			PlanExecutionRecordEntity entity = recordRepository.findByPlanId(planId)
+				.orElseGet(() -> new PlanExecutionRecordEntity(planId));
+			entity.setRecordJson(json);
+			entity.setCompleted(completed);
+			entity.setUpdateTime(LocalDateTime.now());
+			recordRepository.save(entity);
+			state.persistedVersion = version;
+			return true;
+		}
+		catch (Exception e) {
+			log.warn("Failed to persist execution record for plan {}: {}", planId, e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * 将过期和超出数量上限的计划保存到数据库后移出内存
+	 */
+	void evictPlans() {
+		try {
+			long now = System.currentTimeMillis();
+			long retentionMillis = TimeUnit.MINUTES.toMillis(manusProperties.getPlanRecordRetention());
+			List<PlanState> completed = new ArrayList<>();
+			for (PlanState state : planRecords.values()) {
+				if (state.completedAt > 0 && now - state.completedAt >= retentionMillis) {
+					evict(state);
+				}
+				else if (state.completedAt == 0 && now - state.lastUpdated >= STALE_PLAN_MILLIS) {
+					log.info("Evicting plan {} without updates for {} minutes", state.record.getPlanId(),
+							TimeUnit.MILLISECONDS.toMinutes(now - state.lastUpdated));
+					evict(state);
+				}
+				else if (state.completedAt > 0) {
+					completed.add(state);
+				}
+			}
+			int excess = planRecords.size() - manusProperties.getPlanRecordMaxRetained();
+			if (excess > 0) {
+				completed.sort(Comparator.comparingLong(state -> state.completedAt));
+				for (int i = 0; i < excess && i < completed.size(); i++) {
+					evict(completed.get(i));
+				}
+			}
+		}
+		catch (Exception e) {
+			log.warn("Failed to evict plan execution records: {}", e.getMessage());
+		}
+	}
+
+	private void evict(PlanState state) {
+		if (persist(state)) {
+			planRecords.remove(state.record.getPlanId(), state);
+		}
+	}
+
+	/**
+	 * 一个订阅者和它待推送的事件，事件在推送线程上按入队顺序逐个送达
+	 */
+	private final class Subscription {
+
+		private final Consumer<PlanExecutionEvent> listener;
+
+		private final Queue<PlanExecutionEvent> queue = new ConcurrentLinkedQueue<>();
+
+		private final AtomicInteger pending = new AtomicInteger();
+
+		private volatile boolean cancelled;
+
+		Subscription(Consumer<PlanExecutionEvent> listener) {
+			this.listener = listener;
+		}
+
+		void offer(PlanExecutionEvent event) {
+			if (cancelled) {
+				return;
+			}
+			queue.offer(event);
+			if (pending.getAndIncrement() == 0) {
+				deliveryExecutor.execute(this::drain);
+			}
+		}
+
+		private void drain() {
+			do {
+				PlanExecutionEvent event = queue.poll();
+				if (!cancelled) {
+					deliver(event);
+				}
+			}
+			while (pending.decrementAndGet() != 0);
+		}
+
+		private void deliver(PlanExecutionEvent event) {
+			try {
+				listener.accept(event);
+			}
+			catch (Exception e) {
+				log.warn("Plan execution listener failed for plan {}: {}", event.planId(), e.getMessage());
+			}
+		}
+
+	}
+
+	/**
+	 * 内存中的计划记录和它的智能体索引，记录的结构性修改在这个对象上同步
+	 */
+	private static final class PlanState {
+
+		private final PlanExecutionRecord record;
+
+		private final Map<Long, AgentExecutionRecord> agents = new ConcurrentHashMap<>();
+
+		private volatile long lastUpdated = System.currentTimeMillis();
+
+		private volatile long completedAt;
+
+		private volatile long version;
+
+		private volatile long persistedVersion = -1;
+
+		private List<String> publishedSteps;
+
+		PlanState(PlanExecutionRecord record) {
+			this.record = record;
+			if (record.getAgentExecutionSequence() != null) {
+				for (AgentExecutionRecord agentRecord : record.getAgentExecutionSequence()) {
+					if (agentRecord.getId() != null) {
+						agents.put(agentRecord.getId(), agentRecord);
+					}
+				}
+			}
+			if (record.isCompleted()) {
+				completedAt = lastUpdated;
+			}
+		}
+
+		synchronized void touch() {
+			lastUpdated = System.currentTimeMillis();
+			version++;
+		}
+
 	}
 
 }
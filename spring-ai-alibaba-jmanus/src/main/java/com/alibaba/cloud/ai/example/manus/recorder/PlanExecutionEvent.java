@@ -0,0 +1,47 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.example.manus.recorder;
+
+/**
+ * 计划执行记录的一次变化，推送给 {@link PlanExecutionRecorder#subscribe} 的订阅者。
+ * <p>
+ * 同一计划的事件按 sequence 递增，类型为:
+ * <ul>
+ * <li>{@link #SNAPSHOT}: 订阅时的完整 PlanExecutionRecord，计划还没有记录时为 null</li>
+ * <li>{@link #PLAN}: 计划的概要字段，不含 agentExecutionSequence，steps 只在变化时出现</li>
+ * <li>{@link #AGENT}: 智能体执行记录的字段，不含 thinkActSteps</li>
+ * <li>{@link #THINK_ACT}: 新增或更新的 ThinkActRecord，按 id 和 parentExecutionId 合并</li>
+ * <li>{@link #COMPLETE}: 计划已完成，data 为总结</li>
+ * </ul>
+ *
+ * @param planId 计划ID
+ * @param sequence 事件序号
+ * @param type 事件类型
+ * @param data 事件内容
+ */
+public record PlanExecutionEvent(String planId, long sequence, String type, Object data) {
+
+	public static final String SNAPSHOT = "snapshot";
+
+	public static final String PLAN = "plan";
+
+	public static final String AGENT = "agent";
+
+	public static final String THINK_ACT = "thinkAct";
+
+	public static final String COMPLETE = "complete";
+
+}
@@ -15,6 +15,8 @@
  */
 package com.alibaba.cloud.ai.example.manus.recorder;
 
+import java.util.function.Consumer;
+
 import com.alibaba.cloud.ai.example.manus.recorder.entity.AgentExecutionRecord;
 import com.alibaba.cloud.ai.example.manus.recorder.entity.PlanExecutionRecord;
 import com.alibaba.cloud.ai.example.manus.recorder.entity.ThinkActRecord;
@@ -32,7 +34,7 @@ public interface PlanExecutionRecorder {
 	String recordPlanExecution(PlanExecutionRecord stepRecord);
 
 	/**
-	 * 记录智能体执行实例，关联到特定的计划
+	 * 记录智能体执行实例，关联到特定的计划。已记录过的实例再次调用时视为更新
 	 * @param planId 计划ID
 	 * @param agentRecord 智能体执行记录
 	 * @return 智能体执行ID
@@ -40,7 +42,7 @@ public interface PlanExecutionRecorder {
 	Long recordAgentExecution(String planId, AgentExecutionRecord agentRecord);
 
 	/**
-	 * 记录思考-行动执行实例，关联到特定的智能体执行
+	 * 记录思考-行动执行实例，关联到特定的智能体执行。已记录过的实例再次调用时视为更新
 	 * @param planId 计划ID
 	 * @param agentExecutionId 智能体执行ID
 	 * @param thinkActRecord 思考-行动记录
@@ -87,4 +89,12 @@ public interface PlanExecutionRecorder {
 	 */
 	void removeExecutionRecord(String planId);
 
+	/**
+	 * 订阅计划执行记录的变化，先收到一个 {@link PlanExecutionEvent#SNAPSHOT} 事件，之后只收到变化的部分
+	 * @param planId 计划ID
+	 * @param listener 事件监听器，在记录器的事件线程上调用
+	 * @return 取消订阅的操作
+	 */
+	Runnable subscribe(String planId, Consumer<PlanExecutionEvent> listener);
+
 }
@@ -52,6 +52,9 @@ public class AgentExecutionRecord {
 	// 智能体的描述信息
 	private String agentDescription;
 
+	// 执行的步骤序号
+	private Integer stepIndex;
+
 	// 执行开始的时间戳
 	private LocalDateTime startTime;
 
@@ -141,6 +144,14 @@ public class AgentExecutionRecord {
 		this.agentDescription = agentDescription;
 	}
 
+	public Integer getStepIndex() {
+		return stepIndex;
+	}
+
+	public void setStepIndex(Integer stepIndex) {
+		this.stepIndex = stepIndex;
+	}
+
 	public LocalDateTime getStartTime() {
 		return startTime;
 	}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.example.manus.recorder.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.alibaba.cloud.ai.example.manus.recorder.entity.PlanExecutionRecordEntity;
+
+/**
+ * 计划执行记录数据访问接口
+ */
+@Repository
+public interface PlanExecutionRecordRepository extends JpaRepository<PlanExecutionRecordEntity, Long> {
+
+	/**
+	 * 根据计划ID查找执行记录
+	 * @param planId 计划ID
+	 * @return 执行记录实体
+	 */
+	Optional<PlanExecutionRecordEntity> findByPlanId(String planId);
+
+	/**
+	 * 根据计划ID删除执行记录
+	 * @param planId 计划ID
+	 */
+	@Transactional
+	void deleteByPlanId(String planId);
+
+}
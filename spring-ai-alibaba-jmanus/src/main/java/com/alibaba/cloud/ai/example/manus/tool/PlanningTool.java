@@ -64,6 +64,16 @@ public class PlanningTool implements Function<String, ToolExecuteResult> {
 			            "items": {
 			                "type": "string"
 			            }
+			        },
+			        "dependencies": {
+			            "description": "Optional. For each step, the indexes (starting from 0) of the earlier steps it depends on. Use an empty list for a step that does not need the results of earlier steps, steps without dependencies between them run at the same time. Omit it to run all steps one after another",
+			            "type": "array",
+			            "items": {
+			                "type": "array",
+			                "items": {
+			                    "type": "integer"
+			                }
+			            }
 			        }
 			    },
 			    "required": [
@@ -104,9 +114,12 @@ public class PlanningTool implements Function<String, ToolExecuteResult> {
 			String title = (String) input.get("title");
 			List<String> steps = objectMapper.convertValue(input.get("steps"), new TypeReference<List<String>>() {
 			});
+			List<List<Integer>> dependencies = objectMapper.convertValue(input.get("dependencies"),
+					new TypeReference<List<List<Integer>>>() {
+					});
 
 			return switch (command) {
-				case "create" -> createPlan(planId, title, steps);
+				case "create" -> createPlan(planId, title, steps, dependencies);
 				// case "update" -> updatePlan(planId, title, steps);
 				// case "get" -> getPlan(planId);
 				// case "mark_step" -> markStep(planId, stepIndex, stepStatus, stepNotes);
@@ -137,6 +150,15 @@ public class PlanningTool implements Function<String, ToolExecuteResult> {
 	}
 
 	public ToolExecuteResult createPlan(String planId, String title, List<String> steps) {
+		return createPlan(planId, title, steps, null);
+	}
+
+	/**
+	 * 创建计划
+	 * @param dependencies 每个步骤依赖的前序步骤序号，为 null 时所有步骤顺序执行
+	 */
+	public ToolExecuteResult createPlan(String planId, String title, List<String> steps,
+			List<List<Integer>> dependencies) {
 		if (title == null || steps == null || steps.isEmpty()) {
 			log.info("创建计划时缺少必要参数: planId={}, title={}, steps={}", planId, title, steps);
 			return new ToolExecuteResult("Required parameters missing");
@@ -146,7 +168,12 @@ public class PlanningTool implements Function<String, ToolExecuteResult> {
 		// 使用新的createExecutionStep方法创建并添加步骤
 		int index = 0;
 		for (String step : steps) {
-			plan.addStep(createExecutionStep(step, index++));
+			ExecutionStep executionStep = createExecutionStep(step, index);
+			if (dependencies != null && index < dependencies.size()) {
+				executionStep.setDependsOn(dependencies.get(index));
+			}
+			plan.addStep(executionStep);
+			index++;
 		}
 
 		this.currentPlan = plan;
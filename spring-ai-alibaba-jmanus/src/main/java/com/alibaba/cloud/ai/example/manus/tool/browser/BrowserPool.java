@@ -0,0 +1,362 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.example.manus.tool.browser;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.BrowserType;
+import com.microsoft.playwright.Playwright;
+
+/**
+ * 长期存活的浏览器池，每次借出一个浏览器并为其创建独立的 {@link BrowserContext}，归还时只关闭上下文。
+ * <p>
+ * Playwright 对象不是线程安全的，所以每个浏览器有自己的 Playwright 实例，同一时间只借给一个计划。
+ * <p>
+ * 浏览器创建的上下文达到 maxUses 后重启，断开连接(崩溃)的浏览器被丢弃并按需重新启动，空闲超过 idleTimeout 的浏览器被关闭。
+ */
+public class BrowserPool implements AutoCloseable {
+
+	private static final Logger log = LoggerFactory.getLogger(BrowserPool.class);
+
+	private final Supplier<BrowserType.LaunchOptions> launchOptions;
+
+	private final int maxSize;
+
+	private final int maxUses;
+
+	private final Duration idleTimeout;
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private final Condition released = lock.newCondition();
+
+	/**
+	 * 空闲的浏览器，最近归还的在前面
+	 */
+	private final Deque<PooledBrowser> idle = new ArrayDeque<>();
+
+	/**
+	 * 已启动和正在启动的浏览器数量
+	 */
+	private int size;
+
+	private boolean closed;
+
+	private final ScheduledExecutorService idleReaper;
+
+	public BrowserPool(Supplier<BrowserType.LaunchOptions> launchOptions, int maxSize, int maxUses,
+			Duration idleTimeout) {
+		if (maxSize <= 0 || maxUses <= 0) {
+			throw new IllegalArgumentException("maxSize and maxUses must be positive");
+		}
+		this.launchOptions = launchOptions;
+		this.maxSize = maxSize;
+		this.maxUses = maxUses;
+		this.idleTimeout = idleTimeout;
+		this.idleReaper = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "browser-pool-reaper");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long period = Math.max(1, Math.min(idleTimeout.toSeconds(), 30));
+		this.idleReaper.scheduleWithFixedDelay(this::closeIdleBrowsers, period, period, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * 借出一个浏览器并创建新的上下文，池满时最多等待 timeout
+	 */
+	public Lease acquire(Supplier<Browser.NewContextOptions> contextOptions, Duration timeout)
+			throws InterruptedException, TimeoutException {
+		PooledBrowser pooled = null;
+		long remaining = timeout.toNanos();
+		lock.lock();
+		try {
+			while (pooled == null) {
+				if (closed) {
+					throw new IllegalStateException("Browser pool is closed");
+				}
+				PooledBrowser candidate = idle.pollFirst();
+				if (candidate != null) {
+					if (candidate.isConnected()) {
+						pooled = candidate;
+					}
+					else {
+						log.warn("Discarding disconnected browser from pool");
+						size--;
+						candidate.close();
+					}
+					continue;
+				}
+				if (size < maxSize) {
+					size++;
+					break;
+				}
+				if (remaining <= 0) {
+					throw new TimeoutException("No browser available in pool after " + timeout.toSeconds() + "s");
+				}
+				remaining = released.awaitNanos(remaining);
+			}
+		}
+		finally {
+			lock.unlock();
+		}
+
+		if (pooled == null) {
+			try {
+				pooled = launch();
+			}
+			catch (RuntimeException e) {
+				discard(null);
+				throw e;
+			}
+		}
+		try {
+			BrowserContext context = pooled.browser.newContext(contextOptions.get());
+			pooled.uses++;
+			return new Lease(pooled, context);
+		}
+		catch (RuntimeException e) {
+			log.warn("Failed to create browser context, discarding browser: {}", e.getMessage());
+			discard(pooled);
+			throw e;
+		}
+	}
+
+	private PooledBrowser launch() {
+		long start = System.nanoTime();
+		Playwright playwright = Playwright.create();
+		try {
+			Browser browser = playwright.chromium().launch(launchOptions.get());
+			PooledBrowser pooled = new PooledBrowser(playwright, browser);
+			browser.onDisconnected(b -> pooled.disconnected = true);
+			log.info("Launched pooled browser in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+			return pooled;
+		}
+		catch (RuntimeException e) {
+			playwright.close();
+			throw e;
+		}
+	}
+
+	private void release(PooledBrowser pooled) {
+		if (!pooled.isConnected() || pooled.uses >= maxUses) {
+			log.info("Recycling browser after {} contexts, connected: {}", pooled.uses, pooled.isConnected());
+			discard(pooled);
+			return;
+		}
+		boolean closeNow;
+		lock.lock();
+		try {
+			closeNow = closed;
+			if (closeNow) {
+				size--;
+			}
+			else {
+				pooled.idleSince = System.nanoTime();
+				idle.addFirst(pooled);
+			}
+			released.signal();
+		}
+		finally {
+			lock.unlock();
+		}
+		if (closeNow) {
+			pooled.close();
+		}
+	}
+
+	/**
+	 * 释放一个浏览器的名额，让等待的计划可以启动新的浏览器
+	 */
+	private void discard(PooledBrowser pooled) {
+		lock.lock();
+		try {
+			size--;
+			released.signal();
+		}
+		finally {
+			lock.unlock();
+		}
+		if (pooled != null) {
+			pooled.close();
+		}
+	}
+
+	private void closeIdleBrowsers() {
+		List<PooledBrowser> expired = new ArrayList<>();
+		long now = System.nanoTime();
+		lock.lock();
+		try {
+			Iterator<PooledBrowser> iterator = idle.iterator();
+			while (iterator.hasNext()) {
+				PooledBrowser pooled = iterator.next();
+				if (now - pooled.idleSince >= idleTimeout.toNanos() || !pooled.isConnected()) {
+					iterator.remove();
+					size--;
+					expired.add(pooled);
+				}
+			}
+			if (!expired.isEmpty()) {
+				released.signalAll();
+			}
+		}
+		finally {
+			lock.unlock();
+		}
+		for (PooledBrowser pooled : expired) {
+			pooled.close();
+		}
+		if (!expired.isEmpty()) {
+			log.info("Closed {} idle browsers", expired.size());
+		}
+	}
+
+	/**
+	 * 已启动的浏览器数量，包括借出的
+	 */
+	public int size() {
+		lock.lock();
+		try {
+			return size;
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 关闭空闲的浏览器，借出的浏览器在归还时关闭
+	 */
+	@Override
+	public void close() {
+		List<PooledBrowser> toClose;
+		lock.lock();
+		try {
+			closed = true;
+			toClose = new ArrayList<>(idle);
+			size -= idle.size();
+			idle.clear();
+			released.signalAll();
+		}
+		finally {
+			lock.unlock();
+		}
+		idleReaper.shutdownNow();
+		for (PooledBrowser pooled : toClose) {
+			pooled.close();
+		}
+	}
+
+	private static final class PooledBrowser {
+
+		private final Playwright playwright;
+
+		private final Browser browser;
+
+		private volatile boolean disconnected;
+
+		private int uses;
+
+		private long idleSince;
+
+		PooledBrowser(Playwright playwright, Browser browser) {
+			this.playwright = playwright;
+			this.browser = browser;
+		}
+
+		boolean isConnected() {
+			return !disconnected && browser.isConnected();
+		}
+
+		void close() {
+			try {
+				browser.close();
+			}
+			catch (Exception e) {
+				log.info("Error closing pooled browser: {}", e.getMessage());
+			}
+			try {
+				playwright.close();
+			}
+			catch (Exception e) {
+				log.info("Error closing pooled playwright: {}", e.getMessage());
+			}
+		}
+
+	}
+
+	/**
+	 * 一个计划借出的浏览器和它独占的上下文，{@link #release()} 关闭上下文并把浏览器还给池
+	 */
+	public final class Lease {
+
+		private final PooledBrowser pooled;
+
+		private final BrowserContext context;
+
+		private final AtomicBoolean released = new AtomicBoolean();
+
+		private Lease(PooledBrowser pooled, BrowserContext context) {
+			this.pooled = pooled;
+			this.context = context;
+		}
+
+		public Playwright getPlaywright() {
+			return pooled.playwright;
+		}
+
+		public Browser getBrowser() {
+			return pooled.browser;
+		}
+
+		public BrowserContext getContext() {
+			return context;
+		}
+
+		public void release() {
+			if (!released.compareAndSet(false, true)) {
+				return;
+			}
+			try {
+				context.close();
+			}
+			catch (Exception e) {
+				log.info("Error closing browser context: {}", e.getMessage());
+			}
+			BrowserPool.this.release(pooled);
+		}
+
+	}
+
+}
@@ -15,10 +15,14 @@
  */
 package com.alibaba.cloud.ai.example.manus.tool.browser;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -47,6 +51,8 @@ public class ChromeDriverService {
 
 	private final Lock driverLock = new ReentrantLock();
 
+	private volatile BrowserPool browserPool;
+
 	private ManusProperties manusProperties;
 
 	// Initialize ObjectMapper instance
@@ -130,7 +136,7 @@ public class ChromeDriverService {
 		}
 
 		DriverWrapper currentDriver = drivers.get(planId);
-		if (currentDriver != null) {
+		if (currentDriver != null && isConnected(currentDriver)) {
 			return currentDriver;
 		}
 
@@ -138,32 +144,103 @@ public class ChromeDriverService {
 			driverLock.lock();
 			currentDriver = drivers.get(planId);
 			if (currentDriver != null) {
-				return currentDriver;
-			}
-			log.info("Creating new Playwright Browser instance for planId: {}", planId);
-			currentDriver = createNewDriver(); // createNewDriver will now pass sharedDir
-			if (currentDriver != null) { // Check if driver creation was successful
-				drivers.put(planId, currentDriver);
-			}
-			else {
-				// Handle the case where driver creation failed, e.g., log an error or
-				// throw an exception
-				log.error("Failed to create new driver for planId: {}. createNewDriver returned null.", planId);
-				// Optionally throw an exception to indicate failure to the caller
-				// throw new RuntimeException("Failed to create new driver for planId: " +
-				// planId);
+				if (isConnected(currentDriver)) {
+					return currentDriver;
+				}
+				log.warn("Browser of planId: {} is disconnected, creating a new one", planId);
+				drivers.remove(planId);
+				currentDriver.close();
 			}
 		}
 		finally {
 			driverLock.unlock();
 		}
 
+		// 从池中借浏览器可能需要等待，不持有全局锁，每个计划只由自己的线程创建 driver
+		long start = System.nanoTime();
+		if (Boolean.TRUE.equals(manusProperties.getBrowserPoolEnabled())) {
+			log.info("Creating new browser context from pool for planId: {}", planId);
+			currentDriver = createPooledDriver();
+		}
+		else {
+			log.info("Creating new Playwright Browser instance for planId: {}", planId);
+			currentDriver = createNewDriver(); // createNewDriver will now pass sharedDir
+		}
+		log.info("Browser for planId: {} ready in {} ms", planId,
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+		DriverWrapper existing = drivers.putIfAbsent(planId, currentDriver);
+		if (existing != null) {
+			currentDriver.close();
+			return existing;
+		}
 		return currentDriver;
 	}
 
+	private boolean isConnected(DriverWrapper driver) {
+		try {
+			return driver.getBrowser() == null || driver.getBrowser().isConnected();
+		}
+		catch (Exception e) {
+			return false;
+		}
+	}
+
+	private DriverWrapper createPooledDriver() {
+		BrowserPool.Lease lease;
+		try {
+			Duration timeout = Duration.ofSeconds(manusProperties.getBrowserRequestTimeout());
+			lease = getBrowserPool().acquire(this::newContextOptions, timeout);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Interrupted while waiting for a pooled browser", e);
+		}
+		catch (TimeoutException e) {
+			throw new RuntimeException("Failed to get a browser from pool", e);
+		}
+		try {
+			return new DriverWrapper(lease.getPlaywright(), lease.getBrowser(), lease.getContext().newPage(),
+					this.sharedDir, lease::release);
+		}
+		catch (RuntimeException e) {
+			lease.release();
+			throw e;
+		}
+	}
+
+	private BrowserPool getBrowserPool() {
+		BrowserPool pool = browserPool;
+		if (pool == null) {
+			driverLock.lock();
+			try {
+				pool = browserPool;
+				if (pool == null) {
+					pool = new BrowserPool(this::launchOptions, manusProperties.getBrowserPoolMaxSize(),
+							manusProperties.getBrowserPoolMaxUses(),
+							Duration.ofSeconds(manusProperties.getBrowserPoolIdleTimeout()));
+					browserPool = pool;
+				}
+			}
+			finally {
+				driverLock.unlock();
+			}
+		}
+		return pool;
+	}
+
+	private Browser.NewContextOptions newContextOptions() {
+		// 每个上下文使用自己的 User-Agent，和独立启动浏览器时一致
+		return new Browser.NewContextOptions().setUserAgent(getRandomUserAgent()).setLocale("zh-CN");
+	}
+
 	private void cleanupAllPlaywrightProcesses() {
 		try {
 			drivers.clear();
+			BrowserPool pool = browserPool;
+			if (pool != null) {
+				pool.close();
+			}
 			log.info("Successfully cleaned up all Playwright processes	");
 		}
 		catch (Exception e) {
@@ -185,23 +262,10 @@ public class ChromeDriverService {
 			if (playwright == null) {
 				playwright = Playwright.create();
 			}
-			BrowserType.LaunchOptions options = new BrowserType.LaunchOptions();
-
-			// 基础配置
-			options.setArgs(Arrays.asList("--remote-allow-origins=*", "--disable-blink-features=AutomationControlled",
-					"--disable-infobars", "--disable-notifications", "--disable-dev-shm-usage",
-					"--lang=zh-CN,zh,en-US,en", "--user-agent=" + getRandomUserAgent(), "--window-size=1920,1080" // 默认窗口大小
-			));
-
-			// 根据配置决定是否使用 headless 模式
-			if (manusProperties.getBrowserHeadless()) {
-				log.info("启用 Playwright headless 模式");
-				options.setHeadless(true);
-			}
-			else {
-				log.info("启用 Playwright 非 headless 模式");
-				options.setHeadless(false);
-			}
+			BrowserType.LaunchOptions options = launchOptions();
+			List<String> args = new ArrayList<>(options.args);
+			args.add("--user-agent=" + getRandomUserAgent());
+			options.setArgs(args);
 
 			Browser browser = playwright.chromium().launch(options);
 			log.info("Created new Playwright Browser instance with anti-detection");
@@ -222,6 +286,27 @@ public class ChromeDriverService {
 		}
 	}
 
+	private BrowserType.LaunchOptions launchOptions() {
+		BrowserType.LaunchOptions options = new BrowserType.LaunchOptions();
+
+		// 基础配置
+		options.setArgs(Arrays.asList("--remote-allow-origins=*", "--disable-blink-features=AutomationControlled",
+				"--disable-infobars", "--disable-notifications", "--disable-dev-shm-usage", "--lang=zh-CN,zh,en-US,en",
+				"--window-size=1920,1080" // 默认窗口大小
+		));
+
+		// 根据配置决定是否使用 headless 模式
+		if (manusProperties.getBrowserHeadless()) {
+			log.info("启用 Playwright headless 模式");
+			options.setHeadless(true);
+		}
+		else {
+			log.info("启用 Playwright 非 headless 模式");
+			options.setHeadless(false);
+		}
+		return options;
+	}
+
 	private String getRandomUserAgent() {
 		List<String> userAgents = Arrays.asList(
 				"Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36",
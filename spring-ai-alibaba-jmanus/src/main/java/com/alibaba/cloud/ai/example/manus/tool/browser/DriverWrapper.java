@@ -49,6 +49,11 @@ public class DriverWrapper {
 
 	private final Path cookiePath;
 
+	/**
+	 * 浏览器来自 {@link BrowserPool} 时，关闭时归还浏览器而不是关闭它
+	 */
+	private final Runnable releaseBrowser;
+
 	private static final ObjectMapper objectMapper = new ObjectMapper();
 
 	// Mixin class for Playwright Cookie deserialization
@@ -85,6 +90,12 @@ public class DriverWrapper {
 	}
 
 	public DriverWrapper(Playwright playwright, Browser browser, Page currentPage, String cookieDir) {
+		this(playwright, browser, currentPage, cookieDir, null);
+	}
+
+	public DriverWrapper(Playwright playwright, Browser browser, Page currentPage, String cookieDir,
+			Runnable releaseBrowser) {
+		this.releaseBrowser = releaseBrowser;
 		this.playwright = playwright;
 		this.currentPage = currentPage;
 		this.browser = browser;
@@ -196,6 +207,11 @@ public class DriverWrapper {
 
 	public void close() {
 		saveCookies();
+		if (this.releaseBrowser != null) {
+			// 关闭上下文和其中所有页面，浏览器留给下一个计划
+			this.releaseBrowser.run();
+			return;
+		}
 		if (this.currentPage != null) {
 			try {
 				this.currentPage.close();
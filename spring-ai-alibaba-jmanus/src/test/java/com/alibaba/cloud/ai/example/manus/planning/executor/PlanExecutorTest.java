@@ -0,0 +1,242 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.example.manus.planning.executor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.tool.ToolCallback;
+
+import com.alibaba.cloud.ai.example.manus.agent.AgentState;
+import com.alibaba.cloud.ai.example.manus.agent.BaseAgent;
+import com.alibaba.cloud.ai.example.manus.config.ManusProperties;
+import com.alibaba.cloud.ai.example.manus.dynamic.agent.entity.DynamicAgentEntity;
+import com.alibaba.cloud.ai.example.manus.dynamic.agent.service.AgentService;
+import com.alibaba.cloud.ai.example.manus.llm.LlmService;
+import com.alibaba.cloud.ai.example.manus.planning.model.vo.ExecutionContext;
+import com.alibaba.cloud.ai.example.manus.planning.model.vo.ExecutionPlan;
+import com.alibaba.cloud.ai.example.manus.planning.model.vo.ExecutionStep;
+import com.alibaba.cloud.ai.example.manus.recorder.PlanExecutionRecorder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * PlanExecutor 按依赖并行执行步骤的测试，智能体用 sleep 模拟耗时
+ */
+class PlanExecutorTest {
+
+	private static final Logger log = LoggerFactory.getLogger(PlanExecutorTest.class);
+
+	private static final long STEP_MILLIS = 300;
+
+	private final List<String> events = Collections.synchronizedList(new ArrayList<>());
+
+	private final AtomicInteger running = new AtomicInteger();
+
+	private final AtomicInteger maxRunning = new AtomicInteger();
+
+	private LlmService llmService;
+
+	private PlanExecutionRecorder recorder;
+
+	private ManusProperties manusProperties;
+
+	private AgentService agentService;
+
+	@BeforeEach
+	void setUp() {
+		llmService = mock(LlmService.class);
+		recorder = mock(PlanExecutionRecorder.class);
+		manusProperties = mock(ManusProperties.class);
+		when(manusProperties.getMaxSteps()).thenReturn(5);
+		agentService = mock(AgentService.class);
+		when(agentService.createDynamicBaseAgent(anyString(), anyString(), anyMap()))
+			.thenAnswer(invocation -> new SleepingAgent(invocation.getArgument(0), invocation.getArgument(2)));
+	}
+
+	@Test
+	void runsIndependentStepsConcurrently() {
+		ExecutionContext context = context(step(0, "search", List.of()), step(1, "browser", List.of()),
+				step(2, "writer", List.of()), step(3, "summary", List.of(0, 1, 2)));
+
+		long elapsed = execute(context, 3);
+
+		// 三个独立步骤同时执行，总耗时约为两个步骤
+		log.info("Parallel plan of 4 steps took {} ms, sequential takes about {} ms", elapsed, 4 * STEP_MILLIS);
+		assertTrue(elapsed < 3 * STEP_MILLIS, "elapsed " + elapsed);
+		assertEquals(3, maxRunning.get());
+		assertEquals(List.of("start 3", "end 3"), events.subList(6, 8));
+		assertResultsInStepOrder(context);
+	}
+
+	@Test
+	void respectsParallelismLimitAndDependencies() {
+		ExecutionContext context = context(step(0, "search", List.of()), step(1, "browser", List.of()),
+				step(2, "writer", List.of()), step(3, "coder", List.of(0)), step(4, "summary", null));
+
+		execute(context, 2);
+
+		assertEquals(2, maxRunning.get());
+		assertTrue(events.indexOf("end 0") < events.indexOf("start 3"));
+		// 未声明依赖的步骤依赖前一个步骤
+		assertTrue(events.indexOf("end 3") < events.indexOf("start 4"));
+		assertResultsInStepOrder(context);
+	}
+
+	@Test
+	void doesNotRunStepsOfTheSameAgentConcurrently() {
+		ExecutionContext context = context(step(0, "browser", List.of()), step(1, "browser", List.of()),
+				step(2, "search", List.of()));
+
+		execute(context, 3);
+
+		assertEquals(2, maxRunning.get());
+		assertTrue(events.indexOf("end 0") < events.indexOf("start 1"));
+		assertResultsInStepOrder(context);
+	}
+
+	@Test
+	void runsStepsSequentiallyWithoutDeclaredDependencies() {
+		ExecutionContext context = context(step(0, "search", null), step(1, "browser", null), step(2, "writer", null));
+
+		long elapsed = execute(context, 3);
+
+		assertTrue(elapsed >= 3 * STEP_MILLIS, "elapsed " + elapsed);
+		assertEquals(1, maxRunning.get());
+		assertEquals(List.of("start 0", "end 0", "start 1", "end 1", "start 2", "end 2"), events);
+	}
+
+	private long execute(ExecutionContext context, int maxParallelSteps) {
+		List<DynamicAgentEntity> agents = new ArrayList<>();
+		for (ExecutionStep step : context.getPlan().getSteps()) {
+			DynamicAgentEntity agent = new DynamicAgentEntity();
+			agent.setAgentName(agentName(step));
+			agents.add(agent);
+		}
+		PlanExecutor executor = new PlanExecutor(agents, recorder, agentService, llmService, maxParallelSteps);
+		long start = System.nanoTime();
+		executor.executeAllSteps(context);
+		long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		assertTrue(context.isSuccess());
+		return elapsed;
+	}
+
+	private static void assertResultsInStepOrder(ExecutionContext context) {
+		List<ExecutionStep> steps = context.getPlan().getSteps();
+		for (int i = 0; i < steps.size(); i++) {
+			assertEquals(i, steps.get(i).getStepIndex());
+			assertEquals("result of step " + i, steps.get(i).getResult());
+			assertEquals(AgentState.COMPLETED, steps.get(i).getStatus());
+		}
+	}
+
+	private static ExecutionContext context(ExecutionStep... steps) {
+		ExecutionPlan plan = new ExecutionPlan("plan-test", "test");
+		for (ExecutionStep step : steps) {
+			plan.addStep(step);
+		}
+		ExecutionContext context = new ExecutionContext();
+		context.setPlanId(plan.getPlanId());
+		context.setPlan(plan);
+		context.setUserRequest("test");
+		return context;
+	}
+
+	private static ExecutionStep step(int index, String agent, List<Integer> dependsOn) {
+		ExecutionStep step = new ExecutionStep();
+		step.setStepIndex(index);
+		step.setStepRequirement("[" + agent + "] step " + index);
+		step.setDependsOn(dependsOn);
+		return step;
+	}
+
+	private static String agentName(ExecutionStep step) {
+		String requirement = step.getStepRequirement();
+		return requirement.substring(1, requirement.indexOf(']'));
+	}
+
+	private class SleepingAgent extends BaseAgent {
+
+		private final String name;
+
+		SleepingAgent(String name, Map<String, Object> initSettings) {
+			super(PlanExecutorTest.this.llmService, recorder, manusProperties, initSettings);
+			this.name = name;
+		}
+
+		@Override
+		public String run() {
+			int current = running.incrementAndGet();
+			maxRunning.accumulateAndGet(current, Math::max);
+			events.add("start " + getStepIndex());
+			try {
+				Thread.sleep(STEP_MILLIS);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			events.add("end " + getStepIndex());
+			running.decrementAndGet();
+			setState(AgentState.COMPLETED);
+			return "result of step " + getStepIndex();
+		}
+
+		@Override
+		protected AgentExecResult step() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void clearUp(String planId) {
+		}
+
+		@Override
+		public String getName() {
+			return name;
+		}
+
+		@Override
+		public String getDescription() {
+			return name;
+		}
+
+		@Override
+		protected Message getNextStepWithEnvMessage() {
+			return null;
+		}
+
+		@Override
+		public List<ToolCallback> getToolCallList() {
+			return List.of();
+		}
+
+	}
+
+}
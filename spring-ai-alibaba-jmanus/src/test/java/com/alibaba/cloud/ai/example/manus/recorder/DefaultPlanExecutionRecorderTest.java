@@ -0,0 +1,187 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.example.manus.recorder;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.alibaba.cloud.ai.example.manus.config.ManusProperties;
+import com.alibaba.cloud.ai.example.manus.recorder.entity.AgentExecutionRecord;
+import com.alibaba.cloud.ai.example.manus.recorder.entity.PlanExecutionRecord;
+import com.alibaba.cloud.ai.example.manus.recorder.entity.PlanExecutionRecordEntity;
+import com.alibaba.cloud.ai.example.manus.recorder.repository.PlanExecutionRecordRepository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * DefaultPlanExecutionRecorder 的内存保留、清理和事件推送测试
+ */
+class DefaultPlanExecutionRecorderTest {
+
+	private PlanExecutionRecordRepository repository;
+
+	private ManusProperties manusProperties;
+
+	private DefaultPlanExecutionRecorder recorder;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(PlanExecutionRecordRepository.class);
+		manusProperties = mock(ManusProperties.class);
+		when(manusProperties.getPlanRecordMaxRetained()).thenReturn(100);
+		when(manusProperties.getPlanRecordRetention()).thenReturn(30);
+		recorder = new DefaultPlanExecutionRecorder(repository, manusProperties);
+		recorder.start();
+	}
+
+	@AfterEach
+	void tearDown() {
+		recorder.shutdown();
+	}
+
+	@Test
+	void completedPlansBeyondMaxRetainedAreEvictedOldestFirst() throws Exception {
+		when(manusProperties.getPlanRecordMaxRetained()).thenReturn(2);
+		completedPlan("plan-1");
+		Thread.sleep(5);
+		completedPlan("plan-2");
+		Thread.sleep(5);
+		PlanExecutionRecord running = new PlanExecutionRecord("plan-3");
+		recorder.recordPlanExecution(running);
+
+		waitUntil(() -> recorder.getExecutionRecord("plan-1") == null);
+
+		assertNotNull(recorder.getExecutionRecord("plan-2"));
+		assertSame(running, recorder.getExecutionRecord("plan-3"));
+		verify(repository, timeout(2000).atLeastOnce()).save(any(PlanExecutionRecordEntity.class));
+	}
+
+	@Test
+	void expiredCompletedPlansAreEvictedAndRunningPlansKept() {
+		when(manusProperties.getPlanRecordRetention()).thenReturn(0);
+		completedPlan("done");
+		PlanExecutionRecord running = new PlanExecutionRecord("running");
+		recorder.recordPlanExecution(running);
+
+		recorder.evictPlans();
+
+		assertNull(recorder.getExecutionRecord("done"));
+		assertSame(running, recorder.getExecutionRecord("running"));
+		verify(repository, timeout(2000).atLeastOnce()).save(any(PlanExecutionRecordEntity.class));
+	}
+
+	@Test
+	void plansThatFailToPersistStayInMemory() {
+		when(manusProperties.getPlanRecordRetention()).thenReturn(0);
+		when(repository.save(any(PlanExecutionRecordEntity.class))).thenThrow(new IllegalStateException("db down"));
+		PlanExecutionRecord done = completedPlan("done");
+
+		recorder.evictPlans();
+
+		assertSame(done, recorder.getExecutionRecord("done"));
+	}
+
+	@Test
+	void subscribersReceiveSnapshotThenEventsInOrder() throws Exception {
+		PlanExecutionRecord record = new PlanExecutionRecord("plan");
+		recorder.recordPlanExecution(record);
+		BlockingQueue<PlanExecutionEvent> events = new LinkedBlockingQueue<>();
+		recorder.subscribe("plan", events::add);
+		assertEquals(PlanExecutionEvent.SNAPSHOT, events.poll(2, TimeUnit.SECONDS).type());
+
+		AgentExecutionRecord agentRecord = new AgentExecutionRecord();
+		recorder.recordAgentExecution("plan", agentRecord);
+		recorder.recordPlanCompletion("plan", "finished");
+
+		PlanExecutionEvent agent = events.poll(2, TimeUnit.SECONDS);
+		PlanExecutionEvent plan = events.poll(2, TimeUnit.SECONDS);
+		PlanExecutionEvent complete = events.poll(2, TimeUnit.SECONDS);
+		assertEquals(List.of(PlanExecutionEvent.AGENT, PlanExecutionEvent.PLAN, PlanExecutionEvent.COMPLETE),
+				List.of(agent.type(), plan.type(), complete.type()));
+		assertTrue(agent.sequence() < plan.sequence() && plan.sequence() < complete.sequence());
+		assertEquals("finished", complete.data());
+	}
+
+	@Test
+	void slowSubscriberDoesNotBlockOthersOrPersistence() throws Exception {
+		recorder.recordPlanExecution(new PlanExecutionRecord("plan"));
+		CountDownLatch release = new CountDownLatch(1);
+		recorder.subscribe("plan", event -> {
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		BlockingQueue<PlanExecutionEvent> events = new LinkedBlockingQueue<>();
+		recorder.subscribe("plan", events::add);
+		assertEquals(PlanExecutionEvent.SNAPSHOT, events.poll(2, TimeUnit.SECONDS).type());
+
+		recorder.recordPlanCompletion("plan", "finished");
+
+		assertEquals(PlanExecutionEvent.PLAN, events.poll(2, TimeUnit.SECONDS).type());
+		assertEquals(PlanExecutionEvent.COMPLETE, events.poll(2, TimeUnit.SECONDS).type());
+		verify(repository, timeout(2000)).save(any(PlanExecutionRecordEntity.class));
+		release.countDown();
+	}
+
+	@Test
+	void unsubscribedListenersStopReceivingEvents() throws Exception {
+		recorder.recordPlanExecution(new PlanExecutionRecord("plan"));
+		BlockingQueue<PlanExecutionEvent> events = new LinkedBlockingQueue<>();
+		Runnable unsubscribe = recorder.subscribe("plan", events::add);
+		assertEquals(PlanExecutionEvent.SNAPSHOT, events.poll(2, TimeUnit.SECONDS).type());
+
+		unsubscribe.run();
+		recorder.recordPlanCompletion("plan", "finished");
+
+		assertNull(events.poll(300, TimeUnit.MILLISECONDS));
+	}
+
+	private PlanExecutionRecord completedPlan(String planId) {
+		PlanExecutionRecord record = new PlanExecutionRecord(planId);
+		recorder.recordPlanExecution(record);
+		recorder.recordPlanCompletion(planId, "done");
+		return record;
+	}
+
+	private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 2000;
+		while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+		}
+		assertTrue(condition.getAsBoolean());
+	}
+
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.example.manus.tool.browser;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserType;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Playwright;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * BrowserPool 的测试，页面来自本地的 HTML 服务，不访问外网
+ */
+@Disabled("仅用于本地测试，需要安装 Playwright 浏览器，CI 环境跳过")
+class BrowserPoolTest {
+
+	private static final Logger log = LoggerFactory.getLogger(BrowserPoolTest.class);
+
+	private static final Duration ACQUIRE_TIMEOUT = Duration.ofSeconds(60);
+
+	private static final String FIXTURE_HTML = """
+			<!DOCTYPE html>
+			<html>
+			<head><title>jmanus fixture</title></head>
+			<body><h1>fixture</h1><a href="/login">login</a><input id="query" type="text"></body>
+			</html>
+			""";
+
+	private static HttpServer fixtureServer;
+
+	private static String baseUrl;
+
+	@BeforeAll
+	static void startFixtureServer() throws IOException {
+		fixtureServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		fixtureServer.createContext("/", exchange -> respond(exchange, FIXTURE_HTML));
+		fixtureServer.createContext("/login", exchange -> {
+			exchange.getResponseHeaders().add("Set-Cookie", "session=plan; Path=/");
+			respond(exchange, FIXTURE_HTML);
+		});
+		fixtureServer.start();
+		baseUrl = "http://127.0.0.1:" + fixtureServer.getAddress().getPort();
+	}
+
+	@AfterAll
+	static void stopFixtureServer() {
+		fixtureServer.stop(0);
+	}
+
+	private static void respond(HttpExchange exchange, String html) throws IOException {
+		byte[] body = html.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "text/html; charset=utf-8");
+		exchange.sendResponseHeaders(200, body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+
+	private static BrowserType.LaunchOptions launchOptions() {
+		return new BrowserType.LaunchOptions().setHeadless(true);
+	}
+
+	@Test
+	void reusesBrowserWithIsolatedContexts() throws Exception {
+		try (BrowserPool pool = new BrowserPool(BrowserPoolTest::launchOptions, 2, 10, Duration.ofMinutes(1))) {
+			BrowserPool.Lease first = pool.acquire(Browser.NewContextOptions::new, ACQUIRE_TIMEOUT);
+			Page page = first.getContext().newPage();
+			page.navigate(baseUrl + "/login");
+			assertEquals("jmanus fixture", page.title());
+			assertFalse(first.getContext().cookies().isEmpty());
+			Browser browser = first.getBrowser();
+			first.release();
+
+			BrowserPool.Lease second = pool.acquire(Browser.NewContextOptions::new, ACQUIRE_TIMEOUT);
+			assertSame(browser, second.getBrowser());
+			assertTrue(second.getContext().cookies().isEmpty());
+			second.release();
+			assertEquals(1, pool.size());
+		}
+	}
+
+	@Test
+	void recyclesBrowserAfterMaxUses() throws Exception {
+		try (BrowserPool pool = new BrowserPool(BrowserPoolTest::launchOptions, 1, 2, Duration.ofMinutes(1))) {
+			BrowserPool.Lease lease = pool.acquire(Browser.NewContextOptions::new, ACQUIRE_TIMEOUT);
+			Browser browser = lease.getBrowser();
+			lease.release();
+			lease = pool.acquire(Browser.NewContextOptions::new, ACQUIRE_TIMEOUT);
+			assertSame(browser, lease.getBrowser());
+			lease.release();
+
+			lease = pool.acquire(Browser.NewContextOptions::new, ACQUIRE_TIMEOUT);
+			assertNotSame(browser, lease.getBrowser());
+			assertFalse(browser.isConnected());
+			lease.release();
+		}
+	}
+
+	@Test
+	void relaunchesDisconnectedBrowser() throws Exception {
+		try (BrowserPool pool = new BrowserPool(BrowserPoolTest::launchOptions, 1, 10, Duration.ofMinutes(1))) {
+			BrowserPool.Lease lease = pool.acquire(Browser.NewContextOptions::new, ACQUIRE_TIMEOUT);
+			Browser crashed = lease.getBrowser();
+			crashed.close();
+			lease.release();
+
+			lease = pool.acquire(Browser.NewContextOptions::new, ACQUIRE_TIMEOUT);
+			assertNotSame(crashed, lease.getBrowser());
+			assertTrue(lease.getBrowser().isConnected());
+			Page page = lease.getContext().newPage();
+			page.navigate(baseUrl);
+			assertEquals("jmanus fixture", page.title());
+			lease.release();
+			assertEquals(1, pool.size());
+		}
+	}
+
+	@Test
+	void closesIdleBrowsers() throws Exception {
+		try (BrowserPool pool = new BrowserPool(BrowserPoolTest::launchOptions, 1, 10, Duration.ofSeconds(1))) {
+			BrowserPool.Lease lease = pool.acquire(Browser.NewContextOptions::new, ACQUIRE_TIMEOUT);
+			Browser browser = lease.getBrowser();
+			lease.release();
+			assertEquals(1, pool.size());
+
+			Thread.sleep(3000);
+			assertEquals(0, pool.size());
+			assertFalse(browser.isConnected());
+		}
+	}
+
+	/**
+	 * 对比计划启动(拿到浏览器并打开第一个页面)的耗时
+	 */
+	@Test
+	void measuresPlanStartLatency() throws Exception {
+		int plans = 5;
+
+		long unpooled = 0;
+		for (int i = 0; i < plans; i++) {
+			long start = System.nanoTime();
+			try (Playwright playwright = Playwright.create()) {
+				Browser browser = playwright.chromium().launch(launchOptions());
+				Page page = browser.newPage();
+				page.navigate(baseUrl);
+				unpooled += System.nanoTime() - start;
+				browser.close();
+			}
+		}
+
+		long pooled = 0;
+		try (BrowserPool pool = new BrowserPool(BrowserPoolTest::launchOptions, 1, 50, Duration.ofMinutes(1))) {
+			for (int i = 0; i < plans; i++) {
+				long start = System.nanoTime();
+				BrowserPool.Lease lease = pool.acquire(Browser.NewContextOptions::new, ACQUIRE_TIMEOUT);
+				Page page = lease.getContext().newPage();
+				page.navigate(baseUrl);
+				pooled += System.nanoTime() - start;
+				lease.release();
+			}
+		}
+
+		long unpooledAverage = TimeUnit.NANOSECONDS.toMillis(unpooled / plans);
+		long pooledAverage = TimeUnit.NANOSECONDS.toMillis(pooled / plans);
+		log.info("Plan start latency over {} plans: {} ms without pool, {} ms with pool", plans, unpooledAverage,
+				pooledAverage);
+		assertTrue(pooled < unpooled, List.of(unpooledAverage, pooledAverage).toString());
+	}
+
+}
@@ -40,6 +40,11 @@ export class CommonApiService {
     }
   }
 
+  // 订阅执行记录的 SSE 推送：先收到 snapshot 完整记录，之后只收到变化的部分
+  public static streamDetails(planId: string): EventSource {
+    return new EventSource(`${this.BASE_URL}/stream/${planId}`)
+  }
+
   // 提交用户表单输入
   public static async submitFormInput(planId: string, formData: any): Promise<any> {
     const response = await fetch(`${this.BASE_URL}/submit-input/${planId}`, {
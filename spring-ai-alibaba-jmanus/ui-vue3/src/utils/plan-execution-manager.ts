@@ -60,6 +60,9 @@ export class PlanExecutionManager {
   // 事件回调
   private callbacks: EventCallbacks = {}
 
+  // 执行记录的 SSE 连接，不可用时退回到轮询
+  private eventSource: EventSource | null = null
+
   private constructor() {
     // 移除 window 事件监听器初始化
     console.log('[PlanExecutionManager] Initialized with callback-based event system')
@@ -196,7 +199,7 @@ export class PlanExecutionManager {
       planId: planId,
       query: query
     })
-    this.startPolling()
+    this.startStreaming()
   }
 
   /**
@@ -205,6 +208,7 @@ export class PlanExecutionManager {
   private handlePlanCompletion(details: PlanDetails): void {
     this.emitPlanCompleted({ ...details, planId: this.state.activePlanId })
     this.state.lastSequenceSize = 0
+    this.stopStreaming()
     this.stopPolling()
 
     // 延迟删除计划执行记录
@@ -287,6 +291,118 @@ export class PlanExecutionManager {
     }
   }
 
+  /**
+   * 订阅计划执行记录的推送，在本地合并 snapshot 之后的增量，连接失败时退回到轮询
+   */
+  public startStreaming(): void {
+    const planId = this.state.activePlanId
+    if (!planId) return
+    this.stopStreaming()
+    if (typeof EventSource === 'undefined') {
+      this.startPolling()
+      return
+    }
+
+    const source = CommonApiService.streamDetails(planId)
+    this.eventSource = source
+    let details: any = null
+    let received = false
+
+    const on = (type: string, merge: (data: any) => void) => {
+      source.addEventListener(type, (event: MessageEvent) => {
+        received = true
+        merge(JSON.parse(event.data))
+        if (details && source === this.eventSource) {
+          this.handleStreamedDetails(details)
+        }
+      })
+    }
+
+    on('snapshot', data => {
+      details = data
+    })
+    on('plan', data => {
+      details = { agentExecutionSequence: [], ...details, ...data }
+    })
+    on('agent', data => {
+      if (!details) return
+      const agents = details.agentExecutionSequence || (details.agentExecutionSequence = [])
+      const index = agents.findIndex((agent: any) => agent.id === data.id)
+      if (index >= 0) {
+        agents[index] = { ...agents[index], ...data }
+      } else {
+        // 并行执行的步骤按步骤序号排列
+        let position = agents.length
+        while (position > 0 && data.stepIndex != null && agents[position - 1].stepIndex > data.stepIndex) {
+          position--
+        }
+        agents.splice(position, 0, { thinkActSteps: [], ...data })
+      }
+      details = { ...details }
+    })
+    on('thinkAct', data => {
+      const agent = details?.agentExecutionSequence?.find((a: any) => a.id === data.parentExecutionId)
+      if (!agent) return
+      const steps = agent.thinkActSteps || (agent.thinkActSteps = [])
+      const index = steps.findIndex((step: any) => step.id === data.id)
+      if (index >= 0) {
+        steps[index] = data
+      } else {
+        steps.push(data)
+      }
+      details = { ...details }
+    })
+    on('userInput', data => {
+      if (details) {
+        details = { ...details, userInputWaitState: data }
+      }
+    })
+    on('complete', () => {
+      this.stopStreaming()
+    })
+
+    source.onerror = () => {
+      if (source !== this.eventSource) return
+      // 连接断开时浏览器会自动重连并重新收到 snapshot，从未建立过连接时改为轮询
+      if (!received || source.readyState === EventSource.CLOSED) {
+        console.warn('[PlanExecutionManager] Plan stream unavailable, falling back to polling')
+        this.stopStreaming()
+        this.startPolling()
+      }
+    }
+    console.log('[PlanExecutionManager] Started streaming')
+  }
+
+  /**
+   * 处理推送合并后的计划详情，计划刚创建还没有步骤时继续等待
+   */
+  private handleStreamedDetails(details: any): void {
+    if (!details.steps || details.steps.length === 0) {
+      if (details.completed) {
+        this.emitPlanUpdate({ ...details, planId: this.state.activePlanId })
+        this.handlePlanCompletion(details)
+      }
+      return
+    }
+
+    this.emitPlanUpdate({ ...details, planId: this.state.activePlanId })
+
+    if (details.completed) {
+      this.handlePlanCompletion(details)
+    }
+  }
+
+  /**
+   * 关闭执行记录的推送连接
+   */
+  public stopStreaming(): void {
+    if (this.eventSource) {
+      this.eventSource.close()
+      this.eventSource = null
+      console.log('[PlanExecutionManager] Stopped streaming')
+    }
+  }
+
   /**
    * 开始轮询计划执行状态
    */
@@ -325,6 +441,7 @@ export class PlanExecutionManager {
    * 清理资源
    */
   public cleanup(): void {
+    this.stopStreaming()
     this.stopPolling()
     this.state.activePlanId = null
     this.state.lastSequenceSize = 0
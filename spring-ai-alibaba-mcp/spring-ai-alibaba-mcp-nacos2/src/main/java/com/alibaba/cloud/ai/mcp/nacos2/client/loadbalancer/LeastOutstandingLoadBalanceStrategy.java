@@ -0,0 +1,49 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.mcp.nacos2.client.loadbalancer;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Chooses the instance with the fewest requests in flight, ties are broken in turn so
+ * that idle instances share the load evenly.
+ *
+ * @since 1.0.0.2
+ */
+public class LeastOutstandingLoadBalanceStrategy implements LoadBalanceStrategy {
+
+	private final AtomicInteger index = new AtomicInteger();
+
+	@Override
+	public <T> McpEndpoint<T> choose(List<McpEndpoint<T>> endpoints, long now) {
+		int size = endpoints.size();
+		int start = Math.floorMod(index.getAndIncrement(), size);
+		McpEndpoint<T> best = null;
+		int bestOutstanding = Integer.MAX_VALUE;
+		for (int i = 0; i < size; i++) {
+			McpEndpoint<T> endpoint = endpoints.get((start + i) % size);
+			int outstanding = endpoint.getOutstanding();
+			if (outstanding < bestOutstanding) {
+				best = endpoint;
+				bestOutstanding = outstanding;
+			}
+		}
+		return best;
+	}
+
+}
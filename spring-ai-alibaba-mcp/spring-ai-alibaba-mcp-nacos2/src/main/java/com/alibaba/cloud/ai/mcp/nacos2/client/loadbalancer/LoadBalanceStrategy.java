@@ -0,0 +1,70 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.mcp.nacos2.client.loadbalancer;
+
+import java.util.List;
+
+/**
+ * Picks the MCP server instance that serves the next request.
+ *
+ * @since 1.0.0.2
+ */
+public interface LoadBalanceStrategy {
+
+	/**
+	 * Choose one of the endpoints.
+	 * @param endpoints the candidates, never empty, ejected instances are already
+	 * filtered out
+	 * @param now the current {@link System#nanoTime()}
+	 */
+	<T> McpEndpoint<T> choose(List<McpEndpoint<T>> endpoints, long now);
+
+	static LoadBalanceStrategy of(Type type) {
+		return switch (type) {
+			case ROUND_ROBIN -> new RoundRobinLoadBalanceStrategy();
+			case LEAST_OUTSTANDING -> new LeastOutstandingLoadBalanceStrategy();
+			case EWMA -> new EwmaLoadBalanceStrategy();
+			case WEIGHTED -> new WeightedLoadBalanceStrategy();
+		};
+	}
+
+	enum Type {
+
+		/**
+		 * Every instance in turn.
+		 */
+		ROUND_ROBIN,
+
+		/**
+		 * The instance with the fewest requests in flight.
+		 */
+		LEAST_OUTSTANDING,
+
+		/**
+		 * The instance with the lowest moving average latency, weighted by the requests
+		 * in flight.
+		 */
+		EWMA,
+
+		/**
+		 * Random by the Nacos instance weight.
+		 */
+		WEIGHTED
+
+	}
+
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.mcp.nacos2.client.loadbalancer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A client of one MCP server instance together with the statistics used for load
+ * balancing: requests in flight, a peak-sensitive moving average of the latency and the
+ * consecutive failures that lead to passive ejection.
+ *
+ * @param <T> the type of the client
+ * @since 1.0.0.2
+ */
+public final class McpEndpoint<T> {
+
+	/**
+	 * Time constant of the latency average, an idle instance halves its average in about
+	 * seven seconds.
+	 */
+	private static final double DECAY_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+	/**
+	 * Cost of an instance without a measured latency that already has requests in flight,
+	 * so that a new instance is not flooded before its first response.
+	 */
+	private static final double PENALTY = TimeUnit.SECONDS.toNanos(60);
+
+	private static final int MAX_EJECTION_MULTIPLIER = 10;
+
+	private final String id;
+
+	private final T client;
+
+	private final double weight;
+
+	private final AtomicInteger outstanding = new AtomicInteger();
+
+	private double latencyNanos;
+
+	private long latencyUpdatedAt;
+
+	private int consecutiveFailures;
+
+	private int ejections;
+
+	private long ejectedUntil;
+
+	public McpEndpoint(String id, T client, double weight) {
+		this.id = id;
+		this.client = client;
+		this.weight = weight;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public T getClient() {
+		return client;
+	}
+
+	public double getWeight() {
+		return weight;
+	}
+
+	public int getOutstanding() {
+		return outstanding.get();
+	}
+
+	void requestStarted() {
+		outstanding.incrementAndGet();
+	}
+
+	void requestFinished() {
+		outstanding.decrementAndGet();
+	}
+
+	/**
+	 * The latency average decayed by the idle time, multiplied by the requests in flight
+	 * plus one.
+	 */
+	public synchronized double getLoadCost(long now) {
+		int inFlight = outstanding.get();
+		if (latencyNanos == 0) {
+			return inFlight == 0 ? 0 : PENALTY + inFlight;
+		}
+		return decayedLatency(now) * (inFlight + 1);
+	}
+
+	synchronized void recordSuccess(long latency, long now) {
+		if (latency > latencyNanos) {
+			latencyNanos = latency;
+		}
+		else {
+			double weight = Math.exp(-(now - latencyUpdatedAt) / DECAY_NANOS);
+			latencyNanos = latencyNanos * weight + latency * (1 - weight);
+		}
+		latencyUpdatedAt = now;
+		consecutiveFailures = 0;
+		ejections = 0;
+	}
+
+	/**
+	 * @return whether the instance got ejected by this failure
+	 */
+	synchronized boolean recordFailure(long now, int failureThreshold, long ejectionNanos) {
+		consecutiveFailures++;
+		if (consecutiveFailures < failureThreshold) {
+			return false;
+		}
+		consecutiveFailures = 0;
+		ejections = Math.min(ejections + 1, MAX_EJECTION_MULTIPLIER);
+		ejectedUntil = now + ejectionNanos * ejections;
+		return true;
+	}
+
+	public synchronized boolean isEjected(long now) {
+		return ejectedUntil - now > 0;
+	}
+
+	private double decayedLatency(long now) {
+		return latencyNanos * Math.exp(-Math.max(0, now - latencyUpdatedAt) / DECAY_NANOS);
+	}
+
+	@Override
+	public String toString() {
+		return "McpEndpoint{id='" + id + "', outstanding=" + outstanding.get() + "}";
+	}
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.mcp.nacos2.client.loadbalancer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Chooses MCP server instances with a {@link LoadBalanceStrategy} and records the outcome
+ * of each request. An instance that fails {@code failureThreshold} requests in a row is
+ * ejected for {@code ejectionTime}, repeated ejections last longer. When every candidate
+ * is ejected they are all used again rather than failing the request.
+ *
+ * @since 1.0.0.2
+ */
+public class McpLoadBalancer {
+
+	private static final Logger logger = LoggerFactory.getLogger(McpLoadBalancer.class);
+
+	public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+
+	public static final Duration DEFAULT_EJECTION_TIME = Duration.ofSeconds(30);
+
+	private final LoadBalanceStrategy strategy;
+
+	private final int failureThreshold;
+
+	private final long ejectionNanos;
+
+	public McpLoadBalancer(LoadBalanceStrategy strategy) {
+		this(strategy, DEFAULT_FAILURE_THRESHOLD, DEFAULT_EJECTION_TIME);
+	}
+
+	public McpLoadBalancer(LoadBalanceStrategy strategy, int failureThreshold, Duration ejectionTime) {
+		Assert.notNull(strategy, "strategy cannot be null");
+		Assert.isTrue(failureThreshold > 0, "failureThreshold must be positive");
+		Assert.notNull(ejectionTime, "ejectionTime cannot be null");
+		this.strategy = strategy;
+		this.failureThreshold = failureThreshold;
+		this.ejectionNanos = ejectionTime.toNanos();
+	}
+
+	public <T> McpEndpoint<T> choose(List<McpEndpoint<T>> endpoints) {
+		if (endpoints.isEmpty()) {
+			throw new IllegalStateException("No MCP server instance available");
+		}
+		long now = System.nanoTime();
+		List<McpEndpoint<T>> available = endpoints;
+		for (int i = 0; i < endpoints.size(); i++) {
+			if (endpoints.get(i).isEjected(now)) {
+				available = new ArrayList<>(endpoints.size());
+				for (McpEndpoint<T> endpoint : endpoints) {
+					if (!endpoint.isEjected(now)) {
+						available.add(endpoint);
+					}
+				}
+				break;
+			}
+		}
+		return strategy.choose(available.isEmpty() ? endpoints : available, now);
+	}
+
+	/**
+	 * Send a request to the chosen instance, counting it as in flight until it completes
+	 * and recording its latency or failure.
+	 */
+	public <T, R> Mono<R> execute(McpEndpoint<T> endpoint, Function<T, Mono<R>> request) {
+		return Mono.defer(() -> {
+			long start = System.nanoTime();
+			endpoint.requestStarted();
+			return request.apply(endpoint.getClient()).doOnSuccess(result -> {
+				long now = System.nanoTime();
+				endpoint.recordSuccess(now - start, now);
+			}).doOnError(error -> {
+				if (endpoint.recordFailure(System.nanoTime(), failureThreshold, ejectionNanos)) {
+					logger.warn("Ejected MCP server instance {} after {} consecutive failures, last error: {}",
+							endpoint.getId(), failureThreshold, error.getMessage());
+				}
+			}).doFinally(signal -> endpoint.requestFinished());
+		});
+	}
+
+	public <T, R> Mono<R> execute(List<McpEndpoint<T>> endpoints, Function<T, Mono<R>> request) {
+		return Mono.defer(() -> execute(choose(endpoints), request));
+	}
+
+}
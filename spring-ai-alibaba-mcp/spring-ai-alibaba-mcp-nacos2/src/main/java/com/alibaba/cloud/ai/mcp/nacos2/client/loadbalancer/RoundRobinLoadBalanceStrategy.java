@@ -0,0 +1,36 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.mcp.nacos2.client.loadbalancer;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Chooses every instance in turn, regardless of its load.
+ *
+ * @since 1.0.0.2
+ */
+public class RoundRobinLoadBalanceStrategy implements LoadBalanceStrategy {
+
+	private final AtomicInteger index = new AtomicInteger();
+
+	@Override
+	public <T> McpEndpoint<T> choose(List<McpEndpoint<T>> endpoints, long now) {
+		return endpoints.get(Math.floorMod(index.getAndIncrement(), endpoints.size()));
+	}
+
+}
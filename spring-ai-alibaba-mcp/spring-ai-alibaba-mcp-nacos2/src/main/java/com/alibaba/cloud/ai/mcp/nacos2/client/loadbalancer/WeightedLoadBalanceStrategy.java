@@ -0,0 +1,50 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.mcp.nacos2.client.loadbalancer;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Chooses an instance at random in proportion to its Nacos weight. Instances with a
+ * weight of zero only get traffic when all weights are zero.
+ *
+ * @since 1.0.0.2
+ */
+public class WeightedLoadBalanceStrategy implements LoadBalanceStrategy {
+
+	@Override
+	public <T> McpEndpoint<T> choose(List<McpEndpoint<T>> endpoints, long now) {
+		double total = 0;
+		for (McpEndpoint<T> endpoint : endpoints) {
+			total += endpoint.getWeight();
+		}
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		if (total <= 0) {
+			return endpoints.get(random.nextInt(endpoints.size()));
+		}
+		double point = random.nextDouble(total);
+		for (McpEndpoint<T> endpoint : endpoints) {
+			point -= endpoint.getWeight();
+			if (point < 0) {
+				return endpoint;
+			}
+		}
+		return endpoints.get(endpoints.size() - 1);
+	}
+
+}
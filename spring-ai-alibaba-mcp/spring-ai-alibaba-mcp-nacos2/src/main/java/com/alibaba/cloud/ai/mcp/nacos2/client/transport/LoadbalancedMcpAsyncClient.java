@@ -16,8 +16,10 @@
 
 package com.alibaba.cloud.ai.mcp.nacos2.client.transport;
 
+import com.alibaba.cloud.ai.mcp.nacos2.client.loadbalancer.LoadBalanceStrategy;
+import com.alibaba.cloud.ai.mcp.nacos2.client.loadbalancer.McpEndpoint;
+import com.alibaba.cloud.ai.mcp.nacos2.client.loadbalancer.McpLoadBalancer;
 import com.alibaba.cloud.ai.mcp.nacos2.registry.model.McpNacosConstant;
-import com.alibaba.cloud.ai.mcp.nacos2.registry.model.McpToolsInfo;
 import com.alibaba.nacos.api.exception.NacosException;
 import com.alibaba.nacos.api.naming.NamingService;
 import com.alibaba.nacos.api.naming.listener.Event;
@@ -26,7 +28,6 @@ import com.alibaba.nacos.api.naming.listener.NamingEvent;
 import com.alibaba.nacos.api.naming.pojo.Instance;
 import com.alibaba.nacos.client.config.NacosConfigService;
 import com.alibaba.nacos.common.utils.JacksonUtils;
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.modelcontextprotocol.client.McpAsyncClient;
 import io.modelcontextprotocol.client.McpClient;
@@ -44,11 +45,11 @@ import reactor.core.publisher.Mono;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
@@ -75,27 +76,45 @@ public class LoadbalancedMcpAsyncClient implements EventListener {
 
 	private final ObjectMapper objectMapper;
 
+	private final NacosMcpToolsCache toolsCache;
+
 	private final ApplicationContext applicationContext;
 
-	private final AtomicInteger index = new AtomicInteger(0);
+	private final McpLoadBalancer loadBalancer;
 
 	private Map<String, List<String>> md5ToToolsMap;
 
-	private Map<String, List<McpAsyncClient>> md5ToClientMap;
+	private Map<String, List<McpEndpoint<McpAsyncClient>>> md5ToClientMap;
+
+	/**
+	 * 工具名到提供该工具的实例，实例变化时重建，调用工具时直接读取
+	 */
+	private volatile Map<String, List<McpEndpoint<McpAsyncClient>>> toolToEndpointsMap = Map.of();
+
+	private volatile List<McpEndpoint<McpAsyncClient>> endpoints = List.of();
 
 	private List<Instance> instances;
 
 	public LoadbalancedMcpAsyncClient(String serviceName, String serviceGroup, NamingService namingService,
 			NacosConfigService nacosConfigService, ApplicationContext applicationContext) {
+		this(serviceName, serviceGroup, namingService, nacosConfigService, applicationContext,
+				new McpLoadBalancer(LoadBalanceStrategy.of(LoadBalanceStrategy.Type.ROUND_ROBIN)));
+	}
+
+	public LoadbalancedMcpAsyncClient(String serviceName, String serviceGroup, NamingService namingService,
+			NacosConfigService nacosConfigService, ApplicationContext applicationContext,
+			McpLoadBalancer loadBalancer) {
 		Assert.notNull(serviceName, "serviceName cannot be null");
 		Assert.notNull(serviceGroup, "serviceGroup cannot be null");
 		Assert.notNull(namingService, "namingService cannot be null");
 		Assert.notNull(nacosConfigService, "nacosConfigService cannot be null");
 		Assert.notNull(applicationContext, "applicationContext cannot be null");
+		Assert.notNull(loadBalancer, "loadBalancer cannot be null");
 
 		this.serviceName = serviceName;
 		this.nacosConfigService = nacosConfigService;
 		this.applicationContext = applicationContext;
+		this.loadBalancer = loadBalancer;
 
 		try {
 			this.namingService = namingService;
@@ -109,15 +128,18 @@ public class LoadbalancedMcpAsyncClient implements EventListener {
 		mcpAsyncClientConfigurer = this.applicationContext.getBean(McpAsyncClientConfigurer.class);
 		objectMapper = this.applicationContext.getBean(ObjectMapper.class);
 		webClientBuilderTemplate = this.applicationContext.getBean(WebClient.Builder.class);
+		toolsCache = new NacosMcpToolsCache(nacosConfigService, objectMapper,
+				this.serviceName + McpNacosConstant.TOOLS_CONFIG_SUFFIX, McpNacosConstant.TOOLS_GROUP, TIME_OUT_MS);
 	}
 
-	public void init() {
+	public synchronized void init() {
 		md5ToToolsMap = new ConcurrentHashMap<>();
 		md5ToClientMap = new ConcurrentHashMap<>();
 
 		for (Instance instance : instances) {
 			updateByAddInstance(instance);
 		}
+		rebuildIndex();
 	}
 
 	public void subscribe() {
@@ -131,17 +153,15 @@ public class LoadbalancedMcpAsyncClient implements EventListener {
 	}
 
 	public McpAsyncClient getMcpAsyncClient() {
-		List<McpAsyncClient> asynClients = getMcpAsyncClientList();
-		if (asynClients.isEmpty()) {
+		List<McpEndpoint<McpAsyncClient>> currentEndpoints = this.endpoints;
+		if (currentEndpoints.isEmpty()) {
 			throw new IllegalStateException("No McpAsyncClient available");
 		}
-		int currentIndex = index.getAndUpdate(index -> (index + 1) % asynClients.size());
-
-		return asynClients.get(currentIndex);
+		return loadBalancer.choose(currentEndpoints).getClient();
 	}
 
 	public List<McpAsyncClient> getMcpAsyncClientList() {
-		return md5ToClientMap.values().stream().flatMap(List::stream).toList();
+		return this.endpoints.stream().map(McpEndpoint::getClient).toList();
 	}
 
 	public String getServiceName() {
@@ -156,6 +176,13 @@ public class LoadbalancedMcpAsyncClient implements EventListener {
 		return this.instances;
 	}
 
+	/**
+	 * 工具列表缓存，可以读取命中次数
+	 */
+	public NacosMcpToolsCache getToolsCache() {
+		return this.toolsCache;
+	}
+
 	// ------------------------------------------------------------------------------------------------------------------------------------------------
 
 	public McpSchema.ServerCapabilities getServerCapabilities() {
@@ -175,6 +202,7 @@ public class LoadbalancedMcpAsyncClient implements EventListener {
 	}
 
 	public void close() {
+		toolsCache.close();
 		Iterator<McpAsyncClient> iterator = getMcpAsyncClientList().iterator();
 		while (iterator.hasNext()) {
 			McpAsyncClient mcpAsyncClient = iterator.next();
@@ -185,6 +213,7 @@ public class LoadbalancedMcpAsyncClient implements EventListener {
 	}
 
 	public Mono<Void> closeGracefully() {
+		toolsCache.close();
 		Iterator<McpAsyncClient> iterator = getMcpAsyncClientList().iterator();
 		List<Mono<Void>> closeMonos = new ArrayList<>();
 		while (iterator.hasNext()) {
@@ -222,15 +251,12 @@ public class LoadbalancedMcpAsyncClient implements EventListener {
 
 	public Mono<McpSchema.CallToolResult> callTool(McpSchema.CallToolRequest callToolRequest) {
 		String toolName = callToolRequest.name();
-		List<McpAsyncClient> asyncClients = new ArrayList<>();
-		md5ToToolsMap.forEach((md5, tools) -> {
-			if (tools.contains(toolName)) {
-				asyncClients.addAll(md5ToClientMap.get(md5));
-			}
-		});
-		int currentIndex = index.getAndUpdate(index -> (index + 1) % asyncClients.size());
-
-		return asyncClients.get(currentIndex).callTool(callToolRequest);
+		List<McpEndpoint<McpAsyncClient>> toolEndpoints = toolToEndpointsMap.getOrDefault(toolName,
+				Collections.emptyList());
+		if (toolEndpoints.isEmpty()) {
+			return Mono.error(new IllegalStateException("No McpAsyncClient available for tool: " + toolName));
+		}
+		return loadBalancer.execute(toolEndpoints, mcpAsyncClient -> mcpAsyncClient.callTool(callToolRequest));
 	}
 
 	public Mono<McpSchema.ListToolsResult> listTools() {
@@ -242,44 +268,7 @@ public class LoadbalancedMcpAsyncClient implements EventListener {
 	}
 
 	private Mono<McpSchema.ListToolsResult> listToolsInternal(String cursor) {
-		return loadConfig().flatMap(content -> parseConfig(content, cursor));
-	}
-
-	private Mono<String> loadConfig() {
-		return Mono.fromCallable(() -> {
-			String content = nacosConfigService.getConfig(this.serviceName + McpNacosConstant.TOOLS_CONFIG_SUFFIX,
-					McpNacosConstant.TOOLS_GROUP, TIME_OUT_MS);
-			if (content == null || content.isEmpty()) {
-				throw new RuntimeException(String.format("Empty tool config content for dataId: %s, group: %s",
-						this.serviceName + McpNacosConstant.TOOLS_CONFIG_SUFFIX, McpNacosConstant.TOOLS_GROUP));
-			}
-			return content;
-		}).onErrorMap(throwable -> {
-			throw new RuntimeException(String.format("Empty tool config content for dataId: %s, group: %s",
-					this.serviceName + McpNacosConstant.TOOLS_CONFIG_SUFFIX, McpNacosConstant.TOOLS_GROUP));
-		});
-	}
-
-	private Mono<McpSchema.ListToolsResult> parseConfig(String content, String cursor) {
-		return Mono.fromCallable(() -> {
-			try {
-				McpToolsInfo mcpToolsInfo = objectMapper.readValue(content, McpToolsInfo.class);
-				return new McpSchema.ListToolsResult(mcpToolsInfo.getTools(), cursor);
-			}
-			catch (JsonProcessingException e) {
-				logger.error("Failed to parse config for dataId: {}, group: {}",
-						this.serviceName + McpNacosConstant.TOOLS_CONFIG_SUFFIX, McpNacosConstant.TOOLS_GROUP, e);
-				throw new RuntimeException(
-						String.format("Failed to parse tool list, dataId: %s, group: %s\"",
-								this.serviceName + McpNacosConstant.TOOLS_CONFIG_SUFFIX, McpNacosConstant.TOOLS_GROUP),
-						e);
-			}
-		}).onErrorMap(throwable -> {
-			// 已处理过 JsonProcessingException，这里防止其他异常穿透
-			logger.error("Unexpected error during parsing tool config for dataId: {}, group: {}",
-					this.serviceName + McpNacosConstant.TOOLS_CONFIG_SUFFIX, McpNacosConstant.TOOLS_GROUP, throwable);
-			return new RuntimeException(throwable);
-		});
+		return Mono.fromCallable(() -> new McpSchema.ListToolsResult(toolsCache.getTools(), cursor));
 	}
 
 	public Mono<McpSchema.ListResourcesResult> listResources() {
@@ -356,7 +345,7 @@ public class LoadbalancedMcpAsyncClient implements EventListener {
 		}
 	}
 
-	private void updateClientList(List<Instance> currentInstances) {
+	private synchronized void updateClientList(List<Instance> currentInstances) {
 		// 新增的实例
 		List<Instance> addInstances = currentInstances.stream()
 			.filter(instance -> !instances.contains(instance))
@@ -372,6 +361,24 @@ public class LoadbalancedMcpAsyncClient implements EventListener {
 			updateByRemoveInstance(removeInstance);
 		}
 		this.instances = currentInstances;
+		rebuildIndex();
+	}
+
+	/**
+	 * 重建工具名到实例的索引，读取方只看到完整的新索引
+	 */
+	private void rebuildIndex() {
+		Map<String, List<McpEndpoint<McpAsyncClient>>> toolToEndpoints = new HashMap<>();
+		List<McpEndpoint<McpAsyncClient>> allEndpoints = new ArrayList<>();
+		md5ToClientMap.forEach((md5, clientList) -> {
+			allEndpoints.addAll(clientList);
+			for (String tool : md5ToToolsMap.getOrDefault(md5, Collections.emptyList())) {
+				toolToEndpoints.computeIfAbsent(tool, k -> new ArrayList<>()).addAll(clientList);
+			}
+		});
+		toolToEndpoints.replaceAll((tool, toolEndpoints) -> List.copyOf(toolEndpoints));
+		this.toolToEndpointsMap = Map.copyOf(toolToEndpoints);
+		this.endpoints = List.copyOf(allEndpoints);
 	}
 
 	private McpAsyncClient clientByInstance(Instance instance) {
@@ -404,7 +411,8 @@ public class LoadbalancedMcpAsyncClient implements EventListener {
 		String serverMd5 = metadata.get("server.md5");
 		assert serverMd5 != null;
 		McpAsyncClient mcpAsyncClient = clientByInstance(instance);
-		md5ToClientMap.computeIfAbsent(serverMd5, k -> new ArrayList<>()).add(mcpAsyncClient);
+		md5ToClientMap.computeIfAbsent(serverMd5, k -> new ArrayList<>())
+			.add(new McpEndpoint<>(instance.getInstanceId(), mcpAsyncClient, instance.getWeight()));
 
 		if (!md5ToToolsMap.containsKey(serverMd5)) {
 			String tools = metadata.get("tools.names");
@@ -417,17 +425,17 @@ public class LoadbalancedMcpAsyncClient implements EventListener {
 				this.serviceName + "-" + instance.getInstanceId());
 		String serverMd5 = instance.getMetadata().get("server.md5");
 
-		List<McpAsyncClient> clientList = md5ToClientMap.getOrDefault(serverMd5, Collections.emptyList());
+		List<McpEndpoint<McpAsyncClient>> clientList = md5ToClientMap.getOrDefault(serverMd5, Collections.emptyList());
 		McpAsyncClient asyncClient;
-		for (McpAsyncClient mcpAsyncClient : clientList) {
-			McpSchema.Implementation clientInfo = mcpAsyncClient.getClientInfo();
+		for (McpEndpoint<McpAsyncClient> endpoint : clientList) {
+			McpSchema.Implementation clientInfo = endpoint.getClient().getClientInfo();
 			String clientName = clientInfo.name();
 			if (clientInfoName.equals(clientName)) {
 				logger.info("Removing McpAsyncClient: {}", clientName);
-				asyncClient = mcpAsyncClient;
+				asyncClient = endpoint.getClient();
 				asyncClient.closeGracefully().block();
 				// 安全地移除
-				md5ToClientMap.get(serverMd5).remove(asyncClient);
+				md5ToClientMap.get(serverMd5).remove(endpoint);
 
 				if (md5ToClientMap.get(serverMd5).isEmpty()) {
 					md5ToClientMap.remove(serverMd5);
@@ -459,6 +467,9 @@ public class LoadbalancedMcpAsyncClient implements EventListener {
 
 		private ApplicationContext applicationContext;
 
+		private McpLoadBalancer loadBalancer = new McpLoadBalancer(
+				LoadBalanceStrategy.of(LoadBalanceStrategy.Type.ROUND_ROBIN));
+
 		public Builder serviceName(String serviceName) {
 			this.serviceName = serviceName;
 			return this;
@@ -484,9 +495,14 @@ public class LoadbalancedMcpAsyncClient implements EventListener {
 			return this;
 		}
 
+		public Builder loadBalancer(McpLoadBalancer loadBalancer) {
+			this.loadBalancer = loadBalancer;
+			return this;
+		}
+
 		public LoadbalancedMcpAsyncClient build() {
 			return new LoadbalancedMcpAsyncClient(this.serviceName, this.serviceGroup, this.namingService,
-					this.nacosConfigService, this.applicationContext);
+					this.nacosConfigService, this.applicationContext, this.loadBalancer);
 		}
 
 	}
@@ -17,7 +17,6 @@
 package com.alibaba.cloud.ai.mcp.nacos2.client.transport;
 
 import com.alibaba.cloud.ai.mcp.nacos2.registry.model.McpNacosConstant;
-import com.alibaba.cloud.ai.mcp.nacos2.registry.model.McpToolsInfo;
 import com.alibaba.nacos.api.exception.NacosException;
 import com.alibaba.nacos.api.naming.NamingService;
 import com.alibaba.nacos.api.naming.listener.Event;
@@ -26,7 +25,6 @@ import com.alibaba.nacos.api.naming.listener.NamingEvent;
 import com.alibaba.nacos.api.naming.pojo.Instance;
 import com.alibaba.nacos.client.config.NacosConfigService;
 import com.alibaba.nacos.common.utils.JacksonUtils;
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.modelcontextprotocol.client.McpClient;
 import io.modelcontextprotocol.client.McpSyncClient;
@@ -74,6 +72,8 @@ public class LoadbalancedMcpSyncClient implements EventListener {
 
 	private final ObjectMapper objectMapper;
 
+	private final NacosMcpToolsCache toolsCache;
+
 	private final ApplicationContext applicationContext;
 
 	private final AtomicInteger index = new AtomicInteger(0);
@@ -107,6 +107,8 @@ public class LoadbalancedMcpSyncClient implements EventListener {
 		mcpSyncClientConfigurer = this.applicationContext.getBean(McpSyncClientConfigurer.class);
 		objectMapper = this.applicationContext.getBean(ObjectMapper.class);
 		webClientBuilderTemplate = this.applicationContext.getBean(WebClient.Builder.class);
+		toolsCache = new NacosMcpToolsCache(nacosConfigService, objectMapper,
+				this.serviceName + McpNacosConstant.TOOLS_CONFIG_SUFFIX, McpNacosConstant.TOOLS_GROUP, TIME_OUT_MS);
 	}
 
 	public void init() {
@@ -154,6 +156,13 @@ public class LoadbalancedMcpSyncClient implements EventListener {
 		return this.instances;
 	}
 
+	/**
+	 * 工具列表缓存，可以读取命中次数
+	 */
+	public NacosMcpToolsCache getToolsCache() {
+		return this.toolsCache;
+	}
+
 	// ------------------------------------------------------------------------------------------------------------------------------------------------
 	public McpSchema.ServerCapabilities getServerCapabilities() {
 		return getMcpSyncClientList().get(0).getServerCapabilities();
@@ -172,6 +181,7 @@ public class LoadbalancedMcpSyncClient implements EventListener {
 	}
 
 	public void close() {
+		toolsCache.close();
 		Iterator<McpSyncClient> iterator = getMcpSyncClientList().iterator();
 		while (iterator.hasNext()) {
 			McpSyncClient mcpSyncClient = iterator.next();
@@ -182,6 +192,7 @@ public class LoadbalancedMcpSyncClient implements EventListener {
 	}
 
 	public boolean closeGracefully() {
+		toolsCache.close();
 		List<Boolean> flagList = new ArrayList<>();
 		Iterator<McpSyncClient> iterator = getMcpSyncClientList().iterator();
 		while (iterator.hasNext()) {
@@ -234,36 +245,7 @@ public class LoadbalancedMcpSyncClient implements EventListener {
 	}
 
 	private McpSchema.ListToolsResult listToolsInternal(String cursor) {
-		return parseConfig(loadConfig(), cursor);
-	}
-
-	private String loadConfig() {
-		String content = null;
-		try {
-			content = nacosConfigService.getConfig(this.serviceName + McpNacosConstant.TOOLS_CONFIG_SUFFIX,
-					McpNacosConstant.TOOLS_GROUP, TIME_OUT_MS);
-		}
-		catch (NacosException e) {
-			throw new RuntimeException(e);
-		}
-		if (content == null || content.isEmpty()) {
-			throw new RuntimeException(String.format("Empty tool config content for dataId: %s, group: %s",
-					this.serviceName + McpNacosConstant.TOOLS_CONFIG_SUFFIX, McpNacosConstant.TOOLS_GROUP));
-		}
-		return content;
-	}
-
-	private McpSchema.ListToolsResult parseConfig(String content, String cursor) {
-		try {
-			McpToolsInfo mcpToolsInfo = objectMapper.readValue(content, McpToolsInfo.class);
-			return new McpSchema.ListToolsResult(mcpToolsInfo.getTools(), cursor);
-		}
-		catch (JsonProcessingException e) {
-			logger.error("Failed to parse config for dataId: {}, group: {}",
-					this.serviceName + McpNacosConstant.TOOLS_CONFIG_SUFFIX, McpNacosConstant.TOOLS_GROUP, e);
-			throw new RuntimeException(String.format("Failed to parse tool list, dataId: %s, group: %s\"",
-					this.serviceName + McpNacosConstant.TOOLS_CONFIG_SUFFIX, McpNacosConstant.TOOLS_GROUP), e);
-		}
+		return new McpSchema.ListToolsResult(toolsCache.getTools(), cursor);
 	}
 
 	public McpSchema.ListResourcesResult listResources(String cursor) {
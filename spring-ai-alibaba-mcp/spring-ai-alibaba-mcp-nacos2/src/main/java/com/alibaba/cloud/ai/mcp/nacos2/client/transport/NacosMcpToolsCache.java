@@ -0,0 +1,192 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.mcp.nacos2.client.transport;
+
+import com.alibaba.cloud.ai.mcp.nacos2.registry.model.McpToolsInfo;
+import com.alibaba.cloud.ai.mcp.nacos2.registry.utils.MD5Utils;
+import com.alibaba.nacos.api.config.ConfigService;
+import com.alibaba.nacos.api.config.listener.AbstractListener;
+import com.alibaba.nacos.api.config.listener.Listener;
+import com.alibaba.nacos.api.exception.NacosException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Parsed tool list of one MCP server, loaded from its Nacos tools config on first use.
+ * The config is fetched together with a listener, later versions are pushed by Nacos and
+ * replace the cached tools, so listing tools does not call Nacos or parse JSON again.
+ * <p>
+ * A pushed config that is empty or cannot be parsed invalidates the cache, the next
+ * listing fetches the config again and reports the error.
+ *
+ * @since 1.0.0.2
+ */
+public class NacosMcpToolsCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(NacosMcpToolsCache.class);
+
+	private final ConfigService configService;
+
+	private final ObjectMapper objectMapper;
+
+	private final String dataId;
+
+	private final String group;
+
+	private final long timeoutMs;
+
+	private final Listener listener = new AbstractListener() {
+		@Override
+		public void receiveConfigInfo(String configInfo) {
+			onConfigChange(configInfo);
+		}
+	};
+
+	private final AtomicLong hitCount = new AtomicLong();
+
+	private final AtomicLong missCount = new AtomicLong();
+
+	private final AtomicLong reloadCount = new AtomicLong();
+
+	private volatile CachedTools cached;
+
+	private boolean listening;
+
+	public NacosMcpToolsCache(ConfigService configService, ObjectMapper objectMapper, String dataId, String group,
+			long timeoutMs) {
+		this.configService = configService;
+		this.objectMapper = objectMapper;
+		this.dataId = dataId;
+		this.group = group;
+		this.timeoutMs = timeoutMs;
+	}
+
+	public List<McpSchema.Tool> getTools() {
+		CachedTools current = this.cached;
+		if (current != null) {
+			hitCount.incrementAndGet();
+			return current.tools();
+		}
+		synchronized (this) {
+			current = this.cached;
+			if (current != null) {
+				hitCount.incrementAndGet();
+				return current.tools();
+			}
+			missCount.incrementAndGet();
+			String content;
+			try {
+				if (listening) {
+					content = configService.getConfig(dataId, group, timeoutMs);
+				}
+				else {
+					content = configService.getConfigAndSignListener(dataId, group, timeoutMs, listener);
+					listening = true;
+				}
+			}
+			catch (NacosException e) {
+				throw new RuntimeException(
+						String.format("Failed to get tool config for dataId: %s, group: %s", dataId, group), e);
+			}
+			current = parse(content);
+			this.cached = current;
+			return current.tools();
+		}
+	}
+
+	/**
+	 * Version of the cached tools, the MD5 of their config, or null if nothing is cached.
+	 */
+	public String getVersion() {
+		CachedTools current = this.cached;
+		return current != null ? current.version() : null;
+	}
+
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	/**
+	 * Number of config versions pushed by Nacos and parsed into the cache.
+	 */
+	public long getReloadCount() {
+		return reloadCount.get();
+	}
+
+	public void invalidate() {
+		this.cached = null;
+	}
+
+	public synchronized void close() {
+		if (listening) {
+			configService.removeListener(dataId, group, listener);
+			listening = false;
+		}
+		this.cached = null;
+	}
+
+	private void onConfigChange(String content) {
+		String version = content == null || content.isEmpty() ? null : new MD5Utils().getMd5(content);
+		synchronized (this) {
+			CachedTools current = this.cached;
+			if (current != null && current.version().equals(version)) {
+				return;
+			}
+			try {
+				this.cached = parse(content);
+				reloadCount.incrementAndGet();
+				logger.info("Reloaded tools for dataId: {}, group: {}, version: {}", dataId, group, version);
+			}
+			catch (RuntimeException e) {
+				this.cached = null;
+				logger.warn("Invalidated tools for dataId: {}, group: {}: {}", dataId, group, e.getMessage());
+			}
+		}
+	}
+
+	private CachedTools parse(String content) {
+		if (content == null || content.isEmpty()) {
+			throw new RuntimeException(
+					String.format("Empty tool config content for dataId: %s, group: %s", dataId, group));
+		}
+		try {
+			McpToolsInfo mcpToolsInfo = objectMapper.readValue(content, McpToolsInfo.class);
+			List<McpSchema.Tool> tools = mcpToolsInfo.getTools() != null ? List.copyOf(mcpToolsInfo.getTools())
+					: List.of();
+			return new CachedTools(new MD5Utils().getMd5(content), tools);
+		}
+		catch (JsonProcessingException e) {
+			logger.error("Failed to parse config for dataId: {}, group: {}", dataId, group, e);
+			throw new RuntimeException(String.format("Failed to parse tool list, dataId: %s, group: %s", dataId, group),
+					e);
+		}
+	}
+
+	private record CachedTools(String version, List<McpSchema.Tool> tools) {
+	}
+
+}
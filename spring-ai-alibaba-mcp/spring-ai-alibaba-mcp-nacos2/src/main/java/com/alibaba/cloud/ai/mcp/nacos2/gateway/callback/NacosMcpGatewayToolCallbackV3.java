@@ -17,45 +17,57 @@
 package com.alibaba.cloud.ai.mcp.nacos2.gateway.callback;
 
 import com.alibaba.cloud.ai.mcp.nacos2.gateway.definition.NacosMcpGatewayToolDefinitionV3;
-import com.alibaba.cloud.ai.mcp.nacos2.gateway.jsontemplate.RequestTemplateParser;
-import com.alibaba.cloud.ai.mcp.nacos2.gateway.jsontemplate.ResponseTemplateParser;
+import com.alibaba.cloud.ai.mcp.nacos2.gateway.jsontemplate.CompiledToolTemplate;
 import com.alibaba.cloud.ai.mcp.nacos2.gateway.utils.SpringBeanUtils;
-import com.alibaba.cloud.ai.mcp.nacos2.gateway.jsontemplate.RequestTemplateInfo;
-import com.alibaba.nacos.api.exception.NacosException;
 import com.alibaba.nacos.api.naming.NamingService;
 import com.alibaba.nacos.api.naming.pojo.Instance;
 import com.alibaba.nacos.common.utils.JacksonUtils;
 import com.alibaba.nacos.shaded.com.google.common.collect.Maps;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.model.ToolContext;
 import org.springframework.ai.tool.ToolCallback;
 import org.springframework.ai.tool.definition.ToolDefinition;
-import org.springframework.http.HttpMethod;
 import org.springframework.lang.NonNull;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Calls an HTTP backend registered in Nacos as described by the json-go-template of the
+ * tool.
+ * <p>
+ * The template is compiled into a {@link CompiledToolTemplate} on first use and cached by
+ * server name, tool name and version, so a call only renders it with its arguments. Every
+ * backend address gets one {@link WebClient}, whose connections are pooled and reused
+ * across calls and tools. {@link #callAsync(String, ToolContext)} returns the result
+ * without blocking, the Nacos instance lookup runs on the bounded elastic scheduler.
+ */
 public class NacosMcpGatewayToolCallbackV3 implements ToolCallback {
 
 	private static final Logger logger = LoggerFactory.getLogger(NacosMcpGatewayToolCallbackV3.class);
 
+	// 后端地址超过该数量时清空客户端缓存，避免实例频繁变化时无限增长
+	private static final int MAX_CACHED_CLIENTS = 256;
+
+	// 服务名 + 工具名 -> 编译后的模板
+	private static final Map<String, CachedTemplate> TEMPLATE_CACHE = new ConcurrentHashMap<>();
+
+	// 后端地址 -> 客户端
+	private static final Map<String, WebClient> WEB_CLIENTS = new ConcurrentHashMap<>();
+
 	private final ToolDefinition toolDefinition;
 
 	private final NamingService namingService;
 
-	private static final Pattern TEMPLATE_PATTERN = Pattern.compile("\\{\\{\\s*\\.([\\w]*)\\s*\\}\\}");
-
 	private final WebClient.Builder webClientBuilder;
 
 	static ObjectMapper objectMapper = new ObjectMapper();
@@ -74,56 +86,25 @@ public class NacosMcpGatewayToolCallbackV3 implements ToolCallback {
 	/**
 	 * 处理工具请求
 	 */
-	private Mono<String> processToolRequest(String configJson, Map<String, Object> args, String baseUrl) {
+	private Mono<String> processToolRequest(CompiledToolTemplate template, Map<String, Object> args, String baseUrl) {
 		try {
-			JsonNode toolConfig = objectMapper.readTree(configJson);
-			logger.info("[executeToolRequest] toolConfig: {}", toolConfig);
-			logger.info("[processToolRequest] toolConfig: {} args: {} baseUrl: {}", toolConfig, args, baseUrl);
-			JsonNode argsNode = toolConfig.path("args");
-			Map<String, Object> processedArgs;
-			if (!argsNode.isMissingNode() && argsNode.isArray() && argsNode.size() > 0) {
-				processedArgs = processArguments(argsNode, args);
-				logger.info("[processToolRequest] processedArgs from args: {}", processedArgs);
-			}
-			else if (!toolConfig.path("inputSchema").isMissingNode() && toolConfig.path("inputSchema").isObject()) {
-				// 从 inputSchema.properties 解析参数
-				JsonNode properties = toolConfig.path("inputSchema").path("properties");
-				if (properties.isObject()) {
-					processedArgs = new HashMap<>();
-					properties.fieldNames().forEachRemaining(field -> {
-						if (args.containsKey(field)) {
-							processedArgs.put(field, args.get(field));
-						}
-					});
-					logger.info("[processToolRequest] processedArgs from inputSchema: {}", processedArgs);
-				}
-				else {
-					processedArgs = args;
-					logger.info("[processToolRequest] inputSchema.properties missing, use original args: {}",
-							processedArgs);
-				}
-			}
-			else {
-				processedArgs = args;
-				logger.info("[processToolRequest] no args or inputSchema, use original args: {}", processedArgs);
-			}
-			JsonNode requestTemplate = toolConfig.path("requestTemplate");
-			String url = requestTemplate.path("url").asText();
-			String method = requestTemplate.path("method").asText();
-			logger.info("[processToolRequest] requestTemplate: {} url: {} method: {}", requestTemplate, url, method);
-
-			// 检查URL和方法
-			if (url.isEmpty() || method.isEmpty()) {
-				return Mono.error(new IllegalArgumentException("URL and method are required"));
-			}
-
-			// 创建WebClient
-			baseUrl = baseUrl != null ? baseUrl : "http://localhost";
-			WebClient client = webClientBuilder.baseUrl(baseUrl).build();
-
-			// 构建并执行请求
-			return buildAndExecuteRequest(client, requestTemplate, toolConfig.path("responseTemplate"), processedArgs,
-					baseUrl);
+			Map<String, Object> processedArgs = template.processArguments(args);
+			logger.debug("[processToolRequest] args: {} processedArgs: {} baseUrl: {}", args, processedArgs, baseUrl);
+
+			// 同一后端复用客户端及其连接池
+			WebClient client = getWebClient(baseUrl != null ? baseUrl : "http://localhost");
+			String processedUrl = template.renderUrl(processedArgs);
+			WebClient.RequestBodySpec requestBodySpec = client.method(template.getMethod())
+				.uri(builder -> template.buildUri(builder, processedUrl, processedArgs));
+			WebClient.RequestHeadersSpec<?> headersSpec = template.applyRequest(requestBodySpec, processedArgs,
+					objectMapper);
+			logger.info("[processToolRequest] request: method={} baseUrl={} url={} args={}", template.getMethod(),
+					baseUrl, processedUrl, processedArgs);
+
+			return headersSpec.retrieve()
+				.bodyToMono(String.class)
+				.doOnNext(responseBody -> logger.debug("[processToolRequest] received responseBody: {}", responseBody))
+				.map(responseBody -> template.renderResponse(responseBody, processedArgs));
 		}
 		catch (Exception e) {
 			logger.error("Failed to process tool request", e);
@@ -131,139 +112,36 @@ public class NacosMcpGatewayToolCallbackV3 implements ToolCallback {
 		}
 	}
 
-	/**
-	 * 处理参数定义和值
-	 */
-	private Map<String, Object> processArguments(JsonNode argsDefinition, Map<String, Object> providedArgs) {
-		Map<String, Object> processedArgs = new HashMap<>();
-
-		if (argsDefinition.isArray()) {
-			for (JsonNode argDef : argsDefinition) {
-				String name = argDef.path("name").asText();
-				boolean required = argDef.path("required").asBoolean(false);
-				Object defaultValue = argDef.has("default")
-						? objectMapper.convertValue(argDef.path("default"), Object.class) : null;
-
-				// 检查参数
-				if (providedArgs.containsKey(name)) {
-					processedArgs.put(name, providedArgs.get(name));
-				}
-				else if (defaultValue != null) {
-					processedArgs.put(name, defaultValue);
-				}
-				else if (required) {
-					throw new IllegalArgumentException("Required argument missing: " + name);
-				}
-			}
+	private WebClient getWebClient(String baseUrl) {
+		WebClient client = WEB_CLIENTS.get(baseUrl);
+		if (client != null) {
+			return client;
 		}
-
-		return processedArgs;
-	}
-
-	/**
-	 * 构建并执行WebClient请求
-	 */
-	private Mono<String> buildAndExecuteRequest(WebClient client, JsonNode requestTemplate, JsonNode responseTemplate,
-			Map<String, Object> args, String baseUrl) {
-
-		RequestTemplateInfo info = RequestTemplateParser.parseRequestTemplate(requestTemplate);
-		String url = info.url;
-		String method = info.method;
-		HttpMethod httpMethod = HttpMethod.valueOf(method);
-
-		// 处理URL中的路径参数
-		String processedUrl = processTemplateString(url, args);
-		logger.info("[buildAndExecuteRequest] original url template: {} processed url: {}", url, processedUrl);
-
-		// 构建请求
-		WebClient.RequestBodySpec requestBodySpec = client.method(httpMethod)
-			.uri(builder -> RequestTemplateParser.buildUri(builder, processedUrl, info, args));
-
-		// 添加请求头
-		RequestTemplateParser.addHeaders(requestBodySpec, info.headers, args, this::processTemplateString);
-
-		// 处理请求体
-		WebClient.RequestHeadersSpec<?> headersSpec = RequestTemplateParser.addRequestBody(requestBodySpec, info, args,
-				this::processTemplateString, objectMapper, logger);
-
-		// 输出最终请求信息
-		String fullUrl = baseUrl.endsWith("/") && processedUrl.startsWith("/") ? baseUrl + processedUrl.substring(1)
-				: baseUrl + processedUrl;
-		logger.info("[buildAndExecuteRequest] final request: method={} url={} args={}", method, fullUrl, args);
-
-		return headersSpec.retrieve()
-			.bodyToMono(String.class)
-			.doOnNext(responseBody -> logger.info("[buildAndExecuteRequest] received responseBody: {}", responseBody))
-			.map(responseBody -> processResponse(responseBody, responseTemplate, args));
-	}
-
-	/**
-	 * 处理响应
-	 */
-	private String processResponse(String responseBody, JsonNode responseTemplate, Map<String, Object> args) {
-		logger.info("[processResponse] received responseBody: {}", responseBody);
-		String result = null;
-		if (!responseTemplate.isEmpty()) {
-			if (responseTemplate.has("body") && !responseTemplate.path("body").asText().isEmpty()) {
-				String bodyTemplate = responseTemplate.path("body").asText();
-				// 统一交给 ResponseTemplateParser 处理
-				result = ResponseTemplateParser.parse(responseBody, bodyTemplate);
-				logger.info("[processResponse] ResponseTemplateParser result: {}", result);
-				return result;
-			}
-			else if (responseTemplate.has("prependBody") || responseTemplate.has("appendBody")) {
-				String prependText = responseTemplate.path("prependBody").asText("");
-				String appendText = responseTemplate.path("appendBody").asText("");
-				result = processTemplateString(prependText, args) + responseBody
-						+ processTemplateString(appendText, args);
-				logger.info("[processResponse] prepend/append result: {}", result);
-				return result;
-			}
+		if (WEB_CLIENTS.size() >= MAX_CACHED_CLIENTS) {
+			WEB_CLIENTS.clear();
 		}
-		result = responseBody;
-		logger.info("[processResponse] default result: {}", result);
-		return result;
+		// clone 避免修改共享的 WebClient.Builder
+		return WEB_CLIENTS.computeIfAbsent(baseUrl, url -> webClientBuilder.clone().baseUrl(url).build());
 	}
 
 	/**
-	 * 处理模板字符串中的变量
+	 * 获取编译后的模板，工具版本或模板变化时重新编译
 	 */
-	private String processTemplateString(String template, Map<String, Object> data) {
-		logger.info("[processTemplateString] template: {} data: {}", template, data);
-		if (template == null || template.isEmpty()) {
-			return "";
+	private CompiledToolTemplate getCompiledTemplate(NacosMcpGatewayToolDefinitionV3 definition,
+			Object jsonGoTemplate) {
+		String name = definition.getName();
+		String version = definition.getVersion();
+		String key = definition.getServerName() + "/" + name;
+		CachedTemplate cached = TEMPLATE_CACHE.get(key);
+		if (cached != null && cached.matches(version, jsonGoTemplate)) {
+			return cached.template();
 		}
-		Matcher matcher = TEMPLATE_PATTERN.matcher(template);
-		StringBuilder result = new StringBuilder();
-		while (matcher.find()) {
-			String variable = matcher.group(1);
-			String replacement;
-			if ("".equals(variable) || ".".equals(variable)) {
-				// 特殊处理{{.}}，输出data唯一值或整个data
-				if (data != null && data.size() == 1) {
-					replacement = String.valueOf(data.values().iterator().next());
-				}
-				else if (data != null && !data.isEmpty()) {
-					replacement = data.toString();
-				}
-				else {
-					replacement = "";
-				}
-			}
-			else {
-				Object value = data != null ? data.get(variable) : null;
-				replacement = (value != null) ? value.toString() : "";
-			}
-			matcher.appendReplacement(result, Matcher.quoteReplacement(replacement));
-		}
-		matcher.appendTail(result);
-		String finalResult = result.toString();
-		logger.info("[processTemplateString] final result: {}", finalResult);
-		// 验证是否还存在未被替换的{{.}}，如有则输出警告
-		if (finalResult.contains("{{.}}")) {
-			logger.warn("[processTemplateString] WARNING: {{.}} was not replaced in result: {}", finalResult);
-		}
-		return finalResult;
+		CompiledToolTemplate template = CompiledToolTemplate.compile(objectMapper.valueToTree(jsonGoTemplate),
+				objectMapper);
+		TEMPLATE_CACHE.put(key, new CachedTemplate(version, jsonGoTemplate, template));
+		logger.info("[getCompiledTemplate] compiled json-go-template of server: {} tool: {} version: {}",
+				definition.getServerName(), name, version);
+		return template;
 	}
 
 	@Override
@@ -277,75 +155,86 @@ public class NacosMcpGatewayToolCallbackV3 implements ToolCallback {
 	}
 
 	@Override
-	@SuppressWarnings("unchecked")
 	public String call(@NonNull final String input, final ToolContext toolContext) {
-		try {
-			logger.info("[call] input: {} toolContext: {}", input, JacksonUtils.toJson(toolContext));
+		return callAsync(input, toolContext).block();
+	}
 
-			// input解析
-			logger.info("[call] input string: {}", input);
-			Map<String, Object> args = new HashMap<>();
-			if (!input.isEmpty()) {
-				try {
-					args = objectMapper.readValue(input, Map.class);
-					logger.info("[call] parsed args: {}", args);
-				}
-				catch (Exception e) {
-					logger.error("[call] Failed to parse input to args", e);
-				}
+	/**
+	 * Calls the tool without blocking, the result is empty if the request fails.
+	 */
+	@SuppressWarnings("unchecked")
+	public Mono<String> callAsync(@NonNull final String input, final ToolContext toolContext) {
+		logger.debug("[callAsync] input: {} toolContext: {}", input, JacksonUtils.toJson(toolContext));
+
+		// input解析
+		Map<String, Object> args = new HashMap<>();
+		if (!input.isEmpty()) {
+			try {
+				args = objectMapper.readValue(input, Map.class);
+			}
+			catch (Exception e) {
+				logger.error("[callAsync] Failed to parse input to args", e);
 			}
+		}
 
-			NacosMcpGatewayToolDefinitionV3 nacosToolDefinition = (NacosMcpGatewayToolDefinitionV3) this.toolDefinition;
-			logger.info("Tool callback toolDefinition: {}", JacksonUtils.toJson(nacosToolDefinition));
-			Object remoteServerConfig = nacosToolDefinition.getRemoteServerConfig();
-			String protocol = nacosToolDefinition.getProtocol();
-			if ("http".equalsIgnoreCase(protocol) || "https".equalsIgnoreCase(protocol)) {
-				Map<String, Object> configMap = (Map<String, Object>) remoteServerConfig;
-				Object serviceRef = configMap.get("serviceRef");
-				if (serviceRef != null) {
-					Map<String, Object> refMap = (Map<String, Object>) serviceRef;
-					String serviceName = (String) refMap.get("serviceName");
-					String groupName = (String) refMap.get("groupName");
-					Instance instance = namingService.selectOneHealthyInstance(serviceName, groupName);
-					logger.info("Tool callback instance: {}", JacksonUtils.toJson(instance));
-					Map<String, Object> toolsMeta = (Map<String, Object>) nacosToolDefinition.getToolsMeta();
-					String baseUrl = "http://" + instance.getIp() + ":" + instance.getPort();
+		NacosMcpGatewayToolDefinitionV3 nacosToolDefinition = (NacosMcpGatewayToolDefinitionV3) this.toolDefinition;
+		String protocol = nacosToolDefinition.getProtocol();
+		if (!"http".equalsIgnoreCase(protocol) && !"https".equalsIgnoreCase(protocol)) {
+			return Mono.just("");
+		}
+		Map<String, Object> configMap = (Map<String, Object>) nacosToolDefinition.getRemoteServerConfig();
+		Object serviceRef = configMap.get("serviceRef");
+		if (serviceRef == null) {
+			return Mono.just("");
+		}
+		Map<String, Object> toolsMeta = (Map<String, Object>) nacosToolDefinition.getToolsMeta();
+		Map<String, Object> templates = toolsMeta != null ? (Map<String, Object>) toolsMeta.get("templates") : null;
+		if (templates == null || !templates.containsKey("json-go-template")) {
+			logger.warn("[callAsync] templates not found in toolsMeta");
+			return Mono.just("");
+		}
 
-					if (toolsMeta != null && toolsMeta.containsKey("templates")) {
-						Map<String, Object> templates = (Map<String, Object>) toolsMeta.get("templates");
-						if (templates != null && templates.containsKey("json-go-template")) {
-							Object jsonGoTemplate = templates.get("json-go-template");
-							try {
-								logger.info("[call] json-go-template: {}",
-										objectMapper.writeValueAsString(jsonGoTemplate));
-							}
-							catch (JsonProcessingException e) {
-								logger.error("[call] Failed to serialize json-go-template", e);
-							}
-							try {
-								// 调用executeToolRequest
-								String configJson = objectMapper.writeValueAsString(jsonGoTemplate);
-								logger.info("[executeToolRequest] configJson: {} args: {} baseUrl: {}", configJson,
-										args, baseUrl);
-								return processToolRequest(configJson, args, baseUrl).block();
-							}
-							catch (Exception e) {
-								logger.error("Failed to execute tool request", e);
-								return "";
-							}
-						}
-					}
-					else {
-						logger.warn("[call] templates not found in toolsMeta");
-					}
-				}
-			}
+		Map<String, Object> refMap = (Map<String, Object>) serviceRef;
+		String serviceName = (String) refMap.get("serviceName");
+		String groupName = (String) refMap.get("groupName");
+		Map<String, Object> callArgs = args;
+		// 实例查询可能访问 Nacos 服务端，不在调用线程上执行
+		return Mono.fromCallable(() -> namingService.selectOneHealthyInstance(serviceName, groupName))
+			.subscribeOn(Schedulers.boundedElastic())
+			.flatMap(instance -> {
+				logger.debug("Tool callback instance: {}", JacksonUtils.toJson(instance));
+				String baseUrl = baseUrl(instance, protocol);
+				return Mono.defer(() -> {
+					CompiledToolTemplate template = getCompiledTemplate(nacosToolDefinition,
+							templates.get("json-go-template"));
+					return processToolRequest(template, callArgs, baseUrl);
+				}).onErrorResume(e -> {
+					logger.error("Failed to execute tool request", e);
+					return Mono.just("");
+				});
+			});
+	}
 
-			return "";
+	/**
+	 * 实例元数据中的 scheme 优先，其次是 secure 标记，都没有时使用工具声明的协议
+	 */
+	static String baseUrl(Instance instance, String protocol) {
+		Map<String, String> metadata = instance.getMetadata();
+		String scheme = metadata != null ? metadata.get("scheme") : null;
+		if (scheme == null || scheme.isBlank()) {
+			boolean secure = metadata != null && Boolean.parseBoolean(metadata.get("secure"));
+			scheme = secure ? "https" : protocol.toLowerCase();
 		}
-		catch (NacosException e) {
-			throw new RuntimeException(e);
+		return scheme + "://" + instance.getIp() + ":" + instance.getPort();
+	}
+
+	private record CachedTemplate(String version, Object source, CompiledToolTemplate template) {
+
+		boolean matches(String version, Object source) {
+			return Objects.equals(this.version, version)
+					&& (this.source == source || Objects.equals(this.source, source));
 		}
+
 	}
 
 }
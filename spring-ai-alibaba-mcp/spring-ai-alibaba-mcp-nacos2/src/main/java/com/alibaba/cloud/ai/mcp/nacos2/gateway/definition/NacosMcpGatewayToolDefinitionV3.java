@@ -29,6 +29,8 @@ public class NacosMcpGatewayToolDefinitionV3 implements ToolDefinition {
 
 	private String name;
 
+	private String serverName;
+
 	private String description;
 
 	private String version;
@@ -101,6 +103,14 @@ public class NacosMcpGatewayToolDefinitionV3 implements ToolDefinition {
 		this.name = name;
 	}
 
+	public String getServerName() {
+		return serverName;
+	}
+
+	public void setServerName(final String serverName) {
+		this.serverName = serverName;
+	}
+
 	public String getDescription() {
 		return description;
 	}
@@ -177,6 +187,8 @@ public class NacosMcpGatewayToolDefinitionV3 implements ToolDefinition {
 
 		private String name;
 
+		private String serverName;
+
 		private String description;
 
 		private String version;
@@ -203,6 +215,11 @@ public class NacosMcpGatewayToolDefinitionV3 implements ToolDefinition {
 			return this;
 		}
 
+		public NacosMcpGatewayToolDefinitionV3.Builder serverName(final String serverName) {
+			this.serverName = serverName;
+			return this;
+		}
+
 		public NacosMcpGatewayToolDefinitionV3.Builder description(final String description) {
 			this.description = description;
 			return this;
@@ -253,9 +270,11 @@ public class NacosMcpGatewayToolDefinitionV3 implements ToolDefinition {
 				this.description = ToolUtils.getToolDescriptionFromName(this.name);
 			}
 
-			return new NacosMcpGatewayToolDefinitionV3(this.name, this.description, this.inputSchema, this.version,
-					this.protocol, this.remoteServerConfig, this.localServerConfig, this.credentials, this.toolsMeta,
-					this.enabled);
+			NacosMcpGatewayToolDefinitionV3 definition = new NacosMcpGatewayToolDefinitionV3(this.name,
+					this.description, this.inputSchema, this.version, this.protocol, this.remoteServerConfig,
+					this.localServerConfig, this.credentials, this.toolsMeta, this.enabled);
+			definition.setServerName(this.serverName);
+			return definition;
 		}
 
 	}
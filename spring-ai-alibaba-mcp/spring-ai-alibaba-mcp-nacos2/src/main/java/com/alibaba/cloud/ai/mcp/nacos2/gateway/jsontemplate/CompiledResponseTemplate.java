@@ -0,0 +1,103 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.mcp.nacos2.gateway.jsontemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
+import org.springframework.util.StringUtils;
+
+import java.util.Map;
+
+/**
+ * Response body template compiled once, renders the same result as
+ * {@link ResponseTemplateParser#parse(String, String)}: the raw response for an empty
+ * template or {@code {{.}}}, a precompiled jsonPath for templates starting with
+ * {@code $.} or {@code $[}, otherwise the template with top-level fields of the JSON
+ * response.
+ *
+ * @since 1.0.0.2
+ */
+public final class CompiledResponseTemplate {
+
+	private static final ObjectMapper objectMapper = new ObjectMapper();
+
+	private static final CompiledResponseTemplate RAW = new CompiledResponseTemplate(null, null);
+
+	private final JsonPath jsonPath;
+
+	private final CompiledTemplate template;
+
+	private CompiledResponseTemplate(JsonPath jsonPath, CompiledTemplate template) {
+		this.jsonPath = jsonPath;
+		this.template = template;
+	}
+
+	public static CompiledResponseTemplate compile(String responseTemplate) {
+		if (!StringUtils.hasText(responseTemplate) || "{{.}}".equals(responseTemplate.trim())) {
+			return RAW;
+		}
+		JsonPath jsonPath = null;
+		String trimmed = responseTemplate.trim();
+		if (trimmed.startsWith("$.") || trimmed.startsWith("$[")) {
+			try {
+				jsonPath = JsonPath.compile(trimmed);
+			}
+			catch (Exception e) {
+				// 非法的 jsonPath 按模板处理
+			}
+		}
+		CompiledTemplate template = CompiledTemplate.compile(responseTemplate,
+				CompiledTemplate.RESPONSE_VARIABLE_PATTERN);
+		return new CompiledResponseTemplate(jsonPath, template);
+	}
+
+	@SuppressWarnings("unchecked")
+	public String render(String rawResponse) {
+		if (template == null) {
+			return rawResponse;
+		}
+		if (jsonPath != null) {
+			try {
+				Object result = jsonPath.read(rawResponse);
+				return result != null ? result.toString() : "";
+			}
+			catch (Exception e) {
+				// jsonPath 失败，降级为模板处理
+			}
+		}
+		try {
+			Map<String, Object> context = null;
+			String trimmed = rawResponse.trim();
+			if (trimmed.startsWith("{") || trimmed.startsWith("[")) {
+				// 与 ResponseTemplateParser 一致，无法解析为对象的 JSON 原样输出
+				context = objectMapper.readValue(rawResponse, Map.class);
+			}
+			Map<String, Object> fields = context;
+			return template.render(key -> {
+				if (key.isEmpty()) {
+					return rawResponse;
+				}
+				return fields != null && fields.containsKey(key) ? String.valueOf(fields.get(key)) : "";
+			});
+		}
+		catch (Exception e) {
+			// 模板处理失败，降级为原样输出
+			return rawResponse;
+		}
+	}
+
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.mcp.nacos2.gateway.jsontemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A {@code {{.name}}} template split into literal text and variables once, rendering only
+ * concatenates the literals with the resolved variables.
+ *
+ * @since 1.0.0.2
+ */
+public final class CompiledTemplate {
+
+	// 请求模板支持 {{.}} 或 {{.xxx}} 变量
+	static final Pattern REQUEST_VARIABLE_PATTERN = Pattern.compile("\\{\\{\\s*\\.([\\w]*)\\s*\\}\\}");
+
+	// 响应模板的变量名还可以包含 $ [ ] .
+	static final Pattern RESPONSE_VARIABLE_PATTERN = Pattern.compile("\\{\\{\\s*\\.([\\w\\$\\[\\]\\.]*)\\s*}}",
+			Pattern.DOTALL);
+
+	private static final CompiledTemplate EMPTY = new CompiledTemplate("", new String[] { "" }, new String[0]);
+
+	private final String source;
+
+	// literals 比 variables 多一个，依次交替拼接
+	private final String[] literals;
+
+	private final String[] variables;
+
+	private CompiledTemplate(String source, String[] literals, String[] variables) {
+		this.source = source;
+		this.literals = literals;
+		this.variables = variables;
+	}
+
+	/**
+	 * Compiles a request template, whose variables are names of tool arguments.
+	 */
+	public static CompiledTemplate compile(String template) {
+		return compile(template, REQUEST_VARIABLE_PATTERN);
+	}
+
+	static CompiledTemplate compile(String template, Pattern variablePattern) {
+		if (template == null || template.isEmpty()) {
+			return EMPTY;
+		}
+		List<String> literals = new ArrayList<>();
+		List<String> variables = new ArrayList<>();
+		Matcher matcher = variablePattern.matcher(template);
+		int last = 0;
+		while (matcher.find()) {
+			literals.add(template.substring(last, matcher.start()));
+			variables.add(matcher.group(1));
+			last = matcher.end();
+		}
+		literals.add(template.substring(last));
+		return new CompiledTemplate(template, literals.toArray(new String[0]), variables.toArray(new String[0]));
+	}
+
+	/**
+	 * Renders with the arguments of a tool call, {@code {{.}}} is the only argument or
+	 * all of them.
+	 */
+	public String render(Map<String, Object> data) {
+		if (variables.length == 0) {
+			return literals[0];
+		}
+		return render(variable -> {
+			if (variable.isEmpty()) {
+				if (data != null && data.size() == 1) {
+					return String.valueOf(data.values().iterator().next());
+				}
+				return data != null && !data.isEmpty() ? data.toString() : "";
+			}
+			Object value = data != null ? data.get(variable) : null;
+			return value != null ? value.toString() : "";
+		});
+	}
+
+	/**
+	 * Renders with values looked up by variable name, the name of {@code {{.}}} is empty.
+	 */
+	public String render(Function<String, String> resolver) {
+		if (variables.length == 0) {
+			return literals[0];
+		}
+		StringBuilder result = new StringBuilder(source.length() + 16 * variables.length);
+		for (int i = 0; i < variables.length; i++) {
+			result.append(literals[i]).append(resolver.apply(variables[i]));
+		}
+		return result.append(literals[variables.length]).toString();
+	}
+
+	public boolean hasVariables() {
+		return variables.length > 0;
+	}
+
+	public String getSource() {
+		return source;
+	}
+
+}
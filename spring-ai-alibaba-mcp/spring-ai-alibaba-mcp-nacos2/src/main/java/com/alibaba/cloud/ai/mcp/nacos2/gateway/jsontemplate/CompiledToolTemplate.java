@@ -0,0 +1,263 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.mcp.nacos2.gateway.jsontemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriBuilder;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The json-go-template of a gateway tool in executable form: argument definitions,
+ * request and response templates are parsed and compiled once, a call only renders them
+ * with its arguments.
+ *
+ * @since 1.0.0.2
+ */
+public final class CompiledToolTemplate {
+
+	private static final Logger logger = LoggerFactory.getLogger(CompiledToolTemplate.class);
+
+	// args 定义，未定义时为 null
+	private final List<ArgDefinition> argDefinitions;
+
+	// inputSchema.properties 中的参数名，未定义时为 null
+	private final List<String> schemaProperties;
+
+	private final RequestTemplateInfo info;
+
+	private final HttpMethod method;
+
+	private final CompiledTemplate url;
+
+	private final List<HeaderTemplate> headers;
+
+	// 请求体模板，未配置 body 时为 null
+	private final CompiledTemplate body;
+
+	// 响应体模板，未配置 body 时为 null
+	private final CompiledResponseTemplate responseBody;
+
+	// prependBody/appendBody 模板，未配置时为 null
+	private final CompiledTemplate prependBody;
+
+	private final CompiledTemplate appendBody;
+
+	private CompiledToolTemplate(List<ArgDefinition> argDefinitions, List<String> schemaProperties,
+			RequestTemplateInfo info, List<HeaderTemplate> headers, CompiledTemplate body,
+			CompiledResponseTemplate responseBody, CompiledTemplate prependBody, CompiledTemplate appendBody) {
+		this.argDefinitions = argDefinitions;
+		this.schemaProperties = schemaProperties;
+		this.info = info;
+		this.method = HttpMethod.valueOf(info.method);
+		this.url = CompiledTemplate.compile(info.url);
+		this.headers = headers;
+		this.body = body;
+		this.responseBody = responseBody;
+		this.prependBody = prependBody;
+		this.appendBody = appendBody;
+	}
+
+	/**
+	 * Compiles a json-go-template.
+	 * @throws IllegalArgumentException if the url or method is missing or more than one
+	 * way to send the arguments is configured
+	 */
+	public static CompiledToolTemplate compile(JsonNode toolConfig, ObjectMapper objectMapper) {
+		List<ArgDefinition> argDefinitions = null;
+		List<String> schemaProperties = null;
+		JsonNode argsNode = toolConfig.path("args");
+		if (argsNode.isArray() && argsNode.size() > 0) {
+			argDefinitions = new ArrayList<>();
+			for (JsonNode argDef : argsNode) {
+				Object defaultValue = argDef.has("default")
+						? objectMapper.convertValue(argDef.path("default"), Object.class) : null;
+				argDefinitions.add(new ArgDefinition(argDef.path("name").asText(),
+						argDef.path("required").asBoolean(false), defaultValue));
+			}
+		}
+		else if (toolConfig.path("inputSchema").path("properties").isObject()) {
+			List<String> properties = new ArrayList<>();
+			toolConfig.path("inputSchema").path("properties").fieldNames().forEachRemaining(properties::add);
+			schemaProperties = properties;
+		}
+
+		RequestTemplateInfo info = RequestTemplateParser.parseRequestTemplate(toolConfig.path("requestTemplate"));
+		if (info.url.isEmpty() || info.method.isEmpty()) {
+			throw new IllegalArgumentException("URL and method are required");
+		}
+		boolean hasBody = info.body != null && !info.body.asText().isEmpty();
+		int optionCount = (hasBody ? 1 : 0) + (info.argsToJsonBody ? 1 : 0) + (info.argsToFormBody ? 1 : 0)
+				+ (info.argsToUrlParam ? 1 : 0);
+		if (optionCount > 1) {
+			throw new IllegalArgumentException(
+					"Only one of body, argsToJsonBody, argsToFormBody, or argsToUrlParam should be specified");
+		}
+		List<HeaderTemplate> headers = new ArrayList<>();
+		if (info.headers != null && info.headers.isArray()) {
+			for (JsonNode header : info.headers) {
+				headers.add(new HeaderTemplate(header.path("key").asText(),
+						CompiledTemplate.compile(header.path("value").asText())));
+			}
+		}
+		CompiledTemplate body = hasBody ? CompiledTemplate.compile(info.body.asText()) : null;
+
+		CompiledResponseTemplate responseBody = null;
+		CompiledTemplate prependBody = null;
+		CompiledTemplate appendBody = null;
+		JsonNode responseTemplate = toolConfig.path("responseTemplate");
+		if (!responseTemplate.isEmpty()) {
+			if (responseTemplate.has("body") && !responseTemplate.path("body").asText().isEmpty()) {
+				responseBody = CompiledResponseTemplate.compile(responseTemplate.path("body").asText());
+			}
+			else if (responseTemplate.has("prependBody") || responseTemplate.has("appendBody")) {
+				prependBody = CompiledTemplate.compile(responseTemplate.path("prependBody").asText(""));
+				appendBody = CompiledTemplate.compile(responseTemplate.path("appendBody").asText(""));
+			}
+		}
+		return new CompiledToolTemplate(argDefinitions, schemaProperties, info, List.copyOf(headers), body,
+				responseBody, prependBody, appendBody);
+	}
+
+	/**
+	 * Applies the argument definitions to the arguments of a call: defined arguments get
+	 * their default values, arguments that are not defined are dropped.
+	 * @throws IllegalArgumentException if a required argument is missing
+	 */
+	public Map<String, Object> processArguments(Map<String, Object> providedArgs) {
+		if (argDefinitions != null) {
+			Map<String, Object> processedArgs = new HashMap<>();
+			for (ArgDefinition argDef : argDefinitions) {
+				if (providedArgs.containsKey(argDef.name())) {
+					processedArgs.put(argDef.name(), providedArgs.get(argDef.name()));
+				}
+				else if (argDef.defaultValue() != null) {
+					processedArgs.put(argDef.name(), argDef.defaultValue());
+				}
+				else if (argDef.required()) {
+					throw new IllegalArgumentException("Required argument missing: " + argDef.name());
+				}
+			}
+			return processedArgs;
+		}
+		if (schemaProperties != null) {
+			Map<String, Object> processedArgs = new HashMap<>();
+			for (String property : schemaProperties) {
+				if (providedArgs.containsKey(property)) {
+					processedArgs.put(property, providedArgs.get(property));
+				}
+			}
+			return processedArgs;
+		}
+		return providedArgs;
+	}
+
+	public HttpMethod getMethod() {
+		return method;
+	}
+
+	public RequestTemplateInfo getInfo() {
+		return info;
+	}
+
+	public String renderUrl(Map<String, Object> args) {
+		return url.render(args);
+	}
+
+	public URI buildUri(UriBuilder builder, String processedUrl, Map<String, Object> args) {
+		return RequestTemplateParser.buildUri(builder, processedUrl, info, args);
+	}
+
+	/**
+	 * Adds the headers and the body of the request.
+	 */
+	public WebClient.RequestHeadersSpec<?> applyRequest(WebClient.RequestBodySpec requestSpec, Map<String, Object> args,
+			ObjectMapper objectMapper) {
+		MultiValueMap<String, String> renderedHeaders = renderHeaders(args);
+		requestSpec.headers(httpHeaders -> httpHeaders.addAll(renderedHeaders));
+		if (body != null) {
+			return requestSpec.contentType(MediaType.APPLICATION_JSON).bodyValue(renderBody(args));
+		}
+		else if (info.argsToJsonBody) {
+			try {
+				return requestSpec.contentType(MediaType.APPLICATION_JSON)
+					.bodyValue(objectMapper.writeValueAsString(args));
+			}
+			catch (JsonProcessingException e) {
+				logger.error("Failed to create JSON request body", e);
+				return requestSpec;
+			}
+		}
+		else if (info.argsToFormBody) {
+			MultiValueMap<String, String> formData = new LinkedMultiValueMap<>();
+			args.forEach((key, value) -> {
+				if (value != null) {
+					formData.add(key, value.toString());
+				}
+			});
+			return requestSpec.contentType(MediaType.APPLICATION_FORM_URLENCODED)
+				.body(BodyInserters.fromFormData(formData));
+		}
+		return requestSpec;
+	}
+
+	MultiValueMap<String, String> renderHeaders(Map<String, Object> args) {
+		MultiValueMap<String, String> renderedHeaders = new LinkedMultiValueMap<>();
+		for (HeaderTemplate header : headers) {
+			renderedHeaders.add(header.key(), header.value().render(args));
+		}
+		return renderedHeaders;
+	}
+
+	/**
+	 * Renders the body template, null if the request has no body template.
+	 */
+	String renderBody(Map<String, Object> args) {
+		return body != null ? body.render(args) : null;
+	}
+
+	public String renderResponse(String responseBody, Map<String, Object> args) {
+		if (this.responseBody != null) {
+			return this.responseBody.render(responseBody);
+		}
+		if (prependBody != null) {
+			return prependBody.render(args) + responseBody + appendBody.render(args);
+		}
+		return responseBody;
+	}
+
+	private record ArgDefinition(String name, boolean required, Object defaultValue) {
+	}
+
+	private record HeaderTemplate(String key, CompiledTemplate value) {
+	}
+
+}
@@ -47,6 +47,9 @@ public class NacosMcpGatewayProperties {
 
 	private int maxLifeTime = 60;
 
+	// 工具全量同步间隔，单位秒，工具变化由 Nacos 推送，全量同步只用于兜底
+	private int resyncInterval = 300;
+
 	public List<String> getServiceNames() {
 		return serviceNames;
 	}
@@ -127,4 +130,12 @@ public class NacosMcpGatewayProperties {
 		this.maxLifeTime = maxLifeTime;
 	}
 
+	public int getResyncInterval() {
+		return resyncInterval;
+	}
+
+	public void setResyncInterval(final int resyncInterval) {
+		this.resyncInterval = resyncInterval;
+	}
+
 }
@@ -116,6 +116,7 @@ public class NacosMcpGatewayToolsInitializer {
 					Object remoteServerConfig = data.get("remoteServerConfig");
 					Object localeServerConfig = data.get("localeServerConfig");
 					String protocol = (String) data.get("protocol");
+					String serverName = (String) data.get("name");
 					if (toolSpec != null) {
 						Map<String, Object> toolSpecMap = JacksonUtils.toObj(JacksonUtils.toJson(toolSpec), Map.class);
 						List<Map<String, Object>> tools = (List<Map<String, Object>>) toolSpecMap.get("tools");
@@ -145,6 +146,7 @@ public class NacosMcpGatewayToolsInitializer {
 
 							ToolDefinition toolDefinition = NacosMcpGatewayToolDefinitionV3.builder()
 								.name(toolName)
+								.serverName(serverName)
 								.description(toolDescription)
 								.inputSchema(inputSchema)
 								.protocol(protocol)
@@ -23,16 +23,16 @@ import com.alibaba.cloud.ai.mcp.nacos2.gateway.provider.NacosMcpGatewayToolsProv
 import com.alibaba.cloud.ai.mcp.nacos2.gateway.tools.NacosMcpGatewayToolsInfo;
 import com.alibaba.cloud.ai.mcp.nacos2.gateway.tools.NacosHelper;
 import com.alibaba.cloud.ai.mcp.nacos2.NacosMcpProperties;
-import com.alibaba.nacos.api.config.ConfigChangeEvent;
-import com.alibaba.nacos.api.config.ConfigChangeItem;
 import com.alibaba.nacos.api.config.ConfigService;
+import com.alibaba.nacos.api.config.listener.AbstractListener;
+import com.alibaba.nacos.api.config.listener.Listener;
 import com.alibaba.nacos.api.exception.NacosException;
 import com.alibaba.nacos.api.naming.NamingService;
 import com.alibaba.nacos.api.naming.listener.Event;
 import com.alibaba.nacos.api.naming.listener.EventListener;
 import com.alibaba.nacos.api.naming.listener.NamingEvent;
 import com.alibaba.nacos.api.naming.pojo.Instance;
-import com.alibaba.nacos.client.config.listener.impl.AbstractConfigChangeListener;
+import com.alibaba.nacos.api.naming.utils.NamingUtils;
 import com.alibaba.nacos.common.utils.CollectionUtils;
 import com.alibaba.nacos.common.utils.JacksonUtils;
 import org.slf4j.Logger;
@@ -40,7 +40,9 @@ import org.slf4j.LoggerFactory;
 import org.springframework.ai.tool.definition.ToolDefinition;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -49,11 +51,28 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
-public class NacosMcpGatewayToolsWatcher extends AbstractConfigChangeListener implements EventListener {
+/**
+ * Keeps the gateway tools of the configured services in sync with Nacos.
+ * <p>
+ * Before Nacos 3.0 every service is subscribed once: Nacos pushes its instance changes
+ * and its tools config, and a push only updates the tools of that service. Instance
+ * changes matter only when the service gains or loses its last healthy instance, and a
+ * tool is only registered again when its definition changed. A full resync every
+ * {@link NacosMcpGatewayProperties#getResyncInterval() resync interval} is the safety net
+ * for missed pushes.
+ * <p>
+ * MCP servers of Nacos 3.0 and later are read through the admin API, which cannot be
+ * subscribed to, so they are still polled every {@value #POLLING_INTERVAL} seconds.
+ */
+public class NacosMcpGatewayToolsWatcher implements EventListener {
 
 	private static final Logger logger = LoggerFactory.getLogger(NacosMcpGatewayToolsWatcher.class);
 
-	private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+	private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread thread = new Thread(r, "nacos-mcp-gateway-tools-watcher");
+		thread.setDaemon(true);
+		return thread;
+	});
 
 	private static final long POLLING_INTERVAL = 30L; // 轮询间隔，单位秒
 
@@ -71,8 +90,11 @@ public class NacosMcpGatewayToolsWatcher extends AbstractConfigChangeListener im
 
 	private final WebClient webClient;
 
-	// 缓存服务名称和其工具的映射关系
-	private final Map<String, Set<String>> serviceToolsCache = new ConcurrentHashMap<>();
+	// 缓存服务名称和其工具的映射关系，工具名 -> 工具定义的 JSON，用于判断工具是否变化
+	private final Map<String, Map<String, String>> serviceToolsCache = new ConcurrentHashMap<>();
+
+	// 已订阅的服务
+	private final Map<String, ServiceSubscription> subscriptions = new ConcurrentHashMap<>();
 
 	private volatile String nacosVersion;
 
@@ -87,13 +109,15 @@ public class NacosMcpGatewayToolsWatcher extends AbstractConfigChangeListener im
 		this.webClient = webClient;
 		this.nacosVersion = NacosHelper.fetchNacosVersion(webClient, nacosMcpProperties.getServerAddr());
 		logger.info("Fetched nacos server version at startup: {}", nacosVersion);
-		// 启动定时任务
-		this.startScheduledPolling();
+		// 启动订阅和定时全量同步
+		this.start();
 	}
 
-	private void startScheduledPolling() {
-		scheduler.scheduleAtFixedRate(this::watch, POLLING_INTERVAL, POLLING_INTERVAL, TimeUnit.SECONDS);
-		logger.info("Started scheduled service polling with interval: {} seconds", POLLING_INTERVAL);
+	private void start() {
+		long interval = isHighVersion(nacosVersion) ? POLLING_INTERVAL
+				: Math.max(1, nacosMcpGatewayProperties.getResyncInterval());
+		scheduler.scheduleWithFixedDelay(this::watch, 0, interval, TimeUnit.SECONDS);
+		logger.info("Started watching gateway tools, full resync interval: {} seconds", interval);
 	}
 
 	public void stop() {
@@ -107,7 +131,11 @@ public class NacosMcpGatewayToolsWatcher extends AbstractConfigChangeListener im
 			scheduler.shutdownNow();
 			Thread.currentThread().interrupt();
 		}
-		logger.info("Stopped scheduled service polling");
+		for (ServiceSubscription subscription : subscriptions.values()) {
+			subscription.unsubscribe();
+		}
+		subscriptions.clear();
+		logger.info("Stopped watching gateway tools");
 	}
 
 	private String getNacosVersion() {
@@ -118,11 +146,17 @@ public class NacosMcpGatewayToolsWatcher extends AbstractConfigChangeListener im
 		return nacosVersion;
 	}
 
+	private static boolean isHighVersion(String version) {
+		return version != null && NacosHelper.compareVersion(version, "3.0.0") >= 0;
+	}
+
+	/**
+	 * 订阅新的服务并全量同步已订阅的服务，推送正常时全量同步不会改变任何工具
+	 */
 	private void watch() {
 		String version = getNacosVersion();
-		logger.info("Nacos server version: {}", version);
-		if (version != null && NacosHelper.compareVersion(version, "3.0.0") >= 0) {
-			logger.info("Nacos version >= 3.0.0, using new logic");
+		if (isHighVersion(version)) {
+			logger.debug("Nacos version {} >= 3.0.0, using new logic", version);
 			handleHighVersion();
 			return;
 		}
@@ -136,9 +170,7 @@ public class NacosMcpGatewayToolsWatcher extends AbstractConfigChangeListener im
 		Set<String> currentServices = new HashSet<>(serviceNames);
 		for (String serviceName : serviceNames) {
 			try {
-				updateServiceTools(serviceName);
-				namingService.subscribe(serviceName, nacosMcpGatewayProperties.getServiceGroup(), this);
-				configService.addListener(serviceName, nacosMcpGatewayProperties.getServiceGroup(), this);
+				subscriptions.computeIfAbsent(serviceName, ServiceSubscription::new).resync();
 			}
 			catch (NacosException e) {
 				logger.error("Failed to subscribe to service: {}", serviceName, e);
@@ -153,92 +185,49 @@ public class NacosMcpGatewayToolsWatcher extends AbstractConfigChangeListener im
 	private void cleanupStaleServices(Set<String> currentServices) {
 		// 获取所有已缓存但不在当前服务列表中的服务
 		Set<String> staleServices = new HashSet<>(serviceToolsCache.keySet());
+		staleServices.addAll(subscriptions.keySet());
 		staleServices.removeAll(currentServices);
 
-		// 移除过期服务的所有工具
+		// 取消订阅并移除过期服务的所有工具
 		for (String staleService : staleServices) {
-			Set<String> toolsToRemove = serviceToolsCache.get(staleService);
-			if (toolsToRemove != null) {
-				for (String toolName : toolsToRemove) {
-					try {
-						logger.info("Removing tool: {} for stale service: {}", toolName, staleService);
-						nacosMcpGatewayToolsProvider.removeTool(toolName);
-					}
-					catch (Exception e) {
-						logger.error("Failed to remove tool: {} for service: {}", toolName, staleService, e);
-					}
-				}
+			ServiceSubscription subscription = subscriptions.remove(staleService);
+			if (subscription != null) {
+				subscription.close();
+			}
+			else {
+				removeServiceTools(staleService);
 			}
-			serviceToolsCache.remove(staleService);
 		}
 	}
 
-	private void updateServiceTools(String serviceName) {
-		try {
-			String toolConfig = configService.getConfig(serviceName + toolsConfigSuffix,
-					nacosMcpGatewayProperties.getServiceGroup(), 5000);
-
-			// 获取该服务当前的实例列表
-			List<Instance> instances = namingService.getAllInstances(serviceName,
-					nacosMcpGatewayProperties.getServiceGroup());
-
-			// 检查是否有健康且启用的实例
-			boolean hasHealthyEnabledInstance = NacosHelper.hasHealthyEnabledInstance(instances);
-
-			// 如果没有实例、没有健康且启用的实例或配置为空，移除所有相关工具
-			if (CollectionUtils.isEmpty(instances) || !hasHealthyEnabledInstance || toolConfig == null) {
-				logger.info("Service {} has no healthy and enabled instances or no tool config, removing all tools",
-						serviceName);
-				removeServiceTools(serviceName);
-				return;
-			}
-
-			// 解析工具配置
-			NacosMcpGatewayToolsInfo toolsInfo = JacksonUtils.toObj(toolConfig, NacosMcpGatewayToolsInfo.class);
-			List<NacosMcpGatewayToolDefinition> toolsInNacos = toolsInfo.getTools();
-
-			if (CollectionUtils.isEmpty(toolsInNacos)) {
-				removeServiceTools(serviceName);
-				return;
+	/**
+	 * 按服务增量更新工具：只注册新增或定义变化的工具，移除不再存在的工具
+	 */
+	private void updateServiceTools(String serviceName, Map<String, ToolDefinition> tools) {
+		Map<String, String> previousTools = serviceToolsCache.getOrDefault(serviceName, Map.of());
+		Map<String, String> currentTools = new HashMap<>();
+		for (Map.Entry<String, ToolDefinition> entry : tools.entrySet()) {
+			String toolName = entry.getKey();
+			String definition = JacksonUtils.toJson(entry.getValue());
+			currentTools.put(toolName, definition);
+			if (definition.equals(previousTools.get(toolName))) {
+				continue;
 			}
-
-			// 更新工具缓存
-			Set<String> currentTools = new HashSet<>();
-			for (NacosMcpGatewayToolDefinition toolDefinition : toolsInNacos) {
-				currentTools.add(toolDefinition.name());
-				toolDefinition.setServiceName(serviceName);
-				nacosMcpGatewayToolsProvider.addTool(toolDefinition);
+			try {
+				logger.info("Adding tool: {} for service: {}", toolName, serviceName);
+				nacosMcpGatewayToolsProvider.addTool(entry.getValue());
 			}
-
-			// 获取之前的工具集合
-			Set<String> previousTools = serviceToolsCache.getOrDefault(serviceName, new HashSet<>());
-
-			// 移除不再存在的工具
-			Set<String> toolsToRemove = new HashSet<>(previousTools);
-			toolsToRemove.removeAll(currentTools);
-			for (String toolName : toolsToRemove) {
-				logger.info("Removing obsolete tool: {} for service: {}", toolName, serviceName);
-				nacosMcpGatewayToolsProvider.removeTool(toolName);
+			catch (Exception e) {
+				logger.error("Failed to add tool: {} for service: {}", toolName, serviceName, e);
+				currentTools.remove(toolName);
 			}
-
-			// 更新缓存
-			serviceToolsCache.put(serviceName, currentTools);
-
-		}
-		catch (NacosException e) {
-			logger.error("Failed to update tools for service: {}", serviceName, e);
 		}
-		catch (Exception e) {
-			logger.error("Unexpected error while updating tools for service: {}", serviceName, e);
-		}
-	}
 
-	private void removeServiceTools(String serviceName) {
-		Set<String> tools = serviceToolsCache.remove(serviceName);
-		if (tools != null) {
-			for (String toolName : tools) {
+		// 移除不再存在的工具
+		for (String toolName : previousTools.keySet()) {
+			if (!currentTools.containsKey(toolName)) {
 				try {
-					logger.info("Removing tool: {} for service: {}", toolName, serviceName);
+					logger.info("Removing obsolete tool: {} for service: {}", toolName, serviceName);
 					nacosMcpGatewayToolsProvider.removeTool(toolName);
 				}
 				catch (Exception e) {
@@ -246,25 +235,55 @@ public class NacosMcpGatewayToolsWatcher extends AbstractConfigChangeListener im
 				}
 			}
 		}
+
+		// 更新缓存
+		if (currentTools.isEmpty()) {
+			serviceToolsCache.remove(serviceName);
+		}
+		else {
+			serviceToolsCache.put(serviceName, currentTools);
+		}
 	}
 
-	@Override
-	public void onEvent(Event event) {
-		if (event instanceof NamingEvent namingEvent) {
-			String serviceName = namingEvent.getServiceName();
-			logger.info("Received service instance change event for service: {}", serviceName);
-			updateServiceTools(serviceName);
+	private void removeServiceTools(String serviceName) {
+		updateServiceTools(serviceName, Map.of());
+	}
+
+	/**
+	 * 根据服务的工具配置和是否有可用实例更新工具
+	 */
+	private void updateServiceTools(String serviceName, String toolConfig, boolean hasHealthyEnabledInstance) {
+		// 如果没有健康且启用的实例或配置为空，移除所有相关工具
+		if (!hasHealthyEnabledInstance || toolConfig == null) {
+			if (serviceToolsCache.containsKey(serviceName)) {
+				logger.info("Service {} has no healthy and enabled instances or no tool config, removing all tools",
+						serviceName);
+			}
+			removeServiceTools(serviceName);
+			return;
 		}
+
+		// 解析工具配置
+		NacosMcpGatewayToolsInfo toolsInfo = JacksonUtils.toObj(toolConfig, NacosMcpGatewayToolsInfo.class);
+		List<NacosMcpGatewayToolDefinition> toolsInNacos = toolsInfo.getTools();
+		Map<String, ToolDefinition> tools = new LinkedHashMap<>();
+		if (toolsInNacos != null) {
+			for (NacosMcpGatewayToolDefinition toolDefinition : toolsInNacos) {
+				toolDefinition.setServiceName(serviceName);
+				tools.put(toolDefinition.name(), toolDefinition);
+			}
+		}
+		updateServiceTools(serviceName, tools);
 	}
 
 	@Override
-	public void receiveConfigChange(final ConfigChangeEvent event) {
-		for (ConfigChangeItem item : event.getChangeItems()) {
-			String dataId = item.getKey();
-			if (dataId != null && dataId.endsWith(toolsConfigSuffix)) {
-				String serviceName = dataId.substring(0, dataId.length() - toolsConfigSuffix.length());
-				logger.info("Received config change event for service: {}", serviceName);
-				updateServiceTools(serviceName);
+	public void onEvent(Event event) {
+		if (event instanceof NamingEvent namingEvent) {
+			String serviceName = NamingUtils.getServiceName(namingEvent.getServiceName());
+			ServiceSubscription subscription = subscriptions.get(serviceName);
+			if (subscription != null) {
+				logger.debug("Received service instance change event for service: {}", serviceName);
+				subscription.onInstancesChanged(namingEvent.getInstances());
 			}
 		}
 	}
@@ -314,11 +333,10 @@ public class NacosMcpGatewayToolsWatcher extends AbstractConfigChangeListener im
 						List<Map<String, Object>> tools = (List<Map<String, Object>>) toolSpecMap.get("tools");
 						Map<String, Object> toolsMeta = (Map<String, Object>) toolSpecMap.get("toolsMeta");
 
-						// Update tools cache
-						Set<String> currentTools = new HashSet<>();
+						// Collect enabled tools
+						Map<String, ToolDefinition> currentTools = new LinkedHashMap<>();
 						for (Map<String, Object> tool : tools) {
 							String toolName = (String) tool.get("name");
-							currentTools.add(toolName);
 
 							// Check if tool is enabled
 							Object metaInfo = toolsMeta.getOrDefault(toolName, new Object());
@@ -338,9 +356,10 @@ public class NacosMcpGatewayToolsWatcher extends AbstractConfigChangeListener im
 								continue;
 							}
 
-							// Create and add tool definition
+							// Create tool definition
 							ToolDefinition toolDefinition = NacosMcpGatewayToolDefinitionV3.builder()
 								.name(toolName)
+								.serverName(mcpName)
 								.description((String) tool.get("description"))
 								.inputSchema(tool.get("inputSchema"))
 								.protocol(protocol)
@@ -349,22 +368,11 @@ public class NacosMcpGatewayToolsWatcher extends AbstractConfigChangeListener im
 								.toolsMeta(metaInfo)
 								.build();
 
-							nacosMcpGatewayToolsProvider.addTool(toolDefinition);
+							currentTools.put(toolName, toolDefinition);
 						}
 
-						// Get previous tools for this service
-						Set<String> previousTools = serviceToolsCache.getOrDefault(mcpName, new HashSet<>());
-
-						// Remove obsolete tools
-						Set<String> toolsToRemove = new HashSet<>(previousTools);
-						toolsToRemove.removeAll(currentTools);
-						for (String toolName : toolsToRemove) {
-							logger.info("Removing obsolete tool: {} for service: {}", toolName, mcpName);
-							nacosMcpGatewayToolsProvider.removeTool(toolName);
-						}
-
-						// Update cache
-						serviceToolsCache.put(mcpName, currentTools);
+						// Add changed tools and remove obsolete tools
+						updateServiceTools(mcpName, currentTools);
 					}
 				}
 			}
@@ -374,4 +382,104 @@ public class NacosMcpGatewayToolsWatcher extends AbstractConfigChangeListener im
 		}
 	}
 
+	/**
+	 * 一个服务的实例和工具配置订阅，推送和全量同步按服务串行处理
+	 */
+	private final class ServiceSubscription {
+
+		private final String serviceName;
+
+		private final String dataId;
+
+		private final Listener configListener = new AbstractListener() {
+			@Override
+			public void receiveConfigInfo(String configInfo) {
+				onConfigChanged(configInfo);
+			}
+		};
+
+		private boolean subscribed;
+
+		private String toolConfig;
+
+		private boolean hasHealthyEnabledInstance;
+
+		ServiceSubscription(String serviceName) {
+			this.serviceName = serviceName;
+			this.dataId = serviceName + toolsConfigSuffix;
+		}
+
+		/**
+		 * 首次调用时订阅服务，之后重新读取配置和实例，与推送的结果相同时不改变工具
+		 */
+		synchronized void resync() throws NacosException {
+			String group = nacosMcpGatewayProperties.getServiceGroup();
+			String config;
+			if (subscribed) {
+				config = configService.getConfig(dataId, group, 5000);
+			}
+			else {
+				config = configService.getConfigAndSignListener(dataId, group, 5000, configListener);
+				namingService.subscribe(serviceName, group, NacosMcpGatewayToolsWatcher.this);
+				subscribed = true;
+				logger.info("Subscribed to instances and tool config of service: {}", serviceName);
+			}
+			List<Instance> instances = namingService.getAllInstances(serviceName, group);
+			update(config, NacosHelper.hasHealthyEnabledInstance(instances));
+		}
+
+		synchronized void onConfigChanged(String config) {
+			if (!subscribed) {
+				return;
+			}
+			logger.info("Received tool config change for service: {}", serviceName);
+			update(config, hasHealthyEnabledInstance);
+		}
+
+		synchronized void onInstancesChanged(List<Instance> instances) {
+			boolean available = NacosHelper.hasHealthyEnabledInstance(instances);
+			if (!subscribed || available == hasHealthyEnabledInstance) {
+				// 可用性没有变化，工具不受影响
+				return;
+			}
+			logger.info("Service {} {} healthy and enabled instances", serviceName, available ? "has" : "has no");
+			update(toolConfig, available);
+		}
+
+		private void update(String config, boolean available) {
+			this.toolConfig = config;
+			this.hasHealthyEnabledInstance = available;
+			try {
+				updateServiceTools(serviceName, config, available);
+			}
+			catch (Exception e) {
+				logger.error("Unexpected error while updating tools for service: {}", serviceName, e);
+			}
+		}
+
+		synchronized void unsubscribe() {
+			if (!subscribed) {
+				return;
+			}
+			String group = nacosMcpGatewayProperties.getServiceGroup();
+			try {
+				configService.removeListener(dataId, group, configListener);
+				namingService.unsubscribe(serviceName, group, NacosMcpGatewayToolsWatcher.this);
+			}
+			catch (NacosException e) {
+				logger.warn("Failed to unsubscribe from service: {}", serviceName, e);
+			}
+			subscribed = false;
+		}
+
+		/**
+		 * 取消订阅并移除服务的所有工具，之后到达的推送被忽略
+		 */
+		synchronized void close() {
+			unsubscribe();
+			removeServiceTools(serviceName);
+		}
+
+	}
+
 }
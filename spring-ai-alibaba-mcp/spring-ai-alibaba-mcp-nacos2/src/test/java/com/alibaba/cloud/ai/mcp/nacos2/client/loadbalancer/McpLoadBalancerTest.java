@@ -0,0 +1,153 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.mcp.nacos2.client.loadbalancer;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load balancing over simulated MCP server instances, one of which is slow or failing.
+ */
+class McpLoadBalancerTest {
+
+	private static final Logger logger = LoggerFactory.getLogger(McpLoadBalancerTest.class);
+
+	private static final Duration FAST = Duration.ofMillis(5);
+
+	private static final Duration SLOW = Duration.ofMillis(150);
+
+	private static final int REQUESTS = 400;
+
+	private static final int CONCURRENCY = 8;
+
+	@Test
+	void ewmaAvoidsSlowInstanceAndImprovesP99() {
+		Result roundRobin = run(LoadBalanceStrategy.Type.ROUND_ROBIN);
+		Result ewma = run(LoadBalanceStrategy.Type.EWMA);
+
+		logger.info("p99 over {} requests: round robin {} ms, ewma {} ms", REQUESTS, roundRobin.p99Millis(),
+				ewma.p99Millis());
+		assertThat(roundRobin.p99Millis()).isGreaterThanOrEqualTo(SLOW.toMillis());
+		assertThat(ewma.p99Millis()).isLessThan(SLOW.toMillis() / 2);
+		assertThat(ewma.slowRequests()).isLessThan(REQUESTS / 100);
+	}
+
+	@Test
+	void leastOutstandingSendsLessTrafficToSlowInstance() {
+		Result roundRobin = run(LoadBalanceStrategy.Type.ROUND_ROBIN);
+		Result leastOutstanding = run(LoadBalanceStrategy.Type.LEAST_OUTSTANDING);
+
+		logger.info("Requests to the slow instance: round robin {}, least outstanding {}", roundRobin.slowRequests(),
+				leastOutstanding.slowRequests());
+		assertThat(roundRobin.slowRequests()).isEqualTo(REQUESTS / 4);
+		assertThat(leastOutstanding.slowRequests()).isLessThan(REQUESTS / 8);
+	}
+
+	@Test
+	void ejectsFailingInstance() {
+		McpLoadBalancer loadBalancer = new McpLoadBalancer(LoadBalanceStrategy.of(LoadBalanceStrategy.Type.ROUND_ROBIN),
+				3, Duration.ofMinutes(1));
+		List<McpEndpoint<String>> endpoints = List.of(new McpEndpoint<>("healthy", "healthy", 1),
+				new McpEndpoint<>("failing", "failing", 1));
+		AtomicInteger failures = new AtomicInteger();
+
+		for (int i = 0; i < 100; i++) {
+			loadBalancer
+				.execute(endpoints, name -> "failing".equals(name)
+						? Mono.error(new IllegalStateException("connection refused")) : Mono.just(name))
+				.onErrorResume(e -> {
+					failures.incrementAndGet();
+					return Mono.empty();
+				})
+				.block();
+		}
+
+		assertThat(failures.get()).isEqualTo(3);
+		assertThat(endpoints.get(1).isEjected(System.nanoTime())).isTrue();
+		assertThat(endpoints.get(1).getOutstanding()).isZero();
+	}
+
+	@Test
+	void usesEjectedInstancesWhenNoneIsLeft() {
+		McpLoadBalancer loadBalancer = new McpLoadBalancer(LoadBalanceStrategy.of(LoadBalanceStrategy.Type.ROUND_ROBIN),
+				1, Duration.ofMinutes(1));
+		List<McpEndpoint<String>> endpoints = List.of(new McpEndpoint<>("a", "a", 1), new McpEndpoint<>("b", "b", 1));
+		for (int i = 0; i < 2; i++) {
+			loadBalancer.execute(endpoints, name -> Mono.error(new IllegalStateException("down")))
+				.onErrorResume(e -> Mono.empty())
+				.block();
+		}
+
+		assertThat(endpoints).allMatch(endpoint -> endpoint.isEjected(System.nanoTime()));
+		assertThat(loadBalancer.choose(endpoints)).isNotNull();
+	}
+
+	@Test
+	void weightedFollowsInstanceWeights() {
+		McpLoadBalancer loadBalancer = new McpLoadBalancer(LoadBalanceStrategy.of(LoadBalanceStrategy.Type.WEIGHTED));
+		List<McpEndpoint<String>> endpoints = List.of(new McpEndpoint<>("light", "light", 1),
+				new McpEndpoint<>("heavy", "heavy", 3), new McpEndpoint<>("drained", "drained", 0));
+		Map<String, Integer> counts = new ConcurrentHashMap<>();
+
+		for (int i = 0; i < 8000; i++) {
+			counts.merge(loadBalancer.choose(endpoints).getId(), 1, Integer::sum);
+		}
+
+		assertThat(counts).doesNotContainKey("drained");
+		assertThat(counts.get("heavy") / 8000.0).isBetween(0.7, 0.8);
+	}
+
+	private Result run(LoadBalanceStrategy.Type type) {
+		McpLoadBalancer loadBalancer = new McpLoadBalancer(LoadBalanceStrategy.of(type));
+		List<McpEndpoint<Duration>> endpoints = List.of(new McpEndpoint<>("fast-1", FAST, 1),
+				new McpEndpoint<>("fast-2", FAST, 1), new McpEndpoint<>("fast-3", FAST, 1),
+				new McpEndpoint<>("slow", SLOW, 1));
+		AtomicInteger slowRequests = new AtomicInteger();
+
+		List<Long> latencies = Flux.range(0, REQUESTS).flatMap(i -> Mono.defer(() -> {
+			long start = System.nanoTime();
+			return loadBalancer.execute(endpoints, latency -> {
+				if (latency == SLOW) {
+					slowRequests.incrementAndGet();
+				}
+				return Mono.delay(latency);
+			}).map(ignored -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		}), CONCURRENCY).collectList().block();
+
+		List<Long> sorted = new ArrayList<>(latencies);
+		sorted.sort(null);
+		long p99 = sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1);
+		return new Result(p99, slowRequests.get());
+	}
+
+	private record Result(long p99Millis, int slowRequests) {
+	}
+
+}
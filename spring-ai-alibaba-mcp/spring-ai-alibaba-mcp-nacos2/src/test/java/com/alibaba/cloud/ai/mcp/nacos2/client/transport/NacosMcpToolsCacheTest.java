@@ -0,0 +1,178 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.mcp.nacos2.client.transport;
+
+import com.alibaba.nacos.api.config.ConfigService;
+import com.alibaba.nacos.api.config.listener.Listener;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class NacosMcpToolsCacheTest {
+
+	private static final String DATA_ID = "weather-mcp-tools.json";
+
+	private static final String GROUP = "mcp-tools";
+
+	private InMemoryConfigService configService;
+
+	private NacosMcpToolsCache cache;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		configService = new InMemoryConfigService();
+		cache = new NacosMcpToolsCache(configService.mock, new ObjectMapper(), DATA_ID, GROUP, 3000);
+	}
+
+	@Test
+	void fetchesConfigOnceAndServesFromCache() {
+		configService.publish(toolsJson("get_weather"));
+
+		for (int i = 0; i < 10; i++) {
+			assertThat(cache.getTools()).extracting(McpSchema.Tool::name).containsExactly("get_weather");
+		}
+
+		assertThat(configService.fetches.get()).isEqualTo(1);
+		assertThat(cache.getMissCount()).isEqualTo(1);
+		assertThat(cache.getHitCount()).isEqualTo(9);
+	}
+
+	@Test
+	void pushedConfigReplacesCachedTools() {
+		configService.publish(toolsJson("get_weather"));
+		cache.getTools();
+		String version = cache.getVersion();
+
+		configService.publish(toolsJson("get_weather", "get_forecast"));
+
+		assertThat(cache.getTools()).extracting(McpSchema.Tool::name).containsExactly("get_weather", "get_forecast");
+		assertThat(cache.getVersion()).isNotEqualTo(version);
+		assertThat(cache.getReloadCount()).isEqualTo(1);
+		assertThat(configService.fetches.get()).isEqualTo(1);
+	}
+
+	@Test
+	void samePushedVersionIsNotParsedAgain() {
+		configService.publish(toolsJson("get_weather"));
+		cache.getTools();
+
+		configService.publish(toolsJson("get_weather"));
+
+		assertThat(cache.getReloadCount()).isZero();
+	}
+
+	@Test
+	void brokenPushInvalidatesCacheAndNextListingRefetches() {
+		configService.publish(toolsJson("get_weather"));
+		cache.getTools();
+
+		configService.publish("{not json");
+
+		assertThat(cache.getVersion()).isNull();
+		assertThatThrownBy(cache::getTools).hasMessageContaining("Failed to parse tool list");
+		assertThat(configService.fetches.get()).isEqualTo(2);
+
+		configService.publish(toolsJson("get_forecast"));
+		assertThat(cache.getTools()).extracting(McpSchema.Tool::name).containsExactly("get_forecast");
+	}
+
+	@Test
+	void emptyConfigIsReported() {
+		assertThatThrownBy(cache::getTools).hasMessageContaining("Empty tool config content");
+	}
+
+	@Test
+	void closeRemovesListener() {
+		configService.publish(toolsJson("get_weather"));
+		cache.getTools();
+
+		cache.close();
+		configService.publish(toolsJson("get_forecast"));
+
+		assertThat(configService.listeners).isEmpty();
+		assertThat(cache.getVersion()).isNull();
+	}
+
+	private static String toolsJson(String... names) {
+		StringBuilder tools = new StringBuilder();
+		for (String name : names) {
+			if (!tools.isEmpty()) {
+				tools.append(',');
+			}
+			tools.append("{\"name\":\"")
+				.append(name)
+				.append("\",\"description\":\"")
+				.append(name)
+				.append("\",\"inputSchema\":{\"type\":\"object\",\"properties\":{}}}");
+		}
+		return "{\"tools\":[" + tools + "],\"toolsMeta\":{}}";
+	}
+
+	/**
+	 * Single config entry kept in memory, publishing notifies the listeners like a Nacos
+	 * push.
+	 */
+	private static class InMemoryConfigService {
+
+		private final ConfigService mock = mock(ConfigService.class);
+
+		private final Map<String, String> configs = new ConcurrentHashMap<>();
+
+		private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+		private final AtomicInteger fetches = new AtomicInteger();
+
+		InMemoryConfigService() throws Exception {
+			when(mock.getConfig(anyString(), anyString(), anyLong())).thenAnswer(invocation -> {
+				fetches.incrementAndGet();
+				return configs.get(invocation.getArgument(0) + "@" + invocation.getArgument(1));
+			});
+			when(mock.getConfigAndSignListener(anyString(), anyString(), anyLong(), any())).thenAnswer(invocation -> {
+				fetches.incrementAndGet();
+				listeners.add(invocation.getArgument(3));
+				return configs.get(invocation.getArgument(0) + "@" + invocation.getArgument(1));
+			});
+			doAnswer(invocation -> listeners.remove((Listener) invocation.getArgument(2))).when(mock)
+				.removeListener(anyString(), anyString(), any());
+		}
+
+		void publish(String content) {
+			configs.put(DATA_ID + "@" + GROUP, content);
+			for (Listener listener : listeners) {
+				listener.receiveConfigInfo(content);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.mcp.nacos2.gateway.callback;
+
+import com.alibaba.cloud.ai.mcp.nacos2.gateway.definition.NacosMcpGatewayToolDefinitionV3;
+import com.alibaba.cloud.ai.mcp.nacos2.gateway.utils.SpringBeanUtils;
+import com.alibaba.nacos.api.naming.NamingService;
+import com.alibaba.nacos.api.naming.pojo.Instance;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Instance lookup, backend address and template caching of gateway tool callbacks.
+ */
+class NacosMcpGatewayToolCallbackV3Test {
+
+	private HttpServer server;
+
+	private NamingService namingService;
+
+	private GenericApplicationContext context;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/echo", exchange -> {
+			byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+			exchange.sendResponseHeaders(200, body.length);
+			exchange.getResponseBody().write(body);
+			exchange.close();
+		});
+		server.start();
+
+		namingService = mock(NamingService.class);
+		context = new GenericApplicationContext();
+		context.registerBean(NamingService.class, () -> namingService);
+		context.registerBean(WebClient.Builder.class, WebClient::builder);
+		context.refresh();
+		SpringBeanUtils.getInstance().setApplicationContext(context);
+	}
+
+	@AfterEach
+	void tearDown() {
+		server.stop(0);
+		context.close();
+	}
+
+	@Test
+	void looksUpInstanceOnlyWhenSubscribedAndOffTheCallerThread() throws Exception {
+		Thread caller = Thread.currentThread();
+		AtomicReference<Thread> lookupThread = new AtomicReference<>();
+		Instance instance = instance(Map.of());
+		when(namingService.selectOneHealthyInstance("echo-service", "DEFAULT_GROUP")).thenAnswer(invocation -> {
+			lookupThread.set(Thread.currentThread());
+			return instance;
+		});
+		NacosMcpGatewayToolCallbackV3 callback = new NacosMcpGatewayToolCallbackV3(definition("server-a", "echo", ""));
+
+		Mono<String> result = callback.callAsync("{}", new ToolContext(new HashMap<>()));
+
+		verifyNoInteractions(namingService);
+		assertThat(result.block()).isEqualTo("ok");
+		assertThat(lookupThread.get()).isNotNull().isNotSameAs(caller);
+	}
+
+	@Test
+	void cachesTemplatesPerServerAndTool() throws Exception {
+		Instance instance = instance(Map.of());
+		when(namingService.selectOneHealthyInstance("echo-service", "DEFAULT_GROUP")).thenReturn(instance);
+		NacosMcpGatewayToolCallbackV3 first = new NacosMcpGatewayToolCallbackV3(definition("server-a", "echo", "a: "));
+		NacosMcpGatewayToolCallbackV3 second = new NacosMcpGatewayToolCallbackV3(definition("server-b", "echo", "b: "));
+
+		assertThat(first.call("{}")).isEqualTo("a: ok");
+		assertThat(second.call("{}")).isEqualTo("b: ok");
+		assertThat(first.call("{}")).isEqualTo("a: ok");
+	}
+
+	@Test
+	void baseUrlUsesInstanceSchemeOrSecureMetadata() {
+		assertThat(NacosMcpGatewayToolCallbackV3.baseUrl(instance(Map.of()), "http")).startsWith("http://127.0.0.1:");
+		assertThat(NacosMcpGatewayToolCallbackV3.baseUrl(instance(Map.of()), "HTTPS")).startsWith("https://");
+		assertThat(NacosMcpGatewayToolCallbackV3.baseUrl(instance(Map.of("secure", "true")), "http"))
+			.startsWith("https://");
+		assertThat(
+				NacosMcpGatewayToolCallbackV3.baseUrl(instance(Map.of("scheme", "https", "secure", "false")), "http"))
+			.startsWith("https://");
+	}
+
+	private Instance instance(Map<String, String> metadata) {
+		Instance instance = new Instance();
+		instance.setIp("127.0.0.1");
+		instance.setPort(server.getAddress().getPort());
+		instance.setMetadata(new HashMap<>(metadata));
+		return instance;
+	}
+
+	private static NacosMcpGatewayToolDefinitionV3 definition(String serverName, String toolName, String prefix) {
+		Map<String, Object> template = Map.of("requestTemplate", Map.of("url", "/echo", "method", "GET"),
+				"responseTemplate", Map.of("prependBody", prefix));
+		return (NacosMcpGatewayToolDefinitionV3) NacosMcpGatewayToolDefinitionV3.builder()
+			.name(toolName)
+			.serverName(serverName)
+			.description(toolName)
+			.inputSchema(Map.of("type", "object"))
+			.protocol("http")
+			.remoteServerConfig(
+					Map.of("serviceRef", Map.of("serviceName", "echo-service", "groupName", "DEFAULT_GROUP")))
+			.toolsMeta(Map.of("enabled", true, "templates", Map.of("json-go-template", template)))
+			.build();
+	}
+
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.mcp.nacos2.gateway.watcher;
+
+import com.alibaba.cloud.ai.mcp.nacos2.NacosMcpProperties;
+import com.alibaba.cloud.ai.mcp.nacos2.gateway.properties.NacosMcpGatewayProperties;
+import com.alibaba.cloud.ai.mcp.nacos2.gateway.provider.NacosMcpGatewayToolsProvider;
+import com.alibaba.nacos.api.config.ConfigService;
+import com.alibaba.nacos.api.config.listener.Listener;
+import com.alibaba.nacos.api.naming.NamingService;
+import com.alibaba.nacos.api.naming.listener.EventListener;
+import com.alibaba.nacos.api.naming.listener.NamingEvent;
+import com.alibaba.nacos.api.naming.pojo.Instance;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The watcher against a fake Nacos that pushes config and instance changes.
+ */
+class NacosMcpGatewayToolsWatcherTest {
+
+	private static final String GROUP = "DEFAULT_GROUP";
+
+	private FakeNacos nacos;
+
+	private RecordingToolsProvider provider;
+
+	private NacosMcpGatewayProperties gatewayProperties;
+
+	private NacosMcpGatewayToolsWatcher watcher;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		nacos = new FakeNacos();
+		provider = new RecordingToolsProvider();
+		gatewayProperties = new NacosMcpGatewayProperties();
+		gatewayProperties.setServiceNames(List.of("weather", "map"));
+		nacos.configs.put("weather-mcp-tools.json", toolsJson("get_weather"));
+		nacos.configs.put("map-mcp-tools.json", toolsJson("geocode", "route"));
+		nacos.instances.put("weather", List.of(instance(true)));
+		nacos.instances.put("map", List.of(instance(true)));
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (watcher != null) {
+			watcher.stop();
+		}
+	}
+
+	@Test
+	void subscribesToEveryServiceOnStart() throws Exception {
+		startWatcher();
+
+		assertThat(provider.tools.keySet()).containsExactlyInAnyOrder("get_weather", "geocode", "route");
+		assertThat(nacos.configListeners.keySet()).containsExactlyInAnyOrder("weather-mcp-tools.json",
+				"map-mcp-tools.json");
+		assertThat(nacos.namingListeners.keySet()).containsExactlyInAnyOrder("weather", "map");
+	}
+
+	@Test
+	void configPushOnlyUpdatesItsService() throws Exception {
+		startWatcher();
+		int adds = provider.adds.get();
+		int fetches = nacos.fetches.get();
+
+		nacos.publishConfig("weather-mcp-tools.json", toolsJson("get_forecast"));
+
+		assertThat(provider.tools.keySet()).containsExactlyInAnyOrder("get_forecast", "geocode", "route");
+		assertThat(provider.adds.get()).isEqualTo(adds + 1);
+		assertThat(provider.removed).containsExactly("get_weather");
+		// 推送的配置直接使用，不再读取 Nacos
+		assertThat(nacos.fetches.get()).isEqualTo(fetches);
+	}
+
+	@Test
+	void unchangedToolsAreNotRegisteredAgain() throws Exception {
+		startWatcher();
+		int adds = provider.adds.get();
+
+		nacos.publishConfig("map-mcp-tools.json", toolsJson("geocode", "route"));
+		nacos.publishConfig("map-mcp-tools.json", toolsJson("geocode", "route", "search"));
+
+		assertThat(provider.adds.get()).isEqualTo(adds + 1);
+		assertThat(provider.removed).isEmpty();
+	}
+
+	@Test
+	void instanceChangesOnlyMatterWhenAvailabilityChanges() throws Exception {
+		startWatcher();
+		int adds = provider.adds.get();
+
+		nacos.publishInstances("map", List.of(instance(true), instance(true)));
+		assertThat(provider.adds.get()).isEqualTo(adds);
+		assertThat(provider.removed).isEmpty();
+
+		nacos.publishInstances("map", List.of(instance(false)));
+		assertThat(provider.tools.keySet()).containsExactly("get_weather");
+		assertThat(provider.removed).containsExactlyInAnyOrder("geocode", "route");
+
+		nacos.publishInstances("map", List.of(instance(true)));
+		assertThat(provider.tools.keySet()).containsExactlyInAnyOrder("get_weather", "geocode", "route");
+	}
+
+	@Test
+	void resyncRepairsMissedPushes() throws Exception {
+		gatewayProperties.setResyncInterval(1);
+		startWatcher();
+		int adds = provider.adds.get();
+
+		// 配置变化但推送丢失
+		nacos.configs.put("weather-mcp-tools.json", toolsJson("get_weather", "get_forecast"));
+
+		awaitTrue(() -> provider.tools.containsKey("get_forecast"));
+		assertThat(provider.adds.get()).isEqualTo(adds + 1);
+	}
+
+	@Test
+	void stopUnsubscribes() throws Exception {
+		startWatcher();
+
+		watcher.stop();
+		watcher = null;
+
+		assertThat(nacos.configListeners).isEmpty();
+		assertThat(nacos.namingListeners).isEmpty();
+	}
+
+	private void startWatcher() throws Exception {
+		NacosMcpProperties nacosMcpProperties = mock(NacosMcpProperties.class);
+		when(nacosMcpProperties.getServerAddr()).thenReturn("127.0.0.1:8848");
+		watcher = new NacosMcpGatewayToolsWatcher(nacos.namingService, nacos.configService, nacosMcpProperties,
+				gatewayProperties, provider, mock(WebClient.class));
+		awaitTrue(() -> nacos.namingListeners.size() == 2 && provider.tools.size() == 3);
+	}
+
+	private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!condition.getAsBoolean()) {
+			assertThat(System.currentTimeMillis()).as("condition not met in time").isLessThan(deadline);
+			Thread.sleep(20);
+		}
+	}
+
+	private static Instance instance(boolean healthy) {
+		Instance instance = new Instance();
+		instance.setHealthy(healthy);
+		instance.setEnabled(true);
+		return instance;
+	}
+
+	private static String toolsJson(String... toolNames) {
+		List<String> tools = new ArrayList<>();
+		for (String toolName : toolNames) {
+			tools.add("{\"name\": \"" + toolName + "\", \"description\": \"" + toolName
+					+ "\", \"requestMethod\": \"GET\", \"requestPath\": \"/" + toolName + "\"}");
+		}
+		return "{\"tools\": [" + String.join(", ", tools) + "]}";
+	}
+
+	/**
+	 * Nacos 的配置和服务发现客户端，配置和实例变化同步推送给监听器
+	 */
+	private static class FakeNacos {
+
+		final Map<String, String> configs = new ConcurrentHashMap<>();
+
+		final Map<String, List<Instance>> instances = new ConcurrentHashMap<>();
+
+		final Map<String, Listener> configListeners = new ConcurrentHashMap<>();
+
+		final Map<String, EventListener> namingListeners = new ConcurrentHashMap<>();
+
+		final AtomicInteger fetches = new AtomicInteger();
+
+		final ConfigService configService = mock(ConfigService.class);
+
+		final NamingService namingService = mock(NamingService.class);
+
+		FakeNacos() throws Exception {
+			when(configService.getConfig(anyString(), anyString(), anyLong())).thenAnswer(invocation -> {
+				fetches.incrementAndGet();
+				return configs.get(invocation.<String>getArgument(0));
+			});
+			when(configService.getConfigAndSignListener(anyString(), anyString(), anyLong(), any()))
+				.thenAnswer(invocation -> {
+					fetches.incrementAndGet();
+					configListeners.put(invocation.getArgument(0), invocation.getArgument(3));
+					return configs.get(invocation.<String>getArgument(0));
+				});
+			doAnswer(invocation -> configListeners.remove(invocation.<String>getArgument(0), invocation.getArgument(2)))
+				.when(configService)
+				.removeListener(anyString(), anyString(), any());
+			when(namingService.getAllInstances(anyString(), anyString()))
+				.thenAnswer(invocation -> instances.getOrDefault(invocation.<String>getArgument(0), List.of()));
+			doAnswer(invocation -> namingListeners.put(invocation.getArgument(0), invocation.getArgument(2)))
+				.when(namingService)
+				.subscribe(anyString(), anyString(), any(EventListener.class));
+			doAnswer(invocation -> namingListeners.remove(invocation.<String>getArgument(0), invocation.getArgument(2)))
+				.when(namingService)
+				.unsubscribe(anyString(), anyString(), any(EventListener.class));
+		}
+
+		void publishConfig(String dataId, String content) {
+			configs.put(dataId, content);
+			Listener listener = configListeners.get(dataId);
+			if (listener != null) {
+				listener.receiveConfigInfo(content);
+			}
+		}
+
+		void publishInstances(String serviceName, List<Instance> serviceInstances) {
+			instances.put(serviceName, serviceInstances);
+			EventListener listener = namingListeners.get(serviceName);
+			if (listener != null) {
+				listener.onEvent(new NamingEvent(GROUP + "@@" + serviceName, serviceInstances));
+			}
+		}
+
+	}
+
+	private static class RecordingToolsProvider implements NacosMcpGatewayToolsProvider {
+
+		final Map<String, ToolDefinition> tools = new ConcurrentHashMap<>();
+
+		final List<String> removed = new CopyOnWriteArrayList<>();
+
+		final AtomicInteger adds = new AtomicInteger();
+
+		@Override
+		public void addTool(ToolDefinition toolDefinition) {
+			adds.incrementAndGet();
+			tools.put(toolDefinition.name(), toolDefinition);
+		}
+
+		@Override
+		public void removeTool(String toolName) {
+			removed.add(toolName);
+			tools.remove(toolName);
+		}
+
+	}
+
+}
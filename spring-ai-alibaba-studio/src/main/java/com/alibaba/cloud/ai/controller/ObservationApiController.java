@@ -17,6 +17,8 @@ package com.alibaba.cloud.ai.controller;
 
 import com.alibaba.cloud.ai.common.R;
 import com.alibaba.cloud.ai.oltp.StudioObservabilityProperties;
+import com.alibaba.cloud.ai.oltp.store.TraceQuery;
+import com.alibaba.cloud.ai.oltp.store.TraceSummary;
 import com.alibaba.cloud.ai.service.StudioObservabilityService;
 import com.alibaba.cloud.ai.service.impl.StudioObservabilityServiceImpl;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -29,6 +31,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
 import java.util.logging.Logger;
 
 /**
@@ -42,6 +45,8 @@ public class ObservationApiController {
 
 	private static final Logger logger = Logger.getLogger(ObservationApiController.class.getName());
 
+	private static final int DEFAULT_TRACE_LIMIT = 100;
+
 	private final ChatClient chatClient;
 
 	private final ChatModel chatModel;
@@ -73,6 +78,14 @@ public class ObservationApiController {
 		return R.success(res);
 	}
 
+	@GetMapping("/traces")
+	R<List<TraceSummary>> traces(String serviceName, String spanName, Long startTimeFrom, Long startTimeTo,
+			Integer limit) {
+		var res = studioObservabilityService.listTraces(new TraceQuery(serviceName, spanName, startTimeFrom,
+				startTimeTo, limit == null ? DEFAULT_TRACE_LIMIT : limit));
+		return R.success(res);
+	}
+
 	@GetMapping("/clearAll")
 	R<String> clearAll() {
 		var res = studioObservabilityService.clearExportContent();
@@ -16,7 +16,10 @@
 package com.alibaba.cloud.ai.oltp;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.DeprecatedConfigurationProperty;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+import java.time.Duration;
 
 /**
  * @author 肖云涛
@@ -32,10 +35,36 @@ public class StudioObservabilityProperties {
 
 	private String outputFile;
 
+	/**
+	 * Directory of the span store segments.
+	 */
+	private String storeDirectory;
+
+	/**
+	 * Size at which the active segment is rotated.
+	 */
+	private DataSize segmentMaxSize;
+
+	/**
+	 * Age after which a segment is deleted.
+	 */
+	private Duration retention;
+
+	/**
+	 * Size of all segments above which the oldest are deleted.
+	 */
+	private DataSize maxRetainedSize;
+
 	public boolean isEnabled() {
 		return this.enabled;
 	}
 
+	/**
+	 * @deprecated spans are no longer written to a single file but to the segments in
+	 * {@link #getStoreDirectory()}
+	 */
+	@Deprecated
+	@DeprecatedConfigurationProperty(replacement = CONFIG_PREFIX + ".store-directory")
 	public String getOutputFile() {
 		return this.outputFile;
 	}
@@ -44,13 +73,50 @@ public class StudioObservabilityProperties {
 		this.enabled = enabled;
 	}
 
+	@Deprecated
 	public void setOutputFile(String outputFile) {
 		this.outputFile = outputFile;
 	}
 
+	public String getStoreDirectory() {
+		return this.storeDirectory;
+	}
+
+	public void setStoreDirectory(String storeDirectory) {
+		this.storeDirectory = storeDirectory;
+	}
+
+	public DataSize getSegmentMaxSize() {
+		return this.segmentMaxSize;
+	}
+
+	public void setSegmentMaxSize(DataSize segmentMaxSize) {
+		this.segmentMaxSize = segmentMaxSize;
+	}
+
+	public Duration getRetention() {
+		return this.retention;
+	}
+
+	public void setRetention(Duration retention) {
+		this.retention = retention;
+	}
+
+	public DataSize getMaxRetainedSize() {
+		return this.maxRetainedSize;
+	}
+
+	public void setMaxRetainedSize(DataSize maxRetainedSize) {
+		this.maxRetainedSize = maxRetainedSize;
+	}
+
 	public StudioObservabilityProperties() {
 		this.enabled = true;
 		this.outputFile = "spring-ai-alibaba-studio/spans.json";
+		this.storeDirectory = "spring-ai-alibaba-studio/spans";
+		this.segmentMaxSize = DataSize.ofMegabytes(64);
+		this.retention = Duration.ofDays(7);
+		this.maxRetainedSize = DataSize.ofGigabytes(1);
 	}
 
 }
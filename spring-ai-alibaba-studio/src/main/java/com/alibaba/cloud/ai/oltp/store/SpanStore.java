@@ -0,0 +1,671 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.oltp.store;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * An embedded store of OTLP JSON {@code ResourceSpans}. Each exported
+ * {@code ResourceSpans} is appended as one line to the active segment file of the
+ * directory, the spans are indexed in memory by trace id, service name, start time and
+ * span name. Queries read only the lines holding their result, instead of re-reading and
+ * re-parsing the whole history.
+ * <p>
+ * The active segment is rotated once it reaches the max segment size. Old segments are
+ * deleted, together with their index entries, once they are older than the retention or
+ * the store exceeds the max retained size.
+ * <p>
+ * Several stores may share a directory, e.g. the one of the span exporter and the one of
+ * the studio console. Before every operation a store indexes the lines the others have
+ * appended since and forgets the segments they have deleted, so only one of them should
+ * append.
+ *
+ * @since 2025/6/27
+ */
+public class SpanStore {
+
+	private static final Logger logger = Logger.getLogger(SpanStore.class.getName());
+
+	private static final String SEGMENT_PREFIX = "spans-";
+
+	private static final String SEGMENT_SUFFIX = ".jsonl";
+
+	private static final String SERVICE_NAME_KEY = "service.name";
+
+	private static final Comparator<TraceEntry> BY_START = Comparator.comparingLong((TraceEntry trace) -> trace.start)
+		.thenComparing(trace -> trace.traceId);
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final Path directory;
+
+	private final long segmentMaxBytes;
+
+	private final Duration retention;
+
+	private final long maxRetainedBytes;
+
+	private final List<String> markerAttributePrefixes;
+
+	private final TreeMap<Long, Segment> segments = new TreeMap<>();
+
+	private final Map<String, TraceEntry> traces = new HashMap<>();
+
+	private final TreeSet<TraceEntry> tracesByStart = new TreeSet<>(BY_START);
+
+	private final Map<String, NavigableSet<TraceEntry>> tracesByService = new HashMap<>();
+
+	private final Map<String, NavigableSet<TraceEntry>> tracesBySpanName = new HashMap<>();
+
+	private long spanCount;
+
+	/**
+	 * @param segmentMaxBytes size at which the active segment is rotated
+	 * @param retention age after which a segment is deleted
+	 * @param maxRetainedBytes size of all segments above which the oldest are deleted
+	 * @param markerAttributePrefixes prefixes of span attribute keys marking the
+	 * {@code ResourceSpans} returned by {@link #readMarkedResourceSpans()}
+	 */
+	public SpanStore(Path directory, long segmentMaxBytes, Duration retention, long maxRetainedBytes,
+			List<String> markerAttributePrefixes) {
+		this.directory = directory;
+		this.segmentMaxBytes = segmentMaxBytes;
+		this.retention = retention;
+		this.maxRetainedBytes = maxRetainedBytes;
+		this.markerAttributePrefixes = List.copyOf(markerAttributePrefixes);
+	}
+
+	/**
+	 * Appends {@code ResourceSpans} JSON documents, one per line, to the active segment
+	 * and indexes them. Rotates the segment and applies the retention afterwards.
+	 */
+	public synchronized void append(Collection<String> resourceSpans) throws IOException {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		for (String json : resourceSpans) {
+			if (!json.isBlank()) {
+				buffer.writeBytes(json.strip().getBytes(StandardCharsets.UTF_8));
+				buffer.write('\n');
+			}
+		}
+		if (buffer.size() == 0) {
+			return;
+		}
+		Files.createDirectories(directory);
+		refresh();
+		Segment segment = activeSegment(buffer.size());
+		try (FileChannel channel = FileChannel.open(segment.path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.APPEND)) {
+			ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+			while (bytes.hasRemaining()) {
+				channel.write(bytes);
+			}
+		}
+		index(segment);
+		applyRetention();
+	}
+
+	/**
+	 * The spans of the trace, as one {@code ResourceSpans} per line holding some of them.
+	 * Spans of other traces in those lines are left out.
+	 * @return an empty list if the trace is unknown
+	 */
+	public synchronized List<JsonNode> getTrace(String traceId) throws IOException {
+		refresh();
+		TraceEntry trace = traces.get(traceId);
+		if (trace == null) {
+			return List.of();
+		}
+		List<JsonNode> result = new ArrayList<>(trace.parts.size());
+		for (TracePart part : trace.parts) {
+			JsonNode resourceSpans = read(part.line);
+			ObjectNode filtered = objectMapper.createObjectNode();
+			filtered.set("resource", resourceSpans.path("resource"));
+			ArrayNode scopeSpans = filtered.putArray("scopeSpans");
+			for (JsonNode scopeSpan : resourceSpans.path("scopeSpans")) {
+				ArrayNode spans = objectMapper.createArrayNode();
+				for (JsonNode span : scopeSpan.path("spans")) {
+					if (traceId.equals(span.path("traceId").asText())) {
+						spans.add(span);
+					}
+				}
+				if (!spans.isEmpty()) {
+					ObjectNode filteredScopeSpan = scopeSpans.addObject();
+					filteredScopeSpan.set("scope", scopeSpan.path("scope"));
+					filteredScopeSpan.set("spans", spans);
+				}
+			}
+			result.add(filtered);
+		}
+		return result;
+	}
+
+	/**
+	 * Traces with a root span matching the query, the most recently started first. Reads
+	 * the index of the most selective filter only.
+	 */
+	public synchronized List<TraceSummary> findTraces(TraceQuery query) throws IOException {
+		refresh();
+		NavigableSet<TraceEntry> candidates;
+		if (query.spanName() != null) {
+			candidates = tracesBySpanName.getOrDefault(query.spanName(), Collections.emptyNavigableSet());
+		}
+		else if (query.serviceName() != null) {
+			candidates = tracesByService.getOrDefault(query.serviceName(), Collections.emptyNavigableSet());
+		}
+		else {
+			candidates = tracesByStart;
+		}
+		if (query.startTimeFrom() != null || query.startTimeTo() != null) {
+			long from = query.startTimeFrom() == null ? Long.MIN_VALUE : query.startTimeFrom();
+			long to = query.startTimeTo() == null ? Long.MAX_VALUE : query.startTimeTo();
+			if (from > to) {
+				return List.of();
+			}
+			candidates = candidates.subSet(TraceEntry.probe(from, ""), true, TraceEntry.probe(to, "\uffff"), true);
+		}
+		List<TraceSummary> result = new ArrayList<>();
+		for (TraceEntry trace : candidates.descendingSet()) {
+			if (result.size() >= query.limit()) {
+				break;
+			}
+			if (trace.rootService != null
+					&& (query.serviceName() == null || trace.services.contains(query.serviceName()))
+					&& (query.spanName() == null || trace.spanNames.contains(query.spanName()))) {
+				result.add(new TraceSummary(trace.traceId, trace.rootService, trace.spanCount, trace.start, trace.end));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Every stored {@code ResourceSpans}, in the order they were appended.
+	 */
+	public synchronized List<JsonNode> readAll() throws IOException {
+		refresh();
+		List<JsonNode> result = new ArrayList<>();
+		for (Segment segment : segments.values()) {
+			for (Line line : segment.lines) {
+				result.add(read(line));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * The stored {@code ResourceSpans} with a span having an attribute key starting with
+	 * one of the marker prefixes, in the order they were appended.
+	 */
+	public synchronized List<JsonNode> readMarkedResourceSpans() throws IOException {
+		refresh();
+		List<JsonNode> result = new ArrayList<>();
+		for (Segment segment : segments.values()) {
+			for (Line line : segment.lines) {
+				if (line.marked) {
+					result.add(read(line));
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Deletes every segment.
+	 */
+	public synchronized void clear() throws IOException {
+		for (Path file : listSegmentFiles()) {
+			Files.deleteIfExists(file);
+		}
+		for (Segment segment : new ArrayList<>(segments.values())) {
+			drop(segment);
+		}
+	}
+
+	public synchronized long getSpanCount() throws IOException {
+		refresh();
+		return spanCount;
+	}
+
+	public synchronized int getTraceCount() throws IOException {
+		refresh();
+		return traces.size();
+	}
+
+	public synchronized int getSegmentCount() throws IOException {
+		refresh();
+		return segments.size();
+	}
+
+	/**
+	 * Indexes the lines appended to the segment files since the last call and forgets the
+	 * deleted segments.
+	 */
+	private void refresh() throws IOException {
+		Map<Long, Path> files = new HashMap<>();
+		for (Path file : listSegmentFiles()) {
+			files.put(segmentId(file), file);
+		}
+		for (Segment segment : new ArrayList<>(segments.values())) {
+			if (!files.containsKey(segment.id)) {
+				drop(segment);
+			}
+		}
+		for (Map.Entry<Long, Path> file : new TreeMap<>(files).entrySet()) {
+			index(segments.computeIfAbsent(file.getKey(), id -> new Segment(id, file.getValue())));
+		}
+	}
+
+	/**
+	 * Indexes the complete lines of the segment beyond the indexed bytes, a line being
+	 * appended is indexed once its line break is written.
+	 */
+	private void index(Segment segment) throws IOException {
+		long size;
+		try {
+			size = Files.size(segment.path);
+		}
+		catch (NoSuchFileException e) {
+			drop(segment);
+			return;
+		}
+		if (size < segment.indexedBytes) {
+			// the file was deleted and created again
+			drop(segment);
+			segment = new Segment(segment.id, segment.path);
+			segments.put(segment.id, segment);
+		}
+		if (size == segment.indexedBytes) {
+			return;
+		}
+		byte[] bytes = new byte[(int) (size - segment.indexedBytes)];
+		readFully(segment, segment.indexedBytes, bytes);
+		int lineStart = 0;
+		for (int i = 0; i < bytes.length; i++) {
+			if (bytes[i] == '\n') {
+				indexLine(segment, segment.indexedBytes + lineStart, bytes, lineStart, i - lineStart);
+				lineStart = i + 1;
+			}
+		}
+		segment.indexedBytes += lineStart;
+	}
+
+	private void indexLine(Segment segment, long offset, byte[] bytes, int start, int length) {
+		JsonNode resourceSpans;
+		try {
+			resourceSpans = objectMapper.readTree(bytes, start, length);
+		}
+		catch (IOException e) {
+			logger.log(Level.WARNING, "Invalid JSON entry in " + segment.path + " at " + offset, e);
+			return;
+		}
+		if (resourceSpans == null || !resourceSpans.isObject()) {
+			return;
+		}
+		Line line = new Line(segment, offset, length, serviceName(resourceSpans.path("resource")));
+		Map<String, TracePart> parts = new LinkedHashMap<>();
+		for (JsonNode scopeSpan : resourceSpans.path("scopeSpans")) {
+			for (JsonNode span : scopeSpan.path("spans")) {
+				String traceId = span.path("traceId").asText();
+				if (traceId.isEmpty()) {
+					continue;
+				}
+				parts.computeIfAbsent(traceId, id -> new TracePart(line))
+					.add(span.path("name").asText(), span.path("startTimeUnixNano").asLong(),
+							span.path("endTimeUnixNano").asLong(), span.path("parentSpanId").asText().isEmpty());
+				line.marked |= hasMarkerAttribute(span);
+			}
+		}
+		segment.lines.add(line);
+		parts.forEach((traceId, part) -> {
+			TraceEntry trace = traces.computeIfAbsent(traceId, TraceEntry::new);
+			unindex(trace);
+			trace.add(part);
+			index(trace);
+			segment.traces.add(trace);
+			spanCount += part.spanCount;
+		});
+	}
+
+	private void drop(Segment segment) {
+		segments.remove(segment.id, segment);
+		for (TraceEntry trace : segment.traces) {
+			unindex(trace);
+			for (TracePart part : trace.parts) {
+				if (part.line.segment == segment) {
+					spanCount -= part.spanCount;
+				}
+			}
+			trace.parts.removeIf(part -> part.line.segment == segment);
+			if (trace.parts.isEmpty()) {
+				traces.remove(trace.traceId);
+			}
+			else {
+				trace.recompute();
+				index(trace);
+			}
+		}
+		segment.close();
+	}
+
+	private void index(TraceEntry trace) {
+		tracesByStart.add(trace);
+		for (String service : trace.services) {
+			tracesByService.computeIfAbsent(service, key -> new TreeSet<>(BY_START)).add(trace);
+		}
+		for (String spanName : trace.spanNames) {
+			tracesBySpanName.computeIfAbsent(spanName, key -> new TreeSet<>(BY_START)).add(trace);
+		}
+	}
+
+	/**
+	 * Removes the trace from the indexes, before changing its start time.
+	 */
+	private void unindex(TraceEntry trace) {
+		tracesByStart.remove(trace);
+		for (String service : trace.services) {
+			remove(tracesByService, service, trace);
+		}
+		for (String spanName : trace.spanNames) {
+			remove(tracesBySpanName, spanName, trace);
+		}
+	}
+
+	private static void remove(Map<String, NavigableSet<TraceEntry>> index, String key, TraceEntry trace) {
+		NavigableSet<TraceEntry> set = index.get(key);
+		if (set != null && set.remove(trace) && set.isEmpty()) {
+			index.remove(key);
+		}
+	}
+
+	private Segment activeSegment(int appendBytes) throws IOException {
+		Map.Entry<Long, Segment> last = segments.lastEntry();
+		if (last != null) {
+			long size = Files.size(last.getValue().path);
+			if (size == 0 || size + appendBytes <= segmentMaxBytes) {
+				return last.getValue();
+			}
+		}
+		// ids are based on the time, a segment created after a clear never reuses an id
+		// another store has indexed
+		long id = Math.max(last == null ? 0 : last.getKey() + 1, System.currentTimeMillis());
+		Segment segment = new Segment(id,
+				directory.resolve(String.format("%s%019d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX)));
+		segments.put(id, segment);
+		return segment;
+	}
+
+	/**
+	 * Deletes the oldest segments, except the active one, while they are older than the
+	 * retention or the store is larger than the max retained size.
+	 */
+	private void applyRetention() throws IOException {
+		long retained = 0;
+		for (Segment segment : segments.values()) {
+			retained += segment.indexedBytes;
+		}
+		FileTime expiry = FileTime.from(Instant.now().minus(retention));
+		Segment active = segments.lastEntry().getValue();
+		for (Segment segment : new ArrayList<>(segments.values())) {
+			if (segment == active) {
+				break;
+			}
+			boolean expired = Files.getLastModifiedTime(segment.path).compareTo(expiry) < 0;
+			if (!expired && retained <= maxRetainedBytes) {
+				break;
+			}
+			retained -= segment.indexedBytes;
+			Files.deleteIfExists(segment.path);
+			drop(segment);
+			logger.log(Level.FINE, "Deleted span segment " + segment.path);
+		}
+	}
+
+	private List<Path> listSegmentFiles() throws IOException {
+		if (!Files.isDirectory(directory)) {
+			return List.of();
+		}
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.filter(file -> {
+				String name = file.getFileName().toString();
+				return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+			}).toList();
+		}
+	}
+
+	private static long segmentId(Path file) {
+		String name = file.getFileName().toString();
+		return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+	}
+
+	private JsonNode read(Line line) throws IOException {
+		byte[] bytes = new byte[line.length];
+		readFully(line.segment, line.offset, bytes);
+		return objectMapper.readTree(bytes);
+	}
+
+	private static void readFully(Segment segment, long position, byte[] bytes) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(bytes);
+		FileChannel channel = segment.reader();
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, position + buffer.position()) < 0) {
+				throw new IOException("Unexpected end of " + segment.path);
+			}
+		}
+	}
+
+	private static String serviceName(JsonNode resource) {
+		for (JsonNode attribute : resource.path("attributes")) {
+			if (SERVICE_NAME_KEY.equals(attribute.path("key").asText())) {
+				return attribute.path("value").path("stringValue").asText();
+			}
+		}
+		return "";
+	}
+
+	private boolean hasMarkerAttribute(JsonNode span) {
+		for (JsonNode attribute : span.path("attributes")) {
+			String key = attribute.path("key").asText();
+			for (String prefix : markerAttributePrefixes) {
+				if (key.startsWith(prefix)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static final class Segment {
+
+		private final long id;
+
+		private final Path path;
+
+		private final List<Line> lines = new ArrayList<>();
+
+		private final Set<TraceEntry> traces = new HashSet<>();
+
+		private long indexedBytes;
+
+		private FileChannel reader;
+
+		private Segment(long id, Path path) {
+			this.id = id;
+			this.path = path;
+		}
+
+		private FileChannel reader() throws IOException {
+			if (reader == null) {
+				reader = FileChannel.open(path, StandardOpenOption.READ);
+			}
+			return reader;
+		}
+
+		private void close() {
+			if (reader != null) {
+				try {
+					reader.close();
+				}
+				catch (IOException ignore) {
+				}
+				reader = null;
+			}
+		}
+
+	}
+
+	/**
+	 * A {@code ResourceSpans} line of a segment.
+	 */
+	private static final class Line {
+
+		private final Segment segment;
+
+		private final long offset;
+
+		private final int length;
+
+		private final String serviceName;
+
+		private boolean marked;
+
+		private Line(Segment segment, long offset, int length, String serviceName) {
+			this.segment = segment;
+			this.offset = offset;
+			this.length = length;
+			this.serviceName = serviceName;
+		}
+
+	}
+
+	/**
+	 * The spans of a trace in one line.
+	 */
+	private static final class TracePart {
+
+		private final Line line;
+
+		private final Set<String> spanNames = new HashSet<>(4);
+
+		private int spanCount;
+
+		private long start = Long.MAX_VALUE;
+
+		private long end = Long.MIN_VALUE;
+
+		private boolean root;
+
+		private TracePart(Line line) {
+			this.line = line;
+		}
+
+		private void add(String spanName, long spanStart, long spanEnd, boolean rootSpan) {
+			spanNames.add(spanName);
+			spanCount++;
+			start = Math.min(start, spanStart);
+			end = Math.max(end, spanEnd);
+			root |= rootSpan;
+		}
+
+	}
+
+	private static final class TraceEntry {
+
+		private final String traceId;
+
+		private final List<TracePart> parts = new ArrayList<>(1);
+
+		private final Set<String> services = new HashSet<>(2);
+
+		private final Set<String> spanNames = new HashSet<>(4);
+
+		private int spanCount;
+
+		private long start = Long.MAX_VALUE;
+
+		private long end = Long.MIN_VALUE;
+
+		// service of the root span, null until the root span is indexed
+		private String rootService;
+
+		private TraceEntry(String traceId) {
+			this.traceId = traceId;
+		}
+
+		private static TraceEntry probe(long start, String traceId) {
+			TraceEntry probe = new TraceEntry(traceId);
+			probe.start = start;
+			return probe;
+		}
+
+		private void add(TracePart part) {
+			parts.add(part);
+			merge(part);
+		}
+
+		private void recompute() {
+			services.clear();
+			spanNames.clear();
+			spanCount = 0;
+			start = Long.MAX_VALUE;
+			end = Long.MIN_VALUE;
+			rootService = null;
+			parts.forEach(this::merge);
+		}
+
+		private void merge(TracePart part) {
+			services.add(part.line.serviceName);
+			spanNames.addAll(part.spanNames);
+			spanCount += part.spanCount;
+			start = Math.min(start, part.start);
+			end = Math.max(end, part.end);
+			if (part.root && rootService == null) {
+				rootService = part.line.serviceName;
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.oltp.store;
+
+/**
+ * Filters of a trace list query. Null filters match every trace.
+ *
+ * @param serviceName service of any span of the trace
+ * @param spanName name of any span of the trace
+ * @param startTimeFrom min start time of the trace (unix nanos, inclusive)
+ * @param startTimeTo max start time of the trace (unix nanos, inclusive)
+ * @param limit max number of traces returned
+ * @since 2025/6/27
+ */
+public record TraceQuery(String serviceName, String spanName, Long startTimeFrom, Long startTimeTo, int limit) {
+
+	public static TraceQuery all() {
+		return new TraceQuery(null, null, null, null, Integer.MAX_VALUE);
+	}
+
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.oltp.store;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+/**
+ * A trace of the {@link SpanStore}, summarized from its indexed spans.
+ *
+ * @param serviceName service of the root span
+ * @param spansSize number of spans of the trace
+ * @param startTimeUnixNano start time of the earliest span, serialized as a string like
+ * in OTLP JSON
+ * @since 2025/6/27
+ */
+public record TraceSummary(String traceId, String serviceName, int spansSize,
+		@JsonFormat(shape = JsonFormat.Shape.STRING) long startTimeUnixNano,
+		@JsonFormat(shape = JsonFormat.Shape.STRING) long endTimeUnixNano) {
+
+}
@@ -15,11 +15,14 @@
  */
 package com.alibaba.cloud.ai.service;
 
+import com.alibaba.cloud.ai.oltp.store.TraceQuery;
+import com.alibaba.cloud.ai.oltp.store.TraceSummary;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import io.opentelemetry.exporter.internal.otlp.traces.ResourceSpansMarshaler;
 import io.opentelemetry.sdk.common.CompletableResultCode;
 import java.util.Collection;
+import java.util.List;
 
 /**
  * @author 肖云涛
@@ -35,6 +38,11 @@ public interface StudioObservabilityService {
 
 	JsonNode getTraceByTraceId(String traceId);
 
+	/**
+	 * Traces with a root span matching the query, the most recently started first.
+	 */
+	List<TraceSummary> listTraces(TraceQuery query);
+
 	String clearExportContent();
 
 }
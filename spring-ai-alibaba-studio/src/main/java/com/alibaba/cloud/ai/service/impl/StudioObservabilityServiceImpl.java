@@ -17,8 +17,10 @@ package com.alibaba.cloud.ai.service.impl;
 
 import com.alibaba.cloud.ai.exception.NotFoundException;
 import com.alibaba.cloud.ai.oltp.StudioObservabilityProperties;
+import com.alibaba.cloud.ai.oltp.store.SpanStore;
+import com.alibaba.cloud.ai.oltp.store.TraceQuery;
+import com.alibaba.cloud.ai.oltp.store.TraceSummary;
 import com.alibaba.cloud.ai.service.StudioObservabilityService;
-import com.alibaba.cloud.ai.utils.FileUtils;
 import com.alibaba.cloud.ai.utils.JsonUtil;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -27,13 +29,11 @@ import com.fasterxml.jackson.core.io.SegmentedStringWriter;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.opentelemetry.exporter.internal.otlp.traces.ResourceSpansMarshaler;
 import io.opentelemetry.sdk.common.CompletableResultCode;
-import java.io.BufferedWriter;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -41,6 +41,9 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
+ * Keeps the exported spans in a {@link SpanStore}, so that trace queries read only the
+ * spans of their result.
+ *
  * @author 肖云涛
  * @since 2024/12/8
  */
@@ -50,74 +53,42 @@ public class StudioObservabilityServiceImpl implements StudioObservabilityServic
 
 	private final ObjectMapper objectMapper;
 
-	private final StudioObservabilityProperties studioObservabilityProperties;
-
-	private final Path outputPath;
-
-	private static final String LINE_SEPARATOR = System.lineSeparator();
+	private final SpanStore spanStore;
 
 	private final List<String> keyPrefixes = List.of("gen_ai.operation", "spring.ai");
 
 	public StudioObservabilityServiceImpl(StudioObservabilityProperties studioObservabilityProperties) {
 		this.objectMapper = new ObjectMapper();
-		this.studioObservabilityProperties = studioObservabilityProperties;
-		this.outputPath = Path.of(studioObservabilityProperties.getOutputFile());
+		this.spanStore = new SpanStore(Path.of(studioObservabilityProperties.getStoreDirectory()),
+				studioObservabilityProperties.getSegmentMaxSize().toBytes(),
+				studioObservabilityProperties.getRetention(),
+				studioObservabilityProperties.getMaxRetainedSize().toBytes(), keyPrefixes);
 	}
 
 	@Override
 	public CompletableResultCode export(Collection<ResourceSpansMarshaler> allResourceSpans) {
+		List<String> lines = new ArrayList<>(allResourceSpans.size());
+		for (ResourceSpansMarshaler resourceSpans : allResourceSpans) {
+			lines.add(generateJson(resourceSpans));
+		}
 		try {
-			FileUtils.createFileIfNotExists(outputPath);
-
-			try (BufferedWriter writer = Files.newBufferedWriter(outputPath, StandardOpenOption.APPEND)) {
-				StringBuilder sb = new StringBuilder();
-				for (ResourceSpansMarshaler resourceSpans : allResourceSpans) {
-					String json = generateJson(resourceSpans);
-					sb.append(json).append(LINE_SEPARATOR);
-
-					if (sb.length() > 1024 * 1024) {
-						writer.write(sb.toString());
-						sb.setLength(0);
-					}
-				}
-
-				if (!sb.isEmpty()) {
-					writer.write(sb.toString());
-				}
-			}
-
+			spanStore.append(lines);
 		}
 		catch (IOException e) {
-			logger.log(Level.SEVERE, "Error exporting spans to file", e);
+			logger.log(Level.SEVERE, "Error exporting spans to the span store", e);
 			return CompletableResultCode.ofFailure();
 		}
-
 		return CompletableResultCode.ofSuccess();
 	}
 
 	@Override
 	public ArrayNode getAITraceInfo() {
 		ArrayNode resultArray = objectMapper.createArrayNode();
-		ArrayNode jsonArray = readObservabilityFile();
-
-		for (JsonNode jsonNode : jsonArray) {
-			JsonNode scopeSpans = jsonNode.path("scopeSpans");
-			JsonNode spans = scopeSpans.get(0).path("spans");
-			for (JsonNode span : spans) {
-				JsonNode attributes = span.path("attributes");
-				boolean hasMatchingKey = false;
-				for (JsonNode attribute : attributes) {
-					String key = attribute.path("key").asText();
-					if (keyPrefixes.stream().anyMatch(key::startsWith)) {
-						hasMatchingKey = true;
-						break;
-					}
-				}
-				if (hasMatchingKey) {
-					resultArray.add(jsonNode);
-					break;
-				}
-			}
+		try {
+			resultArray.addAll(spanStore.readMarkedResourceSpans());
+		}
+		catch (IOException e) {
+			logger.log(Level.WARNING, "Error reading spans from the span store", e);
 		}
 		return resultArray;
 	}
@@ -139,81 +110,54 @@ public class StudioObservabilityServiceImpl implements StudioObservabilityServic
 	@Override
 	public ArrayNode readObservabilityFile() {
 		ArrayNode jsonArray = objectMapper.createArrayNode();
-
-		if (!outputPath.toFile().isFile()) {
-			logger.log(Level.WARNING, "Invalid file path: " + studioObservabilityProperties.getOutputFile());
-			return jsonArray;
-		}
-
 		try {
-			List<String> lines = FileUtils.readLines(outputPath);
-			for (String line : lines) {
-				try {
-					JsonNode jsonNode = objectMapper.readTree(line);
-					jsonArray.add(jsonNode);
-				}
-				catch (IOException e) {
-					logger.log(Level.WARNING, "Invalid JSON entry in file: " + line, e);
-				}
-			}
+			jsonArray.addAll(spanStore.readAll());
 		}
 		catch (IOException e) {
-			logger.log(Level.WARNING, "Error reading JSON from file", e);
+			logger.log(Level.WARNING, "Error reading spans from the span store", e);
 		}
 		return jsonArray;
 	}
 
 	@Override
 	public JsonNode getTraceByTraceId(String traceId) {
-		ArrayNode jsonArray = readObservabilityFile();
+		List<JsonNode> parts;
+		try {
+			parts = spanStore.getTrace(traceId);
+		}
+		catch (IOException e) {
+			logger.log(Level.WARNING, "Error reading spans from the span store", e);
+			parts = List.of();
+		}
+		if (parts.isEmpty()) {
+			throw new NotFoundException("Not found trace info");
+		}
+		// The spans of a trace may be exported in several batches
+		ObjectNode trace = parts.get(0).deepCopy();
+		ArrayNode scopeSpans = (ArrayNode) trace.get("scopeSpans");
+		for (JsonNode part : parts.subList(1, parts.size())) {
+			part.path("scopeSpans").forEach(scopeSpans::add);
+		}
+		return trace;
+	}
 
-		for (JsonNode jsonNode : jsonArray) {
-			JsonNode scopeSpans = jsonNode.path("scopeSpans");
-			JsonNode spans = scopeSpans.get(0).path("spans");
-			JsonNode traceIdNode = spans.get(0).path("traceId");
-			if (traceIdNode.isTextual() && traceIdNode.asText().equals(traceId)) {
-				return jsonNode;
-			}
+	@Override
+	public List<TraceSummary> listTraces(TraceQuery query) {
+		try {
+			return spanStore.findTraces(query);
+		}
+		catch (IOException e) {
+			logger.log(Level.WARNING, "Error reading spans from the span store", e);
+			return List.of();
 		}
-		throw new NotFoundException("Not found trace info");
 	}
 
 	public List<ListResponse> extractSpansWithoutParentSpanId() {
 		List<ListResponse> spanDataList = new ArrayList<>();
-		ArrayNode jsonArray = readObservabilityFile();
-
-		for (JsonNode jsonNode : jsonArray) {
-			JsonNode scopeSpansNode = jsonNode.path("scopeSpans");
-
-			// Flag to track if we've found a span without parentSpanId
-			boolean found = false;
-
-			for (JsonNode scopeSpan : scopeSpansNode) {
-				JsonNode spansNode = scopeSpan.path("spans");
-
-				// Skip further processing if already found a valid span
-				if (found)
-					break;
-
-				for (JsonNode span : spansNode) {
-					// Check if the span has no parentSpanId
-					if (!span.has("parentSpanId")) {
-						String traceId = span.path("traceId").asText();
-						String startTimeUnixNano = span.path("startTimeUnixNano").asText();
-						String endTimeUnixNano = span.path("endTimeUnixNano").asText();
-
-						ListResponse spanData = new ListResponse(traceId, spansNode.size(), startTimeUnixNano,
-								endTimeUnixNano);
-						spanDataList.add(spanData);
-
-						// Mark that we found a valid span and stop further searches
-						found = true;
-						break;
-					}
-				}
-			}
+		for (TraceSummary trace : listTraces(TraceQuery.all())) {
+			spanDataList.add(new ListResponse(trace.traceId(), trace.spansSize(),
+					String.valueOf(trace.startTimeUnixNano()), String.valueOf(trace.endTimeUnixNano())));
 		}
-
 		return spanDataList;
 	}
 
@@ -226,7 +170,7 @@ public class StudioObservabilityServiceImpl implements StudioObservabilityServic
 	@Override
 	public String clearExportContent() {
 		try {
-			Files.deleteIfExists(outputPath);
+			spanStore.clear();
 			logger.log(Level.INFO, "File content cleared.");
 			return "File content cleared successfully.";
 		}
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.oltp.store;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @since 2025/6/27
+ */
+class SpanStoreTest {
+
+	private static final long MB = 1024 * 1024;
+
+	private static final long BASE_TIME = 1_750_000_000_000_000_000L;
+
+	private static final String[] SPAN_NAMES = { "chat", "embedding", "tool_call", "retrieve", "http get" };
+
+	@TempDir
+	Path directory;
+
+	/**
+	 * 100k traces of 10 spans each, exported in batches holding the spans of 10 traces.
+	 */
+	@Test
+	void queriesOverAMillionSpansReadOnlyTheirResult() throws IOException {
+		SpanStore store = new SpanStore(directory, 32 * MB, Duration.ofDays(7), 1024 * MB, List.of("spring.ai"));
+		int traceCount = 100_000;
+		List<String> batch = new ArrayList<>();
+		for (int trace = 0; trace < traceCount; trace += 10) {
+			batch.add(resourceSpans(service(trace), trace, 10, 10));
+			if (batch.size() == 100) {
+				store.append(batch);
+				batch.clear();
+			}
+		}
+		store.append(batch);
+
+		assertThat(store.getSpanCount()).isEqualTo(1_000_000);
+		assertThat(store.getTraceCount()).isEqualTo(traceCount);
+		assertThat(store.getSegmentCount()).isGreaterThan(1);
+
+		long start = System.nanoTime();
+		for (int i = 0; i < 1000; i++) {
+			int trace = (i * 7919) % traceCount;
+			List<JsonNode> spans = store.getTrace(traceId(trace));
+			assertThat(spans).hasSize(1);
+			assertThat(spans.get(0).at("/scopeSpans/0/spans")).hasSize(10)
+				.allSatisfy(span -> assertThat(span.path("traceId").asText()).isEqualTo(traceId(trace)));
+		}
+		List<TraceSummary> latest = store.findTraces(new TraceQuery("service-b", null, null, null, 20));
+		List<TraceSummary> named = store.findTraces(new TraceQuery(null, "tool_call", null, null, 20));
+		List<TraceSummary> window = store
+			.findTraces(new TraceQuery(null, null, startTime(5_000), startTime(5_009), Integer.MAX_VALUE));
+		long elapsed = System.nanoTime() - start;
+
+		assertThat(latest).hasSize(20).allSatisfy(trace -> assertThat(trace.serviceName()).isEqualTo("service-b"));
+		assertThat(latest.get(0).traceId()).isEqualTo(traceId(traceCount - 1));
+		assertThat(latest.get(0).spansSize()).isEqualTo(10);
+		assertThat(named).hasSize(20);
+		assertThat(window).extracting(TraceSummary::traceId)
+			.containsExactly(traceId(5_009), traceId(5_008), traceId(5_007), traceId(5_006), traceId(5_005),
+					traceId(5_004), traceId(5_003), traceId(5_002), traceId(5_001), traceId(5_000));
+		// re-reading the segments for every lookup would take minutes
+		assertThat(Duration.ofNanos(elapsed)).isLessThan(Duration.ofSeconds(10));
+
+		// another store on the same directory, like the one of the console, indexes the
+		// segments once and answers the same
+		SpanStore reader = new SpanStore(directory, 32 * MB, Duration.ofDays(7), 1024 * MB, List.of("spring.ai"));
+		assertThat(reader.getSpanCount()).isEqualTo(1_000_000);
+		assertThat(reader.findTraces(new TraceQuery("service-b", null, null, null, 20))).isEqualTo(latest);
+	}
+
+	@Test
+	void traceExportedInSeveralBatchesIsMerged() throws IOException {
+		SpanStore store = new SpanStore(directory, MB, Duration.ofDays(7), 10 * MB, List.of("spring.ai"));
+		store.append(List.of(resourceSpans("service-a", 0, 2, 3)));
+		store.append(List.of(resourceSpans("service-a", 1, 1, 2)));
+
+		List<TraceSummary> traces = store.findTraces(TraceQuery.all());
+		assertThat(traces).extracting(TraceSummary::traceId).containsExactly(traceId(1), traceId(0));
+		assertThat(traces.get(0).spansSize()).isEqualTo(5);
+
+		List<JsonNode> trace = store.getTrace(traceId(1));
+		assertThat(trace).hasSize(2);
+		assertThat(trace.get(0).at("/scopeSpans/0/spans")).hasSize(3);
+		assertThat(trace.get(1).at("/scopeSpans/0/spans")).hasSize(2);
+		assertThat(store.getTrace("unknown")).isEmpty();
+	}
+
+	@Test
+	void markedResourceSpansAreReadWithoutScanning() throws IOException {
+		SpanStore store = new SpanStore(directory, MB, Duration.ofDays(7), 10 * MB, List.of("gen_ai.operation"));
+		store.append(List.of(resourceSpans("service-a", 0, 1, 2), resourceSpans("service-a", 1, 1, 2)
+			.replace("\"attributes\":[]", "\"attributes\":[{\"key\":\"gen_ai.operation.name\"}]")));
+
+		assertThat(store.readAll()).hasSize(2);
+		assertThat(store.readMarkedResourceSpans()).hasSize(1)
+			.allSatisfy(resourceSpans -> assertThat(resourceSpans.at("/scopeSpans/0/spans/0/traceId").asText())
+				.isEqualTo(traceId(1)));
+	}
+
+	@Test
+	void segmentsAreRotatedAndTheOldestDeletedBeyondTheRetainedSize() throws IOException {
+		String line = resourceSpans("service-a", 0, 1, 10);
+		long lineBytes = line.length() + 1;
+		SpanStore store = new SpanStore(directory, 4 * lineBytes, Duration.ofDays(7), 12 * lineBytes, List.of());
+		for (int trace = 0; trace < 40; trace++) {
+			store.append(List.of(resourceSpans("service-a", trace, 1, 10)));
+		}
+
+		assertThat(segmentFiles()).hasSizeLessThanOrEqualTo(5);
+		assertThat(store.getTrace(traceId(0))).isEmpty();
+		assertThat(store.getTrace(traceId(39))).hasSize(1);
+		assertThat(store.getSpanCount()).isEqualTo(store.getTraceCount() * 10L).isLessThanOrEqualTo(16 * 10);
+		assertThat(store.findTraces(TraceQuery.all())).hasSize(store.getTraceCount());
+	}
+
+	@Test
+	void segmentsOlderThanTheRetentionAreDeleted() throws IOException {
+		String line = resourceSpans("service-a", 0, 1, 10);
+		SpanStore store = new SpanStore(directory, line.length() + 1, Duration.ofHours(1), 1024 * MB, List.of());
+		store.append(List.of(line));
+		store.append(List.of(resourceSpans("service-a", 1, 1, 10)));
+		for (Path file : segmentFiles()) {
+			Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+		}
+
+		store.append(List.of(resourceSpans("service-a", 2, 1, 10)));
+
+		assertThat(segmentFiles()).hasSize(1);
+		assertThat(store.findTraces(TraceQuery.all())).extracting(TraceSummary::traceId).containsExactly(traceId(2));
+	}
+
+	@Test
+	void storesSharingADirectorySeeEachOthersChanges() throws IOException {
+		SpanStore writer = new SpanStore(directory, MB, Duration.ofDays(7), 10 * MB, List.of());
+		SpanStore reader = new SpanStore(directory, MB, Duration.ofDays(7), 10 * MB, List.of());
+		writer.append(List.of(resourceSpans("service-a", 0, 1, 3)));
+		assertThat(reader.getTraceCount()).isEqualTo(1);
+
+		// a batch being written is indexed once its line is complete
+		Path segment = segmentFiles().get(0);
+		String line = resourceSpans("service-a", 1, 1, 3);
+		Files.writeString(segment, line.substring(0, 20), StandardOpenOption.APPEND);
+		assertThat(reader.getTraceCount()).isEqualTo(1);
+		Files.writeString(segment, line.substring(20) + "\n", StandardOpenOption.APPEND);
+		assertThat(reader.getTraceCount()).isEqualTo(2);
+
+		reader.clear();
+		assertThat(writer.getTraceCount()).isZero();
+		writer.append(List.of(resourceSpans("service-a", 2, 1, 3)));
+		assertThat(reader.findTraces(TraceQuery.all())).extracting(TraceSummary::traceId).containsExactly(traceId(2));
+	}
+
+	private List<Path> segmentFiles() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.sorted().toList();
+		}
+	}
+
+	private static String service(int trace) {
+		return trace % 20 < 10 ? "service-a" : "service-b";
+	}
+
+	private static String traceId(int trace) {
+		return String.format("%032x", trace);
+	}
+
+	private static long startTime(int trace) {
+		return BASE_TIME + trace * 1_000_000L;
+	}
+
+	/**
+	 * One {@code ResourceSpans} with the spans of consecutive traces. The first span of a
+	 * trace is its root span.
+	 */
+	private static String resourceSpans(String service, int firstTrace, int traces, int spansPerTrace) {
+		StringBuilder json = new StringBuilder(256 * traces * spansPerTrace);
+		json.append("{\"resource\":{\"attributes\":[{\"key\":\"service.name\",\"value\":{\"stringValue\":\"")
+			.append(service)
+			.append("\"}}]},\"scopeSpans\":[{\"scope\":{\"name\":\"test\"},\"spans\":[");
+		for (int trace = firstTrace; trace < firstTrace + traces; trace++) {
+			for (int span = 0; span < spansPerTrace; span++) {
+				if (trace != firstTrace || span != 0) {
+					json.append(',');
+				}
+				long start = startTime(trace) + span;
+				json.append("{\"traceId\":\"").append(traceId(trace)).append("\",\"spanId\":\"");
+				json.append(String.format("%016x", (long) trace * spansPerTrace + span)).append('"');
+				if (span > 0) {
+					json.append(",\"parentSpanId\":\"").append(String.format("%016x", (long) trace * spansPerTrace));
+					json.append('"');
+				}
+				json.append(",\"name\":\"").append(SPAN_NAMES[(trace + span) % SPAN_NAMES.length]);
+				json.append("\",\"startTimeUnixNano\":\"").append(start);
+				json.append("\",\"endTimeUnixNano\":\"").append(start + 500).append("\",\"attributes\":[]}");
+			}
+		}
+		return json.append("]}]}").toString();
+	}
+
+}